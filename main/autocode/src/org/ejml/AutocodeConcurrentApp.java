@@ -59,6 +59,9 @@ public class AutocodeConcurrentApp {
                 "main/ejml-ddense/src/org/ejml/dense/block/decomposition/hessenberg",
                 "main/ejml-ddense/src/org/ejml/dense/block/linsol/chol",
                 "main/ejml-ddense/src/org/ejml/dense/block/linsol/qr",
+                "main/ejml-zdense/src/org/ejml/dense/row/mult",
+                "main/ejml-zdense/src/org/ejml/dense/row/misc",
+                "main/ejml-zdense/src/org/ejml/dense/row/decompose/qr",
         };
 
         String[] files = new String[]{
@@ -66,6 +66,8 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         prefix32.add("FScalar");
         prefix64.add("DMatrix");
         prefix32.add("FMatrix");
+        prefix64.add("DVector");
+        prefix32.add("FVector");
         prefix64.add("ZMatrix");
         prefix32.add("CMatrix");
         prefix64.add("DEigen");
@@ -83,6 +85,9 @@ public class GenerateJavaCode32 extends GenerateCode32 {
             prefix32.add("Test"+prefix32.get(i));
         }
 
+        // Off-heap storage and its arena are only implemented for doubles
+        blacklist.add("OffHeap");
+
         converter.markAsAutoGenerated = true;
 
         converter.replacePattern("DoubleStep", "FIXED_STEP");
@@ -106,6 +111,7 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         converter.replacePattern("DConvert", "FConvert");
         converter.replacePattern("DGrowArray", "FGrowArray");
         converter.replacePattern("DMatrix", "FMatrix");
+        converter.replacePattern("DVector", "FVector");
         converter.replacePattern("DSubmatrix", "FSubmatrix");
         converter.replacePattern("DEigen", "FEigen");
         converter.replacePattern("ZComplex", "CComplex");
@@ -62,6 +62,11 @@ public class LinearSolverSafe<T extends ReshapeMatrix> implements LinearSolverDe
         return alg.quality();
     }
 
+    @Override
+    public /**/double rcond() {
+        return alg.rcond();
+    }
+
     @Override
     public void solve( T B, T X ) {
         if (alg.modifiesB()) {
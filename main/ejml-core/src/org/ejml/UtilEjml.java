@@ -33,6 +33,7 @@ import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Various functions that are useful but don't have a clear location that they belong in.
@@ -119,6 +120,22 @@ public class UtilEjml {
         return a;
     }
 
+    /**
+     * If the input matrix is null a new matrix is created and returned. If it exists it will be reshaped and returned.
+     *
+     * @param a (Input/Output) matrix which is to be checked. Can be null.
+     * @param rows Desired number of rows
+     * @param cols Desired number of cols
+     * @return modified matrix or new matrix
+     */
+    public static BMatrixBits reshapeOrDeclare( @Nullable BMatrixBits a, int rows, int cols ) {
+        if (a == null)
+            return new BMatrixBits(rows, cols);
+        else if (a.numRows != rows || a.numCols != cols)
+            a.reshape(rows, cols);
+        return a;
+    }
+
     /**
      * If the input matrix is null a new matrix is created and returned. If it exists it will be reshaped and returned.
      *
@@ -449,6 +466,14 @@ public class UtilEjml {
         }
     }
 
+    /**
+     * Returns a value from 0 (inclusive) to 1 (exclusive), the same as {@link SplittableRandom#nextDouble()}.
+     * Code which is converted into 32-bit should call this since SplittableRandom has no nextFloat() in Java 8.
+     */
+    public static double uniform( SplittableRandom rand ) {
+        return rand.nextDouble();
+    }
+
     public static int[] pivotVector( int[] pivots, int length, @Nullable IGrowArray storage ) {
         if (storage == null) storage = new IGrowArray();
         storage.reshape(length);
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * <p>
+ * Runs short micro benchmarks to select the thresholds and block sizes in a {@link ConcurrencyProfile} for
+ * the current hardware. For each operation the single threaded and concurrent implementations are timed across
+ * a range of sizes and the threshold is set to the largest size at which the single threaded version was still
+ * competitive. Block widths are selected by timing a block algorithm with each candidate width.
+ * </p>
+ *
+ * <p>
+ * Which operations are calibrated is specified by the caller, e.g. ConcurrencyCalibration_DDRM.addAll(tuner).
+ * Tuning takes several seconds so it's intended to be run once with the results saved, see {@link #loadOrTune}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyAutotuner {
+    /** Sizes, in number of elements, which are considered for the threshold. Must be increasing. */
+    public int[] sizes = new int[]{1_000, 4_000, 16_000, 50_000, 150_000, 500_000};
+
+    /** Candidate values for block widths */
+    public int[] blockWidths = new int[]{16, 20, 24, 32, 48, 60, 64, 96, 128};
+
+    /** Number of times each benchmark is run. The fastest time is used. */
+    public int trials = 5;
+
+    /** The concurrent implementation needs to be this fraction faster before it's selected */
+    public double margin = 0.1;
+
+    // Operations which are to be calibrated
+    final List<Calibration> calibrations = new ArrayList<>();
+
+    // Creates a benchmark for the specified block width
+    @Nullable IntFunction<Runnable> blockWidthBenchmark;
+    @Nullable IntFunction<Runnable> blockWidthCholBenchmark;
+
+    /**
+     * Adds an operation whose threshold will be calibrated
+     */
+    public void addCalibration( ConcurrentOperation op, IntFunction<Trial> factory ) {
+        calibrations.add(new Calibration(op, factory));
+    }
+
+    /**
+     * Specifies a benchmark which is used to select {@link ConcurrencyProfile#blockWidth}
+     */
+    public void setBlockWidthBenchmark( @Nullable IntFunction<Runnable> factory ) {
+        this.blockWidthBenchmark = factory;
+    }
+
+    /**
+     * Specifies a benchmark which is used to select {@link ConcurrencyProfile#blockWidthChol}
+     */
+    public void setBlockWidthCholBenchmark( @Nullable IntFunction<Runnable> factory ) {
+        this.blockWidthCholBenchmark = factory;
+    }
+
+    /**
+     * Runs all the benchmarks and returns the resulting profile. Values which were not calibrated are copied
+     * from the current global settings. If concurrency is disabled then thresholds are not modified.
+     */
+    public ConcurrencyProfile tune() {
+        ConcurrencyProfile profile = ConcurrencyProfile.current();
+
+        if (EjmlConcurrency.isUseConcurrent()) {
+            for (Calibration c : calibrations) {
+                double[] timeSingle = new double[sizes.length];
+                double[] timeConcurrent = new double[sizes.length];
+                for (int i = 0; i < sizes.length; i++) {
+                    Trial trial = c.factory.apply(sizes[i]);
+                    timeSingle[i] = time(trial::single);
+                    timeConcurrent[i] = time(trial::concurrent);
+                }
+                profile.setThreshold(c.op, selectThreshold(sizes, timeSingle, timeConcurrent, margin));
+            }
+        }
+
+        if (blockWidthBenchmark != null)
+            profile.blockWidth = selectFastest(blockWidthBenchmark);
+        if (blockWidthCholBenchmark != null)
+            profile.blockWidthChol = selectFastest(blockWidthCholBenchmark);
+
+        return profile;
+    }
+
+    /**
+     * If the file exists the profile is loaded from it, otherwise the benchmarks are run and the results saved
+     * to the file. In both cases the profile is then applied.
+     */
+    public ConcurrencyProfile loadOrTune( File file ) throws IOException {
+        ConcurrencyProfile profile;
+        if (file.isFile()) {
+            profile = ConcurrencyProfile.load(file);
+        } else {
+            profile = tune();
+            profile.save(file);
+        }
+        profile.apply();
+        return profile;
+    }
+
+    /**
+     * Returns the threshold given the processing times at each size. Sizes above the threshold must be
+     * faster with the concurrent implementation.
+     *
+     * @return The threshold. 0 if concurrent is always faster and Integer.MAX_VALUE if it's never faster.
+     */
+    static int selectThreshold( int[] sizes, double[] timeSingle, double[] timeConcurrent, double margin ) {
+        // Search backwards to find the largest size where concurrent isn't better
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            if (timeConcurrent[i] >= timeSingle[i]*(1.0 - margin)) {
+                return i == sizes.length - 1 ? Integer.MAX_VALUE : sizes[i];
+            }
+        }
+        return 0;
+    }
+
+    int selectFastest( IntFunction<Runnable> factory ) {
+        int best = blockWidths[0];
+        double bestTime = Double.MAX_VALUE;
+        for (int width : blockWidths) {
+            double t = time(factory.apply(width));
+            if (t < bestTime) {
+                bestTime = t;
+                best = width;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the fastest time, in nano seconds, after warming up
+     */
+    double time( Runnable benchmark ) {
+        benchmark.run();
+        long best = Long.MAX_VALUE;
+        for (int trial = 0; trial < trials; trial++) {
+            long before = System.nanoTime();
+            benchmark.run();
+            best = Math.min(best, System.nanoTime() - before);
+        }
+        return best;
+    }
+
+    /**
+     * Single threaded and concurrent implementations of an operation for a specific problem size
+     */
+    public interface Trial {
+        void single();
+
+        void concurrent();
+    }
+
+    /**
+     * Creates a trial from two functions
+     */
+    public static Trial trial( Runnable single, Runnable concurrent ) {
+        return new Trial() {
+            @Override public void single() {single.run();}
+
+            @Override public void concurrent() {concurrent.run();}
+        };
+    }
+
+    static class Calibration {
+        final ConcurrentOperation op;
+        final IntFunction<Trial> factory;
+
+        Calibration( ConcurrentOperation op, IntFunction<Trial> factory ) {
+            this.op = op;
+            this.factory = factory;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import org.ejml.EjmlParameters;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * <p>
+ * Tuning parameters which decide when concurrent algorithms are used and how problems are broken up into blocks.
+ * A profile can be saved to a file, loaded, and then {@link #apply() applied} globally. Profiles are never loaded
+ * automatically, see {@link EjmlConcurrency#loadProfile}. Profiles are typically created using
+ * {@link ConcurrencyAutotuner}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyProfile {
+    /** Suggested location for saving the profile of the current machine */
+    public static final String DEFAULT_PATH = System.getProperty("user.home", ".") +
+            File.separator + ".ejml" + File.separator + "concurrency.properties";
+
+    /** Threshold used by operations which don't specify their own. See {@link EjmlConcurrency#ELEMENT_THRESHOLD} */
+    public int elementThreshold = 50_000;
+
+    /** Threshold for each operation, indexed by ordinal. If negative then {@link #elementThreshold} is used. */
+    public final int[] thresholds = new int[ConcurrentOperation.values().length];
+
+    /** See {@link EjmlParameters#BLOCK_WIDTH} */
+    public int blockWidth = 60;
+
+    /** See {@link EjmlParameters#BLOCK_WIDTH_CHOL} */
+    public int blockWidthChol = 20;
+
+    public ConcurrencyProfile() {
+        Arrays.fill(thresholds, -1);
+    }
+
+    /**
+     * Creates a profile from the current global settings
+     */
+    public static ConcurrencyProfile current() {
+        var profile = new ConcurrencyProfile();
+        profile.elementThreshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        for (ConcurrentOperation op : ConcurrentOperation.values()) {
+            profile.thresholds[op.ordinal()] = EjmlConcurrency.getThreshold(op);
+        }
+        profile.blockWidth = EjmlParameters.BLOCK_WIDTH;
+        profile.blockWidthChol = EjmlParameters.BLOCK_WIDTH_CHOL;
+        return profile;
+    }
+
+    /**
+     * Changes the global settings to match this profile
+     */
+    public void apply() {
+        EjmlConcurrency.ELEMENT_THRESHOLD = elementThreshold;
+        for (ConcurrentOperation op : ConcurrentOperation.values()) {
+            EjmlConcurrency.setThreshold(op, thresholds[op.ordinal()]);
+        }
+        EjmlParameters.BLOCK_WIDTH = blockWidth;
+        EjmlParameters.BLOCK_WIDTH_CHOL = blockWidthChol;
+    }
+
+    /**
+     * Returns the threshold for the operation. If one has not been specified then {@link #elementThreshold}
+     * is returned.
+     */
+    public int getThreshold( ConcurrentOperation op ) {
+        int value = thresholds[op.ordinal()];
+        return value < 0 ? elementThreshold : value;
+    }
+
+    public void setThreshold( ConcurrentOperation op, int threshold ) {
+        thresholds[op.ordinal()] = threshold;
+    }
+
+    public void setTo( ConcurrencyProfile src ) {
+        this.elementThreshold = src.elementThreshold;
+        System.arraycopy(src.thresholds, 0, thresholds, 0, thresholds.length);
+        this.blockWidth = src.blockWidth;
+        this.blockWidthChol = src.blockWidthChol;
+    }
+
+    /**
+     * Saves the profile in a Java properties file
+     */
+    public void save( File file ) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+            throw new IOException("Failed to create directory " + parent.getPath());
+
+        try (var writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            save(writer);
+        }
+    }
+
+    public void save( Writer writer ) throws IOException {
+        var properties = new Properties();
+        properties.setProperty("element_threshold", Integer.toString(elementThreshold));
+        for (ConcurrentOperation op : ConcurrentOperation.values()) {
+            int value = thresholds[op.ordinal()];
+            if (value >= 0)
+                properties.setProperty("threshold." + op.name(), Integer.toString(value));
+        }
+        properties.setProperty("block_width", Integer.toString(blockWidth));
+        properties.setProperty("block_width_chol", Integer.toString(blockWidthChol));
+        properties.store(writer, "EJML concurrency profile");
+    }
+
+    /**
+     * Loads a profile which was saved using {@link #save}. Values which are not in the file will have their
+     * default values.
+     */
+    public static ConcurrencyProfile load( File file ) throws IOException {
+        try (var reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    public static ConcurrencyProfile load( Reader reader ) throws IOException {
+        var properties = new Properties();
+        properties.load(reader);
+
+        var profile = new ConcurrencyProfile();
+        profile.elementThreshold = parse(properties, "element_threshold", profile.elementThreshold);
+        for (ConcurrentOperation op : ConcurrentOperation.values()) {
+            profile.thresholds[op.ordinal()] = parse(properties, "threshold." + op.name(), -1);
+        }
+        profile.blockWidth = parse(properties, "block_width", profile.blockWidth);
+        profile.blockWidthChol = parse(properties, "block_width_chol", profile.blockWidthChol);
+
+        if (profile.blockWidth <= 0 || profile.blockWidthChol <= 0)
+            throw new IOException("Block widths must be positive");
+        return profile;
+    }
+
+    private static int parse( Properties properties, String key, int defaultValue ) throws IOException {
+        String value = properties.getProperty(key);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad value for '" + key + "': " + value);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+/**
+ * Operations which have their own threshold for when to switch to a concurrent implementation. The break even
+ * point varies by orders of magnitude between operations so a single threshold isn't sufficient.
+ *
+ * <p>These thresholds are only consulted by front ends which select between a single threaded and a concurrent
+ * implementation, i.e. SimpleMatrix, SimpleExpression, and the Kotlin extensions. Classes and factories with
+ * _MT_ in their name, e.g. CommonOps_MT_DDRM, always use their concurrent implementation.</p>
+ *
+ * @see EjmlConcurrency#useConcurrent(ConcurrentOperation, org.ejml.data.Matrix)
+ * @see ConcurrencyProfile
+ */
+public enum ConcurrentOperation {
+    /** Dense matrix multiplication. Size is the number of elements in the left matrix. */
+    DENSE_MULT,
+    /** Dense matrix multiplication with the left matrix transposed. Size is the number of elements in A. */
+    DENSE_MULT_TRANS_A,
+    /** Dense transpose. Size is the number of elements in the input matrix. */
+    DENSE_TRANSPOSE,
+    /** Dense QR decomposition, e.g. when solving least-squares. Size is the number of elements in the matrix. */
+    DENSE_QR,
+    /** Sparse-sparse matrix multiplication. Size is the number of non-zero elements in the left matrix. */
+    SPARSE_MULT,
+    /** Sparse-dense matrix multiplication. Size is the number of non-zero elements in the sparse matrix. */
+    SPARSE_MULT_DENSE,
+    /** Sparse matrix addition. Size is the number of non-zero elements in the first matrix. */
+    SPARSE_ADD
+}
@@ -20,6 +20,11 @@ package org.ejml.concurrency;
 import org.ejml.data.Matrix;
 import org.ejml.data.MatrixSparse;
 import pabeles.concurrency.ConcurrencyOps;
+import pabeles.concurrency.ConcurrencyScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Central class for controlling concurrency in EJML.
@@ -33,6 +38,49 @@ public class EjmlConcurrency extends ConcurrencyOps {
 	/** Minimum number of elements in a matrix before it will switch to concurrent implementation */
 	public static int ELEMENT_THRESHOLD = 50_000;
 
+	// Threshold for each operation. If negative then ELEMENT_THRESHOLD is used
+	private static final int[] thresholds = new int[ConcurrentOperation.values().length];
+
+	static {
+		Arrays.fill(thresholds, -1);
+	}
+
+	/**
+	 * Loads a profile and applies it globally. Profiles are never loaded automatically, this needs to be called
+	 * by the application.
+	 *
+	 * @param file Profile which was saved using {@link ConcurrencyProfile#save(File)}
+	 * @throws IOException If the file can't be read or contains invalid values. The settings are not modified.
+	 */
+	public static void loadProfile( File file ) throws IOException {
+		ConcurrencyProfile.load(file).apply();
+	}
+
+	/**
+	 * Specifies the threshold, in number of elements, for an operation to switch to a concurrent implementation.
+	 * See {@link ConcurrentOperation} for which code uses these thresholds.
+	 *
+	 * @param threshold The threshold. If negative then {@link #ELEMENT_THRESHOLD} is used.
+	 */
+	public static void setThreshold( ConcurrentOperation op, int threshold ) {
+		thresholds[op.ordinal()] = threshold;
+	}
+
+	/**
+	 * Returns the threshold which has been specified for this operation or -1 if {@link #ELEMENT_THRESHOLD} is used.
+	 */
+	public static int getThreshold( ConcurrentOperation op ) {
+		return thresholds[op.ordinal()];
+	}
+
+	/**
+	 * Returns the threshold which will be used for the operation
+	 */
+	public static int getEffectiveThreshold( ConcurrentOperation op ) {
+		int threshold = thresholds[op.ordinal()];
+		return threshold < 0 ? ELEMENT_THRESHOLD : threshold;
+	}
+
 	/**
 	 * Sets the maximum number of threads available in the thread pool and adjusts USE_CONCURRENT. If
 	 * the number of threads is less than 2 then USE_CONCURRENT will be set to false and the single thread
@@ -46,8 +94,16 @@ public class EjmlConcurrency extends ConcurrencyOps {
 		USE_CONCURRENT = maxThreads > 1;
 	}
 
+	/**
+	 * Returns true if concurrent implementations should be used by the current thread. A {@link ConcurrencyScope}
+	 * with more than one thread overrides {@link #USE_CONCURRENT}. Inside of a worker thread this will always
+	 * be false, which prevents nested concurrent operations from oversubscribing the CPU.
+	 */
 	public static boolean isUseConcurrent() {
-		return USE_CONCURRENT;
+		ConcurrencyScope scope = getScope();
+		if (scope == null)
+			return USE_CONCURRENT;
+		return !scope.isInline() && scope.getParallelism() > 1;
 	}
 
 	/**
@@ -55,7 +111,7 @@ public class EjmlConcurrency extends ConcurrencyOps {
 	 * is too small it should always use a single threaded implementation since the overhead will slow it down.
 	 */
 	public static boolean useConcurrent( MatrixSparse mat ) {
-		if (!USE_CONCURRENT)
+		if (!isUseConcurrent())
 			return false;
 
 		return mat.getNonZeroLength() > ELEMENT_THRESHOLD;
@@ -66,9 +122,31 @@ public class EjmlConcurrency extends ConcurrencyOps {
 	 * is too small it should always use a single threaded implementation since the overhead will slow it down.
 	 */
 	public static boolean useConcurrent( Matrix mat ) {
-		if (!USE_CONCURRENT)
+		if (!isUseConcurrent())
 			return false;
 
 		return mat.getNumRows()*mat.getNumCols() > ELEMENT_THRESHOLD;
 	}
+
+	/**
+	 * Returns true if the operation should use the concurrent implementation. The size of the matrix is compared
+	 * against the threshold for this specific operation.
+	 */
+	public static boolean useConcurrent( ConcurrentOperation op, MatrixSparse mat ) {
+		if (!isUseConcurrent())
+			return false;
+
+		return mat.getNonZeroLength() > getEffectiveThreshold(op);
+	}
+
+	/**
+	 * Returns true if the operation should use the concurrent implementation. The size of the matrix is compared
+	 * against the threshold for this specific operation.
+	 */
+	public static boolean useConcurrent( ConcurrentOperation op, Matrix mat ) {
+		if (!isUseConcurrent())
+			return false;
+
+		return mat.getNumRows()*mat.getNumCols() > getEffectiveThreshold(op);
+	}
 }
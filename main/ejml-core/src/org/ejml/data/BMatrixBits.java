@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Dense matrix composed of boolean values which are packed into the bits of a long array. Compared to
+ * {@link BMatrixRMaj}, which uses a byte per element, it requires 1/8 the memory and bulk operations can process
+ * 64 elements at once.
+ * </p>
+ *
+ * <p>
+ * Elements are ordered in a row-major format and index 'i' is stored in bit (i%64) of data[i/64]. Bits after the
+ * last element in the last word are always zero, which allows operations such as {@link #sum()} to ignore
+ * the matrix shape.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BMatrixBits implements ReshapeMatrix {
+    /**
+     * Packed row-major array of bits.
+     */
+    public long[] data;
+    /**
+     * Number of rows in the matrix.
+     */
+    public int numRows;
+    /**
+     * Number of columns in the matrix.
+     */
+    public int numCols;
+
+    public BMatrixBits( int numRows, int numCols ) {
+        this.data = new long[numWords(numRows*numCols)];
+        this.numRows = numRows;
+        this.numCols = numCols;
+    }
+
+    public BMatrixBits( BMatrixRMaj original ) {
+        this(original.numRows, original.numCols);
+        setTo(original);
+    }
+
+    /**
+     * Number of words required to store the specified number of bits
+     */
+    public static int numWords( int numElements ) {
+        return (numElements + 63) >>> 6;
+    }
+
+    public int getNumElements() {
+        return numRows*numCols;
+    }
+
+    /**
+     * Number of words in 'data' which are used to store the matrix
+     */
+    public int getNumWords() {
+        return numWords(getNumElements());
+    }
+
+    public int getIndex( int row, int col ) {
+        return row*numCols + col;
+    }
+
+    /**
+     * Sets every element in the matrix to the specified value
+     *
+     * @param value new value of every element
+     */
+    public void fill( boolean value ) {
+        int words = getNumWords();
+        Arrays.fill(data, 0, words, value ? ~0L : 0L);
+        clearUnusedBits();
+    }
+
+    public boolean get( int index ) {
+        return (data[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets the element at the specified index in row-major order.
+     *
+     * @throws IllegalArgumentException If the index is outside the matrix. Setting one of the unused bits in
+     * the last word would corrupt {@link #sum()}.
+     */
+    public void set( int index, boolean value ) {
+        if (index < 0 || index >= getNumElements())
+            throw new IllegalArgumentException("Out of matrix bounds. " + index);
+        setBit(index, value);
+    }
+
+    private void setBit( int index, boolean value ) {
+        if (value)
+            data[index >>> 6] |= 1L << index;
+        else
+            data[index >>> 6] &= ~(1L << index);
+    }
+
+    public boolean get( int row, int col ) {
+        if (!isInBounds(row, col))
+            throw new IllegalArgumentException("Out of matrix bounds. " + row + " " + col);
+        return get(row*numCols + col);
+    }
+
+    public void set( int row, int col, boolean value ) {
+        if (!isInBounds(row, col))
+            throw new IllegalArgumentException("Out of matrix bounds. " + row + " " + col);
+        setBit(row*numCols + col, value);
+    }
+
+    public boolean unsafe_get( int row, int col ) {
+        return get(row*numCols + col);
+    }
+
+    public void unsafe_set( int row, int col, boolean value ) {
+        setBit(row*numCols + col, value);
+    }
+
+    /**
+     * Determines if the specified element is inside the bounds of the Matrix.
+     *
+     * @param row The element's row.
+     * @param col The element's column.
+     * @return True if it is inside the matrices bound, false otherwise.
+     */
+    public boolean isInBounds( int row, int col ) {
+        return (col >= 0 && col < numCols && row >= 0 && row < numRows);
+    }
+
+    /**
+     * Returns the total number of elements which are true.
+     *
+     * @return number of elements which are set to true
+     */
+    public int sum() {
+        int total = 0;
+        int words = getNumWords();
+        for (int i = 0; i < words; i++) {
+            total += Long.bitCount(data[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Zeros the bits in the last word which come after the last element
+     */
+    public void clearUnusedBits() {
+        int N = getNumElements();
+        int remainder = N & 63;
+        if (remainder != 0)
+            data[N >>> 6] &= (1L << remainder) - 1;
+    }
+
+    /**
+     * Copies the values from a {@link BMatrixRMaj} into this matrix
+     */
+    public void setTo( BMatrixRMaj original ) {
+        reshape(original.numRows, original.numCols);
+        int N = getNumElements();
+        for (int i = 0, w = 0; i < N; i += 64, w++) {
+            int length = Math.min(64, N - i);
+            long word = 0;
+            for (int bit = 0; bit < length; bit++) {
+                if (original.data[i + bit])
+                    word |= 1L << bit;
+            }
+            data[w] = word;
+        }
+    }
+
+    /**
+     * Copies the values in this matrix into a {@link BMatrixRMaj}
+     */
+    public void copyInto( BMatrixRMaj output ) {
+        output.reshape(numRows, numCols);
+        int N = getNumElements();
+        for (int i = 0; i < N; i++) {
+            output.data[i] = get(i);
+        }
+    }
+
+    /**
+     * Changes the matrix's shape. The value of each element is undefined after this function is called.
+     */
+    @Override
+    public void reshape( int numRows, int numCols ) {
+        int words = numWords(numRows*numCols);
+        if (data.length < words) {
+            data = new long[words];
+        }
+        this.numRows = numRows;
+        this.numCols = numCols;
+        clearUnusedBits();
+    }
+
+    @Override
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return numCols;
+    }
+
+    @Override
+    public void zero() {
+        Arrays.fill(data, 0, getNumWords(), 0L);
+    }
+
+    @Override
+    public <T extends Matrix> T copy() {
+        BMatrixBits ret = new BMatrixBits(numRows, numCols);
+        ret.setTo(this);
+        return (T)ret;
+    }
+
+    @Override
+    public void setTo( Matrix original ) {
+        if (original instanceof BMatrixRMaj) {
+            setTo((BMatrixRMaj)original);
+            return;
+        }
+        BMatrixBits orig = (BMatrixBits)original;
+
+        reshape(original.getNumRows(), original.getNumCols());
+        System.arraycopy(orig.data, 0, data, 0, orig.getNumWords());
+    }
+
+    @Override
+    public void print() {
+        System.out.println("Type = binary bits , numRows = " + numRows + " , numCols = " + numCols);
+        for (int row = 0; row < numRows; row++) {
+            for (int col = 0; col < numCols; col++) {
+                if (unsafe_get(row, col)) {
+                    System.out.print("+");
+                } else {
+                    System.out.print("-");
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    @Override
+    public void print( String format ) {
+        print();
+    }
+
+    @Override
+    public BMatrixBits createLike() {
+        return new BMatrixBits(numRows, numCols);
+    }
+
+    @Override
+    public BMatrixBits create( int numRows, int numCols ) {
+        return new BMatrixBits(numRows, numCols);
+    }
+
+    @Override
+    public MatrixType getType() {
+        return MatrixType.UNSPECIFIED;
+    }
+}
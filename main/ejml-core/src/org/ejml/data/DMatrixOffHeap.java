@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.ops.MatrixIO;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * <p>
+ * Dense row-major matrix which is stored outside of the Java heap. Memory is allocated in blocks of direct
+ * buffers, which lets the total number of elements exceed what a single array can hold and keeps large
+ * matrices from being scanned or moved by the garbage collector. Elements are addressed with a long index,
+ * index = row*numCols + col.
+ * </p>
+ *
+ * <p>
+ * Memory is released when {@link #close()} is called, or by the garbage collector if it never is. A matrix
+ * must not be used after it has been closed. See {@link OffHeapArena} for closing several matrices at once.
+ * Operations on this matrix type can be found in org.ejml.dense.offheap.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrixOffHeap implements ReshapeMatrix, AutoCloseable {
+    /** Default number of elements in a block, as a power of two. 2^27 doubles is 1 GB. */
+    public static final int DEFAULT_BLOCK_SHIFT = 27;
+
+    /** Largest block size, as a power of two. A direct buffer can't have more than Integer.MAX_VALUE bytes. */
+    public static final int MAX_BLOCK_SHIFT = 27;
+
+    /** Number of rows in the matrix */
+    public int numRows;
+    /** Number of columns in the matrix */
+    public int numCols;
+
+    /** Each block contains 2^blockShift elements, except for possibly the last */
+    final int blockShift;
+    final long blockMask;
+
+    // Storage for the elements. The raw buffers are kept so that they can be freed
+    ByteBuffer[] raw = new ByteBuffer[0];
+    DoubleBuffer[] blocks = new DoubleBuffer[0];
+    // Number of elements which can be stored without allocating more memory
+    long capacity;
+
+    // The arena which owns this matrix, if any
+    @Nullable OffHeapArena arena;
+
+    boolean closed;
+
+    /**
+     * Creates a new matrix with the specified block size
+     *
+     * @param blockShift Each block of memory contains 2^blockShift elements. 1 to {@link #MAX_BLOCK_SHIFT}, inclusive.
+     */
+    public DMatrixOffHeap( int numRows, int numCols, int blockShift ) {
+        if (numRows < 0 || numCols < 0)
+            throw new IllegalArgumentException("Matrix shape can't be negative. " + numRows + "x" + numCols);
+        if (blockShift < 1 || blockShift > MAX_BLOCK_SHIFT)
+            throw new IllegalArgumentException("blockShift must be from 1 to " + MAX_BLOCK_SHIFT + ", inclusive");
+        this.blockShift = blockShift;
+        this.blockMask = (1L << blockShift) - 1;
+        reshape(numRows, numCols);
+    }
+
+    public DMatrixOffHeap( int numRows, int numCols ) {
+        this(numRows, numCols, DEFAULT_BLOCK_SHIFT);
+    }
+
+    /**
+     * Creates a matrix which is a copy of the provided matrix
+     */
+    public DMatrixOffHeap( Matrix original ) {
+        this(original.getNumRows(), original.getNumCols());
+        setTo(original);
+    }
+
+    /**
+     * Changes the shape of the matrix. Memory is only allocated if the current capacity is exceeded, in which
+     * case the old contents are discarded.
+     */
+    @Override
+    public void reshape( int numRows, int numCols ) {
+        if (closed)
+            throw new IllegalStateException("Matrix has been closed");
+        if (numRows < 0 || numCols < 0)
+            throw new IllegalArgumentException("Matrix shape can't be negative. " + numRows + "x" + numCols);
+        long length = (long)numRows*numCols;
+        if (length > capacity) {
+            free();
+            allocate(length);
+        }
+        this.numRows = numRows;
+        this.numCols = numCols;
+    }
+
+    private void allocate( long length ) {
+        long blockLength = 1L << blockShift;
+        int numBlocks = (int)((length + blockLength - 1) >>> blockShift);
+        raw = new ByteBuffer[numBlocks];
+        blocks = new DoubleBuffer[numBlocks];
+        for (int i = 0; i < numBlocks; i++) {
+            long elements = Math.min(blockLength, length - i*blockLength);
+            raw[i] = ByteBuffer.allocateDirect((int)(elements*8)).order(ByteOrder.nativeOrder());
+            blocks[i] = raw[i].asDoubleBuffer();
+        }
+        capacity = length;
+    }
+
+    /** Returns the value of the element at the specified row-major index */
+    public double get( long index ) {
+        return blocks[(int)(index >>> blockShift)].get((int)(index & blockMask));
+    }
+
+    /** Sets the value of the element at the specified row-major index */
+    public void set( long index, double value ) {
+        blocks[(int)(index >>> blockShift)].put((int)(index & blockMask), value);
+    }
+
+    public double get( int row, int col ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Specified element is out of bounds: (" + row + " , " + col + ")");
+        return get((long)row*numCols + col);
+    }
+
+    public void set( int row, int col, double value ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Specified element is out of bounds: (" + row + " , " + col + ")");
+        set((long)row*numCols + col, value);
+    }
+
+    public double unsafe_get( int row, int col ) {
+        return get((long)row*numCols + col);
+    }
+
+    public void unsafe_set( int row, int col, double value ) {
+        set((long)row*numCols + col, value);
+    }
+
+    /**
+     * Copies a sequence of elements into an array
+     *
+     * @param index Row-major index of the first element
+     * @param dst (Output) Array the elements are written into
+     * @param offset First element in dst which is written to
+     * @param length Number of elements copied
+     */
+    public void read( long index, double[] dst, int offset, int length ) {
+        while (length > 0) {
+            DoubleBuffer block = blocks[(int)(index >>> blockShift)].duplicate();
+            int position = (int)(index & blockMask);
+            int n = Math.min(length, block.capacity() - position);
+            block.position(position);
+            block.get(dst, offset, n);
+            index += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Copies elements from an array into the matrix
+     *
+     * @param index Row-major index of the first element which is written to
+     * @param src (Input) Array the elements are copied from
+     * @param offset First element in src which is copied
+     * @param length Number of elements copied
+     */
+    public void write( long index, double[] src, int offset, int length ) {
+        while (length > 0) {
+            DoubleBuffer block = blocks[(int)(index >>> blockShift)].duplicate();
+            int position = (int)(index & blockMask);
+            int n = Math.min(length, block.capacity() - position);
+            block.position(position);
+            block.put(src, offset, n);
+            index += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /** Copies the specified row into the array, which must have at least numCols elements */
+    public void getRow( int row, double[] dst ) {
+        read((long)row*numCols, dst, 0, numCols);
+    }
+
+    /** Copies the array into the specified row */
+    public void setRow( int row, double[] src ) {
+        write((long)row*numCols, src, 0, numCols);
+    }
+
+    /** Sets every element in the matrix to the specified value */
+    public void fill( double value ) {
+        long length = getNumElements();
+        for (int i = 0; i < blocks.length && length > 0; i++) {
+            DoubleBuffer block = blocks[i];
+            int n = (int)Math.min(block.capacity(), length);
+            for (int j = 0; j < n; j++) {
+                block.put(j, value);
+            }
+            length -= n;
+        }
+    }
+
+    /** Number of elements in the matrix */
+    public long getNumElements() {
+        return (long)numRows*numCols;
+    }
+
+    /** Number of bytes of memory allocated outside of the heap */
+    public long getAllocatedBytes() {
+        return capacity*8;
+    }
+
+    /** Each block of memory contains 2^blockShift elements */
+    public int getBlockShift() {
+        return blockShift;
+    }
+
+    /** Returns true if the memory has been released by {@link #close()} */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Releases the memory used by this matrix. The matrix must not be used after this has been called.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        free();
+        if (arena != null) {
+            OffHeapArena arena = this.arena;
+            this.arena = null;
+            arena.forget(this);
+        }
+    }
+
+    private void free() {
+        for (ByteBuffer b : raw) {
+            freeDirect(b);
+        }
+        raw = new ByteBuffer[0];
+        blocks = new DoubleBuffer[0];
+        capacity = 0;
+    }
+
+    @Override public int getNumRows() {return numRows;}
+
+    @Override public int getNumCols() {return numCols;}
+
+    @Override public void zero() {fill(0.0);}
+
+    @Override
+    public <T extends Matrix> T copy() {
+        DMatrixOffHeap ret = createLike();
+        ret.setTo(this);
+        return (T)ret;
+    }
+
+    /**
+     * Creates a matrix with the same block size. If this matrix belongs to an arena, so will the new one.
+     */
+    @Override
+    public DMatrixOffHeap createLike() {
+        return create(numRows, numCols);
+    }
+
+    @Override
+    public DMatrixOffHeap create( int numRows, int numCols ) {
+        if (arena != null)
+            return arena.create(numRows, numCols, blockShift);
+        return new DMatrixOffHeap(numRows, numCols, blockShift);
+    }
+
+    @Override
+    public void setTo( Matrix original ) {
+        reshape(original.getNumRows(), original.getNumCols());
+
+        if (original instanceof DMatrixOffHeap) {
+            DMatrixOffHeap src = (DMatrixOffHeap)original;
+            double[] buffer = new double[(int)Math.min(4096, getNumElements())];
+            long length = getNumElements();
+            for (long index = 0; index < length; index += buffer.length) {
+                int n = (int)Math.min(buffer.length, length - index);
+                src.read(index, buffer, 0, n);
+                write(index, buffer, 0, n);
+            }
+        } else if (original instanceof DMatrixRMaj) {
+            DMatrixRMaj src = (DMatrixRMaj)original;
+            write(0, src.data, 0, src.getNumElements());
+        } else {
+            DMatrix src = (DMatrix)original;
+            long index = 0;
+            for (int i = 0; i < numRows; i++) {
+                for (int j = 0; j < numCols; j++) {
+                    set(index++, src.get(i, j));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void print() {
+        print(MatrixIO.DEFAULT_FLOAT_FORMAT);
+    }
+
+    @Override
+    public void print( String format ) {
+        print(System.out, format);
+    }
+
+    private void print( PrintStream out, String format ) {
+        out.println("Type = " + getClass().getSimpleName() + " , rows = " + numRows + " , cols = " + numCols);
+        format += " ";
+        for (int row = 0; row < numRows; row++) {
+            for (int col = 0; col < numCols; col++) {
+                out.printf(format, unsafe_get(row, col));
+            }
+            out.println();
+        }
+    }
+
+    @Override
+    public String toString() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        print(new PrintStream(stream), MatrixIO.DEFAULT_FLOAT_FORMAT);
+        return stream.toString();
+    }
+
+    @Override
+    public MatrixType getType() {
+        return MatrixType.UNSPECIFIED;
+    }
+
+    //---------------------------- Releasing direct memory ----------------------------------------
+    // Java 9 and later expose Unsafe.invokeCleaner(), Java 8 requires going through the buffer's cleaner.
+    // If neither is available the memory is released when the garbage collector gets to the buffer.
+
+    private static @Nullable Object unsafe;
+    private static @Nullable Method invokeCleaner;
+
+    static {
+        try {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            invokeCleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Exception | LinkageError ignore) {
+            invokeCleaner = null;
+        }
+    }
+
+    static void freeDirect( ByteBuffer buffer ) {
+        try {
+            if (invokeCleaner != null) {
+                invokeCleaner.invoke(unsafe, buffer);
+            } else {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null)
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception | LinkageError ignore) {
+            // leave it to the garbage collector
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.ops.MatrixIO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * <p>
+ * A row-major view into an array with an arbitrary distance between rows, the same as a leading dimension
+ * (lda) in BLAS. Element (i,j) is stored at data[offset + i*stride + j]. This can describe a block inside of a
+ * larger {@link DMatrixRMaj} without copying it, and writes to the view modify the original matrix.
+ * </p>
+ *
+ * <p>
+ * Kernels which accept views can be found in org.ejml.dense.row.strided.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrixStrided implements DMatrix {
+    /** Array the elements are stored in. Typically shared with another matrix. */
+    public double[] data;
+    /** Index of element (0,0) in data */
+    public int offset;
+    /** Distance between the start of two adjacent rows. Must be &ge; numCols */
+    public int stride;
+
+    public int numRows;
+    public int numCols;
+
+    public DMatrixStrided( double[] data, int offset, int stride, int numRows, int numCols ) {
+        setTo(data, offset, stride, numRows, numCols);
+    }
+
+    /**
+     * Creates a view of the entire matrix
+     */
+    public DMatrixStrided( DMatrixRMaj original ) {
+        this(original.data, 0, original.numCols, original.numRows, original.numCols);
+    }
+
+    /**
+     * Creates a view of a block inside of the matrix.
+     *
+     * @param row0 First row in the block
+     * @param col0 First column in the block
+     */
+    public DMatrixStrided( DMatrixRMaj original, int row0, int col0, int numRows, int numCols ) {
+        if (row0 < 0 || col0 < 0 || row0 + numRows > original.numRows || col0 + numCols > original.numCols)
+            throw new IllegalArgumentException("Block is outside of the matrix");
+        setTo(original.data, row0*original.numCols + col0, original.numCols, numRows, numCols);
+    }
+
+    /**
+     * Creates a new matrix with its own storage
+     */
+    public DMatrixStrided( int numRows, int numCols ) {
+        this(new double[numRows*numCols], 0, numCols, numRows, numCols);
+    }
+
+    /**
+     * Changes what the view references
+     */
+    public void setTo( double[] data, int offset, int stride, int numRows, int numCols ) {
+        if (numRows < 0 || numCols < 0)
+            throw new IllegalArgumentException("Matrix shape can't be negative");
+        if (stride < numCols)
+            throw new IllegalArgumentException("stride must be at least numCols");
+        if (offset < 0 || (numRows > 0 && numCols > 0 && offset + (numRows - 1)*stride + numCols > data.length))
+            throw new IllegalArgumentException("View extends outside of the array");
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.numRows = numRows;
+        this.numCols = numCols;
+    }
+
+    /**
+     * Returns a view of a block inside of this view. The returned view shares the same array.
+     */
+    public DMatrixStrided view( int row0, int col0, int numRows, int numCols ) {
+        if (row0 < 0 || col0 < 0 || row0 + numRows > this.numRows || col0 + numCols > this.numCols)
+            throw new IllegalArgumentException("Block is outside of the matrix");
+        return new DMatrixStrided(data, offset + row0*stride + col0, stride, numRows, numCols);
+    }
+
+    /** Index of element (row, col) in data */
+    public int getIndex( int row, int col ) {
+        return offset + row*stride + col;
+    }
+
+    /**
+     * Returns true if the two views could reference the same element. If the views have the same stride the exact
+     * answer is computed, otherwise it's a conservative check on the range of each view.
+     */
+    public boolean overlaps( DMatrixStrided other ) {
+        if (data != other.data || getNumElements() == 0 || other.getNumElements() == 0)
+            return false;
+        if (stride == other.stride) {
+            int rowA = offset/stride, colA = offset%stride;
+            int rowB = other.offset/stride, colB = other.offset%stride;
+            // a view can wrap past the end of a row when offset%stride + numCols > stride, use the range check then
+            if (colA + numCols <= stride && colB + other.numCols <= stride) {
+                return rowA < rowB + other.numRows && rowB < rowA + numRows &&
+                        colA < colB + other.numCols && colB < colA + numCols;
+            }
+        }
+        int lastA = getIndex(numRows - 1, numCols - 1);
+        int lastB = other.getIndex(other.numRows - 1, other.numCols - 1);
+        return offset <= lastB && other.offset <= lastA;
+    }
+
+    @Override
+    public double get( int row, int col ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Specified element is out of bounds: (" + row + " , " + col + ")");
+        return data[offset + row*stride + col];
+    }
+
+    @Override
+    public double unsafe_get( int row, int col ) {
+        return data[offset + row*stride + col];
+    }
+
+    @Override
+    public void set( int row, int col, double val ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Specified element is out of bounds: (" + row + " , " + col + ")");
+        data[offset + row*stride + col] = val;
+    }
+
+    @Override
+    public void unsafe_set( int row, int col, double val ) {
+        data[offset + row*stride + col] = val;
+    }
+
+    @Override public int getNumRows() {return numRows;}
+
+    @Override public int getNumCols() {return numCols;}
+
+    @Override
+    public void zero() {
+        for (int row = 0; row < numRows; row++) {
+            int index = offset + row*stride;
+            for (int col = 0; col < numCols; col++) {
+                data[index + col] = 0.0;
+            }
+        }
+    }
+
+    /**
+     * Creates a matrix with its own storage which is a copy of this one
+     */
+    @Override
+    public <T extends Matrix> T copy() {
+        DMatrixStrided ret = new DMatrixStrided(numRows, numCols);
+        ret.setTo(this);
+        return (T)ret;
+    }
+
+    @Override
+    public <T extends Matrix> T createLike() {
+        return (T)new DMatrixStrided(numRows, numCols);
+    }
+
+    @Override
+    public <T extends Matrix> T create( int numRows, int numCols ) {
+        return (T)new DMatrixStrided(numRows, numCols);
+    }
+
+    /**
+     * Copies the elements of 'original' into the view. Since a view can't be reshaped the shapes must match.
+     */
+    @Override
+    public void setTo( Matrix original ) {
+        if (original.getNumRows() != numRows || original.getNumCols() != numCols)
+            throw new IllegalArgumentException("Shape of a view can't be changed");
+        if (original instanceof DMatrixStrided) {
+            DMatrixStrided src = (DMatrixStrided)original;
+            for (int row = 0; row < numRows; row++) {
+                System.arraycopy(src.data, src.offset + row*src.stride, data, offset + row*stride, numCols);
+            }
+        } else {
+            DMatrix src = (DMatrix)original;
+            for (int row = 0; row < numRows; row++) {
+                for (int col = 0; col < numCols; col++) {
+                    unsafe_set(row, col, src.get(row, col));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void print() {
+        MatrixIO.print(System.out, this);
+    }
+
+    @Override
+    public void print( String format ) {
+        MatrixIO.print(System.out, this, format);
+    }
+
+    @Override
+    public String toString() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        MatrixIO.print(new PrintStream(stream), this);
+        return stream.toString();
+    }
+
+    @Override
+    public MatrixType getType() {
+        return MatrixType.UNSPECIFIED;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.UtilEjml;
+import org.ejml.ops.SortCoupledArray_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>Sparse vector. Only non-zero elements are stored as a list of (index, value) pairs.</p>
+ *
+ * <p>
+ * Format:<br>
+ * The index of the i-th non-zero element is stored in nz_indices[i] and its value in nz_values[i], for
+ * i = 0 to nz_length-1. If the indices are in increasing order or not is specified by the {@link #indicesSorted}
+ * flag. Operations which push values into the vector, such as sparse matrix-vector multiplication, will often
+ * produce unsorted indices.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DVectorSparse implements Serializable {
+    /**
+     * Storage for non-zero values. Only valid up to nz_length-1.
+     */
+    public double[] nz_values = UtilEjml.ZERO_LENGTH_F64;
+    /**
+     * Index in the vector of each non-zero value.
+     */
+    public int[] nz_indices = UtilEjml.ZERO_LENGTH_I32;
+    /**
+     * Number of non-zero values in the vector
+     */
+    public int nz_length;
+    /**
+     * Number of elements in the vector
+     */
+    public int size;
+    /**
+     * Flag that's used to indicate of the indices are sorted or not.
+     */
+    public boolean indicesSorted = true;
+
+    /**
+     * Constructor with a default arrayLength of zero.
+     *
+     * @param size Number of elements in the vector
+     */
+    public DVectorSparse( int size ) {
+        this(size, 0);
+    }
+
+    /**
+     * Specifies size and number of non-zero elements that can be stored.
+     *
+     * @param size Number of elements in the vector
+     * @param arrayLength Initial maximum number of non-zero elements that can be in the vector
+     */
+    public DVectorSparse( int size, int arrayLength ) {
+        if (size < 0 || arrayLength < 0)
+            throw new IllegalArgumentException("Size and arrayLength must be not be negative");
+        this.size = size;
+        growMaxLength(arrayLength, false);
+    }
+
+    public DVectorSparse( DVectorSparse original ) {
+        this(original.size, original.nz_length);
+        setTo(original);
+    }
+
+    public DVectorSparse copy() {
+        return new DVectorSparse(this);
+    }
+
+    public DVectorSparse createLike() {
+        return new DVectorSparse(size);
+    }
+
+    public void setTo( DVectorSparse original ) {
+        reshape(original.size, original.nz_length);
+        this.nz_length = original.nz_length;
+        System.arraycopy(original.nz_values, 0, nz_values, 0, nz_length);
+        System.arraycopy(original.nz_indices, 0, nz_indices, 0, nz_length);
+        this.indicesSorted = original.indicesSorted;
+    }
+
+    /**
+     * Sets this vector to be equal to the dense vector. Elements which have a value of 'zeroValue' are not
+     * stored.
+     *
+     * @param dense (Input) dense vector. Not modified.
+     * @param zeroValue Value which is treated as an implicit zero, e.g. the additive identity of a semiring.
+     */
+    public void setTo( double[] dense, double zeroValue ) {
+        int count = 0;
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] != zeroValue)
+                count++;
+        }
+        reshape(dense.length, count);
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] != zeroValue) {
+                nz_indices[nz_length] = i;
+                nz_values[nz_length++] = dense[i];
+            }
+        }
+        indicesSorted = true;
+    }
+
+    /**
+     * Writes this vector into a dense array. Elements which are not stored are assigned 'zeroValue'.
+     *
+     * @param dense (Output) Storage for the dense vector. If null or too small a new array is declared.
+     * @param zeroValue Value assigned to elements which are not stored
+     * @return The dense vector
+     */
+    public double[] toDense( @Nullable double[] dense, double zeroValue ) {
+        if (dense == null || dense.length < size)
+            dense = new double[size];
+        Arrays.fill(dense, 0, size, zeroValue);
+        for (int i = 0; i < nz_length; i++) {
+            dense[nz_indices[i]] = nz_values[i];
+        }
+        return dense;
+    }
+
+    /**
+     * Returns the location of the element in the internal arrays or -1 if it's not stored. A binary search
+     * is used if the indices are sorted, otherwise it's a linear search.
+     */
+    public int nz_index( int index ) {
+        if (indicesSorted) {
+            int i = Arrays.binarySearch(nz_indices, 0, nz_length, index);
+            return i >= 0 ? i : -1;
+        }
+        for (int i = 0; i < nz_length; i++) {
+            if (nz_indices[i] == index)
+                return i;
+        }
+        return -1;
+    }
+
+    public boolean isAssigned( int index ) {
+        return nz_index(index) >= 0;
+    }
+
+    public double get( int index ) {
+        return get(index, 0.0);
+    }
+
+    public double get( int index, double fallBackValue ) {
+        if (index < 0 || index >= size)
+            throw new IllegalArgumentException("Outside of vector bounds");
+        return unsafe_get(index, fallBackValue);
+    }
+
+    public double unsafe_get( int index, double fallBackValue ) {
+        int i = nz_index(index);
+        return i >= 0 ? nz_values[i] : fallBackValue;
+    }
+
+    public void set( int index, double value ) {
+        if (index < 0 || index >= size)
+            throw new IllegalArgumentException("Outside of vector bounds");
+        unsafe_set(index, value);
+    }
+
+    public void unsafe_set( int index, double value ) {
+        int i = nz_index(index);
+        if (i >= 0) {
+            nz_values[i] = value;
+            return;
+        }
+
+        if (indicesSorted) {
+            // insert the element so that the indices stay sorted
+            int location = -(Arrays.binarySearch(nz_indices, 0, nz_length, index) + 1);
+            if (nz_length == nz_values.length)
+                growMaxLength(nz_length*2 + 1, true);
+            System.arraycopy(nz_indices, location, nz_indices, location + 1, nz_length - location);
+            System.arraycopy(nz_values, location, nz_values, location + 1, nz_length - location);
+            nz_indices[location] = index;
+            nz_values[location] = value;
+            nz_length++;
+        } else {
+            append(index, value);
+        }
+    }
+
+    /**
+     * Adds the element to the end of the list without checking to see if it has already been assigned.
+     * If the index is out of order then the indices will be marked as not being sorted.
+     */
+    public void append( int index, double value ) {
+        if (nz_length == nz_values.length)
+            growMaxLength(nz_length*2 + 1, true);
+        if (nz_length > 0 && nz_indices[nz_length - 1] >= index)
+            indicesSorted = false;
+        nz_indices[nz_length] = index;
+        nz_values[nz_length++] = value;
+    }
+
+    public void remove( int index ) {
+        int i = nz_index(index);
+        if (i < 0)
+            return;
+        System.arraycopy(nz_indices, i + 1, nz_indices, i, nz_length - i - 1);
+        System.arraycopy(nz_values, i + 1, nz_values, i, nz_length - i - 1);
+        nz_length--;
+    }
+
+    /**
+     * Removes all non-zero elements. The size is not modified.
+     */
+    public void zero() {
+        nz_length = 0;
+        indicesSorted = true;
+    }
+
+    public int getNonZeroLength() {
+        return nz_length;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Changes the size of the vector and removes all non-zero elements.
+     *
+     * @param size New number of elements in the vector
+     * @param arrayLength Minimum number of non-zero elements which can be stored without growing the arrays
+     */
+    public void reshape( int size, int arrayLength ) {
+        if (size < 0 || arrayLength < 0)
+            throw new IllegalArgumentException("Size and arrayLength must be not be negative");
+        this.size = size;
+        this.nz_length = 0;
+        this.indicesSorted = true;
+        growMaxLength(arrayLength, false);
+    }
+
+    public void reshape( int size ) {
+        reshape(size, 0);
+    }
+
+    /**
+     * Increases the maximum size of the data array so that it can store sparse data up to 'length'.
+     *
+     * @param arrayLength Desired maximum length of sparse data
+     * @param preserveValue If true the old values will be copied into the new arrays.
+     */
+    public void growMaxLength( int arrayLength, boolean preserveValue ) {
+        if (arrayLength < 0)
+            throw new IllegalArgumentException("Negative array length. Overflow?");
+        if (arrayLength > this.nz_values.length) {
+            double[] data = new double[arrayLength];
+            int[] indices = new int[arrayLength];
+
+            if (preserveValue) {
+                System.arraycopy(this.nz_values, 0, data, 0, this.nz_length);
+                System.arraycopy(this.nz_indices, 0, indices, 0, this.nz_length);
+            }
+
+            this.nz_values = data;
+            this.nz_indices = indices;
+        }
+    }
+
+    /**
+     * Sorts the indices into increasing order
+     *
+     * @param sorter (Optional) Used to sort the indices. Can be null.
+     */
+    public void sortIndices( @Nullable SortCoupledArray_F64 sorter ) {
+        if (indicesSorted)
+            return;
+        if (sorter == null)
+            sorter = new SortCoupledArray_F64();
+        sorter.quick(new int[]{0, nz_length}, 2, nz_indices, nz_values);
+        indicesSorted = true;
+    }
+
+    public void printNonZero() {
+        System.out.println("Type = " + getClass().getSimpleName() + " , size = " + size + " , nz_length = " + nz_length);
+        for (int i = 0; i < nz_length; i++) {
+            System.out.printf("%d %f\n", nz_indices[i], nz_values[i]);
+        }
+    }
+}
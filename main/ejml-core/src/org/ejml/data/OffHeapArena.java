@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns a group of {@link DMatrixOffHeap} and releases all of their memory at once when closed. Intended to be used
+ * with try-with-resources so that the lifetime of large matrices is explicit:
+ *
+ * <pre>
+ * try (OffHeapArena arena = new OffHeapArena()) {
+ *     DMatrixOffHeap A = arena.create(100_000, 30_000);
+ *     ...
+ * }
+ * </pre>
+ *
+ * Matrices created with {@link DMatrixOffHeap#createLike()} from a matrix owned by an arena are owned by the same
+ * arena. A matrix which is closed on its own is removed from the arena. Not thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class OffHeapArena implements AutoCloseable {
+    private final List<DMatrixOffHeap> matrices = new ArrayList<>();
+    private boolean closed;
+
+    /** Creates a new matrix which is owned by this arena */
+    public DMatrixOffHeap create( int numRows, int numCols ) {
+        return create(numRows, numCols, DMatrixOffHeap.DEFAULT_BLOCK_SHIFT);
+    }
+
+    /** Creates a new matrix which is owned by this arena and has the specified block size */
+    public DMatrixOffHeap create( int numRows, int numCols, int blockShift ) {
+        if (closed)
+            throw new IllegalStateException("Arena has been closed");
+        DMatrixOffHeap m = new DMatrixOffHeap(numRows, numCols, blockShift);
+        m.arena = this;
+        matrices.add(m);
+        return m;
+    }
+
+    /** Number of matrices which are currently owned by the arena */
+    public int size() {
+        return matrices.size();
+    }
+
+    /** Total number of bytes allocated by the matrices owned by the arena */
+    public long getAllocatedBytes() {
+        long total = 0;
+        for (int i = 0; i < matrices.size(); i++) {
+            total += matrices.get(i).getAllocatedBytes();
+        }
+        return total;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Releases the memory of every matrix owned by the arena. New matrices can't be created afterwards.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        for (int i = 0; i < matrices.size(); i++) {
+            DMatrixOffHeap m = matrices.get(i);
+            m.arena = null;
+            m.close();
+        }
+        matrices.clear();
+    }
+
+    /** Called by a matrix when it's closed on its own */
+    void forget( DMatrixOffHeap m ) {
+        matrices.remove(m);
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.instrument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Opt-in instrumentation of expensive operations. When enabled, the number of calls, matrix shapes, wall time,
+ * and estimated floating point operations are recorded for each {@link OperationFamily}. When disabled the cost is
+ * a single read of a static field per call. Java Flight Recorder events are a separate opt-in, see
+ * {@link #setEmitEvents(boolean)}.
+ * </p>
+ *
+ * <p>
+ * Instrumented code follows this pattern:
+ * </p>
+ * <pre>
+ * long startNanos = EjmlInstrumentation.start();
+ * ... do work ...
+ * EjmlInstrumentation.record(startNanos, OperationFamily.MULT, rows, cols, flops, false);
+ * </pre>
+ *
+ * <p>
+ * Operations which are computed using other instrumented operations, e.g. invert using LU, call
+ * {@link #startComposite()} instead so that the nested operations are not recorded a second time.
+ * </p>
+ *
+ * <p>
+ * FLOP counts are estimates based on the standard algorithm for each operation and are intended for
+ * comparing where time is spent, not for precise accounting.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlInstrumentation {
+    // If false then nothing is recorded
+    private static volatile boolean enabled = false;
+
+    // If true then JFR events are emitted when enabled
+    private static volatile boolean emitEvents = false;
+
+    // Number of composite operations being recorded by this thread. Operations inside of them aren't recorded
+    private static final ThreadLocal<int[]> compositeDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static final Accumulator[] accumulators = new Accumulator[OperationFamily.values().length];
+
+    static {
+        for (OperationFamily family : OperationFamily.values()) {
+            accumulators[family.ordinal()] = new Accumulator();
+        }
+    }
+
+    /**
+     * Turns instrumentation on or off. Recorded statistics are not modified.
+     */
+    public static void setEnabled( boolean enabled ) {
+        EjmlInstrumentation.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Specifies if Java Flight Recorder events should be emitted for each recorded operation. Off by default.
+     * Has no effect if instrumentation is disabled or JFR isn't available.
+     */
+    public static void setEmitEvents( boolean emitEvents ) {
+        EjmlInstrumentation.emitEvents = emitEvents;
+    }
+
+    public static boolean isEmitEvents() {
+        return emitEvents;
+    }
+
+    /**
+     * Returns true if this JVM supports Java Flight Recorder events
+     */
+    public static boolean isJfrAvailable() {
+        return JfrEvents.isAvailable();
+    }
+
+    /**
+     * Call at the start of an operation.
+     *
+     * @return The start time in nano seconds or 0 if disabled or inside of a composite operation.
+     */
+    public static long start() {
+        if (!enabled)
+            return 0L;
+        // Already part of the cost of the composite operation
+        if (compositeDepth.get()[0] > 0)
+            return 0L;
+        long time = System.nanoTime();
+        // zero is reserved for disabled
+        return time == 0L ? 1L : time;
+    }
+
+    /**
+     * Call at the start of an operation which is computed using other instrumented operations. Until
+     * {@link #endComposite(long)} is called, operations on this thread are not recorded so that their time and
+     * FLOPs are only attributed to the composite operation. Must be paired with endComposite() in a finally block.
+     *
+     * @return The start time in nano seconds or 0 if disabled or inside of another composite operation.
+     */
+    public static long startComposite() {
+        long startNanos = start();
+        if (startNanos != 0L)
+            compositeDepth.get()[0]++;
+        return startNanos;
+    }
+
+    /**
+     * Call when a composite operation has finished, after it has been recorded.
+     *
+     * @param startNanos Value returned by {@link #startComposite()}
+     */
+    public static void endComposite( long startNanos ) {
+        if (startNanos != 0L)
+            compositeDepth.get()[0]--;
+    }
+
+    /**
+     * Records an operation which has finished.
+     *
+     * @param startNanos Value returned by {@link #start()}. If 0 then nothing is recorded.
+     * @param family Which operation
+     * @param numRows Number of rows in the matrix which describes the size of the problem
+     * @param numCols Number of columns in the matrix which describes the size of the problem
+     * @param flops Estimated number of floating point operations
+     * @param concurrent true if a concurrent implementation was used
+     */
+    public static void record( long startNanos, OperationFamily family, int numRows, int numCols,
+                               double flops, boolean concurrent ) {
+        if (startNanos == 0L || !enabled)
+            return;
+        long elapsed = System.nanoTime() - startNanos;
+        accumulators[family.ordinal()].add(numRows, numCols, elapsed, flops, concurrent);
+
+        if (emitEvents)
+            JfrEvents.emit(family.name(), numRows, numCols, flops, concurrent, elapsed);
+    }
+
+    /**
+     * Records a matrix multiplication. 2*rows*cols*inner FLOPs.
+     *
+     * @param rows Rows in the output matrix
+     * @param cols Columns in the output matrix
+     * @param inner Length of the inner product
+     */
+    public static void recordMult( long startNanos, int rows, int cols, int inner, boolean concurrent ) {
+        if (startNanos == 0L)
+            return;
+        record(startNanos, OperationFamily.MULT, rows, cols, 2.0*rows*cols*inner, concurrent);
+    }
+
+    /**
+     * Records a decomposition, or an operation which is computed using one, of a matrix with the specified
+     * shape. FLOPs are estimated from the standard algorithm for each family, e.g. n<sup>3</sup>/3 for Cholesky.
+     */
+    public static void recordDecomposition( long startNanos, OperationFamily family, int rows, int cols ) {
+        recordEstimated(startNanos, family, rows, cols, false);
+    }
+
+    /**
+     * Same as {@link #recordDecomposition(long, OperationFamily, int, int)} but the algorithm is used to decide
+     * if it was concurrent. EJML's concurrent implementations have _MT_ in their name.
+     */
+    public static void recordDecomposition( long startNanos, OperationFamily family, int rows, int cols,
+                                            Object algorithm ) {
+        if (startNanos == 0L)
+            return;
+        recordEstimated(startNanos, family, rows, cols, algorithm.getClass().getSimpleName().contains("_MT_"));
+    }
+
+    private static void recordEstimated( long startNanos, OperationFamily family, int rows, int cols,
+                                         boolean concurrent ) {
+        if (startNanos == 0L)
+            return;
+        double m = rows, n = cols;
+        double k = Math.min(m, n);
+        double flops;
+        switch (family) {
+            case CHOLESKY: flops = n*n*n/3.0; break;
+            case LU:
+            case SOLVE: flops = 2.0*m*n*k - (m + n)*k*k + 2.0*k*k*k/3.0; break;
+            case QR: flops = 4.0*m*n*k - 2.0*(m + n)*k*k + 4.0*k*k*k/3.0; break;
+            case SVD: flops = 4.0*m*n*k + 8.0*k*k*k; break;
+            case EIGEN: flops = 10.0*n*n*n; break;
+            case INVERT: flops = 2.0*n*n*n; break;
+            case DETERMINANT: flops = 2.0*n*n*n/3.0; break;
+            default: flops = m*n; break;
+        }
+        record(startNanos, family, rows, cols, flops, concurrent);
+    }
+
+    /**
+     * Returns a copy of the current statistics for every family
+     */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> list = new ArrayList<>();
+        for (OperationFamily family : OperationFamily.values()) {
+            list.add(snapshot(family));
+        }
+        return list;
+    }
+
+    /**
+     * Returns a copy of the current statistics for a family
+     */
+    public static OperationStats snapshot( OperationFamily family ) {
+        return accumulators[family.ordinal()].snapshot(family);
+    }
+
+    /**
+     * Discards all recorded statistics
+     */
+    public static void reset() {
+        for (Accumulator a : accumulators) {
+            a.reset();
+        }
+    }
+
+    /**
+     * Thread safe storage for statistics of a single family
+     */
+    private static class Accumulator {
+        final LongAdder count = new LongAdder();
+        final LongAdder countConcurrent = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        final DoubleAdder flops = new DoubleAdder();
+        final LongAdder[] histogram = new LongAdder[OperationStats.HISTOGRAM_BINS];
+
+        // Largest matrix seen. Not on the hot path so a lock is fine
+        volatile long largestElements = -1;
+        int largestRows, largestCols;
+
+        Accumulator() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void add( int rows, int cols, long nanos, double flops, boolean concurrent ) {
+            count.increment();
+            if (concurrent)
+                countConcurrent.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            this.flops.add(flops);
+
+            long elements = (long)rows*cols;
+            histogram[OperationStats.histogramBin(elements)].increment();
+            if (elements > largestElements) {
+                synchronized (this) {
+                    if (elements > largestElements) {
+                        largestElements = elements;
+                        largestRows = rows;
+                        largestCols = cols;
+                    }
+                }
+            }
+        }
+
+        synchronized OperationStats snapshot( OperationFamily family ) {
+            long[] bins = new long[histogram.length];
+            for (int i = 0; i < bins.length; i++) {
+                bins[i] = histogram[i].sum();
+            }
+            return new OperationStats(family, count.sum(), countConcurrent.sum(), totalNanos.sum(), maxNanos.get(),
+                    flops.sum(), largestRows, largestCols, bins);
+        }
+
+        synchronized void reset() {
+            count.reset();
+            countConcurrent.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            flops.reset();
+            for (LongAdder bin : histogram) {
+                bin.reset();
+            }
+            largestElements = -1;
+            largestRows = largestCols = 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.instrument;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Emits Java Flight Recorder events for {@link EjmlInstrumentation}. EJML targets Java 8 where the JFR API
+ * isn't available, so the event type is created at runtime through reflection using jdk.jfr.EventFactory.
+ * If that fails, e.g. older JVM or JFR is missing, then events are silently not emitted.
+ *
+ * @author Peter Abeles
+ */
+class JfrEvents {
+    /** Name of the event in JFR recordings */
+    static final String EVENT_NAME = "org.ejml.Operation";
+
+    private static final @Nullable Object factory;
+    private static final @Nullable Method newEvent;
+    private static final @Nullable Method set;
+    private static final @Nullable Method commit;
+
+    static {
+        Object _factory = null;
+        Method _newEvent = null, _set = null, _commit = null;
+        try {
+            Class<?> typeFactory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> typeEvent = Class.forName("jdk.jfr.Event");
+            Class<?> typeAnnotation = Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> typeDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+            Constructor<?> newAnnotation = typeAnnotation.getConstructor(Class.class, Object.class);
+            Constructor<?> newDescriptor = typeDescriptor.getConstructor(Class.class, String.class, List.class);
+
+            List<Object> eventAnnotations = Arrays.asList(
+                    newAnnotation.newInstance(annotation("jdk.jfr.Name"), EVENT_NAME),
+                    newAnnotation.newInstance(annotation("jdk.jfr.Label"), "EJML Operation"),
+                    newAnnotation.newInstance(annotation("jdk.jfr.Category"), new String[]{"EJML"}));
+
+            // Order of fields must match emit()
+            List<Object> fields = new ArrayList<>();
+            fields.add(newDescriptor.newInstance(String.class, "family", label(newAnnotation, "Family")));
+            fields.add(newDescriptor.newInstance(int.class, "numRows", label(newAnnotation, "Rows")));
+            fields.add(newDescriptor.newInstance(int.class, "numCols", label(newAnnotation, "Columns")));
+            fields.add(newDescriptor.newInstance(double.class, "flops", label(newAnnotation, "Estimated FLOPs")));
+            fields.add(newDescriptor.newInstance(boolean.class, "concurrent", label(newAnnotation, "Concurrent")));
+            fields.add(newDescriptor.newInstance(long.class, "wallTime", Arrays.asList(
+                    newAnnotation.newInstance(annotation("jdk.jfr.Label"), "Wall Time"),
+                    newAnnotation.newInstance(annotation("jdk.jfr.Timespan"), "NANOSECONDS"))));
+
+            _factory = typeFactory.getMethod("create", List.class, List.class).invoke(null, eventAnnotations, fields);
+            _newEvent = typeFactory.getMethod("newEvent");
+            _set = typeEvent.getMethod("set", int.class, Object.class);
+            _commit = typeEvent.getMethod("commit");
+        } catch (Throwable ignore) {
+            _factory = null;
+        }
+        factory = _factory;
+        newEvent = _newEvent;
+        set = _set;
+        commit = _commit;
+    }
+
+    static boolean isAvailable() {
+        return factory != null;
+    }
+
+    static void emit( String family, int numRows, int numCols, double flops, boolean concurrent, long wallNanos ) {
+        if (factory == null || newEvent == null || set == null || commit == null)
+            return;
+        try {
+            Object event = newEvent.invoke(factory);
+            set.invoke(event, 0, family);
+            set.invoke(event, 1, numRows);
+            set.invoke(event, 2, numCols);
+            set.invoke(event, 3, flops);
+            set.invoke(event, 4, concurrent);
+            set.invoke(event, 5, wallNanos);
+            commit.invoke(event);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation> annotation( String name ) throws ClassNotFoundException {
+        return (Class<? extends Annotation>)Class.forName(name);
+    }
+
+    private static List<Object> label( Constructor<?> newAnnotation, String text ) throws ReflectiveOperationException {
+        return Collections.singletonList(newAnnotation.newInstance(annotation("jdk.jfr.Label"), text));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.instrument;
+
+/**
+ * Groups of operations which are tracked by {@link EjmlInstrumentation}. Variants of an operation, e.g. mult()
+ * and multTransA(), are combined into the same family. Operations which are computed using a decomposition,
+ * e.g. invert(), are recorded in their own family and the decomposition's family.
+ *
+ * @author Peter Abeles
+ */
+public enum OperationFamily {
+    /** Matrix multiplication. Shape is the output matrix. */
+    MULT,
+    /** Matrix transpose. Shape is the input matrix. */
+    TRANSPOSE,
+    /** Matrix inverse. Shape is the input matrix. */
+    INVERT,
+    /** Solving a linear system. Shape is the 'A' matrix. */
+    SOLVE,
+    /** Determinant. Shape is the input matrix. */
+    DETERMINANT,
+    /** Cholesky decomposition. Shape is the input matrix. */
+    CHOLESKY,
+    /** LU decomposition. Shape is the input matrix. */
+    LU,
+    /** QR decomposition. Shape is the input matrix. */
+    QR,
+    /** Singular value decomposition. Shape is the input matrix. */
+    SVD,
+    /** Eigenvalue decomposition. Shape is the input matrix. */
+    EIGEN
+}
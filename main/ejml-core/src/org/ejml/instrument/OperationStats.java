@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.instrument;
+
+import lombok.Getter;
+
+/**
+ * Statistics for a single {@link OperationFamily} at the time a snapshot was taken. Immutable.
+ *
+ * @author Peter Abeles
+ */
+@Getter
+public class OperationStats {
+    /** Number of elements in the size histogram. Bin 'i' counts calls with 2<sup>i</sup> &le; elements &lt; 2<sup>i+1</sup> */
+    public static final int HISTOGRAM_BINS = 32;
+
+    /** Which operation */
+    final OperationFamily family;
+    /** Number of times it was called */
+    final long count;
+    /** Number of times it was called and a concurrent implementation was used */
+    final long countConcurrent;
+    /** Total wall time, in nano seconds */
+    final long totalNanos;
+    /** Longest time, in nano seconds, for a single call */
+    final long maxNanos;
+    /** Estimated floating point operations across all calls */
+    final double totalFlops;
+    /** Shape of the largest matrix seen */
+    final int largestRows, largestCols;
+    /** Histogram of matrix size, in number of elements. See {@link #HISTOGRAM_BINS} */
+    final long[] sizeHistogram;
+
+    public OperationStats( OperationFamily family, long count, long countConcurrent, long totalNanos, long maxNanos,
+                           double totalFlops, int largestRows, int largestCols, long[] sizeHistogram ) {
+        this.family = family;
+        this.count = count;
+        this.countConcurrent = countConcurrent;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.totalFlops = totalFlops;
+        this.largestRows = largestRows;
+        this.largestCols = largestCols;
+        this.sizeHistogram = sizeHistogram.clone();
+    }
+
+    /** Returns the number of calls in the specified bin of the size histogram */
+    public long getSizeHistogram( int bin ) {
+        return sizeHistogram[bin];
+    }
+
+    /** Average time per call in nano seconds */
+    public double getMeanNanos() {
+        return count == 0 ? 0.0 : totalNanos/(double)count;
+    }
+
+    /** Estimated GFLOPS across all calls */
+    public double getGflops() {
+        return totalNanos == 0 ? 0.0 : totalFlops/totalNanos;
+    }
+
+    /** Returns the histogram bin for a matrix with this many elements */
+    public static int histogramBin( long elements ) {
+        if (elements <= 1)
+            return 0;
+        return Math.min(HISTOGRAM_BINS - 1, 63 - Long.numberOfLeadingZeros(elements));
+    }
+
+    @Override public String toString() {
+        return family + "{count=" + count + ", concurrent=" + countConcurrent + ", totalMS=" + totalNanos*1e-6 +
+                ", maxMS=" + maxNanos*1e-6 + ", flops=" + totalFlops + ", largest=" + largestRows + "x" + largestCols + "}";
+    }
+}
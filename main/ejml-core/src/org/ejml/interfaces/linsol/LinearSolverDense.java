@@ -76,4 +76,24 @@ public interface LinearSolverDense< T extends Matrix> extends LinearSolver<T,T>
      */
     void invert(T A_inv);
 
+    /**
+     * <p>
+     * Estimates the reciprocal of the condition number in the 1-norm,
+     * 1/(||A||<sub>1</sub>||A<sup>-1</sup>||<sub>1</sub>), using the decomposition computed in
+     * {@link #setA(Matrix)}. Unlike {@link #quality()} this approximates an actual condition number and only
+     * requires O(n<sup>2</sup>) operations, which is much less than computing the decomposition. The returned
+     * value goes from 0 to 1, where values close to zero indicate a nearly singular system. Solvers based on a
+     * QR decomposition estimate the condition of R, which has the same 2-norm condition number as A.
+     * </p>
+     *
+     * <p>
+     * If not supported by the solver then the runtime exception IllegalArgumentException is thrown.
+     * </p>
+     *
+     * @return Estimate of the reciprocal condition number.
+     */
+    default double rcond() {
+        throw new IllegalArgumentException("Condition estimation is not supported by " + getClass().getSimpleName());
+    }
+
 }
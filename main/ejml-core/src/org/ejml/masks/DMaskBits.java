@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.masks;
+
+import org.ejml.data.BMatrixBits;
+
+/**
+ * Mask implementation backed by a {@link BMatrixBits}, i.e. one bit per entry. Requires 1/64 the memory of
+ * {@link DMaskPrimitive} and the mask itself can be constructed and combined a word at a time,
+ * see {@link org.ejml.ops.CommonOps_BDRM}.
+ */
+public class DMaskBits extends Mask {
+    /**
+     * Bits which are true are set in the mask
+     */
+    protected final BMatrixBits bits;
+
+    public DMaskBits( BMatrixBits bits, boolean negated ) {
+        super(negated);
+        this.bits = bits;
+    }
+
+    @Override
+    public boolean isSet( int row, int col ) {
+        return isSet(row*bits.numCols + col);
+    }
+
+    @Override
+    public boolean isSet( int idx ) {
+        // XOR as negated flips the mask flag
+        return negated ^ ((bits.data[idx >>> 6] & (1L << idx)) != 0);
+    }
+
+    @Override
+    protected int getNumCols() {
+        return bits.numCols;
+    }
+
+    @Override
+    protected int getNumRows() {
+        return bits.numRows;
+    }
+
+    @Override
+    public void setIndexColumn( int column ) {}
+
+    @Override
+    public int maxMaskedEntries() {
+        // Counting the bits is cheap and gives an exact answer
+        int count = bits.sum();
+        return negated ? bits.getNumElements() - count : count;
+    }
+
+    /**
+     * Utility class to build {@link DMaskBits}
+     */
+    public static class Builder extends MaskBuilder<DMaskBits> {
+        private final BMatrixBits bits;
+
+        public Builder( BMatrixBits bits ) {
+            this.bits = bits;
+        }
+
+        @Override
+        public DMaskBits build() {
+            return new DMaskBits(bits, negated);
+        }
+    }
+}
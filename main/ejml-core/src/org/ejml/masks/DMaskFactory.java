@@ -17,6 +17,7 @@
  */
 package org.ejml.masks;
 
+import org.ejml.data.BMatrixBits;
 import org.ejml.data.DMatrixD1;
 import org.ejml.data.DMatrixSparseCSC;
 
@@ -32,6 +33,13 @@ public class DMaskFactory {
         return new DMaskPrimitive.Builder(matrix.data).withNumCols(matrix.numCols);
     }
 
+    /**
+     * @param bits Boolean matrix to be used as a mask. Entries which are true are set in the mask.
+     */
+    public static DMaskBits.Builder builder( BMatrixBits bits ) {
+        return new DMaskBits.Builder(bits);
+    }
+
     /**
      * @param matrix Matrix to be used as a Mask
      * @param structural Whether only the structure of the matrix is relevant or the actual value are considered
@@ -21,7 +21,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.jetbrains.annotations.Nullable;
 
-import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.adjustClear;
 
 /**
  * Mask implementation backed by a matrix in CSC format
@@ -44,7 +44,8 @@ public class DMaskSparse extends Mask {
         super(negated);
         this.matrix = matrix;
         this.zeroElement = zeroElement;
-        this.rowIndicesInIndexedColumn = adjust(gw, matrix.numRows);
+        // must be cleared, otherwise stale values in the work array could be mistaken for an indexed row
+        this.rowIndicesInIndexedColumn = adjustClear(gw, matrix.numRows);
 
         if (indexFirstColumn) {
             setIndexColumn(0);
@@ -88,6 +89,11 @@ public class DMaskSparse extends Mask {
         }
     }
 
+    @Override
+    public DMaskSparse concurrentCopy( @Nullable IGrowArray gw ) {
+        return new DMaskSparse(matrix, negated, zeroElement, gw, false);
+    }
+
     @Override
     public int maxMaskedEntries() {
         if (negated) {
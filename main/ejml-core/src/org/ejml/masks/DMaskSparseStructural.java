@@ -21,7 +21,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.jetbrains.annotations.Nullable;
 
-import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.adjustClear;
 
 /**
  * Mask implementation which checks if the entry is assigned in the sparse matrix.
@@ -39,7 +39,8 @@ public class DMaskSparseStructural extends Mask {
     public DMaskSparseStructural( DMatrixSparseCSC matrix, boolean negated, @Nullable IGrowArray gw, boolean indexFirstColumn ) {
         super(negated);
         this.matrix = matrix;
-        this.rowIndicesInIndexedColumn = adjust(gw, matrix.numRows);
+        // must be cleared, otherwise stale values in the work array could be mistaken for an indexed row
+        this.rowIndicesInIndexedColumn = adjustClear(gw, matrix.numRows);
         if (indexFirstColumn) {
             setIndexColumn(0);
         }
@@ -80,6 +81,11 @@ public class DMaskSparseStructural extends Mask {
         }
     }
 
+    @Override
+    public DMaskSparseStructural concurrentCopy( @Nullable IGrowArray gw ) {
+        return new DMaskSparseStructural(matrix, negated, gw, false);
+    }
+
     @Override
     public int maxMaskedEntries() {
         if (negated) {
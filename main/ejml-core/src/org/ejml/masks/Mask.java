@@ -19,7 +19,9 @@ package org.ejml.masks;
 
 import lombok.Getter;
 import org.ejml.MatrixDimensionException;
+import org.ejml.data.IGrowArray;
 import org.ejml.data.Matrix;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Mask used for specifying which matrix entries should be computed
@@ -79,6 +81,18 @@ public abstract class Mask {
      */
     public abstract void setIndexColumn( int column );
 
+    /**
+     * Creates a mask which references the same data but has its own state, e.g. the column indexed by
+     * {@link #setIndexColumn}. Needed when the same mask is used by multiple threads at once. Masks without
+     * any internal state return themselves.
+     *
+     * @param gw (Optional) Storage for the internal state of the copy. Can be null.
+     * @return Mask which can be safely used in a different thread
+     */
+    public Mask concurrentCopy( @Nullable IGrowArray gw ) {
+        return this;
+    }
+
     /**
      * Checks whether the dimensions of the mask and matrix match
      *
@@ -18,7 +18,11 @@
 
 package org.ejml.ops;
 
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.BMatrixBits;
 import org.ejml.data.BMatrixRMaj;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * @author Peter Abeles
@@ -46,4 +50,124 @@ public class CommonOps_BDRM {
             }
         }
     }
+
+    /**
+     * Element-wise logical and. output = A &amp; B. Computed one word (64 elements) at a time.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param output (Optional) Storage for results. Can be null. Is reshaped. Can be A or B.
+     * @return The results
+     */
+    public static BMatrixBits and( BMatrixBits A, BMatrixBits B, @Nullable BMatrixBits output ) {
+        output = checkOutput(A, B, output);
+        int words = A.getNumWords();
+        for (int i = 0; i < words; i++) {
+            output.data[i] = A.data[i] & B.data[i];
+        }
+        return output;
+    }
+
+    /**
+     * Element-wise logical or. output = A | B. Computed one word (64 elements) at a time.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param output (Optional) Storage for results. Can be null. Is reshaped. Can be A or B.
+     * @return The results
+     */
+    public static BMatrixBits or( BMatrixBits A, BMatrixBits B, @Nullable BMatrixBits output ) {
+        output = checkOutput(A, B, output);
+        int words = A.getNumWords();
+        for (int i = 0; i < words; i++) {
+            output.data[i] = A.data[i] | B.data[i];
+        }
+        return output;
+    }
+
+    /**
+     * Element-wise logical exclusive or. output = A ^ B. Computed one word (64 elements) at a time.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param output (Optional) Storage for results. Can be null. Is reshaped. Can be A or B.
+     * @return The results
+     */
+    public static BMatrixBits xor( BMatrixBits A, BMatrixBits B, @Nullable BMatrixBits output ) {
+        output = checkOutput(A, B, output);
+        int words = A.getNumWords();
+        for (int i = 0; i < words; i++) {
+            output.data[i] = A.data[i] ^ B.data[i];
+        }
+        return output;
+    }
+
+    /**
+     * Element-wise A and not B. output = A &amp; ~B. Removes all the elements in B from A, i.e. set difference.
+     * Computed one word (64 elements) at a time.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param output (Optional) Storage for results. Can be null. Is reshaped. Can be A or B.
+     * @return The results
+     */
+    public static BMatrixBits andNot( BMatrixBits A, BMatrixBits B, @Nullable BMatrixBits output ) {
+        output = checkOutput(A, B, output);
+        int words = A.getNumWords();
+        for (int i = 0; i < words; i++) {
+            output.data[i] = A.data[i] & ~B.data[i];
+        }
+        return output;
+    }
+
+    /**
+     * Element-wise logical not. output = ~A.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param output (Optional) Storage for results. Can be null. Is reshaped. Can be A.
+     * @return The results
+     */
+    public static BMatrixBits not( BMatrixBits A, @Nullable BMatrixBits output ) {
+        output = UtilEjml.reshapeOrDeclare(output, A.numRows, A.numCols);
+        int words = A.getNumWords();
+        for (int i = 0; i < words; i++) {
+            output.data[i] = ~A.data[i];
+        }
+        output.clearUnusedBits();
+        return output;
+    }
+
+    /**
+     * Counts the number of elements in A which are true
+     *
+     * @param A input matrix
+     * @return number of true elements
+     */
+    public static int countTrue( BMatrixBits A ) {
+        return A.sum();
+    }
+
+    /**
+     * Counts the number of elements which are true in both A and B, without computing A &amp; B.
+     *
+     * @param A input matrix
+     * @param B input matrix
+     * @return number of elements which are true in both matrices
+     */
+    public static int countTrueAnd( BMatrixBits A, BMatrixBits B ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + UtilEjml.stringShapes(A, B));
+        int total = 0;
+        int words = A.getNumWords();
+        for (int i = 0; i < words; i++) {
+            total += Long.bitCount(A.data[i] & B.data[i]);
+        }
+        return total;
+    }
+
+    private static BMatrixBits checkOutput( BMatrixBits A, BMatrixBits B, @Nullable BMatrixBits output ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + UtilEjml.stringShapes(A, B));
+        return UtilEjml.reshapeOrDeclare(output, A.numRows, A.numCols);
+    }
 }
@@ -18,13 +18,27 @@
 
 package pabeles.concurrency;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
-import java.util.function.IntConsumer;
-import java.util.stream.IntStream;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.*;
 
 /**
+ * <p>
  * Location of controls for turning on and off concurrent (i.e. threaded) algorithms.
+ * </p>
+ *
+ * <p>
+ * By default all work is submitted to a single global {@link ForkJoinPool}, which is replaced by
+ * {@link #setMaxThreads(int)}. A different pool or executor can be used by a single thread, or for a single call,
+ * by opening a {@link ConcurrencyScope}, see {@link #usePool} and {@link #runWith}. Concurrent operations which are
+ * called from inside of a worker are detected and run in the worker's thread instead of spawning more tasks.
+ * </p>
  *
  * -Djava.util.concurrent.ForkJoinPool.common.parallelism=16
  *
@@ -35,8 +49,12 @@ public class ConcurrencyOps {
     // Custom thread pool for streams so that the number of threads can be controlled
     private static ForkJoinPool pool = new ForkJoinPool();
 
+    // Scope which has been installed for the current thread. If null then the global pool is used
+    static final ThreadLocal<@Nullable ConcurrencyScope> localScope = new ThreadLocal<>();
+
     /**
-     * Changes the maximum number of threads available in the thread pool
+     * Changes the maximum number of threads available in the global thread pool. Scopes which have been opened
+     * are not affected.
      *
      * @param maxThreads Maximum number of threads. If less than 1 it will be forced to be one
      */
@@ -45,12 +63,109 @@ public class ConcurrencyOps {
     }
 
     /**
-     * Returns the maximum number of threads which can be run at once in this pool
+     * Returns the maximum number of threads which can be run at once by the current thread. This is
+     * the parallelism of the active scope, or of the global pool if there is no scope.
      */
     public static int getMaxThreads() {
+        ConcurrencyScope scope = localScope.get();
+        if (scope != null)
+            return scope.parallelism;
         return pool.getParallelism();
     }
 
+    /**
+     * Returns the scope which is active for the current thread or null if the global pool is being used
+     */
+    public static @Nullable ConcurrencyScope getScope() {
+        return localScope.get();
+    }
+
+    /**
+     * Returns true if the current thread is inside a worker of a concurrent operation, in which case
+     * all concurrent operations will run in the calling thread.
+     */
+    public static boolean isInsideWorker() {
+        return localScope.get() == ConcurrencyScope.INLINE;
+    }
+
+    /**
+     * Opens a scope in which all concurrent operations called by this thread are submitted to the specified pool.
+     *
+     * @param pool The pool that tasks will be submitted to
+     * @return The scope. Must be closed by the same thread.
+     */
+    public static ConcurrencyScope usePool( ForkJoinPool pool ) {
+        return open(new ConcurrencyScope(pool, null, pool.getParallelism(), localScope.get(), Thread.currentThread()));
+    }
+
+    /**
+     * Opens a scope in which all concurrent operations called by this thread are submitted to the specified
+     * executor. If the executor is a {@link ForkJoinPool} this is the same as calling {@link #usePool}.
+     *
+     * @param executor The executor that tasks will be submitted to
+     * @param parallelism Maximum number of tasks which will be submitted at once by an operation
+     * @return The scope. Must be closed by the same thread.
+     */
+    public static ConcurrencyScope useExecutor( Executor executor, int parallelism ) {
+        ConcurrencyScope previous = localScope.get();
+        if (executor instanceof ForkJoinPool) {
+            var fjp = (ForkJoinPool)executor;
+            int threads = Math.min(parallelism, fjp.getParallelism());
+            return open(new ConcurrencyScope(fjp, null, threads, previous, Thread.currentThread()));
+        }
+        return open(new ConcurrencyScope(null, executor, parallelism, previous, Thread.currentThread()));
+    }
+
+    /**
+     * Opens a scope in which all concurrent operations called by this thread are run in the calling thread.
+     *
+     * @return The scope. Must be closed by the same thread.
+     */
+    public static ConcurrencyScope useSingleThread() {
+        return open(new ConcurrencyScope(null, null, 1, localScope.get(), Thread.currentThread()));
+    }
+
+    private static ConcurrencyScope open( ConcurrencyScope scope ) {
+        localScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Runs the task with all concurrent operations submitted to the specified pool
+     */
+    public static void runWith( ForkJoinPool pool, Runnable task ) {
+        ConcurrencyScope scope = usePool(pool);
+        try {
+            task.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Runs the task with all concurrent operations submitted to the specified pool
+     */
+    public static <T> T runWith( ForkJoinPool pool, Supplier<T> task ) {
+        ConcurrencyScope scope = usePool(pool);
+        try {
+            return task.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Runs the task with all concurrent operations submitted to the specified executor
+     */
+    public static void runWith( Executor executor, int parallelism, Runnable task ) {
+        ConcurrencyScope scope = useExecutor(executor, parallelism);
+        try {
+            task.run();
+        } finally {
+            scope.close();
+        }
+    }
+
     /**
      * Concurrent for loop. Each loop with spawn as a thread up to the maximum number of threads.
      *
@@ -59,11 +174,16 @@ public class ConcurrencyOps {
      * @param consumer The consumer
      */
     public static void loopFor( int start, int endExclusive, IntConsumer consumer ) {
-        try {
-            pool.submit(() -> IntStream.range(start, endExclusive).parallel().forEach(consumer)).get();
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
-        }
+        int range = endExclusive - start;
+        if (range <= 0)
+            return;
+
+        // One block for each thread so that the scope's parallelism is honored
+        runBlocks(localScope.get(), start, endExclusive, Math.max(1, range/getMaxThreads()), ( i0, i1 ) -> {
+            for (int i = i0; i < i1; i++) {
+                consumer.accept(i);
+            }
+        });
     }
 
     /**
@@ -79,13 +199,9 @@ public class ConcurrencyOps {
             throw new IllegalArgumentException("Step must be a positive number.");
         if (start >= endExclusive)
             return;
-        try {
-            int range = endExclusive - start;
-            int iterations = range/step + ((range%step == 0) ? 0 : 1);
-            pool.submit(() -> IntStream.range(0, iterations).parallel().forEach(i -> consumer.accept(start + i*step))).get();
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
-        }
+        int range = endExclusive - start;
+        int iterations = range/step + ((range%step == 0) ? 0 : 1);
+        loopFor(0, iterations, i -> consumer.accept(start + i*step));
     }
 
     /**
@@ -102,8 +218,36 @@ public class ConcurrencyOps {
             throw new IllegalArgumentException("Step must be a positive number.");
         if (start >= endExclusive)
             return;
+
+        ConcurrencyScope scope = localScope.get();
+        if (scope != null && scope.pool == null) {
+            int range = endExclusive - start;
+            int iterations = range/step + ((range%step == 0) ? 0 : 1);
+            int numThreads = Math.min(iterations, scope.parallelism);
+            workspace.reset();
+            workspace.resize(numThreads);
+            // Same partitioning of iterations between threads as IntObjectTask
+            runBlocks(scope, 0, numThreads, 1, ( t0, t1 ) -> {
+                T work = workspace.get(t0);
+                int index1 = start + ((t0 + 1)*iterations/numThreads)*step;
+                for (int index = start + (t0*iterations/numThreads)*step; index < index1; index += step) {
+                    consumer.accept(work, index);
+                }
+            });
+            return;
+        }
+
+        ForkJoinPool pool = scope == null ? ConcurrencyOps.pool : scope.pool;
         try {
-            pool.submit(new IntObjectTask<>(start, endExclusive, step, pool.getParallelism(), -1, workspace, consumer)).get();
+            pool.submit(new IntObjectTask<>(start, endExclusive, step, getMaxThreads(), -1, workspace,
+                    ( work, index ) -> {
+                        ConcurrencyScope previous = enterWorker();
+                        try {
+                            consumer.accept(work, index);
+                        } finally {
+                            localScope.set(previous);
+                        }
+                    })).get();
         } catch (InterruptedException | ExecutionException e) {
             e.printStackTrace();
         }
@@ -128,22 +272,15 @@ public class ConcurrencyOps {
      */
     public static void loopBlocks( int start, int endExclusive, int minBlock,
                                    IntRangeConsumer consumer ) {
-        final ForkJoinPool pool = ConcurrencyOps.pool;
-        int numThreads = pool.getParallelism();
-
         int range = endExclusive - start;
         if (range == 0) // nothing to do here!
             return;
         if (range < 0)
             throw new IllegalArgumentException("end must be more than start. " + start + " -> " + endExclusive);
 
-        int block = selectBlockSize(range, minBlock, numThreads);
+        int block = selectBlockSize(range, minBlock, getMaxThreads());
 
-        try {
-            pool.submit(new IntRangeTask(start, endExclusive, block, consumer)).get();
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
-        }
+        runBlocks(localScope.get(), start, endExclusive, block, consumer);
     }
 
     static int selectBlockSize( int range, int minBlock, int numThreads ) {
@@ -163,9 +300,6 @@ public class ConcurrencyOps {
      * @param consumer The consumer
      */
     public static void loopBlocks( int start, int endExclusive, IntRangeConsumer consumer ) {
-        final ForkJoinPool pool = ConcurrencyOps.pool;
-        int numThreads = pool.getParallelism();
-
         int range = endExclusive - start;
         if (range == 0) // nothing to do here!
             return;
@@ -174,13 +308,9 @@ public class ConcurrencyOps {
 
         // Did some experimentation here. Gave it more threads than were needed or exactly what was needed
         // exactly seemed to do better in the test cases
-        int blockSize = Math.max(1, range/numThreads);
+        int blockSize = Math.max(1, range/getMaxThreads());
 
-        try {
-            pool.submit(new IntRangeTask(start, endExclusive, blockSize, consumer)).get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
-        }
+        runBlocks(localScope.get(), start, endExclusive, blockSize, consumer);
     }
 
     /**
@@ -192,9 +322,6 @@ public class ConcurrencyOps {
      * @param consumer The consumer
      */
     public static <T> void loopBlocks( int start, int endExclusive, GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
-        final ForkJoinPool pool = ConcurrencyOps.pool;
-        int numThreads = pool.getParallelism();
-
         int range = endExclusive - start;
         if (range == 0) // nothing to do here!
             return;
@@ -203,9 +330,9 @@ public class ConcurrencyOps {
 
         // Did some experimentation here. Gave it more threads than were needed or exactly what was needed
         // exactly seemed to do better in the test cases
-        int blockSize = Math.max(1, range/numThreads);
+        int blockSize = Math.max(1, range/getMaxThreads());
 
-        runLoopBlocks(start, endExclusive, workspace, consumer, pool, blockSize);
+        runLoopBlocks(start, endExclusive, workspace, consumer, blockSize);
     }
 
     /**
@@ -219,28 +346,120 @@ public class ConcurrencyOps {
      */
     public static <T> void loopBlocks( int start, int endExclusive, int minBlock,
                                        GrowArray<T> workspace, IntRangeObjectConsumer<T> consumer ) {
-        final ForkJoinPool pool = ConcurrencyOps.pool;
-        int numThreads = pool.getParallelism();
-
         int range = endExclusive - start;
         if (range == 0) // nothing to do here!
             return;
         if (range < 0)
             throw new IllegalArgumentException("end must be more than start. " + start + " -> " + endExclusive);
 
-        int blockSize = selectBlockSize(range, minBlock, numThreads);
+        int blockSize = selectBlockSize(range, minBlock, getMaxThreads());
 
-        runLoopBlocks(start, endExclusive, workspace, consumer, pool, blockSize);
+        runLoopBlocks(start, endExclusive, workspace, consumer, blockSize);
     }
 
     private static <T> void runLoopBlocks( int start, int endExclusive, GrowArray<T> workspace,
-                                           IntRangeObjectConsumer<T> consumer, ForkJoinPool pool, int blockSize ) {
+                                           IntRangeObjectConsumer<T> consumer, int blockSize ) {
         workspace.reset();
+        // Declare the workspace here instead of inside the task so that it doesn't matter where the task is run
+        workspace.resize((endExclusive - start)/blockSize);
+        runBlocks(localScope.get(), start, endExclusive, blockSize,
+                ( idx0, idx1 ) -> consumer.accept(workspace.get((idx0 - start)/blockSize), idx0, idx1));
+    }
+
+    /**
+     * Breaks the range up into blocks of the specified size and runs them using the scope. The last block
+     * will be larger if the range isn't divisible by the block size.
+     */
+    private static void runBlocks( @Nullable ConcurrencyScope scope, int start, int endExclusive, int blockSize,
+                                   IntRangeConsumer consumer ) {
+        int numBlocks = Math.max(1, (endExclusive - start)/blockSize);
+
+        if (scope == null || scope.pool != null) {
+            ForkJoinPool pool = scope == null ? ConcurrencyOps.pool : scope.pool;
+            try {
+                pool.submit(new IntRangeTask(start, endExclusive, blockSize,
+                        ( i0, i1 ) -> runInWorker(consumer, i0, i1))).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+            return;
+        }
+
+        if (scope.executor == null || numBlocks == 1) {
+            // Run in the calling thread. This happens when inside a worker or when requested
+            for (int block = 0; block < numBlocks; block++) {
+                int idx0 = start + block*blockSize;
+                int idx1 = block + 1 == numBlocks ? endExclusive : idx0 + blockSize;
+                runInWorker(consumer, idx0, idx1);
+            }
+            return;
+        }
+
+        final Executor executor = scope.executor;
+        final var latch = new CountDownLatch(numBlocks - 1);
+        final var failure = new AtomicReference<@Nullable Throwable>();
+
+        for (int block = 0; block < numBlocks - 1; block++) {
+            int idx0 = start + block*blockSize;
+            int idx1 = idx0 + blockSize;
+            Runnable task = () -> {
+                try {
+                    runInWorker(consumer, idx0, idx1);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    latch.countDown();
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The executor is saturated or shutting down. Run it in this thread instead
+                task.run();
+            }
+        }
+
+        // process the last block in this thread
         try {
-            pool.submit(new IntRangeObjectTask<>(start, endExclusive, blockSize, workspace, consumer)).get();
-        } catch (InterruptedException | ExecutionException e) {
+            runInWorker(consumer, start + (numBlocks - 1)*blockSize, endExclusive);
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException)
+            throw (RuntimeException)t;
+        if (t instanceof Error)
+            throw (Error)t;
+        if (t != null)
+            throw new RuntimeException(t);
+    }
+
+    /**
+     * Marks the thread as being inside a worker so that nested calls will be run inline
+     *
+     * @return The previous scope, which should be restored when finished.
+     */
+    private static @Nullable ConcurrencyScope enterWorker() {
+        ConcurrencyScope previous = localScope.get();
+        localScope.set(ConcurrencyScope.INLINE);
+        return previous;
+    }
+
+    private static void runInWorker( IntRangeConsumer consumer, int idx0, int idx1 ) {
+        ConcurrencyScope previous = enterWorker();
+        try {
+            consumer.accept(idx0, idx1);
+        } finally {
+            localScope.set(previous);
+        }
     }
 
     /**
@@ -253,11 +472,7 @@ public class ConcurrencyOps {
      * @return The sum
      */
     public static Number sum( int start, int endExclusive, Class type, IntProducerNumber producer ) {
-        try {
-            return pool.submit(new IntOperatorTask.Sum(start, endExclusive, type, producer)).get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
-        }
+        return reduce(new IntOperatorTask.Sum(start, endExclusive, type, producer));
     }
 
     /**
@@ -270,11 +485,7 @@ public class ConcurrencyOps {
      * @return The sum
      */
     public static Number max( int start, int endExclusive, Class type, IntProducerNumber producer ) {
-        try {
-            return pool.submit(new IntOperatorTask.Max(start, endExclusive, type, producer)).get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
-        }
+        return reduce(new IntOperatorTask.Max(start, endExclusive, type, producer));
     }
 
     /**
@@ -287,15 +498,448 @@ public class ConcurrencyOps {
      * @return The sum
      */
     public static Number min( int start, int endExclusive, Class type, IntProducerNumber producer ) {
-        try {
-            return pool.submit(new IntOperatorTask.Min(start, endExclusive, type, producer)).get();
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException(e);
+        return reduce(new IntOperatorTask.Min(start, endExclusive, type, producer));
+    }
+
+    private static Number reduce( IntOperatorTask task ) {
+        // Compute the value for each index using the scope then combine them in this thread. runBlocks marks
+        // the threads as workers so that nested concurrent calls are run inline
+        final int start = task.value;
+        final Number[] values = new Number[task.max - start];
+        runBlocks(localScope.get(), start, task.max, Math.max(1, values.length/getMaxThreads()), ( idx0, idx1 ) -> {
+            for (int i = idx0; i < idx1; i++) {
+                values[i - start] = task.consumer.accept(i);
+            }
+        });
+        task.result = values[0];
+        for (int i = 1; i < values.length; i++) {
+            task.operator(values[i]);
+        }
+        return task.result;
+    }
+
+    /**
+     * Minimum number of elements processed by each block in the generic reductions which take a producer function,
+     * i.e. sumDouble(), maxDouble(), minDouble() and their float, int, and long versions. Matrix reductions in
+     * ejml-ddense have their own threshold, see CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK.
+     */
+    public static int REDUCE_MIN_BLOCK = 1000;
+
+    // Size of a leaf in pairwise summation
+    private static final int PAIRWISE_LEAF = 128;
+
+    /**
+     * Selects the size of each block in a reduction over the range
+     */
+    private static int reduceBlockSize( int start, int endExclusive, int minBlock ) {
+        int range = endExclusive - start;
+        if (range < 0)
+            throw new IllegalArgumentException("end must be more than start. " + start + " -> " + endExclusive);
+        return selectBlockSize(range, Math.max(1, minBlock), getMaxThreads());
+    }
+
+    /**
+     * Concurrent reduction of double values. The range is broken up into blocks, each block is reduced into a single
+     * value in its own thread, then the results from each block are combined in a pairwise fashion. Primitive
+     * values are used throughout so nothing is boxed.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum size of a block
+     * @param identity Value returned if the range is empty
+     * @param block Computes the reduction for a block
+     * @param combine Combines the results from two blocks
+     * @return The result of the reduction
+     */
+    public static double reduceDouble( int start, int endExclusive, int minBlock, double identity,
+                               IntRangeToDouble block, DoubleBinaryOperator combine ) {
+        if (endExclusive == start)
+            return identity;
+        final int blockSize = reduceBlockSize(start, endExclusive, minBlock);
+        final int numBlocks = (endExclusive - start)/blockSize;
+        if (numBlocks == 1)
+            return block.accept(start, endExclusive);
+
+        // Each block writes to its own element so there's no contention between threads
+        final double[] partial = new double[numBlocks];
+        runBlocks(localScope.get(), start, endExclusive, blockSize,
+                ( idx0, idx1 ) -> partial[(idx0 - start)/blockSize] = block.accept(idx0, idx1));
+        return combinePairwise(partial, 0, numBlocks, combine);
+    }
+
+    private static double combinePairwise( double[] values, int idx0, int idx1, DoubleBinaryOperator combine ) {
+        if (idx1 - idx0 == 1)
+            return values[idx0];
+        int middle = (idx0 + idx1) >>> 1;
+        double left = combinePairwise(values, idx0, middle, combine);
+        double right = combinePairwise(values, middle, idx1, combine);
+        return combine.applyAsDouble(left, right);
+    }
+
+    /**
+     * Concurrent sum of double values using pairwise summation.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The sum. 0 if the range is empty.
+     */
+    public static double sumDouble( int start, int endExclusive, IntToDoubleFunction producer ) {
+        return reduceDouble(start, endExclusive, REDUCE_MIN_BLOCK, 0,
+                ( idx0, idx1 ) -> pairwiseSumDouble(producer, idx0, idx1), Double::sum);
+    }
+
+    /**
+     * Concurrent max of double values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The max. Double.NEGATIVE_INFINITY if the range is empty.
+     */
+    public static double maxDouble( int start, int endExclusive, IntToDoubleFunction producer ) {
+        return reduceDouble(start, endExclusive, REDUCE_MIN_BLOCK, Double.NEGATIVE_INFINITY, ( idx0, idx1 ) -> {
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = idx0; i < idx1; i++) {
+                max = Math.max(max, producer.applyAsDouble(i));
+            }
+            return max;
+        }, Math::max);
+    }
+
+    /**
+     * Concurrent min of double values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The min. Double.POSITIVE_INFINITY if the range is empty.
+     */
+    public static double minDouble( int start, int endExclusive, IntToDoubleFunction producer ) {
+        return reduceDouble(start, endExclusive, REDUCE_MIN_BLOCK, Double.POSITIVE_INFINITY, ( idx0, idx1 ) -> {
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = idx0; i < idx1; i++) {
+                min = Math.min(min, producer.applyAsDouble(i));
+            }
+            return min;
+        }, Math::min);
+    }
+
+    /**
+     * Pairwise summation. The error grows with O(log n) instead of O(n) for a sequential sum.
+     */
+    static double pairwiseSumDouble( IntToDoubleFunction producer, int idx0, int idx1 ) {
+        if (idx1 - idx0 <= PAIRWISE_LEAF) {
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += producer.applyAsDouble(i);
+            }
+            return sum;
+        }
+        int middle = (idx0 + idx1) >>> 1;
+        return pairwiseSumDouble(producer, idx0, middle) + pairwiseSumDouble(producer, middle, idx1);
+    }
+
+    /**
+     * Concurrent reduction of float values. The range is broken up into blocks, each block is reduced into a single
+     * value in its own thread, then the results from each block are combined in a pairwise fashion. Primitive
+     * values are used throughout so nothing is boxed.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum size of a block
+     * @param identity Value returned if the range is empty
+     * @param block Computes the reduction for a block
+     * @param combine Combines the results from two blocks
+     * @return The result of the reduction
+     */
+    public static float reduceFloat( int start, int endExclusive, int minBlock, float identity,
+                               IntRangeToFloat block, FloatBinaryOperator combine ) {
+        if (endExclusive == start)
+            return identity;
+        final int blockSize = reduceBlockSize(start, endExclusive, minBlock);
+        final int numBlocks = (endExclusive - start)/blockSize;
+        if (numBlocks == 1)
+            return block.accept(start, endExclusive);
+
+        // Each block writes to its own element so there's no contention between threads
+        final float[] partial = new float[numBlocks];
+        runBlocks(localScope.get(), start, endExclusive, blockSize,
+                ( idx0, idx1 ) -> partial[(idx0 - start)/blockSize] = block.accept(idx0, idx1));
+        return combinePairwise(partial, 0, numBlocks, combine);
+    }
+
+    private static float combinePairwise( float[] values, int idx0, int idx1, FloatBinaryOperator combine ) {
+        if (idx1 - idx0 == 1)
+            return values[idx0];
+        int middle = (idx0 + idx1) >>> 1;
+        float left = combinePairwise(values, idx0, middle, combine);
+        float right = combinePairwise(values, middle, idx1, combine);
+        return combine.applyAsFloat(left, right);
+    }
+
+    /**
+     * Concurrent sum of float values using pairwise summation.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The sum. 0 if the range is empty.
+     */
+    public static float sumFloat( int start, int endExclusive, IntToFloatFunction producer ) {
+        return reduceFloat(start, endExclusive, REDUCE_MIN_BLOCK, 0,
+                ( idx0, idx1 ) -> pairwiseSumFloat(producer, idx0, idx1), Float::sum);
+    }
+
+    /**
+     * Concurrent max of float values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The max. Float.NEGATIVE_INFINITY if the range is empty.
+     */
+    public static float maxFloat( int start, int endExclusive, IntToFloatFunction producer ) {
+        return reduceFloat(start, endExclusive, REDUCE_MIN_BLOCK, Float.NEGATIVE_INFINITY, ( idx0, idx1 ) -> {
+            float max = Float.NEGATIVE_INFINITY;
+            for (int i = idx0; i < idx1; i++) {
+                max = Math.max(max, producer.applyAsFloat(i));
+            }
+            return max;
+        }, Math::max);
+    }
+
+    /**
+     * Concurrent min of float values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The min. Float.POSITIVE_INFINITY if the range is empty.
+     */
+    public static float minFloat( int start, int endExclusive, IntToFloatFunction producer ) {
+        return reduceFloat(start, endExclusive, REDUCE_MIN_BLOCK, Float.POSITIVE_INFINITY, ( idx0, idx1 ) -> {
+            float min = Float.POSITIVE_INFINITY;
+            for (int i = idx0; i < idx1; i++) {
+                min = Math.min(min, producer.applyAsFloat(i));
+            }
+            return min;
+        }, Math::min);
+    }
+
+    /**
+     * Pairwise summation. The error grows with O(log n) instead of O(n) for a sequential sum.
+     */
+    static float pairwiseSumFloat( IntToFloatFunction producer, int idx0, int idx1 ) {
+        if (idx1 - idx0 <= PAIRWISE_LEAF) {
+            float sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += producer.applyAsFloat(i);
+            }
+            return sum;
+        }
+        int middle = (idx0 + idx1) >>> 1;
+        return pairwiseSumFloat(producer, idx0, middle) + pairwiseSumFloat(producer, middle, idx1);
+    }
+
+    /**
+     * Concurrent reduction of int values. The range is broken up into blocks, each block is reduced into a single
+     * value in its own thread, then the results from each block are combined in a pairwise fashion. Primitive
+     * values are used throughout so nothing is boxed.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum size of a block
+     * @param identity Value returned if the range is empty
+     * @param block Computes the reduction for a block
+     * @param combine Combines the results from two blocks
+     * @return The result of the reduction
+     */
+    public static int reduceInt( int start, int endExclusive, int minBlock, int identity,
+                               IntRangeToInt block, IntBinaryOperator combine ) {
+        if (endExclusive == start)
+            return identity;
+        final int blockSize = reduceBlockSize(start, endExclusive, minBlock);
+        final int numBlocks = (endExclusive - start)/blockSize;
+        if (numBlocks == 1)
+            return block.accept(start, endExclusive);
+
+        // Each block writes to its own element so there's no contention between threads
+        final int[] partial = new int[numBlocks];
+        runBlocks(localScope.get(), start, endExclusive, blockSize,
+                ( idx0, idx1 ) -> partial[(idx0 - start)/blockSize] = block.accept(idx0, idx1));
+        return combinePairwise(partial, 0, numBlocks, combine);
+    }
+
+    private static int combinePairwise( int[] values, int idx0, int idx1, IntBinaryOperator combine ) {
+        if (idx1 - idx0 == 1)
+            return values[idx0];
+        int middle = (idx0 + idx1) >>> 1;
+        int left = combinePairwise(values, idx0, middle, combine);
+        int right = combinePairwise(values, middle, idx1, combine);
+        return combine.applyAsInt(left, right);
+    }
+
+    /**
+     * Concurrent sum of int values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The sum. 0 if the range is empty.
+     */
+    public static int sumInt( int start, int endExclusive, IntUnaryOperator producer ) {
+        return reduceInt(start, endExclusive, REDUCE_MIN_BLOCK, 0,
+                ( idx0, idx1 ) -> sequentialSumInt(producer, idx0, idx1), Integer::sum);
+    }
+
+    /**
+     * Concurrent max of int values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The max. Integer.MIN_VALUE if the range is empty.
+     */
+    public static int maxInt( int start, int endExclusive, IntUnaryOperator producer ) {
+        return reduceInt(start, endExclusive, REDUCE_MIN_BLOCK, Integer.MIN_VALUE, ( idx0, idx1 ) -> {
+            int max = Integer.MIN_VALUE;
+            for (int i = idx0; i < idx1; i++) {
+                max = Math.max(max, producer.applyAsInt(i));
+            }
+            return max;
+        }, Math::max);
+    }
+
+    /**
+     * Concurrent min of int values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The min. Integer.MAX_VALUE if the range is empty.
+     */
+    public static int minInt( int start, int endExclusive, IntUnaryOperator producer ) {
+        return reduceInt(start, endExclusive, REDUCE_MIN_BLOCK, Integer.MAX_VALUE, ( idx0, idx1 ) -> {
+            int min = Integer.MAX_VALUE;
+            for (int i = idx0; i < idx1; i++) {
+                min = Math.min(min, producer.applyAsInt(i));
+            }
+            return min;
+        }, Math::min);
+    }
+
+    private static int sequentialSumInt( IntUnaryOperator producer, int idx0, int idx1 ) {
+        int sum = 0;
+        for (int i = idx0; i < idx1; i++) {
+            sum += producer.applyAsInt(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Concurrent reduction of long values. The range is broken up into blocks, each block is reduced into a single
+     * value in its own thread, then the results from each block are combined in a pairwise fashion. Primitive
+     * values are used throughout so nothing is boxed.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock Minimum size of a block
+     * @param identity Value returned if the range is empty
+     * @param block Computes the reduction for a block
+     * @param combine Combines the results from two blocks
+     * @return The result of the reduction
+     */
+    public static long reduceLong( int start, int endExclusive, int minBlock, long identity,
+                               IntRangeToLong block, LongBinaryOperator combine ) {
+        if (endExclusive == start)
+            return identity;
+        final int blockSize = reduceBlockSize(start, endExclusive, minBlock);
+        final int numBlocks = (endExclusive - start)/blockSize;
+        if (numBlocks == 1)
+            return block.accept(start, endExclusive);
+
+        // Each block writes to its own element so there's no contention between threads
+        final long[] partial = new long[numBlocks];
+        runBlocks(localScope.get(), start, endExclusive, blockSize,
+                ( idx0, idx1 ) -> partial[(idx0 - start)/blockSize] = block.accept(idx0, idx1));
+        return combinePairwise(partial, 0, numBlocks, combine);
+    }
+
+    private static long combinePairwise( long[] values, int idx0, int idx1, LongBinaryOperator combine ) {
+        if (idx1 - idx0 == 1)
+            return values[idx0];
+        int middle = (idx0 + idx1) >>> 1;
+        long left = combinePairwise(values, idx0, middle, combine);
+        long right = combinePairwise(values, middle, idx1, combine);
+        return combine.applyAsLong(left, right);
+    }
+
+    /**
+     * Concurrent sum of long values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The sum. 0 if the range is empty.
+     */
+    public static long sumLong( int start, int endExclusive, IntToLongFunction producer ) {
+        return reduceLong(start, endExclusive, REDUCE_MIN_BLOCK, 0,
+                ( idx0, idx1 ) -> sequentialSumLong(producer, idx0, idx1), Long::sum);
+    }
+
+    /**
+     * Concurrent max of long values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The max. Long.MIN_VALUE if the range is empty.
+     */
+    public static long maxLong( int start, int endExclusive, IntToLongFunction producer ) {
+        return reduceLong(start, endExclusive, REDUCE_MIN_BLOCK, Long.MIN_VALUE, ( idx0, idx1 ) -> {
+            long max = Long.MIN_VALUE;
+            for (int i = idx0; i < idx1; i++) {
+                max = Math.max(max, producer.applyAsLong(i));
+            }
+            return max;
+        }, Math::max);
+    }
+
+    /**
+     * Concurrent min of long values.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param producer Returns the value for an index
+     * @return The min. Long.MAX_VALUE if the range is empty.
+     */
+    public static long minLong( int start, int endExclusive, IntToLongFunction producer ) {
+        return reduceLong(start, endExclusive, REDUCE_MIN_BLOCK, Long.MAX_VALUE, ( idx0, idx1 ) -> {
+            long min = Long.MAX_VALUE;
+            for (int i = idx0; i < idx1; i++) {
+                min = Math.min(min, producer.applyAsLong(i));
+            }
+            return min;
+        }, Math::min);
+    }
+
+    private static long sequentialSumLong( IntToLongFunction producer, int idx0, int idx1 ) {
+        long sum = 0;
+        for (int i = idx0; i < idx1; i++) {
+            sum += producer.applyAsLong(i);
         }
+        return sum;
     }
 
-    /** Returns the thread pool. */
+    /**
+     * Returns the thread pool used by the current thread. If the active scope uses an executor which is not
+     * a {@link ForkJoinPool} then the global pool is returned.
+     */
     public static ForkJoinPool getThreadPool() {
+        ConcurrencyScope scope = localScope.get();
+        if (scope != null && scope.pool != null)
+            return scope.pool;
         return pool;
     }
 
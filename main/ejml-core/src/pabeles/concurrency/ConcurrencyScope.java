@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package pabeles.concurrency;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>
+ * Specifies where concurrent operations in {@link ConcurrencyOps} are run for the thread which installed it.
+ * While a scope is open it overrides the global thread pool, allowing different callers to use different thread
+ * pools or to be capped at a different number of threads. Scopes are closed in the reverse order they were
+ * opened and should be used in a try-with-resources block:
+ * </p>
+ *
+ * <pre>
+ * try (ConcurrencyScope scope = ConcurrencyOps.usePool(tenantPool)) {
+ *     CommonOps_MT_DDRM.mult(A, B, C);
+ * }
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public final class ConcurrencyScope implements AutoCloseable {
+    /**
+     * Installed while running inside a worker. Concurrent operations called from inside a worker will
+     * run in the calling thread instead of spawning more tasks.
+     */
+    static final ConcurrencyScope INLINE = new ConcurrencyScope(null, null, 1, null, null);
+
+    /** If not null then tasks are submitted to this pool */
+    final @Nullable ForkJoinPool pool;
+    /** If not null then tasks are submitted to this executor */
+    final @Nullable Executor executor;
+    /** Maximum number of blocks a problem is broken up into */
+    final int parallelism;
+
+    // Scope which was active before this one was opened
+    final @Nullable ConcurrencyScope previous;
+    // Thread which opened the scope
+    final @Nullable Thread owner;
+    boolean closed = false;
+
+    ConcurrencyScope( @Nullable ForkJoinPool pool, @Nullable Executor executor, int parallelism,
+                      @Nullable ConcurrencyScope previous, @Nullable Thread owner ) {
+        this.pool = pool;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.previous = previous;
+        this.owner = owner;
+    }
+
+    /**
+     * Maximum number of threads which will be used inside this scope
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * True if operations are run in the calling thread
+     */
+    public boolean isInline() {
+        return pool == null && executor == null;
+    }
+
+    /**
+     * Restores the scope which was active before this one was opened. Calling close multiple times has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        if (Thread.currentThread() != owner)
+            throw new IllegalStateException("A scope must be closed by the thread which opened it");
+        if (ConcurrencyOps.localScope.get() != this)
+            throw new IllegalStateException("Scopes must be closed in the reverse order they were opened");
+        closed = true;
+        ConcurrencyOps.localScope.set(previous);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package pabeles.concurrency;
+
+/**
+ * Processes a range of integer numbers and returns a float, e.g. a partial result of a reduction
+ *
+ * @author Peter Abeles
+ */
+@FunctionalInterface
+public interface IntRangeToFloat {
+    float accept( int minInclusive, int maxExclusive );
+}
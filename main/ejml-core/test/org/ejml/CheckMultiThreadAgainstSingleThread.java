@@ -19,10 +19,14 @@
 package org.ejml;
 
 import org.ejml.data.*;
+import org.ejml.dense.row.MatrixFeatures_CDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.MatrixFeatures_FDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_CDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.dense.row.RandomMatrices_FDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
@@ -180,6 +184,16 @@ public abstract class CheckMultiThreadAgainstSingleThread extends EjmlStandardJU
                 RandomMatrices_DDRM.fillUniform(m,-1,1,rand);
                 inputsThreaded[i] = m.copy();
                 inputsSingle[i] = m;
+            } else if(typesThreaded[i].isAssignableFrom(CMatrixRMaj.class)) {
+                CMatrixRMaj m = new CMatrixRMaj(size, size);
+                RandomMatrices_CDRM.fillUniform(m, -1, 1, rand);
+                inputsThreaded[i] = m.copy();
+                inputsSingle[i] = m;
+            } else if(typesThreaded[i].isAssignableFrom(ZMatrixRMaj.class)) {
+                ZMatrixRMaj m = new ZMatrixRMaj(size, size);
+                RandomMatrices_ZDRM.fillUniform(m, -1, 1, rand);
+                inputsThreaded[i] = m.copy();
+                inputsSingle[i] = m;
             } else if(Submatrix.class.isAssignableFrom(typesThreaded[i])) {
                 long seed = rand.nextLong();
                 inputsThreaded[i] = createSubmatrix(seed);
@@ -220,6 +234,14 @@ public abstract class CheckMultiThreadAgainstSingleThread extends EjmlStandardJU
             DMatrixRMaj bb = (DMatrixRMaj)b;
             DMatrixRMaj aa = (DMatrixRMaj)a;
             return MatrixFeatures_DDRM.isIdentical(aa, bb, UtilEjml.TEST_F64);
+        } else if(CMatrixRMaj.class.isAssignableFrom(a.getClass()) ) {
+            CMatrixRMaj bb = (CMatrixRMaj)b;
+            CMatrixRMaj aa = (CMatrixRMaj)a;
+            return MatrixFeatures_CDRM.isIdentical(aa, bb, UtilEjml.TEST_F32);
+        } else if(ZMatrixRMaj.class.isAssignableFrom(a.getClass()) ) {
+            ZMatrixRMaj bb = (ZMatrixRMaj)b;
+            ZMatrixRMaj aa = (ZMatrixRMaj)a;
+            return MatrixFeatures_ZDRM.isIdentical(aa, bb, UtilEjml.TEST_F64);
         } else if(FMatrixRBlock.class.isAssignableFrom(a.getClass()) ) {
             FMatrixRBlock bb = (FMatrixRBlock)b;
             FMatrixRBlock aa = (FMatrixRBlock)a;
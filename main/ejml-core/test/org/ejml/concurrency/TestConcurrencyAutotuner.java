@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import org.ejml.EjmlStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestConcurrencyAutotuner extends EjmlStandardJUnit {
+    ConcurrencyProfile original = ConcurrencyProfile.current();
+    boolean originalUse = EjmlConcurrency.USE_CONCURRENT;
+
+    @BeforeEach void before() {
+        original = ConcurrencyProfile.current();
+        originalUse = EjmlConcurrency.USE_CONCURRENT;
+    }
+
+    @AfterEach void restore() {
+        original.apply();
+        EjmlConcurrency.USE_CONCURRENT = originalUse;
+    }
+
+    @Test void selectThreshold() {
+        int[] sizes = {10, 20, 30, 40};
+        double[] single = {1, 2, 3, 4};
+
+        // concurrent is faster once above 20
+        assertEquals(20, ConcurrencyAutotuner.selectThreshold(sizes, single, new double[]{5, 3, 1, 1}, 0.1));
+        // the margin needs to be exceeded
+        assertEquals(30, ConcurrencyAutotuner.selectThreshold(sizes, single, new double[]{5, 3, 2.9, 1}, 0.1));
+        // noise at smaller sizes is ignored once it's slower at a larger size
+        assertEquals(30, ConcurrencyAutotuner.selectThreshold(sizes, single, new double[]{0.1, 3, 4, 1}, 0.1));
+        // always faster
+        assertEquals(0, ConcurrencyAutotuner.selectThreshold(sizes, single, new double[]{0.5, 1, 1, 1}, 0.1));
+        // never faster
+        assertEquals(Integer.MAX_VALUE,
+                ConcurrencyAutotuner.selectThreshold(sizes, single, new double[]{0.5, 1, 1, 5}, 0.1));
+    }
+
+    /**
+     * Use benchmarks where the results are known
+     */
+    @Test void tune() {
+        EjmlConcurrency.USE_CONCURRENT = true;
+
+        var alg = new ConcurrencyAutotuner();
+        alg.sizes = new int[]{1, 2, 3};
+        alg.blockWidths = new int[]{4, 8, 12};
+        alg.trials = 2;
+        alg.addCalibration(ConcurrentOperation.DENSE_MULT,
+                size -> ConcurrencyAutotuner.trial(() -> sleep(1), () -> sleep(size == 3 ? 0 : 5)));
+        alg.setBlockWidthBenchmark(width -> () -> sleep(width == 8 ? 0 : 2));
+
+        ConcurrencyProfile found = alg.tune();
+        assertEquals(2, found.getThreshold(ConcurrentOperation.DENSE_MULT));
+        assertEquals(8, found.blockWidth);
+        // these were not calibrated
+        assertEquals(original.blockWidthChol, found.blockWidthChol);
+        assertEquals(original.getThreshold(ConcurrentOperation.SPARSE_ADD),
+                found.getThreshold(ConcurrentOperation.SPARSE_ADD));
+
+        // tuning should not change global settings
+        assertEquals(original.blockWidth, ConcurrencyProfile.current().blockWidth);
+    }
+
+    @Test void loadOrTune() throws IOException {
+        File dir = Files.createTempDirectory("ejml").toFile();
+        File file = new File(dir, "sub/profile.properties");
+        try {
+            var alg = new ConcurrencyAutotuner();
+            alg.setBlockWidthBenchmark(width -> () -> {});
+            alg.blockWidths = new int[]{24};
+
+            ConcurrencyProfile first = alg.loadOrTune(file);
+            assertTrue(file.isFile());
+            assertEquals(24, first.blockWidth);
+            assertEquals(24, ConcurrencyProfile.current().blockWidth);
+
+            // It should load the file now instead of tuning
+            alg.blockWidths = new int[]{36};
+            assertEquals(24, alg.loadOrTune(file).blockWidth);
+
+            // Explicitly load the same file
+            original.apply();
+            EjmlConcurrency.loadProfile(file);
+            assertEquals(24, ConcurrencyProfile.current().blockWidth);
+
+            // failures are reported with an exception and don't change the settings
+            original.apply();
+            assertThrows(IOException.class, () -> EjmlConcurrency.loadProfile(new File(dir, "missing.properties")));
+            assertEquals(original.blockWidth, ConcurrencyProfile.current().blockWidth);
+        } finally {
+            assertTrue(file.delete());
+            assertTrue(file.getParentFile().delete());
+            assertTrue(dir.delete());
+        }
+    }
+
+    private static void sleep( long milli ) {
+        try {
+            Thread.sleep(milli);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
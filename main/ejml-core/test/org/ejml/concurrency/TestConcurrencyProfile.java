@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.concurrency;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestConcurrencyProfile extends EjmlStandardJUnit {
+    ConcurrencyProfile original = ConcurrencyProfile.current();
+    boolean originalUse = EjmlConcurrency.USE_CONCURRENT;
+
+    @BeforeEach void before() {
+        original = ConcurrencyProfile.current();
+        originalUse = EjmlConcurrency.USE_CONCURRENT;
+    }
+
+    @AfterEach void restore() {
+        original.apply();
+        EjmlConcurrency.USE_CONCURRENT = originalUse;
+    }
+
+    @Test void saveLoad() throws IOException {
+        var profile = new ConcurrencyProfile();
+        profile.elementThreshold = 1234;
+        profile.setThreshold(ConcurrentOperation.DENSE_MULT, 500);
+        profile.setThreshold(ConcurrentOperation.SPARSE_ADD, Integer.MAX_VALUE);
+        profile.blockWidth = 48;
+        profile.blockWidthChol = 32;
+
+        var writer = new StringWriter();
+        profile.save(writer);
+        ConcurrencyProfile found = ConcurrencyProfile.load(new StringReader(writer.toString()));
+
+        assertEquals(1234, found.elementThreshold);
+        assertArrayEquals(profile.thresholds, found.thresholds);
+        assertEquals(-1, found.thresholds[ConcurrentOperation.DENSE_TRANSPOSE.ordinal()]);
+        assertEquals(48, found.blockWidth);
+        assertEquals(32, found.blockWidthChol);
+    }
+
+    /**
+     * Values which are missing should be the default and bad values should cause an exception
+     */
+    @Test void load_missingAndBad() throws IOException {
+        ConcurrencyProfile found = ConcurrencyProfile.load(new StringReader("block_width=33\n"));
+        assertEquals(33, found.blockWidth);
+        assertEquals(new ConcurrencyProfile().blockWidthChol, found.blockWidthChol);
+        assertEquals(new ConcurrencyProfile().elementThreshold, found.elementThreshold);
+
+        assertThrows(IOException.class, () -> ConcurrencyProfile.load(new StringReader("block_width=abc\n")));
+        assertThrows(IOException.class, () -> ConcurrencyProfile.load(new StringReader("block_width_chol=0\n")));
+    }
+
+    @Test void applyAndCurrent() {
+        var profile = new ConcurrencyProfile();
+        profile.elementThreshold = 99;
+        profile.setThreshold(ConcurrentOperation.DENSE_TRANSPOSE, 10);
+        profile.blockWidth = 40;
+        profile.blockWidthChol = 12;
+        profile.apply();
+
+        assertEquals(99, EjmlConcurrency.ELEMENT_THRESHOLD);
+        assertEquals(10, EjmlConcurrency.getThreshold(ConcurrentOperation.DENSE_TRANSPOSE));
+        assertEquals(-1, EjmlConcurrency.getThreshold(ConcurrentOperation.DENSE_MULT));
+        assertEquals(99, EjmlConcurrency.getEffectiveThreshold(ConcurrentOperation.DENSE_MULT));
+        assertEquals(40, EjmlParameters.BLOCK_WIDTH);
+        assertEquals(12, EjmlParameters.BLOCK_WIDTH_CHOL);
+
+        ConcurrencyProfile found = ConcurrencyProfile.current();
+        assertEquals(99, found.elementThreshold);
+        assertArrayEquals(profile.thresholds, found.thresholds);
+        assertEquals(40, found.blockWidth);
+        assertEquals(12, found.blockWidthChol);
+    }
+
+    /**
+     * Operation specific thresholds should override the global one
+     */
+    @Test void useConcurrent_operation() {
+        EjmlConcurrency.USE_CONCURRENT = true;
+        EjmlConcurrency.ELEMENT_THRESHOLD = 1000;
+        EjmlConcurrency.setThreshold(ConcurrentOperation.DENSE_TRANSPOSE, 10);
+
+        var A = new DMatrixRMaj(5, 5);
+        assertTrue(EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_TRANSPOSE, A));
+        assertFalse(EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_MULT, A));
+        assertFalse(EjmlConcurrency.useConcurrent(A));
+
+        var S = new DMatrixSparseCSC(100, 100, 20);
+        S.nz_length = 20;
+        assertTrue(EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_TRANSPOSE, S));
+        assertFalse(EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT, S));
+
+        EjmlConcurrency.USE_CONCURRENT = false;
+        assertFalse(EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_TRANSPOSE, A));
+    }
+}
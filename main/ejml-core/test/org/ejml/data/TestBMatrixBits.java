@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.EjmlStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBMatrixBits extends EjmlStandardJUnit {
+    @Test
+    void set_get() {
+        var A = new BMatrixBits(7, 11);
+        assertEquals(2, A.data.length);
+
+        A.set(0, 0, true);
+        A.set(5, 9, true);
+        A.set(6, 10, true);
+        A.set(5, 9, false);
+        A.set(3, 2, true);
+
+        for (int row = 0; row < 7; row++) {
+            for (int col = 0; col < 11; col++) {
+                boolean expected = (row == 0 && col == 0) || (row == 6 && col == 10) || (row == 3 && col == 2);
+                assertEquals(expected, A.get(row, col));
+                assertEquals(expected, A.get(A.getIndex(row, col)));
+            }
+        }
+        assertEquals(3, A.sum());
+
+        assertThrows(IllegalArgumentException.class, () -> A.get(7, 0));
+        assertThrows(IllegalArgumentException.class, () -> A.set(0, 11, true));
+
+        // Index 77 is in the last word but outside the matrix. Setting it would corrupt sum()
+        assertThrows(IllegalArgumentException.class, () -> A.set(77, true));
+        assertThrows(IllegalArgumentException.class, () -> A.set(-1, true));
+        assertEquals(3, A.sum());
+    }
+
+    @Test
+    void fill() {
+        var A = new BMatrixBits(3, 30);
+        A.fill(true);
+        assertEquals(90, A.sum());
+        // bits after the last element must not be set
+        assertEquals(0, A.data[1] >>> (90 - 64));
+
+        A.fill(false);
+        assertEquals(0, A.sum());
+    }
+
+    @Test
+    void reshape() {
+        var A = new BMatrixBits(10, 10);
+        A.fill(true);
+        A.reshape(3, 5);
+        assertEquals(2, A.data.length);
+        // bits after the last element are cleared so that sum() only counts elements in the matrix
+        assertEquals(15, A.sum());
+
+        A.reshape(20, 20);
+        assertEquals(BMatrixBits.numWords(400), A.data.length);
+    }
+
+    @Test
+    void convert_BMatrixRMaj() {
+        var original = new BMatrixRMaj(9, 13);
+        for (int i = 0; i < original.getNumElements(); i++) {
+            original.data[i] = rand.nextBoolean();
+        }
+
+        var A = new BMatrixBits(original);
+        assertEquals(original.sum(), A.sum());
+
+        var found = new BMatrixRMaj(1, 1);
+        A.copyInto(found);
+        assertEquals(original.numRows, found.numRows);
+        assertEquals(original.numCols, found.numCols);
+        for (int i = 0; i < original.getNumElements(); i++) {
+            assertEquals(original.data[i], found.data[i]);
+        }
+    }
+
+    @Test
+    void copy() {
+        var A = new BMatrixBits(4, 20);
+        A.set(3, 19, true);
+        A.set(1, 2, true);
+
+        BMatrixBits B = A.copy();
+        assertNotSame(A.data, B.data);
+        assertEquals(A.numRows, B.numRows);
+        assertEquals(A.numCols, B.numCols);
+        assertTrue(B.get(3, 19));
+        assertTrue(B.get(1, 2));
+        assertEquals(2, B.sum());
+    }
+
+    @Test
+    void zero() {
+        var A = new BMatrixBits(4, 20);
+        A.fill(true);
+        A.zero();
+        assertEquals(0, A.sum());
+    }
+}
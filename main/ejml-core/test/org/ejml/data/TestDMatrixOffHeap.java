@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.EjmlStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDMatrixOffHeap extends EjmlStandardJUnit {
+    /**
+     * Use small blocks so that rows and reads cross block boundaries
+     */
+    @Test
+    void getSet_acrossBlocks() {
+        var A = new DMatrixOffHeap(7, 5, 3);
+        assertEquals(5, A.blocks.length);
+        for (int i = 0; i < 35; i++) {
+            A.set(i, i + 0.5);
+        }
+        for (int row = 0; row < 7; row++) {
+            for (int col = 0; col < 5; col++) {
+                assertEquals(row*5 + col + 0.5, A.get(row, col));
+            }
+        }
+    }
+
+    /**
+     * The largest block size must fit inside a single direct buffer
+     */
+    @Test
+    void blockShift_bounds() {
+        try (var A = new DMatrixOffHeap(3, 2, DMatrixOffHeap.MAX_BLOCK_SHIFT)) {
+            assertEquals(1, A.blocks.length);
+            assertEquals(6, A.blocks[0].capacity());
+        }
+        assertTrue((8L << DMatrixOffHeap.MAX_BLOCK_SHIFT) <= Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> new DMatrixOffHeap(3, 2, DMatrixOffHeap.MAX_BLOCK_SHIFT + 1));
+        assertThrows(IllegalArgumentException.class, () -> new DMatrixOffHeap(3, 2, 0));
+    }
+
+    @Test
+    void readWrite() {
+        var A = new DMatrixOffHeap(6, 4, 2);
+        double[] src = new double[30];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = i;
+        }
+        A.write(3, src, 5, 17);
+
+        double[] dst = new double[20];
+        A.read(3, dst, 2, 17);
+        for (int i = 0; i < 17; i++) {
+            assertEquals(src[5 + i], dst[2 + i]);
+            assertEquals(src[5 + i], A.get(3 + i));
+        }
+
+        double[] row = new double[4];
+        A.getRow(2, row);
+        for (int col = 0; col < 4; col++) {
+            assertEquals(A.get(2, col), row[col]);
+        }
+    }
+
+    @Test
+    void setTo() {
+        var B = new DMatrixRMaj(4, 3);
+        for (int i = 0; i < B.data.length; i++) {
+            B.data[i] = rand.nextDouble();
+        }
+
+        var A = new DMatrixOffHeap(1, 1, 2);
+        A.setTo(B);
+        assertEquals(4, A.numRows);
+        assertEquals(3, A.numCols);
+
+        var C = new DMatrixOffHeap(2, 2, 4);
+        C.setTo(A);
+
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 3; col++) {
+                assertEquals(B.get(row, col), A.get(row, col));
+                assertEquals(B.get(row, col), C.get(row, col));
+            }
+        }
+    }
+
+    @Test
+    void reshape_keepsMemory() {
+        var A = new DMatrixOffHeap(4, 5, 3);
+        long bytes = A.getAllocatedBytes();
+        A.reshape(2, 3);
+        assertEquals(bytes, A.getAllocatedBytes());
+        A.reshape(6, 5);
+        assertEquals(6*5*8, A.getAllocatedBytes());
+    }
+
+    @Test
+    void fill_zero() {
+        var A = new DMatrixOffHeap(5, 3, 2);
+        A.fill(2.5);
+        for (long i = 0; i < A.getNumElements(); i++) {
+            assertEquals(2.5, A.get(i));
+        }
+        A.zero();
+        for (long i = 0; i < A.getNumElements(); i++) {
+            assertEquals(0.0, A.get(i));
+        }
+    }
+
+    @Test
+    void close() {
+        var A = new DMatrixOffHeap(5, 3);
+        A.close();
+        assertTrue(A.isClosed());
+        assertEquals(0, A.getAllocatedBytes());
+        assertThrows(IllegalStateException.class, () -> A.reshape(2, 2));
+        // closing twice is harmless
+        A.close();
+    }
+
+    @Test
+    void arena() {
+        var arena = new OffHeapArena();
+        DMatrixOffHeap A = arena.create(3, 4);
+        DMatrixOffHeap B = A.createLike();
+        DMatrixOffHeap C = arena.create(2, 2);
+        assertEquals(3, arena.size());
+        assertEquals((12 + 12 + 4)*8, arena.getAllocatedBytes());
+
+        // closing a matrix on its own removes it from the arena
+        C.close();
+        assertEquals(2, arena.size());
+
+        arena.close();
+        assertTrue(A.isClosed());
+        assertTrue(B.isClosed());
+        assertEquals(0, arena.size());
+        assertThrows(IllegalStateException.class, () -> arena.create(2, 2));
+    }
+}
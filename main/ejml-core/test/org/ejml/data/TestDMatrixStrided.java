@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.EjmlStandardJUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDMatrixStrided extends EjmlStandardJUnit {
+    @Test
+    void testGeneric() {
+        GenericTestsDMatrix g = new GenericTestsDMatrix() {
+            @Override
+            protected DMatrix createMatrix( int numRows, int numCols ) {
+                // put it inside of a larger matrix so that the stride and offset are used
+                DMatrixRMaj parent = new DMatrixRMaj(numRows + 3, numCols + 2);
+                return new DMatrixStrided(parent, 2, 1, numRows, numCols);
+            }
+        };
+        g.allTests();
+    }
+
+    @Test
+    void view_writesToOriginal() {
+        DMatrixRMaj parent = new DMatrixRMaj(5, 6);
+        var view = new DMatrixStrided(parent, 1, 2, 3, 4);
+        assertEquals(8, view.offset);
+        assertEquals(6, view.stride);
+
+        view.set(2, 3, 7.0);
+        assertEquals(7.0, parent.get(3, 5));
+
+        DMatrixStrided inner = view.view(1, 1, 2, 2);
+        inner.set(0, 0, 3.0);
+        assertEquals(3.0, parent.get(2, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> view.view(2, 2, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> new DMatrixStrided(parent, 3, 0, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DMatrixStrided(new double[10], 0, 2, 3, 3));
+    }
+
+    @Test
+    void overlaps() {
+        DMatrixRMaj parent = new DMatrixRMaj(6, 6);
+        var a = new DMatrixStrided(parent, 0, 0, 3, 3);
+        var right = new DMatrixStrided(parent, 0, 3, 3, 3);
+        var below = new DMatrixStrided(parent, 3, 0, 3, 3);
+        var middle = new DMatrixStrided(parent, 2, 2, 2, 2);
+
+        // their ranges in the array overlap but not the elements
+        assertFalse(a.overlaps(right));
+        assertFalse(right.overlaps(a));
+        assertFalse(a.overlaps(below));
+        assertTrue(a.overlaps(middle));
+        assertTrue(middle.overlaps(right));
+        assertTrue(a.overlaps(a));
+
+        // different arrays never overlap
+        assertFalse(a.overlaps(new DMatrixStrided(3, 3)));
+    }
+
+    @Test
+    void setTo_copy() {
+        DMatrixRMaj parent = new DMatrixRMaj(4, 4);
+        for (int i = 0; i < parent.data.length; i++) {
+            parent.data[i] = i;
+        }
+        var view = new DMatrixStrided(parent, 1, 1, 2, 3);
+
+        DMatrixStrided copy = view.copy();
+        assertEquals(3, copy.stride);
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 3; col++) {
+                assertEquals(parent.get(row + 1, col + 1), copy.get(row, col));
+            }
+        }
+
+        // write back into a different location
+        var dst = new DMatrixStrided(parent, 2, 0, 2, 3);
+        dst.setTo(copy);
+        assertEquals(5.0, parent.get(2, 0));
+        assertEquals(11.0, parent.get(3, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> dst.setTo(new DMatrixRMaj(3, 3)));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDVectorSparse extends EjmlStandardJUnit {
+    @Test
+    void set_get_sorted() {
+        var v = new DVectorSparse(10);
+        v.set(5, 2);
+        v.set(1, 3);
+        v.set(8, 4);
+        v.set(5, 6);
+
+        assertTrue(v.indicesSorted);
+        assertEquals(3, v.nz_length);
+        assertArrayEquals(new int[]{1, 5, 8}, Arrays.copyOf(v.nz_indices, 3));
+        assertEquals(3, v.get(1), UtilEjml.TEST_F64);
+        assertEquals(6, v.get(5), UtilEjml.TEST_F64);
+        assertEquals(4, v.get(8), UtilEjml.TEST_F64);
+        assertEquals(0, v.get(0), UtilEjml.TEST_F64);
+        assertEquals(-1, v.get(0, -1), UtilEjml.TEST_F64);
+
+        assertThrows(IllegalArgumentException.class, () -> v.set(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> v.get(-1));
+    }
+
+    @Test
+    void append_sortIndices() {
+        var v = new DVectorSparse(10);
+        v.append(2, 1);
+        v.append(4, 2);
+        assertTrue(v.indicesSorted);
+        v.append(0, 3);
+        assertFalse(v.indicesSorted);
+
+        // unsorted searches must still work
+        assertEquals(3, v.get(0), UtilEjml.TEST_F64);
+        v.set(9, 5);
+        assertEquals(5, v.get(9), UtilEjml.TEST_F64);
+
+        v.sortIndices(null);
+        assertTrue(v.indicesSorted);
+        assertArrayEquals(new int[]{0, 2, 4, 9}, Arrays.copyOf(v.nz_indices, 4));
+        assertArrayEquals(new double[]{3, 1, 2, 5}, Arrays.copyOf(v.nz_values, 4), UtilEjml.TEST_F64);
+    }
+
+    @Test
+    void remove() {
+        var v = new DVectorSparse(10);
+        v.set(1, 1);
+        v.set(3, 2);
+        v.set(6, 3);
+        v.remove(3);
+        v.remove(4);
+        assertEquals(2, v.nz_length);
+        assertFalse(v.isAssigned(3));
+        assertEquals(3, v.get(6), UtilEjml.TEST_F64);
+    }
+
+    @Test
+    void dense() {
+        double[] dense = {0, 2, 0, 0, 5};
+        var v = new DVectorSparse(1);
+        v.setTo(dense, 0);
+        assertEquals(5, v.size);
+        assertEquals(2, v.nz_length);
+
+        double[] found = v.toDense(null, -1);
+        assertArrayEquals(new double[]{-1, 2, -1, -1, 5}, found, UtilEjml.TEST_F64);
+    }
+
+    @Test
+    void copy_reshape() {
+        var v = new DVectorSparse(6);
+        v.append(4, 1);
+        v.append(2, 2);
+
+        DVectorSparse c = v.copy();
+        assertEquals(v.size, c.size);
+        assertEquals(v.nz_length, c.nz_length);
+        assertEquals(v.indicesSorted, c.indicesSorted);
+        assertEquals(2, c.get(2), UtilEjml.TEST_F64);
+
+        c.reshape(3, 5);
+        assertEquals(3, c.size);
+        assertEquals(0, c.nz_length);
+        assertTrue(c.nz_values.length >= 5);
+        assertTrue(c.indicesSorted);
+        assertEquals(2, v.nz_length);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.instrument;
+
+import org.ejml.EjmlStandardJUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestEjmlInstrumentation extends EjmlStandardJUnit {
+    @AfterEach void cleanUp() {
+        EjmlInstrumentation.setEnabled(false);
+        EjmlInstrumentation.setEmitEvents(false);
+        EjmlInstrumentation.reset();
+    }
+
+    @Test void disabled() {
+        EjmlInstrumentation.reset();
+        EjmlInstrumentation.setEnabled(false);
+        long start = EjmlInstrumentation.start();
+        assertEquals(0L, start);
+        EjmlInstrumentation.recordMult(start, 10, 10, 10, false);
+        EjmlInstrumentation.record(System.nanoTime(), OperationFamily.QR, 10, 10, 1.0, false);
+        assertEquals(0, EjmlInstrumentation.snapshot(OperationFamily.MULT).count);
+        assertEquals(0, EjmlInstrumentation.snapshot(OperationFamily.QR).count);
+    }
+
+    @Test void record() {
+        EjmlInstrumentation.reset();
+        EjmlInstrumentation.setEnabled(true);
+
+        EjmlInstrumentation.recordMult(EjmlInstrumentation.start(), 4, 5, 6, false);
+        EjmlInstrumentation.recordMult(EjmlInstrumentation.start(), 40, 50, 6, true);
+        EjmlInstrumentation.recordDecomposition(EjmlInstrumentation.start(), OperationFamily.CHOLESKY, 3, 3);
+
+        OperationStats mult = EjmlInstrumentation.snapshot(OperationFamily.MULT);
+        assertEquals(OperationFamily.MULT, mult.family);
+        assertEquals(2, mult.count);
+        assertEquals(1, mult.countConcurrent);
+        assertEquals(2.0*(4*5*6 + 40*50*6), mult.totalFlops);
+        assertEquals(40, mult.largestRows);
+        assertEquals(50, mult.largestCols);
+        assertTrue(mult.totalNanos >= mult.maxNanos);
+        assertEquals(1, mult.getSizeHistogram(OperationStats.histogramBin(20)));
+        assertEquals(1, mult.getSizeHistogram(OperationStats.histogramBin(2000)));
+
+        OperationStats chol = EjmlInstrumentation.snapshot(OperationFamily.CHOLESKY);
+        assertEquals(1, chol.count);
+        assertEquals(9.0, chol.totalFlops, 1e-8);
+
+        // Snapshot should contain every family and not change after more calls
+        List<OperationStats> all = EjmlInstrumentation.snapshot();
+        assertEquals(OperationFamily.values().length, all.size());
+        EjmlInstrumentation.recordMult(EjmlInstrumentation.start(), 1, 1, 1, false);
+        assertEquals(2, all.get(OperationFamily.MULT.ordinal()).count);
+        assertEquals(3, EjmlInstrumentation.snapshot(OperationFamily.MULT).count);
+
+        EjmlInstrumentation.reset();
+        mult = EjmlInstrumentation.snapshot(OperationFamily.MULT);
+        assertEquals(0, mult.count);
+        assertEquals(0, mult.largestRows);
+        assertEquals(0.0, mult.totalFlops);
+    }
+
+    @Test void concurrentFromName() {
+        EjmlInstrumentation.reset();
+        EjmlInstrumentation.setEnabled(true);
+
+        EjmlInstrumentation.recordDecomposition(EjmlInstrumentation.start(), OperationFamily.QR, 5, 4, new Object());
+        EjmlInstrumentation.recordDecomposition(EjmlInstrumentation.start(), OperationFamily.QR, 5, 4, new Dummy_MT_DDRM());
+
+        OperationStats qr = EjmlInstrumentation.snapshot(OperationFamily.QR);
+        assertEquals(2, qr.count);
+        assertEquals(1, qr.countConcurrent);
+    }
+
+    /**
+     * Operations inside of a composite operation should only be recorded as part of the composite
+     */
+    @Test void composite() {
+        EjmlInstrumentation.reset();
+        EjmlInstrumentation.setEnabled(true);
+
+        long startNanos = EjmlInstrumentation.startComposite();
+        assertNotEquals(0L, startNanos);
+        try {
+            assertEquals(0L, EjmlInstrumentation.startComposite());
+            EjmlInstrumentation.recordDecomposition(EjmlInstrumentation.start(), OperationFamily.LU, 5, 5);
+            EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.INVERT, 5, 5);
+        } finally {
+            EjmlInstrumentation.endComposite(startNanos);
+        }
+        assertEquals(0, EjmlInstrumentation.snapshot(OperationFamily.LU).count);
+        assertEquals(1, EjmlInstrumentation.snapshot(OperationFamily.INVERT).count);
+
+        // Recording resumes once the composite has finished
+        EjmlInstrumentation.recordDecomposition(EjmlInstrumentation.start(), OperationFamily.LU, 5, 5);
+        assertEquals(1, EjmlInstrumentation.snapshot(OperationFamily.LU).count);
+    }
+
+    @Test void histogramBin() {
+        assertEquals(0, OperationStats.histogramBin(0));
+        assertEquals(0, OperationStats.histogramBin(1));
+        assertEquals(1, OperationStats.histogramBin(2));
+        assertEquals(1, OperationStats.histogramBin(3));
+        assertEquals(10, OperationStats.histogramBin(1024));
+        assertEquals(OperationStats.HISTOGRAM_BINS - 1, OperationStats.histogramBin(Long.MAX_VALUE));
+    }
+
+    /**
+     * Emitting events should never cause an error, even if no recording is active
+     */
+    @Test void jfrEvents() {
+        double version = Double.parseDouble(System.getProperty("java.specification.version"));
+        if (version >= 12)
+            assertTrue(EjmlInstrumentation.isJfrAvailable());
+
+        assertFalse(EjmlInstrumentation.isEmitEvents());
+        EjmlInstrumentation.setEnabled(true);
+        EjmlInstrumentation.setEmitEvents(true);
+        EjmlInstrumentation.recordMult(EjmlInstrumentation.start(), 4, 5, 6, false);
+        EjmlInstrumentation.setEmitEvents(false);
+        EjmlInstrumentation.recordMult(EjmlInstrumentation.start(), 4, 5, 6, false);
+        assertEquals(2, EjmlInstrumentation.snapshot(OperationFamily.MULT).count);
+    }
+
+    private static class Dummy_MT_DDRM {}
+}
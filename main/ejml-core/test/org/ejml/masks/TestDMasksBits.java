@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.masks;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.data.BMatrixBits;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestDMasksBits extends EjmlStandardJUnit {
+    @Test
+    void matrix() {
+        int rows = 9, cols = 13;
+        var bits = new BMatrixBits(rows, cols);
+        for (int i = 0; i < bits.getNumElements(); i++) {
+            bits.set(i, rand.nextBoolean());
+        }
+
+        DMaskBits mask = DMaskFactory.builder(bits).withNegated(false).build();
+        DMaskBits negated_mask = DMaskFactory.builder(bits).withNegated(true).build();
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                boolean expected = bits.get(row, col);
+                assertEquals(expected, mask.isSet(row, col));
+                assertEquals(!expected, negated_mask.isSet(row, col));
+                assertEquals(expected, mask.isSet(row*cols + col));
+            }
+        }
+    }
+
+    @Test
+    void maxEntries() {
+        var bits = new BMatrixBits(10, 10);
+        bits.set(2, 3, true);
+        bits.set(9, 9, true);
+
+        assertEquals(2, DMaskFactory.builder(bits).build().maxMaskedEntries());
+        assertEquals(98, DMaskFactory.builder(bits).withNegated(true).build().maxMaskedEntries());
+    }
+}
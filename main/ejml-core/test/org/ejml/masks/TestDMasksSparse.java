@@ -20,16 +20,19 @@ package org.ejml.masks;
 
 import org.ejml.EjmlStandardJUnit;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Arrays;
 import java.util.Random;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 public class TestDMasksSparse extends EjmlStandardJUnit {
 
@@ -85,4 +88,29 @@ public class TestDMasksSparse extends EjmlStandardJUnit {
     void maxEntries( Mask mask, int expected ) {
         assertEquals(expected, mask.maxMaskedEntries());
     }
+
+    /**
+     * The copy must have its own indexed column and not be affected by stale values in the work array
+     */
+    @Test
+    void concurrentCopy() {
+        int dim = 10;
+        DMatrixSparseCSC matrix = RandomMatrices_DSCC.rectangle(dim, dim, 50, new Random(42));
+        Mask mask = new DMaskSparse.Builder(matrix).build();
+
+        var gw = new IGrowArray(dim);
+        Arrays.fill(gw.data, 4);
+        Mask copy = mask.concurrentCopy(gw);
+        assertNotSame(mask, copy);
+
+        mask.setIndexColumn(2);
+        for (int col = 0; col < dim; col++) {
+            copy.setIndexColumn(col);
+            for (int row = 0; row < dim; row++) {
+                boolean expected = (matrix.get(row, col) != 0);
+                assertEquals(expected, copy.isSet(row, col));
+                assertEquals(expected, mask.isSet(row, col));
+            }
+        }
+    }
 }
@@ -19,10 +19,13 @@
 package org.ejml.ops;
 
 import org.ejml.EjmlStandardJUnit;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.BMatrixBits;
 import org.ejml.data.BMatrixRMaj;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestCommonOps_BDRM extends EjmlStandardJUnit {
     @Test
@@ -43,4 +46,55 @@ public class TestCommonOps_BDRM extends EjmlStandardJUnit {
             }
         }
     }
+
+    @Test
+    public void bitwise() {
+        BMatrixRMaj a = randomB(7, 19);
+        BMatrixRMaj b = randomB(7, 19);
+        var A = new BMatrixBits(a);
+        var B = new BMatrixBits(b);
+
+        BMatrixBits and = CommonOps_BDRM.and(A, B, null);
+        BMatrixBits or = CommonOps_BDRM.or(A, B, null);
+        BMatrixBits xor = CommonOps_BDRM.xor(A, B, null);
+        BMatrixBits andNot = CommonOps_BDRM.andNot(A, B, null);
+        BMatrixBits not = CommonOps_BDRM.not(A, null);
+
+        int countAnd = 0;
+        for (int i = 0; i < a.getNumElements(); i++) {
+            assertEquals(a.data[i] && b.data[i], and.get(i));
+            assertEquals(a.data[i] || b.data[i], or.get(i));
+            assertEquals(a.data[i] ^ b.data[i], xor.get(i));
+            assertEquals(a.data[i] && !b.data[i], andNot.get(i));
+            assertEquals(!a.data[i], not.get(i));
+            if (a.data[i] && b.data[i])
+                countAnd++;
+        }
+
+        assertEquals(countAnd, and.sum());
+        assertEquals(countAnd, CommonOps_BDRM.countTrueAnd(A, B));
+        assertEquals(a.sum(), CommonOps_BDRM.countTrue(A));
+        // not() must not set bits beyond the last element
+        assertEquals(a.getNumElements() - a.sum(), not.sum());
+
+        // output can be the same as an input
+        CommonOps_BDRM.and(A, B, A);
+        assertEquals(countAnd, A.sum());
+    }
+
+    @Test
+    public void bitwise_shape() {
+        var A = new BMatrixBits(3, 4);
+        var B = new BMatrixBits(4, 3);
+        assertThrows(MatrixDimensionException.class, () -> CommonOps_BDRM.and(A, B, null));
+        assertThrows(MatrixDimensionException.class, () -> CommonOps_BDRM.countTrueAnd(A, B));
+    }
+
+    private BMatrixRMaj randomB( int rows, int cols ) {
+        var m = new BMatrixRMaj(rows, cols);
+        for (int i = 0; i < m.getNumElements(); i++) {
+            m.data[i] = rand.nextBoolean();
+        }
+        return m;
+    }
 }
@@ -21,16 +21,27 @@ package pabeles.concurrency;
 import org.ejml.EjmlStandardJUnit;
 import org.ejml.UtilEjml;
 import org.ejml.data.IGrowArray;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
  */
 class TestConcurrencyOps extends EjmlStandardJUnit {
+    @AfterEach void resetThreads() {
+        ConcurrencyOps.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
 
     @ParameterizedTest
     @ValueSource(ints = {1, 2, 3, 4})
@@ -253,6 +264,272 @@ class TestConcurrencyOps extends EjmlStandardJUnit {
         assertEquals(5.0 + 2.5, foundD, UtilEjml.TEST_F64);
     }
 
+    @Test void usePool_restore() {
+        ConcurrencyOps.setMaxThreads(3);
+        var custom = new ForkJoinPool(2);
+        try {
+            try (ConcurrencyScope scope = ConcurrencyOps.usePool(custom)) {
+                assertSame(scope, ConcurrencyOps.getScope());
+                assertSame(custom, ConcurrencyOps.getThreadPool());
+                assertEquals(2, ConcurrencyOps.getMaxThreads());
+
+                // tasks must be run inside the custom pool
+                var pools = new HashSet<ForkJoinPool>();
+                ConcurrencyOps.loopBlocks(0, 100, ( i0, i1 ) -> {
+                    synchronized (pools) {
+                        pools.add(ForkJoinTask.getPool());
+                    }
+                });
+                assertEquals(1, pools.size());
+                assertTrue(pools.contains(custom));
+            }
+            assertNull(ConcurrencyOps.getScope());
+            assertEquals(3, ConcurrencyOps.getMaxThreads());
+            assertNotSame(custom, ConcurrencyOps.getThreadPool());
+        } finally {
+            custom.shutdown();
+        }
+    }
+
+    @Test void useExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            var threads = new HashSet<Thread>();
+            var workspace = new GrowArray<>(IGrowArray::new);
+            ConcurrencyOps.runWith(executor, 3, () -> {
+                assertEquals(3, ConcurrencyOps.getMaxThreads());
+                ConcurrencyOps.loopBlocks(0, 90, workspace, ( work, i0, i1 ) -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    for (int i = i0; i < i1; i++) {
+                        work.add(i);
+                    }
+                });
+            });
+            assertNull(ConcurrencyOps.getScope());
+
+            // the last block is processed in the calling thread and the others by the executor
+            assertEquals(3, threads.size());
+            assertTrue(threads.contains(Thread.currentThread()));
+            assertEquals(3, workspace.size);
+            for (int i = 0; i < workspace.size; i++) {
+                assertEquals(30, workspace.get(i).length);
+            }
+
+            // Sanity check the other functions
+            var counter = new Counter();
+            ConcurrencyOps.runWith(executor, 3, () -> ConcurrencyOps.loopFor(10, 100, i -> counter.increment()));
+            assertEquals(90, counter.value);
+
+            try (ConcurrencyScope ignored = ConcurrencyOps.useExecutor(executor, 3)) {
+                assertEquals(45, ConcurrencyOps.sum(5, 10, int.class, i -> i + 2).intValue());
+                assertEquals(5 + 2, ConcurrencyOps.min(5, 10, int.class, i -> i + 2).intValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The parallelism requested when a ForkJoinPool is used as an executor should limit the number of threads
+     */
+    @Test void loopFor_poolParallelism() {
+        var pool = new ForkJoinPool(4);
+        try (ConcurrencyScope ignored = ConcurrencyOps.useExecutor(pool, 2)) {
+            var threads = new HashSet<Thread>();
+            var counter = new Counter();
+            ConcurrencyOps.loopFor(0, 1000, i -> {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread());
+                }
+                assertTrue(ConcurrencyOps.isInsideWorker());
+                counter.increment();
+            });
+            assertEquals(1000, counter.value);
+            assertTrue(threads.size() <= 2);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test void useExecutor_exception() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (ConcurrencyScope ignored = ConcurrencyOps.useExecutor(executor, 4)) {
+            assertThrows(IllegalStateException.class, () -> ConcurrencyOps.loopBlocks(0, 100, ( i0, i1 ) -> {
+                if (i0 == 0)
+                    throw new IllegalStateException("Failed");
+            }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test void useSingleThread() {
+        ConcurrencyOps.setMaxThreads(4);
+        var threads = new HashSet<Thread>();
+        try (ConcurrencyScope scope = ConcurrencyOps.useSingleThread()) {
+            assertTrue(scope.isInline());
+            ConcurrencyOps.loopBlocks(0, 100, ( i0, i1 ) -> threads.add(Thread.currentThread()));
+        }
+        assertEquals(1, threads.size());
+        assertTrue(threads.contains(Thread.currentThread()));
+    }
+
+    /**
+     * Nested concurrent calls inside of a worker should be run inside the worker's thread
+     */
+    @Test void nested_runInline() {
+        ConcurrencyOps.setMaxThreads(4);
+
+        var failed = new AtomicBoolean(false);
+        var counter = new Counter();
+        ConcurrencyOps.loopBlocks(0, 8, 1, ( i0, i1 ) -> {
+            if (!ConcurrencyOps.isInsideWorker() || ConcurrencyOps.getMaxThreads() != 1)
+                failed.set(true);
+            Thread outer = Thread.currentThread();
+            ConcurrencyOps.loopBlocks(0, 20, ( j0, j1 ) -> {
+                if (Thread.currentThread() != outer)
+                    failed.set(true);
+                counter.increment();
+            });
+        });
+        assertFalse(failed.get());
+        // 4 outer blocks and the inner loop is processed as a single block
+        assertEquals(4, counter.value);
+        assertFalse(ConcurrencyOps.isInsideWorker());
+    }
+
+    /**
+     * Nested calls inside of sum(), max(), and min() should also be run inside the worker's thread
+     */
+    @Test void nested_reduce() {
+        ConcurrencyOps.setMaxThreads(4);
+
+        var failed = new AtomicBoolean(false);
+        Number found = ConcurrencyOps.sum(0, 8, int.class, i -> {
+            if (!ConcurrencyOps.isInsideWorker())
+                failed.set(true);
+            Thread outer = Thread.currentThread();
+            ConcurrencyOps.loopFor(0, 20, j -> {
+                if (Thread.currentThread() != outer)
+                    failed.set(true);
+            });
+            return i;
+        });
+        assertFalse(failed.get());
+        assertEquals(28, found.intValue());
+        assertFalse(ConcurrencyOps.isInsideWorker());
+    }
+
+    @Test void close_outOfOrder() {
+        var pool = new ForkJoinPool(2);
+        try {
+            ConcurrencyScope scopeA = ConcurrencyOps.usePool(pool);
+            ConcurrencyScope scopeB = ConcurrencyOps.useSingleThread();
+            assertThrows(IllegalStateException.class, scopeA::close);
+            scopeB.close();
+            scopeA.close();
+            // closing twice does nothing
+            scopeA.close();
+            assertNull(ConcurrencyOps.getScope());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test void reduceDouble() {
+        ConcurrencyOps.setMaxThreads(4);
+        // a block sum that's easy to check and the number of calls, which reveals how many blocks were used
+        var calls = new Counter();
+        double found = ConcurrencyOps.reduceDouble(5, 105, 10, -1.0, ( idx0, idx1 ) -> {
+            calls.increment();
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += i;
+            }
+            return sum;
+        }, Double::sum);
+        assertEquals(5450.0, found, UtilEjml.TEST_F64);
+        assertEquals(4, calls.value);
+
+        // empty range returns the identity
+        assertEquals(-1.0, ConcurrencyOps.reduceDouble(5, 5, 10, -1.0, ( idx0, idx1 ) -> 0.0, Double::sum));
+        assertThrows(IllegalArgumentException.class,
+                () -> ConcurrencyOps.reduceDouble(5, 4, 10, 0.0, ( idx0, idx1 ) -> 0.0, Double::sum));
+    }
+
+    @Test void sumMaxMin_double() {
+        ConcurrencyOps.setMaxThreads(4);
+        int minBlock = ConcurrencyOps.REDUCE_MIN_BLOCK;
+        try {
+            ConcurrencyOps.REDUCE_MIN_BLOCK = 7;
+            double[] values = new double[1001];
+            double expectedSum = 0;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Math.sin(i)*(i % 13);
+                expectedSum += values[i];
+            }
+            double expectedMax = Double.NEGATIVE_INFINITY, expectedMin = Double.POSITIVE_INFINITY;
+            for (double v : values) {
+                expectedMax = Math.max(expectedMax, v);
+                expectedMin = Math.min(expectedMin, v);
+            }
+            assertEquals(expectedSum, ConcurrencyOps.sumDouble(0, values.length, i -> values[i]), UtilEjml.TEST_F64);
+            assertEquals(expectedMax, ConcurrencyOps.maxDouble(0, values.length, i -> values[i]));
+            assertEquals(expectedMin, ConcurrencyOps.minDouble(0, values.length, i -> values[i]));
+
+            assertEquals(0.0, ConcurrencyOps.sumDouble(3, 3, i -> values[i]));
+            assertEquals(Double.NEGATIVE_INFINITY, ConcurrencyOps.maxDouble(3, 3, i -> values[i]));
+            assertEquals(Double.POSITIVE_INFINITY, ConcurrencyOps.minDouble(3, 3, i -> values[i]));
+        } finally {
+            ConcurrencyOps.REDUCE_MIN_BLOCK = minBlock;
+        }
+    }
+
+    @Test void sumMaxMin_float() {
+        ConcurrencyOps.setMaxThreads(4);
+        int minBlock = ConcurrencyOps.REDUCE_MIN_BLOCK;
+        try {
+            ConcurrencyOps.REDUCE_MIN_BLOCK = 7;
+            float[] values = new float[1001];
+            double expectedSum = 0;
+            float expectedMax = -Float.MAX_VALUE, expectedMin = Float.MAX_VALUE;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (float)(Math.sin(i)*(i % 13));
+                expectedSum += values[i];
+                expectedMax = Math.max(expectedMax, values[i]);
+                expectedMin = Math.min(expectedMin, values[i]);
+            }
+            assertEquals(expectedSum, ConcurrencyOps.sumFloat(0, values.length, i -> values[i]), 1e-3);
+            assertEquals(expectedMax, ConcurrencyOps.maxFloat(0, values.length, i -> values[i]));
+            assertEquals(expectedMin, ConcurrencyOps.minFloat(0, values.length, i -> values[i]));
+            assertEquals(0.0f, ConcurrencyOps.sumFloat(3, 3, i -> values[i]));
+        } finally {
+            ConcurrencyOps.REDUCE_MIN_BLOCK = minBlock;
+        }
+    }
+
+    @Test void sumMaxMin_integer() {
+        ConcurrencyOps.setMaxThreads(4);
+        int minBlock = ConcurrencyOps.REDUCE_MIN_BLOCK;
+        try {
+            ConcurrencyOps.REDUCE_MIN_BLOCK = 7;
+            assertEquals(4950, ConcurrencyOps.sumInt(0, 100, i -> i));
+            assertEquals(99, ConcurrencyOps.maxInt(0, 100, i -> i));
+            assertEquals(-99, ConcurrencyOps.minInt(0, 100, i -> -i));
+            assertEquals(0, ConcurrencyOps.sumInt(4, 4, i -> i));
+
+            // values which would overflow an int
+            assertEquals(100L*Integer.MAX_VALUE, ConcurrencyOps.sumLong(0, 100, i -> Integer.MAX_VALUE));
+            assertEquals(99L << 32, ConcurrencyOps.maxLong(0, 100, i -> (long)i << 32));
+            assertEquals(-(99L << 32), ConcurrencyOps.minLong(0, 100, i -> -((long)i << 32)));
+            assertEquals(Long.MIN_VALUE, ConcurrencyOps.maxLong(4, 4, i -> i));
+        } finally {
+            ConcurrencyOps.REDUCE_MIN_BLOCK = minBlock;
+        }
+    }
+
     private static class Counter {
         int value = 0;
 
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.qr;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updating a QR decomposition against decomposing the modified matrix from scratch
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkQrUpdate_DDRM {
+    @Param({"2000"})
+    public int rows;
+
+    @Param({"100"})
+    public int cols;
+
+    public DMatrixRMaj A, A_wide, window, Q, R, Q_wide, R_wide, Q_full, R_full;
+    public double[] column, row;
+
+    QRDecompositionHouseholderColumn_DDRM houseCol = new QRDecompositionHouseholderColumn_DDRM();
+    QrUpdate_DDRM update = new QrUpdate_DDRM();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(rows, cols, -1, 1, rand);
+        A_wide = RandomMatrices_DDRM.rectangle(rows, cols + 1, -1, 1, rand);
+        column = RandomMatrices_DDRM.rectangle(rows, 1, -1, 1, rand).data;
+        row = RandomMatrices_DDRM.rectangle(1, cols, -1, 1, rand).data;
+
+        houseCol.decompose(A);
+        Q = houseCol.getQ(null, true);
+        R = houseCol.getR(null, true);
+        // declare enough memory so that adding a column doesn't need to grow the matrices
+        Q.reshape(rows, cols + 1);
+        R.reshape(cols + 1, cols + 1);
+        Q.reshape(rows, cols);
+        R.reshape(cols, cols);
+        houseCol.getQ(Q, true);
+        houseCol.getR(R, true);
+        Q_wide = new DMatrixRMaj(rows, cols + 1);
+        R_wide = new DMatrixRMaj(cols + 1, cols + 1);
+
+        // The full Q is m by m, so use a smaller window
+        window = RandomMatrices_DDRM.rectangle(rows/4, cols, -1, 1, rand);
+        houseCol.decompose(window);
+        Q_full = houseCol.getQ(null, false);
+        R_full = houseCol.getR(null, false);
+    }
+
+    /** Adds a column and removes it to restore the original state */
+    @Benchmark
+    public void update_addDeleteColumn() {
+        update.addColumn(Q, R, column, cols/2);
+        update.deleteColumn(Q, R, cols/2);
+    }
+
+    /** Decomposing after a column has been added */
+    @Benchmark
+    public void decompose_column() {
+        houseCol.decompose(A_wide);
+        houseCol.getQ(Q_wide, true);
+        houseCol.getR(R_wide, true);
+    }
+
+    @Benchmark
+    public void update_slideRow() {
+        update.slideRow(Q_full, R_full, row);
+    }
+
+    @Benchmark
+    public void decompose_window() {
+        houseCol.decompose(window);
+        houseCol.getQ(Q_full, false);
+        houseCol.getR(R_full, false);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkQrUpdate_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Cholesky decomposition for {@link DMatrixOffHeap}, A = L*L<sup>T</sup>. To avoid duplicating a matrix which
+ * might be larger than the heap, the decomposition is computed in place and the input matrix is overwritten by L.
+ * The upper triangle is set to zero.
+ * </p>
+ *
+ * <p>
+ * Rows are computed one at a time using the Cholesky-Crout algorithm. The row being computed is kept on the heap
+ * and the previous rows of L are copied over as they are needed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyDecomposition_DDOH implements CholeskyDecomposition_F64<DMatrixOffHeap> {
+    // The decomposed matrix
+    protected @Nullable DMatrixOffHeap T;
+
+    protected double[] rowI = new double[0];
+    protected double[] rowJ = new double[0];
+
+    @Override
+    public boolean decompose( DMatrixOffHeap A ) {
+        if (A.numRows != A.numCols)
+            throw new MatrixDimensionException("Must be a square matrix");
+        final int N = A.numRows;
+        this.T = A;
+        if (rowI.length < N) {
+            rowI = new double[N];
+            rowJ = new double[N];
+        }
+
+        for (int i = 0; i < N; i++) {
+            A.read((long)i*N, rowI, 0, i + 1);
+
+            for (int j = 0; j < i; j++) {
+                A.read((long)j*N, rowJ, 0, j + 1);
+                double sum = rowI[j];
+                for (int k = 0; k < j; k++) {
+                    sum -= rowI[k]*rowJ[k];
+                }
+                rowI[j] = sum/rowJ[j];
+            }
+
+            double sum = rowI[i];
+            for (int k = 0; k < i; k++) {
+                sum -= rowI[k]*rowI[k];
+            }
+            if (sum <= 0.0)
+                return false;
+            rowI[i] = Math.sqrt(sum);
+
+            for (int j = i + 1; j < N; j++) {
+                rowI[j] = 0.0;
+            }
+            A.write((long)i*N, rowI, 0, N);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+
+    @Override
+    public boolean isLower() {
+        return true;
+    }
+
+    /**
+     * Returns L. If 'T' is null then the matrix which was decomposed, and now contains L, is returned.
+     */
+    @Override
+    public DMatrixOffHeap getT( @Nullable DMatrixOffHeap T ) {
+        if (T == null)
+            return getDecomposed();
+        T.setTo(getDecomposed());
+        return T;
+    }
+
+    /** The matrix which was decomposed and now stores L */
+    public DMatrixOffHeap getDecomposed() {
+        if (T == null)
+            throw new IllegalArgumentException("Must call decompose() first");
+        return T;
+    }
+
+    @Override
+    public Complex_F64 computeDeterminant() {
+        DMatrixOffHeap L = getDecomposed();
+        double prod = 1.0;
+        for (int i = 0; i < L.numRows; i++) {
+            prod *= L.unsafe_get(i, i);
+        }
+        return new Complex_F64(prod*prod, 0);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.jetbrains.annotations.Nullable;
+
+import static org.ejml.UtilEjml.reshapeOrDeclare;
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * Common matrix operations for {@link DMatrixOffHeap}. Outputs which are declared by these functions are
+ * created with {@link DMatrixOffHeap#create(int, int)}, so they belong to the same arena as the input.
+ *
+ * @author Peter Abeles
+ */
+public class CommonOps_DDOH {
+    /** Number of elements copied onto the heap at once by element-wise operations */
+    public static int CHUNK_LENGTH = 4096;
+
+    /** Number of rows and columns in a tile when transposing */
+    public static int TRANSPOSE_TILE = 64;
+
+    /**
+     * Performs matrix multiplication. C = A*B
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param output (Output) Storage for the results. Can't be A or B. Modified.
+     */
+    public static DMatrixOffHeap mult( DMatrixOffHeap A, DMatrixOffHeap B, @Nullable DMatrixOffHeap output ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        output = reshapeOrDeclare(output, A, A.numRows, B.numCols);
+        UtilEjml.checkSameInstance(A, output);
+        UtilEjml.checkSameInstance(B, output);
+
+        MatrixMult_DDOH.mult(A, B, output);
+        return output;
+    }
+
+    /**
+     * C = A + B. The output can be the same instance as an input.
+     */
+    public static DMatrixOffHeap add( DMatrixOffHeap A, DMatrixOffHeap B, @Nullable DMatrixOffHeap output ) {
+        return add(1.0, A, 1.0, B, output);
+    }
+
+    /**
+     * C = A - B. The output can be the same instance as an input.
+     */
+    public static DMatrixOffHeap subtract( DMatrixOffHeap A, DMatrixOffHeap B, @Nullable DMatrixOffHeap output ) {
+        return add(1.0, A, -1.0, B, output);
+    }
+
+    /**
+     * C = &alpha;A + &beta;B. The output can be the same instance as an input.
+     */
+    public static DMatrixOffHeap add( double alpha, DMatrixOffHeap A, double beta, DMatrixOffHeap B,
+                                      @Nullable DMatrixOffHeap output ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        output = reshapeOrDeclare(output, A, A.numRows, A.numCols);
+
+        long length = A.getNumElements();
+        int chunk = (int)Math.min(CHUNK_LENGTH, length);
+        double[] a = new double[chunk];
+        double[] b = new double[chunk];
+        for (long index = 0; index < length; index += chunk) {
+            int n = (int)Math.min(chunk, length - index);
+            A.read(index, a, 0, n);
+            B.read(index, b, 0, n);
+            for (int i = 0; i < n; i++) {
+                a[i] = alpha*a[i] + beta*b[i];
+            }
+            output.write(index, a, 0, n);
+        }
+        return output;
+    }
+
+    /**
+     * B = &alpha;A. The output can be the same instance as the input.
+     */
+    public static DMatrixOffHeap scale( double alpha, DMatrixOffHeap A, @Nullable DMatrixOffHeap output ) {
+        output = reshapeOrDeclare(output, A, A.numRows, A.numCols);
+
+        long length = A.getNumElements();
+        int chunk = (int)Math.min(CHUNK_LENGTH, length);
+        double[] a = new double[chunk];
+        for (long index = 0; index < length; index += chunk) {
+            int n = (int)Math.min(chunk, length - index);
+            A.read(index, a, 0, n);
+            for (int i = 0; i < n; i++) {
+                a[i] *= alpha;
+            }
+            output.write(index, a, 0, n);
+        }
+        return output;
+    }
+
+    /**
+     * Transposes the matrix. The matrix is processed in square tiles so that reads and writes stay close together.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param output (Output) Transpose of A. Can't be A. Modified.
+     */
+    public static DMatrixOffHeap transpose( DMatrixOffHeap A, @Nullable DMatrixOffHeap output ) {
+        output = reshapeOrDeclare(output, A, A.numCols, A.numRows);
+        UtilEjml.checkSameInstance(A, output);
+
+        final int tile = TRANSPOSE_TILE;
+        double[] row = new double[tile];
+        for (int i0 = 0; i0 < A.numRows; i0 += tile) {
+            int i1 = Math.min(A.numRows, i0 + tile);
+            for (int j0 = 0; j0 < A.numCols; j0 += tile) {
+                int j1 = Math.min(A.numCols, j0 + tile);
+                for (int i = i0; i < i1; i++) {
+                    A.read((long)i*A.numCols + j0, row, 0, j1 - j0);
+                    for (int j = j0; j < j1; j++) {
+                        output.set((long)j*A.numRows + i, row[j - j0]);
+                    }
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Copies a regular dense matrix into an off-heap matrix
+     */
+    public static DMatrixOffHeap convert( DMatrixRMaj src, @Nullable DMatrixOffHeap dst ) {
+        if (dst == null)
+            dst = new DMatrixOffHeap(src.numRows, src.numCols);
+        dst.setTo(src);
+        return dst;
+    }
+
+    /**
+     * Copies an off-heap matrix into a regular dense matrix. The matrix must be small enough to fit in an array.
+     */
+    public static DMatrixRMaj convert( DMatrixOffHeap src, @Nullable DMatrixRMaj dst ) {
+        UtilEjml.checkTooLarge(src.numRows, src.numCols);
+        dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols);
+        src.read(0, dst.data, 0, dst.getNumElements());
+        return dst;
+    }
+
+    /**
+     * Returns true if the two matrices have the same shape and every element is within the tolerance
+     */
+    public static boolean isIdentical( DMatrixOffHeap A, DMatrixOffHeap B, double tol ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            return false;
+        long length = A.getNumElements();
+        for (long index = 0; index < length; index++) {
+            if (!UtilEjml.isIdentical(A.get(index), B.get(index), tol))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixOffHeap;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import static org.ejml.UtilEjml.reshapeOrDeclare;
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * Concurrent implementations of functions in {@link CommonOps_DDOH}.
+ *
+ * @author Peter Abeles
+ */
+public class CommonOps_MT_DDOH {
+    public static DMatrixOffHeap mult( DMatrixOffHeap A, DMatrixOffHeap B, @Nullable DMatrixOffHeap output ) {
+        return mult(A, B, output, null);
+    }
+
+    /**
+     * Performs matrix multiplication. C = A*B
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param output (Output) Storage for the results. Can't be A or B. Modified.
+     * @param workspace (Optional) Storage for internal workspace. Can be null.
+     */
+    public static DMatrixOffHeap mult( DMatrixOffHeap A, DMatrixOffHeap B, @Nullable DMatrixOffHeap output,
+                                       @Nullable GrowArray<MatrixMult_DDOH.RowWork> workspace ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        output = reshapeOrDeclare(output, A, A.numRows, B.numCols);
+        UtilEjml.checkSameInstance(A, output);
+        UtilEjml.checkSameInstance(B, output);
+
+        MatrixMult_MT_DDOH.mult(A, B, output, workspace);
+        return output;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.IGrowArray;
+import org.ejml.interfaces.decomposition.LUDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * LU decomposition with partial pivoting for {@link DMatrixOffHeap}, P<sup>T</sup>*L*U = A. The decomposition
+ * is computed in place, the input matrix is overwritten with L below the diagonal and U on and above it. Only
+ * square matrices are supported.
+ * </p>
+ *
+ * <p>
+ * Each step copies the pivot row onto the heap and then updates the rows below it one at a time, so every row is
+ * read and written once per step.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LUDecomposition_DDOH implements LUDecomposition_F64<DMatrixOffHeap> {
+    // The decomposed matrix
+    protected @Nullable DMatrixOffHeap LU;
+
+    // Row i in the decomposition was row pivot[i] in the input
+    protected int[] pivot = new int[0];
+    protected double pivsign;
+    protected boolean singular;
+
+    protected double[] rowK = new double[0];
+    protected double[] rowI = new double[0];
+
+    @Override
+    public boolean decompose( DMatrixOffHeap A ) {
+        if (A.numRows != A.numCols)
+            throw new MatrixDimensionException("Must be a square matrix");
+        final int N = A.numRows;
+        this.LU = A;
+        if (pivot.length < N) {
+            pivot = new int[N];
+            rowK = new double[N];
+            rowI = new double[N];
+        }
+        for (int i = 0; i < N; i++) {
+            pivot[i] = i;
+        }
+        pivsign = 1;
+        singular = false;
+
+        for (int k = 0; k < N; k++) {
+            // find the largest element in the column
+            int p = k;
+            double max = Math.abs(A.get((long)k*N + k));
+            for (int i = k + 1; i < N; i++) {
+                double v = Math.abs(A.get((long)i*N + k));
+                if (v > max) {
+                    max = v;
+                    p = i;
+                }
+            }
+
+            A.read((long)p*N, rowK, 0, N);
+            if (p != k) {
+                A.read((long)k*N, rowI, 0, N);
+                A.write((long)p*N, rowI, 0, N);
+                A.write((long)k*N, rowK, 0, N);
+                int tmp = pivot[p];
+                pivot[p] = pivot[k];
+                pivot[k] = tmp;
+                pivsign = -pivsign;
+            }
+
+            double diag = rowK[k];
+            if (diag == 0.0) {
+                singular = true;
+                continue;
+            }
+
+            for (int i = k + 1; i < N; i++) {
+                long rowStart = (long)i*N;
+                A.read(rowStart + k, rowI, k, N - k);
+                double l = rowI[k]/diag;
+                rowI[k] = l;
+                if (l != 0.0) {
+                    for (int j = k + 1; j < N; j++) {
+                        rowI[j] -= l*rowK[j];
+                    }
+                }
+                A.write(rowStart + k, rowI, k, N - k);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+
+    /** The matrix which was decomposed and now stores L and U */
+    public DMatrixOffHeap getDecomposed() {
+        if (LU == null)
+            throw new IllegalArgumentException("Must call decompose() first");
+        return LU;
+    }
+
+    /** Row i in the decomposition was row pivot[i] in the input. Array can be longer than the number of rows. */
+    public int[] getPivot() {
+        return pivot;
+    }
+
+    @Override
+    public DMatrixOffHeap getLower( @Nullable DMatrixOffHeap lower ) {
+        DMatrixOffHeap LU = getDecomposed();
+        final int N = LU.numRows;
+        lower = UtilEjml.reshapeOrDeclare(lower, LU, N, N);
+        for (int i = 0; i < N; i++) {
+            LU.read((long)i*N, rowI, 0, N);
+            rowI[i] = 1.0;
+            for (int j = i + 1; j < N; j++) {
+                rowI[j] = 0.0;
+            }
+            lower.write((long)i*N, rowI, 0, N);
+        }
+        return lower;
+    }
+
+    @Override
+    public DMatrixOffHeap getUpper( @Nullable DMatrixOffHeap upper ) {
+        DMatrixOffHeap LU = getDecomposed();
+        final int N = LU.numRows;
+        upper = UtilEjml.reshapeOrDeclare(upper, LU, N, N);
+        for (int i = 0; i < N; i++) {
+            LU.read((long)i*N, rowI, 0, N);
+            for (int j = 0; j < i; j++) {
+                rowI[j] = 0.0;
+            }
+            upper.write((long)i*N, rowI, 0, N);
+        }
+        return upper;
+    }
+
+    @Override
+    public DMatrixOffHeap getRowPivot( @Nullable DMatrixOffHeap pivot ) {
+        DMatrixOffHeap LU = getDecomposed();
+        final int N = LU.numRows;
+        pivot = UtilEjml.reshapeOrDeclare(pivot, LU, N, N);
+        pivot.zero();
+        for (int i = 0; i < N; i++) {
+            pivot.unsafe_set(i, this.pivot[i], 1.0);
+        }
+        return pivot;
+    }
+
+    @Override
+    public int[] getRowPivotV( @Nullable IGrowArray pivot ) {
+        final int N = getDecomposed().numRows;
+        int[] ret = UtilEjml.adjust(pivot, N);
+        System.arraycopy(this.pivot, 0, ret, 0, N);
+        return ret;
+    }
+
+    @Override
+    public boolean isSingular() {
+        return singular;
+    }
+
+    @Override
+    public Complex_F64 computeDeterminant() {
+        DMatrixOffHeap LU = getDecomposed();
+        double prod = pivsign;
+        for (int i = 0; i < LU.numRows; i++) {
+            prod *= LU.unsafe_get(i, i);
+        }
+        return new Complex_F64(prod, 0);
+    }
+}
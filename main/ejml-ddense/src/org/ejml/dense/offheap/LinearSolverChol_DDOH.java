@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+/**
+ * Linear solver for symmetric positive definite {@link DMatrixOffHeap} using {@link CholeskyDecomposition_DDOH}.
+ * The matrix passed to {@link #setA} is overwritten by the decomposition.
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverChol_DDOH implements LinearSolver<DMatrixOffHeap, DMatrixOffHeap> {
+    protected final CholeskyDecomposition_DDOH decomposer = new CholeskyDecomposition_DDOH();
+
+    @Override
+    public boolean setA( DMatrixOffHeap A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Matrix must be square");
+        return decomposer.decompose(A);
+    }
+
+    @Override
+    public double quality() {
+        return LinearSolverLu_DDOH.qualityTriangular(decomposer.getDecomposed());
+    }
+
+    /**
+     * Solves for X in A*X = B. 'B' and 'X' can be the same matrix instance.
+     *
+     * @param B A matrix that is n by m. Not modified.
+     * @param X An n by m matrix where the solution is written to. Modified.
+     */
+    @Override
+    public void solve( DMatrixOffHeap B, DMatrixOffHeap X ) {
+        DMatrixOffHeap L = decomposer.getDecomposed();
+        if (B.numRows != L.numRows)
+            throw new MatrixDimensionException("Unexpected number of rows in B");
+        X.reshape(L.numCols, B.numCols);
+
+        final int N = L.numRows;
+        int numBatch = TriangularSolver_DDOH.batchColumns(N, B.numCols);
+        double[] y = new double[N*numBatch];
+        double[] row = new double[Math.max(N, numBatch)];
+
+        for (int col0 = 0; col0 < B.numCols; col0 += numBatch) {
+            int n = Math.min(numBatch, B.numCols - col0);
+            TriangularSolver_DDOH.load(B, col0, n, null, y, row);
+            TriangularSolver_DDOH.solveLower(L, y, n, false, row);
+            TriangularSolver_DDOH.solveTranLower(L, y, n, row);
+            TriangularSolver_DDOH.store(y, col0, n, X, row);
+        }
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return true;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return (D)decomposer;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.data.DMatrixOffHeap;
+
+/**
+ * <p>
+ * Matrix multiplication for {@link DMatrixOffHeap}. The right matrix is processed in panels of rows which are
+ * copied onto the heap. Each row of the output is then accumulated in an on-heap buffer, reading one row segment
+ * of the left matrix and writing the row once per panel. This keeps the number of off-heap accesses to
+ * O(N<sup>2</sup>) per panel instead of one for every multiply-add.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMult_DDOH {
+    /** Maximum number of elements in a panel of the right matrix */
+    public static int PANEL_ELEMENTS = 1 << 18;
+
+    /** Storage for the row being computed */
+    public static class RowWork {
+        public double[] a = new double[0];
+        public double[] c = new double[0];
+
+        public void reserve( int lengthA, int lengthC ) {
+            if (a.length < lengthA)
+                a = new double[lengthA];
+            if (c.length < lengthC)
+                c = new double[lengthC];
+        }
+    }
+
+    /**
+     * C = A*B. Shapes must already be compatible and C must not be A or B.
+     */
+    public static void mult( DMatrixOffHeap A, DMatrixOffHeap B, DMatrixOffHeap C ) {
+        if (A.numCols == 0) {
+            C.zero();
+            return;
+        }
+
+        int panelRows = panelRows(B);
+        double[] panel = new double[panelRows*B.numCols];
+        RowWork work = new RowWork();
+        work.reserve(panelRows, B.numCols);
+
+        for (int k0 = 0; k0 < B.numRows; k0 += panelRows) {
+            int k1 = Math.min(B.numRows, k0 + panelRows);
+            B.read((long)k0*B.numCols, panel, 0, (k1 - k0)*B.numCols);
+            multRows(A, C, panel, k0, k1, 0, A.numRows, work);
+        }
+    }
+
+    /** Number of rows in B which are copied at once */
+    public static int panelRows( DMatrixOffHeap B ) {
+        return Math.max(1, Math.min(B.numRows, PANEL_ELEMENTS/Math.max(1, B.numCols)));
+    }
+
+    /**
+     * Adds the contribution of rows k0 to k1-1 in B, stored in 'panel', to rows row0 to row1-1 in C. If k0 is zero
+     * then C is overwritten instead of added to.
+     */
+    public static void multRows( DMatrixOffHeap A, DMatrixOffHeap C, double[] panel, int k0, int k1,
+                                 int row0, int row1, RowWork work ) {
+        final int N = C.numCols;
+        final int panelRows = k1 - k0;
+        work.reserve(panelRows, N);
+        double[] a = work.a;
+        double[] c = work.c;
+
+        for (int i = row0; i < row1; i++) {
+            A.read((long)i*A.numCols + k0, a, 0, panelRows);
+            if (k0 == 0) {
+                for (int j = 0; j < N; j++) {
+                    c[j] = 0;
+                }
+            } else {
+                C.read((long)i*N, c, 0, N);
+            }
+
+            for (int k = 0; k < panelRows; k++) {
+                double valA = a[k];
+                int indexB = k*N;
+                for (int j = 0; j < N; j++) {
+                    c[j] += valA*panel[indexB + j];
+                }
+            }
+
+            C.write((long)i*N, c, 0, N);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.data.DMatrixOffHeap;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.ConcurrencyOps;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * Concurrent implementation of {@link MatrixMult_DDOH}. Each panel of the right matrix is copied once and then
+ * shared by all the threads, which compute different rows of the output.
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMult_MT_DDOH {
+    public static void mult( DMatrixOffHeap A, DMatrixOffHeap B, DMatrixOffHeap C,
+                             @Nullable GrowArray<MatrixMult_DDOH.RowWork> workspace ) {
+        if (A.numCols == 0) {
+            C.zero();
+            return;
+        }
+        if (workspace == null)
+            workspace = new GrowArray<>(MatrixMult_DDOH.RowWork::new);
+
+        int panelRows = MatrixMult_DDOH.panelRows(B);
+        double[] panel = new double[panelRows*B.numCols];
+
+        for (int k0 = 0; k0 < B.numRows; k0 += panelRows) {
+            int _k0 = k0;
+            int k1 = Math.min(B.numRows, k0 + panelRows);
+            B.read((long)k0*B.numCols, panel, 0, (k1 - k0)*B.numCols);
+            ConcurrencyOps.loopBlocks(0, A.numRows, workspace, ( work, row0, row1 ) ->
+                    MatrixMult_DDOH.multRows(A, C, panel, _k0, k1, row0, row1, work));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.data.DMatrixOffHeap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Triangular solvers for {@link DMatrixOffHeap}. The right hand side is processed in batches of columns which
+ * are copied onto the heap and stored column-major, y[col*N + row]. Each row of the triangular matrix is read once
+ * per batch and applied to every column in it.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangularSolver_DDOH {
+    /** Maximum number of elements in a batch of columns */
+    public static int BATCH_ELEMENTS = 1 << 20;
+
+    /** Number of columns in a batch */
+    public static int batchColumns( int numRows, int numCols ) {
+        return Math.max(1, Math.min(numCols, BATCH_ELEMENTS/Math.max(1, numRows)));
+    }
+
+    /**
+     * Copies columns col0 to col0+numBatch-1 of B into y. If not null, row i of y is row pivot[i] of B.
+     */
+    public static void load( DMatrixOffHeap B, int col0, int numBatch, @Nullable int[] pivot, double[] y, double[] row ) {
+        final int N = B.numRows;
+        for (int i = 0; i < N; i++) {
+            int rowB = pivot == null ? i : pivot[i];
+            B.read((long)rowB*B.numCols + col0, row, 0, numBatch);
+            for (int c = 0; c < numBatch; c++) {
+                y[c*N + i] = row[c];
+            }
+        }
+    }
+
+    /**
+     * Copies the columns in y into columns col0 to col0+numBatch-1 of X
+     */
+    public static void store( double[] y, int col0, int numBatch, DMatrixOffHeap X, double[] row ) {
+        final int N = X.numRows;
+        for (int i = 0; i < N; i++) {
+            for (int c = 0; c < numBatch; c++) {
+                row[c] = y[c*N + i];
+            }
+            X.write((long)i*X.numCols + col0, row, 0, numBatch);
+        }
+    }
+
+    /**
+     * Solves L*x = y in place, where L is the lower triangular portion of the square matrix
+     *
+     * @param unit If true the diagonal of L is assumed to be all ones
+     */
+    public static void solveLower( DMatrixOffHeap L, double[] y, int numBatch, boolean unit, double[] row ) {
+        final int N = L.numRows;
+        for (int i = 0; i < N; i++) {
+            L.read((long)i*N, row, 0, i + 1);
+            for (int c = 0; c < numBatch; c++) {
+                int base = c*N;
+                double sum = y[base + i];
+                for (int k = 0; k < i; k++) {
+                    sum -= row[k]*y[base + k];
+                }
+                y[base + i] = unit ? sum : sum/row[i];
+            }
+        }
+    }
+
+    /**
+     * Solves L<sup>T</sup>*x = y in place, where L is the lower triangular portion of the square matrix.
+     */
+    public static void solveTranLower( DMatrixOffHeap L, double[] y, int numBatch, double[] row ) {
+        final int N = L.numRows;
+        for (int i = N - 1; i >= 0; i--) {
+            L.read((long)i*N, row, 0, i + 1);
+            for (int c = 0; c < numBatch; c++) {
+                int base = c*N;
+                double x = y[base + i]/row[i];
+                y[base + i] = x;
+                for (int k = 0; k < i; k++) {
+                    y[base + k] -= row[k]*x;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves U*x = y in place, where U is the upper triangular portion of the square matrix
+     */
+    public static void solveUpper( DMatrixOffHeap U, double[] y, int numBatch, double[] row ) {
+        final int N = U.numRows;
+        for (int i = N - 1; i >= 0; i--) {
+            U.read((long)i*N + i, row, 0, N - i);
+            for (int c = 0; c < numBatch; c++) {
+                int base = c*N;
+                double sum = y[base + i];
+                for (int k = i + 1; k < N; k++) {
+                    sum -= row[k - i]*y[base + k];
+                }
+                y[base + i] = sum/row[0];
+            }
+        }
+    }
+}
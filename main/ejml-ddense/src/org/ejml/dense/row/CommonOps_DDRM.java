@@ -33,6 +33,8 @@ import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
 import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
 import org.ejml.dense.row.mult.MatrixVectorMult_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.ejml.interfaces.linsol.ReducedRowEchelonForm_F64;
 import org.ejml.ops.DOperatorUnary;
@@ -74,6 +76,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T mult( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -86,6 +89,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.mult_small(a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, false);
         return output;
     }
 
@@ -103,6 +107,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T mult( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -114,6 +119,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.mult_small(alpha, a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, false);
         return output;
     }
 
@@ -130,6 +136,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransA( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -149,6 +156,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.multTransA_small(a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, false);
         return output;
     }
 
@@ -166,6 +174,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransA( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -178,6 +187,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.multTransA_small(alpha, a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, false);
         return output;
     }
 
@@ -194,6 +204,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransB( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -204,6 +215,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.multTransB(a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, false);
         return output;
     }
 
@@ -221,6 +233,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransB( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -228,6 +241,7 @@ public class CommonOps_DDRM {
         // TODO add a matrix vectory multiply here
         MatrixMatrixMult_DDRM.multTransB(alpha, a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, false);
         return output;
     }
 
@@ -244,6 +258,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransAB( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -261,6 +276,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.multTransAB(a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, false);
         return output;
     }
 
@@ -278,6 +294,7 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransAB( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
@@ -289,6 +306,7 @@ public class CommonOps_DDRM {
             MatrixMatrixMult_DDRM.multTransAB(alpha, a, b, output);
         }
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, false);
         return output;
     }
 
@@ -561,18 +579,24 @@ public class CommonOps_DDRM {
      * @return true if it could invert the matrix false if it could not.
      */
     public static boolean solve( DMatrixRMaj a, DMatrixRMaj b, DMatrixRMaj x ) {
-        x.reshape(a.numCols, b.numCols);
+        long startNanos = EjmlInstrumentation.startComposite();
+        try {
+            x.reshape(a.numCols, b.numCols);
 
-        LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.general(a.numRows, a.numCols);
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.general(a.numRows, a.numCols);
 
-        // make sure the inputs 'a' and 'b' are not modified
-        solver = new LinearSolverSafe<>(solver);
+            // make sure the inputs 'a' and 'b' are not modified
+            solver = new LinearSolverSafe<>(solver);
 
-        if (!solver.setA(a))
-            return false;
+            if (!solver.setA(a))
+                return false;
 
-        solver.solve(b, x);
-        return true;
+            solver.solve(b, x);
+            EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.SOLVE, a.numRows, a.numCols);
+            return true;
+        } finally {
+            EjmlInstrumentation.endComposite(startNanos);
+        }
     }
 
     /**
@@ -658,6 +682,7 @@ public class CommonOps_DDRM {
      * @return The transposed matrix.
      */
     public static DMatrixRMaj transpose( DMatrixRMaj A, @Nullable DMatrixRMaj A_tran ) {
+        long startNanos = EjmlInstrumentation.start();
         A_tran = reshapeOrDeclare(A_tran, A.numCols, A.numRows);
 
         if (A.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
@@ -666,6 +691,7 @@ public class CommonOps_DDRM {
         else
             TransposeAlgs_DDRM.standard(A, A_tran);
 
+        EjmlInstrumentation.record(startNanos, OperationFamily.TRANSPOSE, A.numRows, A.numCols, 0, false);
         return A_tran;
     }
 
@@ -715,15 +741,22 @@ public class CommonOps_DDRM {
                 return mat.get(0);
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+            long startNanos = EjmlInstrumentation.startComposite();
+            try {
+                LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
 
-            if (alg.inputModified()) {
-                mat = mat.copy();
-            }
+                if (alg.inputModified()) {
+                    mat = mat.copy();
+                }
 
-            if (!alg.decompose(mat))
-                return 0.0;
-            return alg.computeDeterminant().real;
+                if (!alg.decompose(mat))
+                    return 0.0;
+                double det = alg.computeDeterminant().real;
+                EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.DETERMINANT, numRow, numCol);
+                return det;
+            } finally {
+                EjmlInstrumentation.endComposite(startNanos);
+            }
         }
     }
 
@@ -745,26 +778,32 @@ public class CommonOps_DDRM {
      * @return true if it could invert the matrix false if it could not.
      */
     public static boolean invert( DMatrixRMaj mat ) {
-        if (mat.numCols <= UnrolledInverseFromMinor_DDRM.MAX) {
-            if (mat.numCols != mat.numRows) {
-                throw new MatrixDimensionException("Must be a square matrix.");
-            }
+        long startNanos = EjmlInstrumentation.startComposite();
+        try {
+            if (mat.numCols <= UnrolledInverseFromMinor_DDRM.MAX) {
+                if (mat.numCols != mat.numRows) {
+                    throw new MatrixDimensionException("Must be a square matrix.");
+                }
 
-            if (mat.numCols >= 2) {
-                UnrolledInverseFromMinor_DDRM.inv(mat, mat);
-            } else {
-                mat.set(0, 1.0/mat.get(0));
-            }
-        } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
-            LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
-            if (solver.setA(mat)) {
-                solver.invert(mat);
+                if (mat.numCols >= 2) {
+                    UnrolledInverseFromMinor_DDRM.inv(mat, mat);
+                } else {
+                    mat.set(0, 1.0/mat.get(0));
+                }
             } else {
-                return false;
+                LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+                LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
+                if (solver.setA(mat)) {
+                    solver.invert(mat);
+                } else {
+                    return false;
+                }
             }
+            EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.INVERT, mat.numRows, mat.numCols);
+            return true;
+        } finally {
+            EjmlInstrumentation.endComposite(startNanos);
         }
-        return true;
     }
 
     /**
@@ -792,29 +831,35 @@ public class CommonOps_DDRM {
      * @return true if it could invert the matrix false if it could not.
      */
     public static boolean invert( DMatrixRMaj mat, DMatrixRMaj result ) {
-        result.reshape(mat.numRows, mat.numCols);
+        long startNanos = EjmlInstrumentation.startComposite();
+        try {
+            result.reshape(mat.numRows, mat.numCols);
 
-        if (mat.numCols <= UnrolledInverseFromMinor_DDRM.MAX) {
-            if (mat.numCols != mat.numRows) {
-                throw new MatrixDimensionException("Must be a square matrix.");
-            }
-            if (result.numCols >= 2) {
-                UnrolledInverseFromMinor_DDRM.inv(mat, result);
+            if (mat.numCols <= UnrolledInverseFromMinor_DDRM.MAX) {
+                if (mat.numCols != mat.numRows) {
+                    throw new MatrixDimensionException("Must be a square matrix.");
+                }
+                if (result.numCols >= 2) {
+                    UnrolledInverseFromMinor_DDRM.inv(mat, result);
+                } else {
+                    result.set(0, 1.0/mat.get(0));
+                }
             } else {
-                result.set(0, 1.0/mat.get(0));
-            }
-        } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
-            LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
+                LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+                LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
 
-            if (solver.modifiesA())
-                mat = mat.copy();
+                if (solver.modifiesA())
+                    mat = mat.copy();
 
-            if (!solver.setA(mat))
-                return false;
-            solver.invert(result);
+                if (!solver.setA(mat))
+                    return false;
+                solver.invert(result);
+            }
+            EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.INVERT, mat.numRows, mat.numCols);
+            return true;
+        } finally {
+            EjmlInstrumentation.endComposite(startNanos);
         }
-        return true;
     }
 
     /**
@@ -925,8 +970,7 @@ public class CommonOps_DDRM {
             ret = v;
         }
 
-
-        for (int i = 0; i < ret.length; i++) {
+        for (int i = 0; i < A.numRows; i++) {
             if (ret[i] == null) {
                 ret[i] = new DMatrixRMaj(A.numCols, 1);
             } else {
@@ -2615,6 +2659,125 @@ public class CommonOps_DDRM {
         return output;
     }
 
+    /**
+     * Applies the &lt; operator to each element in A. Results are stored in a bit packed boolean matrix, which
+     * is 1/8 the size of a {@link BMatrixRMaj} and can be used as a mask.
+     *
+     * @param A Input matrix
+     * @param value value each element is compared against
+     * @param output (Optional) Storage for results.  Can be null. Is reshaped.
+     * @return Boolean matrix with results
+     */
+    public static BMatrixBits elementLessThanBits( DMatrixRMaj A, double value, @Nullable BMatrixBits output ) {
+        return compareBits(A, null, value, LESS_THAN, output);
+    }
+
+    /**
+     * Applies the &le; operator to each element in A. Results are stored in a bit packed boolean matrix, which
+     * is 1/8 the size of a {@link BMatrixRMaj} and can be used as a mask.
+     *
+     * @param A Input matrix
+     * @param value value each element is compared against
+     * @param output (Optional) Storage for results.  Can be null. Is reshaped.
+     * @return Boolean matrix with results
+     */
+    public static BMatrixBits elementLessThanOrEqualBits( DMatrixRMaj A, double value, @Nullable BMatrixBits output ) {
+        return compareBits(A, null, value, LESS_THAN_OR_EQUAL, output);
+    }
+
+    /**
+     * Applies the &gt; operator to each element in A. Results are stored in a bit packed boolean matrix, which
+     * is 1/8 the size of a {@link BMatrixRMaj} and can be used as a mask.
+     *
+     * @param A Input matrix
+     * @param value value each element is compared against
+     * @param output (Optional) Storage for results.  Can be null. Is reshaped.
+     * @return Boolean matrix with results
+     */
+    public static BMatrixBits elementMoreThanBits( DMatrixRMaj A, double value, @Nullable BMatrixBits output ) {
+        return compareBits(A, null, value, MORE_THAN, output);
+    }
+
+    /**
+     * Applies the &ge; operator to each element in A. Results are stored in a bit packed boolean matrix, which
+     * is 1/8 the size of a {@link BMatrixRMaj} and can be used as a mask.
+     *
+     * @param A Input matrix
+     * @param value value each element is compared against
+     * @param output (Optional) Storage for results.  Can be null. Is reshaped.
+     * @return Boolean matrix with results
+     */
+    public static BMatrixBits elementMoreThanOrEqualBits( DMatrixRMaj A, double value, @Nullable BMatrixBits output ) {
+        return compareBits(A, null, value, MORE_THAN_OR_EQUAL, output);
+    }
+
+    /**
+     * Applies the A &lt; B operator to each element. Results are stored in a bit packed boolean matrix, which
+     * is 1/8 the size of a {@link BMatrixRMaj} and can be used as a mask.
+     *
+     * @param A Input matrix
+     * @param B Input matrix
+     * @param output (Optional) Storage for results.  Can be null. Is reshaped.
+     * @return Boolean matrix with results
+     */
+    public static BMatrixBits elementLessThanBits( DMatrixRMaj A, DMatrixRMaj B, @Nullable BMatrixBits output ) {
+        UtilEjml.checkSameShape(A, B, true);
+        return compareBits(A, B, 0.0, LESS_THAN, output);
+    }
+
+    /**
+     * Applies the A &le; B operator to each element. Results are stored in a bit packed boolean matrix, which
+     * is 1/8 the size of a {@link BMatrixRMaj} and can be used as a mask.
+     *
+     * @param A Input matrix
+     * @param B Input matrix
+     * @param output (Optional) Storage for results.  Can be null. Is reshaped.
+     * @return Boolean matrix with results
+     */
+    public static BMatrixBits elementLessThanOrEqualBits( DMatrixRMaj A, DMatrixRMaj B, @Nullable BMatrixBits output ) {
+        UtilEjml.checkSameShape(A, B, true);
+        return compareBits(A, B, 0.0, LESS_THAN_OR_EQUAL, output);
+    }
+
+    // Comparisons which are supported by compareBits()
+    private static final int LESS_THAN = 0;
+    private static final int LESS_THAN_OR_EQUAL = 1;
+    private static final int MORE_THAN = 2;
+    private static final int MORE_THAN_OR_EQUAL = 3;
+
+    /**
+     * Compares each element in A against the same element in B, or against 'value' if B is null, and packs the
+     * results into the bits of 'output'.
+     */
+    private static BMatrixBits compareBits( DMatrixRMaj A, @Nullable DMatrixRMaj B, double value, int comparison,
+                                            @Nullable BMatrixBits output ) {
+        output = UtilEjml.reshapeOrDeclare(output, A.numRows, A.numCols);
+
+        final int N = A.getNumElements();
+
+        for (int i = 0, word = 0; i < N; i += 64, word++) {
+            int length = Math.min(64, N - i);
+            long bits = 0;
+            for (int bit = 0; bit < length; bit++) {
+                double a = A.data[i + bit];
+                double b = B == null ? value : B.data[i + bit];
+                boolean result;
+                switch (comparison) {
+                    case LESS_THAN: result = a < b; break;
+                    case LESS_THAN_OR_EQUAL: result = a <= b; break;
+                    case MORE_THAN: result = a > b; break;
+                    case MORE_THAN_OR_EQUAL: result = a >= b; break;
+                    default: throw new IllegalArgumentException("Unknown comparison " + comparison);
+                }
+                if (result)
+                    bits |= 1L << bit;
+            }
+            output.data[word] = bits;
+        }
+
+        return output;
+    }
+
     /**
      * Returns a row matrix which contains all the elements in A which are flagged as true in 'marked'
      *
@@ -2662,6 +2825,49 @@ public class CommonOps_DDRM {
         return total;
     }
 
+    /**
+     * Returns a row matrix which contains all the elements in A which are flagged as true in 'marked'.
+     * Words in 'marked' which have no bits set are skipped entirely.
+     *
+     * @param A Input matrix
+     * @param marked Input matrix marking elements in A
+     * @param output Storage for output row vector. Can be null.  Will be reshaped.
+     * @return Row vector with marked elements
+     */
+    public static DMatrixRMaj elements( DMatrixRMaj A, BMatrixBits marked, @Nullable DMatrixRMaj output ) {
+        checkSameShape(A, marked, false);
+
+        if (output == null)
+            output = new DMatrixRMaj(1, 1);
+
+        output.reshape(marked.sum(), 1);
+
+        int words = marked.getNumWords();
+
+        int index = 0;
+        for (int word = 0; word < words; word++) {
+            long bits = marked.data[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                output.data[index++] = A.data[word*64 + bit];
+                // clear the lowest set bit
+                bits &= bits - 1;
+            }
+        }
+
+        return output;
+    }
+
+    /**
+     * Counts the number of elements in A which are true
+     *
+     * @param A input matrix
+     * @return number of true elements
+     */
+    public static int countTrue( BMatrixBits A ) {
+        return A.sum();
+    }
+
     /**
      * output = [a , b]
      */
@@ -19,14 +19,21 @@
 package org.ejml.dense.row;
 
 import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrix1Row;
+import org.ejml.data.DMatrixD1;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.misc.PairwiseSum_DDRM;
 import org.ejml.dense.row.misc.TransposeAlgs_MT_DDRM;
 import org.ejml.dense.row.mult.MatrixMatrixMult_MT_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 import org.jetbrains.annotations.Nullable;
 
 import static org.ejml.UtilEjml.reshapeOrDeclare;
+import static org.ejml.UtilEjml.stringShapes;
 
 /**
  * Functions from {@link CommonOps_DDRM} with concurrent implementations.
@@ -34,6 +41,13 @@ import static org.ejml.UtilEjml.reshapeOrDeclare;
  * @author Peter Abeles
  */
 public class CommonOps_MT_DDRM {
+    /**
+     * Minimum number of matrix elements processed by a thread in the matrix reductions {@link #elementSum},
+     * {@link #elementMaxAbs}, {@link #dot}, and {@link NormOps_MT_DDRM#fastNormF}. Independent of
+     * {@link pabeles.concurrency.ConcurrencyOps#REDUCE_MIN_BLOCK}, which only controls the generic array reductions.
+     */
+    public static int MATRIX_REDUCE_MIN_BLOCK = 20_000;
+
     /**
      * <p>Performs the following operation:<br>
      * <br>
@@ -47,12 +61,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T mult( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.mult_reorder(a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, true);
         return output;
     }
 
@@ -70,12 +86,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T mult( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.mult_reorder(alpha, a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, true);
         return output;
     }
 
@@ -92,12 +110,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransA( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.multTransA_reorder(a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, true);
         return output;
     }
 
@@ -115,12 +135,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransA( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numCols);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.multTransA_reorder(alpha, a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, true);
         return output;
     }
 
@@ -137,12 +159,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransB( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.multTransB(a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, true);
         return output;
     }
 
@@ -160,12 +184,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransB( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numRows, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.multTransB(alpha, a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numCols, true);
         return output;
     }
 
@@ -182,12 +208,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransAB( T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.multTransAB(a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, true);
         return output;
     }
 
@@ -205,12 +233,14 @@ public class CommonOps_MT_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrix1Row> T multTransAB( double alpha, T a, T b, @Nullable T output ) {
+        long startNanos = EjmlInstrumentation.start();
         output = reshapeOrDeclare(output, a, a.numCols, b.numRows);
         UtilEjml.checkSameInstance(a, output);
         UtilEjml.checkSameInstance(b, output);
 
         MatrixMatrixMult_MT_DDRM.multTransAB(alpha, a, b, output);
 
+        EjmlInstrumentation.recordMult(startNanos, output.numRows, output.numCols, a.numRows, true);
         return output;
     }
 
@@ -380,6 +410,7 @@ public class CommonOps_MT_DDRM {
      * @return The transposed matrix.
      */
     public static DMatrixRMaj transpose( DMatrixRMaj A, @Nullable DMatrixRMaj A_tran ) {
+        long startNanos = EjmlInstrumentation.start();
         A_tran = reshapeOrDeclare(A_tran, A.numCols, A.numRows);
 
         if (A.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
@@ -388,6 +419,70 @@ public class CommonOps_MT_DDRM {
         else
             TransposeAlgs_MT_DDRM.standard(A, A_tran);
 
+        EjmlInstrumentation.record(startNanos, OperationFamily.TRANSPOSE, A.numRows, A.numCols, 0, true);
         return A_tran;
     }
+
+    /**
+     * <p>
+     * Sums up all the elements in the matrix using pairwise summation.<br>
+     * <br>
+     * sum(i=1:m , j=1:n ; a<sub>ij</sub>)
+     * </p>
+     *
+     * @param mat An m by n matrix. Not modified.
+     * @return The sum of the elements.
+     * @see CommonOps_DDRM#elementSum(DMatrixD1)
+     */
+    public static double elementSum( DMatrixD1 mat ) {
+        final double[] data = mat.data;
+        return EjmlConcurrency.reduceDouble(0, mat.getNumElements(), MATRIX_REDUCE_MIN_BLOCK, 0.0,
+                ( idx0, idx1 ) -> PairwiseSum_DDRM.sum(data, idx0, idx1), Double::sum);
+    }
+
+    /**
+     * <p>
+     * Returns the absolute value of the element in the matrix that has the largest absolute value.<br>
+     * <br>
+     * Max{ |a<sub>ij</sub>| } for all i and j<br>
+     * </p>
+     *
+     * @param a A matrix. Not modified.
+     * @return The max abs element value of the matrix.
+     * @see CommonOps_DDRM#elementMaxAbs(DMatrixD1)
+     */
+    public static double elementMaxAbs( DMatrixD1 a ) {
+        final double[] data = a.data;
+        return EjmlConcurrency.reduceDouble(0, a.getNumElements(), MATRIX_REDUCE_MIN_BLOCK, 0.0, ( idx0, idx1 ) -> {
+            double max = 0;
+            for (int i = idx0; i < idx1; i++) {
+                double val = Math.abs(data[i]);
+                if (val > max)
+                    max = val;
+            }
+            return max;
+        }, Math::max);
+    }
+
+    /**
+     * <p>
+     * Computes the dot product or inner product between two vectors using pairwise summation.
+     * </p>
+     *
+     * @param a Vector
+     * @param b Vector
+     * @return Dot product of the two vectors
+     * @see CommonOps_DDRM#dot(DMatrixD1, DMatrixD1)
+     */
+    public static double dot( DMatrixD1 a, DMatrixD1 b ) {
+        if (!MatrixFeatures_DDRM.isVector(a) || !MatrixFeatures_DDRM.isVector(b))
+            throw new RuntimeException("Both inputs must be vectors");
+        if (a.getNumElements() != b.getNumElements())
+            throw new MatrixDimensionException("Vectors must have the same length. " + stringShapes(a, b));
+
+        final double[] dataA = a.data;
+        final double[] dataB = b.data;
+        return EjmlConcurrency.reduceDouble(0, a.getNumElements(), MATRIX_REDUCE_MIN_BLOCK, 0.0,
+                ( idx0, idx1 ) -> PairwiseSum_DDRM.dot(dataA, dataB, idx0, idx1), Double::sum);
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.concurrency.ConcurrencyAutotuner;
+import org.ejml.concurrency.ConcurrentOperation;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_MT_DDRM;
+import org.ejml.dense.row.misc.TransposeAlgs_DDRM;
+
+import java.util.Random;
+
+/**
+ * Benchmarks for dense row-major operations which are used by {@link ConcurrencyAutotuner} to select
+ * thresholds and block sizes.
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyCalibration_DDRM {
+    /**
+     * Adds all the dense operations to the tuner
+     */
+    public static void addAll( ConcurrencyAutotuner tuner ) {
+        var rand = new Random(234);
+
+        tuner.addCalibration(ConcurrentOperation.DENSE_MULT, size -> {
+            int N = width(size);
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj C = new DMatrixRMaj(N, N);
+            return ConcurrencyAutotuner.trial(() -> CommonOps_DDRM.mult(A, B, C), () -> CommonOps_MT_DDRM.mult(A, B, C));
+        });
+
+        tuner.addCalibration(ConcurrentOperation.DENSE_MULT_TRANS_A, size -> {
+            int N = width(size);
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj C = new DMatrixRMaj(N, N);
+            return ConcurrencyAutotuner.trial(() -> CommonOps_DDRM.multTransA(A, B, C), () -> CommonOps_MT_DDRM.multTransA(A, B, C));
+        });
+
+        tuner.addCalibration(ConcurrentOperation.DENSE_TRANSPOSE, size -> {
+            int N = width(size);
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj B = new DMatrixRMaj(N, N);
+            return ConcurrencyAutotuner.trial(() -> CommonOps_DDRM.transpose(A, B), () -> CommonOps_MT_DDRM.transpose(A, B));
+        });
+
+        tuner.addCalibration(ConcurrentOperation.DENSE_QR, size -> {
+            int N = width(size);
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            // The input isn't modified by these decompositions
+            var qr = new QRDecompositionHouseholderColumn_DDRM();
+            var qr_mt = new QRDecompositionHouseholderColumn_MT_DDRM();
+            return ConcurrencyAutotuner.trial(() -> qr.decompose(A), () -> qr_mt.decompose(A));
+        });
+
+        DMatrixRMaj T = RandomMatrices_DDRM.rectangle(800, 800, rand);
+        DMatrixRMaj T_tran = new DMatrixRMaj(800, 800);
+        tuner.setBlockWidthBenchmark(width -> () -> TransposeAlgs_DDRM.block(T, T_tran, width));
+
+        DMatrixRMaj P = RandomMatrices_DDRM.symmetricPosDef(400, rand);
+        tuner.setBlockWidthCholBenchmark(width -> {
+            var chol = new CholeskyDecompositionBlock_DDRM(width);
+            DMatrixRMaj L = P.createLike();
+            return () -> {
+                L.setTo(P);
+                if (!chol.decompose(L))
+                    throw new RuntimeException("Decomposition failed");
+            };
+        });
+    }
+
+    private static int width( int size ) {
+        return Math.max(1, (int)Math.sqrt(size));
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Computes the mean and covariance of a stream of vectors without storing them. Vectors can be added one at a
+ * time or as a batch, where each row is a vector. Two accumulators can be merged, which allows different threads
+ * or partitions of the data to be processed independently and combined at the end.
+ * </p>
+ *
+ * <p>
+ * Internally the sum of squared deviations from the current mean is stored, which avoids the catastrophic
+ * cancellation found when E[x*x<sup>T</sup>] - &mu;*&mu;<sup>T</sup> is computed. A single vector is added with
+ * Welford's algorithm, a rank-1 update. A batch is processed in blocks of rows. The deviations from each block's
+ * mean are added with {@link CommonOps_DDRM#multAddTransA} and the block is then merged as described in [1].
+ * </p>
+ *
+ * <p>
+ * [1] Chan, Golub, and LeVeque, "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances," 1979
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CovarianceAccumulator_DDRM {
+    // number of elements in each vector
+    protected final int dimension;
+
+    // number of vectors which have been added
+    protected long count;
+
+    // the mean of all the vectors
+    protected double[] mean;
+
+    // Sum of outer products of deviations from the mean. Only the upper triangle is always up to date.
+    protected DMatrixRMaj scatter;
+    // true if the lower triangle in scatter needs to be set to the upper triangle
+    protected boolean lowerStale;
+
+    // number of rows in a block when adding a batch
+    protected int blockRows = 128;
+
+    // work space
+    protected double[] delta;
+    protected DMatrixRMaj centered = new DMatrixRMaj(1, 1);
+
+    /**
+     * @param dimension Number of elements in each vector
+     */
+    public CovarianceAccumulator_DDRM( int dimension ) {
+        if (dimension <= 0)
+            throw new IllegalArgumentException("Dimension must be positive");
+        this.dimension = dimension;
+        this.mean = new double[dimension];
+        this.delta = new double[dimension];
+        this.scatter = new DMatrixRMaj(dimension, dimension);
+    }
+
+    /**
+     * Discards all the vectors which have been added
+     */
+    public void reset() {
+        count = 0;
+        lowerStale = false;
+        Arrays.fill(mean, 0);
+        scatter.zero();
+    }
+
+    /**
+     * Adds a single vector
+     *
+     * @param x Vector with 'dimension' elements. Not modified.
+     */
+    public void add( double[] x ) {
+        if (x.length < dimension)
+            throw new MatrixDimensionException("Vector has " + x.length + " elements but expected " + dimension);
+        addVector(x, 0);
+    }
+
+    /**
+     * Adds a single vector
+     *
+     * @param x A row or column vector with 'dimension' elements. Not modified.
+     */
+    public void add( DMatrixRMaj x ) {
+        if (!MatrixFeatures_DDRM.isVector(x) || x.getNumElements() != dimension)
+            throw new MatrixDimensionException("Expected a vector with " + dimension + " elements");
+        addVector(x.data, 0);
+    }
+
+    /**
+     * Welford's algorithm. Only the upper triangle is updated.
+     */
+    private void addVector( double[] x, int offset ) {
+        count++;
+        final int N = dimension;
+        final double invCount = 1.0/count;
+
+        for (int i = 0; i < N; i++) {
+            double d = x[offset + i] - mean[i];
+            delta[i] = d;
+            mean[i] += d*invCount;
+        }
+
+        // scatter += delta*(x - updated mean)' = (count-1)/count*delta*delta'
+        addOuterUpper(delta, (count - 1)*invCount);
+    }
+
+    /**
+     * Adds every row in X as a vector.
+     *
+     * @param X Matrix with 'dimension' columns. Each row is a vector. Not modified.
+     */
+    public void addBatch( DMatrixRMaj X ) {
+        addBatch(X, 0, X.numRows);
+    }
+
+    /**
+     * Adds rows from row0 to row1-1 in X as vectors.
+     *
+     * @param X Matrix with 'dimension' columns. Each row is a vector. Not modified.
+     * @param row0 First row, inclusive
+     * @param row1 Last row, exclusive
+     */
+    public void addBatch( DMatrixRMaj X, int row0, int row1 ) {
+        if (X.numCols != dimension)
+            throw new MatrixDimensionException("X has " + X.numCols + " columns but expected " + dimension);
+        if (row0 < 0 || row1 > X.numRows || row0 > row1)
+            throw new IllegalArgumentException("Invalid row range " + row0 + " to " + row1);
+
+        for (int blockStart = row0; blockStart < row1; blockStart += blockRows) {
+            int blockEnd = Math.min(row1, blockStart + blockRows);
+            if (blockEnd - blockStart == 1) {
+                addVector(X.data, blockStart*dimension);
+            } else {
+                addBlock(X, blockStart, blockEnd);
+            }
+        }
+    }
+
+    /**
+     * Computes the scatter matrix of the block around its own mean then merges it
+     */
+    private void addBlock( DMatrixRMaj X, int row0, int row1 ) {
+        final int N = dimension;
+        final int rows = row1 - row0;
+
+        // use delta to store the block's mean
+        Arrays.fill(delta, 0);
+        for (int row = row0; row < row1; row++) {
+            int index = row*N;
+            for (int i = 0; i < N; i++) {
+                delta[i] += X.data[index + i];
+            }
+        }
+        for (int i = 0; i < N; i++) {
+            delta[i] /= rows;
+        }
+
+        centered.reshape(rows, N);
+        int indexC = 0;
+        for (int row = row0; row < row1; row++) {
+            int index = row*N;
+            for (int i = 0; i < N; i++) {
+                centered.data[indexC++] = X.data[index + i] - delta[i];
+            }
+        }
+        CommonOps_DDRM.multAddTransA(centered, centered, scatter);
+
+        // delta = block mean - mean
+        for (int i = 0; i < N; i++) {
+            delta[i] -= mean[i];
+        }
+        mergeMean(rows);
+    }
+
+    /**
+     * Adds the vectors from another accumulator to this one. The result is the same as if all the vectors had
+     * been added to this accumulator, up to floating point error.
+     *
+     * @param src The accumulator which is merged into this one. Not modified.
+     */
+    public void merge( CovarianceAccumulator_DDRM src ) {
+        if (src.dimension != dimension)
+            throw new MatrixDimensionException("Dimensions do not match. " + src.dimension + " " + dimension);
+        if (src.count == 0)
+            return;
+
+        final int N = dimension;
+        for (int i = 0; i < N; i++) {
+            int index = i*N + i;
+            for (int j = i; j < N; j++, index++) {
+                scatter.data[index] += src.scatter.data[index];
+            }
+        }
+        lowerStale = true;
+
+        for (int i = 0; i < N; i++) {
+            delta[i] = src.mean[i] - mean[i];
+        }
+        mergeMean(src.count);
+    }
+
+    /**
+     * Merges the mean of another set of vectors, with the difference between the means in delta, and adds the
+     * correction to the scatter matrix.
+     */
+    private void mergeMean( long countB ) {
+        final long countA = count;
+        count += countB;
+        final double fractionB = countB/(double)count;
+
+        for (int i = 0; i < dimension; i++) {
+            mean[i] += delta[i]*fractionB;
+        }
+        addOuterUpper(delta, countA*fractionB);
+    }
+
+    /**
+     * scatter = scatter + scale*v*v'. Only the upper triangle.
+     */
+    private void addOuterUpper( double[] v, double scale ) {
+        final int N = dimension;
+        final double[] s = scatter.data;
+        for (int i = 0; i < N; i++) {
+            double vi = v[i]*scale;
+            int index = i*N + i;
+            for (int j = i; j < N; j++) {
+                s[index++] += vi*v[j];
+            }
+        }
+        lowerStale = true;
+    }
+
+    /**
+     * Returns the sample covariance, i.e. the scatter matrix divided by count-1.
+     *
+     * @param output (Optional) Storage for the covariance. Modified.
+     * @return The covariance matrix
+     */
+    public DMatrixRMaj getCovariance( @Nullable DMatrixRMaj output ) {
+        if (count < 2)
+            throw new IllegalArgumentException("At least two vectors are needed to compute the sample covariance");
+        return getScaledScatter(output, 1.0/(count - 1));
+    }
+
+    /**
+     * Returns the population covariance, i.e. the scatter matrix divided by count.
+     *
+     * @param output (Optional) Storage for the covariance. Modified.
+     * @return The covariance matrix
+     */
+    public DMatrixRMaj getCovariancePopulation( @Nullable DMatrixRMaj output ) {
+        if (count < 1)
+            throw new IllegalArgumentException("No vectors have been added");
+        return getScaledScatter(output, 1.0/count);
+    }
+
+    private DMatrixRMaj getScaledScatter( @Nullable DMatrixRMaj output, double scale ) {
+        output = UtilEjml.reshapeOrDeclare(output, dimension, dimension);
+        symmetrizeScatter();
+        CommonOps_DDRM.scale(scale, scatter, output);
+        return output;
+    }
+
+    /**
+     * Returns the mean as a column vector
+     *
+     * @param output (Optional) Storage for the mean. Modified.
+     * @return The mean
+     */
+    public DMatrixRMaj getMean( @Nullable DMatrixRMaj output ) {
+        output = UtilEjml.reshapeOrDeclare(output, dimension, 1);
+        System.arraycopy(mean, 0, output.data, 0, dimension);
+        return output;
+    }
+
+    /**
+     * Returns the sum of outer products of the deviations from the mean. This is the internal storage.
+     */
+    public DMatrixRMaj getScatter() {
+        symmetrizeScatter();
+        return scatter;
+    }
+
+    private void symmetrizeScatter() {
+        if (!lowerStale)
+            return;
+        final int N = dimension;
+        for (int i = 0; i < N; i++) {
+            int indexUpper = i*N + i + 1;
+            int indexLower = (i + 1)*N + i;
+            for (int j = i + 1; j < N; j++, indexLower += N) {
+                scatter.data[indexLower] = scatter.data[indexUpper++];
+            }
+        }
+        lowerStale = false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    public void setBlockRows( int blockRows ) {
+        if (blockRows <= 0)
+            throw new IllegalArgumentException("Must be positive");
+        this.blockRows = blockRows;
+    }
+}
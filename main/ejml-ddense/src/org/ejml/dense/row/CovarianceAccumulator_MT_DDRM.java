@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Concurrent extension of {@link CovarianceAccumulator_DDRM}. A batch is split up into blocks of rows. Each
+ * thread adds its rows to its own accumulator, which are then merged.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CovarianceAccumulator_MT_DDRM extends CovarianceAccumulator_DDRM {
+
+    // Each thread has its own accumulator. These are n by n, so avoid creating more than is useful
+    GrowArray<CovarianceAccumulator_DDRM> workAccumulators;
+
+    // minimum number of rows processed by a thread
+    int minRowsPerThread = 128;
+
+    /**
+     * @param dimension Number of elements in each vector
+     */
+    public CovarianceAccumulator_MT_DDRM( int dimension ) {
+        super(dimension);
+        workAccumulators = new GrowArray<>(() -> new CovarianceAccumulator_DDRM(dimension),
+                CovarianceAccumulator_DDRM::reset);
+    }
+
+    @Override
+    public void addBatch( DMatrixRMaj X, int row0, int row1 ) {
+        if (X.numCols != dimension)
+            throw new MatrixDimensionException("X has " + X.numCols + " columns but expected " + dimension);
+        if (row0 < 0 || row1 > X.numRows || row0 > row1)
+            throw new IllegalArgumentException("Invalid row range " + row0 + " to " + row1);
+        if (row0 == row1)
+            return;
+
+        EjmlConcurrency.loopBlocks(row0, row1, minRowsPerThread, workAccumulators, ( work, idx0, idx1 ) -> {
+            work.setBlockRows(blockRows);
+            work.addBatch(X, idx0, idx1);
+        });
+
+        for (int i = 0; i < workAccumulators.size(); i++) {
+            merge(workAccumulators.get(i));
+        }
+    }
+
+    public int getMinRowsPerThread() {
+        return minRowsPerThread;
+    }
+
+    public void setMinRowsPerThread( int minRowsPerThread ) {
+        this.minRowsPerThread = minRowsPerThread;
+    }
+}
@@ -28,7 +28,8 @@ import org.ejml.interfaces.linsol.LinearSolverDense;
 import java.util.Random;
 
 /**
- * Contains operations specific to covariance matrices.
+ * Contains operations specific to covariance matrices. To compute the covariance of a stream of vectors
+ * see {@link CovarianceAccumulator_DDRM}.
  *
  * @author Peter Abeles
  */
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * Generates many draws at once from a multivariate Gaussian distribution. Each row in the output matrix is a
+ * draw, X = Z*L<sup>T</sup> + &mu;, where Z contains standard normal values and L is the Cholesky factor of the
+ * covariance, which is computed once in the constructor. Since L is lower triangular only half the
+ * multiplications in a general matrix multiplication are needed, and the rows of L are processed in blocks which
+ * fit inside the cache.
+ * </p>
+ *
+ * <p>
+ * Rows are generated in chunks. Each chunk has its own {@link SplittableRandom} which is split off from a root
+ * generator, in order, before any values are computed. This lets the chunks be processed in any order or
+ * concurrently, see {@link CovarianceRandomDrawBatch_MT_DDRM}, and still produce identical results. For a given
+ * seed, chunk size, and sequence of calls the draws are always the same.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see CovarianceRandomDraw_DDRM
+ */
+public class CovarianceRandomDrawBatch_DDRM {
+    // number of rows in L that are processed together
+    public static int BLOCK_ROWS_L = 64;
+
+    // lower triangular Cholesky factor of the covariance
+    protected final DMatrixRMaj L;
+    // mean of the distribution
+    protected final double[] mean;
+    protected final int dimension;
+
+    // root random number generator which every chunk's generator is split off of
+    protected SplittableRandom root;
+    // the generator for each chunk in the current call
+    protected SplittableRandom[] chunkRands = new SplittableRandom[0];
+
+    // number of draws which are generated by the same random number generator
+    protected int chunkRows = 1024;
+
+    // storage for standard normal values
+    protected double[] z = new double[0];
+
+    /**
+     * Creates a zero mean distribution
+     *
+     * @param seed Seed for the random number generator
+     * @param cov The covariance of the distribution. Not modified.
+     */
+    public CovarianceRandomDrawBatch_DDRM( long seed, DMatrixRMaj cov ) {
+        this(seed, null, cov);
+    }
+
+    /**
+     * Creates a distribution with the specified mean and covariance. Their values are copied.
+     *
+     * @param seed Seed for the random number generator
+     * @param mean (Optional) Mean of the distribution as a vector. If null the mean is zero. Not modified.
+     * @param cov The covariance of the distribution. Not modified.
+     */
+    public CovarianceRandomDrawBatch_DDRM( long seed, @Nullable DMatrixRMaj mean, DMatrixRMaj cov ) {
+        if (cov.numRows != cov.numCols)
+            throw new MatrixDimensionException("Covariance must be square");
+        this.dimension = cov.numCols;
+        this.mean = new double[dimension];
+        if (mean != null) {
+            if (!MatrixFeatures_DDRM.isVector(mean) || mean.getNumElements() != dimension)
+                throw new MatrixDimensionException("Mean must be a vector with " + dimension + " elements");
+            System.arraycopy(mean.data, 0, this.mean, 0, dimension);
+        }
+
+        CholeskyDecompositionInner_DDRM cholesky = new CholeskyDecompositionInner_DDRM(true);
+        L = cov.copy();
+        if (!cholesky.decompose(L))
+            throw new IllegalArgumentException("Covariance is not positive definite");
+
+        setSeed(seed);
+    }
+
+    /**
+     * Resets the random number generator
+     */
+    public void setSeed( long seed ) {
+        root = new SplittableRandom(seed);
+    }
+
+    /**
+     * Generates the specified number of draws.
+     *
+     * @param numDraws Number of draws, which is the number of rows in the output
+     * @param output (Optional) Storage for the draws. Reshaped to numDraws by dimension.
+     * @return Matrix where each row is a draw
+     */
+    public DMatrixRMaj next( int numDraws, @Nullable DMatrixRMaj output ) {
+        output = UtilEjml.reshapeOrDeclare(output, numDraws, dimension);
+        next(output);
+        return output;
+    }
+
+    /**
+     * Fills every row in the output matrix with a draw.
+     *
+     * @param output Storage for the draws. Must have 'dimension' columns. Modified.
+     */
+    public void next( DMatrixRMaj output ) {
+        if (output.numCols != dimension)
+            throw new MatrixDimensionException("Expected " + dimension + " columns, not " + output.numCols);
+
+        int numChunks = (output.numRows + chunkRows - 1)/chunkRows;
+        if (chunkRands.length < numChunks)
+            chunkRands = new SplittableRandom[numChunks];
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            chunkRands[chunk] = root.split();
+        }
+
+        processChunks(output, numChunks);
+
+        // don't hold on to references
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            chunkRands[chunk] = null;
+        }
+    }
+
+    /**
+     * Computes the draws in each chunk
+     */
+    protected void processChunks( DMatrixRMaj output, int numChunks ) {
+        if (z.length < chunkRows*dimension)
+            z = new double[chunkRows*dimension];
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            processChunk(output, chunk, z);
+        }
+    }
+
+    /**
+     * Fills in the rows in the output which belong to the chunk
+     *
+     * @param z Storage for standard normal values. At least chunkRows*dimension elements.
+     */
+    protected void processChunk( DMatrixRMaj output, int chunk, double[] z ) {
+        final int N = dimension;
+        final int row0 = chunk*chunkRows;
+        final int rows = Math.min(output.numRows, row0 + chunkRows) - row0;
+
+        RandomMatrices_DDRM.fillGaussian(z, 0, rows*N, chunkRands[chunk]);
+
+        final double[] l = L.data;
+        final double[] x = output.data;
+        final int offsetX = row0*N;
+
+        // x(i,j) = sum_{k <= j} z(i,k)*L(j,k) + mean(j)
+        for (int j0 = 0; j0 < N; j0 += BLOCK_ROWS_L) {
+            int j1 = Math.min(N, j0 + BLOCK_ROWS_L);
+            for (int i = 0; i < rows; i++) {
+                int indexZ = i*N;
+                int indexX = offsetX + i*N;
+                for (int j = j0; j < j1; j++) {
+                    int indexL = j*N;
+                    double sum = 0;
+                    for (int k = 0; k <= j; k++) {
+                        sum += z[indexZ + k]*l[indexL + k];
+                    }
+                    x[indexX + j] = sum + mean[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower triangular Cholesky factor of the covariance
+     */
+    public DMatrixRMaj getL() {
+        return L;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Changes the number of draws generated by each random number generator. Changing this changes the draws.
+     */
+    public void setChunkRows( int chunkRows ) {
+        if (chunkRows <= 0)
+            throw new IllegalArgumentException("Must be positive");
+        this.chunkRows = chunkRows;
+    }
+}
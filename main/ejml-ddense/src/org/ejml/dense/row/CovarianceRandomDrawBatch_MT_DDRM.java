@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Concurrent extension of {@link CovarianceRandomDrawBatch_DDRM}. Chunks are processed by different threads. Since
+ * every chunk has its own random number generator the draws are identical to the single threaded version and
+ * don't depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CovarianceRandomDrawBatch_MT_DDRM extends CovarianceRandomDrawBatch_DDRM {
+
+    // storage for standard normal values in each thread
+    GrowArray<DGrowArray> workArrays = new GrowArray<>(DGrowArray::new);
+
+    public CovarianceRandomDrawBatch_MT_DDRM( long seed, DMatrixRMaj cov ) {
+        super(seed, cov);
+    }
+
+    public CovarianceRandomDrawBatch_MT_DDRM( long seed, @Nullable DMatrixRMaj mean, DMatrixRMaj cov ) {
+        super(seed, mean, cov);
+    }
+
+    @Override
+    protected void processChunks( DMatrixRMaj output, int numChunks ) {
+        EjmlConcurrency.loopBlocks(0, numChunks, workArrays, ( work, chunk0, chunk1 ) -> {
+            work.reshape(chunkRows*dimension);
+            for (int chunk = chunk0; chunk < chunk1; chunk++) {
+                processChunk(output, chunk, work.data);
+            }
+        });
+    }
+}
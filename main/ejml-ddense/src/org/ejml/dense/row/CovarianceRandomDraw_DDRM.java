@@ -25,7 +25,7 @@ import java.util.Random;
 
 /**
  * Generates random vectors based on a zero mean multivariate Gaussian distribution.  The covariance
- * matrix is provided in the constructor.
+ * matrix is provided in the constructor. To generate many vectors at once see {@link CovarianceRandomDrawBatch_DDRM}.
  */
 public class CovarianceRandomDraw_DDRM {
     private DMatrixRMaj A;
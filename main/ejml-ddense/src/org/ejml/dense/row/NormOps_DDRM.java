@@ -18,11 +18,17 @@
 
 package org.ejml.dense.row;
 
+import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrix1Row;
 import org.ejml.data.DMatrixD1;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionBase_DDRM;
 import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.dense.row.misc.ConditionEstimator_DDRM;
+import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
+import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 
 /**
@@ -154,6 +160,63 @@ public class NormOps_DDRM {
         return largest/smallest;
     }
 
+    /**
+     * <p>
+     * Estimates the condition number in the 1-norm, &kappa;<sub>1</sub> = ||A||<sub>1</sub>||A<sup>-1</sup>||<sub>1</sub>.
+     * An LU decomposition is computed and the norm of the inverse is estimated from it, see
+     * {@link ConditionEstimator_DDRM}. Much faster than {@link #conditionP} since neither the inverse nor
+     * SVD is computed. The estimate is almost always within a factor of 3 of the true value.
+     * </p>
+     *
+     * @param A Square matrix. Not modified.
+     * @return Estimate of the condition number. Infinity if A is singular.
+     */
+    public static double estimateConditionP1( DMatrixRMaj A ) {
+        if (A.numRows != A.numCols)
+            throw new MatrixDimensionException("A must be square");
+
+        LUDecompositionBase_DDRM lu = new LUDecompositionAlt_DDRM();
+        if (!lu.decompose(A))
+            throw new RuntimeException("Decomposition failed");
+
+        return estimateConditionP1(lu, inducedP1(A));
+    }
+
+    /**
+     * Estimates the 1-norm condition number of A from its LU decomposition in O(n<sup>2</sup>) operations.
+     *
+     * @param lu LU decomposition of A. Not modified.
+     * @param normA ||A||<sub>1</sub>, see {@link #inducedP1}. Must be computed before A is modified.
+     * @return Estimate of the condition number. Infinity if A is singular.
+     */
+    public static double estimateConditionP1( LUDecompositionBase_DDRM lu, double normA ) {
+        return 1.0/new ConditionEstimator_DDRM().rcondLU(lu.getLU(), lu.getPivot(), normA);
+    }
+
+    /**
+     * Estimates the 1-norm condition number of A from its Cholesky decomposition in O(n<sup>2</sup>) operations.
+     *
+     * @param chol Cholesky decomposition of A. Not modified.
+     * @param normA ||A||<sub>1</sub>, see {@link #inducedP1}. Must be computed before A is modified.
+     * @return Estimate of the condition number. Infinity if A is singular.
+     */
+    public static double estimateConditionP1( CholeskyDecomposition_F64<DMatrixRMaj> chol, double normA ) {
+        return 1.0/new ConditionEstimator_DDRM().rcondCholesky(chol.getT(null), chol.isLower(), normA);
+    }
+
+    /**
+     * Estimates the 1-norm condition number of R in a QR decomposition in O(n<sup>2</sup>) operations.
+     * R has the same 2-norm condition number as A, which makes this a reasonable approximation of the
+     * conditioning of A that doesn't require ||A||<sub>1</sub>.
+     *
+     * @param qr QR decomposition of A. Not modified.
+     * @return Estimate of the condition number. Infinity if R is singular.
+     */
+    public static double estimateConditionP1( QRDecomposition<DMatrixRMaj> qr ) {
+        DMatrixRMaj R = qr.getR(null, true);
+        return 1.0/new ConditionEstimator_DDRM().rcondTriangular(R, Math.min(R.numRows, R.numCols), true, false);
+    }
+
     /**
      * <p>
      * This implementation of the Frobenius norm is a straight forward implementation and can
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixD1;
+import org.ejml.dense.row.misc.PairwiseSum_DDRM;
+
+import static org.ejml.dense.row.CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK;
+
+/**
+ * Functions from {@link NormOps_DDRM} with concurrent implementations. Sums are computed using pairwise
+ * summation, so results can differ slightly from the single threaded versions, but will be more accurate.
+ *
+ * @author Peter Abeles
+ */
+public class NormOps_MT_DDRM {
+    /**
+     * <p>
+     * Computes the Frobenius matrix norm:<br>
+     * <br>
+     * normF = Sqrt{  &sum;<sub>i=1:m</sub> &sum;<sub>j=1:n</sub> { a<sub>ij</sub><sup>2</sup>}   }
+     * </p>
+     * <p>
+     * Elements are scaled by the largest absolute value to avoid underflow/overflow.
+     * </p>
+     *
+     * @param a The matrix whose norm is computed.  Not modified.
+     * @return The norm's value.
+     * @see NormOps_DDRM#normF(DMatrixD1)
+     */
+    public static double normF( DMatrixD1 a ) {
+        double scale = CommonOps_MT_DDRM.elementMaxAbs(a);
+
+        if (scale == 0.0)
+            return 0.0;
+
+        return scale*Math.sqrt(sumSq(a, 1.0/scale));
+    }
+
+    /**
+     * <p>
+     * Computes the Frobenius matrix norm without scaling. Faster than {@link #normF} but more prone to
+     * underflow/overflow errors.
+     * </p>
+     *
+     * @param a The matrix whose norm is computed.  Not modified.
+     * @return The norm's value.
+     * @see NormOps_DDRM#fastNormF(DMatrixD1)
+     */
+    public static double fastNormF( DMatrixD1 a ) {
+        return Math.sqrt(sumSq(a, 1.0));
+    }
+
+    private static double sumSq( DMatrixD1 a, double scale ) {
+        final double[] data = a.data;
+        return EjmlConcurrency.reduceDouble(0, a.getNumElements(), MATRIX_REDUCE_MIN_BLOCK, 0.0,
+                ( idx0, idx1 ) -> PairwiseSum_DDRM.sumSq(data, idx0, idx1, scale), Double::sum);
+    }
+}
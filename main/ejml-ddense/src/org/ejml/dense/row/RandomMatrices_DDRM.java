@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.BMatrixRMaj;
 import org.ejml.data.DMatrixD1;
 import org.ejml.data.DMatrixRMaj;
@@ -25,6 +26,7 @@ import org.ejml.dense.row.mult.SubmatrixOps_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Contains a list of functions for creating random row real matrices and vectors with different structures.
@@ -415,6 +417,31 @@ public class RandomMatrices_DDRM {
         }
     }
 
+    /**
+     * Fills the elements from idx0 to idx1-1 in the array with values from a standard normal distribution.
+     * {@link SplittableRandom} has no nextGaussian() so the Marsaglia polar method is used.
+     *
+     * @param data Array which is to be filled. Modified.
+     * @param idx0 First element, inclusive.
+     * @param idx1 Last element, exclusive.
+     * @param rand Random number generator.
+     */
+    public static void fillGaussian( double[] data, int idx0, int idx1, SplittableRandom rand ) {
+        int i = idx0;
+        while (i < idx1) {
+            double u, v, s;
+            do {
+                u = 2.0*(double)UtilEjml.uniform(rand) - 1.0;
+                v = 2.0*(double)UtilEjml.uniform(rand) - 1.0;
+                s = u*u + v*v;
+            } while (s >= 1.0 || s == 0.0);
+            double m = (double)Math.sqrt(-2.0*Math.log(s)/s);
+            data[i++] = u*m;
+            if (i < idx1)
+                data[i++] = v*m;
+        }
+    }
+
     /**
      * Creates a random symmetric positive definite matrix.
      *
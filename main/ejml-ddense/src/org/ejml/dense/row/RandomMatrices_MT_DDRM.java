@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixD1;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.factory.DecompositionFactory_MT_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * Concurrent versions of functions in {@link RandomMatrices_DDRM}. Instead of a {@link java.util.Random} these
+ * functions take a seed. The elements are divided into fixed size blocks and each block is filled by its own
+ * {@link SplittableRandom}, which is split off from a generator created from the seed, in order, before any
+ * values are computed. As a result the output only depends on the seed and never on the number of threads.
+ * The values are not the same as what the single threaded functions produce.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RandomMatrices_MT_DDRM {
+    /** Number of elements filled by each random number generator. Changing this changes the generated values. */
+    public static int BLOCK_LENGTH = 1 << 14;
+
+    /**
+     * Returns a matrix where all the elements are selected independently from a uniform distribution
+     * between 0 and 1.
+     *
+     * @param numRow Number of rows in the new matrix.
+     * @param numCol Number of columns in the new matrix.
+     * @param seed Seed for the random number generator.
+     * @return The randomly generated matrix.
+     * @see RandomMatrices_DDRM#rectangle(int, int, java.util.Random)
+     */
+    public static DMatrixRMaj rectangle( int numRow, int numCol, long seed ) {
+        return rectangle(numRow, numCol, 0, 1, seed);
+    }
+
+    /**
+     * Returns a matrix where all the elements are selected independently from a uniform distribution
+     * between 'min' and 'max'.
+     *
+     * @param numRow Number of rows in the new matrix.
+     * @param numCol Number of columns in the new matrix.
+     * @param min The minimum value each element can be.
+     * @param max The maximum value each element can be.
+     * @param seed Seed for the random number generator.
+     * @return The randomly generated matrix.
+     * @see RandomMatrices_DDRM#rectangle(int, int, double, double, java.util.Random)
+     */
+    public static DMatrixRMaj rectangle( int numRow, int numCol, double min, double max, long seed ) {
+        DMatrixRMaj mat = new DMatrixRMaj(numRow, numCol);
+
+        fillUniform(mat, min, max, seed);
+
+        return mat;
+    }
+
+    /**
+     * Sets each element in the matrix to a value drawn from an uniform distribution from 'min' to 'max'.
+     *
+     * @param mat The matrix who is to be randomized. Modified.
+     * @param min The minimum value each element can be.
+     * @param max The maximum value each element can be.
+     * @param seed Seed for the random number generator.
+     * @see RandomMatrices_DDRM#fillUniform(DMatrixD1, double, double, java.util.Random)
+     */
+    public static void fillUniform( DMatrixD1 mat, double min, double max, long seed ) {
+        final double[] d = mat.getData();
+        final int size = mat.getNumElements();
+        final double r = max - min;
+        final SplittableRandom[] rands = createGenerators(seed, numBlocks(size));
+
+        EjmlConcurrency.loopFor(0, rands.length, block -> {
+            SplittableRandom rand = rands[block];
+            int idx0 = block*BLOCK_LENGTH;
+            int idx1 = Math.min(size, idx0 + BLOCK_LENGTH);
+            for (int i = idx0; i < idx1; i++) {
+                d[i] = r*(double)UtilEjml.uniform(rand) + min;
+            }
+        });
+    }
+
+    /**
+     * Returns a matrix where each element is drawn from a Gaussian distribution with the specified mean and
+     * standard deviation.
+     *
+     * @param numRow Number of rows in the new matrix.
+     * @param numCol Number of columns in the new matrix.
+     * @param mean Mean value in the distribution
+     * @param stdev Standard deviation in the distribution
+     * @param seed Seed for the random number generator.
+     * @return The randomly generated matrix.
+     * @see RandomMatrices_DDRM#rectangleGaussian(int, int, double, double, java.util.Random)
+     */
+    public static DMatrixRMaj rectangleGaussian( int numRow, int numCol, double mean, double stdev, long seed ) {
+        DMatrixRMaj m = new DMatrixRMaj(numRow, numCol);
+        fillGaussian(m, mean, stdev, seed);
+        return m;
+    }
+
+    /**
+     * Sets each element in the matrix to a value drawn from a Gaussian distribution with the specified mean and
+     * standard deviation.
+     *
+     * @param mat The matrix who is to be randomized. Modified.
+     * @param mean Mean value in the distribution
+     * @param stdev Standard deviation in the distribution
+     * @param seed Seed for the random number generator.
+     * @see RandomMatrices_DDRM#fillGaussian(DMatrixD1, double, double, java.util.Random)
+     */
+    public static void fillGaussian( DMatrixD1 mat, double mean, double stdev, long seed ) {
+        final double[] d = mat.getData();
+        final int size = mat.getNumElements();
+        final SplittableRandom[] rands = createGenerators(seed, numBlocks(size));
+
+        EjmlConcurrency.loopFor(0, rands.length, block -> {
+            int idx0 = block*BLOCK_LENGTH;
+            int idx1 = Math.min(size, idx0 + BLOCK_LENGTH);
+            RandomMatrices_DDRM.fillGaussian(d, idx0, idx1, rands[block]);
+            for (int i = idx0; i < idx1; i++) {
+                d[i] = mean + stdev*d[i];
+            }
+        });
+    }
+
+    /**
+     * Creates a random symmetric positive definite matrix. Has the same structure as
+     * {@link RandomMatrices_DDRM#symmetricPosDef(int, java.util.Random)}, A = a*a<sup>T</sup> + I, where 'a'
+     * is a random vector.
+     *
+     * @param width The width of the square matrix it returns.
+     * @param seed Seed for the random number generator.
+     * @return The random symmetric positive definite matrix.
+     */
+    public static DMatrixRMaj symmetricPosDef( int width, long seed ) {
+        final double[] a = new double[width];
+        SplittableRandom rand = new SplittableRandom(seed);
+        for (int i = 0; i < width; i++) {
+            a[i] = (double)UtilEjml.uniform(rand);
+        }
+
+        final DMatrixRMaj b = new DMatrixRMaj(width, width);
+        final double[] d = b.data;
+        EjmlConcurrency.loopFor(0, width, i -> {
+            final double ai = a[i];
+            final int index = i*width;
+            for (int j = 0; j < width; j++) {
+                d[index + j] = ai*a[j];
+            }
+            d[index + i] += 1;
+        });
+
+        return b;
+    }
+
+    /**
+     * <p>
+     * Creates a random matrix with orthonormal columns. A matrix filled with Gaussian values is decomposed with a
+     * concurrent QR decomposition and the signs of the columns in Q are flipped so that the diagonal elements in R
+     * are positive. This samples from the Haar distribution and requires O(m*n<sup>2</sup>) operations, instead of
+     * the O(m<sup>3</sup>) used by {@link RandomMatrices_DDRM#orthogonal(int, int, java.util.Random)}.
+     * </p>
+     *
+     * @param numRows Number of rows in the generated matrix.
+     * @param numCols Number of columns in the generated matrix.
+     * @param seed Seed for the random number generator.
+     * @return A new isometric matrix.
+     */
+    public static DMatrixRMaj orthogonal( int numRows, int numCols, long seed ) {
+        if (numRows < numCols) {
+            throw new IllegalArgumentException("The number of rows must be more than or equal to the number of columns");
+        }
+
+        DMatrixRMaj A = rectangleGaussian(numRows, numCols, 0, 1, seed);
+
+        QRDecomposition<DMatrixRMaj> qr = DecompositionFactory_MT_DDRM.qr(numRows, numCols);
+        if (!qr.decompose(A))
+            throw new RuntimeException("QR decomposition failed");
+
+        DMatrixRMaj Q = qr.getQ(null, true);
+        DMatrixRMaj R = qr.getR(null, true);
+
+        final boolean[] flip = new boolean[numCols];
+        for (int col = 0; col < numCols; col++) {
+            flip[col] = R.unsafe_get(col, col) < 0;
+        }
+
+        final double[] q = Q.data;
+        EjmlConcurrency.loopFor(0, numRows, row -> {
+            int index = row*numCols;
+            for (int col = 0; col < numCols; col++) {
+                if (flip[col])
+                    q[index + col] = -q[index + col];
+            }
+        });
+
+        return Q;
+    }
+
+    static int numBlocks( int size ) {
+        return (size + BLOCK_LENGTH - 1)/BLOCK_LENGTH;
+    }
+
+    /**
+     * Splits off one generator for each block from a root generator. Done sequentially so that the block
+     * generators only depend on the seed.
+     */
+    static SplittableRandom[] createGenerators( long seed, int count ) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] rands = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            rands[i] = root.split();
+        }
+        return rands;
+    }
+}
@@ -21,6 +21,7 @@ package org.ejml.dense.row;
 import org.ejml.UtilEjml;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderBlock_DDRM;
 import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
 import org.ejml.dense.row.linsol.qr.SolveNullSpaceQRP_DDRM;
 import org.ejml.dense.row.linsol.qr.SolveNullSpaceQR_DDRM;
@@ -98,6 +99,7 @@ public class SingularOps_DDRM {
      * @param A Matrix. Not modified.
      * @param threshold Tolerance used to determine of a singular value is singular.
      * @return The rank of the decomposed matrix.
+     * @see #rankQRP(DMatrixRMaj, double)
      */
     public static int rank( DMatrixRMaj A, double threshold ) {
         SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(A.numRows, A.numCols, false, true, true);
@@ -149,6 +151,63 @@ public class SingularOps_DDRM {
         return count;
     }
 
+    /**
+     * Returns the matrix's rank using a rank revealing QR decomposition with column pivoting instead of SVD.
+     * The magnitude of the diagonal elements in R is used in place of the singular values. This is much faster
+     * than SVD, especially for tall matrices, but can underestimate how close to singular the matrix is in
+     * contrived cases.
+     *
+     * @param A Matrix. Not modified.
+     * @param threshold Tolerance used to determine if a diagonal element in R is singular.
+     * @return The rank of the decomposed matrix.
+     */
+    public static int rankQRP( DMatrixRMaj A, double threshold ) {
+        return rankQRP(decomposeQRP(A), threshold);
+    }
+
+    /**
+     * Returns the matrix's rank using a rank revealing QR decomposition with column pivoting. Automatic
+     * selection of threshold.
+     *
+     * @param A Matrix. Not modified.
+     * @return The rank of the decomposed matrix.
+     * @see #rankQRP(DMatrixRMaj, double)
+     */
+    public static int rankQRP( DMatrixRMaj A ) {
+        QRColPivDecompositionHouseholderBlock_DDRM qrp = decomposeQRP(A);
+
+        // the first diagonal element has the largest magnitude
+        double largest = qrp.getRank() > 0 ? Math.abs(qrp.getQR()[0][0]) : 0;
+        double threshold = Math.min(A.numRows, A.numCols)*largest*UtilEjml.EPS;
+
+        return rankQRP(qrp, threshold);
+    }
+
+    private static QRColPivDecompositionHouseholderBlock_DDRM decomposeQRP( DMatrixRMaj A ) {
+        // Only stop early on columns which are exactly zero. The threshold is applied afterwards
+        QRColPivDecompositionHouseholderBlock_DDRM qrp = new QRColPivDecompositionHouseholderBlock_DDRM();
+        qrp.setSingularThreshold(0.0);
+
+        if (qrp.inputModified()) {
+            A = A.copy();
+        }
+        if (!qrp.decompose(A)) {
+            throw new RuntimeException("QRP Failed!");
+        }
+        return qrp;
+    }
+
+    private static int rankQRP( QRColPivDecompositionHouseholderBlock_DDRM qrp, double threshold ) {
+        double[][] QR = qrp.getQR();
+        int count = 0;
+        for (int i = 0; i < qrp.getRank(); i++) {
+            if (Math.abs(QR[i][i]) >= threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Computes the SVD and sorts singular values in descending order. While easier to use this can reduce performance
      * when performed on small matrices numerous times.
@@ -657,6 +716,7 @@ public class SingularOps_DDRM {
      * @param A Matrix. Not modified.
      * @param threshold Tolerance used to determine of a singular value is singular.
      * @return nullity
+     * @see #nullityQRP(DMatrixRMaj, double)
      */
     public static int nullity( DMatrixRMaj A, double threshold ) {
         SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(A.numRows, A.numCols, false, true, true);
@@ -678,4 +738,17 @@ public class SingularOps_DDRM {
         }
         return count;
     }
+
+    /**
+     * Returns the nullity of the matrix, i.e. the number of columns minus the rank, using a rank revealing
+     * QR decomposition with column pivoting instead of SVD.
+     *
+     * @param A Matrix. Not modified.
+     * @param threshold Tolerance used to determine if a diagonal element in R is singular.
+     * @return nullity
+     * @see #rankQRP(DMatrixRMaj, double)
+     */
+    public static int nullityQRP( DMatrixRMaj A, double threshold ) {
+        return A.numCols - rankQRP(A, threshold);
+    }
 }
@@ -21,6 +21,8 @@ package org.ejml.dense.row.decomposition.chol;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.decomposition.UtilDecompositons_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 import org.jetbrains.annotations.Nullable;
 
@@ -56,6 +58,9 @@ public abstract class CholeskyDecompositionCommon_DDRM
     // storage for computed determinant
     protected Complex_F64 det = new Complex_F64();
 
+    // used to modify the decomposition after it has been computed
+    protected CholeskyUpdate_DDRM updater = new CholeskyUpdate_DDRM();
+
     /**
      * Specifies if a lower or upper variant should be constructed.
      *
@@ -102,6 +107,7 @@ public abstract class CholeskyDecompositionCommon_DDRM
      */
     @Override
     public boolean decompose( DMatrixRMaj mat ) {
+        long startNanos = EjmlInstrumentation.start();
         if (mat.numRows > maxWidth) {
             setExpectedMaxSize(mat.numRows, mat.numCols);
         } else if (mat.numRows != mat.numCols) {
@@ -113,11 +119,9 @@ public abstract class CholeskyDecompositionCommon_DDRM
         T = mat;
         t = T.data;
 
-        if (lower) {
-            return decomposeLower();
-        } else {
-            return decomposeUpper();
-        }
+        boolean success = lower ? decomposeLower() : decomposeUpper();
+        EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.CHOLESKY, n, n, this);
+        return success;
     }
 
     @Override
@@ -162,6 +166,31 @@ public abstract class CholeskyDecompositionCommon_DDRM
         return T;
     }
 
+    /**
+     * Modifies the decomposition so that it's the decomposition of A + X*X<sup>T</sup>, where A is
+     * the matrix which was decomposed. Requires O(k*n<sup>2</sup>) flops instead of the O(n<sup>3</sup>) needed to
+     * decompose the modified matrix.
+     *
+     * @param X An n by k matrix. A column vector for a rank-1 update. Not modified.
+     * @see CholeskyUpdate_DDRM
+     */
+    public void update( DMatrixRMaj X ) {
+        updater.update(T, lower, X);
+    }
+
+    /**
+     * Modifies the decomposition so that it's the decomposition of A - X*X<sup>T</sup>, where A is
+     * the matrix which was decomposed. Requires O(k*n<sup>2</sup>) flops.
+     *
+     * @param X An n by k matrix. A column vector for a rank-1 downdate. Not modified.
+     * @return true if successful. If A - X*X<sup>T</sup> isn't positive definite then false is returned
+     * and the decomposition is not modified.
+     * @see CholeskyUpdate_DDRM
+     */
+    public boolean downdate( DMatrixRMaj X ) {
+        return updater.downdate(T, lower, X);
+    }
+
     /**
      * Returns the triangular matrix from the decomposition.
      *
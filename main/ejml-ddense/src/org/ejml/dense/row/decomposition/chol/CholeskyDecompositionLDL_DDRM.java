@@ -59,6 +59,9 @@ public class CholeskyDecompositionLDL_DDRM
     // tempoary variable used by various functions
     double[] vv;
 
+    // used to modify the decomposition after it has been computed
+    CholeskyUpdate_DDRM updater = new CholeskyUpdate_DDRM();
+
     public void setExpectedMaxSize( int numRows, int numCols ) {
         if (numRows != numCols) {
             throw new IllegalArgumentException("Can only decompose square matrices");
@@ -135,6 +138,30 @@ public class CholeskyDecompositionLDL_DDRM
         return false;
     }
 
+    /**
+     * Modifies the decomposition so that it's the decomposition of A + X*X<sup>T</sup>, where A is
+     * the matrix which was decomposed. Requires O(k*n<sup>2</sup>) flops and no square roots.
+     *
+     * @param X An n by k matrix. A column vector for a rank-1 update. Not modified.
+     * @see CholeskyUpdate_DDRM
+     */
+    public void update( DMatrixRMaj X ) {
+        updater.updateLDL(L, d, X);
+    }
+
+    /**
+     * Modifies the decomposition so that it's the decomposition of A - X*X<sup>T</sup>, where A is
+     * the matrix which was decomposed. Requires O(k*n<sup>2</sup>) flops.
+     *
+     * @param X An n by k matrix. A column vector for a rank-1 downdate. Not modified.
+     * @return true if successful. If A - X*X<sup>T</sup> isn't positive definite then false is returned
+     * and the decomposition is not modified.
+     * @see CholeskyUpdate_DDRM
+     */
+    public boolean downdate( DMatrixRMaj X ) {
+        return updater.downdateLDL(L, d, X);
+    }
+
     /**
      * Diagonal elements of the diagonal D matrix.
      *
@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.chol;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * <p>
+ * Modifies an existing Cholesky or LDL decomposition so that it's the decomposition of A &plusmn; X*X<sup>T</sup>,
+ * where X is an n &times; k matrix. Each column in X requires O(n<sup>2</sup>) flops, while recomputing the
+ * decomposition requires O(n<sup>3</sup>). Updates are always possible. A downdate fails if A - X*X<sup>T</sup>
+ * is not positive definite. This is detected before the decomposition has been modified.
+ * </p>
+ *
+ * <p>
+ * Updates apply a sequence of Givens rotations. Downdates use the LINPACK algorithm, which first solves
+ * L*p = x and then applies rotations determined from p. The LDL update is method C1 from [1]. The LDL downdate is
+ * done by scaling the columns of L by the square root of D, downdating the Cholesky factor, and scaling it back.
+ * All the loops traverse lower triangular matrices by row, which avoids cache misses.
+ * </p>
+ *
+ * <p>
+ * [1] Gill, Golub, Murray, and Saunders, "Methods for Modifying Matrix Factorizations," Mathematics of
+ * Computation, 1974<br>
+ * [2] Dongarra et al., "LINPACK Users' Guide," SIAM, 1979. Chapter 10
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyUpdate_DDRM {
+    // the rotations
+    private double[] c = new double[0];
+    private double[] s = new double[0];
+
+    // copy of a column in X
+    private double[] x = new double[0];
+
+    // the original decomposition, which is restored if a rank-k downdate fails
+    private DMatrixRMaj backup = new DMatrixRMaj(1, 1);
+    private double[] backupD = new double[0];
+
+    /**
+     * Updates the Cholesky decomposition so that it's the decomposition of A + X*X<sup>T</sup>
+     *
+     * @param T Lower or upper triangular matrix from the decomposition of A. Modified.
+     * @param lower true if T is lower triangular and A = T*T<sup>T</sup>. Upper if A = T<sup>T</sup>*T.
+     * @param X n by k matrix. Not modified.
+     */
+    public void update( DMatrixRMaj T, boolean lower, DMatrixRMaj X ) {
+        checkShape(T, X);
+        declare(T.numCols);
+
+        for (int col = 0; col < X.numCols; col++) {
+            copyColumn(X, col);
+            update(T, lower, x);
+        }
+    }
+
+    /**
+     * Downdates the Cholesky decomposition so that it's the decomposition of A - X*X<sup>T</sup>. If the
+     * downdate fails then T is not modified.
+     *
+     * @param T Lower or upper triangular matrix from the decomposition of A. Modified.
+     * @param lower true if T is lower triangular and A = T*T<sup>T</sup>. Upper if A = T<sup>T</sup>*T.
+     * @param X n by k matrix. Not modified.
+     * @return true if successful or false if A - X*X<sup>T</sup> is not positive definite
+     */
+    public boolean downdate( DMatrixRMaj T, boolean lower, DMatrixRMaj X ) {
+        checkShape(T, X);
+        declare(T.numCols);
+
+        if (X.numCols > 1)
+            backup.setTo(T);
+
+        for (int col = 0; col < X.numCols; col++) {
+            copyColumn(X, col);
+            if (!downdate(T, lower, x)) {
+                if (col > 0)
+                    T.setTo(backup);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates the LDL decomposition so that it's the decomposition of A + X*X<sup>T</sup>
+     *
+     * @param L Unit lower triangular matrix from the decomposition of A. Modified.
+     * @param d Diagonal elements in D. Modified.
+     * @param X n by k matrix. Not modified.
+     */
+    public void updateLDL( DMatrixRMaj L, double[] d, DMatrixRMaj X ) {
+        checkShape(L, X);
+        declare(L.numCols);
+
+        for (int col = 0; col < X.numCols; col++) {
+            copyColumn(X, col);
+            updateLDL(L, d, x);
+        }
+    }
+
+    /**
+     * Downdates the LDL decomposition so that it's the decomposition of A - X*X<sup>T</sup>. If the
+     * downdate fails then L and d are not modified.
+     *
+     * @param L Unit lower triangular matrix from the decomposition of A. Modified.
+     * @param d Diagonal elements in D. Modified.
+     * @param X n by k matrix. Not modified.
+     * @return true if successful or false if A - X*X<sup>T</sup> is not positive definite
+     */
+    public boolean downdateLDL( DMatrixRMaj L, double[] d, DMatrixRMaj X ) {
+        checkShape(L, X);
+        final int n = L.numCols;
+        declare(n);
+
+        if (X.numCols > 1) {
+            backup.setTo(L);
+            System.arraycopy(d, 0, backupD, 0, n);
+        }
+
+        for (int col = 0; col < X.numCols; col++) {
+            copyColumn(X, col);
+            if (!downdateLDL(L, d, x)) {
+                if (col > 0) {
+                    L.setTo(backup);
+                    System.arraycopy(backupD, 0, d, 0, n);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rank-1 update of a Cholesky decomposition.
+     *
+     * @param T Lower or upper triangular matrix from the decomposition of A. Modified.
+     * @param lower true if T is lower triangular and A = T*T<sup>T</sup>. Upper if A = T<sup>T</sup>*T.
+     * @param x Vector of length n. Modified.
+     */
+    public void update( DMatrixRMaj T, boolean lower, double[] x ) {
+        final int n = T.numCols;
+        declare(n);
+
+        final double[] t = T.data;
+        // element (i,k) in the lower triangular matrix is at i*strideRow + k*strideCol
+        final int strideRow = lower ? n : 1;
+        final int strideCol = lower ? 1 : n;
+
+        for (int i = 0; i < n; i++) {
+            double xi = x[i];
+            int index = i*strideRow;
+            // apply the rotations from the previous columns to this row
+            for (int k = 0; k < i; k++, index += strideCol) {
+                double l_ik = (t[index] + s[k]*xi)/c[k];
+                xi = c[k]*xi - s[k]*l_ik;
+                t[index] = l_ik;
+            }
+
+            // rotation which zeros x[i]
+            double l_ii = t[index];
+            double r = Math.sqrt(l_ii*l_ii + xi*xi);
+            c[i] = r/l_ii;
+            s[i] = xi/l_ii;
+            t[index] = r;
+        }
+    }
+
+    /**
+     * Rank-1 downdate of a Cholesky decomposition. If the downdate fails then T is not modified.
+     *
+     * @param T Lower or upper triangular matrix from the decomposition of A. Modified.
+     * @param lower true if T is lower triangular and A = T*T<sup>T</sup>. Upper if A = T<sup>T</sup>*T.
+     * @param x Vector of length n. Modified.
+     * @return true if successful or false if A - x*x<sup>T</sup> is not positive definite
+     */
+    public boolean downdate( DMatrixRMaj T, boolean lower, double[] x ) {
+        final int n = T.numCols;
+        declare(n);
+
+        final double[] t = T.data;
+        final int strideRow = lower ? n : 1;
+        final int strideCol = lower ? 1 : n;
+
+        // solve L*p = x and store p in x
+        double norm2 = 0;
+        for (int i = 0; i < n; i++) {
+            double sum = x[i];
+            int index = i*strideRow;
+            for (int k = 0; k < i; k++, index += strideCol) {
+                sum -= t[index]*x[k];
+            }
+            x[i] = sum/t[index];
+            norm2 += x[i]*x[i];
+        }
+
+        // A - x*x' = L*(I - p*p')*L' is only positive definite if |p| < 1. Negated to catch NaN
+        if (!(norm2 < 1.0))
+            return false;
+
+        computeDowndateRotations(x, n, Math.sqrt(1.0 - norm2));
+        applyDowndateRotations(t, n, strideRow, strideCol);
+        return true;
+    }
+
+    /**
+     * Rank-1 update of an LDL decomposition.
+     *
+     * @param L Unit lower triangular matrix from the decomposition of A. Modified.
+     * @param d Diagonal elements in D. Modified.
+     * @param x Vector of length n. Modified.
+     */
+    public void updateLDL( DMatrixRMaj L, double[] d, double[] x ) {
+        final int n = L.numCols;
+        declare(n);
+
+        final double[] l = L.data;
+
+        // After processing row r, x[r] contains the value it had when column r was processed in [1]
+        // and s[r] contains beta
+        double alpha = 1.0;
+        for (int r = 0; r < n; r++) {
+            double xr = x[r];
+            int index = r*n;
+            for (int j = 0; j < r; j++, index++) {
+                xr -= x[j]*l[index];
+                l[index] += s[j]*xr;
+            }
+            x[r] = xr;
+
+            double d_r = d[r] + alpha*xr*xr;
+            s[r] = xr*alpha/d_r;
+            alpha *= d[r]/d_r;
+            d[r] = d_r;
+        }
+    }
+
+    /**
+     * Rank-1 downdate of an LDL decomposition. If the downdate fails then L and d are not modified.
+     *
+     * @param L Unit lower triangular matrix from the decomposition of A. Modified.
+     * @param d Diagonal elements in D. Modified.
+     * @param x Vector of length n. Modified.
+     * @return true if successful or false if A - x*x<sup>T</sup> is not positive definite
+     */
+    public boolean downdateLDL( DMatrixRMaj L, double[] d, double[] x ) {
+        final int n = L.numCols;
+        declare(n);
+
+        final double[] l = L.data;
+
+        // solve L*p = x. Then p/sqrt(d) is the solution for the Cholesky factor L*sqrt(D)
+        double norm2 = 0;
+        for (int i = 0; i < n; i++) {
+            double sum = x[i];
+            int index = i*n;
+            for (int k = 0; k < i; k++, index++) {
+                sum -= l[index]*x[k];
+            }
+            x[i] = sum;
+            norm2 += sum*sum/d[i];
+        }
+
+        if (!(norm2 < 1.0))
+            return false;
+
+        // convert into a Cholesky decomposition
+        for (int i = 0; i < n; i++) {
+            d[i] = Math.sqrt(d[i]);
+            x[i] /= d[i];
+        }
+        for (int i = 0; i < n; i++) {
+            int index = i*n;
+            for (int j = 0; j < i; j++) {
+                l[index + j] *= d[j];
+            }
+            l[index + i] = d[i];
+        }
+
+        computeDowndateRotations(x, n, Math.sqrt(1.0 - norm2));
+        applyDowndateRotations(l, n, n, 1);
+
+        // convert it back into an LDL decomposition
+        for (int i = 0; i < n; i++) {
+            double l_ii = l[i*n + i];
+            d[i] = l_ii*l_ii;
+            // save the diagonal element, it's needed to scale the columns
+            c[i] = l_ii;
+            l[i*n + i] = 1.0;
+        }
+        for (int i = 0; i < n; i++) {
+            int index = i*n;
+            for (int j = 0; j < i; j++) {
+                l[index + j] /= c[j];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the rotations which reduce [p; alpha] to a multiple of the last unit vector
+     */
+    private void computeDowndateRotations( double[] p, int n, double alpha ) {
+        for (int i = n - 1; i >= 0; i--) {
+            double scale = alpha + Math.abs(p[i]);
+            double a = alpha/scale;
+            double b = p[i]/scale;
+            double norm = Math.sqrt(a*a + b*b);
+            c[i] = a/norm;
+            s[i] = b/norm;
+            alpha = scale*norm;
+        }
+    }
+
+    /**
+     * Applies the downdate rotations to the transpose of the lower triangular matrix, one of its rows at a time
+     */
+    private void applyDowndateRotations( double[] t, int n, int strideRow, int strideCol ) {
+        for (int j = 0; j < n; j++) {
+            double xx = 0;
+            int index = j*strideRow + j*strideCol;
+            for (int i = j; i >= 0; i--, index -= strideCol) {
+                double t_ji = t[index];
+                double tmp = c[i]*xx + s[i]*t_ji;
+                t[index] = c[i]*t_ji - s[i]*xx;
+                xx = tmp;
+            }
+        }
+    }
+
+    private void copyColumn( DMatrixRMaj X, int col ) {
+        for (int i = 0; i < X.numRows; i++) {
+            x[i] = X.data[i*X.numCols + col];
+        }
+    }
+
+    private static void checkShape( DMatrixRMaj T, DMatrixRMaj X ) {
+        if (T.numRows != T.numCols)
+            throw new MatrixDimensionException("The decomposed matrix must be square");
+        if (X.numRows != T.numRows)
+            throw new MatrixDimensionException("X must have the same number of rows as the decomposed matrix. " +
+                    X.numRows + " != " + T.numRows);
+    }
+
+    /**
+     * Ensures the work space can handle a matrix with n rows and columns
+     */
+    public void declare( int n ) {
+        if (c.length >= n)
+            return;
+        c = new double[n];
+        s = new double[n];
+        x = new double[n];
+        backupD = new double[n];
+    }
+}
@@ -23,6 +23,8 @@ import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 
 /**
@@ -89,13 +91,17 @@ public class SwitchingEigenDecomposition_DDRM
 
     @Override
     public boolean decompose( DMatrixRMaj orig ) {
+        long startNanos = EjmlInstrumentation.start();
         A.setTo(orig);
 
         symmetric = MatrixFeatures_DDRM.isSymmetric(A, tol);
 
-        return symmetric ?
+        boolean success = symmetric ?
                 symmetricAlg.decompose(A) :
                 generalAlg.decompose(A);
+        EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.EIGEN, orig.numRows, orig.numCols,
+                symmetric ? symmetricAlg : generalAlg);
+        return success;
     }
 
     @Override
@@ -19,6 +19,8 @@
 package org.ejml.dense.row.decomposition.lu;
 
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 
 /**
  * <p>
@@ -40,6 +42,7 @@ public class LUDecompositionAlt_DDRM extends LUDecompositionBase_DDRM {
      */
     @Override
     public boolean decompose( DMatrixRMaj a ) {
+        long startNanos = EjmlInstrumentation.start();
         decomposeCommonInit(a);
 
         double[] LUcolj = vv;
@@ -109,6 +112,7 @@ public class LUDecompositionAlt_DDRM extends LUDecompositionBase_DDRM {
             }
         }
 
+        EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.LU, a.numRows, a.numCols, this);
         return true;
     }
 }
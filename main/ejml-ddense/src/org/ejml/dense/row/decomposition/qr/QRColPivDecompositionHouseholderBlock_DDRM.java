@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.qr;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+/**
+ * <p>
+ * Blocked QR decomposition with column pivoting. Produces the same decomposition as
+ * {@link QRColPivDecompositionHouseholderColumn_DDRM}, but the trailing sub-matrix is only updated once for every
+ * panel of columns instead of after every householder reflector. Inside a panel the updates are accumulated into
+ * F and only the pivot column and the pivot row are updated. This is the same approach as LAPACK's xGEQP3/xLAQPS
+ * and cuts the number of passes through the trailing sub-matrix in half, which is significant for tall matrices
+ * that do not fit inside the cache.
+ * </p>
+ *
+ * <p>
+ * Column norms are downdated and only recomputed when too much precision has been lost. Since that requires the
+ * trailing sub-matrix to be up-to-date the panel is ended early when it happens.
+ * </p>
+ *
+ * <p>
+ * Decomposition: A*P = Q*R
+ * </p>
+ *
+ * <p>
+ * Quintana-Orti, G., Sun, X., and Bischof, C. H. "A BLAS-3 version of the QR factorization with column pivoting."
+ * SIAM Journal on Scientific Computing 19.5 (1998)
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class QRColPivDecompositionHouseholderBlock_DDRM extends QRColPivDecompositionHouseholderColumn_DDRM {
+    // Relative tolerance for when a downdated column norm can't be trusted any more
+    public static final double NORM_TOLERANCE = Math.sqrt(UtilEjml.EPS);
+
+    // Number of columns in each panel. The pivot column and F are updated with every reflector in the panel so
+    // the cost of wide panels grows quickly. Narrow panels are faster for tall matrices.
+    protected int blockWidth = 8;
+
+    // Accumulated updates for the current panel. A = A - Y*F^T, where Y are the householder vectors
+    // [ column ][ panel column ]
+    protected double[][] dataF = new double[0][0];
+
+    // squared column norms from when they were last computed from scratch
+    protected double[] normsColExact = new double[0];
+
+    // work space for gamma*Y^T*u
+    protected double[] aux = new double[0];
+
+    /**
+     * Configure parameters.
+     *
+     * @param singularThreshold The singular threshold.
+     * @param blockWidth Number of columns in a panel
+     */
+    public QRColPivDecompositionHouseholderBlock_DDRM( double singularThreshold, int blockWidth ) {
+        super(singularThreshold);
+        setBlockWidth(blockWidth);
+    }
+
+    public QRColPivDecompositionHouseholderBlock_DDRM() {}
+
+    public void setBlockWidth( int blockWidth ) {
+        if (blockWidth <= 0)
+            throw new IllegalArgumentException("Block width must be positive");
+        this.blockWidth = blockWidth;
+    }
+
+    public int getBlockWidth() {
+        return blockWidth;
+    }
+
+    @Override
+    public void setExpectedMaxSize( int numRows, int numCols ) {
+        super.setExpectedMaxSize(numRows, numCols);
+
+        if (dataF.length < numCols || (numCols > 0 && dataF[0].length < blockWidth)) {
+            dataF = new double[numCols][blockWidth];
+            normsColExact = new double[numCols];
+        }
+        if (aux.length < blockWidth) {
+            aux = new double[blockWidth];
+        }
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj A ) {
+        setExpectedMaxSize(A.numRows, A.numCols);
+
+        maxValueAbs = CommonOps_DDRM.elementMaxAbs(A);
+        convertToColumnMajor(A);
+
+        // initialize pivot variables
+        setupPivotInfo();
+
+        decomposePanels();
+
+        return true;
+    }
+
+    @Override
+    protected void setupPivotInfo() {
+        super.setupPivotInfo();
+        System.arraycopy(normsCol, 0, normsColExact, 0, numCols);
+    }
+
+    /**
+     * Decomposes the matrix one panel at a time. Assumes the matrix has been converted into column major
+     * format and the pivot information initialized.
+     */
+    protected void decomposePanels() {
+        rank = 0;
+        int j = 0;
+        while (j < minLength) {
+            int width = Math.min(blockWidth, minLength - j);
+            int end = decomposePanel(j, width);
+            if (end < 0)
+                break;
+            j = end;
+        }
+    }
+
+    /**
+     * Decomposes up to 'width' columns starting at column 'j' then updates the trailing sub-matrix.
+     *
+     * @return The first column after the panel or -1 if the matrix was found to be singular
+     */
+    protected int decomposePanel( int j, int width ) {
+        boolean recompute = false;
+        boolean singular = false;
+
+        int k = 0;
+        while (k < width && !recompute) {
+            int col = j + k;
+            swapColumns(col);
+
+            // apply the pending updates from this panel to the pivot column
+            final double[] colA = dataQR[col];
+            final double[] f = dataF[col];
+            for (int t = 0; t < k; t++) {
+                final double[] u = dataQR[j + t];
+                final double val = f[t];
+                for (int i = col; i < numRows; i++) {
+                    colA[i] -= u[i]*val;
+                }
+            }
+
+            // if its degenerate stop processing
+            if (!householderPivot(col)) {
+                singular = true;
+                break;
+            }
+            rank = col + 1;
+
+            computeF(j, k, col);
+            updateRow(j, k, col);
+            k++;
+            recompute = downdateNorms(col);
+        }
+
+        int end = j + k;
+
+        // The pivot column which was found to be singular has already been updated
+        updateTrailing(j, k, singular ? end + 1 : end, end);
+
+        if (singular)
+            return -1;
+
+        if (recompute) {
+            for (int col = end; col < numCols; col++) {
+                if (normsCol[col] >= 0)
+                    continue;
+                final double[] u = dataQR[col];
+                double norm = 0;
+                for (int i = end; i < numRows; i++) {
+                    double v = u[i];
+                    norm += v*v;
+                }
+                normsCol[col] = normsColExact[col] = norm;
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Computes column 'k' in F for the householder vector in column 'col'
+     *
+     * F(:,k) = &gamma;*A<sup>T</sup>u - &gamma;*F(:,0:k-1)*Y<sup>T</sup>u
+     */
+    protected void computeF( int j, int k, int col ) {
+        final double[] u = dataQR[col];
+
+        // The trailing columns in rows col to numRows haven't been modified by this panel yet
+        // four columns at a time so that 'u' is read fewer times
+        int c = col + 1;
+        for (; c + 3 < numCols; c += 4) {
+            final double[] a0 = dataQR[c], a1 = dataQR[c + 1], a2 = dataQR[c + 2], a3 = dataQR[c + 3];
+            double sum0 = a0[col], sum1 = a1[col], sum2 = a2[col], sum3 = a3[col];
+            for (int i = col + 1; i < numRows; i++) {
+                final double ui = u[i];
+                sum0 += ui*a0[i];
+                sum1 += ui*a1[i];
+                sum2 += ui*a2[i];
+                sum3 += ui*a3[i];
+            }
+            dataF[c][k] = gamma*sum0;
+            dataF[c + 1][k] = gamma*sum1;
+            dataF[c + 2][k] = gamma*sum2;
+            dataF[c + 3][k] = gamma*sum3;
+        }
+        for (; c < numCols; c++) {
+            dataF[c][k] = gamma*(dataQR[c][col] + dot(u, dataQR[c], col + 1, numRows));
+        }
+
+        if (k == 0)
+            return;
+
+        for (int t = 0; t < k; t++) {
+            final double[] y = dataQR[j + t];
+            aux[t] = -gamma*(y[col] + dot(u, y, col + 1, numRows));
+        }
+
+        for (c = col + 1; c < numCols; c++) {
+            final double[] f = dataF[c];
+            double val = 0;
+            for (int t = 0; t < k; t++) {
+                val += f[t]*aux[t];
+            }
+            f[k] += val;
+        }
+    }
+
+    /**
+     * Dot product of two columns from row0 to row1. Several sums are used so that it isn't bound by the
+     * latency of addition.
+     */
+    protected static double dot( double[] a, double[] b, int row0, int row1 ) {
+        double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int i = row0;
+        for (; i + 3 < row1; i += 4) {
+            sum0 += a[i]*b[i];
+            sum1 += a[i + 1]*b[i + 1];
+            sum2 += a[i + 2]*b[i + 2];
+            sum3 += a[i + 3]*b[i + 3];
+        }
+        for (; i < row1; i++) {
+            sum0 += a[i]*b[i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Applies all the reflectors in the panel to row 'col' in the trailing columns. That row is part of R and
+     * is needed to downdate the column norms.
+     */
+    protected void updateRow( int j, int k, int col ) {
+        for (int c = col + 1; c < numCols; c++) {
+            final double[] f = dataF[c];
+            // the householder vector for 'col' has an implicit 1 in this row
+            double val = f[k];
+            for (int t = 0; t < k; t++) {
+                val += dataQR[j + t][col]*f[t];
+            }
+            dataQR[c][col] -= val;
+        }
+    }
+
+    /**
+     * Removes the contribution of row 'col' from the squared norm of each trailing column.
+     *
+     * @return true if a norm has lost too much precision and needs to be recomputed
+     */
+    protected boolean downdateNorms( int col ) {
+        boolean recompute = false;
+        for (int c = col + 1; c < numCols; c++) {
+            // a zero column will stay zero
+            if (normsColExact[c] == 0.0)
+                continue;
+
+            double e = dataQR[c][col];
+            double v = normsCol[c] - e*e;
+
+            if (v <= NORM_TOLERANCE*normsColExact[c]) {
+                // mark it so that it will be recomputed once the trailing columns have been updated
+                normsCol[c] = -1;
+                recompute = true;
+            } else {
+                normsCol[c] = v;
+            }
+        }
+        return recompute;
+    }
+
+    /**
+     * Updates the trailing sub-matrix with the reflectors in the panel. A = A - Y*F<sup>T</sup>. Processes
+     * four reflectors at a time to reduce the number of passes through each column.
+     *
+     * @param j First column in the panel
+     * @param k Number of reflectors in the panel
+     * @param col0 First column which is updated
+     * @param row0 First row which is updated. All the rows above it have already been updated.
+     */
+    protected void updateTrailing( int j, int k, int col0, int row0 ) {
+        for (int c = col0; c < numCols; c++) {
+            final double[] colA = dataQR[c];
+            final double[] f = dataF[c];
+
+            int t = 0;
+            for (; t + 3 < k; t += 4) {
+                final double[] y0 = dataQR[j + t];
+                final double[] y1 = dataQR[j + t + 1];
+                final double[] y2 = dataQR[j + t + 2];
+                final double[] y3 = dataQR[j + t + 3];
+                final double f0 = f[t], f1 = f[t + 1], f2 = f[t + 2], f3 = f[t + 3];
+                for (int i = row0; i < numRows; i++) {
+                    colA[i] -= y0[i]*f0 + y1[i]*f1 + y2[i]*f2 + y3[i]*f3;
+                }
+            }
+            for (; t < k; t++) {
+                final double[] y = dataQR[j + t];
+                final double val = f[t];
+                for (int i = row0; i < numRows; i++) {
+                    colA[i] -= y[i]*val;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the column with the largest norm and makes it column 'j'. Also swaps the accumulated updates.
+     *
+     * @param j Current column being inspected
+     */
+    @Override
+    protected void swapColumns( int j ) {
+        int largestIndex = j;
+        double largestNorm = normsCol[j];
+        for (int col = j + 1; col < numCols; col++) {
+            double n = normsCol[col];
+            if (n > largestNorm) {
+                largestNorm = n;
+                largestIndex = col;
+            }
+        }
+        if (largestIndex == j)
+            return;
+
+        double[] tempC = dataQR[j];
+        dataQR[j] = dataQR[largestIndex];
+        dataQR[largestIndex] = tempC;
+        tempC = dataF[j];
+        dataF[j] = dataF[largestIndex];
+        dataF[largestIndex] = tempC;
+        double tempN = normsCol[j];
+        normsCol[j] = normsCol[largestIndex];
+        normsCol[largestIndex] = tempN;
+        tempN = normsColExact[j];
+        normsColExact[j] = normsColExact[largestIndex];
+        normsColExact[largestIndex] = tempN;
+        int tempP = pivots[j];
+        pivots[j] = pivots[largestIndex];
+        pivots[largestIndex] = tempP;
+    }
+}
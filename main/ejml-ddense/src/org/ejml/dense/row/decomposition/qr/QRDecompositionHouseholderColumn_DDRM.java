@@ -20,6 +20,8 @@ package org.ejml.dense.row.decomposition.qr;
 
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.decomposition.UtilDecompositons_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.jetbrains.annotations.Nullable;
 
@@ -153,6 +155,7 @@ public class QRDecompositionHouseholderColumn_DDRM implements QRDecomposition<DM
      */
     @Override
     public boolean decompose( DMatrixRMaj A ) {
+        long startNanos = EjmlInstrumentation.start();
         setExpectedMaxSize(A.numRows, A.numCols);
 
         convertToColumnMajor(A);
@@ -164,6 +167,7 @@ public class QRDecompositionHouseholderColumn_DDRM implements QRDecomposition<DM
             updateA(j);
         }
 
+        EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.QR, A.numRows, A.numCols, this);
         return !error;
     }
 
@@ -18,10 +18,13 @@
 
 package org.ejml.dense.row.decomposition.qr;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * The effects of adding and removing rows from the A matrix in a QR decomposition can
@@ -43,9 +46,14 @@ import org.jetbrains.annotations.Nullable;
  * </p>
  *
  * <p>
+ * Columns can also be added and removed, e.g. when a regressor is added to or removed from a least-squares problem.
+ * These operations accept either the full decomposition or the compact one, where Q is m &times; n and R is
+ * n &times; n. With the compact decomposition a column update requires O(mn) flops.
+ * </p>
+ *
+ * <p>
  * For more information see David S. Watkins, "Fundamentals of Matrix Computations" 2nd edition, pages 249-259.
- * It is also possible to add and remove columns efficiently, but this is less common and is not supported at
- * this time.
+ * Column updates are described in Golub and Van Loan, "Matrix Computations" 4th edition, section 6.5.
  * </p>
  *
  * @author Peter Abeles
@@ -61,6 +69,7 @@ public class QrUpdate_DDRM {
 
     // used to temporarially store data
     private double[] r_row;
+    private double[] col_w, col_r;
 
     // it can process matrices up to this size
     private int maxCols;
@@ -111,6 +120,8 @@ public class QrUpdate_DDRM {
         Qm = new DMatrixRMaj(maxRows, maxRows);
 
         r_row = new double[maxCols];
+        col_w = new double[maxRows];
+        col_r = new double[maxRows];
     }
 
     /**
@@ -197,6 +208,311 @@ public class QrUpdate_DDRM {
         this.Q = this.R = null;
     }
 
+    /**
+     * <p>
+     * Adjusts the Q and R matrices for a sliding window over the rows of 'A'. The first row is removed and
+     * the new row is appended to the end.  The number of rows does not change and, unlike calling
+     * {@link #addRow} first, no additional memory is needed in Q, R, or internally.
+     * </p>
+     *
+     * @param Q The Q matrix.  Must be m by m.  Is modified.
+     * @param R The R matrix.  Must be m by n.  Is modified.
+     * @param row The row being appended.  Not modified.
+     */
+    public void slideRow( DMatrixRMaj Q, DMatrixRMaj R, double[] row ) {
+        int m = Q.numRows;
+        deleteRow(Q, R, 0, true);
+        addRow(Q, R, row, m - 1, true);
+    }
+
+    /**
+     * <p>
+     * Adjusts the values of the Q and R matrices to take in account the effects of inserting
+     * a column into the 'A' matrix at the specified location.
+     * </p>
+     *
+     * <p>
+     * If Q is m by m then R is m by n and the full decomposition is updated, which requires O(m<sup>2</sup>) flops.
+     * If Q is m by n and R is n by n then the compact decomposition is updated and Q gains a column.  That
+     * requires O(mn) flops and is the recommended approach when m is much larger than n.  The matrices are
+     * reshaped and will declare more memory if needed.
+     * </p>
+     *
+     * <p>
+     * The column is appended to R as Q<sup>T</sup>a and a series of planar Givens rotations make R upper triangular
+     * again.  With the compact decomposition, the new column of Q is found with Gram-Schmidt and one step
+     * of reorthogonalization.
+     * </p>
+     *
+     * @param Q The Q matrix.  Is modified.
+     * @param R The R matrix.  Is modified.
+     * @param column The column being inserted.  Must have m elements. Not modified.
+     * @param colIndex Which column index it is to be inserted at.
+     * @return false if the decomposition is compact and the column is linearly dependent on the existing
+     * columns.  Q and R are not modified when false is returned.
+     */
+    public boolean addColumn( DMatrixRMaj Q, DMatrixRMaj R, double[] column, int colIndex ) {
+        boolean compact = setQRColumns(Q, R);
+        if (colIndex < 0 || colIndex > n)
+            throw new IllegalArgumentException("colIndex is out of bounds. " + colIndex);
+        if (column.length < m)
+            throw new IllegalArgumentException("Column has less than " + m + " elements");
+
+        // w = Q^T*a
+        double[] w = col_w;
+        multTransQ(Q, column, w);
+
+        if (compact) {
+            // residual of the column after removing the components along Q's columns
+            double[] residual = col_r;
+            System.arraycopy(column, 0, residual, 0, m);
+            subtractQ(Q, w, residual);
+
+            // a second pass compensates for the loss of orthogonality in classical Gram-Schmidt
+            double[] correction = r_row;
+            multTransQ(Q, residual, correction);
+            subtractQ(Q, correction, residual);
+            for (int i = 0; i < n; i++) {
+                w[i] += correction[i];
+            }
+
+            double norm = 0, normA = 0;
+            for (int k = 0; k < m; k++) {
+                norm += residual[k]*residual[k];
+                normA += column[k]*column[k];
+            }
+            norm = Math.sqrt(norm);
+            if (norm <= m*UtilEjml.EPS*Math.sqrt(normA)) {
+                this.Q = this.R = null;
+                return false;
+            }
+
+            insertZeroColumn(Q, n);
+            for (int k = 0; k < m; k++) {
+                Q.data[k*(n + 1) + n] = residual[k]/norm;
+            }
+            w[n] = norm;
+            R.reshape(n + 1, n, true);
+            Arrays.fill(R.data, n*n, (n + 1)*n, 0);
+        }
+
+        insertZeroColumn(R, colIndex);
+        int rowsR = R.numRows;
+        int colsR = R.numCols;
+        for (int i = 0; i < rowsR; i++) {
+            R.data[i*colsR + colIndex] = w[i];
+        }
+
+        // Zero the inserted column below the diagonal, starting from the bottom
+        for (int j = rowsR - 1; j > colIndex; j--) {
+            double c, s;
+            double xi = R.data[(j - 1)*colsR + colIndex];
+            double xj = R.data[j*colsR + colIndex];
+
+            double r = xi*xi + xj*xj;
+            if (r != 0) {
+                r = Math.sqrt(r);
+                c = xi/r;
+                s = xj/r;
+            } else {
+                continue;
+            }
+
+            R.data[(j - 1)*colsR + colIndex] = r;
+            R.data[j*colsR + colIndex] = 0;
+            rotateRowsR(R, j - 1, j, j, c, s);
+            rotateColsQ(Q, j - 1, j, c, s);
+        }
+
+        this.Q = this.R = null;
+        return true;
+    }
+
+    /**
+     * <p>
+     * Adjusts the values of the Q and R matrices to take in account the effects of removing
+     * a column from the 'A' matrix at the specified location.  Requires O(m(n-colIndex)) flops.
+     * </p>
+     *
+     * <p>
+     * Removing the column leaves R upper Hessenberg and a series of planar Givens rotations make it upper
+     * triangular again.  If Q is m by m then R will be m by (n-1).  If the decomposition is compact (Q is m
+     * by n and R is n by n) then both will lose a column and R will be (n-1) by (n-1).
+     * </p>
+     *
+     * @param Q The Q matrix.  Is modified.
+     * @param R The R matrix.  Is modified.
+     * @param colIndex Which column is being removed.
+     */
+    public void deleteColumn( DMatrixRMaj Q, DMatrixRMaj R, int colIndex ) {
+        boolean compact = setQRColumns(Q, R);
+        if (colIndex < 0 || colIndex >= n)
+            throw new IllegalArgumentException("colIndex is out of bounds. " + colIndex);
+
+        removeColumn(R, colIndex);
+        int rowsR = R.numRows;
+        int colsR = R.numCols;
+
+        // zero the sub-diagonal left behind by the removed column
+        for (int j = colIndex; j < colsR && j + 1 < rowsR; j++) {
+            double c, s;
+            double xi = R.data[j*colsR + j];
+            double xj = R.data[(j + 1)*colsR + j];
+
+            double r = xi*xi + xj*xj;
+            if (r != 0) {
+                r = Math.sqrt(r);
+                c = xi/r;
+                s = xj/r;
+            } else {
+                continue;
+            }
+
+            R.data[j*colsR + j] = r;
+            R.data[(j + 1)*colsR + j] = 0;
+            rotateRowsR(R, j, j + 1, j + 1, c, s);
+            rotateColsQ(Q, j, j + 1, c, s);
+        }
+
+        if (compact) {
+            // last row in R is now zero and the last column in Q no longer contributes
+            R.reshape(n - 1, n - 1, true);
+            removeColumn(Q, n - 1);
+        }
+
+        this.Q = this.R = null;
+    }
+
+    /**
+     * Checks the shape of Q and R for column operations and saves a reference to them
+     *
+     * @return true if it's a compact decomposition
+     */
+    private boolean setQRColumns( DMatrixRMaj Q, DMatrixRMaj R ) {
+        boolean compact = Q.numRows != Q.numCols;
+        if (compact) {
+            if (R.numRows != Q.numCols || R.numCols != Q.numCols)
+                throw new IllegalArgumentException("Compact R should be square with the same number of columns as Q");
+        } else if (R.numRows != Q.numRows) {
+            throw new IllegalArgumentException("R should have the same number of rows as Q");
+        }
+
+        this.Q = Q;
+        this.R = R;
+
+        m = Q.numRows;
+        n = R.numCols;
+
+        if (m > maxRows || n + 1 > maxCols) {
+            if (autoGrow) {
+                declareInternalData(Math.max(maxRows, m), Math.max(maxCols, n + 1));
+            } else {
+                throw new IllegalArgumentException("Autogrow has been set to false and the maximum number of rows" +
+                        " or columns has been exceeded.");
+            }
+        }
+        return compact;
+    }
+
+    /**
+     * Computes output = Q<sup>T</sup>a
+     */
+    private static void multTransQ( DMatrixRMaj Q, double[] a, double[] output ) {
+        int numCols = Q.numCols;
+        Arrays.fill(output, 0, numCols, 0);
+        for (int k = 0; k < Q.numRows; k++) {
+            double a_k = a[k];
+            int indexQ = k*numCols;
+            for (int i = 0; i < numCols; i++) {
+                output[i] += Q.data[indexQ + i]*a_k;
+            }
+        }
+    }
+
+    /**
+     * Computes a = a - Q*w
+     */
+    private static void subtractQ( DMatrixRMaj Q, double[] w, double[] a ) {
+        int numCols = Q.numCols;
+        for (int k = 0; k < Q.numRows; k++) {
+            double sum = 0;
+            int indexQ = k*numCols;
+            for (int i = 0; i < numCols; i++) {
+                sum += Q.data[indexQ + i]*w[i];
+            }
+            a[k] -= sum;
+        }
+    }
+
+    /**
+     * Applies a Givens rotation to rows i and j in R, starting at column col0
+     */
+    private static void rotateRowsR( DMatrixRMaj R, int i, int j, int col0, double c, double s ) {
+        int numCols = R.numCols;
+        for (int col = col0; col < numCols; col++) {
+            double vali = R.data[i*numCols + col];
+            double valj = R.data[j*numCols + col];
+
+            R.data[i*numCols + col] = c*vali + s*valj;
+            R.data[j*numCols + col] = c*valj - s*vali;
+        }
+    }
+
+    /**
+     * Applies the transpose of a Givens rotation to columns i and j in Q so that Q*R is unchanged
+     */
+    private static void rotateColsQ( DMatrixRMaj Q, int i, int j, double c, double s ) {
+        int numCols = Q.numCols;
+        for (int row = 0; row < Q.numRows; row++) {
+            int index = row*numCols;
+            double q1 = Q.data[index + i];
+            double q2 = Q.data[index + j];
+
+            Q.data[index + i] = c*q1 + s*q2;
+            Q.data[index + j] = c*q2 - s*q1;
+        }
+    }
+
+    /**
+     * Adds a column of zeros to M at the specified location. Elements are moved in place.
+     */
+    private static void insertZeroColumn( DMatrixRMaj M, int insertCol ) {
+        int rows = M.numRows;
+        int cols = M.numCols;
+        M.reshape(rows, cols + 1, true);
+
+        // go backwards since elements are moved towards the end of the array
+        double[] d = M.data;
+        for (int i = rows - 1; i >= 0; i--) {
+            for (int j = cols - 1; j >= insertCol; j--) {
+                d[i*(cols + 1) + j + 1] = d[i*cols + j];
+            }
+            for (int j = insertCol - 1; j >= 0; j--) {
+                d[i*(cols + 1) + j] = d[i*cols + j];
+            }
+            d[i*(cols + 1) + insertCol] = 0;
+        }
+    }
+
+    /**
+     * Removes a column from M. Elements are moved in place.
+     */
+    private static void removeColumn( DMatrixRMaj M, int removeCol ) {
+        int rows = M.numRows;
+        int cols = M.numCols;
+
+        double[] d = M.data;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < removeCol; j++) {
+                d[i*(cols - 1) + j] = d[i*cols + j];
+            }
+            for (int j = removeCol + 1; j < cols; j++) {
+                d[i*(cols - 1) + j - 1] = d[i*cols + j];
+            }
+        }
+        M.reshape(rows, cols - 1, true);
+    }
+
     /**
      * Provides the results of a QR decomposition.  These will be modified by adding or removing
      * rows from the original 'A' matrix.
@@ -217,7 +533,8 @@ public class QrUpdate_DDRM {
 
         if (m + growRows > maxRows || n > maxCols) {
             if (autoGrow) {
-                declareInternalData(m + growRows, n);
+                // never shrink so that alternating adds and removes don't keep on declaring new memory
+                declareInternalData(Math.max(maxRows, m + growRows), Math.max(maxCols, n));
             } else {
                 throw new IllegalArgumentException("Autogrow has been set to false and the maximum number of rows" +
                         " or columns has been exceeded.");
@@ -24,6 +24,8 @@ import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
 import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionTall_DDRM;
 import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
 import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.jetbrains.annotations.NotNull;
@@ -178,6 +180,13 @@ public class SvdImplicitQrDecompose_DDRM implements SingularValueDecomposition_F
 
     @Override
     public boolean decompose( DMatrixRMaj orig ) {
+        long startNanos = EjmlInstrumentation.start();
+        boolean success = decomposeInternal(orig);
+        EjmlInstrumentation.recordDecomposition(startNanos, OperationFamily.SVD, orig.numRows, orig.numCols, this);
+        return success;
+    }
+
+    private boolean decomposeInternal( DMatrixRMaj orig ) {
         if (!setup(orig))
             return false;
 
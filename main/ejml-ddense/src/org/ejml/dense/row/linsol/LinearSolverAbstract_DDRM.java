@@ -19,6 +19,7 @@
 package org.ejml.dense.row.linsol;
 
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.misc.ConditionEstimator_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,6 +42,9 @@ public abstract class LinearSolverAbstract_DDRM implements LinearSolverDense<DMa
     protected int numRows;
     protected int numCols;
 
+    // used to estimate the condition number in rcond()
+    protected final ConditionEstimator_DDRM conditionEstimator = new ConditionEstimator_DDRM();
+
     public @Nullable DMatrixRMaj getA() {
         return A;
     }
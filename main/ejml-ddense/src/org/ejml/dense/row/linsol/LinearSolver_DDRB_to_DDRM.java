@@ -22,7 +22,10 @@ import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.linsol.chol.CholeskyOuterSolver_DDRB;
+import org.ejml.dense.row.misc.ConditionEstimator_DDRM;
+import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 
 /**
@@ -42,6 +45,13 @@ public class LinearSolver_DDRB_to_DDRM implements LinearSolverDense<DMatrixRMaj>
     // block matrix copy of X matrix passed into solve
     protected DMatrixRBlock blockX = new DMatrixRBlock(1, 1);
 
+    // used to estimate the condition number in rcond()
+    protected ConditionEstimator_DDRM conditionEstimator = new ConditionEstimator_DDRM();
+    // 1-norm of A
+    protected double normA;
+    // row major copy of the triangular factor
+    protected DMatrixRMaj factor = new DMatrixRMaj(1, 1);
+
     public LinearSolver_DDRB_to_DDRM( LinearSolverDense<DMatrixRBlock> alg ) {
         this.alg = alg;
     }
@@ -56,6 +66,7 @@ public class LinearSolver_DDRB_to_DDRM implements LinearSolverDense<DMatrixRMaj>
     public boolean setA( DMatrixRMaj A ) {
         blockA.reshape(A.numRows, A.numCols, false);
         MatrixOps_DDRB.convert(A, blockA);
+        normA = conditionEstimator.normP1(A);
 
         return alg.setA(blockA);
     }
@@ -65,6 +76,28 @@ public class LinearSolver_DDRB_to_DDRM implements LinearSolverDense<DMatrixRMaj>
         return alg.quality();
     }
 
+    /**
+     * Estimates the reciprocal condition number if the block solver uses a Cholesky or QR decomposition. The
+     * triangular factor is copied into a row major matrix first.
+     */
+    @Override
+    public /**/double rcond() {
+        DecompositionInterface<DMatrixRBlock> decomposition = alg.getDecomposition();
+        if (decomposition instanceof CholeskyDecomposition_F64) {
+            CholeskyDecomposition_F64<DMatrixRBlock> chol = (CholeskyDecomposition_F64<DMatrixRBlock>)decomposition;
+            DMatrixRBlock T = chol.getT(null);
+            factor.reshape(T.numRows, T.numCols);
+            MatrixOps_DDRB.convert(T, factor);
+            return conditionEstimator.rcondCholesky(factor, chol.isLower(), normA);
+        } else if (decomposition instanceof QRDecomposition) {
+            DMatrixRBlock R = ((QRDecomposition<DMatrixRBlock>)decomposition).getR(null, true);
+            factor.reshape(R.numRows, R.numCols);
+            MatrixOps_DDRB.convert(R, factor);
+            return conditionEstimator.rcondTriangular(factor, Math.min(R.numRows, R.numCols), true, false);
+        }
+        throw new IllegalArgumentException("Condition estimation is not supported by " + alg.getClass().getSimpleName());
+    }
+
     /**
      * Converts B and X into block matrices and calls the block matrix solve routine.
      *
@@ -38,6 +38,9 @@ public class LinearSolverCholLDL_DDRM extends LinearSolverAbstract_DDRM {
     private double[] el;
     private double[] d;
 
+    // 1-norm of A. NaN if it needs to be estimated from the decomposition
+    private double normA;
+
     public LinearSolverCholLDL_DDRM( CholeskyDecompositionLDL_DDRM decomposer ) {
         this.decomposer = decomposer;
     }
@@ -49,6 +52,7 @@ public class LinearSolverCholLDL_DDRM extends LinearSolverAbstract_DDRM {
     @Override
     public boolean setA( DMatrixRMaj A ) {
         _setA(A);
+        normA = conditionEstimator.normP1(A);
 
         if (decomposer.decompose(A)) {
             n = A.numCols;
@@ -61,11 +65,50 @@ public class LinearSolverCholLDL_DDRM extends LinearSolverAbstract_DDRM {
         }
     }
 
+    /**
+     * Changes the system being solved to (A + X*X<sup>T</sup>)*x = b without decomposing the modified matrix.
+     * Must be called after {@link #setA}.
+     *
+     * @param X An n by k matrix. Not modified.
+     * @see CholeskyDecompositionLDL_DDRM#update
+     */
+    public void update( DMatrixRMaj X ) {
+        decomposer.update(X);
+        normA = Double.NaN;
+    }
+
+    /**
+     * Changes the system being solved to (A - X*X<sup>T</sup>)*x = b without decomposing the modified matrix.
+     * Must be called after {@link #setA}.
+     *
+     * @param X An n by k matrix. Not modified.
+     * @return true if successful. False if A - X*X<sup>T</sup> is not positive definite, in which case the
+     * solver is not modified.
+     * @see CholeskyDecompositionLDL_DDRM#downdate
+     */
+    public boolean downdate( DMatrixRMaj X ) {
+        if (!decomposer.downdate(X))
+            return false;
+        normA = Double.NaN;
+        return true;
+    }
+
     @Override
     public /**/double quality() {
         return Math.abs(SpecializedOps_DDRM.diagProd(decomposer.getL()));
     }
 
+    /**
+     * Estimates the reciprocal condition number using the LDL decomposition. After {@link #update} or
+     * {@link #downdate} ||A||<sub>1</sub> is estimated from the decomposition.
+     */
+    @Override
+    public /**/double rcond() {
+        if (Double.isNaN(normA))
+            normA = conditionEstimator.estimateNormLDL(decomposer.getL(), decomposer.getDiagonal());
+        return conditionEstimator.rcondLDL(decomposer.getL(), decomposer.getDiagonal(), normA);
+    }
+
     /**
      * <p>
      * Using the decomposition, finds the value of 'X' in the linear equation below:<br>
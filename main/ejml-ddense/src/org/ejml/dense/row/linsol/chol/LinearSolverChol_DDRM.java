@@ -36,6 +36,9 @@ public class LinearSolverChol_DDRM extends LinearSolverAbstract_DDRM {
     double[] vv;
     double[] t;
 
+    // 1-norm of A. NaN if it needs to be estimated from the decomposition
+    double normA;
+
     public LinearSolverChol_DDRM( CholeskyDecompositionCommon_DDRM decomposer ) {
         this.decomposer = decomposer;
     }
@@ -46,6 +49,8 @@ public class LinearSolverChol_DDRM extends LinearSolverAbstract_DDRM {
             throw new IllegalArgumentException("Matrix must be square");
 
         _setA(A);
+        // A is overwritten by the decomposition, so this needs to be done now
+        normA = conditionEstimator.normP1(A);
 
         if (decomposer.decompose(A)) {
             vv = decomposer._getVV();
@@ -56,11 +61,51 @@ public class LinearSolverChol_DDRM extends LinearSolverAbstract_DDRM {
         }
     }
 
+    /**
+     * Changes the system being solved to (A + X*X<sup>T</sup>)*x = b without decomposing the modified matrix.
+     * Must be called after {@link #setA}.
+     *
+     * @param X An n by k matrix. Not modified.
+     * @see CholeskyDecompositionCommon_DDRM#update
+     */
+    public void update( DMatrixRMaj X ) {
+        decomposer.update(X);
+        normA = Double.NaN;
+    }
+
+    /**
+     * Changes the system being solved to (A - X*X<sup>T</sup>)*x = b without decomposing the modified matrix.
+     * Must be called after {@link #setA}.
+     *
+     * @param X An n by k matrix. Not modified.
+     * @return true if successful. False if A - X*X<sup>T</sup> is not positive definite, in which case the
+     * solver is not modified.
+     * @see CholeskyDecompositionCommon_DDRM#downdate
+     */
+    public boolean downdate( DMatrixRMaj X ) {
+        if (!decomposer.downdate(X))
+            return false;
+        normA = Double.NaN;
+        return true;
+    }
+
     @Override
     public /**/double quality() {
         return SpecializedOps_DDRM.qualityTriangular(decomposer.getT());
     }
 
+    /**
+     * Estimates the reciprocal condition number using the Cholesky decomposition. After {@link #update} or
+     * {@link #downdate} the original matrix is no longer known and ||A||<sub>1</sub> is estimated from the
+     * decomposition too.
+     */
+    @Override
+    public /**/double rcond() {
+        if (Double.isNaN(normA))
+            normA = conditionEstimator.estimateNormCholesky(decomposer.getT(), decomposer.isLower());
+        return conditionEstimator.rcondCholesky(decomposer.getT(), decomposer.isLower(), normA);
+    }
+
     /**
      * <p>
      * Using the decomposition, finds the value of 'X' in the linear equation below:<br>
@@ -45,6 +45,17 @@ public abstract class LinearSolverLuBase_DDRM extends LinearSolverAbstract_DDRM
         return decomp.quality();
     }
 
+    /**
+     * Estimates the reciprocal condition number using the LU decomposition. The 'A' matrix passed into
+     * {@link #setA} is used to compute ||A||<sub>1</sub> and must not have been modified.
+     */
+    @Override
+    public /**/double rcond() {
+        if (A == null)
+            throw new RuntimeException("Must call setA() first");
+        return conditionEstimator.rcondLU(decomp.getLU(), decomp.getPivot(), conditionEstimator.normP1(A));
+    }
+
     @Override
     public void invert( DMatrixRMaj A_inv ) {
         if (A == null)
@@ -145,6 +145,14 @@ public abstract class BaseLinearSolverQrp_DDRM extends LinearSolverAbstract_DDRM
         return SpecializedOps_DDRM.qualityTriangular(R);
     }
 
+    /**
+     * Estimates the reciprocal condition number of R, including the part beyond the numerical rank
+     */
+    @Override
+    public /**/double rcond() {
+        return conditionEstimator.rcondTriangular(R, Math.min(numRows, numCols), true, false);
+    }
+
     /**
      * <p>
      * Upgrades the basic solution to the optimal 2-norm solution.
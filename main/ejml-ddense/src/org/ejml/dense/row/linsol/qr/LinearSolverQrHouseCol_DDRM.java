@@ -107,6 +107,11 @@ public class LinearSolverQrHouseCol_DDRM extends LinearSolverAbstract_DDRM {
         return SpecializedOps_DDRM.qualityTriangular(R);
     }
 
+    @Override
+    public /**/double rcond() {
+        return conditionEstimator.rcondTriangular(R, numCols, true, false);
+    }
+
     /**
      * Solves for X using the QR decomposition.
      *
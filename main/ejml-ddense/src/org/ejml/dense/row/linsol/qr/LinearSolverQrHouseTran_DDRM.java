@@ -96,6 +96,12 @@ public class LinearSolverQrHouseTran_DDRM extends LinearSolverAbstract_DDRM {
         return SpecializedOps_DDRM.qualityTriangular(QR);
     }
 
+    @Override
+    public /**/double rcond() {
+        // R is stored transposed in the lower triangle
+        return conditionEstimator.rcondTriangular(QR, numCols, false, true);
+    }
+
     /**
      * Solves for X using the QR decomposition.
      *
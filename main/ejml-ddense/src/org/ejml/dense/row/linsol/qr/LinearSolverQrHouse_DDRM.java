@@ -92,6 +92,11 @@ public class LinearSolverQrHouse_DDRM extends LinearSolverAbstract_DDRM {
         return SpecializedOps_DDRM.qualityTriangular(QR);
     }
 
+    @Override
+    public /**/double rcond() {
+        return conditionEstimator.rcondTriangular(QR, numCols, true, false);
+    }
+
     /**
      * Solves for X using the QR decomposition.
      *
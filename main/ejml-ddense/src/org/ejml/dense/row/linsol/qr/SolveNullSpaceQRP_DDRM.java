@@ -20,6 +20,7 @@ package org.ejml.dense.row.linsol.qr;
 
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderBlock_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.interfaces.SolveNullSpace;
 
@@ -32,11 +33,23 @@ import org.ejml.interfaces.SolveNullSpace;
  * @author Peter Abeles
  */
 public class SolveNullSpaceQRP_DDRM implements SolveNullSpace<DMatrixRMaj> {
-    CustomizedQRP decomposition = new CustomizedQRP();
+    QRColPivDecompositionHouseholderColumn_DDRM decomposition;
 
     // Storage for Q matrix
     DMatrixRMaj Q = new DMatrixRMaj(1, 1);
 
+    /**
+     * @param blocked If true then the blocked decomposition {@link QRColPivDecompositionHouseholderBlock_DDRM} is
+     * used. Since A<sup>T</sup> is decomposed this is only faster when A has many more columns than rows.
+     */
+    public SolveNullSpaceQRP_DDRM( boolean blocked ) {
+        decomposition = blocked ? new CustomizedBlockQRP() : new CustomizedQRP();
+    }
+
+    public SolveNullSpaceQRP_DDRM() {
+        this(false);
+    }
+
     /**
      * Finds the null space of A
      *
@@ -112,6 +125,32 @@ public class SolveNullSpaceQRP_DDRM implements SolveNullSpace<DMatrixRMaj> {
         }
     }
 
+    /**
+     * Blocked version of {@link CustomizedQRP}
+     */
+    private static class CustomizedBlockQRP extends QRColPivDecompositionHouseholderBlock_DDRM {
+
+        @Override
+        protected void convertToColumnMajor( DMatrixRMaj A ) {
+            for (int x = 0; x < numCols; x++) {
+                System.arraycopy(A.data, x*A.numCols, dataQR[x], 0, numRows);
+            }
+        }
+
+        @Override
+        public boolean decompose( DMatrixRMaj A ) {
+            setExpectedMaxSize(A.numCols, A.numRows);
+
+            convertToColumnMajor(A);
+
+            setupPivotInfo();
+
+            decomposePanels();
+
+            return true;
+        }
+    }
+
     public DMatrixRMaj getQ() {
         return Q;
     }
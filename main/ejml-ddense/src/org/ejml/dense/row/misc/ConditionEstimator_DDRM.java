@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.IGrowArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Estimates the 1-norm condition number, &kappa;<sub>1</sub>(A) = ||A||<sub>1</sub>||A<sup>-1</sup>||<sub>1</sub>,
+ * using a decomposition of A that has already been computed. Only O(n<sup>2</sup>) operations are needed, compared
+ * to O(n<sup>3</sup>) for inverting A or computing its SVD. ||A<sup>-1</sup>||<sub>1</sub> is estimated with
+ * Higham's refinement [2] of Hager's method [1], which is the algorithm used by LAPACK's xLACN2. It needs a few
+ * solutions to A*x = b and A<sup>T</sup>*x = b, which are computed with the decomposition. The estimate is a
+ * lower bound of ||A<sup>-1</sup>||<sub>1</sub> and is almost always within a factor of 3 of the true value.
+ * </p>
+ *
+ * <p>
+ * Functions return the reciprocal condition number, 1/&kappa;<sub>1</sub>(A), which goes from 0 to 1. A value of
+ * zero is returned when the matrix is singular. Only the triangle which stores the decomposition is read, so the
+ * other triangle can contain anything.
+ * </p>
+ *
+ * <ol>
+ * <li>W. W. Hager, "Condition Estimates", SIAM J. Sci. Stat. Comput., 5 (1984), pp. 311-316</li>
+ * <li>N. J. Higham, "FORTRAN codes for estimating the one-norm of a real or complex matrix, with applications
+ * to condition estimation", ACM Trans. Math. Softw., 14 (1988), pp. 381-396</li>
+ * </ol>
+ *
+ * @author Peter Abeles
+ */
+public class ConditionEstimator_DDRM {
+    /**
+     * Applies a linear operator to a vector. For condition estimation this is the inverse of the matrix.
+     */
+    public interface Operator {
+        /**
+         * @param x Input vector which is overwritten by the output. Modified.
+         * @param transposed If true then the transpose of the operator is applied.
+         */
+        void apply( double[] x, boolean transposed );
+    }
+
+    /** Maximum number of iterations in {@link #estimateNorm1}. LAPACK uses 5. */
+    public int maxIterations = 5;
+
+    // work space
+    DGrowArray vectorX = new DGrowArray();
+    DGrowArray vectorY = new DGrowArray();
+    IGrowArray signs = new IGrowArray();
+
+    /**
+     * Estimates the 1-norm of an N by N matrix B which is only available through products with B and
+     * B<sup>T</sup>. Typically about 4 to 5 products are needed.
+     *
+     * @param N Number of rows and columns in B
+     * @param op Computes B*x or B<sup>T</sup>*x
+     * @return Estimate of ||B||<sub>1</sub>. This is a lower bound.
+     */
+    public double estimateNorm1( int N, Operator op ) {
+        if (N == 0)
+            return 0;
+
+        vectorX.reshape(N);
+        signs.reshape(N);
+        final double[] x = vectorX.data;
+        final int[] sign = signs.data;
+
+        Arrays.fill(x, 0, N, 1.0/N);
+        op.apply(x, false);
+        if (N == 1)
+            return Math.abs(x[0]);
+
+        double est = sumAbs(x, N);
+        if (!(est < Double.POSITIVE_INFINITY))
+            return est;
+
+        for (int i = 0; i < N; i++) {
+            sign[i] = x[i] >= 0 ? 1 : -1;
+            x[i] = sign[i];
+        }
+        op.apply(x, true);
+        int j = indexMaxAbs(x, N);
+
+        for (int iteration = 1; ; iteration++) {
+            // x = B*e_j
+            Arrays.fill(x, 0, N, 0);
+            x[j] = 1;
+            op.apply(x, false);
+
+            double estOld = est;
+            est = Math.max(est, sumAbs(x, N));
+
+            // stop if the sign vector has been seen before or if there was no improvement
+            boolean repeated = true;
+            for (int i = 0; i < N; i++) {
+                if ((x[i] >= 0 ? 1 : -1) != sign[i]) {
+                    repeated = false;
+                    break;
+                }
+            }
+            if (repeated || est <= estOld)
+                break;
+
+            for (int i = 0; i < N; i++) {
+                sign[i] = x[i] >= 0 ? 1 : -1;
+                x[i] = sign[i];
+            }
+            op.apply(x, true);
+
+            int jlast = j;
+            j = indexMaxAbs(x, N);
+            if (x[jlast] == Math.abs(x[j]) || iteration >= maxIterations)
+                break;
+        }
+
+        // Alternating sign vector, which handles cases where the search above performs poorly
+        double altsgn = 1;
+        for (int i = 0; i < N; i++) {
+            x[i] = altsgn*(1.0 + (double)i/(N - 1));
+            altsgn = -altsgn;
+        }
+        op.apply(x, false);
+
+        return Math.max(est, 2.0*sumAbs(x, N)/(3*N));
+    }
+
+    /**
+     * Reciprocal condition number from an LU decomposition, P*A = L*U, where L has a unit diagonal.
+     *
+     * @param LU N by N matrix with L in the lower triangle and U in the upper triangle. Not modified.
+     * @param pivot Row pivots. Row i in L*U is row pivot[i] in A. Not modified.
+     * @param normA ||A||<sub>1</sub>
+     * @return Estimate of 1/&kappa;<sub>1</sub>(A)
+     */
+    public double rcondLU( DMatrixRMaj LU, int[] pivot, double normA ) {
+        if (LU.numRows != LU.numCols)
+            throw new IllegalArgumentException("LU must be square");
+        final int N = LU.numCols;
+        final double[] lu = LU.data;
+        if (hasZeroDiagonal(lu, N, N))
+            return 0;
+
+        vectorY.reshape(N);
+        final double[] y = vectorY.data;
+        return reciprocal(normA, estimateNorm1(N, ( x, transposed ) -> {
+            if (transposed) {
+                // A^-T = P^T*L^-T*U^-T
+                solveUpperTran(lu, N, N, false, x);
+                solveLowerTran(lu, N, N, true, x);
+                System.arraycopy(x, 0, y, 0, N);
+                for (int i = 0; i < N; i++) {
+                    x[pivot[i]] = y[i];
+                }
+            } else {
+                // A^-1 = U^-1*L^-1*P
+                for (int i = 0; i < N; i++) {
+                    y[i] = x[pivot[i]];
+                }
+                solveLower(lu, N, N, true, y);
+                solveUpper(lu, N, N, false, y);
+                System.arraycopy(y, 0, x, 0, N);
+            }
+        }));
+    }
+
+    /**
+     * Reciprocal condition number from a Cholesky decomposition, A = L*L<sup>T</sup> or A = R<sup>T</sup>*R.
+     *
+     * @param T The triangular factor. Not modified.
+     * @param lower true if T is lower triangular and false if upper triangular.
+     * @param normA ||A||<sub>1</sub>
+     * @return Estimate of 1/&kappa;<sub>1</sub>(A)
+     */
+    public double rcondCholesky( DMatrixRMaj T, boolean lower, double normA ) {
+        final int N = T.numCols;
+        final double[] t = T.data;
+        if (hasZeroDiagonal(t, N, N))
+            return 0;
+
+        // A^-1 is symmetric so transposed can be ignored
+        return reciprocal(normA, estimateNorm1(N, ( x, transposed ) -> {
+            if (lower) {
+                solveLower(t, N, N, false, x);
+                solveLowerTran(t, N, N, false, x);
+            } else {
+                solveUpperTran(t, N, N, false, x);
+                solveUpper(t, N, N, false, x);
+            }
+        }));
+    }
+
+    /**
+     * Estimates ||A||<sub>1</sub> from a Cholesky decomposition. Useful when A is no longer available, e.g.
+     * it was overwritten by the decomposition or the decomposition was updated.
+     *
+     * @param T The triangular factor. Not modified.
+     * @param lower true if T is lower triangular and false if upper triangular.
+     * @return Estimate of ||A||<sub>1</sub>
+     */
+    public double estimateNormCholesky( DMatrixRMaj T, boolean lower ) {
+        final int N = T.numCols;
+        final double[] t = T.data;
+        return estimateNorm1(N, ( x, transposed ) -> {
+            if (lower) {
+                multLowerTran(t, N, N, false, x);
+                multLower(t, N, N, false, x);
+            } else {
+                multUpper(t, N, N, false, x);
+                multUpperTran(t, N, N, false, x);
+            }
+        });
+    }
+
+    /**
+     * Reciprocal condition number from an LDL decomposition, A = L*D*L<sup>T</sup>, where L has a unit diagonal.
+     *
+     * @param L Lower triangular matrix. Not modified.
+     * @param d Diagonal elements in D. Not modified.
+     * @param normA ||A||<sub>1</sub>
+     * @return Estimate of 1/&kappa;<sub>1</sub>(A)
+     */
+    public double rcondLDL( DMatrixRMaj L, double[] d, double normA ) {
+        final int N = L.numCols;
+        final double[] l = L.data;
+        for (int i = 0; i < N; i++) {
+            if (d[i] == 0)
+                return 0;
+        }
+
+        return reciprocal(normA, estimateNorm1(N, ( x, transposed ) -> {
+            solveLower(l, N, N, true, x);
+            for (int i = 0; i < N; i++) {
+                x[i] /= d[i];
+            }
+            solveLowerTran(l, N, N, true, x);
+        }));
+    }
+
+    /**
+     * Estimates ||A||<sub>1</sub> from an LDL decomposition, A = L*D*L<sup>T</sup>.
+     *
+     * @param L Lower triangular matrix. Not modified.
+     * @param d Diagonal elements in D. Not modified.
+     * @return Estimate of ||A||<sub>1</sub>
+     */
+    public double estimateNormLDL( DMatrixRMaj L, double[] d ) {
+        final int N = L.numCols;
+        final double[] l = L.data;
+        return estimateNorm1(N, ( x, transposed ) -> {
+            multLowerTran(l, N, N, true, x);
+            for (int i = 0; i < N; i++) {
+                x[i] *= d[i];
+            }
+            multLower(l, N, N, true, x);
+        });
+    }
+
+    /**
+     * Reciprocal condition number of an N by N triangular matrix T, such as R in a QR decomposition. Since
+     * Q is orthogonal, R has the same 2-norm condition number as A.
+     *
+     * @param T Matrix containing the triangular matrix in its upper left corner. Not modified.
+     * @param N Number of rows and columns in the triangular matrix.
+     * @param upper true if the triangular matrix is stored in the upper triangle and false if in the lower.
+     * @param transposed If true the condition of the transpose of the stored triangular matrix is computed.
+     * Used when a decomposition stores R<sup>T</sup>.
+     * @return Estimate of 1/&kappa;<sub>1</sub>(T)
+     */
+    public double rcondTriangular( DMatrixRMaj T, int N, boolean upper, boolean transposed ) {
+        if (N > T.numRows || N > T.numCols)
+            throw new IllegalArgumentException("N is larger than T");
+        final double[] t = T.data;
+        final int stride = T.numCols;
+        if (hasZeroDiagonal(t, stride, N))
+            return 0;
+
+        // ||T^T||_1 is the largest row sum
+        vectorY.reshape(N);
+        final double[] sums = vectorY.data;
+        Arrays.fill(sums, 0, N, 0);
+        for (int i = 0; i < N; i++) {
+            int j0 = upper ? i : 0;
+            int j1 = upper ? N : i + 1;
+            for (int j = j0; j < j1; j++) {
+                sums[transposed ? i : j] += Math.abs(t[i*stride + j]);
+            }
+        }
+        double norm = 0;
+        for (int i = 0; i < N; i++) {
+            norm = Math.max(norm, sums[i]);
+        }
+
+        return reciprocal(norm, estimateNorm1(N, ( x, opTran ) -> {
+            // see if it's the inverse of the stored matrix or of its transpose
+            boolean inverseStored = transposed == opTran;
+            if (upper) {
+                if (inverseStored)
+                    solveUpper(t, stride, N, false, x);
+                else
+                    solveUpperTran(t, stride, N, false, x);
+            } else {
+                if (inverseStored)
+                    solveLower(t, stride, N, false, x);
+                else
+                    solveLowerTran(t, stride, N, false, x);
+            }
+        }));
+    }
+
+    /**
+     * Computes ||A||<sub>1</sub>, the largest sum of absolute values in a column, by traversing A one row at a time.
+     */
+    public double normP1( DMatrixRMaj A ) {
+        final int N = A.numCols;
+        vectorY.reshape(N);
+        final double[] sums = vectorY.data;
+        Arrays.fill(sums, 0, N, 0);
+        for (int i = 0; i < A.numRows; i++) {
+            int index = i*N;
+            for (int j = 0; j < N; j++) {
+                sums[j] += Math.abs(A.data[index + j]);
+            }
+        }
+        double norm = 0;
+        for (int j = 0; j < N; j++) {
+            norm = Math.max(norm, sums[j]);
+        }
+        return norm;
+    }
+
+    private static double reciprocal( double normA, double normInv ) {
+        if (normA == 0 || !(normInv < Double.POSITIVE_INFINITY))
+            return 0;
+        return (1.0/normInv)/normA;
+    }
+
+    private static boolean hasZeroDiagonal( double[] T, int stride, int N ) {
+        for (int i = 0; i < N; i++) {
+            if (T[i*stride + i] == 0)
+                return true;
+        }
+        return false;
+    }
+
+    private static double sumAbs( double[] x, int N ) {
+        double sum = 0;
+        for (int i = 0; i < N; i++) {
+            sum += Math.abs(x[i]);
+        }
+        return sum;
+    }
+
+    private static int indexMaxAbs( double[] x, int N ) {
+        int index = 0;
+        double max = Math.abs(x[0]);
+        for (int i = 1; i < N; i++) {
+            double v = Math.abs(x[i]);
+            if (v > max) {
+                max = v;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /** Solves L*x = b in place. Only the lower triangle is read. */
+    static void solveLower( double[] L, int stride, int N, boolean unit, double[] x ) {
+        for (int i = 0; i < N; i++) {
+            int index = i*stride;
+            double sum = x[i];
+            for (int j = 0; j < i; j++) {
+                sum -= L[index + j]*x[j];
+            }
+            x[i] = unit ? sum : sum/L[index + i];
+        }
+    }
+
+    /** Solves L<sup>T</sup>*x = b in place. Only the lower triangle is read. */
+    static void solveLowerTran( double[] L, int stride, int N, boolean unit, double[] x ) {
+        for (int i = N - 1; i >= 0; i--) {
+            int index = i*stride;
+            if (!unit)
+                x[i] /= L[index + i];
+            double xi = x[i];
+            for (int j = 0; j < i; j++) {
+                x[j] -= L[index + j]*xi;
+            }
+        }
+    }
+
+    /** Solves U*x = b in place. Only the upper triangle is read. */
+    static void solveUpper( double[] U, int stride, int N, boolean unit, double[] x ) {
+        for (int i = N - 1; i >= 0; i--) {
+            int index = i*stride;
+            double sum = x[i];
+            for (int j = i + 1; j < N; j++) {
+                sum -= U[index + j]*x[j];
+            }
+            x[i] = unit ? sum : sum/U[index + i];
+        }
+    }
+
+    /** Solves U<sup>T</sup>*x = b in place. Only the upper triangle is read. */
+    static void solveUpperTran( double[] U, int stride, int N, boolean unit, double[] x ) {
+        for (int i = 0; i < N; i++) {
+            int index = i*stride;
+            if (!unit)
+                x[i] /= U[index + i];
+            double xi = x[i];
+            for (int j = i + 1; j < N; j++) {
+                x[j] -= U[index + j]*xi;
+            }
+        }
+    }
+
+    /** x = L*x. Only the lower triangle is read. */
+    static void multLower( double[] L, int stride, int N, boolean unit, double[] x ) {
+        for (int i = N - 1; i >= 0; i--) {
+            int index = i*stride;
+            double sum = unit ? x[i] : L[index + i]*x[i];
+            for (int j = 0; j < i; j++) {
+                sum += L[index + j]*x[j];
+            }
+            x[i] = sum;
+        }
+    }
+
+    /** x = L<sup>T</sup>*x. Only the lower triangle is read. */
+    static void multLowerTran( double[] L, int stride, int N, boolean unit, double[] x ) {
+        for (int i = 0; i < N; i++) {
+            int index = i*stride;
+            double xi = x[i];
+            if (!unit)
+                x[i] = L[index + i]*xi;
+            for (int j = 0; j < i; j++) {
+                x[j] += L[index + j]*xi;
+            }
+        }
+    }
+
+    /** x = U*x. Only the upper triangle is read. */
+    static void multUpper( double[] U, int stride, int N, boolean unit, double[] x ) {
+        for (int i = 0; i < N; i++) {
+            int index = i*stride;
+            double sum = unit ? x[i] : U[index + i]*x[i];
+            for (int j = i + 1; j < N; j++) {
+                sum += U[index + j]*x[j];
+            }
+            x[i] = sum;
+        }
+    }
+
+    /** x = U<sup>T</sup>*x. Only the upper triangle is read. */
+    static void multUpperTran( double[] U, int stride, int N, boolean unit, double[] x ) {
+        for (int i = N - 1; i >= 0; i--) {
+            int index = i*stride;
+            double xi = x[i];
+            if (!unit)
+                x[i] = U[index + i]*xi;
+            for (int j = i + 1; j < N; j++) {
+                x[j] += U[index + j]*xi;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+/**
+ * <p>
+ * Pairwise summation of array elements. The array is recursively split in half and the sums of each half are
+ * added together. Rounding error grows with O(log n) instead of O(n) for a sequential sum while running at about
+ * the same speed, since the leaves are summed sequentially.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PairwiseSum_DDRM {
+    /** Number of elements which are summed sequentially */
+    public static final int LEAF = 128;
+
+    /**
+     * Sum of data[idx0:idx1-1]
+     */
+    public static double sum( double[] data, int idx0, int idx1 ) {
+        if (idx1 - idx0 <= LEAF) {
+            double total = 0;
+            for (int i = idx0; i < idx1; i++) {
+                total += data[i];
+            }
+            return total;
+        }
+        int middle = (idx0 + idx1) >>> 1;
+        return sum(data, idx0, middle) + sum(data, middle, idx1);
+    }
+
+    /**
+     * Sum of (data[i]*scale)<sup>2</sup> for i in idx0 to idx1-1
+     */
+    public static double sumSq( double[] data, int idx0, int idx1, double scale ) {
+        if (idx1 - idx0 <= LEAF) {
+            double total = 0;
+            for (int i = idx0; i < idx1; i++) {
+                double val = data[i]*scale;
+                total += val*val;
+            }
+            return total;
+        }
+        int middle = (idx0 + idx1) >>> 1;
+        return sumSq(data, idx0, middle, scale) + sumSq(data, middle, idx1, scale);
+    }
+
+    /**
+     * Sum of a[i]*b[i] for i in idx0 to idx1-1
+     */
+    public static double dot( double[] a, double[] b, int idx0, int idx1 ) {
+        if (idx1 - idx0 <= LEAF) {
+            double total = 0;
+            for (int i = idx0; i < idx1; i++) {
+                total += a[i]*b[i];
+            }
+            return total;
+        }
+        int middle = (idx0 + idx1) >>> 1;
+        return dot(a, b, idx0, middle) + dot(a, b, middle, idx1);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixStrided;
+
+/**
+ * <p>
+ * In-place decompositions of {@link DMatrixStrided}. These can be applied directly to a block inside of a larger
+ * matrix, e.g. the diagonal block of a partitioned system, without extracting it first.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StridedDecompose_DDRM {
+    /** Size of the diagonal blocks in the blocked Cholesky decomposition */
+    public static int BLOCK_LENGTH = EjmlParameters.BLOCK_WIDTH_CHOL;
+
+    /**
+     * <p>
+     * Computes the lower Cholesky decomposition, A = L*L<sup>T</sup>, in place. Only the lower triangle of A is
+     * read and the upper triangle is set to zero.
+     * </p>
+     *
+     * <p>
+     * The right-looking blocked algorithm is used. It's built out of views of A which are passed to
+     * {@link StridedTriangular_DDRM} and {@link StridedMult_DDRM}.
+     * </p>
+     *
+     * @return false if the matrix isn't positive definite
+     */
+    public static boolean cholesky( DMatrixStrided A ) {
+        if (A.numRows != A.numCols)
+            throw new MatrixDimensionException("Must be a square matrix");
+        final int N = A.numRows;
+
+        for (int k = 0; k < N; k += BLOCK_LENGTH) {
+            int width = Math.min(BLOCK_LENGTH, N - k);
+            DMatrixStrided A11 = A.view(k, k, width, width);
+            if (!choleskyInner(A11))
+                return false;
+
+            int remaining = N - k - width;
+            if (remaining == 0)
+                break;
+
+            // L21 = A21*inv(L11)'
+            DMatrixStrided A21 = A.view(k + width, k, remaining, width);
+            StridedTriangular_DDRM.solveRightTranL(A11, A21);
+
+            // A22 = A22 - L21*L21'
+            DMatrixStrided A22 = A.view(k + width, k + width, remaining, remaining);
+            StridedMult_DDRM.multTransB(-1.0, A21, A21, 1.0, A22);
+        }
+
+        for (int i = 0; i < N; i++) {
+            int index = A.offset + i*A.stride;
+            for (int j = i + 1; j < N; j++) {
+                A.data[index + j] = 0.0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unblocked Cholesky-Crout decomposition of the lower triangle
+     */
+    static boolean choleskyInner( DMatrixStrided A ) {
+        final double[] data = A.data;
+        final int N = A.numRows;
+        for (int i = 0; i < N; i++) {
+            int indexI = A.offset + i*A.stride;
+            for (int j = 0; j <= i; j++) {
+                int indexJ = A.offset + j*A.stride;
+                double sum = data[indexI + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= data[indexI + k]*data[indexJ + k];
+                }
+                if (i == j) {
+                    if (sum <= 0.0)
+                        return false;
+                    data[indexI + i] = Math.sqrt(sum);
+                } else {
+                    data[indexI + j] = sum/data[indexJ + j];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * Computes the LU decomposition with partial pivoting in place. Afterwards L is stored below the diagonal, with
+     * an implicit unit diagonal, and U on and above it.
+     * </p>
+     *
+     * <p>
+     * Pivots are recorded the same way as LAPACK's ipiv: at step k row k was swapped with row pivots[k]. Use
+     * {@link #swapRows} to apply them to a right hand side before calling
+     * {@link StridedTriangular_DDRM#solveL solveL(LU,B,true)} and {@link StridedTriangular_DDRM#solveU solveU(LU,B,false)}.
+     * </p>
+     *
+     * @param pivots (Output) Must have at least numRows elements.
+     * @return false if the matrix is singular
+     */
+    public static boolean lu( DMatrixStrided A, int[] pivots ) {
+        if (A.numRows != A.numCols)
+            throw new MatrixDimensionException("Must be a square matrix");
+        if (pivots.length < A.numRows)
+            throw new IllegalArgumentException("pivots is too short");
+
+        final double[] data = A.data;
+        final int N = A.numRows;
+        boolean singular = false;
+
+        for (int k = 0; k < N; k++) {
+            int p = k;
+            double max = Math.abs(data[A.getIndex(k, k)]);
+            for (int i = k + 1; i < N; i++) {
+                double v = Math.abs(data[A.getIndex(i, k)]);
+                if (v > max) {
+                    max = v;
+                    p = i;
+                }
+            }
+            pivots[k] = p;
+            if (p != k)
+                swapRows(data, A.getIndex(k, 0), A.getIndex(p, 0), N);
+
+            int indexK = A.getIndex(k, 0);
+            double diag = data[indexK + k];
+            if (diag == 0.0) {
+                singular = true;
+                continue;
+            }
+
+            for (int i = k + 1; i < N; i++) {
+                int indexI = A.getIndex(i, 0);
+                double l = data[indexI + k] /= diag;
+                if (l == 0.0)
+                    continue;
+                for (int j = k + 1; j < N; j++) {
+                    data[indexI + j] -= l*data[indexK + j];
+                }
+            }
+        }
+        return !singular;
+    }
+
+    /**
+     * Applies the row swaps computed by {@link #lu} to B, in order
+     */
+    public static void swapRows( DMatrixStrided B, int[] pivots, int numPivots ) {
+        for (int k = 0; k < numPivots; k++) {
+            int p = pivots[k];
+            if (p != k)
+                swapRows(B.data, B.getIndex(k, 0), B.getIndex(p, 0), B.numCols);
+        }
+    }
+
+    static void swapRows( double[] data, int indexA, int indexB, int length ) {
+        for (int j = 0; j < length; j++) {
+            double tmp = data[indexA + j];
+            data[indexA + j] = data[indexB + j];
+            data[indexB + j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixStrided;
+
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>
+ * Matrix multiplication for {@link DMatrixStrided}, C = &alpha;*op(A)*op(B) + &beta;*C. Since views reference
+ * existing memory the output must already have the correct shape and must not overlap with either input. If
+ * &beta; is zero then the original contents of C are ignored.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StridedMult_DDRM {
+    /**
+     * C = A*B
+     */
+    public static void mult( DMatrixStrided A, DMatrixStrided B, DMatrixStrided C ) {
+        mult(1.0, A, B, 0.0, C);
+    }
+
+    /**
+     * C = &alpha;*A*B + &beta;*C
+     */
+    public static void mult( double alpha, DMatrixStrided A, DMatrixStrided B, double beta, DMatrixStrided C ) {
+        if (A.numCols != B.numRows || C.numRows != A.numRows || C.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B, C));
+        checkOverlap(A, B, C);
+
+        final double[] dataA = A.data, dataB = B.data, dataC = C.data;
+        final int N = C.numCols;
+
+        for (int i = 0; i < A.numRows; i++) {
+            int indexC = C.offset + i*C.stride;
+            scaleRow(beta, dataC, indexC, N);
+
+            int indexA = A.offset + i*A.stride;
+            for (int k = 0; k < A.numCols; k++) {
+                double valA = alpha*dataA[indexA + k];
+                int indexB = B.offset + k*B.stride;
+                for (int j = 0; j < N; j++) {
+                    dataC[indexC + j] += valA*dataB[indexB + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * C = &alpha;*A<sup>T</sup>*B + &beta;*C
+     */
+    public static void multTransA( double alpha, DMatrixStrided A, DMatrixStrided B, double beta, DMatrixStrided C ) {
+        if (A.numRows != B.numRows || C.numRows != A.numCols || C.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B, C));
+        checkOverlap(A, B, C);
+
+        final double[] dataA = A.data, dataB = B.data, dataC = C.data;
+        final int N = C.numCols;
+
+        for (int i = 0; i < C.numRows; i++) {
+            scaleRow(beta, dataC, C.offset + i*C.stride, N);
+        }
+
+        // go through the rows of A and B together so that both are read in order
+        for (int k = 0; k < A.numRows; k++) {
+            int indexA = A.offset + k*A.stride;
+            int indexB = B.offset + k*B.stride;
+            for (int i = 0; i < A.numCols; i++) {
+                double valA = alpha*dataA[indexA + i];
+                int indexC = C.offset + i*C.stride;
+                for (int j = 0; j < N; j++) {
+                    dataC[indexC + j] += valA*dataB[indexB + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * C = &alpha;*A*B<sup>T</sup> + &beta;*C
+     */
+    public static void multTransB( double alpha, DMatrixStrided A, DMatrixStrided B, double beta, DMatrixStrided C ) {
+        if (A.numCols != B.numCols || C.numRows != A.numRows || C.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B, C));
+        checkOverlap(A, B, C);
+
+        final double[] dataA = A.data, dataB = B.data, dataC = C.data;
+        final int K = A.numCols;
+
+        for (int i = 0; i < C.numRows; i++) {
+            int indexA = A.offset + i*A.stride;
+            int indexC = C.offset + i*C.stride;
+            for (int j = 0; j < C.numCols; j++) {
+                int indexB = B.offset + j*B.stride;
+                double sum = 0;
+                for (int k = 0; k < K; k++) {
+                    sum += dataA[indexA + k]*dataB[indexB + k];
+                }
+                sum *= alpha;
+                dataC[indexC + j] = beta == 0.0 ? sum : beta*dataC[indexC + j] + sum;
+            }
+        }
+    }
+
+    static void scaleRow( double beta, double[] data, int index, int length ) {
+        if (beta == 0.0) {
+            for (int j = 0; j < length; j++) {
+                data[index + j] = 0.0;
+            }
+        } else if (beta != 1.0) {
+            for (int j = 0; j < length; j++) {
+                data[index + j] *= beta;
+            }
+        }
+    }
+
+    static void checkOverlap( DMatrixStrided A, DMatrixStrided B, DMatrixStrided C ) {
+        if (C.overlaps(A) || C.overlaps(B))
+            throw new IllegalArgumentException("Output can't overlap with the inputs");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixStrided;
+
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * Element-wise operations for {@link DMatrixStrided}. The output must already have the correct shape. Unless
+ * stated otherwise it can be the same view as an input, but must not partially overlap with one.
+ *
+ * @author Peter Abeles
+ */
+public class StridedOps_DDRM {
+    /**
+     * C = &alpha;*A + &beta;*B
+     */
+    public static void add( double alpha, DMatrixStrided A, double beta, DMatrixStrided B, DMatrixStrided C ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols || A.numRows != C.numRows || A.numCols != C.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B, C));
+
+        for (int i = 0; i < A.numRows; i++) {
+            int indexA = A.offset + i*A.stride;
+            int indexB = B.offset + i*B.stride;
+            int indexC = C.offset + i*C.stride;
+            for (int j = 0; j < A.numCols; j++) {
+                C.data[indexC + j] = alpha*A.data[indexA + j] + beta*B.data[indexB + j];
+            }
+        }
+    }
+
+    /**
+     * A = &alpha;*A
+     */
+    public static void scale( double alpha, DMatrixStrided A ) {
+        for (int i = 0; i < A.numRows; i++) {
+            int index = A.offset + i*A.stride;
+            for (int j = 0; j < A.numCols; j++) {
+                A.data[index + j] *= alpha;
+            }
+        }
+    }
+
+    /**
+     * Sets every element to the value
+     */
+    public static void fill( DMatrixStrided A, double value ) {
+        for (int i = 0; i < A.numRows; i++) {
+            int index = A.offset + i*A.stride;
+            for (int j = 0; j < A.numCols; j++) {
+                A.data[index + j] = value;
+            }
+        }
+    }
+
+    /**
+     * Copies the elements in src into dst. Replaces extract() and insert() when both are views.
+     */
+    public static void copy( DMatrixStrided src, DMatrixStrided dst ) {
+        if (src.numRows != dst.numRows || src.numCols != dst.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(src, dst));
+        dst.setTo(src);
+    }
+
+    /**
+     * Writes the transpose of A into B. B can't overlap with A.
+     */
+    public static void transpose( DMatrixStrided A, DMatrixStrided B ) {
+        if (A.numRows != B.numCols || A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        if (A.overlaps(B))
+            throw new IllegalArgumentException("Output can't overlap with the input");
+
+        for (int i = 0; i < A.numRows; i++) {
+            int indexA = A.offset + i*A.stride;
+            for (int j = 0; j < A.numCols; j++) {
+                B.data[B.offset + j*B.stride + i] = A.data[indexA + j];
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixStrided;
+
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>
+ * Triangular solvers for {@link DMatrixStrided}. The solution is written into B, which must not overlap with the
+ * triangular matrix. Only the relevant triangle of the square matrix is read, so L and U can be stored in the same
+ * view, e.g. the output of an in-place LU decomposition. All of the loops go along rows.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StridedTriangular_DDRM {
+    /**
+     * Solves L*X = B for X, where L is lower triangular.
+     *
+     * @param unit If true the diagonal of L is assumed to be all ones and isn't read
+     */
+    public static void solveL( DMatrixStrided L, DMatrixStrided B, boolean unit ) {
+        checkLeft(L, B);
+        final int N = B.numCols;
+        for (int i = 0; i < L.numRows; i++) {
+            int indexL = L.offset + i*L.stride;
+            int indexBi = B.offset + i*B.stride;
+            for (int k = 0; k < i; k++) {
+                axpy(-L.data[indexL + k], B.data, B.offset + k*B.stride, indexBi, N);
+            }
+            if (!unit)
+                scale(1.0/L.data[indexL + i], B.data, indexBi, N);
+        }
+    }
+
+    /**
+     * Solves U*X = B for X, where U is upper triangular.
+     *
+     * @param unit If true the diagonal of U is assumed to be all ones and isn't read
+     */
+    public static void solveU( DMatrixStrided U, DMatrixStrided B, boolean unit ) {
+        checkLeft(U, B);
+        final int N = B.numCols;
+        for (int i = U.numRows - 1; i >= 0; i--) {
+            int indexU = U.offset + i*U.stride;
+            int indexBi = B.offset + i*B.stride;
+            for (int k = i + 1; k < U.numCols; k++) {
+                axpy(-U.data[indexU + k], B.data, B.offset + k*B.stride, indexBi, N);
+            }
+            if (!unit)
+                scale(1.0/U.data[indexU + i], B.data, indexBi, N);
+        }
+    }
+
+    /**
+     * Solves L<sup>T</sup>*X = B for X, where L is lower triangular.
+     */
+    public static void solveTranL( DMatrixStrided L, DMatrixStrided B ) {
+        checkLeft(L, B);
+        final int N = B.numCols;
+        for (int i = L.numRows - 1; i >= 0; i--) {
+            int indexL = L.offset + i*L.stride;
+            int indexBi = B.offset + i*B.stride;
+            scale(1.0/L.data[indexL + i], B.data, indexBi, N);
+            for (int k = 0; k < i; k++) {
+                axpy(-L.data[indexL + k], B.data, indexBi, B.offset + k*B.stride, N);
+            }
+        }
+    }
+
+    /**
+     * Solves X*L<sup>T</sup> = B for X, where L is lower triangular.
+     */
+    public static void solveRightTranL( DMatrixStrided L, DMatrixStrided B ) {
+        if (L.numRows != L.numCols || L.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(L, B));
+        if (L.overlaps(B))
+            throw new IllegalArgumentException("B can't overlap with the triangular matrix");
+
+        final int N = L.numRows;
+        for (int r = 0; r < B.numRows; r++) {
+            int indexB = B.offset + r*B.stride;
+            for (int j = 0; j < N; j++) {
+                int indexL = L.offset + j*L.stride;
+                double sum = B.data[indexB + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= L.data[indexL + k]*B.data[indexB + k];
+                }
+                B.data[indexB + j] = sum/L.data[indexL + j];
+            }
+        }
+    }
+
+    static void checkLeft( DMatrixStrided T, DMatrixStrided B ) {
+        if (T.numRows != T.numCols || T.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(T, B));
+        if (T.overlaps(B))
+            throw new IllegalArgumentException("B can't overlap with the triangular matrix");
+    }
+
+    /** dst += alpha*src */
+    static void axpy( double alpha, double[] data, int src, int dst, int length ) {
+        if (alpha == 0.0)
+            return;
+        for (int j = 0; j < length; j++) {
+            data[dst + j] += alpha*data[src + j];
+        }
+    }
+
+    static void scale( double alpha, double[] data, int index, int length ) {
+        for (int j = 0; j < length; j++) {
+            data[index + j] *= alpha;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.OffHeapArena;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCommonOps_DDOH extends EjmlStandardJUnit {
+    int originalPanel = MatrixMult_DDOH.PANEL_ELEMENTS;
+
+    @AfterEach
+    void resetPanel() {
+        MatrixMult_DDOH.PANEL_ELEMENTS = originalPanel;
+    }
+
+    /**
+     * Small blocks so that rows cross block boundaries
+     */
+    public static DMatrixOffHeap convert( DMatrixRMaj A ) {
+        var ret = new DMatrixOffHeap(A.numRows, A.numCols, 4);
+        ret.setTo(A);
+        return ret;
+    }
+
+    public static void assertIdentical( DMatrixRMaj expected, DMatrixOffHeap found ) {
+        DMatrixRMaj found_rm = CommonOps_DDOH.convert(found, (DMatrixRMaj)null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found_rm, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    void mult() {
+        // a small panel forces multiple passes over the output
+        MatrixMult_DDOH.PANEL_ELEMENTS = 20;
+        int[][] shapes = {{1, 1, 1}, {4, 7, 3}, {10, 12, 9}, {3, 0, 4}, {1, 20, 33}};
+        for (int[] s : shapes) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(s[0], s[1], -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(s[1], s[2], -1, 1, rand);
+            DMatrixRMaj expected = CommonOps_DDRM.mult(A, B, null);
+
+            DMatrixOffHeap C = CommonOps_DDOH.mult(convert(A), convert(B), null);
+            assertIdentical(expected, C);
+
+            // output with a different shape
+            C = new DMatrixOffHeap(2, 2);
+            CommonOps_DDOH.mult(convert(A), convert(B), C);
+            assertIdentical(expected, C);
+        }
+    }
+
+    @Test
+    void mult_errors() {
+        DMatrixOffHeap A = new DMatrixOffHeap(3, 4);
+        DMatrixOffHeap B = new DMatrixOffHeap(3, 4);
+        assertThrows(RuntimeException.class, () -> CommonOps_DDOH.mult(A, B, null));
+
+        DMatrixOffHeap C = new DMatrixOffHeap(4, 4);
+        assertThrows(IllegalArgumentException.class, () -> CommonOps_DDOH.mult(C, C, C));
+    }
+
+    @Test
+    void add_subtract_scale() {
+        int original = CommonOps_DDOH.CHUNK_LENGTH;
+        CommonOps_DDOH.CHUNK_LENGTH = 7;
+        try {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6, 5, -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6, 5, -1, 1, rand);
+
+            assertIdentical(CommonOps_DDRM.add(A, B, null), CommonOps_DDOH.add(convert(A), convert(B), null));
+            assertIdentical(CommonOps_DDRM.subtract(A, B, null),
+                    CommonOps_DDOH.subtract(convert(A), convert(B), null));
+            assertIdentical(CommonOps_DDRM.add(2.0, A, -0.5, B, null),
+                    CommonOps_DDOH.add(2.0, convert(A), -0.5, convert(B), null));
+            DMatrixRMaj scaled = new DMatrixRMaj(1, 1);
+            CommonOps_DDRM.scale(1.5, A, scaled);
+            assertIdentical(scaled, CommonOps_DDOH.scale(1.5, convert(A), null));
+
+            // output is also an input
+            DMatrixOffHeap a = convert(A);
+            CommonOps_DDOH.add(a, convert(B), a);
+            assertIdentical(CommonOps_DDRM.add(A, B, null), a);
+        } finally {
+            CommonOps_DDOH.CHUNK_LENGTH = original;
+        }
+    }
+
+    @Test
+    void transpose() {
+        int original = CommonOps_DDOH.TRANSPOSE_TILE;
+        CommonOps_DDOH.TRANSPOSE_TILE = 3;
+        try {
+            for (int[] s : new int[][]{{1, 1}, {5, 7}, {8, 2}, {6, 6}}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(s[0], s[1], -1, 1, rand);
+                assertIdentical(CommonOps_DDRM.transpose(A, null), CommonOps_DDOH.transpose(convert(A), null));
+            }
+        } finally {
+            CommonOps_DDOH.TRANSPOSE_TILE = original;
+        }
+    }
+
+    @Test
+    void convert_both() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6, 5, -1, 1, rand);
+        DMatrixOffHeap found = CommonOps_DDOH.convert(A, (DMatrixOffHeap)null);
+        assertIdentical(A, found);
+        DMatrixRMaj back = CommonOps_DDOH.convert(found, new DMatrixRMaj(1, 1));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A, back, 0.0));
+    }
+
+    /**
+     * Outputs which are declared by an operation belong to the input's arena
+     */
+    @Test
+    void declaredOutputInArena() {
+        try (var arena = new OffHeapArena()) {
+            DMatrixOffHeap A = arena.create(3, 3);
+            DMatrixOffHeap C = CommonOps_DDOH.mult(A, A, null);
+            assertEquals(2, arena.size());
+            arena.close();
+            assertTrue(C.isClosed());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.ejml.dense.offheap.TestCommonOps_DDOH.assertIdentical;
+import static org.ejml.dense.offheap.TestCommonOps_DDOH.convert;
+
+public class TestCommonOps_MT_DDOH extends EjmlStandardJUnit {
+    int originalPanel = MatrixMult_DDOH.PANEL_ELEMENTS;
+
+    @BeforeEach
+    void setup() {
+        EjmlConcurrency.setMaxThreads(4);
+        MatrixMult_DDOH.PANEL_ELEMENTS = 30;
+    }
+
+    @AfterEach
+    void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+        MatrixMult_DDOH.PANEL_ELEMENTS = originalPanel;
+    }
+
+    @Test
+    void mult() {
+        int[][] shapes = {{1, 1, 1}, {4, 7, 3}, {31, 12, 9}, {3, 0, 4}, {50, 20, 5}};
+        for (int[] s : shapes) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(s[0], s[1], -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(s[1], s[2], -1, 1, rand);
+            DMatrixRMaj expected = CommonOps_DDRM.mult(A, B, null);
+
+            DMatrixOffHeap C = CommonOps_MT_DDOH.mult(convert(A), convert(B), null);
+            assertIdentical(expected, C);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.ejml.dense.offheap.TestCommonOps_DDOH.assertIdentical;
+import static org.ejml.dense.offheap.TestCommonOps_DDOH.convert;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLinearSolverChol_DDOH extends EjmlStandardJUnit {
+    int originalBatch = TriangularSolver_DDOH.BATCH_ELEMENTS;
+
+    @AfterEach
+    void reset() {
+        TriangularSolver_DDOH.BATCH_ELEMENTS = originalBatch;
+    }
+
+    @Test
+    void decompose() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(9, rand);
+
+        var alg = new CholeskyDecomposition_DDOH();
+        DMatrixOffHeap a = convert(A);
+        assertTrue(alg.decompose(a));
+
+        // decomposed in place
+        DMatrixOffHeap L = alg.getT(null);
+        assertSame(a, L);
+        assertEquals(0.0, L.get(0, 4));
+
+        DMatrixOffHeap found = CommonOps_DDOH.mult(L, CommonOps_DDOH.transpose(L, null), null);
+        assertIdentical(A, found);
+
+        assertEquals(CommonOps_DDRM.det(A), alg.computeDeterminant().real, UtilEjml.TEST_F64*100);
+    }
+
+    @Test
+    void decompose_notSPD() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(5, rand);
+        A.set(3, 3, -1);
+        assertFalse(new CholeskyDecomposition_DDOH().decompose(convert(A)));
+    }
+
+    @Test
+    void solve() {
+        // forces B to be processed in several batches
+        TriangularSolver_DDOH.BATCH_ELEMENTS = 16;
+
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(8, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(8, 5, -1, 1, rand);
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        assertTrue(CommonOps_DDRM.solve(A, B, expected));
+
+        var solver = new LinearSolverChol_DDOH();
+        assertTrue(solver.setA(convert(A)));
+        assertTrue(solver.quality() > 0);
+
+        DMatrixOffHeap X = new DMatrixOffHeap(1, 1);
+        solver.solve(convert(B), X);
+        assertIdentical(expected, X);
+
+        // B and X can be the same instance
+        DMatrixOffHeap b = convert(B);
+        solver.solve(b, b);
+        assertIdentical(expected, b);
+    }
+}
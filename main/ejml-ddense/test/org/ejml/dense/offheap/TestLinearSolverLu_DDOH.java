@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.offheap;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.ejml.dense.offheap.TestCommonOps_DDOH.assertIdentical;
+import static org.ejml.dense.offheap.TestCommonOps_DDOH.convert;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLinearSolverLu_DDOH extends EjmlStandardJUnit {
+    int originalBatch = TriangularSolver_DDOH.BATCH_ELEMENTS;
+
+    @AfterEach
+    void reset() {
+        TriangularSolver_DDOH.BATCH_ELEMENTS = originalBatch;
+    }
+
+    /**
+     * P<sup>T</sup>*L*U = A
+     */
+    @Test
+    void decompose() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(9, 9, -1, 1, rand);
+
+        var alg = new LUDecomposition_DDOH();
+        assertTrue(alg.decompose(convert(A)));
+        assertFalse(alg.isSingular());
+
+        DMatrixOffHeap L = alg.getLower(null);
+        DMatrixOffHeap U = alg.getUpper(null);
+        DMatrixOffHeap P = alg.getRowPivot(null);
+
+        DMatrixOffHeap LU = CommonOps_DDOH.mult(L, U, null);
+        DMatrixOffHeap found = CommonOps_DDOH.mult(CommonOps_DDOH.transpose(P, null), LU, null);
+        assertIdentical(A, found);
+
+        assertEquals(CommonOps_DDRM.det(A), alg.computeDeterminant().real, UtilEjml.TEST_F64);
+
+        int[] pivot = alg.getRowPivotV(null);
+        for (int i = 0; i < 9; i++) {
+            assertEquals(1.0, P.get(i, pivot[i]));
+        }
+    }
+
+    @Test
+    void singular() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6, 6, -1, 1, rand);
+        for (int col = 0; col < 6; col++) {
+            A.set(4, col, A.get(1, col)*2);
+        }
+        var solver = new LinearSolverLu_DDOH();
+        solver.setA(convert(A));
+        assertTrue(solver.quality() < UtilEjml.TEST_F64);
+    }
+
+    @Test
+    void solve() {
+        TriangularSolver_DDOH.BATCH_ELEMENTS = 14;
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(7, 7, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(7, 4, -1, 1, rand);
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        assertTrue(CommonOps_DDRM.solve(A, B, expected));
+
+        var solver = new LinearSolverLu_DDOH();
+        assertTrue(solver.setA(convert(A)));
+
+        DMatrixOffHeap X = new DMatrixOffHeap(1, 1);
+        solver.solve(convert(B), X);
+        assertIdentical(expected, X);
+
+        DMatrixOffHeap b = convert(B);
+        solver.solve(b, b);
+        assertIdentical(expected, b);
+    }
+}
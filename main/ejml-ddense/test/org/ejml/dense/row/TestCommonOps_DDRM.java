@@ -20,12 +20,16 @@ package org.ejml.dense.row;
 
 import org.ejml.EjmlStandardJUnit;
 import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
 import org.ejml.data.*;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
 import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
 import org.ejml.dense.row.mult.CheckMatrixMultShape_DDRM;
 import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.instrument.EjmlInstrumentation;
+import org.ejml.instrument.OperationFamily;
+import org.ejml.instrument.OperationStats;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.InvocationTargetException;
@@ -34,6 +38,7 @@ import java.util.Arrays;
 
 import static org.ejml.UtilEjml.checkSameShape;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestCommonOps_DDRM extends EjmlStandardJUnit {
@@ -1705,6 +1710,59 @@ public class TestCommonOps_DDRM extends EjmlStandardJUnit {
         assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
     }
 
+    /**
+     * Compare the bit packed comparisons against the boolean matrix versions. The matrix is large enough for
+     * the elements to span multiple words and for the last word to be partially filled.
+     */
+    @Test
+    public void elementCompareBits() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(13, 11, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(13, 11, rand);
+        A.data[100] = B.data[100];
+        A.data[20] = 0.1;
+        double value = 0.1;
+
+        var expected = new BMatrixRMaj(1, 1);
+        var found = new BMatrixRMaj(1, 1);
+
+        CommonOps_DDRM.elementLessThan(A, value, expected);
+        CommonOps_DDRM.elementLessThanBits(A, value, null).copyInto(found);
+        assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
+
+        CommonOps_DDRM.elementLessThanOrEqual(A, value, expected);
+        CommonOps_DDRM.elementLessThanOrEqualBits(A, value, null).copyInto(found);
+        assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
+
+        CommonOps_DDRM.elementMoreThan(A, value, expected);
+        CommonOps_DDRM.elementMoreThanBits(A, value, null).copyInto(found);
+        assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
+
+        CommonOps_DDRM.elementMoreThanOrEqual(A, value, expected);
+        CommonOps_DDRM.elementMoreThanOrEqualBits(A, value, null).copyInto(found);
+        assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
+
+        CommonOps_DDRM.elementLessThan(A, B, expected);
+        CommonOps_DDRM.elementLessThanBits(A, B, null).copyInto(found);
+        assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
+
+        BMatrixBits bits = CommonOps_DDRM.elementLessThanOrEqualBits(A, B, null);
+        bits.copyInto(found);
+        CommonOps_DDRM.elementLessThanOrEqual(A, B, expected);
+        assertTrue(MatrixFeatures_DDRM.isEquals(expected, found));
+        assertEquals(CommonOps_DDRM.countTrue(expected), CommonOps_DDRM.countTrue(bits));
+    }
+
+    @Test
+    public void elements_bits() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(9, 17, rand);
+        BMatrixRMaj B = RandomMatrices_DDRM.randomBinary(9, 17, rand);
+
+        DMatrixRMaj expected = CommonOps_DDRM.elements(A, B, null);
+        DMatrixRMaj found = CommonOps_DDRM.elements(A, new BMatrixBits(B), null);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, 0.0));
+    }
+
     @Test
     public void elements() {
         DMatrixRMaj A = RandomMatrices_DDRM.rectangle(3, 4, rand);
@@ -1891,4 +1949,42 @@ public class TestCommonOps_DDRM extends EjmlStandardJUnit {
         checkSameShape(A, B, false);
         assertTrue(Arrays.equals(expectedResult, B.data));
     }
+
+    /**
+     * Sanity check instrumentation of a few operations
+     */
+    @Test
+    public void instrumentation() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(10, 4, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(4, 6, rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.symmetricPosDef(8, rand);
+
+        EjmlInstrumentation.reset();
+        EjmlInstrumentation.setEnabled(true);
+        try {
+            CommonOps_DDRM.mult(A, B, null);
+            CommonOps_DDRM.multTransB(A, A, null);
+            CommonOps_MT_DDRM.mult(A, B, null);
+            CommonOps_DDRM.invert(C, new DMatrixRMaj(1, 1));
+
+            OperationStats mult = EjmlInstrumentation.snapshot(OperationFamily.MULT);
+            assertEquals(3, mult.getCount());
+            assertEquals(1, mult.getCountConcurrent());
+            assertEquals(2.0*(10*6*4 + 10*10*4 + 10*6*4), mult.getTotalFlops(), UtilEjml.TEST_F64);
+            assertEquals(10, mult.getLargestRows());
+            assertEquals(10, mult.getLargestCols());
+
+            assertEquals(1, EjmlInstrumentation.snapshot(OperationFamily.INVERT).getCount());
+            // inverse is computed using LU, which is only attributed to the inverse
+            assertEquals(0, EjmlInstrumentation.snapshot(OperationFamily.LU).getCount());
+
+            // failures must not leave the thread inside of the composite
+            assertThrows(MatrixDimensionException.class, () -> CommonOps_DDRM.invert(A, new DMatrixRMaj(1, 1)));
+            CommonOps_DDRM.mult(A, B, null);
+            assertEquals(4, EjmlInstrumentation.snapshot(OperationFamily.MULT).getCount());
+        } finally {
+            EjmlInstrumentation.setEnabled(false);
+            EjmlInstrumentation.reset();
+        }
+    }
 }
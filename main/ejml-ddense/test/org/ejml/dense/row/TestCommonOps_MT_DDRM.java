@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the reductions in {@link CommonOps_MT_DDRM}. Functions which are direct equivalents of
+ * single threaded functions are tested elsewhere.
+ *
+ * @author Peter Abeles
+ */
+public class TestCommonOps_MT_DDRM extends EjmlStandardJUnit {
+    int minBlock = CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK;
+
+    // Force it to split the work into several blocks
+    @BeforeEach void forceBlocks() {
+        EjmlConcurrency.setMaxThreads(4);
+        CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK = 10;
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+        CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK = minBlock;
+    }
+
+    @Test void elementSum() {
+        for (int size : new int[]{0, 1, 9, 40, 131}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size, 3, -1, 1, rand);
+            assertEquals(CommonOps_DDRM.elementSum(A), CommonOps_MT_DDRM.elementSum(A), UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void elementMaxAbs() {
+        for (int size : new int[]{0, 1, 9, 40, 131}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size, 3, -1, 1, rand);
+            assertEquals(CommonOps_DDRM.elementMaxAbs(A), CommonOps_MT_DDRM.elementMaxAbs(A));
+        }
+    }
+
+    @Test void dot() {
+        for (int size : new int[]{1, 9, 40, 131}) {
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(size, 1, -1, 1, rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(1, size, -1, 1, rand);
+            assertEquals(VectorVectorMult_DDRM.innerProd(a, b), CommonOps_MT_DDRM.dot(a, b), UtilEjml.TEST_F64);
+        }
+
+        assertThrows(MatrixDimensionException.class,
+                () -> CommonOps_MT_DDRM.dot(new DMatrixRMaj(5, 1), new DMatrixRMaj(4, 1)));
+        assertThrows(RuntimeException.class,
+                () -> CommonOps_MT_DDRM.dot(new DMatrixRMaj(2, 2), new DMatrixRMaj(4, 1)));
+    }
+
+    /**
+     * Pairwise summation should be much more accurate than naive summation when there are many elements
+     */
+    @Test void elementSum_accuracy() {
+        CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK = minBlock;
+        var A = new DMatrixRMaj(1, 1_000_000);
+        A.fill(0.1);
+        // with the naive sum error accumulates to around 1e-6
+        assertEquals(100_000.0, CommonOps_MT_DDRM.elementSum(A), 1e-8);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCovarianceAccumulator_DDRM extends EjmlStandardJUnit {
+    @Test void addVectors() {
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(30, 6, -2, 3, rand);
+
+        CovarianceAccumulator_DDRM alg = new CovarianceAccumulator_DDRM(6);
+        for (int row = 0; row < X.numRows; row++) {
+            if (row%2 == 0) {
+                alg.add(CommonOps_DDRM.extractRow(X, row, null));
+            } else {
+                alg.add(CommonOps_DDRM.extractRow(X, row, null).data);
+            }
+        }
+
+        checkAgainstTwoPass(X, alg);
+    }
+
+    /**
+     * Try different block sizes so that batches are split and the last block has a single row
+     */
+    @Test void addBatch() {
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(31, 7, -2, 3, rand);
+
+        for (int blockRows : new int[]{1, 2, 5, 30, 128}) {
+            CovarianceAccumulator_DDRM alg = new CovarianceAccumulator_DDRM(7);
+            alg.setBlockRows(blockRows);
+            alg.addBatch(X);
+            checkAgainstTwoPass(X, alg);
+        }
+
+        // a single vector, batches, then another vector
+        CovarianceAccumulator_DDRM alg = new CovarianceAccumulator_DDRM(7);
+        alg.setBlockRows(4);
+        alg.add(CommonOps_DDRM.extractRow(X, 0, null));
+        alg.addBatch(X, 1, 11);
+        alg.addBatch(X, 11, 30);
+        alg.add(CommonOps_DDRM.extractRow(X, 30, null));
+        checkAgainstTwoPass(X, alg);
+    }
+
+    @Test void merge() {
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(40, 5, -2, 3, rand);
+
+        CovarianceAccumulator_DDRM a = new CovarianceAccumulator_DDRM(5);
+        CovarianceAccumulator_DDRM b = new CovarianceAccumulator_DDRM(5);
+        CovarianceAccumulator_DDRM empty = new CovarianceAccumulator_DDRM(5);
+
+        a.addBatch(X, 0, 13);
+        b.addBatch(X, 13, 40);
+        a.merge(empty);
+        a.merge(b);
+        assertEquals(27, b.getCount());
+        checkAgainstTwoPass(X, a);
+
+        // merging into an empty accumulator
+        empty.merge(a);
+        checkAgainstTwoPass(X, empty);
+
+        assertThrows(MatrixDimensionException.class, () -> a.merge(new CovarianceAccumulator_DDRM(4)));
+    }
+
+    /**
+     * The naive sum of squares approach has catastrophic cancellation when the mean is large relative to the
+     * standard deviation.
+     */
+    @Test void largeMean() {
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(200, 3, -1, 1, rand);
+        DMatrixRMaj offset = X.copy();
+        CommonOps_DDRM.add(offset, 1e8);
+
+        CovarianceAccumulator_DDRM alg = new CovarianceAccumulator_DDRM(3);
+        alg.setBlockRows(16);
+        for (int row = 0; row < 100; row++) {
+            alg.add(CommonOps_DDRM.extractRow(offset, row, null));
+        }
+        alg.addBatch(offset, 100, 200);
+
+        DMatrixRMaj expected = twoPassCovariance(X, 1);
+        EjmlUnitTests.assertEquals(expected, alg.getCovariance(null), 1e-6);
+    }
+
+    @Test void reset() {
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(10, 3, -1, 1, rand);
+        CovarianceAccumulator_DDRM alg = new CovarianceAccumulator_DDRM(3);
+        alg.addBatch(RandomMatrices_DDRM.rectangle(10, 3, 5, 10, rand));
+        alg.reset();
+        assertEquals(0, alg.getCount());
+        alg.addBatch(X);
+        checkAgainstTwoPass(X, alg);
+    }
+
+    @Test void checkArguments() {
+        CovarianceAccumulator_DDRM alg = new CovarianceAccumulator_DDRM(3);
+        assertThrows(MatrixDimensionException.class, () -> alg.add(new DMatrixRMaj(4, 1)));
+        assertThrows(MatrixDimensionException.class, () -> alg.add(new DMatrixRMaj(3, 3)));
+        assertThrows(MatrixDimensionException.class, () -> alg.addBatch(new DMatrixRMaj(2, 4)));
+        assertThrows(IllegalArgumentException.class, () -> alg.getCovariancePopulation(null));
+        alg.add(new double[3]);
+        assertThrows(IllegalArgumentException.class, () -> alg.getCovariance(null));
+    }
+
+    static void checkAgainstTwoPass( DMatrixRMaj X, CovarianceAccumulator_DDRM alg ) {
+        assertEquals(X.numRows, alg.getCount());
+
+        DMatrixRMaj mean = CommonOps_DDRM.sumCols(X, null);
+        CommonOps_DDRM.divide(mean, X.numRows);
+        mean.reshape(X.numCols, 1);
+        EjmlUnitTests.assertEquals(mean, alg.getMean(null), UtilEjml.TEST_F64);
+
+        EjmlUnitTests.assertEquals(twoPassCovariance(X, 1), alg.getCovariance(null), UtilEjml.TEST_F64);
+        EjmlUnitTests.assertEquals(twoPassCovariance(X, 0), alg.getCovariancePopulation(null), UtilEjml.TEST_F64);
+        assertTrue(MatrixFeatures_DDRM.isSymmetric(alg.getScatter()));
+    }
+
+    /**
+     * Computes the covariance by subtracting the mean from every row then dividing the sum of outer products
+     * by N - correction
+     */
+    static DMatrixRMaj twoPassCovariance( DMatrixRMaj X, int correction ) {
+        DMatrixRMaj mean = CommonOps_DDRM.sumCols(X, null);
+        CommonOps_DDRM.divide(mean, X.numRows);
+
+        DMatrixRMaj centered = X.copy();
+        for (int row = 0; row < X.numRows; row++) {
+            for (int col = 0; col < X.numCols; col++) {
+                centered.data[row*X.numCols + col] -= mean.data[col];
+            }
+        }
+        DMatrixRMaj cov = CommonOps_DDRM.multTransA(centered, centered, null);
+        CommonOps_DDRM.divide(cov, X.numRows - correction);
+        return cov;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestCovarianceAccumulator_MT_DDRM extends EjmlStandardJUnit {
+    // Force it to split the work into several blocks
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test void addBatch() {
+        for (int rows : new int[]{1, 3, 50, 201}) {
+            DMatrixRMaj X = RandomMatrices_DDRM.rectangle(rows, 9, -2, 3, rand);
+
+            CovarianceAccumulator_MT_DDRM alg = new CovarianceAccumulator_MT_DDRM(9);
+            alg.setMinRowsPerThread(10);
+            alg.setBlockRows(7);
+            alg.add(CommonOps_DDRM.extractRow(X, 0, null));
+            alg.addBatch(X, 1, rows);
+
+            CovarianceAccumulator_DDRM expected = new CovarianceAccumulator_DDRM(9);
+            expected.addBatch(X);
+
+            assertEquals(expected.getCount(), alg.getCount());
+            EjmlUnitTests.assertEquals(expected.getMean(null), alg.getMean(null), UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(expected.getScatter(), alg.getScatter(), UtilEjml.TEST_F64);
+
+            // calling it again should reuse the work space without contamination
+            alg.addBatch(X);
+            expected.addBatch(X);
+            EjmlUnitTests.assertEquals(expected.getScatter(), alg.getScatter(), UtilEjml.TEST_F64);
+        }
+    }
+}
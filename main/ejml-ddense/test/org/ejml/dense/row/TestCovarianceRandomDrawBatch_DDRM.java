@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCovarianceRandomDrawBatch_DDRM extends EjmlStandardJUnit {
+    DMatrixRMaj cov = new DMatrixRMaj(new double[][]{{6, -2, 1}, {-2, 10, 0.5}, {1, 0.5, 3}});
+    DMatrixRMaj mean = new DMatrixRMaj(new double[]{1, -3, 0.5});
+
+    /**
+     * Sees if the sample statistics of many draws match the distribution
+     */
+    @Test void statistics() {
+        var alg = new CovarianceRandomDrawBatch_DDRM(0xfeed, mean, cov);
+        alg.setChunkRows(333);
+        DMatrixRMaj draws = alg.next(20000, null);
+
+        var stats = new CovarianceAccumulator_DDRM(3);
+        stats.addBatch(draws);
+
+        EjmlUnitTests.assertEquals(mean, stats.getMean(null), 0.1);
+        EjmlUnitTests.assertEquals(cov, stats.getCovariance(null), 0.3);
+    }
+
+    @Test void zeroMean() {
+        var alg = new CovarianceRandomDrawBatch_DDRM(234, cov);
+        var stats = new CovarianceAccumulator_DDRM(3);
+        stats.addBatch(alg.next(20000, null));
+        EjmlUnitTests.assertEquals(new DMatrixRMaj(3, 1), stats.getMean(null), 0.1);
+    }
+
+    @Test void choleskyFactor() {
+        var alg = new CovarianceRandomDrawBatch_DDRM(234, cov);
+        DMatrixRMaj L = alg.getL();
+        assertTrue(MatrixFeatures_DDRM.isLowerTriangle(L, 0, 0.0));
+        EjmlUnitTests.assertEquals(cov, CommonOps_DDRM.multTransB(L, L, null), UtilEjml.TEST_F64);
+    }
+
+    /**
+     * The same seed and sequence of calls should produce the same draws
+     */
+    @Test void reproducible() {
+        var a = new CovarianceRandomDrawBatch_DDRM(42, mean, cov);
+        var b = new CovarianceRandomDrawBatch_DDRM(42, mean, cov);
+        var c = new CovarianceRandomDrawBatch_DDRM(43, mean, cov);
+        a.setChunkRows(10);
+        b.setChunkRows(10);
+        c.setChunkRows(10);
+
+        DMatrixRMaj first = a.next(55, null);
+        EjmlUnitTests.assertEquals(first, b.next(55, null), 0.0);
+        assertFalse(MatrixFeatures_DDRM.isIdentical(first, c.next(55, null), UtilEjml.TEST_F64));
+
+        // The next call should continue the stream and not repeat it
+        DMatrixRMaj second = a.next(55, null);
+        EjmlUnitTests.assertEquals(second, b.next(55, null), 0.0);
+        assertFalse(MatrixFeatures_DDRM.isIdentical(first, second, UtilEjml.TEST_F64));
+
+        a.setSeed(42);
+        EjmlUnitTests.assertEquals(first, a.next(55, null), 0.0);
+    }
+
+    @Test void checkArguments() {
+        var alg = new CovarianceRandomDrawBatch_DDRM(42, cov);
+        assertThrows(MatrixDimensionException.class, () -> alg.next(new DMatrixRMaj(5, 2)));
+        assertThrows(MatrixDimensionException.class, () -> new CovarianceRandomDrawBatch_DDRM(1, new DMatrixRMaj(2, 1), cov));
+        DMatrixRMaj negative = cov.copy();
+        CommonOps_DDRM.scale(-1, negative);
+        assertThrows(IllegalArgumentException.class, () -> new CovarianceRandomDrawBatch_DDRM(1, negative));
+    }
+}
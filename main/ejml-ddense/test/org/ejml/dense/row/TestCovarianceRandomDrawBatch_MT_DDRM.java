@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestCovarianceRandomDrawBatch_MT_DDRM extends EjmlStandardJUnit {
+    // Force it to split the work into several blocks
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Should produce exactly the same draws as the single threaded version
+     */
+    @Test void compareToSingleThread() {
+        for (int dimension : new int[]{1, 5, 70}) {
+            DMatrixRMaj cov = RandomMatrices_DDRM.symmetricPosDef(dimension, rand);
+            DMatrixRMaj mean = RandomMatrices_DDRM.rectangle(dimension, 1, rand);
+
+            var expected = new CovarianceRandomDrawBatch_DDRM(99, mean, cov);
+            var found = new CovarianceRandomDrawBatch_MT_DDRM(99, mean, cov);
+            expected.setChunkRows(9);
+            found.setChunkRows(9);
+
+            for (int numDraws : new int[]{1, 9, 100}) {
+                EjmlUnitTests.assertEquals(expected.next(numDraws, null), found.next(numDraws, null), 0.0);
+            }
+        }
+    }
+}
@@ -19,13 +19,19 @@
 package org.ejml.dense.row;
 
 import org.ejml.EjmlStandardJUnit;
+import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
 import org.ejml.simple.SimpleMatrix;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 /**
@@ -60,6 +66,51 @@ public class TestNormOps_DDRM extends EjmlStandardJUnit {
         assertEquals(3.4887,val,UtilEjml.TEST_F64_SQ);
     }
 
+    @Test
+    public void estimateConditionP1() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(10, 10, -1, 1, rand);
+        double expected = NormOps_DDRM.conditionP(A, 1);
+        double found = NormOps_DDRM.estimateConditionP1(A);
+        assertTrue(found <= expected*(1.0 + UtilEjml.TEST_F64));
+        assertTrue(found >= expected/3.0);
+
+        // input should not be modified
+        DMatrixRMaj A_orig = A.copy();
+        NormOps_DDRM.estimateConditionP1(A);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A_orig, A, 0));
+
+        // singular
+        assertEquals(Double.POSITIVE_INFINITY, NormOps_DDRM.estimateConditionP1(new DMatrixRMaj(3, 3)));
+        assertThrows(MatrixDimensionException.class, () -> NormOps_DDRM.estimateConditionP1(unzeroMatrix));
+    }
+
+    @Test
+    public void estimateConditionP1_decompositions() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(10, rand);
+        double expected = NormOps_DDRM.conditionP(A, 1);
+        double normA = NormOps_DDRM.inducedP1(A);
+
+        LUDecompositionAlt_DDRM lu = new LUDecompositionAlt_DDRM();
+        assertTrue(lu.decompose(A.copy()));
+        double found = NormOps_DDRM.estimateConditionP1(lu, normA);
+        assertTrue(found <= expected*(1.0 + UtilEjml.TEST_F64));
+        assertTrue(found >= expected/3.0);
+
+        CholeskyDecompositionInner_DDRM chol = new CholeskyDecompositionInner_DDRM(true);
+        assertTrue(chol.decompose(A.copy()));
+        found = NormOps_DDRM.estimateConditionP1(chol, normA);
+        assertTrue(found <= expected*(1.0 + UtilEjml.TEST_F64));
+        assertTrue(found >= expected/3.0);
+
+        // The condition of R is returned, which is within a factor of N of the condition of A
+        QRDecompositionHouseholderColumn_DDRM qr = new QRDecompositionHouseholderColumn_DDRM();
+        assertTrue(qr.decompose(A.copy()));
+        found = NormOps_DDRM.estimateConditionP1(qr);
+        double expected2 = NormOps_DDRM.conditionP2(A);
+        assertTrue(found >= expected2/10.0);
+        assertTrue(found <= expected2*10.0);
+    }
+
     /**
      * Tests against the condition number from octave.
      */
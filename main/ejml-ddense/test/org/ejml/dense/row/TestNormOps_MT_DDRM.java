@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNormOps_MT_DDRM extends EjmlStandardJUnit {
+    int minBlock = CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK;
+
+    @BeforeEach void forceBlocks() {
+        EjmlConcurrency.setMaxThreads(4);
+        CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK = 10;
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+        CommonOps_MT_DDRM.MATRIX_REDUCE_MIN_BLOCK = minBlock;
+    }
+
+    @Test void normF() {
+        for (int size : new int[]{0, 1, 9, 40, 131}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size, 3, -1, 1, rand);
+            assertEquals(NormOps_DDRM.normF(A), NormOps_MT_DDRM.normF(A), UtilEjml.TEST_F64);
+        }
+
+        // values which would overflow if squared directly
+        var A = new DMatrixRMaj(20, 20);
+        A.fill(1e200);
+        assertEquals(20*1e200, NormOps_MT_DDRM.normF(A), 1e200*UtilEjml.TEST_F64);
+    }
+
+    @Test void fastNormF() {
+        for (int size : new int[]{0, 1, 9, 40, 131}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size, 3, -1, 1, rand);
+            assertEquals(NormOps_DDRM.fastNormF(A), NormOps_MT_DDRM.fastNormF(A), UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -329,6 +330,24 @@ public class TestRandomMatrices_DDRM extends EjmlStandardJUnit {
         checkGaussian(A);
     }
 
+    @Test
+    public void fillGaussian_array() {
+        double[] z = new double[20003];
+        RandomMatrices_DDRM.fillGaussian(z, 1, z.length - 1, new SplittableRandom(2));
+
+        // elements outside the range should not be modified
+        assertEquals(0.0, z[0]);
+        assertEquals(0.0, z[z.length - 1]);
+
+        double sum = 0, sum2 = 0;
+        for (int i = 1; i < z.length - 1; i++) {
+            sum += z[i];
+            sum2 += z[i]*z[i];
+        }
+        assertEquals(0.0, sum/(z.length - 2), 0.03);
+        assertEquals(1.0, sum2/(z.length - 2), 0.05);
+    }
+
     private void checkGaussian( DMatrixRMaj a ) {
         assertEquals(30, a.numRows);
         assertEquals(20, a.numCols);
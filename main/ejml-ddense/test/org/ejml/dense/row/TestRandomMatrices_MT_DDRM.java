@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRandomMatrices_MT_DDRM extends EjmlStandardJUnit {
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test void rectangle() {
+        // Large enough to have multiple blocks and a partial block
+        DMatrixRMaj A = RandomMatrices_MT_DDRM.rectangle(301, 200, -2, 3, 234);
+        assertEquals(301, A.numRows);
+        assertEquals(200, A.numCols);
+
+        double mean = 0;
+        for (int i = 0; i < A.getNumElements(); i++) {
+            double v = A.data[i];
+            assertTrue(v >= -2 && v <= 3);
+            mean += v;
+        }
+        assertEquals(0.5, mean/A.getNumElements(), 0.02);
+
+        // There should be no correlation between neighboring blocks
+        assertNotEquals(A.data[0], A.data[RandomMatrices_MT_DDRM.BLOCK_LENGTH]);
+
+        checkThreadIndependent(() -> RandomMatrices_MT_DDRM.rectangle(301, 200, 234));
+        assertFalse(MatrixFeatures_DDRM.isIdentical(
+                RandomMatrices_MT_DDRM.rectangle(20, 10, 1), RandomMatrices_MT_DDRM.rectangle(20, 10, 2), 0.0));
+    }
+
+    @Test void rectangleGaussian() {
+        DMatrixRMaj A = RandomMatrices_MT_DDRM.rectangleGaussian(301, 200, 2, 0.5, 234);
+
+        double mean = 0, var = 0;
+        for (int i = 0; i < A.getNumElements(); i++) {
+            mean += A.data[i];
+        }
+        mean /= A.getNumElements();
+        for (int i = 0; i < A.getNumElements(); i++) {
+            var += (A.data[i] - mean)*(A.data[i] - mean);
+        }
+        var /= A.getNumElements();
+
+        assertEquals(2.0, mean, 0.01);
+        assertEquals(0.25, var, 0.01);
+
+        checkThreadIndependent(() -> RandomMatrices_MT_DDRM.rectangleGaussian(301, 200, 2, 0.5, 234));
+    }
+
+    @Test void symmetricPosDef() {
+        for (int width = 1; width < 10; width++) {
+            DMatrixRMaj A = RandomMatrices_MT_DDRM.symmetricPosDef(width, width);
+            assertTrue(MatrixFeatures_DDRM.isSymmetric(A, 0.0));
+            assertTrue(MatrixFeatures_DDRM.isPositiveDefinite(A));
+        }
+        checkThreadIndependent(() -> RandomMatrices_MT_DDRM.symmetricPosDef(50, 3));
+    }
+
+    @Test void orthogonal() {
+        for (int numRows = 1; numRows <= 20; numRows += 3) {
+            for (int numCols = 1; numCols <= numRows; numCols += 2) {
+                DMatrixRMaj Q = RandomMatrices_MT_DDRM.orthogonal(numRows, numCols, numRows*100 + numCols);
+
+                assertEquals(numRows, Q.numRows);
+                assertEquals(numCols, Q.numCols);
+                assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q, UtilEjml.TEST_F64));
+            }
+        }
+        checkThreadIndependent(() -> RandomMatrices_MT_DDRM.orthogonal(60, 40, 3));
+        assertThrows(IllegalArgumentException.class, () -> RandomMatrices_MT_DDRM.orthogonal(2, 3, 3));
+    }
+
+    /**
+     * The output should only depend on the seed and not the number of threads
+     */
+    private void checkThreadIndependent( Supplier<DMatrixRMaj> generator ) {
+        DMatrixRMaj expected = generator.get();
+        EjmlConcurrency.setMaxThreads(1);
+        EjmlUnitTests.assertEquals(expected, generator.get(), 0.0);
+        EjmlConcurrency.setMaxThreads(3);
+        EjmlUnitTests.assertEquals(expected, generator.get(), 0.0);
+    }
+}
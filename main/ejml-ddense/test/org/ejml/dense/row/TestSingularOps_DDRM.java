@@ -74,6 +74,65 @@ public class TestSingularOps_DDRM extends EjmlStandardJUnit {
         assertEquals(3,SingularOps_DDRM.rank(A));
     }
 
+    @Test
+    public void rankQRP_tol() {
+        DMatrixRMaj A = CommonOps_DDRM.diag(1,1,2, 0.001 );
+        assertEquals(4,SingularOps_DDRM.rankQRP(A,UtilEjml.EPS ));
+        assertEquals(3,SingularOps_DDRM.rankQRP(A, 0.01 ));
+    }
+
+    @Test
+    public void rankQRP() {
+        DMatrixRMaj A = CommonOps_DDRM.diag(1,1,2, 0.001 );
+        assertEquals(4,SingularOps_DDRM.rankQRP(A));
+        A = CommonOps_DDRM.diag(1,1,2, (double)1e-24 );
+        assertEquals(3,SingularOps_DDRM.rankQRP(A));
+        assertEquals(0,SingularOps_DDRM.rankQRP(new DMatrixRMaj(4,3)));
+    }
+
+    /**
+     * Compare against SVD on tall rank deficient matrices
+     */
+    @Test
+    public void rankQRP_compareSvd() {
+        int cols = 30;
+        for (int rank : new int[]{1, 12, 29, 30}) {
+            double[] sv = new double[cols];
+            for (int i = 0; i < rank; i++) {
+                sv[i] = 0.5 + rand.nextDouble();
+            }
+            DMatrixRMaj A = RandomMatrices_DDRM.singular(300, cols, rand, sv);
+            DMatrixRMaj A_orig = A.copy();
+
+            assertEquals(SingularOps_DDRM.rank(A), SingularOps_DDRM.rankQRP(A));
+            assertEquals(rank, SingularOps_DDRM.rankQRP(A, UtilEjml.TEST_F64));
+            assertEquals(cols - rank, SingularOps_DDRM.nullityQRP(A, UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A_orig, A, 0));
+        }
+    }
+
+    /**
+     * Singular, wide, and tall matrices
+     */
+    @Test
+    public void rankQRP_and_nullityQRP() {
+        // the matrix is only specified to 15 digits
+        DMatrixRMaj A = new DMatrixRMaj(3,3, true,
+                -0.988228951897092, -1.086594333683141, -1.433160736952583,
+                -3.190200029661606, 0.190459703263404, -6.475629910954768,
+                1.400596416735888, 7.158603907761226, -0.778109120408813);
+        assertEquals(2, SingularOps_DDRM.rankQRP(A, UtilEjml.TEST_F64));
+        assertEquals(1, SingularOps_DDRM.nullityQRP(A, UtilEjml.TEST_F64));
+
+        A = new DMatrixRMaj(1,3,true,1,0,0);
+        assertEquals(1, SingularOps_DDRM.rankQRP(A, UtilEjml.TEST_F64));
+        assertEquals(2, SingularOps_DDRM.nullityQRP(A, UtilEjml.TEST_F64));
+
+        A = new DMatrixRMaj(3,1,true,1,0,0);
+        assertEquals(1, SingularOps_DDRM.rankQRP(A, UtilEjml.TEST_F64));
+        assertEquals(0, SingularOps_DDRM.nullityQRP(A, UtilEjml.TEST_F64));
+    }
+
     @Test
     public void svd() {
         for (int rows = 1; rows < 8; rows++) {
@@ -141,6 +141,44 @@ public abstract class GenericCholeskyTests_DDRM extends EjmlStandardJUnit {
         assertTrue(A.isIdentical(found, UtilEjml.TEST_F64));
     }
 
+    /**
+     * Modifies the decomposition and sees if it's still a decomposition of the modified matrix
+     */
+    @Test
+    public void updateDowndate() {
+        for( int i = 0; i < 2; i++ ) {
+            boolean lower = i == 0;
+            if( lower && !canL )
+                continue;
+            if( !lower && !canR )
+                continue;
+
+            CholeskyDecomposition_F64<DMatrixRMaj> alg = create(lower);
+            if( !(alg instanceof CholeskyDecompositionCommon_DDRM) )
+                return;
+            CholeskyDecompositionCommon_DDRM cholesky = (CholeskyDecompositionCommon_DDRM)alg;
+
+            SimpleMatrix A = SimpleMatrix.wrap(RandomMatrices_DDRM.symmetricPosDef(15,rand));
+            SimpleMatrix X = SimpleMatrix.random_DDRM(15,2,-1,1,rand);
+
+            assertTrue(cholesky.decompose(A.copy().getDDRM()));
+            cholesky.update(X.getDDRM());
+            assertTrue(A.plus(X.mult(X.transpose())).isIdentical(multiplyT(cholesky,lower), UtilEjml.TEST_F64));
+
+            assertTrue(cholesky.downdate(X.getDDRM()));
+            assertTrue(A.isIdentical(multiplyT(cholesky,lower), UtilEjml.TEST_F64));
+
+            // A - 10000*X*X' is not positive definite
+            assertFalse(cholesky.downdate(X.scale(100).getDDRM()));
+            assertTrue(A.isIdentical(multiplyT(cholesky,lower), UtilEjml.TEST_F64));
+        }
+    }
+
+    private static SimpleMatrix multiplyT( CholeskyDecompositionCommon_DDRM cholesky, boolean lower ) {
+        SimpleMatrix T = SimpleMatrix.wrap(cholesky.getT(null));
+        return lower ? T.mult(T.transpose()) : T.transpose().mult(T);
+    }
+
     @Test
     public void checkDeterminant() {
         for( int i = 0; i < 2; i++ ) {
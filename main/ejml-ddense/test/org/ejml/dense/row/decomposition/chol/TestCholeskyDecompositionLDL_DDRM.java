@@ -22,6 +22,8 @@ import org.ejml.EjmlStandardJUnit;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.junit.jupiter.api.Test;
 
 import static org.ejml.dense.row.decomposition.CheckDecompositionInterface_DDRM.checkModifiedInput;
@@ -66,4 +68,28 @@ public class TestCholeskyDecompositionLDL_DDRM extends EjmlStandardJUnit {
         CholeskyDecompositionLDL_DDRM alg = new CholeskyDecompositionLDL_DDRM();
         assertFalse(alg.decompose(A));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateDowndate() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(12, rand);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(12, 2, -1, 1, rand);
+
+        CholeskyDecompositionLDL_DDRM alg = new CholeskyDecompositionLDL_DDRM();
+        assertTrue(alg.decompose(A));
+        alg.update(X);
+        EjmlUnitTests.assertEquals(TestCholeskyUpdate_DDRM.plusOuter(A, X, 1), reconstruct(alg), UtilEjml.TEST_F64);
+
+        assertTrue(alg.downdate(X));
+        EjmlUnitTests.assertEquals(A, reconstruct(alg), UtilEjml.TEST_F64);
+
+        CommonOps_DDRM.scale(100, X);
+        assertFalse(alg.downdate(X));
+        EjmlUnitTests.assertEquals(A, reconstruct(alg), UtilEjml.TEST_F64);
+    }
+
+    private static DMatrixRMaj reconstruct( CholeskyDecompositionLDL_DDRM alg ) {
+        DMatrixRMaj L = alg.getL(null);
+        DMatrixRMaj LD = CommonOps_DDRM.mult(L, alg.getD(null), null);
+        return CommonOps_DDRM.multTransB(LD, L, null);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.chol;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCholeskyUpdate_DDRM extends EjmlStandardJUnit {
+
+    CholeskyUpdate_DDRM alg = new CholeskyUpdate_DDRM();
+
+    /**
+     * Compares the updated decomposition against decomposing A + X*X' directly
+     */
+    @Test
+    public void update() {
+        for (boolean lower : new boolean[]{true, false}) {
+            for (int n : new int[]{1, 2, 5, 20}) {
+                for (int k : new int[]{1, 3}) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(n, rand);
+                    DMatrixRMaj X = RandomMatrices_DDRM.rectangle(n, k, -1, 1, rand);
+                    DMatrixRMaj X_orig = X.copy();
+
+                    DMatrixRMaj T = decompose(A, lower);
+                    alg.update(T, lower, X);
+
+                    DMatrixRMaj expected = decompose(plusOuter(A, X, 1), lower);
+                    EjmlUnitTests.assertEquals(expected, T, UtilEjml.TEST_F64);
+                    EjmlUnitTests.assertEquals(X_orig, X, 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void downdate() {
+        for (boolean lower : new boolean[]{true, false}) {
+            for (int n : new int[]{1, 2, 5, 20}) {
+                for (int k : new int[]{1, 3}) {
+                    DMatrixRMaj B = RandomMatrices_DDRM.symmetricPosDef(n, rand);
+                    DMatrixRMaj X = RandomMatrices_DDRM.rectangle(n, k, -1, 1, rand);
+
+                    // downdating A = B + X*X' is known to be positive definite
+                    DMatrixRMaj T = decompose(plusOuter(B, X, 1), lower);
+                    assertTrue(alg.downdate(T, lower, X));
+
+                    DMatrixRMaj expected = decompose(B, lower);
+                    EjmlUnitTests.assertEquals(expected, T, UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    /**
+     * If the result isn't positive definite the decomposition should not be modified
+     */
+    @Test
+    public void downdate_fail() {
+        for (boolean lower : new boolean[]{true, false}) {
+            int n = 6;
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(n, rand);
+            DMatrixRMaj T = decompose(A, lower);
+            DMatrixRMaj T_orig = T.copy();
+
+            // the second column can be removed, the first can't
+            DMatrixRMaj X = new DMatrixRMaj(n, 2);
+            X.set(2, 0, 100.0);
+            X.set(2, 1, 0.1);
+            assertFalse(alg.downdate(T, lower, X));
+            EjmlUnitTests.assertEquals(T_orig, T, 0);
+
+            // fails after the first column has been applied. Everything should be restored
+            CommonOps_DDRM.extract(X, 0, n, 1, 2, X, 0, 0);
+            X.set(2, 1, 100.0);
+            assertFalse(alg.downdate(T, lower, X));
+            EjmlUnitTests.assertEquals(T_orig, T, 0);
+
+            // A - x*x' is positive semi-definite
+            DMatrixRMaj x = new DMatrixRMaj(n, 1);
+            x.set(3, 0, Math.sqrt(A.get(3, 3)));
+            assertFalse(alg.downdate(T, lower, x));
+            EjmlUnitTests.assertEquals(T_orig, T, 0);
+        }
+    }
+
+    @Test
+    public void updateLDL() {
+        for (int n : new int[]{1, 2, 5, 20}) {
+            for (int k : new int[]{1, 3}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(n, rand);
+                DMatrixRMaj X = RandomMatrices_DDRM.rectangle(n, k, -1, 1, rand);
+
+                CholeskyDecompositionLDL_DDRM found = new CholeskyDecompositionLDL_DDRM();
+                assertTrue(found.decompose(A));
+                alg.updateLDL(found.getL(), found.getDiagonal(), X);
+
+                CholeskyDecompositionLDL_DDRM expected = new CholeskyDecompositionLDL_DDRM();
+                assertTrue(expected.decompose(plusOuter(A, X, 1)));
+
+                checkEqualsLDL(expected, found, n);
+            }
+        }
+    }
+
+    @Test
+    public void downdateLDL() {
+        for (int n : new int[]{1, 2, 5, 20}) {
+            for (int k : new int[]{1, 3}) {
+                DMatrixRMaj B = RandomMatrices_DDRM.symmetricPosDef(n, rand);
+                DMatrixRMaj X = RandomMatrices_DDRM.rectangle(n, k, -1, 1, rand);
+
+                CholeskyDecompositionLDL_DDRM found = new CholeskyDecompositionLDL_DDRM();
+                assertTrue(found.decompose(plusOuter(B, X, 1)));
+                assertTrue(alg.downdateLDL(found.getL(), found.getDiagonal(), X));
+
+                CholeskyDecompositionLDL_DDRM expected = new CholeskyDecompositionLDL_DDRM();
+                assertTrue(expected.decompose(B));
+
+                checkEqualsLDL(expected, found, n);
+            }
+        }
+    }
+
+    @Test
+    public void downdateLDL_fail() {
+        int n = 6;
+        CholeskyDecompositionLDL_DDRM ldl = new CholeskyDecompositionLDL_DDRM();
+        assertTrue(ldl.decompose(RandomMatrices_DDRM.symmetricPosDef(n, rand)));
+        DMatrixRMaj L_orig = ldl.getL().copy();
+        double[] d_orig = ldl.getDiagonal().clone();
+
+        DMatrixRMaj X = new DMatrixRMaj(n, 2);
+        X.set(4, 0, 0.1);
+        X.set(4, 1, 100.0);
+        assertFalse(alg.downdateLDL(ldl.getL(), ldl.getDiagonal(), X));
+
+        EjmlUnitTests.assertEquals(L_orig, ldl.getL(), 0);
+        assertArrayEquals(d_orig, ldl.getDiagonal(), 0);
+    }
+
+    @Test
+    public void checkShape() {
+        DMatrixRMaj T = decompose(RandomMatrices_DDRM.symmetricPosDef(4, rand), true);
+        assertThrows(MatrixDimensionException.class, () -> alg.update(T, true, new DMatrixRMaj(3, 1)));
+        assertThrows(MatrixDimensionException.class, () -> alg.downdate(T, true, new DMatrixRMaj(5, 1)));
+    }
+
+    private void checkEqualsLDL( CholeskyDecompositionLDL_DDRM expected, CholeskyDecompositionLDL_DDRM found, int n ) {
+        EjmlUnitTests.assertEquals(expected.getL(), found.getL(), UtilEjml.TEST_F64);
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected.getDiagonal()[i], found.getDiagonal()[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    private static DMatrixRMaj decompose( DMatrixRMaj A, boolean lower ) {
+        CholeskyDecompositionInner_DDRM chol = new CholeskyDecompositionInner_DDRM(lower);
+        assertTrue(chol.decompose(A.copy()));
+        return chol.getT(null);
+    }
+
+    /**
+     * Returns A + scale*X*X'
+     */
+    static DMatrixRMaj plusOuter( DMatrixRMaj A, DMatrixRMaj X, double scale ) {
+        DMatrixRMaj XX = new DMatrixRMaj(A.numRows, A.numCols);
+        CommonOps_DDRM.multTransB(scale, X, X, XX);
+        return CommonOps_DDRM.add(A, XX, null);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.qr;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.simple.SimpleMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestQRColPivDecompositionHouseholderBlock_DDRM extends EjmlStandardJUnit {
+    /**
+     * Matrices which are smaller, larger, and not a multiple of the block width
+     */
+    @Test
+    public void randomMatrix() {
+        for (int blockWidth : new int[]{1, 3, 32}) {
+            for (int rows : new int[]{1, 5, 7, 20}) {
+                for (int cols : new int[]{1, 5, 7, 20}) {
+                    DMatrixRMaj A = RandomMatrices_DDRM.rectangle(rows, cols, rand);
+
+                    var alg = new QRColPivDecompositionHouseholderBlock_DDRM(UtilEjml.EPS, blockWidth);
+                    assertTrue(alg.decompose(A));
+                    assertEquals(Math.min(rows, cols), alg.getRank());
+
+                    checkDecomposition(true, A, alg);
+                    checkDecomposition(false, A, alg);
+                }
+            }
+        }
+    }
+
+    /**
+     * The blocked and unblocked algorithm should select the same pivots and produce the same R
+     */
+    @Test
+    public void compareToUnblocked() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(40, 25, rand);
+
+        var expected = new QRColPivDecompositionHouseholderColumn_DDRM();
+        var found = new QRColPivDecompositionHouseholderBlock_DDRM(UtilEjml.EPS, 4);
+        assertTrue(expected.decompose(A));
+        assertTrue(found.decompose(A));
+
+        assertArrayEquals(expected.getColPivots(), found.getColPivots());
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getR(null, true), found.getR(null, true), UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getQ(null, true), found.getQ(null, true), UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Test it against rank deficient matrices. Singular columns should be found in the middle of a panel.
+     */
+    @Test
+    public void rankDeficient() {
+        int numRows = 10;
+
+        for (int numSingular = 0; numSingular < numRows - 1; numSingular++) {
+            SimpleMatrix U = SimpleMatrix.wrap(RandomMatrices_DDRM.orthogonal(numRows, numRows, rand));
+            SimpleMatrix S = SimpleMatrix.diag(DMatrixRMaj.class, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            SimpleMatrix V = SimpleMatrix.wrap(RandomMatrices_DDRM.orthogonal(numRows, numRows, rand));
+
+            for (int i = 0; i < numSingular; i++) {
+                S.set(i, i, 0);
+            }
+
+            DMatrixRMaj A = U.mult(S).mult(V.transpose()).getDDRM();
+
+            var alg = new QRColPivDecompositionHouseholderBlock_DDRM(UtilEjml.TEST_F64, 4);
+            assertTrue(alg.decompose(A));
+            assertEquals(numRows - numSingular, alg.getRank());
+
+            checkDecomposition(false, A, alg);
+        }
+    }
+
+    /**
+     * Columns with very different norms will force the norms to be recomputed inside of a panel
+     */
+    @Test
+    public void recomputeNorms() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(30, 12, rand);
+        // columns which are almost in the span of the first column
+        for (int col = 1; col < A.numCols; col += 2) {
+            for (int row = 0; row < A.numRows; row++) {
+                A.set(row, col, A.get(row, 0)*(1 + col) + 1e-6*A.get(row, col));
+            }
+        }
+
+        var alg = new QRColPivDecompositionHouseholderBlock_DDRM(UtilEjml.EPS, 8);
+        assertTrue(alg.decompose(A));
+        checkDecomposition(false, A, alg);
+
+        // with column pivoting the magnitude of the diagonal elements in R should be decreasing
+        double[][] QR = alg.getQR();
+        for (int i = 1; i < A.numCols; i++) {
+            assertTrue(Math.abs(QR[i][i]) <= Math.abs(QR[i - 1][i - 1])*(1.0 + UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void zeroMatrix() {
+        DMatrixRMaj A = new DMatrixRMaj(5, 5);
+
+        var alg = new QRColPivDecompositionHouseholderBlock_DDRM();
+        assertTrue(alg.decompose(A));
+        assertEquals(0, alg.getRank());
+
+        checkDecomposition(false, A, alg);
+        checkDecomposition(true, A, alg);
+    }
+
+    /**
+     * Zero columns can't lose precision and shouldn't cause the norms to be recomputed
+     */
+    @Test
+    public void zeroColumns() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(10, 8, rand);
+        for (int row = 0; row < A.numRows; row++) {
+            A.set(row, 2, 0);
+            A.set(row, 5, 0);
+        }
+
+        var alg = new QRColPivDecompositionHouseholderBlock_DDRM(UtilEjml.EPS, 8);
+        assertTrue(alg.decompose(A));
+        assertEquals(6, alg.getRank());
+        checkDecomposition(false, A, alg);
+    }
+
+    /**
+     * Decompose matrices of different sizes with the same instance
+     */
+    @Test
+    public void changeSize() {
+        var alg = new QRColPivDecompositionHouseholderBlock_DDRM(UtilEjml.EPS, 3);
+        for (int size : new int[]{10, 4, 15}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size + 2, size, rand);
+            assertTrue(alg.decompose(A));
+            checkDecomposition(false, A, alg);
+        }
+    }
+
+    private void checkDecomposition( boolean compact, DMatrixRMaj A,
+                                     QRColPivDecompositionHouseholderColumn_DDRM alg ) {
+        DMatrixRMaj Q = alg.getQ(null, compact);
+        DMatrixRMaj R = alg.getR(null, compact);
+        DMatrixRMaj P = alg.getColPivotMatrix(null);
+
+        DMatrixRMaj expected = CommonOps_DDRM.mult(A, P, null);
+        DMatrixRMaj found = CommonOps_DDRM.mult(Q, R, null);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, UtilEjml.TEST_F64));
+    }
+}
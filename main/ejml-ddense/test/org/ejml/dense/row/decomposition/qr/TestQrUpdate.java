@@ -27,7 +27,7 @@ import org.ejml.dense.row.mult.SubmatrixOps_DDRM;
 import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
@@ -136,6 +136,154 @@ public class TestQrUpdate extends EjmlStandardJUnit {
         assertTrue(MatrixFeatures_DDRM.isIdentical(A_e,A_r,1e-6));
     }
 
+    @Test
+    public void testSlideRow() {
+        int m = 7, n = 3;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m, n, rand);
+
+        QRDecomposition<DMatrixRMaj> decomp = new QRDecompositionHouseholderColumn_DDRM();
+        decomp.decompose(A);
+        DMatrixRMaj Q = decomp.getQ(null, false);
+        DMatrixRMaj R = decomp.getR(null, false);
+        double[] dataQ = Q.data;
+        double[] dataR = R.data;
+
+        QrUpdate_DDRM update = new QrUpdate_DDRM(m, n, false);
+
+        for (int trial = 0; trial < 4; trial++) {
+            double[] row = RandomMatrices_DDRM.rectangle(1, n, rand).data;
+            update.slideRow(Q, R, row);
+
+            // shift the expected window down by one
+            DMatrixRMaj A_e = new DMatrixRMaj(m, n);
+            SubmatrixOps_DDRM.setSubMatrix(A, A_e, 1, 0, 0, 0, m - 1, n);
+            System.arraycopy(row, 0, A_e.data, (m - 1)*n, n);
+            A = A_e;
+
+            assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q, 1e-8));
+            assertTrue(MatrixFeatures_DDRM.isUpperTriangle(R, 0, 1e-8));
+            DMatrixRMaj A_r = new DMatrixRMaj(m, n);
+            CommonOps_DDRM.mult(Q, R, A_r);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A, A_r, 1e-8));
+        }
+
+        // no new memory should have been declared
+        assertSame(dataQ, Q.data);
+        assertSame(dataR, R.data);
+    }
+
+    @Test
+    public void testInsertColumn() {
+        for (boolean compact : new boolean[]{true, false}) {
+            for (int n = 1; n < 5; n++) {
+                for (int insert = 0; insert <= n; insert++) {
+                    checkInsertColumn(8, n, insert, compact);
+                }
+            }
+        }
+        // the full decomposition can become wider than it is tall
+        checkInsertColumn(4, 4, 2, false);
+    }
+
+    private void checkInsertColumn( int m, int n, int insert, boolean compact ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m, n, rand);
+        double[] column = RandomMatrices_DDRM.rectangle(m, 1, rand).data;
+
+        DMatrixRMaj A_e = new DMatrixRMaj(m, n + 1);
+        SubmatrixOps_DDRM.setSubMatrix(A, A_e, 0, 0, 0, 0, m, insert);
+        SubmatrixOps_DDRM.setSubMatrix(A, A_e, 0, insert, 0, insert + 1, m, n - insert);
+        for (int i = 0; i < m; i++) {
+            A_e.set(i, insert, column[i]);
+        }
+
+        QRDecomposition<DMatrixRMaj> decomp = new QRDecompositionHouseholderColumn_DDRM();
+        decomp.decompose(A);
+        DMatrixRMaj Q = decomp.getQ(null, compact);
+        DMatrixRMaj R = decomp.getR(null, compact);
+
+        QrUpdate_DDRM update = new QrUpdate_DDRM();
+        assertTrue(update.addColumn(Q, R, column, insert));
+
+        int rowsR = compact ? n + 1 : m;
+        assertEquals(m, Q.numRows);
+        assertEquals(rowsR, Q.numCols);
+        assertEquals(rowsR, R.numRows);
+        assertEquals(n + 1, R.numCols);
+
+        checkDecomposition(A_e, Q, R);
+    }
+
+    @Test
+    public void testInsertColumn_dependent() {
+        int m = 8, n = 3;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m, n, rand);
+
+        // linear combination of the existing columns
+        double[] column = new double[m];
+        for (int i = 0; i < m; i++) {
+            column[i] = A.get(i, 0) - 2.0*A.get(i, 2);
+        }
+
+        QRDecomposition<DMatrixRMaj> decomp = new QRDecompositionHouseholderColumn_DDRM();
+        decomp.decompose(A);
+        DMatrixRMaj Q = decomp.getQ(null, true);
+        DMatrixRMaj R = decomp.getR(null, true);
+        DMatrixRMaj Q_orig = Q.copy();
+        DMatrixRMaj R_orig = R.copy();
+
+        assertFalse(new QrUpdate_DDRM().addColumn(Q, R, column, 1));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(Q_orig, Q, 0));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(R_orig, R, 0));
+    }
+
+    @Test
+    public void testRemoveColumn() {
+        for (boolean compact : new boolean[]{true, false}) {
+            for (int n = 1; n < 6; n++) {
+                for (int remove = 0; remove < n; remove++) {
+                    checkRemoveColumn(8, n, remove, compact);
+                }
+            }
+        }
+        // wider than it is tall
+        checkRemoveColumn(4, 6, 1, false);
+    }
+
+    private void checkRemoveColumn( int m, int n, int remove, boolean compact ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(m, n, rand);
+
+        DMatrixRMaj A_e = new DMatrixRMaj(m, n - 1);
+        SubmatrixOps_DDRM.setSubMatrix(A, A_e, 0, 0, 0, 0, m, remove);
+        SubmatrixOps_DDRM.setSubMatrix(A, A_e, 0, remove + 1, 0, remove, m, n - remove - 1);
+
+        QRDecomposition<DMatrixRMaj> decomp = new QRDecompositionHouseholderColumn_DDRM();
+        decomp.decompose(A);
+        DMatrixRMaj Q = decomp.getQ(null, compact);
+        DMatrixRMaj R = decomp.getR(null, compact);
+
+        new QrUpdate_DDRM().deleteColumn(Q, R, remove);
+
+        int rowsR = compact ? n - 1 : m;
+        assertEquals(m, Q.numRows);
+        assertEquals(rowsR, Q.numCols);
+        assertEquals(rowsR, R.numRows);
+        assertEquals(n - 1, R.numCols);
+
+        checkDecomposition(A_e, Q, R);
+    }
+
+    /**
+     * Q should have orthonormal columns, R upper triangular, and Q*R = A
+     */
+    private void checkDecomposition( DMatrixRMaj A, DMatrixRMaj Q, DMatrixRMaj R ) {
+        DMatrixRMaj QtQ = CommonOps_DDRM.multTransA(Q, Q, null);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(QtQ, 1e-8));
+        assertTrue(MatrixFeatures_DDRM.isUpperTriangle(R, 0, 1e-8));
+
+        DMatrixRMaj A_r = CommonOps_DDRM.mult(Q, R, null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A, A_r, 1e-8));
+    }
+
     public static DMatrixRMaj createQMod(DMatrixRMaj Q , int insertRow ) {
         DMatrixRMaj Qmod = new DMatrixRMaj(Q.numRows+1,Q.numCols+1);
 
@@ -25,6 +25,7 @@ import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.junit.jupiter.api.Test;
@@ -186,6 +187,44 @@ public abstract class GenericLinearSolverChecks_DDRM extends EjmlStandardJUnit {
         assertEquals(q_small, q, UtilEjml.TEST_F64);
     }
 
+    /**
+     * The condition estimate should be close to the true condition and get smaller as the matrix becomes singular
+     */
+    @Test
+    public void checkRcond() {
+        int N = 8;
+        // symmetric positive definite so that it works with every solver
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, N, -1, 1, rand);
+        DMatrixRMaj A = new DMatrixRMaj(N, N);
+        CommonOps_DDRM.multTransA(B, B, A);
+        for (int i = 0; i < N; i++) {
+            A.add(i, i, 0.1);
+        }
+
+        LinearSolverDense<DMatrixRMaj> solver = createSafeSolver(A);
+        assertTrue(solver.setA(A));
+        double rcond;
+        try {
+            rcond = (double)solver.rcond();
+        } catch (IllegalArgumentException e) {
+            // condition estimation is not supported
+            return;
+        }
+
+        // QR solvers estimate the condition of R. The 1 and 2 norm condition numbers differ by at most N
+        double expected = 1.0/NormOps_DDRM.conditionP2(A);
+        assertTrue(rcond > 0 && rcond <= 1.0);
+        assertTrue(rcond >= expected/(3*N) && rcond <= expected*3*N);
+
+        assertTrue(solver.setA(CommonOps_DDRM.diag(4, 3, 2, 1)));
+        double rcond_good = (double)solver.rcond();
+        assertTrue(solver.setA(CommonOps_DDRM.diag(4, 3, 2, 1e-6)));
+        double rcond_bad = (double)solver.rcond();
+
+        assertEquals(0.25, rcond_good, 1e-4);
+        assertEquals(0.25e-6, rcond_bad, 1e-10);
+    }
+
     /**
      * A very easy matrix to decompose
      */
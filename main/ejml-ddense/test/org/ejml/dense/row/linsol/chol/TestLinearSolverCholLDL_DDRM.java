@@ -22,9 +22,11 @@ import org.ejml.EjmlStandardJUnit;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -50,4 +52,27 @@ public class TestLinearSolverCholLDL_DDRM extends EjmlStandardJUnit {
         EjmlUnitTests.assertEquals(A_inv,A, UtilEjml.TEST_F64_SQ);
         EjmlUnitTests.assertEquals(x_expected,x,UtilEjml.TEST_F64_SQ);
     }
+
+    @Test
+    public void updateDowndate() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(10, rand);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(10, 3, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(10, 2, -1, 1, rand);
+        DMatrixRMaj A_plus = CommonOps_DDRM.multTransB(X, X, null);
+        CommonOps_DDRM.addEquals(A_plus, A);
+
+        LinearSolverCholLDL_DDRM solver = new LinearSolverCholLDL_DDRM();
+        assertTrue(solver.setA(A));
+        solver.update(X);
+        DMatrixRMaj found = new DMatrixRMaj(10, 2);
+        solver.solve(B, found);
+        EjmlUnitTests.assertEquals(B, CommonOps_DDRM.mult(A_plus, found, null), UtilEjml.TEST_F64);
+
+        assertTrue(solver.downdate(X));
+        solver.solve(B, found);
+        EjmlUnitTests.assertEquals(B, CommonOps_DDRM.mult(A, found, null), UtilEjml.TEST_F64);
+
+        CommonOps_DDRM.scale(100, X);
+        assertFalse(solver.downdate(X));
+    }
 }
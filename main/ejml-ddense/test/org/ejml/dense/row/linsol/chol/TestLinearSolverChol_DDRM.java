@@ -18,9 +18,17 @@
 
 package org.ejml.dense.row.linsol.chol;
 
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 /**
@@ -34,4 +42,29 @@ public class TestLinearSolverChol_DDRM extends BaseCholeskySolveTests_DDRM {
         return new LinearSolverChol_DDRM(alg);
     }
 
+    /**
+     * Solve a system after the decomposition has been updated
+     */
+    @Test
+    public void updateDowndate() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(10, rand);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(10, 3, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(10, 2, -1, 1, rand);
+        DMatrixRMaj A_plus = CommonOps_DDRM.multTransB(X, X, null);
+        CommonOps_DDRM.addEquals(A_plus, A);
+
+        LinearSolverChol_DDRM solver = new LinearSolverChol_DDRM(new CholeskyDecompositionInner_DDRM(true));
+        assertTrue(solver.setA(A.copy()));
+        solver.update(X);
+        DMatrixRMaj found = new DMatrixRMaj(10, 2);
+        solver.solve(B, found);
+        EjmlUnitTests.assertEquals(B, CommonOps_DDRM.mult(A_plus, found, null), UtilEjml.TEST_F64);
+
+        assertTrue(solver.downdate(X));
+        solver.solve(B, found);
+        EjmlUnitTests.assertEquals(B, CommonOps_DDRM.mult(A, found, null), UtilEjml.TEST_F64);
+
+        CommonOps_DDRM.scale(100, X);
+        assertFalse(solver.downdate(X));
+    }
 }
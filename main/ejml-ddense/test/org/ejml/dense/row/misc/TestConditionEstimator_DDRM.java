@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionLDL_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestConditionEstimator_DDRM extends EjmlStandardJUnit {
+    ConditionEstimator_DDRM alg = new ConditionEstimator_DDRM();
+
+    /**
+     * The estimate is a lower bound which in practice is rarely off by more than a factor of 3
+     */
+    @Test
+    public void estimateNorm1() {
+        for (int N : new int[]{1, 2, 5, 20}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, -1, 1, rand);
+            DMatrixRMaj AT = CommonOps_DDRM.transpose(A, null);
+            double expected = NormOps_DDRM.inducedP1(A);
+
+            double found = alg.estimateNorm1(N, ( x, transposed ) -> {
+                DMatrixRMaj in = DMatrixRMaj.wrap(N, 1, x.clone());
+                DMatrixRMaj out = new DMatrixRMaj(N, 1);
+                CommonOps_DDRM.mult(transposed ? AT : A, in, out);
+                System.arraycopy(out.data, 0, x, 0, N);
+            });
+
+            assertTrue(found <= expected*(1.0 + UtilEjml.TEST_F64));
+            assertTrue(found >= expected/3.0);
+        }
+    }
+
+    @Test
+    public void rcondLU() {
+        for (int N : new int[]{1, 2, 5, 20}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, -1, 1, rand);
+            LUDecompositionAlt_DDRM lu = new LUDecompositionAlt_DDRM();
+            assertTrue(lu.decompose(A.copy()));
+
+            double found = alg.rcondLU(lu.getLU(), lu.getPivot(), NormOps_DDRM.inducedP1(A));
+            checkEstimate(A, found);
+        }
+    }
+
+    @Test
+    public void rcondCholesky() {
+        for (boolean lower : new boolean[]{true, false}) {
+            for (int N : new int[]{1, 2, 5, 20}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N, rand);
+                CholeskyDecompositionInner_DDRM chol = new CholeskyDecompositionInner_DDRM(lower);
+                assertTrue(chol.decompose(A.copy()));
+
+                double found = alg.rcondCholesky(chol.getT(), lower, NormOps_DDRM.inducedP1(A));
+                checkEstimate(A, found);
+
+                double norm = alg.estimateNormCholesky(chol.getT(), lower);
+                checkNorm(A, norm);
+            }
+        }
+    }
+
+    @Test
+    public void rcondLDL() {
+        for (int N : new int[]{1, 2, 5, 20}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N, rand);
+            CholeskyDecompositionLDL_DDRM ldl = new CholeskyDecompositionLDL_DDRM();
+            assertTrue(ldl.decompose(A.copy()));
+
+            double found = alg.rcondLDL(ldl.getL(), ldl.getDiagonal(), NormOps_DDRM.inducedP1(A));
+            checkEstimate(A, found);
+
+            double norm = alg.estimateNormLDL(ldl.getL(), ldl.getDiagonal());
+            checkNorm(A, norm);
+        }
+    }
+
+    /**
+     * Only the specified triangle should be read. Garbage is placed in the other one and the matrix is larger
+     * than the triangular matrix.
+     */
+    @Test
+    public void rcondTriangular() {
+        int N = 7;
+        for (boolean upper : new boolean[]{true, false}) {
+            for (boolean transposed : new boolean[]{true, false}) {
+                DMatrixRMaj T = RandomMatrices_DDRM.triangularUpper(N, 0, -1, 1, rand);
+                for (int i = 0; i < N; i++) {
+                    T.add(i, i, 2.0*Math.signum(T.get(i, i)));
+                }
+                if (!upper)
+                    CommonOps_DDRM.transpose(T);
+
+                // The matrix which the condition number should be computed for
+                DMatrixRMaj expected = transposed ? CommonOps_DDRM.transpose(T, null) : T.copy();
+
+                DMatrixRMaj stored = RandomMatrices_DDRM.rectangle(N + 2, N + 1, -1, 1, rand);
+                for (int i = 0; i < N; i++) {
+                    for (int j = 0; j < N; j++) {
+                        if ((upper && j >= i) || (!upper && j <= i))
+                            stored.set(i, j, T.get(i, j));
+                    }
+                }
+
+                double found = alg.rcondTriangular(stored, N, upper, transposed);
+                checkEstimate(expected, found);
+            }
+        }
+    }
+
+    /**
+     * Diagonal matrices have an exact solution and singular matrices should return zero
+     */
+    @Test
+    public void diagonal_and_singular() {
+        DMatrixRMaj A = CommonOps_DDRM.diag(4, 3, 2, 0.5);
+        LUDecompositionAlt_DDRM lu = new LUDecompositionAlt_DDRM();
+        assertTrue(lu.decompose(A.copy()));
+        assertEquals(0.125, alg.rcondLU(lu.getLU(), lu.getPivot(), 4), UtilEjml.TEST_F64);
+        assertEquals(0.125, alg.rcondTriangular(A, 4, true, false), UtilEjml.TEST_F64);
+
+        A.set(2, 2, 0);
+        assertTrue(lu.decompose(A.copy()));
+        assertEquals(0.0, alg.rcondLU(lu.getLU(), lu.getPivot(), 4));
+        assertEquals(0.0, alg.rcondTriangular(A, 4, true, false));
+        assertEquals(0.0, alg.rcondLDL(A, new double[]{1, 2, 0, 3}, 4));
+    }
+
+    @Test
+    public void normP1() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6, 4, -1, 1, rand);
+        assertEquals(NormOps_DDRM.inducedP1(A), alg.normP1(A), UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Compares against the exact reciprocal condition number. The estimate of ||A^-1||_1 is a lower bound
+     */
+    private void checkEstimate( DMatrixRMaj A, double found ) {
+        double expected = 1.0/NormOps_DDRM.conditionP(A, 1);
+        assertTrue(found >= expected*(1.0 - UtilEjml.TEST_F64), found + " " + expected);
+        assertTrue(found <= expected*3.0, found + " " + expected);
+    }
+
+    private void checkNorm( DMatrixRMaj A, double found ) {
+        double expected = NormOps_DDRM.inducedP1(A);
+        assertTrue(found <= expected*(1.0 + UtilEjml.TEST_F64));
+        assertTrue(found >= expected/3.0);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPairwiseSum_DDRM extends EjmlStandardJUnit {
+    @Test void sum() {
+        // sizes below and above the leaf size
+        for (int length : new int[]{0, 1, 5, PairwiseSum_DDRM.LEAF, 3*PairwiseSum_DDRM.LEAF + 7}) {
+            double[] data = randomArray(length + 4);
+            double expected = 0;
+            for (int i = 2; i < length + 2; i++) {
+                expected += data[i];
+            }
+            assertEquals(expected, PairwiseSum_DDRM.sum(data, 2, length + 2), UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void sumSq() {
+        for (int length : new int[]{0, 1, 5, PairwiseSum_DDRM.LEAF, 3*PairwiseSum_DDRM.LEAF + 7}) {
+            double[] data = randomArray(length + 4);
+            double expected = 0;
+            for (int i = 2; i < length + 2; i++) {
+                expected += (data[i]*0.5)*(data[i]*0.5);
+            }
+            assertEquals(expected, PairwiseSum_DDRM.sumSq(data, 2, length + 2, 0.5), UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void dot() {
+        for (int length : new int[]{0, 1, 5, PairwiseSum_DDRM.LEAF, 3*PairwiseSum_DDRM.LEAF + 7}) {
+            double[] a = randomArray(length + 4);
+            double[] b = randomArray(length + 4);
+            double expected = 0;
+            for (int i = 2; i < length + 2; i++) {
+                expected += a[i]*b[i];
+            }
+            assertEquals(expected, PairwiseSum_DDRM.dot(a, b, 2, length + 2), UtilEjml.TEST_F64);
+        }
+    }
+
+    private double[] randomArray( int length ) {
+        double[] data = new double[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = rand.nextDouble()*2.0 - 1.0;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixStrided;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.assertIdentical;
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.embed;
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.extract;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStridedDecompose_DDRM extends EjmlStandardJUnit {
+    int originalBlock = StridedDecompose_DDRM.BLOCK_LENGTH;
+
+    @AfterEach
+    void reset() {
+        StridedDecompose_DDRM.BLOCK_LENGTH = originalBlock;
+    }
+
+    @Test
+    void cholesky() {
+        // small blocks so that several are processed, including a partial one at the end
+        StridedDecompose_DDRM.BLOCK_LENGTH = 3;
+        for (int N : new int[]{1, 3, 10}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N, rand);
+            DMatrixStrided a = embed(A, rand);
+            assertTrue(StridedDecompose_DDRM.cholesky(a));
+
+            DMatrixRMaj L = extract(a);
+            assertTrue(MatrixFeatures_DDRM.isLowerTriangle(L, 0, 0.0));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A, CommonOps_DDRM.multTransB(L, L, null), UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    void cholesky_notSPD() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(5, rand);
+        A.set(4, 4, -2);
+        assertFalse(StridedDecompose_DDRM.cholesky(embed(A, rand)));
+    }
+
+    @Test
+    void lu_solve() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(7, 7, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(7, 3, -1, 1, rand);
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        CommonOps_DDRM.solve(A, B, expected);
+
+        DMatrixStrided lu = embed(A, rand);
+        int[] pivots = new int[7];
+        assertTrue(StridedDecompose_DDRM.lu(lu, pivots));
+
+        DMatrixStrided b = embed(B, rand);
+        StridedDecompose_DDRM.swapRows(b, pivots, 7);
+        StridedTriangular_DDRM.solveL(lu, b, true);
+        StridedTriangular_DDRM.solveU(lu, b, false);
+        assertIdentical(expected, b);
+    }
+
+    @Test
+    void lu_singular() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(5, 5, -1, 1, rand);
+        for (int col = 0; col < 5; col++) {
+            A.set(3, col, 0.0);
+        }
+        assertFalse(StridedDecompose_DDRM.lu(embed(A, rand), new int[5]));
+    }
+}
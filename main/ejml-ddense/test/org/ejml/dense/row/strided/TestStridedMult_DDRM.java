@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixStrided;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestStridedMult_DDRM extends EjmlStandardJUnit {
+    /**
+     * Creates a view of a matrix that's surrounded by random values
+     */
+    public static DMatrixStrided embed( DMatrixRMaj A, Random rand ) {
+        DMatrixRMaj parent = RandomMatrices_DDRM.rectangle(A.numRows + 3, A.numCols + 4, -1, 1, rand);
+        CommonOps_DDRM.insert(A, parent, 2, 1);
+        return new DMatrixStrided(parent, 2, 1, A.numRows, A.numCols);
+    }
+
+    public static DMatrixRMaj extract( DMatrixStrided A ) {
+        DMatrixRMaj ret = new DMatrixRMaj(A.numRows, A.numCols);
+        new DMatrixStrided(ret).setTo(A);
+        return ret;
+    }
+
+    public static void assertIdentical( DMatrixRMaj expected, DMatrixStrided found ) {
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, extract(found), UtilEjml.TEST_F64));
+    }
+
+    @Test
+    void mult() {
+        for (int[] s : new int[][]{{1, 1, 1}, {4, 6, 3}, {7, 2, 8}, {3, 0, 2}}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(s[0], s[1], -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(s[1], s[2], -1, 1, rand);
+            DMatrixRMaj C = RandomMatrices_DDRM.rectangle(s[0], s[2], -1, 1, rand);
+
+            DMatrixRMaj expected = C.copy();
+            CommonOps_DDRM.scale(0.5, expected);
+            CommonOps_DDRM.multAdd(2.0, A, B, expected);
+
+            DMatrixStrided c = embed(C, rand);
+            StridedMult_DDRM.mult(2.0, embed(A, rand), embed(B, rand), 0.5, c);
+            assertIdentical(expected, c);
+
+            // beta = 0 must ignore the original contents, even NaN
+            c = embed(C, rand);
+            StridedOps_DDRM.fill(c, Double.NaN);
+            StridedMult_DDRM.mult(embed(A, rand), embed(B, rand), c);
+            assertIdentical(CommonOps_DDRM.mult(A, B, null), c);
+        }
+    }
+
+    @Test
+    void multTransA() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(5, 4, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(5, 3, -1, 1, rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(4, 3, -1, 1, rand);
+
+        DMatrixRMaj expected = C.copy();
+        CommonOps_DDRM.scale(-1.0, expected);
+        CommonOps_DDRM.multAddTransA(1.5, A, B, expected);
+
+        DMatrixStrided c = embed(C, rand);
+        StridedMult_DDRM.multTransA(1.5, embed(A, rand), embed(B, rand), -1.0, c);
+        assertIdentical(expected, c);
+    }
+
+    @Test
+    void multTransB() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(5, 4, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(3, 4, -1, 1, rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(5, 3, -1, 1, rand);
+
+        DMatrixRMaj expected = C.copy();
+        CommonOps_DDRM.multAddTransB(-2.0, A, B, expected);
+
+        DMatrixStrided c = embed(C, rand);
+        StridedMult_DDRM.multTransB(-2.0, embed(A, rand), embed(B, rand), 1.0, c);
+        assertIdentical(expected, c);
+    }
+
+    /**
+     * Blocks of the same matrix can be used as long as the output doesn't overlap
+     */
+    @Test
+    void blocksOfSameMatrix() {
+        DMatrixRMaj parent = RandomMatrices_DDRM.rectangle(6, 6, -1, 1, rand);
+        DMatrixRMaj expected = parent.copy();
+        DMatrixRMaj A = CommonOps_DDRM.extract(parent, 0, 3, 0, 3);
+        DMatrixRMaj B = CommonOps_DDRM.extract(parent, 0, 3, 3, 6);
+        CommonOps_DDRM.insert(CommonOps_DDRM.mult(A, B, null), expected, 3, 3);
+
+        var view = new DMatrixStrided(parent);
+        StridedMult_DDRM.mult(view.view(0, 0, 3, 3), view.view(0, 3, 3, 3), view.view(3, 3, 3, 3));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, parent, UtilEjml.TEST_F64));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                StridedMult_DDRM.mult(view.view(0, 0, 3, 3), view.view(0, 3, 3, 3), view.view(1, 1, 3, 3)));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixStrided;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.assertIdentical;
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.embed;
+
+public class TestStridedOps_DDRM extends EjmlStandardJUnit {
+    @Test
+    void add() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4, 5, -1, 1, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(4, 5, -1, 1, rand);
+
+        DMatrixStrided c = embed(new DMatrixRMaj(4, 5), rand);
+        StridedOps_DDRM.add(2.0, embed(A, rand), -1.0, embed(B, rand), c);
+        assertIdentical(CommonOps_DDRM.add(2.0, A, -1.0, B, null), c);
+
+        // output is also an input
+        DMatrixStrided a = embed(A, rand);
+        StridedOps_DDRM.add(1.0, a, 1.0, embed(B, rand), a);
+        assertIdentical(CommonOps_DDRM.add(A, B, null), a);
+    }
+
+    @Test
+    void scale_fill() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4, 5, -1, 1, rand);
+        DMatrixStrided a = embed(A, rand);
+        StridedOps_DDRM.scale(3.0, a);
+        DMatrixRMaj expected = A.copy();
+        CommonOps_DDRM.scale(3.0, expected);
+        assertIdentical(expected, a);
+
+        StridedOps_DDRM.fill(a, 2.0);
+        CommonOps_DDRM.fill(expected, 2.0);
+        assertIdentical(expected, a);
+    }
+
+    @Test
+    void copy_transpose() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4, 5, -1, 1, rand);
+        DMatrixStrided b = embed(new DMatrixRMaj(4, 5), rand);
+        StridedOps_DDRM.copy(embed(A, rand), b);
+        assertIdentical(A, b);
+
+        DMatrixStrided t = embed(new DMatrixRMaj(5, 4), rand);
+        StridedOps_DDRM.transpose(embed(A, rand), t);
+        assertIdentical(CommonOps_DDRM.transpose(A, null), t);
+    }
+}
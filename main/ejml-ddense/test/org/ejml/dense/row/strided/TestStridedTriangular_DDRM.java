@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.strided;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixStrided;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.assertIdentical;
+import static org.ejml.dense.row.strided.TestStridedMult_DDRM.embed;
+
+public class TestStridedTriangular_DDRM extends EjmlStandardJUnit {
+    DMatrixRMaj lower( int N, boolean unit ) {
+        DMatrixRMaj L = RandomMatrices_DDRM.triangularLower(N, 0, -1, 1, rand);
+        for (int i = 0; i < N; i++) {
+            L.set(i, i, unit ? 1.0 : 2.0 + rand.nextDouble());
+        }
+        return L;
+    }
+
+    /**
+     * Fills the upper triangle with values which should be ignored
+     */
+    DMatrixStrided embedLower( DMatrixRMaj L, boolean unit ) {
+        DMatrixStrided ret = embed(L, rand);
+        for (int i = 0; i < L.numRows; i++) {
+            for (int j = unit ? i : i + 1; j < L.numCols; j++) {
+                ret.set(i, j, 100);
+            }
+        }
+        return ret;
+    }
+
+    @Test
+    void solveL() {
+        for (boolean unit : new boolean[]{true, false}) {
+            DMatrixRMaj L = lower(6, unit);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6, 3, -1, 1, rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+            CommonOps_DDRM.solve(L, B, expected);
+
+            DMatrixStrided b = embed(B, rand);
+            StridedTriangular_DDRM.solveL(embedLower(L, unit), b, unit);
+            assertIdentical(expected, b);
+        }
+    }
+
+    @Test
+    void solveU() {
+        for (boolean unit : new boolean[]{true, false}) {
+            DMatrixRMaj U = CommonOps_DDRM.transpose(lower(6, unit), null);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6, 3, -1, 1, rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+            CommonOps_DDRM.solve(U, B, expected);
+
+            // lower triangle holds garbage
+            DMatrixStrided u = embed(U, rand);
+            for (int i = 0; i < 6; i++) {
+                for (int j = 0; j < (unit ? i + 1 : i); j++) {
+                    u.set(i, j, 100);
+                }
+            }
+
+            DMatrixStrided b = embed(B, rand);
+            StridedTriangular_DDRM.solveU(u, b, unit);
+            assertIdentical(expected, b);
+        }
+    }
+
+    @Test
+    void solveTranL() {
+        DMatrixRMaj L = lower(5, false);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(5, 4, -1, 1, rand);
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        CommonOps_DDRM.solve(CommonOps_DDRM.transpose(L, null), B, expected);
+
+        DMatrixStrided b = embed(B, rand);
+        StridedTriangular_DDRM.solveTranL(embedLower(L, false), b);
+        assertIdentical(expected, b);
+    }
+
+    @Test
+    void solveRightTranL() {
+        DMatrixRMaj L = lower(5, false);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(3, 5, -1, 1, rand);
+
+        // X*L' = B  is the same as  L*X' = B'
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        CommonOps_DDRM.solve(L, CommonOps_DDRM.transpose(B, null), expected);
+        CommonOps_DDRM.transpose(expected);
+
+        DMatrixStrided b = embed(B, rand);
+        StridedTriangular_DDRM.solveRightTranL(embedLower(L, false), b);
+        assertIdentical(expected, b);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.mult.MatrixVectorMultWithSemiRing_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated semiring kernels against the generic lambda based implementation. Several semirings
+ * are used in the setup so that the generic call sites are megamorphic, as they would be in an application.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkSemiRingKernels_DSCC {
+
+    @Param({"100000"})
+    private int dimension;
+
+    @Param({"20"})
+    private int countPerColumn;
+
+    @Param({"MIN_PLUS", "OR_AND", "MAX_TIMES"})
+    private String semiRingName;
+
+    DMatrixSparseCSC A;
+    DMatrixSparseCSC C;
+    // the built in semiring which will use a specialized kernel
+    DSemiRing specialized;
+    // copy of the semiring which will use the generic implementation
+    DSemiRing generic;
+    double[] v, result;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Random rand = new Random(345);
+        A = RandomMatrices_DSCC.generateUniform(dimension, dimension, countPerColumn, -1, 1, rand);
+        C = new DMatrixSparseCSC(1, 1);
+        v = new double[dimension];
+        result = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            v[i] = rand.nextDouble();
+        }
+
+        specialized = (DSemiRing)DSemiRings.class.getField(semiRingName).get(null);
+        generic = new DSemiRing(specialized.add, specialized.mult);
+
+        // pollute the type profile of the generic implementation
+        DSemiRing[] others = {DSemiRings.PLUS_TIMES, DSemiRings.MIN_PLUS, DSemiRings.OR_AND, DSemiRings.MAX_MIN};
+        for (int i = 0; i < others.length; i++) {
+            DSemiRing copy = new DSemiRing(others[i].add, others[i].mult);
+            for (int trial = 0; trial < 20; trial++) {
+                MatrixVectorMultWithSemiRing_DSCC.mult(A, v, result, copy, null);
+            }
+        }
+    }
+
+    // @formatter:off
+    @Benchmark public void mxv_specialized() { MatrixVectorMultWithSemiRing_DSCC.mult(A, v, result, specialized, null); }
+    @Benchmark public void mxv_generic() { MatrixVectorMultWithSemiRing_DSCC.mult(A, v, result, generic, null); }
+    @Benchmark public void vxm_specialized() { MatrixVectorMultWithSemiRing_DSCC.mult(v, A, result, specialized, null); }
+    @Benchmark public void vxm_generic() { MatrixVectorMultWithSemiRing_DSCC.mult(v, A, result, generic, null); }
+    @Benchmark public void mxm_specialized() { CommonOpsWithSemiRing_DSCC.mult(A, A, C, specialized); }
+    @Benchmark public void mxm_generic() { CommonOpsWithSemiRing_DSCC.mult(A, A, C, generic); }
+    // @formatter:on
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSemiRingKernels_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.CodeGeneratorBase;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FileNotFoundException;
+
+/**
+ * <p>
+ * Generates kernels for each of the built in semirings in {@link org.ejml.ops.DSemiRings} with
+ * the add and multiply operators inlined. Calling the operators through {@link org.ejml.ops.DOperatorBinary}
+ * for every non-zero element results in a megamorphic call site once more than two semirings have been used,
+ * which can be several times slower than the hand written PLUS_TIMES implementation.
+ * </p>
+ *
+ * <p>
+ * To create ImplSemiRingKernels_DSCC simply run this application and copy it to the appropriate location.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateImplSemiRingKernels_DSCC extends CodeGeneratorBase {
+
+    // Name of the semiring in DSemiRings followed by the add and mult monoid names
+    private final String[][] semiRings = new String[][]{
+            {"PLUS_TIMES", "PLUS", "TIMES"},
+            {"MIN_PLUS", "MIN", "PLUS"},
+            {"MAX_PLUS", "MAX", "PLUS"},
+            {"MIN_TIMES", "MIN", "TIMES"},
+            {"MIN_MAX", "MIN", "MAX"},
+            {"MAX_MIN", "MAX", "MIN"},
+            {"MAX_TIMES", "MAX", "TIMES"},
+            {"PLUS_MIN", "PLUS", "MIN"},
+            {"OR_AND", "OR", "AND"},
+            {"AND_OR", "AND", "OR"},
+            {"XOR_AND", "XOR", "AND"},
+            {"XNOR_OR", "XNOR", "OR"},
+            {"MIN_FIRST", "MIN", "FIRST"},
+            {"MIN_SECOND", "MIN", "SECOND"},
+            {"MAX_FIRST", "MAX", "FIRST"},
+            {"MAX_SECOND", "MAX", "SECOND"}};
+
+    @Override
+    public void generate() throws FileNotFoundException {
+        setOutputFile("ImplSemiRingKernels_DSCC");
+        out.print(
+                "import org.ejml.data.DMatrixRMaj;\n" +
+                "import org.ejml.data.DMatrixSparseCSC;\n" +
+                "import org.ejml.data.DVectorSparse;\n" +
+                "import org.ejml.masks.Mask;\n" +
+                "import org.ejml.ops.DSemiRing;\n" +
+                "import org.ejml.ops.DSemiRings;\n" +
+                "import org.jetbrains.annotations.Nullable;\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>\n" +
+                " * Kernels for the semirings in {@link DSemiRings} with the operators inlined. This avoids\n" +
+                " * calling the operators through a lambda for every element, which is slow once the call site has seen\n" +
+                " * several different semirings. Semirings are matched by identity and if there is no match then the\n" +
+                " * dispatch functions return false and the generic implementation should be used instead.\n" +
+                " * </p>\n" +
+                " *\n" +
+                " * <p>\n" +
+                " * Sparse outputs are computed for a range of columns so that the same kernels can be used by the\n" +
+                " * single threaded and concurrent implementations. Sparse vector kernels expect the output to already\n" +
+                " * have been reshaped.\n" +
+                " * </p>\n" +
+                standardClassDocClosing("Peter Abeles") +
+                "@SuppressWarnings(\"Duplicates\")\n" +
+                "public class " + className + " {\n");
+
+        printDispatch("Computes columns bj0 to bj1-1 of C = A*B and writes them to columns 0 to bj1-bj0-1 in C",
+                "@see ImplMultiplicationWithSemiRing_DSCC#multColumns",
+                "multColumns( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1, DMatrixSparseCSC C,\n" +
+                "                                       DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w )",
+                "multColumns_", "A, B, bj0, bj1, C, mask, x, w");
+        printDispatch("Computes columns col0 to col1-1 of C = &alpha;A + &beta;B and writes them to columns 0 to col1-col0-1 in C",
+                "@see org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC#addColumns",
+                "add( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,\n" +
+                "                               int col0, int col1, DMatrixSparseCSC C,\n" +
+                "                               DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w )",
+                "add_", "alpha, A, beta, B, col0, col1, C, mask, x, w");
+        printDispatch("Computes columns col0 to col1-1 of the element-wise product and writes them to columns 0 to col1-col0-1 in C",
+                "@see org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC#elementMultColumns",
+                "elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1, DMatrixSparseCSC C,\n" +
+                "                                       DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w )",
+                "elementMult_", "A, B, col0, col1, C, mask, x, w");
+        printDispatch("Performs c = c + A*b",
+                null,
+                "multAdd( DMatrixSparseCSC A, double[] b, int offsetB,\n" +
+                "                                   double[] c, int offsetC, DSemiRing semiRing )",
+                "multAdd_", "A, b, offsetB, c, offsetC");
+        printDispatch("Performs c = a<sup>T</sup>*B",
+                null,
+                "mult( double[] a, int offsetA, DMatrixSparseCSC B,\n" +
+                "                                double[] c, int offsetC, DSemiRing semiRing, @Nullable Mask mask )",
+                "mult_", "a, offsetA, B, c, offsetC, mask");
+        printDispatch("Performs C = C + A*B where B and C are dense",
+                null,
+                "multAdd( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing )",
+                "multAdd_", "A, B, C");
+        printDispatch("Performs C = A<sup>T</sup>*B, or C = C + A<sup>T</sup>*B if add is true, where B and C are dense",
+                null,
+                "multTransA( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing, boolean add )",
+                "multTransA_", "A, B, C, add");
+        printDispatch("Performs C = C + A*B<sup>T</sup> where B and C are dense",
+                null,
+                "multAddTransB( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing )",
+                "multAddTransB_", "A, B, C");
+        printDispatch("Performs C = C + A<sup>T</sup>*B<sup>T</sup> where B and C are dense",
+                null,
+                "multAddTransAB( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing )",
+                "multAddTransAB_", "A, B, C");
+        printDispatch("Scatters the columns in P selected by v into c",
+                "@see MatrixSparseVectorMultWithSemiRing_DSCC#push",
+                "push( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,\n" +
+                "                                DSemiRing semiRing, @Nullable Mask mask, int[] w )",
+                "push_", "P, v, vectorLeft, c, mask, w");
+        printDispatch("Computes the dot product between each column in Q and v",
+                "@see MatrixSparseVectorMultWithSemiRing_DSCC#pull",
+                "pull( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,\n" +
+                "                                DSemiRing semiRing, @Nullable Mask mask, int[] w )",
+                "pull_", "Q, v, vectorLeft, c, mask, w");
+
+        for (int i = 0; i < semiRings.length; i++) {
+            String name = semiRings[i][0];
+            String add = semiRings[i][1];
+            String mult = semiRings[i][2];
+            out.print("\n");
+            printMultColumns(name, add, mult);
+            out.print("\n");
+            printAdd(name, add, mult);
+            out.print("\n");
+            printElementMult(name, mult);
+            out.print("\n");
+            printMultAddVector(name, add, mult);
+            out.print("\n");
+            printMultVectorMatrix(name, add, mult);
+            out.print("\n");
+            printMultAddDense(name, add, mult);
+            out.print("\n");
+            printMultTransADense(name, add, mult);
+            out.print("\n");
+            printMultAddTransBDense(name, add, mult);
+            out.print("\n");
+            printMultAddTransABDense(name, add, mult);
+            out.print("\n");
+            printPush(name, add, mult);
+            out.print("\n");
+            printPull(name, add, mult);
+        }
+
+        out.println("}");
+        out.close();
+    }
+
+    /**
+     * Prints a function which calls the kernel for the semiring, or returns false if there is none.
+     */
+    private void printDispatch( String summary, @Nullable String see, String signature, String prefix, String args ) {
+        out.print(
+                "    /**\n" +
+                "     * " + summary + " using a specialized kernel if one is available for the semiring.\n" +
+                "     *\n" +
+                "     * @return true if a specialized kernel was used or false if the generic version needs to be used\n" +
+                (see == null ? "" : "     * " + see + "\n") +
+                "     */\n" +
+                "    public static boolean " + signature + " {\n");
+        for (int i = 0; i < semiRings.length; i++) {
+            String name = semiRings[i][0];
+            out.print(
+                    "        " + (i == 0 ? "" : "} else ") + "if (semiRing == DSemiRings." + name + ") {\n" +
+                    "            " + prefix + name + "(" + args + ");\n");
+        }
+        out.print(
+                "        } else {\n" +
+                "            return false;\n" +
+                "        }\n" +
+                "        return true;\n" +
+                "    }\n\n");
+    }
+
+    /**
+     * Code for x = x + A(:,colA)*alpha. Inlined version of ImplMultiplicationWithSemiRing_DSCC.multAddColA()
+     */
+    private String scatter( String indent, String matrix, String colA, String alpha, String add, String mult ) {
+        String i = indent;
+        return
+                i + "for (int j = " + matrix + ".col_idx[" + colA + "]; j < " + matrix + ".col_idx[" + colA + " + 1]; j++) {\n" +
+                i + "    int row = " + matrix + ".nz_rows[j];\n" +
+                i + "    if (mask != null && !mask.isSet(row, maskColumn))\n" +
+                i + "        continue;\n" +
+                "\n" +
+                i + "    double valA = " + matrix + ".nz_values[j];\n" +
+                i + "    double prod = " + op(mult, "valA", alpha) + ";\n" +
+                i + "    if (w[row] < mark) {\n" +
+                i + "        if (C.nz_length >= C.nz_rows.length) {\n" +
+                i + "            int growToLength = C.nz_length*2 + 1;\n" +
+                i + "            if (mask != null) {\n" +
+                i + "                growToLength = Math.min(growToLength, mask.maxMaskedEntries());\n" +
+                i + "            }\n" +
+                i + "            C.growMaxLength(growToLength, true);\n" +
+                i + "        }\n" +
+                "\n" +
+                i + "        w[row] = mark;\n" +
+                i + "        C.nz_rows[C.nz_length] = row;\n" +
+                i + "        C.col_idx[mark] = ++C.nz_length;\n" +
+                i + "        x[row] = prod;\n" +
+                i + "    } else {\n" +
+                i + "        double sum = x[row];\n" +
+                i + "        x[row] = " + op(add, "sum", "prod") + ";\n" +
+                i + "    }\n" +
+                i + "}\n";
+    }
+
+    /**
+     * Code which copies the values of column colC in 'x' into 'C'
+     */
+    private static String gather( String indent ) {
+        return
+                indent + "// take the values in the dense vector 'x' and put them into 'C'\n" +
+                indent + "for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {\n" +
+                indent + "    C.nz_values[i] = x[C.nz_rows[i]];\n" +
+                indent + "}\n";
+    }
+
+    private void printMultColumns( String name, String add, String mult ) {
+        out.print(
+                "    public static void multColumns_" + name + "( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,\n" +
+                "                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {\n" +
+                "        // C(i,j) = sum_k A(i,k) * B(k,j)\n" +
+                "        for (int bj = bj0; bj < bj1; bj++) {\n" +
+                "            int colC = bj - bj0;\n" +
+                "            int mark = colC + 1;\n" +
+                "            int maskColumn = bj;\n" +
+                "            int idx0 = B.col_idx[bj];\n" +
+                "            int idx1 = B.col_idx[bj + 1];\n" +
+                "            C.col_idx[mark] = C.nz_length;\n" +
+                "\n" +
+                "            if (idx0 == idx1) {\n" +
+                "                continue;\n" +
+                "            }\n" +
+                "\n" +
+                "            if (mask != null) {\n" +
+                "                mask.setIndexColumn(bj);\n" +
+                "            }\n" +
+                "\n" +
+                "            // C(:,j) = sum_k A(:,k)*B(k,j)\n" +
+                "            for (int bi = idx0; bi < idx1; bi++) {\n" +
+                "                int colA = B.nz_rows[bi];\n" +
+                "                double valB = B.nz_values[bi];\n" +
+                scatter("                ", "A", "colA", "valB", add, mult) +
+                "            }\n" +
+                "\n" +
+                gather("            ") +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printAdd( String name, String add, String mult ) {
+        out.print(
+                "    public static void add_" + name + "( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,\n" +
+                "                                int col0, int col1, DMatrixSparseCSC C,\n" +
+                "                                @Nullable Mask mask, double[] x, int[] w ) {\n" +
+                "        for (int col = col0; col < col1; col++) {\n" +
+                "            int colC = col - col0;\n" +
+                "            int mark = colC + 1;\n" +
+                "            int maskColumn = col;\n" +
+                "            C.col_idx[colC] = C.nz_length;\n" +
+                "\n" +
+                "            if (mask != null) {\n" +
+                "                mask.setIndexColumn(col);\n" +
+                "            }\n" +
+                "\n" +
+                scatter("            ", "A", "col", "alpha", add, mult) +
+                scatter("            ", "B", "col", "beta", add, mult) +
+                "\n" +
+                gather("            ") +
+                "        }\n" +
+                "        C.col_idx[col1 - col0] = C.nz_length;\n" +
+                "    }\n");
+    }
+
+    private void printElementMult( String name, String mult ) {
+        out.print(
+                "    public static void elementMult_" + name + "( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,\n" +
+                "                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {\n" +
+                "        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();\n" +
+                "\n" +
+                "        for (int col = col0; col < col1; col++) {\n" +
+                "            int idxA0 = A.col_idx[col];\n" +
+                "            int idxA1 = A.col_idx[col + 1];\n" +
+                "            int idxB0 = B.col_idx[col];\n" +
+                "            int idxB1 = B.col_idx[col + 1];\n" +
+                "\n" +
+                "            // make sure there are enough non-zero elements in C\n" +
+                "            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);\n" +
+                "            if (expectedResultSize > C.nz_values.length) {\n" +
+                "                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);\n" +
+                "            }\n" +
+                "\n" +
+                "            C.col_idx[col - col0] = C.nz_length;\n" +
+                "\n" +
+                "            if (mask != null) {\n" +
+                "                mask.setIndexColumn(col);\n" +
+                "            }\n" +
+                "\n" +
+                "            // mark the rows that appear in A and save their value\n" +
+                "            for (int i = idxA0; i < idxA1; i++) {\n" +
+                "                int row = A.nz_rows[i];\n" +
+                "                w[row] = col;\n" +
+                "                x[row] = A.nz_values[i];\n" +
+                "            }\n" +
+                "\n" +
+                "            // If a row appears in A and B, multiply and set as an element in C\n" +
+                "            for (int i = idxB0; i < idxB1; i++) {\n" +
+                "                int row = B.nz_rows[i];\n" +
+                "                if (w[row] != col || (mask != null && !mask.isSet(row, col)))\n" +
+                "                    continue;\n" +
+                "\n" +
+                "                double valA = x[row];\n" +
+                "                double valB = B.nz_values[i];\n" +
+                "                C.nz_values[C.nz_length] = " + op(mult, "valA", "valB") + ";\n" +
+                "                C.nz_rows[C.nz_length++] = row;\n" +
+                "            }\n" +
+                "        }\n" +
+                "        C.col_idx[col1 - col0] = C.nz_length;\n" +
+                "    }\n");
+    }
+
+    private void printMultAddVector( String name, String add, String mult ) {
+        out.print(
+                "    public static void multAdd_" + name + "( DMatrixSparseCSC A, double[] b, int offsetB,\n" +
+                "                                double[] c, int offsetC ) {\n" +
+                "        for (int k = 0; k < A.numCols; k++) {\n" +
+                "            int idx0 = A.col_idx[k];\n" +
+                "            int idx1 = A.col_idx[k + 1];\n" +
+                "            double valB = b[offsetB + k];\n" +
+                "\n" +
+                "            for (int indexA = idx0; indexA < idx1; indexA++) {\n" +
+                "                int indexC = offsetC + A.nz_rows[indexA];\n" +
+                "                double valA = A.nz_values[indexA];\n" +
+                "                double prod = " + op(mult, "valA", "valB") + ";\n" +
+                "                double sum = c[indexC];\n" +
+                "                c[indexC] = " + op(add, "sum", "prod") + ";\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printMultVectorMatrix( String name, String add, String mult ) {
+        out.print(
+                "    public static void mult_" + name + "( double[] a, int offsetA, DMatrixSparseCSC B,\n" +
+                "                                double[] c, int offsetC, @Nullable Mask mask ) {\n" +
+                "        for (int k = 0; k < B.numCols; k++) {\n" +
+                "            if (mask != null && !mask.isSet(k))\n" +
+                "                continue;\n" +
+                "\n" +
+                "            int idx0 = B.col_idx[k];\n" +
+                "            int idx1 = B.col_idx[k + 1];\n" +
+                "\n" +
+                "            double sum = " + identity(add) + ";\n" +
+                "            for (int indexB = idx0; indexB < idx1; indexB++) {\n" +
+                "                double valA = a[offsetA + B.nz_rows[indexB]];\n" +
+                "                double valB = B.nz_values[indexB];\n" +
+                "                double prod = " + op(mult, "valA", "valB") + ";\n" +
+                "                sum = " + op(add, "sum", "prod") + ";\n" +
+                "            }\n" +
+                "            c[offsetC + k] = sum;\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printMultAddDense( String name, String add, String mult ) {
+        out.print(
+                "    public static void multAdd_" + name + "( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {\n" +
+                "        // C(i,j) = sum_k A(i,k) * B(k,j)\n" +
+                "        for (int k = 0; k < A.numCols; k++) {\n" +
+                "            int idx0 = A.col_idx[k];\n" +
+                "            int idx1 = A.col_idx[k + 1];\n" +
+                "\n" +
+                "            for (int indexA = idx0; indexA < idx1; indexA++) {\n" +
+                "                double valA = A.nz_values[indexA];\n" +
+                "                int indexB = k*B.numCols;\n" +
+                "                int indexC = A.nz_rows[indexA]*C.numCols;\n" +
+                "                int end = indexB + B.numCols;\n" +
+                "\n" +
+                "                while (indexB < end) {\n" +
+                "                    double valB = B.data[indexB++];\n" +
+                "                    double prod = " + op(mult, "valA", "valB") + ";\n" +
+                "                    double sum = C.data[indexC];\n" +
+                "                    C.data[indexC++] = " + op(add, "sum", "prod") + ";\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printMultTransADense( String name, String add, String mult ) {
+        out.print(
+                "    public static void multTransA_" + name + "( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {\n" +
+                "        // C(i,j) = sum_k A(k,i) * B(k,j)\n" +
+                "        for (int j = 0; j < B.numCols; j++) {\n" +
+                "            for (int i = 0; i < A.numCols; i++) {\n" +
+                "                int idx0 = A.col_idx[i];\n" +
+                "                int idx1 = A.col_idx[i + 1];\n" +
+                "\n" +
+                "                double sum = " + identity(add) + ";\n" +
+                "                for (int indexA = idx0; indexA < idx1; indexA++) {\n" +
+                "                    double valA = A.nz_values[indexA];\n" +
+                "                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];\n" +
+                "                    double prod = " + op(mult, "valA", "valB") + ";\n" +
+                "                    sum = " + op(add, "sum", "prod") + ";\n" +
+                "                }\n" +
+                "\n" +
+                "                int indexC = i*C.numCols + j;\n" +
+                "                if (add) {\n" +
+                "                    double valC = C.data[indexC];\n" +
+                "                    C.data[indexC] = " + op(add, "valC", "sum") + ";\n" +
+                "                } else {\n" +
+                "                    C.data[indexC] = sum;\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printMultAddTransBDense( String name, String add, String mult ) {
+        out.print(
+                "    public static void multAddTransB_" + name + "( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {\n" +
+                "        // C(i,j) = sum_k A(i,k) * B(j,k)\n" +
+                "        for (int k = 0; k < A.numCols; k++) {\n" +
+                "            int idx0 = A.col_idx[k];\n" +
+                "            int idx1 = A.col_idx[k + 1];\n" +
+                "            for (int indexA = idx0; indexA < idx1; indexA++) {\n" +
+                "                double valA = A.nz_values[indexA];\n" +
+                "                int indexC = A.nz_rows[indexA]*C.numCols;\n" +
+                "                for (int j = 0; j < B.numRows; j++) {\n" +
+                "                    double valB = B.data[j*B.numCols + k];\n" +
+                "                    double prod = " + op(mult, "valA", "valB") + ";\n" +
+                "                    double sum = C.data[indexC + j];\n" +
+                "                    C.data[indexC + j] = " + op(add, "sum", "prod") + ";\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printMultAddTransABDense( String name, String add, String mult ) {
+        out.print(
+                "    public static void multAddTransAB_" + name + "( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {\n" +
+                "        // C(i,j) = sum_k A(k,i) * B(j,k)\n" +
+                "        for (int i = 0; i < A.numCols; i++) {\n" +
+                "            int idx0 = A.col_idx[i];\n" +
+                "            int idx1 = A.col_idx[i + 1];\n" +
+                "            int indexC = i*C.numCols;\n" +
+                "\n" +
+                "            for (int indexA = idx0; indexA < idx1; indexA++) {\n" +
+                "                double valA = A.nz_values[indexA];\n" +
+                "                int k = A.nz_rows[indexA];\n" +
+                "                for (int j = 0; j < B.numRows; j++) {\n" +
+                "                    double valB = B.data[j*B.numCols + k];\n" +
+                "                    double prod = " + op(mult, "valA", "valB") + ";\n" +
+                "                    double sum = C.data[indexC + j];\n" +
+                "                    C.data[indexC + j] = " + op(add, "sum", "prod") + ";\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
+    private void printPush( String name, String add, String mult ) {
+        out.print(
+                "    public static void push_" + name + "( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,\n" +
+                "                                @Nullable Mask mask, int[] w ) {\n" +
+                "        int[] c_indices = c.nz_indices;\n" +
+                "        double[] c_values = c.nz_values;\n" +
+                "        int c_length = 0;\n" +
+                "\n" +
+                "        for (int i = 0; i < v.nz_length; i++) {\n" +
+                "            int col = v.nz_indices[i];\n" +
+                "            double value = v.nz_values[i];\n" +
+                "\n" +
+                "            int idx0 = P.col_idx[col];\n" +
+                "            int idx1 = P.col_idx[col + 1];\n" +
+                "\n" +
+                "            for (int j = idx0; j < idx1; j++) {\n" +
+                "                int row = P.nz_rows[j];\n" +
+                "                int loc = w[row];\n" +
+                "                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;\n" +
+                "\n" +
+                "                if (!exists && mask != null && !mask.isSet(row))\n" +
+                "                    continue;\n" +
+                "\n" +
+                "                double valP = P.nz_values[j];\n" +
+                "                double prod = vectorLeft ? (" + op(mult, "value", "valP") + ") : (" + op(mult, "valP", "value") + ");\n" +
+                "\n" +
+                "                if (exists) {\n" +
+                "                    double sum = c_values[loc];\n" +
+                "                    c_values[loc] = " + op(add, "sum", "prod") + ";\n" +
+                "                } else {\n" +
+                "                    w[row] = c_length;\n" +
+                "                    c_indices[c_length] = row;\n" +
+                "                    c_values[c_length++] = prod;\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "        c.nz_length = c_length;\n" +
+                "    }\n");
+    }
+
+    private void printPull( String name, String add, String mult ) {
+        out.print(
+                "    public static void pull_" + name + "( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,\n" +
+                "                                @Nullable Mask mask, int[] w ) {\n" +
+                "        int[] v_indices = v.nz_indices;\n" +
+                "        double[] v_values = v.nz_values;\n" +
+                "        int v_length = v.nz_length;\n" +
+                "        int[] c_indices = c.nz_indices;\n" +
+                "        double[] c_values = c.nz_values;\n" +
+                "        int c_length = 0;\n" +
+                "\n" +
+                "        for (int col = 0; col < Q.numCols; col++) {\n" +
+                "            if (mask != null && !mask.isSet(col))\n" +
+                "                continue;\n" +
+                "\n" +
+                "            int idx0 = Q.col_idx[col];\n" +
+                "            int idx1 = Q.col_idx[col + 1];\n" +
+                "\n" +
+                "            boolean found = false;\n" +
+                "            double sum = 0;\n" +
+                "            for (int j = idx0; j < idx1; j++) {\n" +
+                "                int row = Q.nz_rows[j];\n" +
+                "                int loc = w[row];\n" +
+                "                if (loc < 0 || loc >= v_length || v_indices[loc] != row)\n" +
+                "                    continue;\n" +
+                "\n" +
+                "                double valV = v_values[loc];\n" +
+                "                double valQ = Q.nz_values[j];\n" +
+                "                double prod = vectorLeft ? (" + op(mult, "valV", "valQ") + ") : (" + op(mult, "valQ", "valV") + ");\n" +
+                "                if (found) {\n" +
+                "                    sum = " + op(add, "sum", "prod") + ";\n" +
+                "                } else {\n" +
+                "                    sum = prod;\n" +
+                "                    found = true;\n" +
+                "                }\n" +
+                "            }\n" +
+                "\n" +
+                "            if (found) {\n" +
+                "                c_indices[c_length] = col;\n" +
+                "                c_values[c_length++] = sum;\n" +
+                "            }\n" +
+                "        }\n" +
+                "        c.nz_length = c_length;\n" +
+                "    }\n");
+    }
+
+    /**
+     * Inlined version of the operators in {@link org.ejml.ops.DMonoids}. Must produce identical results.
+     */
+    private static String op( String monoid, String a, String b ) {
+        switch (monoid) {
+            case "PLUS": return a + " + " + b;
+            case "TIMES": return a + "*" + b;
+            case "MIN": return "(" + a + " <= " + b + ") ? " + a + " : " + b;
+            case "MAX": return "(" + a + " >= " + b + ") ? " + a + " : " + b;
+            case "AND": return "(" + a + " == 0 || " + b + " == 0) ? 0 : 1";
+            case "OR": return "(" + a + " != 0 || " + b + " != 0) ? 1 : 0";
+            case "XOR": return "((" + a + " == 0 && " + b + " == 0) || (" + a + " != 0 && " + b + " != 0)) ? 0 : 1";
+            case "XNOR": return "((" + a + " == 0 && " + b + " == 0) || (" + a + " != 0 && " + b + " != 0)) ? 1 : 0";
+            case "FIRST": return a;
+            case "SECOND": return b;
+            default: throw new RuntimeException("Unknown monoid " + monoid);
+        }
+    }
+
+    private static String identity( String monoid ) {
+        switch (monoid) {
+            case "PLUS": case "OR": case "XOR": case "XNOR": return "0";
+            case "TIMES": case "AND": return "1";
+            case "MIN": return "Double.MAX_VALUE";
+            case "MAX": return "-Double.MAX_VALUE";
+            default: throw new RuntimeException("Monoid has no identity " + monoid);
+        }
+    }
+
+    public static void main( String[] args ) throws FileNotFoundException {
+        new GenerateImplSemiRingKernels_DSCC().generate();
+    }
+}
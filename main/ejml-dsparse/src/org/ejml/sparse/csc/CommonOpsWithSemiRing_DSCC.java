@@ -21,11 +21,13 @@ import org.ejml.MatrixDimensionException;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
 import org.ejml.data.IGrowArray;
 import org.ejml.masks.Mask;
 import org.ejml.ops.DSemiRing;
 import org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC;
 import org.ejml.sparse.csc.mult.ImplMultiplicationWithSemiRing_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 import static org.ejml.UtilEjml.reshapeOrDeclare;
@@ -175,6 +177,104 @@ public class CommonOpsWithSemiRing_DSCC {
         ImplMultiplicationWithSemiRing_DSCC.multAddTransAB(A, B, C, semiRing);
     }
 
+    /**
+     * Performs sparse matrix-sparse vector multiplication.  output = A*b
+     *
+     * @param A        (Input) Matrix. Not modified.
+     * @param b        (Input) Sparse vector. Not modified.
+     * @param output   (Output) Sparse vector. Indices are not sorted.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be computed
+     * @param gw       (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DVectorSparse mult( DMatrixSparseCSC A, DVectorSparse b, @Nullable DVectorSparse output, DSemiRing semiRing,
+                                      @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (A.numCols != b.size)
+            throw new MatrixDimensionException("Inconsistent shapes. A = " + A.numRows + "x" + A.numCols + " b = " + b.size);
+        if (output == null)
+            output = new DVectorSparse(A.numRows);
+
+        MatrixSparseVectorMultWithSemiRing_DSCC.mult(A, b, output, semiRing, mask, gw);
+
+        return output;
+    }
+
+    /**
+     * Direction optimizing sparse matrix-sparse vector multiplication.  output = A*b
+     * Depending on how many non-zero elements are in 'b' and the mask, the product is either computed by
+     * pushing columns of A or by pulling columns of A<sup>T</sup> (rows of A).
+     *
+     * @param A        (Input) Matrix. Not modified.
+     * @param AT       (Input) Transpose of A. Not modified.
+     * @param b        (Input) Sparse vector. Not modified.
+     * @param output   (Output) Sparse vector.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be computed
+     * @param gw       (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DVectorSparse mult( DMatrixSparseCSC A, DMatrixSparseCSC AT, DVectorSparse b, @Nullable DVectorSparse output,
+                                      DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (A.numCols != b.size)
+            throw new MatrixDimensionException("Inconsistent shapes. A = " + A.numRows + "x" + A.numCols + " b = " + b.size);
+        if (A.numRows != AT.numCols || A.numCols != AT.numRows)
+            throw new MatrixDimensionException("AT is not the transpose of A. " + stringShapes(A, AT));
+        if (output == null)
+            output = new DVectorSparse(A.numRows);
+
+        MatrixSparseVectorMultWithSemiRing_DSCC.mult(A, AT, b, output, semiRing, mask, gw);
+
+        return output;
+    }
+
+    /**
+     * Performs sparse vector-sparse matrix multiplication.  output = a*B
+     *
+     * @param a        (Input) Sparse vector. Not modified.
+     * @param B        (Input) Matrix. Not modified.
+     * @param output   (Output) Sparse vector. Indices are sorted.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be computed
+     * @param gw       (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DVectorSparse mult( DVectorSparse a, DMatrixSparseCSC B, @Nullable DVectorSparse output, DSemiRing semiRing,
+                                      @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (a.size != B.numRows)
+            throw new MatrixDimensionException("Inconsistent shapes. a = " + a.size + " B = " + B.numRows + "x" + B.numCols);
+        if (output == null)
+            output = new DVectorSparse(B.numCols);
+
+        MatrixSparseVectorMultWithSemiRing_DSCC.mult(a, B, output, semiRing, mask, gw);
+
+        return output;
+    }
+
+    /**
+     * Direction optimizing sparse vector-sparse matrix multiplication.  output = a*B
+     * Depending on how many non-zero elements are in 'a' and the mask, the product is either computed by
+     * pushing rows of B (columns of B<sup>T</sup>) or by pulling columns of B.
+     *
+     * @param a        (Input) Sparse vector. Not modified.
+     * @param B        (Input) Matrix. Not modified.
+     * @param BT       (Input) Transpose of B. Not modified.
+     * @param output   (Output) Sparse vector.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be computed
+     * @param gw       (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DVectorSparse mult( DVectorSparse a, DMatrixSparseCSC B, DMatrixSparseCSC BT, @Nullable DVectorSparse output,
+                                      DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (a.size != B.numRows)
+            throw new MatrixDimensionException("Inconsistent shapes. a = " + a.size + " B = " + B.numRows + "x" + B.numCols);
+        if (B.numRows != BT.numCols || B.numCols != BT.numRows)
+            throw new MatrixDimensionException("BT is not the transpose of B. " + stringShapes(B, BT));
+        if (output == null)
+            output = new DVectorSparse(B.numCols);
+
+        MatrixSparseVectorMultWithSemiRing_DSCC.mult(a, B, BT, output, semiRing, mask, gw);
+
+        return output;
+    }
+
     /**
      * Performs matrix addition:<br>
      * output = &alpha;A + &beta;B
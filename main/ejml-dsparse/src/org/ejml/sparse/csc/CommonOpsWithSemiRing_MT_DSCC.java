@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_MT_DSCC;
+import org.ejml.sparse.csc.mult.ImplMultiplicationWithSemiRing_MT_DSCC;
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import static org.ejml.UtilEjml.reshapeOrDeclare;
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * Concurrent implementations of functions found in {@link CommonOpsWithSemiRing_DSCC}. Masks are copied for each
+ * thread using {@link Mask#concurrentCopy}, so the same mask can be passed in as with the single threaded version.
+ */
+public class CommonOpsWithSemiRing_MT_DSCC {
+    public static DMatrixSparseCSC mult( DMatrixSparseCSC A, DMatrixSparseCSC B, @Nullable DMatrixSparseCSC output,
+                                         DSemiRing semiRing ) {
+        return mult(A, B, output, semiRing, null, null);
+    }
+
+    /**
+     * Performs matrix multiplication.  output = A*B
+     *
+     * @param A        (Input) Matrix. Not modified.
+     * @param B        (Input) Matrix. Not modified.
+     * @param output   (Output) Storage for results.  Data length is increased if insufficient.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be overwritten
+     * @param listWork (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DMatrixSparseCSC mult( DMatrixSparseCSC A, DMatrixSparseCSC B, @Nullable DMatrixSparseCSC output,
+                                         DSemiRing semiRing, @Nullable Mask mask,
+                                         @Nullable GrowArray<Workspace_MT_DSCC> listWork ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        output = reshapeOrDeclare(output, A, A.numRows, B.numCols);
+
+        if (listWork == null)
+            listWork = new GrowArray<>(Workspace_MT_DSCC::new);
+
+        ImplMultiplicationWithSemiRing_MT_DSCC.mult(A, B, output, semiRing, mask, listWork);
+
+        return output;
+    }
+
+    /**
+     * Performs matrix addition:<br>
+     * output = &alpha;A + &beta;B
+     *
+     * @param alpha    scalar value multiplied against A
+     * @param A        Matrix
+     * @param beta     scalar value multiplied against B
+     * @param B        Matrix
+     * @param output   (Optional)    Output matrix.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be overwritten
+     * @param listWork (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DMatrixSparseCSC add( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                        @Nullable DMatrixSparseCSC output, DSemiRing semiRing, @Nullable Mask mask,
+                                        @Nullable GrowArray<Workspace_MT_DSCC> listWork ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        output = reshapeOrDeclare(output, A, A.numRows, A.numCols);
+
+        if (mask != null) {
+            mask.compatible(output);
+        }
+
+        if (listWork == null)
+            listWork = new GrowArray<>(Workspace_MT_DSCC::new);
+
+        ImplCommonOpsWithSemiRing_MT_DSCC.add(alpha, A, beta, B, output, semiRing, mask, listWork);
+
+        return output;
+    }
+
+    /**
+     * Performs an element-wise multiplication.<br>
+     * output[i,j] = A[i,j]*B[i,j]<br>
+     * All matrices must have the same shape.
+     *
+     * @param A        (Input) Matrix.
+     * @param B        (Input) Matrix
+     * @param output   (Output) Matrix.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be overwritten
+     * @param listWork (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DMatrixSparseCSC elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, @Nullable DMatrixSparseCSC output,
+                                                DSemiRing semiRing, @Nullable Mask mask,
+                                                @Nullable GrowArray<Workspace_MT_DSCC> listWork ) {
+        if (A.numCols != B.numCols || A.numRows != B.numRows)
+            throw new MatrixDimensionException("All inputs must have the same number of rows and columns. " + stringShapes(A, B));
+        output = reshapeOrDeclare(output, A, A.numRows, A.numCols);
+
+        if (listWork == null)
+            listWork = new GrowArray<>(Workspace_MT_DSCC::new);
+
+        ImplCommonOpsWithSemiRing_MT_DSCC.elementMult(A, B, output, semiRing, mask, listWork);
+
+        return output;
+    }
+}
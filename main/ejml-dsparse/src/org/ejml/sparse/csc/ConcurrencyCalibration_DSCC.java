@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.concurrency.ConcurrencyAutotuner;
+import org.ejml.concurrency.ConcurrentOperation;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Random;
+
+/**
+ * Benchmarks for sparse operations which are used by {@link ConcurrencyAutotuner} to select thresholds.
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyCalibration_DSCC {
+    /** Fraction of elements which are non-zero in the benchmark matrices */
+    public static double DENSITY = 0.05;
+
+    /**
+     * Adds all the sparse operations to the tuner
+     */
+    public static void addAll( ConcurrencyAutotuner tuner ) {
+        var rand = new Random(234);
+        var gw = new IGrowArray();
+        var gx = new DGrowArray();
+        var workMT = new GrowArray<>(Workspace_MT_DSCC::new);
+        var workArrays = new GrowArray<>(DGrowArray::new);
+
+        tuner.addCalibration(ConcurrentOperation.SPARSE_MULT, size -> {
+            DMatrixSparseCSC A = create(size, rand);
+            DMatrixSparseCSC B = create(size, rand);
+            var C = new DMatrixSparseCSC(1, 1);
+            return ConcurrencyAutotuner.trial(() -> CommonOps_DSCC.mult(A, B, C, gw, gx), () -> CommonOps_MT_DSCC.mult(A, B, C, workMT));
+        });
+
+        tuner.addCalibration(ConcurrentOperation.SPARSE_MULT_DENSE, size -> {
+            DMatrixSparseCSC A = create(size, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numCols, 20, rand);
+            var C = new DMatrixRMaj(1, 1);
+            return ConcurrencyAutotuner.trial(() -> CommonOps_DSCC.mult(A, B, C), () -> CommonOps_MT_DSCC.mult(A, B, C, workArrays));
+        });
+
+        tuner.addCalibration(ConcurrentOperation.SPARSE_ADD, size -> {
+            DMatrixSparseCSC A = create(size, rand);
+            DMatrixSparseCSC B = create(size, rand);
+            var C = new DMatrixSparseCSC(1, 1);
+            return ConcurrencyAutotuner.trial(() -> CommonOps_DSCC.add(1.0, A, 2.0, B, C, gw, gx),
+                    () -> CommonOps_MT_DSCC.add(1.0, A, 2.0, B, C, workMT));
+        });
+    }
+
+    /**
+     * Creates a square matrix with approximately the requested number of non-zero elements
+     */
+    private static DMatrixSparseCSC create( int nz, Random rand ) {
+        int N = Math.max(1, (int)Math.sqrt(nz/DENSITY));
+        return RandomMatrices_DSCC.rectangle(N, N, Math.min(nz, N*N), rand);
+    }
+}
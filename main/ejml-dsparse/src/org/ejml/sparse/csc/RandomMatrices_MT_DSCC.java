@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * <p>
+ * Concurrent functions for creating random sparse matrices. Instead of a {@link java.util.Random} these functions
+ * take a seed. Columns are divided into fixed size blocks and each block is filled in by its own
+ * {@link SplittableRandom}, which is split off from a generator created from the seed, in order, before any values
+ * are computed. As a result the output only depends on the seed and never on the number of threads. The matrix
+ * structure is computed first, so the row indices and values are written directly into their final location
+ * without the need for a triplet matrix or sorting the whole matrix.
+ * </p>
+ *
+ * <p>
+ * Along with a replacement for {@link RandomMatrices_DSCC#rectangle} there are generators for structured sparsity
+ * patterns, such as banded matrices, columns with a power-law distribution of non-zero elements, and matrices
+ * made up of dense blocks.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RandomMatrices_MT_DSCC {
+    /** Number of columns filled by each random number generator. Changing this changes the generated values. */
+    public static int BLOCK_COLUMNS = 256;
+
+    /** Number of non-zero elements assigned to columns by each random number generator in {@link #rectangle} */
+    public static int BLOCK_LENGTH = 1 << 16;
+
+    /**
+     * Randomly generates matrix with the specified number of non-zero elements filled with values from min to max.
+     * Each non-zero element is assigned to a random column and then the rows inside each column are selected
+     * without replacement.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param nz_total Total number of non-zero elements in the matrix
+     * @param min Minimum element value, inclusive
+     * @param max Maximum element value, inclusive
+     * @param seed Seed for the random number generator
+     * @return Randomly generated matrix
+     */
+    public static DMatrixSparseCSC rectangle( int numRows, int numCols, int nz_total,
+                                              double min, double max, long seed ) {
+        if (numRows < 0 || numCols < 0 || nz_total < 0)
+            throw new IllegalArgumentException("Sizes must not be negative");
+        final int total = (int)Math.min((long)numRows*numCols, nz_total);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] countRands = createGenerators(root, (total + BLOCK_LENGTH - 1)/BLOCK_LENGTH);
+        final SplittableRandom[] fillRands = createGenerators(root, numColumnBlocks(numCols));
+
+        // Assign each non-zero element to a column. Every thread has its own histogram
+        GrowArray<IGrowArray> workHist = new GrowArray<>(IGrowArray::new);
+        EjmlConcurrency.loopBlocks(0, countRands.length, workHist, ( work, block0, block1 ) -> {
+            work.reshape(numCols);
+            Arrays.fill(work.data, 0, numCols, 0);
+            for (int block = block0; block < block1; block++) {
+                SplittableRandom rand = countRands[block];
+                int count = Math.min(total, (block + 1)*BLOCK_LENGTH) - block*BLOCK_LENGTH;
+                for (int i = 0; i < count; i++) {
+                    work.data[rand.nextInt(numCols)]++;
+                }
+            }
+        });
+
+        int[] hist = new int[numCols];
+        for (int i = 0; i < workHist.size(); i++) {
+            int[] h = workHist.get(i).data;
+            for (int col = 0; col < numCols; col++) {
+                hist[col] += h[col];
+            }
+        }
+
+        // A column can't have more elements than rows. Move the extra elements into columns with space
+        int excess = 0;
+        for (int col = 0; col < numCols; col++) {
+            if (hist[col] > numRows) {
+                excess += hist[col] - numRows;
+                hist[col] = numRows;
+            }
+        }
+        while (excess > 0) {
+            int col = root.nextInt(numCols);
+            if (hist[col] < numRows) {
+                hist[col]++;
+                excess--;
+            }
+        }
+
+        DMatrixSparseCSC A = declare(numRows, numCols, total, hist);
+        fillColumns(A, min, max, fillRands);
+        return A;
+    }
+
+    /**
+     * Same as {@link #rectangle(int, int, int, double, double, long)} with values from -1 to 1.
+     */
+    public static DMatrixSparseCSC rectangle( int numRows, int numCols, int nz_total, long seed ) {
+        return rectangle(numRows, numCols, nz_total, -1, 1, seed);
+    }
+
+    /**
+     * Creates a banded matrix where every element inside the band has a random value. Element (i,j) is inside
+     * the band if j - upper &le; i &le; j + lower.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param lower Number of diagonals below the main diagonal
+     * @param upper Number of diagonals above the main diagonal
+     * @param min Minimum element value, inclusive
+     * @param max Maximum element value, inclusive
+     * @param seed Seed for the random number generator
+     * @return Randomly generated matrix
+     */
+    public static DMatrixSparseCSC banded( int numRows, int numCols, int lower, int upper,
+                                           double min, double max, long seed ) {
+        if (numRows < 0 || numCols < 0)
+            throw new IllegalArgumentException("Sizes must not be negative");
+        if (lower < 0 || upper < 0)
+            throw new IllegalArgumentException("Number of diagonals must not be negative");
+
+        int[] hist = new int[numCols];
+        long total = 0;
+        for (int col = 0; col < numCols; col++) {
+            total += hist[col] = Math.max(0, bandRow1(numRows, col, lower) - bandRow0(col, upper));
+        }
+        final DMatrixSparseCSC A = declare(numRows, numCols, total, hist);
+
+        final SplittableRandom[] rands = createGenerators(new SplittableRandom(seed), numColumnBlocks(numCols));
+        EjmlConcurrency.loopFor(0, rands.length, block -> {
+            SplittableRandom rand = rands[block];
+            int col1 = Math.min(numCols, (block + 1)*BLOCK_COLUMNS);
+            for (int col = block*BLOCK_COLUMNS; col < col1; col++) {
+                int idx = A.col_idx[col];
+                int row1 = bandRow1(numRows, col, lower);
+                for (int row = bandRow0(col, upper); row < row1; row++, idx++) {
+                    A.nz_rows[idx] = row;
+                }
+                fillValues(A, col, min, max, rand);
+            }
+        });
+
+        return A;
+    }
+
+    /**
+     * <p>
+     * Creates a matrix where the number of non-zero elements in each column follows a power-law distribution,
+     * which is common in graphs and networks. The number of elements in a column is minDegree*U<sup>-1/(a-1)</sup>,
+     * rounded down, where U is uniform from 0 to 1 and 'a' is the exponent. Smaller exponents create heavier
+     * tails. The number is limited to the number of rows, and the rows are selected without replacement.
+     * </p>
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param minDegree Smallest number of non-zero elements in a column
+     * @param exponent Exponent of the power-law. Must be more than 1.
+     * @param min Minimum element value, inclusive
+     * @param max Maximum element value, inclusive
+     * @param seed Seed for the random number generator
+     * @return Randomly generated matrix
+     */
+    public static DMatrixSparseCSC powerLaw( int numRows, int numCols, int minDegree, double exponent,
+                                             double min, double max, long seed ) {
+        if (numRows < 0 || numCols < 0)
+            throw new IllegalArgumentException("Sizes must not be negative");
+        if (minDegree < 0)
+            throw new IllegalArgumentException("minDegree must not be negative");
+        if (!(exponent > 1.0))
+            throw new IllegalArgumentException("exponent must be more than one");
+
+        SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] degreeRands = createGenerators(root, numColumnBlocks(numCols));
+        final SplittableRandom[] fillRands = createGenerators(root, numColumnBlocks(numCols));
+
+        final int[] hist = new int[numCols];
+        final double power = -1.0/(exponent - 1.0);
+        EjmlConcurrency.loopFor(0, degreeRands.length, block -> {
+            SplittableRandom rand = degreeRands[block];
+            int col1 = Math.min(numCols, (block + 1)*BLOCK_COLUMNS);
+            for (int col = block*BLOCK_COLUMNS; col < col1; col++) {
+                double degree = minDegree*Math.pow(1.0 - UtilEjml.uniform(rand), power);
+                hist[col] = degree >= numRows ? numRows : (int)degree;
+            }
+        });
+
+        long total = 0;
+        for (int col = 0; col < numCols; col++) {
+            total += hist[col];
+        }
+
+        DMatrixSparseCSC A = declare(numRows, numCols, total, hist);
+        fillColumns(A, min, max, fillRands);
+        return A;
+    }
+
+    /**
+     * Creates a matrix which is divided into square blocks. Each block is either dense, with probability
+     * 'probabilityBlock', or entirely zero. Blocks along the right and bottom edges are cropped when the
+     * matrix's shape isn't divisible by the block size.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param blockLength Number of rows and columns in each block
+     * @param probabilityBlock Probability that a block is filled in. 0 to 1.
+     * @param min Minimum element value, inclusive
+     * @param max Maximum element value, inclusive
+     * @param seed Seed for the random number generator
+     * @return Randomly generated matrix
+     */
+    public static DMatrixSparseCSC blocks( int numRows, int numCols, int blockLength, double probabilityBlock,
+                                           double min, double max, long seed ) {
+        if (numRows < 0 || numCols < 0)
+            throw new IllegalArgumentException("Sizes must not be negative");
+        if (blockLength <= 0)
+            throw new IllegalArgumentException("blockLength must be positive");
+        if (probabilityBlock < 0 || probabilityBlock > 1.0)
+            throw new IllegalArgumentException("Invalid value for probabilityBlock");
+
+        final int numBlockRows = (numRows + blockLength - 1)/blockLength;
+        final int numBlockCols = (numCols + blockLength - 1)/blockLength;
+
+        // The block pattern is needed to compute the structure and to fill it in. To avoid saving the pattern
+        // each block column regenerates it from its own seed
+        SplittableRandom root = new SplittableRandom(seed);
+        final long[] seeds = new long[numBlockCols];
+        for (int i = 0; i < numBlockCols; i++) {
+            seeds[i] = root.nextLong();
+        }
+
+        final int[] hist = new int[numCols];
+        EjmlConcurrency.loopFor(0, numBlockCols, blockCol -> {
+            SplittableRandom rand = new SplittableRandom(seeds[blockCol]);
+            int rows = 0;
+            for (int blockRow = 0; blockRow < numBlockRows; blockRow++) {
+                if (UtilEjml.uniform(rand) < probabilityBlock)
+                    rows += Math.min(numRows, (blockRow + 1)*blockLength) - blockRow*blockLength;
+            }
+            int col1 = Math.min(numCols, (blockCol + 1)*blockLength);
+            for (int col = blockCol*blockLength; col < col1; col++) {
+                hist[col] = rows;
+            }
+        });
+
+        long total = 0;
+        for (int col = 0; col < numCols; col++) {
+            total += hist[col];
+        }
+        final DMatrixSparseCSC A = declare(numRows, numCols, total, hist);
+
+        GrowArray<IGrowArray> workBlocks = new GrowArray<>(IGrowArray::new);
+        EjmlConcurrency.loopFor(0, numBlockCols, 1, workBlocks, ( filled, blockCol ) -> {
+            SplittableRandom rand = new SplittableRandom(seeds[blockCol]);
+            filled.reshape(0);
+            for (int blockRow = 0; blockRow < numBlockRows; blockRow++) {
+                if (UtilEjml.uniform(rand) < probabilityBlock)
+                    filled.add(blockRow);
+            }
+
+            int col1 = Math.min(numCols, (blockCol + 1)*blockLength);
+            for (int col = blockCol*blockLength; col < col1; col++) {
+                int idx = A.col_idx[col];
+                for (int i = 0; i < filled.length; i++) {
+                    int row0 = filled.data[i]*blockLength;
+                    int row1 = Math.min(numRows, row0 + blockLength);
+                    for (int row = row0; row < row1; row++, idx++) {
+                        A.nz_rows[idx] = row;
+                    }
+                }
+                fillValues(A, col, min, max, rand);
+            }
+        });
+
+        return A;
+    }
+
+    /**
+     * Selects the rows and values in every column. The number of elements in each column must already be
+     * specified by col_idx.
+     */
+    static void fillColumns( DMatrixSparseCSC A, double min, double max, SplittableRandom[] rands ) {
+        GrowArray<IGrowArray> workMarks = new GrowArray<>(IGrowArray::new);
+        EjmlConcurrency.loopBlocks(0, rands.length, workMarks, ( marks, block0, block1 ) -> {
+            // marks are always cleared after being used, so they only need to be zeroed when declared
+            if (marks.data.length < A.numRows)
+                marks.data = new int[A.numRows];
+            for (int block = block0; block < block1; block++) {
+                SplittableRandom rand = rands[block];
+                int col1 = Math.min(A.numCols, (block + 1)*BLOCK_COLUMNS);
+                for (int col = block*BLOCK_COLUMNS; col < col1; col++) {
+                    int idx0 = A.col_idx[col];
+                    selectRows(A.numRows, A.col_idx[col + 1] - idx0, A.nz_rows, idx0, marks.data, rand);
+                    fillValues(A, col, min, max, rand);
+                }
+            }
+        });
+    }
+
+    /**
+     * Randomly selects 'count' rows without replacement and writes them in sorted order.
+     *
+     * @param marks Work space which is at least numRows long. All elements must be zero and are zero on return.
+     */
+    static void selectRows( int numRows, int count, int[] rows, int offset, int[] marks, SplittableRandom rand ) {
+        if (count <= numRows/2) {
+            for (int i = 0; i < count; i++) {
+                int row;
+                do {
+                    row = rand.nextInt(numRows);
+                } while (marks[row] != 0);
+                marks[row] = 1;
+                rows[offset + i] = row;
+            }
+            for (int i = 0; i < count; i++) {
+                marks[rows[offset + i]] = 0;
+            }
+            Arrays.sort(rows, offset, offset + count);
+        } else {
+            // Most rows are selected. It's faster to select the ones which are skipped
+            for (int i = count; i < numRows; i++) {
+                int row;
+                do {
+                    row = rand.nextInt(numRows);
+                } while (marks[row] != 0);
+                marks[row] = 1;
+            }
+            int idx = offset;
+            for (int row = 0; row < numRows; row++) {
+                if (marks[row] == 0)
+                    rows[idx++] = row;
+                else
+                    marks[row] = 0;
+            }
+        }
+    }
+
+    private static void fillValues( DMatrixSparseCSC A, int col, double min, double max, SplittableRandom rand ) {
+        double range = max - min;
+        int idx1 = A.col_idx[col + 1];
+        for (int idx = A.col_idx[col]; idx < idx1; idx++) {
+            A.nz_values[idx] = range*(double)UtilEjml.uniform(rand) + min;
+        }
+    }
+
+    private static DMatrixSparseCSC declare( int numRows, int numCols, long total, int[] hist ) {
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many non-zero elements. " + total);
+        DMatrixSparseCSC A = new DMatrixSparseCSC(numRows, numCols, (int)total);
+        A.histogramToStructure(hist);
+        A.indicesSorted = true;
+        return A;
+    }
+
+    private static int bandRow0( int col, int upper ) {
+        return Math.max(0, col - upper);
+    }
+
+    private static int bandRow1( int numRows, int col, int lower ) {
+        return (int)Math.min(numRows, (long)col + lower + 1);
+    }
+
+    private static int numColumnBlocks( int numCols ) {
+        return (numCols + BLOCK_COLUMNS - 1)/BLOCK_COLUMNS;
+    }
+
+    private static SplittableRandom[] createGenerators( SplittableRandom root, int count ) {
+        SplittableRandom[] rands = new SplittableRandom[count];
+        for (int i = 0; i < count; i++) {
+            rands[i] = root.split();
+        }
+        return rands;
+    }
+}
@@ -52,6 +52,9 @@ public class CholeskyUpLooking_DSCC implements
     int[] counts = new int[1];
     ColumnCounts_DSCC columnCounter = new ColumnCounts_DSCC(false);
 
+    // used to modify the decomposition after it has been computed
+    CholeskyUpdate_DSCC updater = new CholeskyUpdate_DSCC();
+
     // true if it has successfully decomposed a matrix
     private boolean decomposed = false;
     // if true then the structure is locked and won't be computed again
@@ -145,6 +148,39 @@ public class CholeskyUpLooking_DSCC implements
         return true;
     }
 
+    /**
+     * <p>
+     * Modifies the decomposition so that it's the decomposition of A + C*C<sup>T</sup>. Only the columns in L
+     * along paths in the elimination tree are modified, which is much faster than a numerical decomposition when
+     * C is sparse. If needed, the structure of L and the elimination tree are expanded.
+     * </p>
+     *
+     * <p>If the structure is locked, then after the structure has been expanded decompose() must be passed
+     * matrices with the same structure as A + C*C<sup>T</sup>.</p>
+     *
+     * @param C An n by k sparse matrix. Not modified.
+     * @see CholeskyUpdate_DSCC
+     */
+    public void update( DMatrixSparseCSC C ) {
+        if (!decomposed)
+            throw new IllegalArgumentException("Must successfully decompose a matrix first");
+        updater.update(L, parent, C);
+    }
+
+    /**
+     * Modifies the decomposition so that it's the decomposition of A - C*C<sup>T</sup>.
+     *
+     * @param C An n by k sparse matrix. Not modified.
+     * @return true if successful. If A - C*C<sup>T</sup> isn't positive definite then false is returned and the
+     * values in L are not modified, although its structure could have been expanded.
+     * @see #update(DMatrixSparseCSC)
+     */
+    public boolean downdate( DMatrixSparseCSC C ) {
+        if (!decomposed)
+            throw new IllegalArgumentException("Must successfully decompose a matrix first");
+        return updater.downdate(L, parent, C);
+    }
+
     @Override
     public boolean inputModified() {
         return false;
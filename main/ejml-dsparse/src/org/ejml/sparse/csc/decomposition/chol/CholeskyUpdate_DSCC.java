@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Modifies the sparse Cholesky factor L of A so that it becomes the factor of A &plusmn; C*C<sup>T</sup>, where
+ * C is an n &times; k sparse matrix. Each column in C only modifies the columns of L along the path from its first
+ * non-zero row to the root of the elimination tree, which is typically a tiny fraction of L.
+ * </p>
+ *
+ * <p>
+ * Structure: If C*C<sup>T</sup> has non-zero elements outside of the structure of A then L needs to be expanded.
+ * The new structure is found by walking the path in the new elimination tree [1]. Column j becomes the union of
+ * itself and the previous column on the path, and the next column is the smallest row index in that union below
+ * the diagonal. The walk stops once a column isn't changed. The elimination tree is updated at the same time. All
+ * the columns of C are processed symbolically first so that the arrays in L are only shifted once. Elements
+ * are never removed, so a downdate can leave numerical zeros in L.
+ * </p>
+ *
+ * <p>
+ * Numerical: Each column is then applied using the rank-1 update/downdate in [2]. Before a column is downdated,
+ * the values of L along its path are saved. If A - C*C<sup>T</sup> is found to not be positive definite then
+ * every downdated column is restored and L is numerically identical to what it was before.
+ * </p>
+ *
+ * <p>
+ * [1] Davis and Hager, "Modifying a Sparse Cholesky Factorization," SIAM J. Matrix Anal. Appl., 1999<br>
+ * [2] cs_updown() on page 63 of "Direct Methods for Sparse Linear Systems" by Timothy A. Davis
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyUpdate_DSCC {
+    // Columns in L whose structure has been expanded. Their new row indexes are stored in pool
+    private int[] modStart = new int[0];
+    private int[] modLength = new int[0];
+    private int[] touched = new int[0];
+    private int numTouched;
+    private int[] pool = new int[0];
+    private int poolLength;
+
+    // pattern of the column which is being added to the structure
+    private int[] pattern = new int[0];
+    private int[] merged = new int[0];
+
+    // new location of each column in L
+    private int[] colIdx = new int[0];
+
+    // dense storage for a column in C
+    private double[] w = new double[0];
+
+    // columns in L and their values before they were downdated
+    private int[] backupCols = new int[0];
+    private int numBackupCols;
+    private double[] backupValues = new double[0];
+    private int numBackupValues;
+
+    /**
+     * Modifies L so that it's the Cholesky factor of A + C*C<sup>T</sup>
+     *
+     * @param L Lower triangular Cholesky factor of A. The diagonal element must be first in each column and
+     * rows must be sorted. Modified.
+     * @param parent Elimination tree of L. Modified.
+     * @param C n by k matrix. Not modified.
+     */
+    public void update( DMatrixSparseCSC L, int[] parent, DMatrixSparseCSC C ) {
+        updateStructure(L, parent, C);
+
+        for (int col = 0; col < C.numCols; col++) {
+            updown(L, parent, C, col, true);
+        }
+    }
+
+    /**
+     * Modifies L so that it's the Cholesky factor of A - C*C<sup>T</sup>. If A - C*C<sup>T</sup> is not positive
+     * definite then L will have the same values as before, but its structure might have been expanded.
+     *
+     * @param L Lower triangular Cholesky factor of A. The diagonal element must be first in each column and
+     * rows must be sorted. Modified.
+     * @param parent Elimination tree of L. Modified.
+     * @param C n by k matrix. Not modified.
+     * @return true if successful or false if A - C*C<sup>T</sup> is not positive definite
+     */
+    public boolean downdate( DMatrixSparseCSC L, int[] parent, DMatrixSparseCSC C ) {
+        updateStructure(L, parent, C);
+
+        numBackupCols = 0;
+        numBackupValues = 0;
+        for (int col = 0; col < C.numCols; col++) {
+            saveColumnsOnPath(L, parent, C, col);
+            if (!updown(L, parent, C, col, false)) {
+                restoreColumns(L);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Expands the structure of L so that it can store the factor of A &plusmn; C*C<sup>T</sup> and updates the
+     * elimination tree. New elements in L are set to zero.
+     *
+     * @return true if the structure of L was modified
+     */
+    public boolean updateStructure( DMatrixSparseCSC L, int[] parent, DMatrixSparseCSC C ) {
+        if (L.numRows != L.numCols)
+            throw new MatrixDimensionException("L must be square");
+        if (C.numRows != L.numRows)
+            throw new MatrixDimensionException("C must have the same number of rows as L. " +
+                    C.numRows + " != " + L.numRows);
+
+        final int N = L.numCols;
+        declareWork(N);
+
+        numTouched = 0;
+        poolLength = 0;
+
+        for (int col = 0; col < C.numCols; col++) {
+            // sorted row indexes in this column
+            int idx0 = C.col_idx[col];
+            int length = C.col_idx[col + 1] - idx0;
+            if (length == 0)
+                continue;
+            System.arraycopy(C.nz_rows, idx0, pattern, 0, length);
+            if (!C.indicesSorted)
+                Arrays.sort(pattern, 0, length);
+
+            // walk up the path in the elimination tree
+            int j = pattern[0];
+            while (true) {
+                int numMerged = mergeColumn(L, j, length);
+                if (numMerged == columnLength(L, j))
+                    break;
+
+                if (modLength[j] < 0)
+                    touched[numTouched++] = j;
+                growPool(numMerged);
+                modStart[j] = poolLength;
+                modLength[j] = numMerged;
+                System.arraycopy(merged, 0, pool, poolLength, numMerged);
+                poolLength += numMerged;
+
+                // The column grew so it has at least one element below the diagonal
+                length = numMerged - 1;
+                System.arraycopy(merged, 1, pattern, 0, length);
+                parent[j] = j = pattern[0];
+            }
+        }
+
+        if (numTouched == 0)
+            return false;
+
+        expandStructure(L);
+        return true;
+    }
+
+    /**
+     * Merges the structure of column j with the row indexes in 'pattern'. Both are sorted and start at j.
+     *
+     * @return number of elements in the merged column
+     */
+    private int mergeColumn( DMatrixSparseCSC L, int j, int length ) {
+        int[] rows;
+        int idx0, idx1;
+        if (modLength[j] >= 0) {
+            rows = pool;
+            idx0 = modStart[j];
+            idx1 = idx0 + modLength[j];
+        } else {
+            rows = L.nz_rows;
+            idx0 = L.col_idx[j];
+            idx1 = L.col_idx[j + 1];
+        }
+
+        int i = idx0, k = 0, num = 0;
+        while (i < idx1 && k < length) {
+            int a = rows[i], b = pattern[k];
+            if (a < b) {
+                merged[num++] = a;
+                i++;
+            } else if (b < a) {
+                merged[num++] = b;
+                k++;
+            } else {
+                merged[num++] = a;
+                i++;
+                k++;
+            }
+        }
+        while (i < idx1) merged[num++] = rows[i++];
+        while (k < length) merged[num++] = pattern[k++];
+        return num;
+    }
+
+    private int columnLength( DMatrixSparseCSC L, int j ) {
+        return modLength[j] >= 0 ? modLength[j] : L.col_idx[j + 1] - L.col_idx[j];
+    }
+
+    /**
+     * Moves the columns in L to make room for the new elements. Columns are processed from last to first so that
+     * it can be done in place.
+     */
+    private void expandStructure( DMatrixSparseCSC L ) {
+        final int N = L.numCols;
+
+        // columns before the first touched column don't move
+        int first = N;
+        for (int i = 0; i < numTouched; i++) {
+            first = Math.min(first, touched[i]);
+        }
+
+        System.arraycopy(L.col_idx, 0, colIdx, 0, first + 1);
+        for (int j = first; j < N; j++) {
+            colIdx[j + 1] = colIdx[j] + columnLength(L, j);
+        }
+        L.growMaxLength(colIdx[N], true);
+
+        for (int j = N - 1; j >= first; j--) {
+            int src0 = L.col_idx[j];
+            int src1 = L.col_idx[j + 1];
+            int dst0 = colIdx[j];
+
+            if (modLength[j] < 0) {
+                System.arraycopy(L.nz_rows, src0, L.nz_rows, dst0, src1 - src0);
+                System.arraycopy(L.nz_values, src0, L.nz_values, dst0, src1 - src0);
+                continue;
+            }
+
+            // Fill in from the end. Elements are always read before that location is written to
+            int src = src1 - 1;
+            for (int q = modLength[j] - 1; q >= 0; q--) {
+                int row = pool[modStart[j] + q];
+                double value = 0;
+                if (src >= src0 && L.nz_rows[src] == row) {
+                    value = L.nz_values[src--];
+                }
+                L.nz_rows[dst0 + q] = row;
+                L.nz_values[dst0 + q] = value;
+            }
+        }
+
+        System.arraycopy(colIdx, first, L.col_idx, first, N - first + 1);
+        L.nz_length = colIdx[N];
+
+        for (int i = 0; i < numTouched; i++) {
+            modLength[touched[i]] = -1;
+        }
+        numTouched = 0;
+    }
+
+    /**
+     * Rank-1 update or downdate using a column in C. Functionally equivalent to cs_updown()
+     *
+     * @return false if the downdate failed
+     */
+    private boolean updown( DMatrixSparseCSC L, int[] parent, DMatrixSparseCSC C, int col, boolean update ) {
+        int idx0 = C.col_idx[col];
+        int idx1 = C.col_idx[col + 1];
+        if (idx0 == idx1)
+            return true;
+
+        int f = firstRow(C, col);
+        for (int j = f; j != -1; j = parent[j]) w[j] = 0;
+        for (int p = idx0; p < idx1; p++) w[C.nz_rows[p]] = C.nz_values[p];
+
+        final double sigma = update ? 1.0 : -1.0;
+        final int[] Li = L.nz_rows;
+        final double[] Lx = L.nz_values;
+
+        double beta = 1.0;
+        for (int j = f; j != -1; j = parent[j]) {
+            int p = L.col_idx[j];
+            double alpha = w[j]/Lx[p];
+            double beta2 = beta*beta + sigma*alpha*alpha;
+            // Negated to catch NaN
+            if (!(beta2 > 0))
+                return false;
+            beta2 = Math.sqrt(beta2);
+            double delta = update ? beta/beta2 : beta2/beta;
+            double gamma = sigma*alpha/(beta2*beta);
+            Lx[p] = delta*Lx[p] + (update ? gamma*w[j] : 0);
+            beta = beta2;
+
+            int end = L.col_idx[j + 1];
+            for (p++; p < end; p++) {
+                double w1 = w[Li[p]];
+                double w2 = w1 - alpha*Lx[p];
+                w[Li[p]] = w2;
+                Lx[p] = delta*Lx[p] + gamma*(update ? w1 : w2);
+            }
+        }
+        return true;
+    }
+
+    private void saveColumnsOnPath( DMatrixSparseCSC L, int[] parent, DMatrixSparseCSC C, int col ) {
+        if (C.col_idx[col] == C.col_idx[col + 1])
+            return;
+
+        for (int j = firstRow(C, col); j != -1; j = parent[j]) {
+            int idx0 = L.col_idx[j];
+            int length = L.col_idx[j + 1] - idx0;
+
+            if (numBackupCols == backupCols.length)
+                backupCols = Arrays.copyOf(backupCols, backupCols.length*2 + 10);
+            if (numBackupValues + length > backupValues.length)
+                backupValues = Arrays.copyOf(backupValues, (numBackupValues + length)*2);
+
+            backupCols[numBackupCols++] = j;
+            System.arraycopy(L.nz_values, idx0, backupValues, numBackupValues, length);
+            numBackupValues += length;
+        }
+    }
+
+    /**
+     * Restores the saved columns in the reverse order they were saved in, so that the oldest values are used
+     */
+    private void restoreColumns( DMatrixSparseCSC L ) {
+        int offset = numBackupValues;
+        for (int i = numBackupCols - 1; i >= 0; i--) {
+            int j = backupCols[i];
+            int idx0 = L.col_idx[j];
+            int length = L.col_idx[j + 1] - idx0;
+            offset -= length;
+            System.arraycopy(backupValues, offset, L.nz_values, idx0, length);
+        }
+    }
+
+    private static int firstRow( DMatrixSparseCSC C, int col ) {
+        int f = Integer.MAX_VALUE;
+        for (int p = C.col_idx[col]; p < C.col_idx[col + 1]; p++) {
+            f = Math.min(f, C.nz_rows[p]);
+        }
+        return f;
+    }
+
+    private void growPool( int amount ) {
+        if (poolLength + amount > pool.length)
+            pool = Arrays.copyOf(pool, (poolLength + amount)*2);
+    }
+
+    private void declareWork( int N ) {
+        if (modStart.length >= N)
+            return;
+        modStart = new int[N];
+        modLength = new int[N];
+        Arrays.fill(modLength, -1);
+        touched = new int[N];
+        pattern = new int[N];
+        merged = new int[N];
+        colIdx = new int[N + 1];
+        w = new double[N];
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>
+ * Base class for iterative eigen solvers which compute a few extremal eigenpairs of a large sparse symmetric
+ * matrix. Only {@link #getNumberOfEigenvalues()} eigenpairs are found and they are ordered starting from
+ * the most extreme one, i.e. ascending when the smallest are requested and descending when the largest are
+ * requested.
+ * </p>
+ *
+ * <p>
+ * Internally a dense set of vectors is stored as the rows in a {@link DMatrixRMaj} so that each vector is
+ * contiguous in memory and can be passed directly into {@link org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC}.
+ * The small projected eigenvalue problem is solved using {@link SymmetricQRAlgorithmDecomposition_DDRM}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class SymmetricEigenBase_DSCC implements EigenDecomposition_F64<DMatrixSparseCSC> {
+    // number of eigenpairs which are to be found
+    protected int numEigen;
+    // if true the largest eigenvalues are found, otherwise the smallest
+    protected boolean largest;
+
+    // convergence tolerance on the residual relative to the norm of A
+    protected double tolerance = 1e-10;
+    // upper bound on the 2-norm of A. Used to make tolerances scale invariant
+    protected double normA;
+    // maximum number of restarts/iterations
+    protected int maxIterations = 1000;
+    // used to create the initial vectors. Reset to 'seed' at the start of each decomposition
+    protected long seed = 0xBEEF;
+    protected Random rand = new Random(seed);
+
+    // the number of iterations performed in the last call to decompose
+    protected int iterations;
+
+    // Found eigenvalues and the eigenvectors stored in each row
+    protected double[] values = new double[0];
+    protected DMatrixRMaj vectors = new DMatrixRMaj(1, 1);
+
+    // solves the small dense projected eigenvalue problem
+    protected SymmetricQRAlgorithmDecomposition_DDRM projected = new SymmetricQRAlgorithmDecomposition_DDRM(true);
+    protected DMatrixRMaj projectedCopy = new DMatrixRMaj(1, 1);
+    // Ritz values sorted from most to least wanted
+    protected double[] ritzValues = new double[0];
+    // Ritz vectors in the projected space. Column i corresponds to ritzValues[i]
+    protected DMatrixRMaj ritzVectors = new DMatrixRMaj(1, 1);
+    // workspace for sorting the Ritz pairs
+    protected IGrowArray gorder = new IGrowArray();
+
+    /**
+     * @param numEigen Number of eigenpairs which are to be found
+     * @param largest If true the largest eigenvalues are found, otherwise the smallest
+     */
+    protected SymmetricEigenBase_DSCC( int numEigen, boolean largest ) {
+        if (numEigen <= 0)
+            throw new IllegalArgumentException("Number of eigenvalues must be positive");
+        this.numEigen = numEigen;
+        this.largest = largest;
+    }
+
+    /**
+     * Computes the requested extremal eigenpairs of a symmetric matrix. Only the matrix's values are
+     * accessed through matrix-vector products and symmetry is assumed, not checked. Repeated calls with the
+     * same input produce the same output.
+     *
+     * @param A (Input) Symmetric matrix. Not modified.
+     * @return true if all requested eigenpairs converged
+     */
+    @Override
+    public boolean decompose( DMatrixSparseCSC A ) {
+        if (A.numCols != A.numRows)
+            throw new IllegalArgumentException("Matrix must be square.");
+        if (numEigen > A.numCols)
+            throw new IllegalArgumentException("Requested more eigenvalues than the matrix has. " +
+                    numEigen + " > " + A.numCols);
+
+        iterations = 0;
+        rand.setSeed(seed);
+        if (values.length < numEigen)
+            values = new double[numEigen];
+        vectors.reshape(numEigen, A.numCols);
+
+        // The induced 1-norm is cheap to compute and is an upper bound for symmetric matrices
+        normA = 0;
+        for (int col = 0; col < A.numCols; col++) {
+            double sum = 0;
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                sum += Math.abs(A.nz_values[i]);
+            }
+            normA = Math.max(normA, sum);
+        }
+
+        return process(A);
+    }
+
+    /**
+     * Implementation specific algorithm. Must fill in {@link #values} and {@link #vectors}.
+     */
+    protected abstract boolean process( DMatrixSparseCSC A );
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return numEigen;
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue( int index ) {
+        return new Complex_F64(values[index], 0);
+    }
+
+    /**
+     * Returns the eigenvector as a sparse column vector. Eigenvectors are typically dense, which is why
+     * {@link #getEigenVectorDense} is often more convenient.
+     */
+    @Override
+    public DMatrixSparseCSC getEigenVector( int index ) {
+        int N = vectors.numCols;
+        DMatrixSparseCSC v = new DMatrixSparseCSC(N, 1, N);
+        int offset = index*N;
+        for (int i = 0; i < N; i++) {
+            double value = vectors.data[offset + i];
+            if (value == 0.0)
+                continue;
+            v.nz_rows[v.nz_length] = i;
+            v.nz_values[v.nz_length++] = value;
+        }
+        v.col_idx[1] = v.nz_length;
+        return v;
+    }
+
+    /**
+     * Returns the eigenvector as a dense column vector
+     *
+     * @param index Index of the eigenpair
+     * @param output (Optional) Storage for the vector. Reshaped.
+     * @return The eigenvector
+     */
+    public DMatrixRMaj getEigenVectorDense( int index, @Nullable DMatrixRMaj output ) {
+        int N = vectors.numCols;
+        if (output == null)
+            output = new DMatrixRMaj(N, 1);
+        else
+            output.reshape(N, 1);
+        System.arraycopy(vectors.data, index*N, output.data, 0, N);
+        return output;
+    }
+
+    /**
+     * Solves the projected eigenvalue problem for the symmetric m by m matrix T and sorts the Ritz pairs
+     * so that the most wanted ones are first.
+     *
+     * @return true if successful
+     */
+    protected boolean solveProjected( DMatrixRMaj T ) {
+        int m = T.numRows;
+        DMatrixRMaj input = T;
+        if (projected.inputModified()) {
+            projectedCopy.setTo(T);
+            input = projectedCopy;
+        }
+        if (!projected.decompose(input))
+            return false;
+
+        if (ritzValues.length < m)
+            ritzValues = new double[m];
+        ritzVectors.reshape(m, m);
+
+        // selection sort is fine since the projected problem is small
+        int[] order = UtilEjml.adjust(gorder, m);
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < m; i++) {
+            int best = i;
+            double bestValue = projected.getEigenvalue(order[i]).real;
+            for (int j = i + 1; j < m; j++) {
+                double value = projected.getEigenvalue(order[j]).real;
+                if (largest ? value > bestValue : value < bestValue) {
+                    best = j;
+                    bestValue = value;
+                }
+            }
+            int tmp = order[i];
+            order[i] = order[best];
+            order[best] = tmp;
+
+            ritzValues[i] = bestValue;
+            DMatrixRMaj y = projected.getEigenVector(order[i]);
+            for (int row = 0; row < m; row++) {
+                ritzVectors.data[row*m + i] = y.data[row];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes dst = sum_j Y(j,col)*S(j,:) for j in 0 to rows-1, where S is a set of row vectors
+     */
+    protected static void combine( DMatrixRMaj S, int rowS0, int rows, DMatrixRMaj Y, int rowY0, int col,
+                                   double[] dst, int offsetDst ) {
+        int N = S.numCols;
+        Arrays.fill(dst, offsetDst, offsetDst + N, 0);
+        for (int j = 0; j < rows; j++) {
+            double y = Y.unsafe_get(rowY0 + j, col);
+            if (y == 0.0)
+                continue;
+            axpy(y, S.data, (rowS0 + j)*N, dst, offsetDst, N);
+        }
+    }
+
+    protected static double dot( double[] a, int offsetA, double[] b, int offsetB, int length ) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[offsetA + i]*b[offsetB + i];
+        }
+        return sum;
+    }
+
+    /**
+     * b = b + alpha*a
+     */
+    protected static void axpy( double alpha, double[] a, int offsetA, double[] b, int offsetB, int length ) {
+        for (int i = 0; i < length; i++) {
+            b[offsetB + i] += alpha*a[offsetA + i];
+        }
+    }
+
+    protected static void scale( double alpha, double[] a, int offsetA, int length ) {
+        for (int i = 0; i < length; i++) {
+            a[offsetA + i] *= alpha;
+        }
+    }
+
+    protected void randomVector( double[] a, int offsetA, int length ) {
+        for (int i = 0; i < length; i++) {
+            a[offsetA + i] = rand.nextDouble()*2.0 - 1.0;
+        }
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Specifies the convergence tolerance. An eigenpair has converged when its residual norm
+     * is less than tolerance times an estimate of the norm of A.
+     */
+    public void setTolerance( double tolerance ) {
+        this.tolerance = tolerance;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations( int maxIterations ) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Changes the seed used to generate the initial vectors
+     */
+    public void setSeed( long seed ) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Number of iterations performed in the most recent call to {@link #decompose}
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isLargest() {
+        return largest;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+/**
+ * <p>
+ * Thick-restart Lanczos for finding a few of the smallest or largest eigenpairs of a sparse symmetric matrix.
+ * A Krylov subspace of size m is built up one matrix-vector product at a time and the eigenvalues of the
+ * projected tridiagonal (arrowhead after a restart) matrix are computed. When the subspace is full and not all
+ * of the requested eigenpairs have converged, the most wanted Ritz vectors are kept and the iteration is
+ * restarted from them. Full reorthogonalization is used to keep the basis numerically orthogonal.
+ * </p>
+ *
+ * <p>
+ * Wu, Kesheng, and Horst Simon. "Thick-restart Lanczos method for large symmetric eigenvalue problems."
+ * SIAM Journal on Matrix Analysis and Applications 22.2 (2000): 602-616.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricLanczos_DSCC extends SymmetricEigenBase_DSCC {
+    // user requested subspace size. if &le; 0 then it's selected automatically
+    private int subspaceSize = 0;
+
+    // Lanczos basis vectors, stored in each row. There is one more row than the subspace size
+    private final DMatrixRMaj V = new DMatrixRMaj(1, 1);
+    // The projected matrix T = V'*A*V
+    private final DMatrixRMaj T = new DMatrixRMaj(1, 1);
+    // Storage for the restarted basis
+    private final DMatrixRMaj work = new DMatrixRMaj(1, 1);
+    // storage for A*v
+    private double[] w = new double[0];
+    // residual norm of each wanted Ritz pair in the most recent iteration
+    private double[] residuals = new double[0];
+
+    /**
+     * @param numEigen Number of eigenpairs which are to be found
+     * @param largest If true the largest eigenvalues are found, otherwise the smallest
+     */
+    public SymmetricLanczos_DSCC( int numEigen, boolean largest ) {
+        super(numEigen, largest);
+    }
+
+    @Override
+    protected boolean process( DMatrixSparseCSC A ) {
+        final int N = A.numRows;
+        final int k = numEigen;
+        final int m = selectSubspaceSize(N);
+
+        V.reshape(m + 1, N);
+        T.reshape(m, m);
+        T.zero();
+        if (w.length < N)
+            w = new double[N];
+        if (residuals.length < k)
+            residuals = new double[k];
+
+        // initial vector is random
+        randomVector(V.data, 0, N);
+        scale(1.0/Math.sqrt(dot(V.data, 0, V.data, 0, N)), V.data, 0, N);
+
+        int kept = 0;
+        for (iterations = 0; iterations < maxIterations; iterations++) {
+            // Expand the Krylov subspace until it's full
+            double betaLast = 0;
+            for (int j = kept; j < m; j++) {
+                MatrixVectorMult_DSCC.mult(A, V.data, j*N, w, 0);
+
+                // Orthogonalize against the entire basis twice. After a restart this also handles the
+                // coupling to the kept Ritz vectors, which is already in T
+                double alpha = 0;
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int i = 0; i <= j; i++) {
+                        double h = dot(V.data, i*N, w, 0, N);
+                        axpy(-h, V.data, i*N, w, 0, N);
+                        if (i == j)
+                            alpha += h;
+                    }
+                }
+                T.unsafe_set(j, j, alpha);
+
+                double beta = Math.sqrt(dot(w, 0, w, 0, N));
+                if (beta <= 100*UtilEjml.EPS*normA) {
+                    // An invariant subspace has been found. Continue with a vector orthogonal to the basis
+                    beta = 0;
+                    if (j + 1 < N)
+                        randomOrthogonal(j + 1, N);
+                } else {
+                    System.arraycopy(w, 0, V.data, (j + 1)*N, N);
+                    scale(1.0/beta, V.data, (j + 1)*N, N);
+                }
+
+                if (j + 1 < m) {
+                    T.unsafe_set(j, j + 1, beta);
+                    T.unsafe_set(j + 1, j, beta);
+                } else {
+                    betaLast = beta;
+                }
+            }
+
+            // Rayleigh-Ritz on the projected problem
+            if (!solveProjected(T))
+                return false;
+
+            // residual of Ritz pair i is |beta_m * y_i(m-1)|
+            boolean converged = true;
+            for (int i = 0; i < k; i++) {
+                residuals[i] = Math.abs(betaLast*ritzVectors.unsafe_get(m - 1, i));
+                converged &= residuals[i] <= tolerance*normA;
+            }
+
+            if (converged || m == N) {
+                extractResults(m);
+                return true;
+            }
+
+            // Return the best estimate if it didn't converge. This must be done before a restart modifies V
+            if (iterations + 1 >= maxIterations) {
+                iterations++;
+                extractResults(m);
+                return false;
+            }
+
+            restart(m, betaLast);
+            kept = selectKept(m);
+        }
+
+        return false;
+    }
+
+    /**
+     * Keeps the most wanted Ritz vectors and the last Lanczos vector. The projected matrix becomes
+     * an arrowhead matrix with the Ritz values along the diagonal.
+     */
+    private void restart( int m, double betaLast ) {
+        final int N = V.numCols;
+        final int kept = selectKept(m);
+
+        work.reshape(kept, N);
+        for (int i = 0; i < kept; i++) {
+            combine(V, 0, m, ritzVectors, 0, i, work.data, i*N);
+        }
+        System.arraycopy(V.data, m*N, V.data, kept*N, N);
+        System.arraycopy(work.data, 0, V.data, 0, kept*N);
+
+        T.zero();
+        for (int i = 0; i < kept; i++) {
+            double s = betaLast*ritzVectors.unsafe_get(m - 1, i);
+            T.unsafe_set(i, i, ritzValues[i]);
+            T.unsafe_set(i, kept, s);
+            T.unsafe_set(kept, i, s);
+        }
+    }
+
+    /**
+     * Fills in row 'row' of V with a random unit vector that's orthogonal to all the previous rows
+     */
+    private void randomOrthogonal( int row, int N ) {
+        int offset = row*N;
+        randomVector(V.data, offset, N);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < row; i++) {
+                double h = dot(V.data, i*N, V.data, offset, N);
+                axpy(-h, V.data, i*N, V.data, offset, N);
+            }
+        }
+        scale(1.0/Math.sqrt(dot(V.data, offset, V.data, offset, N)), V.data, offset, N);
+    }
+
+    private void extractResults( int m ) {
+        final int N = V.numCols;
+        for (int i = 0; i < numEigen; i++) {
+            values[i] = ritzValues[i];
+            combine(V, 0, m, ritzVectors, 0, i, vectors.data, i*N);
+        }
+    }
+
+    /**
+     * Number of Ritz vectors which are kept after a restart. Half of the unwanted subspace is retained, which is
+     * the heuristic used by TRLan
+     */
+    private int selectKept( int m ) {
+        return Math.min(m - 1, numEigen + (m - numEigen)/2);
+    }
+
+    private int selectSubspaceSize( int N ) {
+        int m = subspaceSize > 0 ? subspaceSize : Math.max(2*numEigen + 1, numEigen + 20);
+        m = Math.min(m, N);
+        if (m <= numEigen && m < N)
+            throw new IllegalArgumentException("Subspace size must be larger than the number of eigenvalues");
+        return m;
+    }
+
+    /**
+     * Residual norm, ||A*v - &lambda;*v||, of an eigenpair when the most recent call to {@link #decompose} finished.
+     * Useful for judging the quality of the eigenpairs when it failed to converge.
+     *
+     * @param index Index of the eigenpair
+     */
+    public double getResidual( int index ) {
+        return residuals[index];
+    }
+
+    public int getSubspaceSize() {
+        return subspaceSize;
+    }
+
+    /**
+     * Specifies the maximum size of the Krylov subspace before a restart. Larger subspaces converge in fewer
+     * restarts but require more memory. If &le; 0 then it's selected automatically.
+     */
+    public void setSubspaceSize( int subspaceSize ) {
+        this.subspaceSize = subspaceSize;
+    }
+}
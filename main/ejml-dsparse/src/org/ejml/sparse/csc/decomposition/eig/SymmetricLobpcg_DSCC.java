@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Locally Optimal Block Preconditioned Conjugate Gradient (LOBPCG) for finding a few of the smallest or
+ * largest eigenpairs of a sparse symmetric matrix. Each iteration performs a Rayleigh-Ritz procedure on the
+ * subspace spanned by the current eigenvector estimates X, the preconditioned residuals W, and the previous
+ * search directions P. The basis is orthonormalized with modified Gram-Schmidt and nearly linearly dependent
+ * directions are dropped. A*X is updated alongside X while the images of the other directions are recomputed
+ * after orthogonalization, since updating them in place is unstable once the residuals become small.
+ * </p>
+ *
+ * <p>
+ * Knyazev, Andrew V. "Toward the optimal preconditioned eigensolver: Locally optimal block preconditioned
+ * conjugate gradient method." SIAM journal on scientific computing 23.2 (2001): 517-541.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricLobpcg_DSCC extends SymmetricEigenBase_DSCC {
+    /**
+     * Applies an approximation of A<sup>-1</sup> (or (A-&sigma;I)<sup>-1</sup>) to a set of residual vectors.
+     */
+    public interface Preconditioner {
+        /**
+         * Computes W = M<sup>-1</sup>*R for each vector
+         *
+         * @param R (Input) Residual vectors. Each row is a vector. Do not modify.
+         * @param W (Output) Preconditioned vectors. Each row is a vector. Same shape as R.
+         */
+        void apply( DMatrixRMaj R, DMatrixRMaj W );
+    }
+
+    // Optional preconditioner
+    private @Nullable Preconditioner preconditioner;
+
+    // Number of vectors in the block
+    private int blockSize;
+
+    // Basis vectors [X;W;P] and their images A*[X;W;P]. Each row is a vector
+    private final DMatrixRMaj S = new DMatrixRMaj(1, 1);
+    private final DMatrixRMaj AS = new DMatrixRMaj(1, 1);
+    // Current estimate, its image, and search directions
+    private final DMatrixRMaj X = new DMatrixRMaj(1, 1);
+    private final DMatrixRMaj AX = new DMatrixRMaj(1, 1);
+    private final DMatrixRMaj P = new DMatrixRMaj(1, 1);
+    // Residuals and preconditioned residuals
+    private final DMatrixRMaj R = new DMatrixRMaj(1, 1);
+    private final DMatrixRMaj W = new DMatrixRMaj(1, 1);
+    // Gram matrix S*A*S'
+    private final DMatrixRMaj G = new DMatrixRMaj(1, 1);
+
+    /**
+     * @param numEigen Number of eigenpairs which are to be found
+     * @param largest If true the largest eigenvalues are found, otherwise the smallest
+     * @param preconditioner (Optional) preconditioner. If null then no preconditioning is done.
+     */
+    public SymmetricLobpcg_DSCC( int numEigen, boolean largest, @Nullable Preconditioner preconditioner ) {
+        super(numEigen, largest);
+        this.preconditioner = preconditioner;
+        this.blockSize = numEigen;
+    }
+
+    public SymmetricLobpcg_DSCC( int numEigen, boolean largest ) {
+        this(numEigen, largest, null);
+    }
+
+    @Override
+    protected boolean process( DMatrixSparseCSC A ) {
+        final int N = A.numRows;
+        final int b = Math.min(blockSize, N);
+
+        // ---- Initial estimate is a random orthonormal set of vectors
+        S.reshape(3*b, N);
+        AS.reshape(3*b, N);
+        for (int i = 0; i < b; i++) {
+            randomVector(S.data, i*N, N);
+        }
+        int rows = orthonormalize(0, b, N);
+        if (rows < b)
+            return false;
+        for (int i = 0; i < b; i++) {
+            MatrixVectorMult_DSCC.mult(A, S.data, i*N, AS.data, i*N);
+        }
+        if (!rayleighRitz(rows, 0, N))
+            return false;
+
+        int numP = 0;
+        for (iterations = 0; iterations < maxIterations; iterations++) {
+            // ---- Residuals R = A*X - X*diag(theta)
+            R.reshape(b, N);
+            boolean converged = true;
+            for (int i = 0; i < b; i++) {
+                System.arraycopy(AX.data, i*N, R.data, i*N, N);
+                axpy(-ritzValues[i], X.data, i*N, R.data, i*N, N);
+                if (i < numEigen) {
+                    double residual = Math.sqrt(dot(R.data, i*N, R.data, i*N, N));
+                    converged &= residual <= tolerance*normA;
+                }
+            }
+
+            if (converged) {
+                extractResults(N);
+                return true;
+            }
+
+            // ---- W = M^-1*R
+            W.reshape(b, N);
+            if (preconditioner == null) {
+                W.setTo(R);
+            } else {
+                preconditioner.apply(R, W);
+            }
+
+            // ---- S = [X;W;P]
+            System.arraycopy(X.data, 0, S.data, 0, b*N);
+            System.arraycopy(AX.data, 0, AS.data, 0, b*N);
+            System.arraycopy(W.data, 0, S.data, b*N, b*N);
+            System.arraycopy(P.data, 0, S.data, 2*b*N, numP*N);
+
+            // X is already orthonormal, but the other vectors are not
+            rows = orthonormalize(b, 2*b + numP, N);
+            for (int i = b; i < rows; i++) {
+                MatrixVectorMult_DSCC.mult(A, S.data, i*N, AS.data, i*N);
+            }
+
+            if (!rayleighRitz(rows, b, N))
+                return false;
+            numP = rows > b ? b : 0;
+        }
+
+        extractResults(N);
+        return false;
+    }
+
+    /**
+     * Orthonormalizes rows in S from 'start' to 'end' against all previous rows using modified Gram-Schmidt.
+     * Nearly dependent rows are removed.
+     *
+     * @return Number of rows in the orthonormal basis
+     */
+    private int orthonormalize( int start, int end, int N ) {
+        int rows = start;
+        for (int j = start; j < end; j++) {
+            int offset = j*N;
+            double norm0 = Math.sqrt(dot(S.data, offset, S.data, offset, N));
+            if (norm0 == 0.0)
+                continue;
+
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < rows; i++) {
+                    double h = dot(S.data, i*N, S.data, offset, N);
+                    axpy(-h, S.data, i*N, S.data, offset, N);
+                }
+            }
+
+            double norm = Math.sqrt(dot(S.data, offset, S.data, offset, N));
+            if (norm <= Math.sqrt(UtilEjml.EPS)*norm0)
+                continue;
+
+            // shift the row down to fill in any gaps
+            if (rows != j) {
+                System.arraycopy(S.data, offset, S.data, rows*N, N);
+            }
+            scale(1.0/norm, S.data, rows*N, N);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * Performs Rayleigh-Ritz using the first 'rows' in S then updates X, AX, and if there are more rows
+     * than 'numX' P.
+     */
+    private boolean rayleighRitz( int rows, int numX, int N ) {
+        final int b = Math.min(blockSize, rows);
+
+        // G = S*(A*S)' which is symmetric up to round off errors
+        G.reshape(rows, rows);
+        for (int i = 0; i < rows; i++) {
+            for (int j = i; j < rows; j++) {
+                double v = 0.5*(dot(S.data, i*N, AS.data, j*N, N) + dot(S.data, j*N, AS.data, i*N, N));
+                G.unsafe_set(i, j, v);
+                G.unsafe_set(j, i, v);
+            }
+        }
+
+        if (!solveProjected(G))
+            return false;
+
+        X.reshape(b, N);
+        AX.reshape(b, N);
+        for (int i = 0; i < b; i++) {
+            combine(S, 0, rows, ritzVectors, 0, i, X.data, i*N);
+            combine(AS, 0, rows, ritzVectors, 0, i, AX.data, i*N);
+        }
+
+        // The new search direction is the component orthogonal to the old X
+        if (rows > numX && numX > 0) {
+            P.reshape(b, N);
+            for (int i = 0; i < b; i++) {
+                combine(S, numX, rows - numX, ritzVectors, numX, i, P.data, i*N);
+            }
+        }
+        return true;
+    }
+
+    private void extractResults( int N ) {
+        for (int i = 0; i < numEigen; i++) {
+            values[i] = ritzValues[i];
+        }
+        System.arraycopy(X.data, 0, vectors.data, 0, numEigen*N);
+    }
+
+    /**
+     * Creates a Jacobi (diagonal) preconditioner for the matrix. Zero diagonal elements are treated as one.
+     */
+    public static Preconditioner jacobi( DMatrixSparseCSC A ) {
+        final int N = A.numCols;
+        final double[] inv = new double[N];
+        for (int col = 0; col < N; col++) {
+            double d = A.get(col, col);
+            inv[col] = d == 0.0 ? 1.0 : 1.0/d;
+        }
+        return ( R, W ) -> {
+            for (int row = 0; row < R.numRows; row++) {
+                int offset = row*N;
+                for (int i = 0; i < N; i++) {
+                    W.data[offset + i] = R.data[offset + i]*inv[i];
+                }
+            }
+        };
+    }
+
+    public @Nullable Preconditioner getPreconditioner() {
+        return preconditioner;
+    }
+
+    public void setPreconditioner( @Nullable Preconditioner preconditioner ) {
+        this.preconditioner = preconditioner;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Number of vectors iterated at once. Must be at least the number of eigenvalues. A few extra vectors
+     * can improve the rate of convergence when eigenvalues are clustered.
+     */
+    public void setBlockSize( int blockSize ) {
+        if (blockSize < numEigen)
+            throw new IllegalArgumentException("Block size must be at least the number of eigenvalues");
+        this.blockSize = blockSize;
+    }
+}
@@ -25,8 +25,11 @@ import org.ejml.interfaces.decomposition.QRSparseDecomposition;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.decomposition.eig.SymmetricLanczos_DSCC;
+import org.ejml.sparse.csc.decomposition.eig.SymmetricLobpcg_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Factory for sparse matrix decompositions
@@ -47,4 +50,30 @@ public class DecompositionFactory_DSCC {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new LuUpLooking_DSCC(cp);
     }
+
+    /**
+     * Computes a few of the smallest or largest eigenpairs of a symmetric matrix using thick-restart Lanczos.
+     *
+     * @param numEigen Number of eigenpairs to compute
+     * @param largest If true the largest eigenvalues are found, otherwise the smallest
+     * @return Eigen decomposition
+     */
+    public static SymmetricLanczos_DSCC eigSymmetric( int numEigen, boolean largest ) {
+        return new SymmetricLanczos_DSCC(numEigen, largest);
+    }
+
+    /**
+     * Computes a few of the smallest or largest eigenpairs of a symmetric matrix using LOBPCG. A good
+     * preconditioner can greatly reduce the number of iterations.
+     *
+     * @param numEigen Number of eigenpairs to compute
+     * @param largest If true the largest eigenvalues are found, otherwise the smallest
+     * @param preconditioner (Optional) approximation to the inverse of A. Can be null.
+     * @return Eigen decomposition
+     * @see SymmetricLobpcg_DSCC#jacobi
+     */
+    public static SymmetricLobpcg_DSCC eigSymmetricLobpcg( int numEigen, boolean largest,
+                                                           @Nullable SymmetricLobpcg_DSCC.Preconditioner preconditioner ) {
+        return new SymmetricLobpcg_DSCC(numEigen, largest, preconditioner);
+    }
 }
@@ -50,6 +50,7 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
     IGrowArray gw = new IGrowArray();
 
     DMatrixSparseCSC tmp = new DMatrixSparseCSC(1, 1, 1);
+    DMatrixSparseCSC Cperm = new DMatrixSparseCSC(1, 1, 1);
 
     // Number of rows in A
     int AnumRows, AnumCols;
@@ -67,6 +68,36 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
         return cholesky.decompose(C);
     }
 
+    /**
+     * Changes the system being solved to (A + C*C<sup>T</sup>)*x = b without decomposing the modified matrix.
+     * The fill reduction permutation from {@link #setA} is applied to the rows in C.
+     *
+     * @param C An n by k sparse matrix. Not modified.
+     * @see CholeskyUpLooking_DSCC#update
+     */
+    public void update( DMatrixSparseCSC C ) {
+        cholesky.update(permuteRows(C));
+    }
+
+    /**
+     * Changes the system being solved to (A - C*C<sup>T</sup>)*x = b without decomposing the modified matrix.
+     *
+     * @param C An n by k sparse matrix. Not modified.
+     * @return true if successful. False if A - C*C<sup>T</sup> is not positive definite
+     * @see CholeskyUpLooking_DSCC#downdate
+     */
+    public boolean downdate( DMatrixSparseCSC C ) {
+        return cholesky.downdate(permuteRows(C));
+    }
+
+    private DMatrixSparseCSC permuteRows( DMatrixSparseCSC C ) {
+        int[] Pinv = reduce.getArrayPinv();
+        if (Pinv == null)
+            return C;
+        CommonOps_DSCC.permuteRowInv(Pinv, C, Cperm);
+        return Cperm;
+    }
+
     @Override
     public /**/double quality() {
         return TriangularSolver_DSCC.qualityTriangular(cholesky.getL());
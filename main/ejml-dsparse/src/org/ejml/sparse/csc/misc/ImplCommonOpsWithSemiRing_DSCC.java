@@ -22,6 +22,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.masks.Mask;
 import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.mult.ImplSemiRingKernels_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
@@ -54,25 +55,44 @@ public class ImplCommonOpsWithSemiRing_DSCC {
         C.indicesSorted = false;
         C.nz_length = 0;
 
-        for (int col = 0; col < A.numCols; col++) {
-            C.col_idx[col] = C.nz_length;
+        addColumns(alpha, A, beta, B, 0, A.numCols, C, semiRing, mask, x, w);
+    }
+
+    /**
+     * Computes columns col0 to col1-1 of &alpha;A + &beta;B and writes them to columns 0 to col1-col0-1 in C.
+     * C.nz_length must already be set, which lets a concurrent implementation process one block of columns at a time.
+     *
+     * @param mask (Optional) Mask for specifying which entries should be overwritten. Columns refer to A and B.
+     * @param x Workspace of length A.numRows
+     * @param w Workspace of length A.numRows. Must be filled with values &le; 0
+     */
+    public static void addColumns( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                   int col0, int col1, DMatrixSparseCSC C, DSemiRing semiRing,
+                                   @Nullable Mask mask, double[] x, int[] w ) {
+        // Built in semirings have a specialized implementation which avoids calling the operators through a lambda
+        if (ImplSemiRingKernels_DSCC.add(alpha, A, beta, B, col0, col1, C, semiRing, mask, x, w))
+            return;
+
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            C.col_idx[colC] = C.nz_length;
 
             if (mask != null) {
                 mask.setIndexColumn(col);
             }
 
-            multAddColA(A, col, alpha, C, col + 1, semiRing, mask, x, w);
-            multAddColA(B, col, beta, C, col + 1, semiRing, mask, x, w);
+            multAddColA(A, col, alpha, C, colC + 1, semiRing, mask, col, x, w);
+            multAddColA(B, col, beta, C, colC + 1, semiRing, mask, col, x, w);
 
             // take the values in the dense vector 'x' and put them into 'C'
-            int idxC0 = C.col_idx[col];
-            int idxC1 = C.col_idx[col + 1];
+            int idxC0 = C.col_idx[colC];
+            int idxC1 = C.col_idx[colC + 1];
 
             for (int i = idxC0; i < idxC1; i++) {
                 C.nz_values[i] = x[C.nz_rows[i]];
             }
         }
-        C.col_idx[A.numCols] = C.nz_length;
+        C.col_idx[col1 - col0] = C.nz_length;
     }
 
     /**
@@ -149,8 +169,30 @@ public class ImplCommonOpsWithSemiRing_DSCC {
         C.indicesSorted = false; // Hmm I think if B is storted then C will be sorted...
         C.nz_length = 0;
 
+        elementMultColumns(A, B, 0, A.numCols, C, semiRing, mask, x, w);
+    }
+
+    /**
+     * Computes columns col0 to col1-1 of the element-wise product and writes them to columns 0 to col1-col0-1 in C.
+     * C.nz_length must already be set, which lets a concurrent implementation process one block of columns at a time.
+     *
+     * @param mask (Optional) Mask for specifying which entries should be overwritten. Columns refer to A and B.
+     * @param x Workspace of length A.numRows
+     * @param w Workspace of length A.numRows. Must be filled with values less than col0
+     */
+    public static void elementMultColumns( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                           DMatrixSparseCSC C, DSemiRing semiRing,
+                                           @Nullable Mask mask, double[] x, int[] w ) {
+        // Built in semirings have a specialized implementation which avoids calling the operators through a lambda
+        if (ImplSemiRingKernels_DSCC.elementMult(A, B, col0, col1, C, semiRing, mask, x, w))
+            return;
 
-        for (int col = 0; col < A.numCols; col++) {
+        int maxMaskEntries = Integer.MAX_VALUE;
+        if (mask != null) {
+            maxMaskEntries = mask.maxMaskedEntries();
+        }
+
+        for (int col = col0; col < col1; col++) {
             int idxA0 = A.col_idx[col];
             int idxA1 = A.col_idx[col + 1];
             int idxB0 = B.col_idx[col];
@@ -166,7 +208,11 @@ public class ImplCommonOpsWithSemiRing_DSCC {
             }
 
             // update the structure of C
-            C.col_idx[col] = C.nz_length;
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
 
             // mark the rows that appear in A and save their value
             for (int i = idxA0; i < idxA1; i++) {
@@ -186,6 +232,6 @@ public class ImplCommonOpsWithSemiRing_DSCC {
                 }
             }
         }
-        C.col_idx[C.numCols] = C.nz_length;
+        C.col_idx[col1 - col0] = C.nz_length;
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC.addColumns;
+import static org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC.elementMultColumns;
+import static org.ejml.sparse.csc.mult.ImplMultiplication_MT_DSCC.stitchMatrix;
+
+/**
+ * Concurrent implementations of {@link ImplCommonOpsWithSemiRing_DSCC}. Each thread processes a block of columns
+ * using its own copy of the mask, see {@link Mask#concurrentCopy}, and the same column kernels as the single
+ * threaded version.
+ */
+public class ImplCommonOpsWithSemiRing_MT_DSCC {
+    /**
+     * Performs matrix addition:<br>
+     * C = &alpha;A + &beta;B
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Matrix
+     * @param beta scalar value multiplied against B
+     * @param B Matrix
+     * @param C Output matrix.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which entries should be overwritten
+     * @param listWork Storage for internal workspace.
+     */
+    public static void add( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B, DMatrixSparseCSC C,
+                            DSemiRing semiRing, @Nullable Mask mask, GrowArray<Workspace_MT_DSCC> listWork ) {
+        // Break the problem up into blocks of columns and process them independently
+        EjmlConcurrency.loopBlocks(0, A.numCols, listWork, ( workspace, col0, col1 ) -> {
+            DMatrixSparseCSC workC = workspace.mat;
+            workC.reshape(A.numRows, col1 - col0, col1 - col0);
+            workC.col_idx[0] = 0;
+
+            double[] x = adjust(workspace.gx, A.numRows);
+            int[] w = adjust(workspace.gw, A.numRows, A.numRows);
+            Mask localMask = mask == null ? null : mask.concurrentCopy(workspace.gmask);
+
+            addColumns(alpha, A, beta, B, col0, col1, workC, semiRing, localMask, x, w);
+        });
+
+        // Stitch the output back together
+        stitchMatrix(C, A.numRows, A.numCols, listWork);
+    }
+
+    /**
+     * Performs element-wise multiplication:<br>
+     * C_ij = A_ij * B_ij
+     *
+     * @param A (Input) Matrix
+     * @param B (Input) Matrix
+     * @param C (Output) Matrix.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which entries should be overwritten
+     * @param listWork Storage for internal workspace.
+     */
+    public static void elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C, DSemiRing semiRing,
+                                    @Nullable Mask mask, GrowArray<Workspace_MT_DSCC> listWork ) {
+        EjmlConcurrency.loopBlocks(0, A.numCols, listWork, ( workspace, col0, col1 ) -> {
+            DMatrixSparseCSC workC = workspace.mat;
+            workC.reshape(A.numRows, col1 - col0,
+                    Math.min(A.col_idx[col1] - A.col_idx[col0], B.col_idx[col1] - B.col_idx[col0]));
+
+            double[] x = adjust(workspace.gx, A.numRows);
+            int[] w = adjust(workspace.gw, A.numRows);
+            Arrays.fill(w, 0, A.numRows, -1); // fill with -1. This will be a value less than column
+            Mask localMask = mask == null ? null : mask.concurrentCopy(workspace.gmask);
+
+            elementMultColumns(A, B, col0, col1, workC, semiRing, localMask, x, w);
+        });
+
+        // Stitch the output back together
+        stitchMatrix(C, A.numRows, A.numCols, listWork);
+    }
+}
@@ -51,12 +51,29 @@ public class ImplMultiplicationWithSemiRing_DSCC {
         C.indicesSorted = false;
         C.nz_length = 0;
 
+        multColumns(A, B, 0, B.numCols, C, semiRing, mask, x, w);
+    }
+
+    /**
+     * Computes columns bj0 to bj1-1 of A*B and writes them to columns 0 to bj1-bj0-1 in C. C.col_idx[0] and
+     * C.nz_length must already be set, which lets a concurrent implementation process one block of columns at a time.
+     *
+     * @param mask (Optional) Mask for specifying which entries should be overwritten. Columns refer to B.
+     * @param x Workspace of length A.numRows
+     * @param w Workspace of length A.numRows. Must be filled with values &le; 0
+     */
+    public static void multColumns( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1, DMatrixSparseCSC C,
+                                    DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w ) {
+        // Built in semirings have a specialized implementation which avoids calling the operators through a lambda
+        if (ImplSemiRingKernels_DSCC.multColumns(A, B, bj0, bj1, C, semiRing, mask, x, w))
+            return;
+
         // C(i,j) = sum_k A(i,k) * B(k,j)
-        int idx0 = B.col_idx[0];
-        for (int bj = 1; bj <= B.numCols; bj++) {
-            int colB = bj - 1;
-            int idx1 = B.col_idx[bj];
-            C.col_idx[bj] = C.nz_length;
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[colC + 1] = C.nz_length;
 
             if (idx0 == idx1) {
                 continue;
@@ -64,7 +81,7 @@ public class ImplMultiplicationWithSemiRing_DSCC {
 
             // as colB mask is accessed for each colB entry
             if (mask != null) {
-                mask.setIndexColumn(colB);
+                mask.setIndexColumn(bj);
             }
 
             // C(:,j) = sum_k A(:,k)*B(k,j)
@@ -72,18 +89,16 @@ public class ImplMultiplicationWithSemiRing_DSCC {
                 int rowB = B.nz_rows[bi];
                 double valB = B.nz_values[bi];  // B(k,j)  k=rowB j=colB
 
-                multAddColA(A, rowB, valB, C, colB + 1, semiRing, mask, x, w);
+                multAddColA(A, rowB, valB, C, colC + 1, semiRing, mask, bj, x, w);
             }
 
             // take the values in the dense vector 'x' and put them into 'C'
-            int idxC0 = C.col_idx[colB];
-            int idxC1 = C.col_idx[colB + 1];
+            int idxC0 = C.col_idx[colC];
+            int idxC1 = C.col_idx[colC + 1];
 
             for (int i = idxC0; i < idxC1; i++) {
                 C.nz_values[i] = x[C.nz_rows[i]];
             }
-
-            idx0 = idx1;
         }
     }
 
@@ -97,13 +112,28 @@ public class ImplMultiplicationWithSemiRing_DSCC {
                                     DMatrixSparseCSC C, int mark,
                                     DSemiRing semiRing,
                                     @Nullable Mask mask, double[] x, int[] w ) {
+        multAddColA(A, colA, alpha, C, mark, semiRing, mask, mark - 1, x, w);
+    }
+
+    /**
+     * Same as {@link #multAddColA(DMatrixSparseCSC, int, double, DMatrixSparseCSC, int, DSemiRing, Mask, double[], int[])}
+     * but the column in the mask is specified separately. Used when C only contains a block of columns
+     * from the full output matrix.
+     *
+     * @param maskColumn Column in the mask which corresponds to column (mark-1) in C
+     */
+    public static void multAddColA( DMatrixSparseCSC A, int colA,
+                                    double alpha,
+                                    DMatrixSparseCSC C, int mark,
+                                    DSemiRing semiRing,
+                                    @Nullable Mask mask, int maskColumn, double[] x, int[] w ) {
         int idxA0 = A.col_idx[colA];
         int idxA1 = A.col_idx[colA + 1];
 
         for (int j = idxA0; j < idxA1; j++) {
             int row = A.nz_rows[j];
 
-            if (mask == null || mask.isSet(row, mark - 1)) {
+            if (mask == null || mask.isSet(row, maskColumn)) {
                 if (w[row] < mark) {
                     if (C.nz_length >= C.nz_rows.length) {
                         int growToLength = C.nz_length*2 + 1;
@@ -130,6 +160,9 @@ public class ImplMultiplicationWithSemiRing_DSCC {
     }
 
     public static void multAdd( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (ImplSemiRingKernels_DSCC.multAdd(A, B, C, semiRing))
+            return;
+
         // C(i,j) = sum_k A(i,k) * B(k,j)
         for (int k = 0; k < A.numCols; k++) {
             int idx0 = A.col_idx[k];
@@ -145,13 +178,16 @@ public class ImplMultiplicationWithSemiRing_DSCC {
 
 //                for (int j = 0; j < B.numCols; j++) {
                 while (indexB < end) {
-                    C.data[indexC++] = semiRing.add.func.apply(C.data[indexC++], semiRing.mult.func.apply(valueA, B.data[indexB++]));
+                    C.data[indexC] = semiRing.add.func.apply(C.data[indexC], semiRing.mult.func.apply(valueA, B.data[indexB++]));
+                    indexC++;
                 }
             }
         }
     }
 
     public static void multTransA( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (ImplSemiRingKernels_DSCC.multTransA(A, B, C, semiRing, false))
+            return;
 
         // C(i,j) = sum_k A(k,i) * B(k,j)
         for (int j = 0; j < B.numCols; j++) {
@@ -172,6 +208,9 @@ public class ImplMultiplicationWithSemiRing_DSCC {
     }
 
     public static void multAddTransA( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (ImplSemiRingKernels_DSCC.multTransA(A, B, C, semiRing, true))
+            return;
+
         // C(i,j) = sum_k A(k,i) * B(k,j)
         for (int j = 0; j < B.numCols; j++) {
 
@@ -196,6 +235,8 @@ public class ImplMultiplicationWithSemiRing_DSCC {
     }
 
     public static void multAddTransB( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (ImplSemiRingKernels_DSCC.multAddTransB(A, B, C, semiRing))
+            return;
 
         // C(i,j) = sum_k A(i,k) * B(j,k)
         for (int k = 0; k < A.numCols; k++) {
@@ -222,6 +263,9 @@ public class ImplMultiplicationWithSemiRing_DSCC {
     }
 
     public static void multAddTransAB( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (ImplSemiRingKernels_DSCC.multAddTransAB(A, B, C, semiRing))
+            return;
+
         // C(i,j) = sum_k A(k,i) * B(j,K)
         for (int i = 0; i < A.numCols; i++) {
             int idx0 = A.col_idx[i];
@@ -0,0 +1,6564 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import javax.annotation.Generated;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Kernels for the semirings in {@link DSemiRings} with the operators inlined. This avoids
+ * calling the operators through a lambda for every element, which is slow once the call site has seen
+ * several different semirings. Semirings are matched by identity and if there is no match then the
+ * dispatch functions return false and the generic implementation should be used instead.
+ * </p>
+ *
+ * <p>
+ * Sparse outputs are computed for a range of columns so that the same kernels can be used by the
+ * single threaded and concurrent implementations. Sparse vector kernels expect the output to already
+ * have been reshaped.
+ * </p>
+ *
+ * <p>DO NOT MODIFY. Automatically generated code created by GenerateImplSemiRingKernels_DSCC</p>
+ *
+ * @author Peter Abeles
+ */
+@Generated("org.ejml.sparse.csc.mult.GenerateImplSemiRingKernels_DSCC")
+@SuppressWarnings("Duplicates")
+public class ImplSemiRingKernels_DSCC {
+    /**
+     * Computes columns bj0 to bj1-1 of C = A*B and writes them to columns 0 to bj1-bj0-1 in C using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     * @see ImplMultiplicationWithSemiRing_DSCC#multColumns
+     */
+    public static boolean multColumns( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1, DMatrixSparseCSC C,
+                                       DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            multColumns_PLUS_TIMES(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            multColumns_MIN_PLUS(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            multColumns_MAX_PLUS(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            multColumns_MIN_TIMES(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            multColumns_MIN_MAX(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            multColumns_MAX_MIN(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            multColumns_MAX_TIMES(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            multColumns_PLUS_MIN(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            multColumns_OR_AND(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            multColumns_AND_OR(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            multColumns_XOR_AND(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            multColumns_XNOR_OR(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            multColumns_MIN_FIRST(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            multColumns_MIN_SECOND(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            multColumns_MAX_FIRST(A, B, bj0, bj1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            multColumns_MAX_SECOND(A, B, bj0, bj1, C, mask, x, w);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes columns col0 to col1-1 of C = &alpha;A + &beta;B and writes them to columns 0 to col1-col0-1 in C using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     * @see org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC#addColumns
+     */
+    public static boolean add( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                               int col0, int col1, DMatrixSparseCSC C,
+                               DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            add_PLUS_TIMES(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            add_MIN_PLUS(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            add_MAX_PLUS(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            add_MIN_TIMES(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            add_MIN_MAX(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            add_MAX_MIN(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            add_MAX_TIMES(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            add_PLUS_MIN(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            add_OR_AND(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            add_AND_OR(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            add_XOR_AND(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            add_XNOR_OR(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            add_MIN_FIRST(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            add_MIN_SECOND(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            add_MAX_FIRST(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            add_MAX_SECOND(alpha, A, beta, B, col0, col1, C, mask, x, w);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes columns col0 to col1-1 of the element-wise product and writes them to columns 0 to col1-col0-1 in C using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     * @see org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC#elementMultColumns
+     */
+    public static boolean elementMult( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1, DMatrixSparseCSC C,
+                                       DSemiRing semiRing, @Nullable Mask mask, double[] x, int[] w ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            elementMult_PLUS_TIMES(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            elementMult_MIN_PLUS(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            elementMult_MAX_PLUS(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            elementMult_MIN_TIMES(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            elementMult_MIN_MAX(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            elementMult_MAX_MIN(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            elementMult_MAX_TIMES(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            elementMult_PLUS_MIN(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            elementMult_OR_AND(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            elementMult_AND_OR(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            elementMult_XOR_AND(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            elementMult_XNOR_OR(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            elementMult_MIN_FIRST(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            elementMult_MIN_SECOND(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            elementMult_MAX_FIRST(A, B, col0, col1, C, mask, x, w);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            elementMult_MAX_SECOND(A, B, col0, col1, C, mask, x, w);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs c = c + A*b using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     */
+    public static boolean multAdd( DMatrixSparseCSC A, double[] b, int offsetB,
+                                   double[] c, int offsetC, DSemiRing semiRing ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            multAdd_PLUS_TIMES(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            multAdd_MIN_PLUS(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            multAdd_MAX_PLUS(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            multAdd_MIN_TIMES(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            multAdd_MIN_MAX(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            multAdd_MAX_MIN(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            multAdd_MAX_TIMES(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            multAdd_PLUS_MIN(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            multAdd_OR_AND(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            multAdd_AND_OR(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            multAdd_XOR_AND(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            multAdd_XNOR_OR(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            multAdd_MIN_FIRST(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            multAdd_MIN_SECOND(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            multAdd_MAX_FIRST(A, b, offsetB, c, offsetC);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            multAdd_MAX_SECOND(A, b, offsetB, c, offsetC);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs c = a<sup>T</sup>*B using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     */
+    public static boolean mult( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, DSemiRing semiRing, @Nullable Mask mask ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            mult_PLUS_TIMES(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            mult_MIN_PLUS(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            mult_MAX_PLUS(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            mult_MIN_TIMES(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            mult_MIN_MAX(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            mult_MAX_MIN(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            mult_MAX_TIMES(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            mult_PLUS_MIN(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            mult_OR_AND(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            mult_AND_OR(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            mult_XOR_AND(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            mult_XNOR_OR(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            mult_MIN_FIRST(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            mult_MIN_SECOND(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            mult_MAX_FIRST(a, offsetA, B, c, offsetC, mask);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            mult_MAX_SECOND(a, offsetA, B, c, offsetC, mask);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs C = C + A*B where B and C are dense using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     */
+    public static boolean multAdd( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            multAdd_PLUS_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            multAdd_MIN_PLUS(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            multAdd_MAX_PLUS(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            multAdd_MIN_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            multAdd_MIN_MAX(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            multAdd_MAX_MIN(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            multAdd_MAX_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            multAdd_PLUS_MIN(A, B, C);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            multAdd_OR_AND(A, B, C);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            multAdd_AND_OR(A, B, C);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            multAdd_XOR_AND(A, B, C);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            multAdd_XNOR_OR(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            multAdd_MIN_FIRST(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            multAdd_MIN_SECOND(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            multAdd_MAX_FIRST(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            multAdd_MAX_SECOND(A, B, C);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs C = A<sup>T</sup>*B, or C = C + A<sup>T</sup>*B if add is true, where B and C are dense using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     */
+    public static boolean multTransA( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing, boolean add ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            multTransA_PLUS_TIMES(A, B, C, add);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            multTransA_MIN_PLUS(A, B, C, add);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            multTransA_MAX_PLUS(A, B, C, add);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            multTransA_MIN_TIMES(A, B, C, add);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            multTransA_MIN_MAX(A, B, C, add);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            multTransA_MAX_MIN(A, B, C, add);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            multTransA_MAX_TIMES(A, B, C, add);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            multTransA_PLUS_MIN(A, B, C, add);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            multTransA_OR_AND(A, B, C, add);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            multTransA_AND_OR(A, B, C, add);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            multTransA_XOR_AND(A, B, C, add);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            multTransA_XNOR_OR(A, B, C, add);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            multTransA_MIN_FIRST(A, B, C, add);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            multTransA_MIN_SECOND(A, B, C, add);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            multTransA_MAX_FIRST(A, B, C, add);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            multTransA_MAX_SECOND(A, B, C, add);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs C = C + A*B<sup>T</sup> where B and C are dense using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     */
+    public static boolean multAddTransB( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            multAddTransB_PLUS_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            multAddTransB_MIN_PLUS(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            multAddTransB_MAX_PLUS(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            multAddTransB_MIN_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            multAddTransB_MIN_MAX(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            multAddTransB_MAX_MIN(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            multAddTransB_MAX_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            multAddTransB_PLUS_MIN(A, B, C);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            multAddTransB_OR_AND(A, B, C);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            multAddTransB_AND_OR(A, B, C);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            multAddTransB_XOR_AND(A, B, C);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            multAddTransB_XNOR_OR(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            multAddTransB_MIN_FIRST(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            multAddTransB_MIN_SECOND(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            multAddTransB_MAX_FIRST(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            multAddTransB_MAX_SECOND(A, B, C);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs C = C + A<sup>T</sup>*B<sup>T</sup> where B and C are dense using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     */
+    public static boolean multAddTransAB( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, DSemiRing semiRing ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            multAddTransAB_PLUS_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            multAddTransAB_MIN_PLUS(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            multAddTransAB_MAX_PLUS(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            multAddTransAB_MIN_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            multAddTransAB_MIN_MAX(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            multAddTransAB_MAX_MIN(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            multAddTransAB_MAX_TIMES(A, B, C);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            multAddTransAB_PLUS_MIN(A, B, C);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            multAddTransAB_OR_AND(A, B, C);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            multAddTransAB_AND_OR(A, B, C);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            multAddTransAB_XOR_AND(A, B, C);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            multAddTransAB_XNOR_OR(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            multAddTransAB_MIN_FIRST(A, B, C);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            multAddTransAB_MIN_SECOND(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            multAddTransAB_MAX_FIRST(A, B, C);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            multAddTransAB_MAX_SECOND(A, B, C);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Scatters the columns in P selected by v into c using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     * @see MatrixSparseVectorMultWithSemiRing_DSCC#push
+     */
+    public static boolean push( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                DSemiRing semiRing, @Nullable Mask mask, int[] w ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            push_PLUS_TIMES(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            push_MIN_PLUS(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            push_MAX_PLUS(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            push_MIN_TIMES(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            push_MIN_MAX(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            push_MAX_MIN(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            push_MAX_TIMES(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            push_PLUS_MIN(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            push_OR_AND(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            push_AND_OR(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            push_XOR_AND(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            push_XNOR_OR(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            push_MIN_FIRST(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            push_MIN_SECOND(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            push_MAX_FIRST(P, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            push_MAX_SECOND(P, v, vectorLeft, c, mask, w);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Computes the dot product between each column in Q and v using a specialized kernel if one is available for the semiring.
+     *
+     * @return true if a specialized kernel was used or false if the generic version needs to be used
+     * @see MatrixSparseVectorMultWithSemiRing_DSCC#pull
+     */
+    public static boolean pull( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                DSemiRing semiRing, @Nullable Mask mask, int[] w ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) {
+            pull_PLUS_TIMES(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_PLUS) {
+            pull_MIN_PLUS(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_PLUS) {
+            pull_MAX_PLUS(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_TIMES) {
+            pull_MIN_TIMES(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_MAX) {
+            pull_MIN_MAX(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_MIN) {
+            pull_MAX_MIN(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_TIMES) {
+            pull_MAX_TIMES(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.PLUS_MIN) {
+            pull_PLUS_MIN(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.OR_AND) {
+            pull_OR_AND(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.AND_OR) {
+            pull_AND_OR(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.XOR_AND) {
+            pull_XOR_AND(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.XNOR_OR) {
+            pull_XNOR_OR(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_FIRST) {
+            pull_MIN_FIRST(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MIN_SECOND) {
+            pull_MIN_SECOND(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_FIRST) {
+            pull_MAX_FIRST(Q, v, vectorLeft, c, mask, w);
+        } else if (semiRing == DSemiRings.MAX_SECOND) {
+            pull_MAX_SECOND(Q, v, vectorLeft, c, mask, w);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+
+    public static void multColumns_PLUS_TIMES( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA*valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = sum + prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_PLUS_TIMES( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA*alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = sum + prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA*beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = sum + prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_PLUS_TIMES( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA*valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_PLUS_TIMES( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA*valB;
+                double sum = c[indexC];
+                c[indexC] = sum + prod;
+            }
+        }
+    }
+
+    public static void mult_PLUS_TIMES( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = 0;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA*valB;
+                sum = sum + prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_PLUS_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = sum + prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_PLUS_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = 0;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA*valB;
+                    sum = sum + prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = valC + sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_PLUS_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = sum + prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_PLUS_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = sum + prod;
+                }
+            }
+        }
+    }
+
+    public static void push_PLUS_TIMES( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value*valP) : (valP*value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = sum + prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_PLUS_TIMES( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV*valQ) : (valQ*valV);
+                if (found) {
+                    sum = sum + prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MIN_PLUS( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA + valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum <= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MIN_PLUS( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA + alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA + beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MIN_PLUS( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA + valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MIN_PLUS( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA + valB;
+                double sum = c[indexC];
+                c[indexC] = (sum <= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_PLUS( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA + valB;
+                sum = (sum <= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MIN_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA + valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MIN_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA + valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC <= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MIN_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA + valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MIN_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA + valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MIN_PLUS( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value + valP) : (valP + value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum <= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MIN_PLUS( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV + valQ) : (valQ + valV);
+                if (found) {
+                    sum = (sum <= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MAX_PLUS( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA + valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum >= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MAX_PLUS( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA + alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA + beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MAX_PLUS( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA + valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MAX_PLUS( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA + valB;
+                double sum = c[indexC];
+                c[indexC] = (sum >= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_PLUS( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = -Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA + valB;
+                sum = (sum >= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MAX_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA + valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MAX_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = -Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA + valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC >= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MAX_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA + valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MAX_PLUS( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA + valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MAX_PLUS( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value + valP) : (valP + value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum >= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MAX_PLUS( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV + valQ) : (valQ + valV);
+                if (found) {
+                    sum = (sum >= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MIN_TIMES( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA*valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum <= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MIN_TIMES( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA*alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA*beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MIN_TIMES( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA*valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MIN_TIMES( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA*valB;
+                double sum = c[indexC];
+                c[indexC] = (sum <= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_TIMES( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA*valB;
+                sum = (sum <= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MIN_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MIN_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA*valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC <= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MIN_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MIN_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MIN_TIMES( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value*valP) : (valP*value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum <= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MIN_TIMES( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV*valQ) : (valQ*valV);
+                if (found) {
+                    sum = (sum <= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MIN_MAX( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA >= valB) ? valA : valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum <= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MIN_MAX( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA >= alpha) ? valA : alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA >= beta) ? valA : beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MIN_MAX( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA >= valB) ? valA : valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MIN_MAX( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA >= valB) ? valA : valB;
+                double sum = c[indexC];
+                c[indexC] = (sum <= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_MAX( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA >= valB) ? valA : valB;
+                sum = (sum <= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MIN_MAX( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA >= valB) ? valA : valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MIN_MAX( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA >= valB) ? valA : valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC <= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MIN_MAX( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA >= valB) ? valA : valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MIN_MAX( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA >= valB) ? valA : valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MIN_MAX( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value >= valP) ? value : valP) : ((valP >= value) ? valP : value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum <= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MIN_MAX( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV >= valQ) ? valV : valQ) : ((valQ >= valV) ? valQ : valV);
+                if (found) {
+                    sum = (sum <= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MAX_MIN( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA <= valB) ? valA : valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum >= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MAX_MIN( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA <= alpha) ? valA : alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA <= beta) ? valA : beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MAX_MIN( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA <= valB) ? valA : valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MAX_MIN( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA <= valB) ? valA : valB;
+                double sum = c[indexC];
+                c[indexC] = (sum >= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_MIN( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = -Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA <= valB) ? valA : valB;
+                sum = (sum >= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MAX_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA <= valB) ? valA : valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MAX_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = -Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA <= valB) ? valA : valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC >= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MAX_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA <= valB) ? valA : valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MAX_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA <= valB) ? valA : valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MAX_MIN( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value <= valP) ? value : valP) : ((valP <= value) ? valP : value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum >= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MAX_MIN( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV <= valQ) ? valV : valQ) : ((valQ <= valV) ? valQ : valV);
+                if (found) {
+                    sum = (sum >= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MAX_TIMES( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA*valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum >= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MAX_TIMES( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA*alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA*beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MAX_TIMES( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA*valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MAX_TIMES( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA*valB;
+                double sum = c[indexC];
+                c[indexC] = (sum >= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_TIMES( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = -Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA*valB;
+                sum = (sum >= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MAX_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MAX_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = -Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA*valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC >= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MAX_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MAX_TIMES( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA*valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MAX_TIMES( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value*valP) : (valP*value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum >= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MAX_TIMES( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV*valQ) : (valQ*valV);
+                if (found) {
+                    sum = (sum >= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_PLUS_MIN( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA <= valB) ? valA : valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = sum + prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_PLUS_MIN( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA <= alpha) ? valA : alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = sum + prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA <= beta) ? valA : beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = sum + prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_PLUS_MIN( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA <= valB) ? valA : valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_PLUS_MIN( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA <= valB) ? valA : valB;
+                double sum = c[indexC];
+                c[indexC] = sum + prod;
+            }
+        }
+    }
+
+    public static void mult_PLUS_MIN( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = 0;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA <= valB) ? valA : valB;
+                sum = sum + prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_PLUS_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA <= valB) ? valA : valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = sum + prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_PLUS_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = 0;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA <= valB) ? valA : valB;
+                    sum = sum + prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = valC + sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_PLUS_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA <= valB) ? valA : valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = sum + prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_PLUS_MIN( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA <= valB) ? valA : valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = sum + prod;
+                }
+            }
+        }
+    }
+
+    public static void push_PLUS_MIN( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value <= valP) ? value : valP) : ((valP <= value) ? valP : value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = sum + prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_PLUS_MIN( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV <= valQ) ? valV : valQ) : ((valQ <= valV) ? valQ : valV);
+                if (found) {
+                    sum = sum + prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_OR_AND( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum != 0 || prod != 0) ? 1 : 0;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_OR_AND( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA == 0 || alpha == 0) ? 0 : 1;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA == 0 || beta == 0) ? 0 : 1;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_OR_AND( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA == 0 || valB == 0) ? 0 : 1;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_OR_AND( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                double sum = c[indexC];
+                c[indexC] = (sum != 0 || prod != 0) ? 1 : 0;
+            }
+        }
+    }
+
+    public static void mult_OR_AND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = 0;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                sum = (sum != 0 || prod != 0) ? 1 : 0;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_OR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_OR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = 0;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    sum = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC != 0 || sum != 0) ? 1 : 0;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_OR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_OR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void push_OR_AND( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value == 0 || valP == 0) ? 0 : 1) : ((valP == 0 || value == 0) ? 0 : 1);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum != 0 || prod != 0) ? 1 : 0;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_OR_AND( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV == 0 || valQ == 0) ? 0 : 1) : ((valQ == 0 || valV == 0) ? 0 : 1);
+                if (found) {
+                    sum = (sum != 0 || prod != 0) ? 1 : 0;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_AND_OR( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum == 0 || prod == 0) ? 0 : 1;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_AND_OR( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA != 0 || alpha != 0) ? 1 : 0;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA != 0 || beta != 0) ? 1 : 0;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_AND_OR( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA != 0 || valB != 0) ? 1 : 0;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_AND_OR( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                double sum = c[indexC];
+                c[indexC] = (sum == 0 || prod == 0) ? 0 : 1;
+            }
+        }
+    }
+
+    public static void mult_AND_OR( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = 1;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                sum = (sum == 0 || prod == 0) ? 0 : 1;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_AND_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_AND_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = 1;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    sum = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC == 0 || sum == 0) ? 0 : 1;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_AND_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_AND_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void push_AND_OR( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value != 0 || valP != 0) ? 1 : 0) : ((valP != 0 || value != 0) ? 1 : 0);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum == 0 || prod == 0) ? 0 : 1;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_AND_OR( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV != 0 || valQ != 0) ? 1 : 0) : ((valQ != 0 || valV != 0) ? 1 : 0);
+                if (found) {
+                    sum = (sum == 0 || prod == 0) ? 0 : 1;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_XOR_AND( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_XOR_AND( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA == 0 || alpha == 0) ? 0 : 1;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA == 0 || beta == 0) ? 0 : 1;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_XOR_AND( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA == 0 || valB == 0) ? 0 : 1;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_XOR_AND( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                double sum = c[indexC];
+                c[indexC] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+            }
+        }
+    }
+
+    public static void mult_XOR_AND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = 0;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_XOR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_XOR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = 0;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = ((valC == 0 && sum == 0) || (valC != 0 && sum != 0)) ? 0 : 1;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_XOR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_XOR_AND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void push_XOR_AND( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value == 0 || valP == 0) ? 0 : 1) : ((valP == 0 || value == 0) ? 0 : 1);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_XOR_AND( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV == 0 || valQ == 0) ? 0 : 1) : ((valQ == 0 || valV == 0) ? 0 : 1);
+                if (found) {
+                    sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_XNOR_OR( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_XNOR_OR( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = (valA != 0 || alpha != 0) ? 1 : 0;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = (valA != 0 || beta != 0) ? 1 : 0;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_XNOR_OR( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = (valA != 0 || valB != 0) ? 1 : 0;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_XNOR_OR( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                double sum = c[indexC];
+                c[indexC] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+            }
+        }
+    }
+
+    public static void mult_XNOR_OR( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = 0;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_XNOR_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_XNOR_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = 0;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = ((valC == 0 && sum == 0) || (valC != 0 && sum != 0)) ? 1 : 0;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_XNOR_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_XNOR_OR( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void push_XNOR_OR( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? ((value != 0 || valP != 0) ? 1 : 0) : ((valP != 0 || value != 0) ? 1 : 0);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_XNOR_OR( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? ((valV != 0 || valQ != 0) ? 1 : 0) : ((valQ != 0 || valV != 0) ? 1 : 0);
+                if (found) {
+                    sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MIN_FIRST( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum <= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MIN_FIRST( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MIN_FIRST( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MIN_FIRST( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA;
+                double sum = c[indexC];
+                c[indexC] = (sum <= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_FIRST( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA;
+                sum = (sum <= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MIN_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MIN_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC <= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MIN_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MIN_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MIN_FIRST( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value) : (valP);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum <= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MIN_FIRST( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV) : (valQ);
+                if (found) {
+                    sum = (sum <= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MIN_SECOND( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum <= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MIN_SECOND( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum <= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MIN_SECOND( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MIN_SECOND( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valB;
+                double sum = c[indexC];
+                c[indexC] = (sum <= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_SECOND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valB;
+                sum = (sum <= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MIN_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MIN_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC <= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MIN_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MIN_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum <= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MIN_SECOND( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (valP) : (value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum <= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MIN_SECOND( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valQ) : (valV);
+                if (found) {
+                    sum = (sum <= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MAX_FIRST( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valA;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum >= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MAX_FIRST( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = valA;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = valA;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MAX_FIRST( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valA;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MAX_FIRST( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA;
+                double sum = c[indexC];
+                c[indexC] = (sum >= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_FIRST( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = -Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valA;
+                sum = (sum >= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MAX_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valA;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MAX_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = -Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valA;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC >= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MAX_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MAX_FIRST( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valA;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MAX_FIRST( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (value) : (valP);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum >= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MAX_FIRST( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valV) : (valQ);
+                if (found) {
+                    sum = (sum >= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void multColumns_MAX_SECOND( DMatrixSparseCSC A, DMatrixSparseCSC B, int bj0, int bj1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int bj = bj0; bj < bj1; bj++) {
+            int colC = bj - bj0;
+            int mark = colC + 1;
+            int maskColumn = bj;
+            int idx0 = B.col_idx[bj];
+            int idx1 = B.col_idx[bj + 1];
+            C.col_idx[mark] = C.nz_length;
+
+            if (idx0 == idx1) {
+                continue;
+            }
+
+            if (mask != null) {
+                mask.setIndexColumn(bj);
+            }
+
+            // C(:,j) = sum_k A(:,k)*B(k,j)
+            for (int bi = idx0; bi < idx1; bi++) {
+                int colA = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+                for (int j = A.col_idx[colA]; j < A.col_idx[colA + 1]; j++) {
+                    int row = A.nz_rows[j];
+                    if (mask != null && !mask.isSet(row, maskColumn))
+                        continue;
+
+                    double valA = A.nz_values[j];
+                    double prod = valB;
+                    if (w[row] < mark) {
+                        if (C.nz_length >= C.nz_rows.length) {
+                            int growToLength = C.nz_length*2 + 1;
+                            if (mask != null) {
+                                growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                            }
+                            C.growMaxLength(growToLength, true);
+                        }
+
+                        w[row] = mark;
+                        C.nz_rows[C.nz_length] = row;
+                        C.col_idx[mark] = ++C.nz_length;
+                        x[row] = prod;
+                    } else {
+                        double sum = x[row];
+                        x[row] = (sum >= prod) ? sum : prod;
+                    }
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+    }
+
+    public static void add_MAX_SECOND( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
+                                int col0, int col1, DMatrixSparseCSC C,
+                                @Nullable Mask mask, double[] x, int[] w ) {
+        for (int col = col0; col < col1; col++) {
+            int colC = col - col0;
+            int mark = colC + 1;
+            int maskColumn = col;
+            C.col_idx[colC] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            for (int j = A.col_idx[col]; j < A.col_idx[col + 1]; j++) {
+                int row = A.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = A.nz_values[j];
+                double prod = alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+            for (int j = B.col_idx[col]; j < B.col_idx[col + 1]; j++) {
+                int row = B.nz_rows[j];
+                if (mask != null && !mask.isSet(row, maskColumn))
+                    continue;
+
+                double valA = B.nz_values[j];
+                double prod = beta;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double sum = x[row];
+                    x[row] = (sum >= prod) ? sum : prod;
+                }
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            for (int i = C.col_idx[colC]; i < C.col_idx[colC + 1]; i++) {
+                C.nz_values[i] = x[C.nz_rows[i]];
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void elementMult_MAX_SECOND( DMatrixSparseCSC A, DMatrixSparseCSC B, int col0, int col1,
+                                DMatrixSparseCSC C, @Nullable Mask mask, double[] x, int[] w ) {
+        int maxMaskEntries = mask == null ? Integer.MAX_VALUE : mask.maxMaskedEntries();
+
+        for (int col = col0; col < col1; col++) {
+            int idxA0 = A.col_idx[col];
+            int idxA1 = A.col_idx[col + 1];
+            int idxB0 = B.col_idx[col];
+            int idxB1 = B.col_idx[col + 1];
+
+            // make sure there are enough non-zero elements in C
+            int expectedResultSize = C.nz_length + Math.min(idxA1 - idxA0, idxB1 - idxB0);
+            if (expectedResultSize > C.nz_values.length) {
+                C.growMaxLength(Math.min(maxMaskEntries, expectedResultSize), true);
+            }
+
+            C.col_idx[col - col0] = C.nz_length;
+
+            if (mask != null) {
+                mask.setIndexColumn(col);
+            }
+
+            // mark the rows that appear in A and save their value
+            for (int i = idxA0; i < idxA1; i++) {
+                int row = A.nz_rows[i];
+                w[row] = col;
+                x[row] = A.nz_values[i];
+            }
+
+            // If a row appears in A and B, multiply and set as an element in C
+            for (int i = idxB0; i < idxB1; i++) {
+                int row = B.nz_rows[i];
+                if (w[row] != col || (mask != null && !mask.isSet(row, col)))
+                    continue;
+
+                double valA = x[row];
+                double valB = B.nz_values[i];
+                C.nz_values[C.nz_length] = valB;
+                C.nz_rows[C.nz_length++] = row;
+            }
+        }
+        C.col_idx[col1 - col0] = C.nz_length;
+    }
+
+    public static void multAdd_MAX_SECOND( DMatrixSparseCSC A, double[] b, int offsetB,
+                                double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valB;
+                double sum = c[indexC];
+                c[indexC] = (sum >= prod) ? sum : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_SECOND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask != null && !mask.isSet(k))
+                continue;
+
+            int idx0 = B.col_idx[k];
+            int idx1 = B.col_idx[k + 1];
+
+            double sum = -Double.MAX_VALUE;
+            for (int indexB = idx0; indexB < idx1; indexB++) {
+                double valA = a[offsetA + B.nz_rows[indexB]];
+                double valB = B.nz_values[indexB];
+                double prod = valB;
+                sum = (sum >= prod) ? sum : prod;
+            }
+            c[offsetC + k] = sum;
+        }
+    }
+
+    public static void multAdd_MAX_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(k,j)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexB = k*B.numCols;
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                int end = indexB + B.numCols;
+
+                while (indexB < end) {
+                    double valB = B.data[indexB++];
+                    double prod = valB;
+                    double sum = C.data[indexC];
+                    C.data[indexC++] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multTransA_MAX_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean add ) {
+        // C(i,j) = sum_k A(k,i) * B(k,j)
+        for (int j = 0; j < B.numCols; j++) {
+            for (int i = 0; i < A.numCols; i++) {
+                int idx0 = A.col_idx[i];
+                int idx1 = A.col_idx[i + 1];
+
+                double sum = -Double.MAX_VALUE;
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    double valA = A.nz_values[indexA];
+                    double valB = B.data[A.nz_rows[indexA]*B.numCols + j];
+                    double prod = valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+
+                int indexC = i*C.numCols + j;
+                if (add) {
+                    double valC = C.data[indexC];
+                    C.data[indexC] = (valC >= sum) ? valC : sum;
+                } else {
+                    C.data[indexC] = sum;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransB_MAX_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(i,k) * B(j,k)
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int indexC = A.nz_rows[indexA]*C.numCols;
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAddTransAB_MAX_SECOND( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,j) = sum_k A(k,i) * B(j,k)
+        for (int i = 0; i < A.numCols; i++) {
+            int idx0 = A.col_idx[i];
+            int idx1 = A.col_idx[i + 1];
+            int indexC = i*C.numCols;
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                double valA = A.nz_values[indexA];
+                int k = A.nz_rows[indexA];
+                for (int j = 0; j < B.numRows; j++) {
+                    double valB = B.data[j*B.numCols + k];
+                    double prod = valB;
+                    double sum = C.data[indexC + j];
+                    C.data[indexC + j] = (sum >= prod) ? sum : prod;
+                }
+            }
+        }
+    }
+
+    public static void push_MAX_SECOND( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double valP = P.nz_values[j];
+                double prod = vectorLeft ? (valP) : (value);
+
+                if (exists) {
+                    double sum = c_values[loc];
+                    c_values[loc] = (sum >= prod) ? sum : prod;
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = prod;
+                }
+            }
+        }
+        c.nz_length = c_length;
+    }
+
+    public static void pull_MAX_SECOND( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                                @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double valV = v_values[loc];
+                double valQ = Q.nz_values[j];
+                double prod = vectorLeft ? (valQ) : (valV);
+                if (found) {
+                    sum = (sum >= prod) ? sum : prod;
+                } else {
+                    sum = prod;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+        c.nz_length = c_length;
+    }
+}
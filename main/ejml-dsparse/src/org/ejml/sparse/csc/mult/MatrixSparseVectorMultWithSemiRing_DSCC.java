@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DOperatorBinary;
+import org.ejml.ops.DSemiRing;
+import org.jetbrains.annotations.Nullable;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Multiplication between a sparse matrix and a sparse vector using a semiring, i.e. SpMSpV. This is the
+ * core operation of GraphBLAS style graph traversals, e.g. a BFS where the vector is the current frontier.
+ * Two strategies are provided:
+ * </p>
+ * <ul>
+ *     <li><b>push</b>: Each non-zero in the vector scatters the column of the matrix it selects into the output.
+ *     Work is proportional to the number of edges leaving the non-zeros in the vector.</li>
+ *     <li><b>pull</b>: Each output element is computed as the dot product between a column of the matrix and the
+ *     vector. Work is proportional to the number of non-zeros in the (unmasked) columns, but output elements
+ *     which are excluded by the mask are skipped entirely.</li>
+ * </ul>
+ *
+ * <p>
+ * The direction optimizing functions take in the matrix and its transpose and pick between push and pull
+ * based on an estimate of how many matrix elements each approach would touch.
+ * </p>
+ *
+ * <p>
+ * Built in semirings are computed using the kernels in {@link ImplSemiRingKernels_DSCC}.
+ * </p>
+ *
+ * <p>
+ * Masks are evaluated as a vector, i.e. {@link Mask#isSet(int)}. Elements in the output which are not
+ * selected by the mask are not computed and will not be in the output. Only elements which receive at least one
+ * product are stored in the output.
+ * </p>
+ *
+ * <p>
+ * The workspace is used as a sparse set. An element is only considered valid if it points back at itself
+ * in the sparse vector, which means that it never needs to be cleared, see [1].
+ * </p>
+ *
+ * <p>[1] Briggs, Preston, and Linda Torczon. "An efficient representation for sparse sets."
+ * ACM Letters on Programming Languages and Systems 2 (1993)</p>
+ */
+public class MatrixSparseVectorMultWithSemiRing_DSCC {
+    /**
+     * Push is selected if the number of elements it touches times this ratio is less than what pull would
+     * touch. Push has to randomly write into the output, so it's a bit more expensive per element.
+     */
+    public static double PUSH_PULL_RATIO = 2.0;
+
+    /**
+     * c = A*b. Computed by pushing the columns of A selected by b.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param b (Input) Vector. Not modified.
+     * @param c (Output) Vector. Indices will not be sorted.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which elements in 'c' should be computed
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     */
+    public static void mult( DMatrixSparseCSC A, DVectorSparse b, DVectorSparse c,
+                             DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        push(A, b, false, c, A.numRows, semiRing, mask, gw);
+    }
+
+    /**
+     * c = a*B. Computed by pulling each column of B and taking the dot product with a.
+     *
+     * @param a (Input) Vector. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param c (Output) Vector. Indices will be sorted.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which elements in 'c' should be computed
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     */
+    public static void mult( DVectorSparse a, DMatrixSparseCSC B, DVectorSparse c,
+                             DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        pull(B, a, true, c, semiRing, mask, gw);
+    }
+
+    /**
+     * c = A*b. Selects between push using A and pull using A<sup>T</sup>.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param AT (Input) Transpose of A. Not modified.
+     * @param b (Input) Vector. Not modified.
+     * @param c (Output) Vector.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which elements in 'c' should be computed
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     * @return true if push was selected or false if it was pull
+     */
+    public static boolean mult( DMatrixSparseCSC A, DMatrixSparseCSC AT, DVectorSparse b, DVectorSparse c,
+                                DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (selectPush(A, AT, b, mask)) {
+            push(A, b, false, c, A.numRows, semiRing, mask, gw);
+            return true;
+        } else {
+            pull(AT, b, false, c, semiRing, mask, gw);
+            return false;
+        }
+    }
+
+    /**
+     * c = a*B. Selects between push using B<sup>T</sup> and pull using B.
+     *
+     * @param a (Input) Vector. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param BT (Input) Transpose of B. Not modified.
+     * @param c (Output) Vector.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which elements in 'c' should be computed
+     * @param gw (Optional) Storage for internal workspace. Can be null.
+     * @return true if push was selected or false if it was pull
+     */
+    public static boolean mult( DVectorSparse a, DMatrixSparseCSC B, DMatrixSparseCSC BT, DVectorSparse c,
+                                DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (selectPush(BT, B, a, mask)) {
+            push(BT, a, true, c, B.numCols, semiRing, mask, gw);
+            return true;
+        } else {
+            pull(B, a, true, c, semiRing, mask, gw);
+            return false;
+        }
+    }
+
+    /**
+     * Decides if push or pull should be used.
+     *
+     * @param P Matrix whose columns are scattered with push
+     * @param Q Matrix whose columns are dotted with pull
+     * @param v the vector
+     */
+    static boolean selectPush( DMatrixSparseCSC P, DMatrixSparseCSC Q, DVectorSparse v, @Nullable Mask mask ) {
+        long pushCost = 0;
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            pushCost += P.col_idx[col + 1] - P.col_idx[col];
+        }
+
+        double pullCost = Q.nz_length;
+        if (mask != null && Q.numCols > 0) {
+            // the mask lets pull skip entire columns
+            pullCost *= Math.min(1.0, mask.maxMaskedEntries()/(double)Q.numCols);
+        }
+
+        return pushCost*PUSH_PULL_RATIO <= pullCost;
+    }
+
+    /**
+     * Scatters the columns in P selected by v into c
+     *
+     * @param vectorLeft if true then products are computed as v*P otherwise P*v
+     */
+    static void push( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c, int length,
+                      DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (v.size != P.numCols)
+            throw new IllegalArgumentException("Vector length doesn't match the matrix. " + v.size + " " + P.numCols);
+        if (v == c)
+            throw new IllegalArgumentException("The input vector and output vector can't be the same instance");
+
+        // Upper bound on the number of elements which are written to
+        int maxLength = 0;
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            maxLength += P.col_idx[col + 1] - P.col_idx[col];
+        }
+        c.reshape(length, Math.min(length, maxLength));
+
+        // w[row] = location of 'row' in c. Only valid if c points back at row
+        int[] w = adjust(gw, length);
+        if (!ImplSemiRingKernels_DSCC.push(P, v, vectorLeft, c, semiRing, mask, w))
+            pushGeneric(P, v, vectorLeft, c, semiRing, mask, w);
+
+        // Push traverses in the order of the input vector, so the output will rarely be sorted
+        c.indicesSorted = c.nz_length <= 1;
+    }
+
+    /**
+     * Computes the dot product between each column in Q and v, i.e. c[j] = dot(Q(:,j),v)
+     *
+     * @param vectorLeft if true then products are computed as v*Q otherwise Q*v
+     */
+    static void pull( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                      DSemiRing semiRing, @Nullable Mask mask, @Nullable IGrowArray gw ) {
+        if (v.size != Q.numRows)
+            throw new IllegalArgumentException("Vector length doesn't match the matrix. " + v.size + " " + Q.numRows);
+        if (v == c)
+            throw new IllegalArgumentException("The input vector and output vector can't be the same instance");
+
+        c.reshape(Q.numCols, Math.min(Q.numCols, Q.nz_length));
+
+        // w[row] = location of 'row' in v. Only valid if v points back at row
+        int[] w = adjust(gw, v.size);
+        for (int i = 0; i < v.nz_length; i++) {
+            w[v.nz_indices[i]] = i;
+        }
+
+        if (!ImplSemiRingKernels_DSCC.pull(Q, v, vectorLeft, c, semiRing, mask, w))
+            pullGeneric(Q, v, vectorLeft, c, semiRing, mask, w);
+
+        c.indicesSorted = true;
+    }
+
+    /**
+     * Implementation of {@link #push} for semirings which don't have a specialized kernel
+     */
+    static void pushGeneric( DMatrixSparseCSC P, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                             DSemiRing semiRing, @Nullable Mask mask, int[] w ) {
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        DOperatorBinary add = semiRing.add.func;
+        DOperatorBinary mult = semiRing.mult.func;
+
+        for (int i = 0; i < v.nz_length; i++) {
+            int col = v.nz_indices[i];
+            double value = v.nz_values[i];
+
+            int idx0 = P.col_idx[col];
+            int idx1 = P.col_idx[col + 1];
+
+            for (int j = idx0; j < idx1; j++) {
+                int row = P.nz_rows[j];
+                int loc = w[row];
+                boolean exists = loc >= 0 && loc < c_length && c_indices[loc] == row;
+
+                if (!exists && mask != null && !mask.isSet(row))
+                    continue;
+
+                double product = vectorLeft ? mult.apply(value, P.nz_values[j]) : mult.apply(P.nz_values[j], value);
+
+                if (exists) {
+                    c_values[loc] = add.apply(c_values[loc], product);
+                } else {
+                    w[row] = c_length;
+                    c_indices[c_length] = row;
+                    c_values[c_length++] = product;
+                }
+            }
+        }
+
+        c.nz_length = c_length;
+    }
+
+    /**
+     * Implementation of {@link #pull} for semirings which don't have a specialized kernel
+     */
+    static void pullGeneric( DMatrixSparseCSC Q, DVectorSparse v, boolean vectorLeft, DVectorSparse c,
+                             DSemiRing semiRing, @Nullable Mask mask, int[] w ) {
+        int[] v_indices = v.nz_indices;
+        double[] v_values = v.nz_values;
+        int v_length = v.nz_length;
+        int[] c_indices = c.nz_indices;
+        double[] c_values = c.nz_values;
+        int c_length = 0;
+
+        DOperatorBinary add = semiRing.add.func;
+        DOperatorBinary mult = semiRing.mult.func;
+
+        for (int col = 0; col < Q.numCols; col++) {
+            if (mask != null && !mask.isSet(col))
+                continue;
+
+            int idx0 = Q.col_idx[col];
+            int idx1 = Q.col_idx[col + 1];
+
+            boolean found = false;
+            double sum = 0;
+            for (int j = idx0; j < idx1; j++) {
+                int row = Q.nz_rows[j];
+                int loc = w[row];
+                if (loc < 0 || loc >= v_length || v_indices[loc] != row)
+                    continue;
+
+                double product = vectorLeft ? mult.apply(v_values[loc], Q.nz_values[j]) : mult.apply(Q.nz_values[j], v_values[loc]);
+                if (found) {
+                    sum = add.apply(sum, product);
+                } else {
+                    sum = product;
+                    found = true;
+                }
+            }
+
+            if (found) {
+                c_indices[c_length] = col;
+                c_values[c_length++] = sum;
+            }
+        }
+
+        c.nz_length = c_length;
+    }
+}
@@ -73,14 +73,16 @@ public class MatrixVectorMultWithSemiRing_DSCC {
         // could also just fill where mask.isSet()
         Arrays.fill(c, semiRing.add.id);
 
-        for (int k = 0; k < A.numCols; k++) {
-            int idx0 = A.col_idx[k];
-            int idx1 = A.col_idx[k + 1];
-
-            for (int indexA = idx0; indexA < idx1; indexA++) {
-                c[offsetC + A.nz_rows[indexA]] = semiRing.add.func.apply(
-                        c[offsetC + A.nz_rows[indexA]],
-                        semiRing.mult.func.apply(A.nz_values[indexA], b[offsetB + k]));
+        if (!ImplSemiRingKernels_DSCC.multAdd(A, b, offsetB, c, offsetC, semiRing)) {
+            for (int k = 0; k < A.numCols; k++) {
+                int idx0 = A.col_idx[k];
+                int idx1 = A.col_idx[k + 1];
+
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    c[offsetC + A.nz_rows[indexA]] = semiRing.add.func.apply(
+                            c[offsetC + A.nz_rows[indexA]],
+                            semiRing.mult.func.apply(A.nz_values[indexA], b[offsetB + k]));
+                }
             }
         }
 
@@ -122,6 +124,9 @@ public class MatrixVectorMultWithSemiRing_DSCC {
         if (c.length - offsetC < B.numCols)
             throw new IllegalArgumentException("Length of 'c' isn't long enough");
 
+        if (ImplSemiRingKernels_DSCC.mult(a, offsetA, B, c, offsetC, semiRing, mask))
+            return;
+
         for (int k = 0; k < B.numCols; k++) {
             if (mask == null || mask.isSet(k)) {
                 int idx0 = B.col_idx[k];
@@ -31,4 +31,6 @@ public class Workspace_MT_DSCC {
     public final IGrowArray gw = new IGrowArray();
     public final DGrowArray gx = new DGrowArray();
     public final DMatrixSparseCSC mat = new DMatrixSparseCSC(1, 1);
+    /** Storage for the state of a mask used by this thread, see Mask.concurrentCopy() */
+    public final IGrowArray gmask = new IGrowArray();
 }
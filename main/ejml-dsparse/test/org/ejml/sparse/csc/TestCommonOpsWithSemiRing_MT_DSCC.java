@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.BMatrixBits;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.DMaskFactory;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestCommonOpsWithSemiRing_MT_DSCC extends EjmlStandardJUnit {
+    GrowArray<Workspace_MT_DSCC> listWork = new GrowArray<>(Workspace_MT_DSCC::new);
+    DSemiRing[] semiRings = {DSemiRings.PLUS_TIMES, DSemiRings.MIN_PLUS, DSemiRings.OR_AND};
+
+    // Force the problem to be split into multiple blocks even if there's only one processor
+    @BeforeEach void setThreads() {EjmlConcurrency.setMaxThreads(4);}
+
+    @AfterEach void resetThreads() {EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());}
+
+    @Test void mult() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 35, 200, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(35, 50, 250, rand);
+
+        for (DSemiRing semiRing : semiRings) {
+            for (Mask mask : createMasks(40, 50)) {
+                DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.mult(A, B, null, semiRing, mask, null, null);
+                DMatrixSparseCSC found = CommonOpsWithSemiRing_MT_DSCC.mult(A, B, null, semiRing, mask, listWork);
+
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+                assertTrue(MatrixFeatures_DSCC.isEqualsSort(expected, found, UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    @Test void add() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 50, 300, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(40, 50, 300, rand);
+
+        for (DSemiRing semiRing : semiRings) {
+            for (Mask mask : createMasks(40, 50)) {
+                DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.add(1.5, A, 0.5, B, null, semiRing, mask, null, null);
+                DMatrixSparseCSC found = CommonOpsWithSemiRing_MT_DSCC.add(1.5, A, 0.5, B, null, semiRing, mask, listWork);
+
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+                assertTrue(MatrixFeatures_DSCC.isEqualsSort(expected, found, UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    @Test void elementMult() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 50, 800, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(40, 50, 800, rand);
+
+        for (DSemiRing semiRing : semiRings) {
+            for (Mask mask : createMasks(40, 50)) {
+                DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.elementMult(A, B, null, semiRing, mask, null, null);
+                DMatrixSparseCSC found = CommonOpsWithSemiRing_MT_DSCC.elementMult(A, B, null, semiRing, mask, listWork);
+
+                assertTrue(CommonOps_DSCC.checkStructure(found));
+                assertTrue(MatrixFeatures_DSCC.isEqualsSort(expected, found, UtilEjml.TEST_F64));
+            }
+        }
+    }
+
+    @Test void shapes() {
+        var A = new DMatrixSparseCSC(4, 5);
+        var B = new DMatrixSparseCSC(4, 5);
+        assertThrows(MatrixDimensionException.class, () ->
+                CommonOpsWithSemiRing_MT_DSCC.mult(A, B, null, DSemiRings.PLUS_TIMES));
+        assertThrows(MatrixDimensionException.class, () ->
+                CommonOpsWithSemiRing_MT_DSCC.add(1, A, 1, new DMatrixSparseCSC(5, 5), null, DSemiRings.PLUS_TIMES, null, null));
+        assertThrows(MatrixDimensionException.class, () ->
+                CommonOpsWithSemiRing_MT_DSCC.elementMult(A, new DMatrixSparseCSC(4, 4), null, DSemiRings.PLUS_TIMES, null, null));
+    }
+
+    /**
+     * Creates every type of mask, including ones with internal state which must be copied for each thread
+     */
+    private List<Mask> createMasks( int rows, int cols ) {
+        DMatrixSparseCSC sparse = RandomMatrices_DSCC.rectangle(rows, cols, rows*cols/3, rand);
+        DMatrixRMaj dense = DConvertMatrixStruct.convert(sparse, (DMatrixRMaj)null);
+        var bits = new BMatrixBits(rows, cols);
+        for (int i = 0; i < bits.getNumElements(); i++) {
+            bits.set(i, dense.data[i] != 0);
+        }
+
+        List<Mask> masks = new ArrayList<>();
+        masks.add(null);
+        for (boolean negated : new boolean[]{false, true}) {
+            masks.add(DMaskFactory.builder(sparse, true).withNegated(negated).build());
+            masks.add(DMaskFactory.builder(sparse, false).withNegated(negated).build());
+            masks.add(DMaskFactory.builder(dense).withNegated(negated).build());
+            masks.add(DMaskFactory.builder(bits).withNegated(negated).build());
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestRandomMatrices_MT_DSCC extends EjmlStandardJUnit {
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test void rectangle() {
+        // sparse, dense, and more elements than can fit
+        for (int nz_total : new int[]{0, 13, 3000, 49_000, 60_000}) {
+            DMatrixSparseCSC A = RandomMatrices_MT_DSCC.rectangle(70, 700, nz_total, -1, 2, nz_total);
+
+            assertEquals(70, A.numRows);
+            assertEquals(700, A.numCols);
+            assertEquals(Math.min(nz_total, 70*700), A.nz_length);
+            assertTrue(CommonOps_DSCC.checkStructure(A));
+            checkValues(A, -1, 2);
+        }
+
+        checkThreadIndependent(() -> RandomMatrices_MT_DSCC.rectangle(50, 2000, 30_000, 5));
+    }
+
+    @Test void banded() {
+        for (int[] shape : new int[][]{{10, 10}, {20, 7}, {7, 20}, {0, 5}}) {
+            int numRows = shape[0], numCols = shape[1];
+            DMatrixSparseCSC A = RandomMatrices_MT_DSCC.banded(numRows, numCols, 2, 1, 1, 2, 3);
+
+            assertTrue(CommonOps_DSCC.checkStructure(A));
+            checkValues(A, 1, 2);
+
+            int count = 0;
+            for (int row = 0; row < numRows; row++) {
+                for (int col = 0; col < numCols; col++) {
+                    boolean inside = row - col <= 2 && col - row <= 1;
+                    assertEquals(inside, A.isAssigned(row, col));
+                    if (inside)
+                        count++;
+                }
+            }
+            assertEquals(count, A.nz_length);
+        }
+
+        checkThreadIndependent(() -> RandomMatrices_MT_DSCC.banded(1000, 1000, 3, 5, -1, 1, 2));
+    }
+
+    @Test void powerLaw() {
+        DMatrixSparseCSC A = RandomMatrices_MT_DSCC.powerLaw(200, 3000, 2, 2.0, -1, 1, 7);
+
+        assertTrue(CommonOps_DSCC.checkStructure(A));
+        checkValues(A, -1, 1);
+
+        // Every column has at least the minimum degree and a heavy tail should create a few dense columns
+        int largest = 0;
+        for (int col = 0; col < A.numCols; col++) {
+            int degree = A.col_idx[col + 1] - A.col_idx[col];
+            assertTrue(degree >= 2);
+            largest = Math.max(largest, degree);
+        }
+        assertTrue(largest > 100);
+
+        checkThreadIndependent(() -> RandomMatrices_MT_DSCC.powerLaw(500, 2000, 1, 2.5, -1, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> RandomMatrices_MT_DSCC.powerLaw(5, 5, 1, 1.0, -1, 1, 2));
+    }
+
+    @Test void blocks() {
+        int blockLength = 4;
+        DMatrixSparseCSC A = RandomMatrices_MT_DSCC.blocks(30, 22, blockLength, 0.4, 1, 2, 7);
+
+        assertTrue(CommonOps_DSCC.checkStructure(A));
+        checkValues(A, 1, 2);
+        assertTrue(A.nz_length > 0);
+        assertTrue(A.nz_length < 30*22);
+
+        // All the elements inside a block should be either zero or non-zero
+        for (int row = 0; row < A.numRows; row++) {
+            for (int col = 0; col < A.numCols; col++) {
+                int row0 = row - row%blockLength;
+                int col0 = col - col%blockLength;
+                assertEquals(A.isAssigned(row0, col0), A.isAssigned(row, col));
+            }
+        }
+
+        assertEquals(0, RandomMatrices_MT_DSCC.blocks(30, 22, blockLength, 0.0, 1, 2, 7).nz_length);
+        assertEquals(30*22, RandomMatrices_MT_DSCC.blocks(30, 22, blockLength, 1.0, 1, 2, 7).nz_length);
+
+        checkThreadIndependent(() -> RandomMatrices_MT_DSCC.blocks(500, 900, 3, 0.1, -1, 1, 2));
+    }
+
+    @Test void selectRows() {
+        var rand = new SplittableRandom(3);
+        int numRows = 20;
+        int[] marks = new int[numRows];
+        int[] rows = new int[numRows + 2];
+
+        for (int count = 0; count <= numRows; count++) {
+            RandomMatrices_MT_DSCC.selectRows(numRows, count, rows, 2, marks, rand);
+
+            for (int i = 1; i < count; i++) {
+                assertTrue(rows[2 + i - 1] < rows[2 + i]);
+            }
+            for (int i = 0; i < numRows; i++) {
+                assertEquals(0, marks[i]);
+            }
+        }
+    }
+
+    private static void checkValues( DMatrixSparseCSC A, double min, double max ) {
+        for (int i = 0; i < A.nz_length; i++) {
+            assertTrue(A.nz_values[i] >= min && A.nz_values[i] <= max);
+        }
+    }
+
+    /**
+     * The output should only depend on the seed and not the number of threads
+     */
+    private static void checkThreadIndependent( Supplier<DMatrixSparseCSC> generator ) {
+        DMatrixSparseCSC expected = generator.get();
+        EjmlConcurrency.setMaxThreads(1);
+        assertTrue(CommonOps_DSCC.checkStructure(expected));
+        assertTrue(MatrixFeatures_DSCC.isEquals(expected, generator.get()));
+        EjmlConcurrency.setMaxThreads(3);
+        assertTrue(MatrixFeatures_DSCC.isEquals(expected, generator.get()));
+    }
+}
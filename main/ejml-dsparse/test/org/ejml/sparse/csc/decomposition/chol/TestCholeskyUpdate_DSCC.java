@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCholeskyUpdate_DSCC extends EjmlStandardJUnit {
+    /**
+     * Compares against decomposing A + C*C' from scratch. This will often change the structure of L
+     */
+    @Test
+    public void update() {
+        for (int N : new int[]{1, 5, 40}) {
+            for (int k : new int[]{1, 4}) {
+                DMatrixSparseCSC A = createSparsePosDef(N);
+                DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(N, k, Math.max(1, N*k/10), -1, 1, rand);
+
+                CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+                assertTrue(alg.decompose(A));
+                alg.update(C);
+
+                DMatrixSparseCSC A_plus = plusOuter(A, C);
+                CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+                assertTrue(expected.decompose(A_plus));
+
+                assertEqualsDense(expected.getL(), alg.getL());
+                // the structure should be the same as a symbolic decomposition of A + C*C'
+                assertEquals(expected.getL().nz_length, alg.getL().nz_length);
+                for (int i = 0; i < N; i++) {
+                    assertEquals(expected.parent[i], alg.parent[i]);
+                }
+                assertTrue(CommonOps_DSCC.checkStructure(alg.getL()));
+                assertTrue(CommonOps_DSCC.checkIndicesSorted(alg.getL()));
+            }
+        }
+    }
+
+    @Test
+    public void downdate() {
+        for (int N : new int[]{1, 5, 40}) {
+            for (int k : new int[]{1, 4}) {
+                DMatrixSparseCSC B = createSparsePosDef(N);
+                DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(N, k, Math.max(1, N*k/10), -1, 1, rand);
+
+                CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+                assertTrue(alg.decompose(plusOuter(B, C)));
+                assertTrue(alg.downdate(C));
+
+                CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+                assertTrue(expected.decompose(B));
+
+                assertEqualsDense(expected.getL(), alg.getL());
+            }
+        }
+    }
+
+    /**
+     * A failed downdate should leave the numerical values of L unchanged
+     */
+    @Test
+    public void downdate_fail() {
+        int N = 20;
+        DMatrixSparseCSC A = createSparsePosDef(N);
+        CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+        DMatrixRMaj L_orig = DConvertMatrixStruct.convert(alg.getL(), (DMatrixRMaj)null);
+
+        // the first column can be removed but the second can't. Connects rows which might not have been connected
+        DMatrixSparseTriplet triplet = new DMatrixSparseTriplet(N, 2, 4);
+        triplet.addItem(3, 0, 0.01);
+        triplet.addItem(17, 0, 0.01);
+        triplet.addItem(5, 1, 100.0);
+        triplet.addItem(12, 1, 1.0);
+        DMatrixSparseCSC C = DConvertMatrixStruct.convert(triplet, (DMatrixSparseCSC)null);
+
+        assertFalse(alg.downdate(C));
+        EjmlUnitTests.assertEquals(L_orig, DConvertMatrixStruct.convert(alg.getL(), (DMatrixRMaj)null), 0);
+
+        // the decomposition should still be usable
+        alg.update(C);
+        CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+        assertTrue(expected.decompose(plusOuter(A, C)));
+        assertEqualsDense(expected.getL(), alg.getL());
+    }
+
+    /**
+     * Hand constructed case where the path and elimination tree are known. A tridiagonal matrix has a chain for
+     * an elimination tree and L has a single element below the diagonal in each column.
+     */
+    @Test
+    public void updateStructure_chain() {
+        int N = 10;
+        DMatrixSparseTriplet triplet = new DMatrixSparseTriplet(N, N, 3*N);
+        for (int i = 0; i < N; i++) {
+            triplet.addItem(i, i, 4.0);
+            // split into two independent blocks
+            if (i + 1 < N && i != 4) {
+                triplet.addItem(i, i + 1, 1.0);
+                triplet.addItem(i + 1, i, 1.0);
+            }
+        }
+        DMatrixSparseCSC A = DConvertMatrixStruct.convert(triplet, (DMatrixSparseCSC)null);
+
+        CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+        assertEquals(-1, alg.parent[4]);
+        int nz_before = alg.getL().nz_length;
+
+        // connects rows 2 and 7
+        DMatrixSparseCSC C = new DMatrixSparseCSC(N, 1, 2);
+        C.set(2, 0, 0.5);
+        C.set(7, 0, 0.5);
+
+        CholeskyUpdate_DSCC updater = new CholeskyUpdate_DSCC();
+        assertTrue(updater.updateStructure(alg.getL(), alg.parent, C));
+
+        // columns 2, 3, and 4 gain row 7. Column 4 is now attached to the second block
+        assertEquals(nz_before + 3, alg.getL().nz_length);
+        assertEquals(7, alg.parent[4]);
+        assertEquals(3, alg.parent[2]);
+        assertEquals(8, alg.parent[7]);
+        DMatrixSparseCSC L = alg.getL();
+        assertEquals(2, L.col_idx[5] - L.col_idx[4]);
+        assertEquals(0.0, L.get(7, 3));
+
+        // nothing should change the second time
+        assertFalse(updater.updateStructure(alg.getL(), alg.parent, C));
+    }
+
+    @Test
+    public void checkShape() {
+        CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(createSparsePosDef(5)));
+        assertThrows(MatrixDimensionException.class, () -> alg.update(new DMatrixSparseCSC(4, 1, 0)));
+    }
+
+    private void assertEqualsDense( DMatrixSparseCSC expected, DMatrixSparseCSC found ) {
+        DMatrixRMaj e = DConvertMatrixStruct.convert(expected, (DMatrixRMaj)null);
+        DMatrixRMaj f = DConvertMatrixStruct.convert(found, (DMatrixRMaj)null);
+        EjmlUnitTests.assertEquals(e, f, UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Creates a sparse positive definite matrix with a structure that isn't just a dense block
+     */
+    private DMatrixSparseCSC createSparsePosDef( int N ) {
+        DMatrixSparseCSC R = RandomMatrices_DSCC.rectangle(N, N, Math.max(1, N/2), -1, 1, rand);
+        DMatrixSparseCSC A = CommonOps_DSCC.mult(R, CommonOps_DSCC.transpose(R, null, null), null);
+        return CommonOps_DSCC.add(1.0, A, 1.0, CommonOps_DSCC.identity(N), null, null, null);
+    }
+
+    static DMatrixSparseCSC plusOuter( DMatrixSparseCSC A, DMatrixSparseCSC C ) {
+        DMatrixSparseCSC CC = CommonOps_DSCC.mult(C, CommonOps_DSCC.transpose(C, null, null), null);
+        return CommonOps_DSCC.add(1.0, A, 1.0, CC, null, null, null);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public abstract class GenericSymmetricEigenTests_DSCC extends EjmlStandardJUnit {
+
+    public abstract SymmetricEigenBase_DSCC create( int numEigen, boolean largest );
+
+    /**
+     * Compare against the dense solution for random symmetric matrices
+     */
+    @Test
+    void compareToDense() {
+        for (boolean largest : new boolean[]{false, true}) {
+            for (int N : new int[]{5, 30, 80}) {
+                int numEigen = Math.min(N, 4);
+                DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N, N*3, -1, 1, rand);
+                // make sure the eigenvalues are distinct and well separated
+                for (int i = 0; i < N; i++) {
+                    A.set(i, i, A.get(i, i) + i);
+                }
+                checkSolution(A, numEigen, largest);
+            }
+        }
+    }
+
+    /**
+     * Laplacian of a path graph has known eigenvalues 2 - 2*cos(pi*k/N)
+     */
+    @Test
+    void pathLaplacian() {
+        int N = 200;
+        DMatrixSparseCSC L = pathLaplacian(N);
+
+        SymmetricEigenBase_DSCC alg = create(3, true);
+        assertTrue(alg.decompose(L));
+
+        for (int i = 0; i < 3; i++) {
+            double expected = 2.0 - 2.0*Math.cos(Math.PI*(N - 1 - i)/N);
+            assertEquals(expected, alg.getEigenvalue(i).real, UtilEjml.TEST_F64);
+            checkEigenVector(L, alg, i);
+        }
+    }
+
+    /**
+     * Request every eigenvalue in the matrix
+     */
+    @Test
+    void allEigenvalues() {
+        int N = 6;
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N, 12, -1, 1, rand);
+        for (int i = 0; i < N; i++) {
+            A.set(i, i, A.get(i, i) + 2*i);
+        }
+        checkSolution(A, N, false);
+    }
+
+    @Test
+    void eigenVectorSparse() {
+        DMatrixSparseCSC A = pathLaplacian(20);
+        SymmetricEigenBase_DSCC alg = create(2, false);
+        assertTrue(alg.decompose(A));
+
+        DMatrixRMaj dense = alg.getEigenVectorDense(1, null);
+        DMatrixSparseCSC sparse = alg.getEigenVector(1);
+        assertEquals(20, sparse.numRows);
+        assertEquals(1, sparse.numCols);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(dense.get(i, 0), sparse.get(i, 0), 0.0);
+        }
+    }
+
+    /**
+     * The initial vectors are random. Calling decompose again should produce identical results
+     */
+    @Test
+    void repeatable() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(300, 1500, -1, 1, rand);
+        SymmetricEigenBase_DSCC alg = create(3, true);
+        alg.setMaxIterations(1);
+
+        alg.decompose(A);
+        double[] expected = new double[3];
+        for (int i = 0; i < 3; i++) {
+            expected[i] = alg.getEigenvalue(i).real;
+        }
+        DMatrixRMaj expectedVector = alg.getEigenVectorDense(0, null);
+
+        alg.decompose(A);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected[i], alg.getEigenvalue(i).real, 0.0);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expectedVector, alg.getEigenVectorDense(0, null), 0.0));
+    }
+
+    private void checkSolution( DMatrixSparseCSC A, int numEigen, boolean largest ) {
+        int N = A.numRows;
+        DMatrixRMaj D = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+        var dense = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+        assertTrue(dense.decompose(D));
+        double[] expected = new double[N];
+        for (int i = 0; i < N; i++) {
+            expected[i] = dense.getEigenvalue(i).real;
+        }
+        Arrays.sort(expected);
+
+        SymmetricEigenBase_DSCC alg = create(numEigen, largest);
+        assertTrue(alg.decompose(A));
+        assertEquals(numEigen, alg.getNumberOfEigenvalues());
+
+        for (int i = 0; i < numEigen; i++) {
+            double e = largest ? expected[N - 1 - i] : expected[i];
+            assertEquals(e, alg.getEigenvalue(i).real, UtilEjml.TEST_F64*N);
+            assertEquals(0.0, alg.getEigenvalue(i).imaginary);
+            checkEigenVector(A, alg, i);
+        }
+    }
+
+    private void checkEigenVector( DMatrixSparseCSC A, SymmetricEigenBase_DSCC alg, int index ) {
+        DMatrixRMaj v = alg.getEigenVectorDense(index, null);
+        assertEquals(1.0, NormOps_DDRM.normF(v), UtilEjml.TEST_F64);
+
+        DMatrixRMaj D = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+        DMatrixRMaj Av = new DMatrixRMaj(v.numRows, 1);
+        CommonOps_DDRM.mult(D, v, Av);
+        CommonOps_DDRM.addEquals(Av, -alg.getEigenvalue(index).real, v);
+        assertEquals(0.0, NormOps_DDRM.normF(Av), UtilEjml.TEST_F64_SQ);
+    }
+
+    public static DMatrixSparseCSC pathLaplacian( int N ) {
+        DMatrixSparseTriplet T = new DMatrixSparseTriplet(N, N, 3*N);
+        for (int i = 0; i < N; i++) {
+            int degree = 0;
+            if (i > 0) {
+                T.addItem(i, i - 1, -1);
+                degree++;
+            }
+            if (i + 1 < N) {
+                T.addItem(i, i + 1, -1);
+                degree++;
+            }
+            T.addItem(i, i, degree);
+        }
+        return DConvertMatrixStruct.convert(T, (DMatrixSparseCSC)null, null);
+    }
+}
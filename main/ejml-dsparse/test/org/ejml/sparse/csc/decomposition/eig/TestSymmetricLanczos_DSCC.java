@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSymmetricLanczos_DSCC extends GenericSymmetricEigenTests_DSCC {
+    @Override
+    public SymmetricEigenBase_DSCC create( int numEigen, boolean largest ) {
+        return new SymmetricLanczos_DSCC(numEigen, largest);
+    }
+
+    /**
+     * Force it to restart several times by using a small subspace
+     */
+    @Test
+    void smallSubspaceRestarts() {
+        DMatrixSparseCSC L = pathLaplacian(100);
+        var alg = new SymmetricLanczos_DSCC(2, false);
+        alg.setSubspaceSize(6);
+        assertTrue(alg.decompose(L));
+        assertTrue(alg.getIterations() > 1);
+    }
+
+    /**
+     * If it fails to converge the returned eigenpairs should still be the Ritz pairs from the last iteration
+     */
+    @Test
+    void notConverged_bestEstimate() {
+        DMatrixSparseCSC L = pathLaplacian(200);
+        DMatrixRMaj D = DConvertMatrixStruct.convert(L, (DMatrixRMaj)null);
+        var alg = new SymmetricLanczos_DSCC(2, false);
+        alg.setSubspaceSize(6);
+        alg.setMaxIterations(3);
+        assertFalse(alg.decompose(L));
+        assertEquals(3, alg.getIterations());
+
+        double largestResidual = 0;
+        for (int i = 0; i < 2; i++) {
+            DMatrixRMaj v = alg.getEigenVectorDense(i, null);
+            assertEquals(1.0, NormOps_DDRM.normF(v), UtilEjml.TEST_F64);
+
+            DMatrixRMaj Av = new DMatrixRMaj(v.numRows, 1);
+            CommonOps_DDRM.mult(D, v, Av);
+            CommonOps_DDRM.addEquals(Av, -alg.getEigenvalue(i).real, v);
+            double residual = alg.getResidual(i);
+            assertEquals(residual, NormOps_DDRM.normF(Av), UtilEjml.TEST_F64);
+            largestResidual = Math.max(largestResidual, residual);
+        }
+        // the Laplacian has a 1-norm of 4
+        assertTrue(largestResidual > alg.getTolerance()*4.0);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSymmetricLobpcg_DSCC extends GenericSymmetricEigenTests_DSCC {
+    @Override
+    public SymmetricEigenBase_DSCC create( int numEigen, boolean largest ) {
+        return new SymmetricLobpcg_DSCC(numEigen, largest);
+    }
+
+    /**
+     * Results should be the same with a Jacobi preconditioner
+     */
+    @Test
+    void jacobiPreconditioner() {
+        DMatrixSparseCSC L = pathLaplacian(50);
+        for (int i = 0; i < 50; i++) {
+            L.set(i, i, L.get(i, i) + 0.1*i);
+        }
+
+        var expected = new SymmetricLobpcg_DSCC(3, false);
+        assertTrue(expected.decompose(L));
+
+        var alg = new SymmetricLobpcg_DSCC(3, false, SymmetricLobpcg_DSCC.jacobi(L));
+        assertTrue(alg.decompose(L));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.getEigenvalue(i).real, alg.getEigenvalue(i).real, UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -18,16 +18,23 @@
 
 package org.ejml.sparse.csc.linsol.chol;
 
+import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
 import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -56,4 +63,33 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
         // this was messing up tests
         return RandomMatrices_DSCC.symmetricPosDef(N, 0.25, rand);
     }
+
+    /**
+     * Solves after update and downdate. The rows in C need to have the fill reduction permutation applied
+     */
+    @Test
+    public void updateDowndate() {
+        for (FillReducing permutation : new FillReducing[]{FillReducing.NONE, FillReducing.RANDOM}) {
+            int N = 30;
+            DMatrixSparseCSC A = createA(N);
+            DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(N, 3, 8, -1, 1, rand);
+            DMatrixSparseCSC CC = CommonOps_DSCC.mult(C, CommonOps_DSCC.transpose(C, null, null), null);
+            DMatrixSparseCSC A_plus = CommonOps_DSCC.add(1.0, A, 1.0, CC, null, null, null);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, 2, rand);
+            DMatrixRMaj X = new DMatrixRMaj(N, 2);
+
+            var solver = (LinearSolverCholesky_DSCC)createSolver(permutation);
+            assertTrue(solver.setA(A));
+            solver.update(C);
+            solver.solve(B, X);
+            EjmlUnitTests.assertEquals(B, CommonOps_DSCC.mult(A_plus, X, null), UtilEjml.TEST_F64);
+
+            assertTrue(solver.downdate(C));
+            solver.solve(B, X);
+            EjmlUnitTests.assertEquals(B, CommonOps_DSCC.mult(A, X, null), UtilEjml.TEST_F64);
+
+            CommonOps_DSCC.scale(100.0, C, C);
+            assertFalse(solver.downdate(C));
+        }
+    }
 }
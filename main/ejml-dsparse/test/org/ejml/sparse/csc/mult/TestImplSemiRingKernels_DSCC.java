@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.masks.DMaskFactory;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the specialized kernels against the generic implementation, which is forced by making a copy of
+ * the semiring so that it's no longer recognized.
+ */
+public class TestImplSemiRingKernels_DSCC extends EjmlStandardJUnit {
+
+    @Test
+    void allSemiRingsHaveKernels() throws IllegalAccessException {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(5, 4, 8, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(4, 3, 6, rand);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(5, 3);
+        DMatrixRMaj D = new DMatrixRMaj(5, 3);
+        double[] x = new double[5];
+        int[] w = new int[5];
+        for (DSemiRing semiRing : builtIn()) {
+            C.nz_length = 0;
+            assertTrue(ImplSemiRingKernels_DSCC.multColumns(A, B, 0, 3, C, semiRing, null, x, w));
+            assertTrue(ImplSemiRingKernels_DSCC.multAdd(A, new double[4], 0, new double[5], 0, semiRing));
+            assertTrue(ImplSemiRingKernels_DSCC.multAdd(A, new DMatrixRMaj(4, 3), D, semiRing));
+            assertTrue(ImplSemiRingKernels_DSCC.push(A, new DVectorSparse(4), false, new DVectorSparse(5), semiRing, null, w));
+            assertTrue(ImplSemiRingKernels_DSCC.pull(A, new DVectorSparse(5), true, new DVectorSparse(4), semiRing, null, w));
+        }
+        assertFalse(ImplSemiRingKernels_DSCC.multColumns(A, B, 0, 3, C, copy(DSemiRings.PLUS_TIMES), null, x, w));
+    }
+
+    @Test
+    void mult_sparse() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            for (boolean masked : new boolean[]{false, true}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(15, 12, 40, -1, 1, rand);
+                Mask mask = null;
+                if (masked) {
+                    DMatrixSparseCSC M = RandomMatrices_DSCC.rectangle(20, 12, 80, rand);
+                    mask = DMaskFactory.builder(M, true).build();
+                }
+
+                DMatrixSparseCSC expected = new DMatrixSparseCSC(20, 12);
+                DMatrixSparseCSC found = new DMatrixSparseCSC(20, 12);
+                ImplMultiplicationWithSemiRing_DSCC.mult(A, B, expected, copy(semiRing), mask, null, null);
+                ImplMultiplicationWithSemiRing_DSCC.mult(A, B, found, semiRing, mask, null, null);
+
+                expected.sortIndices(null);
+                found.sortIndices(null);
+                EjmlUnitTests.assertEquals(expected, found, 0.0);
+            }
+        }
+    }
+
+    @Test
+    void add_sparse() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            for (boolean masked : new boolean[]{false, true}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                Mask mask = masked ? DMaskFactory.builder(RandomMatrices_DSCC.rectangle(20, 15, 80, rand), true).build() : null;
+
+                DMatrixSparseCSC expected = new DMatrixSparseCSC(20, 15);
+                DMatrixSparseCSC found = new DMatrixSparseCSC(20, 15);
+                ImplCommonOpsWithSemiRing_DSCC.add(1.5, A, -0.5, B, expected, copy(semiRing), mask, null, null);
+                ImplCommonOpsWithSemiRing_DSCC.add(1.5, A, -0.5, B, found, semiRing, mask, null, null);
+
+                expected.sortIndices(null);
+                found.sortIndices(null);
+                EjmlUnitTests.assertEquals(expected, found, 0.0);
+            }
+        }
+    }
+
+    @Test
+    void elementMult_sparse() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            for (boolean masked : new boolean[]{false, true}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 120, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20, 15, 120, -1, 1, rand);
+                Mask mask = masked ? DMaskFactory.builder(RandomMatrices_DSCC.rectangle(20, 15, 80, rand), true).build() : null;
+
+                DMatrixSparseCSC expected = new DMatrixSparseCSC(20, 15);
+                DMatrixSparseCSC found = new DMatrixSparseCSC(20, 15);
+                ImplCommonOpsWithSemiRing_DSCC.elementMult(A, B, expected, copy(semiRing), mask, null, null);
+                ImplCommonOpsWithSemiRing_DSCC.elementMult(A, B, found, semiRing, mask, null, null);
+
+                expected.sortIndices(null);
+                found.sortIndices(null);
+                EjmlUnitTests.assertEquals(expected, found, 0.0);
+            }
+        }
+    }
+
+    @Test
+    void mult_dense() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(12, 10, 40, -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(10, 7, -1, 1, rand);
+            DMatrixRMaj BT = RandomMatrices_DDRM.rectangle(7, 10, -1, 1, rand);
+            DMatrixRMaj A_B = RandomMatrices_DDRM.rectangle(12, 7, -1, 1, rand);
+            DMatrixRMaj B2 = RandomMatrices_DDRM.rectangle(12, 7, -1, 1, rand);
+            DMatrixRMaj BT2 = RandomMatrices_DDRM.rectangle(7, 12, -1, 1, rand);
+            DMatrixRMaj AT_B = RandomMatrices_DDRM.rectangle(10, 7, -1, 1, rand);
+
+            checkDense(A_B, C -> ImplMultiplicationWithSemiRing_DSCC.multAdd(A, B, C, copy(semiRing)),
+                    C -> ImplMultiplicationWithSemiRing_DSCC.multAdd(A, B, C, semiRing));
+            checkDense(AT_B, C -> ImplMultiplicationWithSemiRing_DSCC.multTransA(A, B2, C, copy(semiRing)),
+                    C -> ImplMultiplicationWithSemiRing_DSCC.multTransA(A, B2, C, semiRing));
+            checkDense(AT_B, C -> ImplMultiplicationWithSemiRing_DSCC.multAddTransA(A, B2, C, copy(semiRing)),
+                    C -> ImplMultiplicationWithSemiRing_DSCC.multAddTransA(A, B2, C, semiRing));
+            checkDense(A_B, C -> ImplMultiplicationWithSemiRing_DSCC.multAddTransB(A, BT, C, copy(semiRing)),
+                    C -> ImplMultiplicationWithSemiRing_DSCC.multAddTransB(A, BT, C, semiRing));
+            checkDense(AT_B, C -> ImplMultiplicationWithSemiRing_DSCC.multAddTransAB(A, BT2, C, copy(semiRing)),
+                    C -> ImplMultiplicationWithSemiRing_DSCC.multAddTransAB(A, BT2, C, semiRing));
+        }
+    }
+
+    /**
+     * Applies the generic and specialized operation to copies of C and compares the results
+     */
+    private static void checkDense( DMatrixRMaj C, Consumer<DMatrixRMaj> generic, Consumer<DMatrixRMaj> specialized ) {
+        DMatrixRMaj expected = C.copy();
+        DMatrixRMaj found = C.copy();
+        generic.accept(expected);
+        specialized.accept(found);
+        EjmlUnitTests.assertEquals(expected, found, 0.0);
+    }
+
+    @Test
+    void multAdd_vector() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+            double[] b = randomVector(15 + 2);
+
+            double[] expected = new double[20 + 3];
+            double[] found = new double[20 + 3];
+            MatrixVectorMultWithSemiRing_DSCC.multAdd(A, b, 2, expected, 3, copy(semiRing), null);
+            MatrixVectorMultWithSemiRing_DSCC.multAdd(A, b, 2, found, 3, semiRing, null);
+            assertArrayEquals(expected, found, 0.0);
+        }
+    }
+
+    @Test
+    void mult_vector_matrix() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            for (boolean masked : new boolean[]{false, true}) {
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(15, 20, 60, -1, 1, rand);
+                double[] a = randomVector(15 + 1);
+                Mask mask = masked ? DMaskFactory.builder(randomVector(20)).build() : null;
+
+                double[] expected = new double[20 + 2];
+                double[] found = new double[20 + 2];
+                MatrixVectorMultWithSemiRing_DSCC.mult(a, 1, B, expected, 2, copy(semiRing), mask);
+                MatrixVectorMultWithSemiRing_DSCC.mult(a, 1, B, found, 2, semiRing, mask);
+                assertArrayEquals(expected, found, 0.0);
+            }
+        }
+    }
+
+    @Test
+    void mult_sparseVector() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtIn()) {
+            for (boolean masked : new boolean[]{false, true}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 20, 80, -1, 1, rand);
+                var v = new DVectorSparse(20);
+                double[] values = randomVector(20);
+                for (int i = 0; i < 20; i += 2) {
+                    v.set(rand.nextInt(20), values[i]);
+                }
+                Mask mask = masked ? DMaskFactory.builder(randomVector(20)).build() : null;
+
+                for (boolean vectorLeft : new boolean[]{false, true}) {
+                    var expected = new DVectorSparse(1);
+                    var found = new DVectorSparse(1);
+                    MatrixSparseVectorMultWithSemiRing_DSCC.push(A, v, vectorLeft, expected, 20, copy(semiRing), mask, null);
+                    MatrixSparseVectorMultWithSemiRing_DSCC.push(A, v, vectorLeft, found, 20, semiRing, mask, null);
+                    checkEquals(expected, found);
+
+                    MatrixSparseVectorMultWithSemiRing_DSCC.pull(A, v, vectorLeft, expected, copy(semiRing), mask, null);
+                    MatrixSparseVectorMultWithSemiRing_DSCC.pull(A, v, vectorLeft, found, semiRing, mask, null);
+                    checkEquals(expected, found);
+                }
+            }
+        }
+    }
+
+    /**
+     * The generic and specialized versions traverse in the same order so the elements must be identical
+     */
+    private static void checkEquals( DVectorSparse expected, DVectorSparse found ) {
+        assertEquals(expected.nz_length, found.nz_length);
+        assertArrayEquals(Arrays.copyOf(expected.nz_indices, expected.nz_length), Arrays.copyOf(found.nz_indices, found.nz_length));
+        assertArrayEquals(Arrays.copyOf(expected.nz_values, expected.nz_length), Arrays.copyOf(found.nz_values, found.nz_length), 0.0);
+    }
+
+    private double[] randomVector( int length ) {
+        double[] v = new double[length];
+        for (int i = 0; i < length; i++) {
+            // include zeros so that the boolean semirings are tested
+            v[i] = rand.nextInt(3) == 0 ? 0.0 : rand.nextDouble()*2.0 - 1.0;
+        }
+        return v;
+    }
+
+    private static DSemiRing copy( DSemiRing semiRing ) {
+        return new DSemiRing(semiRing.add, semiRing.mult);
+    }
+
+    private static List<DSemiRing> builtIn() throws IllegalAccessException {
+        List<DSemiRing> list = new ArrayList<>();
+        for (Field f : DSemiRings.class.getFields()) {
+            if (Modifier.isStatic(f.getModifiers()) && f.getType() == DSemiRing.class)
+                list.add((DSemiRing)f.get(null));
+        }
+        assertEquals(16, list.size(), Arrays.toString(DSemiRings.class.getFields()));
+        return list;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.DMaskFactory;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.CommonOpsWithSemiRing_DSCC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMatrixSparseVectorMultWithSemiRing_DSCC extends EjmlStandardJUnit {
+    DSemiRing[] semiRings = {DSemiRings.PLUS_TIMES, DSemiRings.MIN_PLUS, DSemiRings.MAX_TIMES, DSemiRings.OR_AND};
+
+    @Test
+    void mult_A_b() {
+        for (DSemiRing semiRing : semiRings) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 40, rand);
+                DVectorSparse b = randomVector(15, 1 + trial);
+
+                var found = new DVectorSparse(1);
+                MatrixSparseVectorMultWithSemiRing_DSCC.mult(A, b, found, semiRing, null, null);
+                checkEquals(multReference(A, b, false, semiRing, null), found);
+            }
+        }
+    }
+
+    @Test
+    void mult_a_B() {
+        for (DSemiRing semiRing : semiRings) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(15, 20, 40, rand);
+                DVectorSparse a = randomVector(15, 1 + trial);
+
+                var found = new DVectorSparse(1);
+                MatrixSparseVectorMultWithSemiRing_DSCC.mult(a, B, found, semiRing, null, null);
+                assertTrue(found.indicesSorted);
+                checkEquals(multReference(B, a, true, semiRing, null), found);
+            }
+        }
+    }
+
+    /**
+     * Push and pull must produce the same output, with and without a mask
+     */
+    @Test
+    void pushPullEquivalent() {
+        var gw = new IGrowArray();
+        for (DSemiRing semiRing : semiRings) {
+            DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(25, 25, 100, rand);
+            DMatrixSparseCSC BT = CommonOps_DSCC.transpose(B, null, null);
+            DVectorSparse a = randomVector(25, 6);
+
+            for (Mask mask : new Mask[]{null, randomMask(25, false), randomMask(25, true)}) {
+                var push = new DVectorSparse(1);
+                var pull = new DVectorSparse(1);
+                MatrixSparseVectorMultWithSemiRing_DSCC.push(BT, a, true, push, 25, semiRing, mask, gw);
+                MatrixSparseVectorMultWithSemiRing_DSCC.pull(B, a, true, pull, semiRing, mask, gw);
+
+                DVectorSparse expected = multReference(B, a, true, semiRing, mask);
+                checkEquals(expected, push);
+                checkEquals(expected, pull);
+
+                MatrixSparseVectorMultWithSemiRing_DSCC.push(B, a, false, push, 25, semiRing, mask, gw);
+                MatrixSparseVectorMultWithSemiRing_DSCC.pull(BT, a, false, pull, semiRing, mask, gw);
+
+                expected = multReference(B, a, false, semiRing, mask);
+                checkEquals(expected, push);
+                checkEquals(expected, pull);
+            }
+        }
+    }
+
+    /**
+     * Workspace is shared between calls and isn't cleared. Make sure stale values don't leak into results
+     */
+    @Test
+    void workspaceReused() {
+        var gw = new IGrowArray();
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(30, 30, 120, rand);
+        var found = new DVectorSparse(1);
+        for (int trial = 0; trial < 20; trial++) {
+            DVectorSparse b = randomVector(30, 1 + trial%7);
+            MatrixSparseVectorMultWithSemiRing_DSCC.mult(A, b, found, DSemiRings.PLUS_TIMES, null, gw);
+            checkEquals(multReference(A, b, false, DSemiRings.PLUS_TIMES, null), found);
+        }
+    }
+
+    @Test
+    void directionOptimizing() {
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(100, 100, 800, rand);
+        DMatrixSparseCSC BT = CommonOps_DSCC.transpose(B, null, null);
+
+        // small frontier should push
+        DVectorSparse a = randomVector(100, 1);
+        var found = new DVectorSparse(1);
+        assertTrue(MatrixSparseVectorMultWithSemiRing_DSCC.mult(a, B, BT, found, DSemiRings.PLUS_TIMES, null, null));
+        checkEquals(multReference(B, a, true, DSemiRings.PLUS_TIMES, null), found);
+        assertTrue(MatrixSparseVectorMultWithSemiRing_DSCC.mult(BT, B, a, found, DSemiRings.PLUS_TIMES, null, null));
+        checkEquals(multReference(B, a, true, DSemiRings.PLUS_TIMES, null), found);
+
+        // large frontier should pull
+        a = randomVector(100, 90);
+        assertFalse(MatrixSparseVectorMultWithSemiRing_DSCC.mult(a, B, BT, found, DSemiRings.PLUS_TIMES, null, null));
+        checkEquals(multReference(B, a, true, DSemiRings.PLUS_TIMES, null), found);
+        assertFalse(MatrixSparseVectorMultWithSemiRing_DSCC.mult(BT, B, a, found, DSemiRings.PLUS_TIMES, null, null));
+        checkEquals(multReference(B, a, true, DSemiRings.PLUS_TIMES, null), found);
+    }
+
+    @Test
+    void directionOptimizing_A_b() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(60, 50, 400, rand);
+        DMatrixSparseCSC AT = CommonOps_DSCC.transpose(A, null, null);
+
+        for (int nz : new int[]{1, 45}) {
+            DVectorSparse b = randomVector(50, nz);
+            for (Mask mask : new Mask[]{null, randomMask(60, false)}) {
+                DVectorSparse found = CommonOpsWithSemiRing_DSCC.mult(A, AT, b, null, DSemiRings.MIN_PLUS, mask, null);
+                checkEquals(multReference(A, b, false, DSemiRings.MIN_PLUS, mask), found);
+            }
+        }
+
+        assertThrows(MatrixDimensionException.class, () ->
+                CommonOpsWithSemiRing_DSCC.mult(A, A, randomVector(50, 2), null, DSemiRings.PLUS_TIMES, null, null));
+    }
+
+    /**
+     * Breadth first search where the complement of the visited set is used as a mask
+     */
+    @Test
+    void breadthFirstSearch() {
+        // path graph 0 -> 1 -> 2 -> ... -> N-1
+        int N = 10;
+        var A = new DMatrixSparseCSC(N, N);
+        for (int i = 0; i < N - 1; i++) {
+            A.set(i, i + 1, 1);
+        }
+        DMatrixSparseCSC AT = CommonOps_DSCC.transpose(A, null, null);
+
+        double[] visited = new double[N];
+        var frontier = new DVectorSparse(N);
+        frontier.set(0, 1);
+        visited[0] = 1;
+
+        int depth = 0;
+        while (frontier.nz_length > 0) {
+            Mask mask = DMaskFactory.builder(visited).withNegated(true).build();
+            frontier = CommonOpsWithSemiRing_DSCC.mult(frontier, A, AT, null, DSemiRings.OR_AND, mask, null);
+            for (int i = 0; i < frontier.nz_length; i++) {
+                assertEquals(0, visited[frontier.nz_indices[i]]);
+                visited[frontier.nz_indices[i]] = 1;
+            }
+            depth++;
+        }
+
+        assertEquals(N, depth);
+        for (int i = 0; i < N; i++) {
+            assertEquals(1, visited[i]);
+        }
+    }
+
+    @Test
+    void checkShape() {
+        var A = new DMatrixSparseCSC(5, 4);
+        assertThrows(MatrixDimensionException.class, () ->
+                CommonOpsWithSemiRing_DSCC.mult(A, new DVectorSparse(5), null, DSemiRings.PLUS_TIMES, null, null));
+        assertThrows(MatrixDimensionException.class, () ->
+                CommonOpsWithSemiRing_DSCC.mult(new DVectorSparse(4), A, null, DSemiRings.PLUS_TIMES, null, null));
+
+        var b = new DVectorSparse(4);
+        assertThrows(IllegalArgumentException.class, () ->
+                MatrixSparseVectorMultWithSemiRing_DSCC.mult(A, b, b, DSemiRings.PLUS_TIMES, null, null));
+    }
+
+    private DVectorSparse randomVector( int size, int nz ) {
+        var v = new DVectorSparse(size);
+        while (v.nz_length < nz) {
+            v.set(rand.nextInt(size), rand.nextDouble() + 0.1);
+        }
+        return v;
+    }
+
+    private Mask randomMask( int size, boolean negated ) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = rand.nextBoolean() ? 1 : 0;
+        }
+        return DMaskFactory.builder(values).withNegated(negated).build();
+    }
+
+    /**
+     * Brute force implementation. Only elements which have at least one product are in the output.
+     */
+    private DVectorSparse multReference( DMatrixSparseCSC M, DVectorSparse v, boolean vectorLeft,
+                                         DSemiRing semiRing, @Nullable Mask mask ) {
+        int length = vectorLeft ? M.numCols : M.numRows;
+        var out = new DVectorSparse(length);
+        for (int i = 0; i < length; i++) {
+            if (mask != null && !mask.isSet(i))
+                continue;
+            boolean found = false;
+            double sum = semiRing.add.id;
+            for (int k = 0; k < v.size; k++) {
+                if (!v.isAssigned(k))
+                    continue;
+                int row = vectorLeft ? k : i;
+                int col = vectorLeft ? i : k;
+                if (!M.isAssigned(row, col))
+                    continue;
+                double product = vectorLeft ?
+                        semiRing.mult.func.apply(v.get(k), M.get(row, col)) :
+                        semiRing.mult.func.apply(M.get(row, col), v.get(k));
+                sum = semiRing.add.func.apply(sum, product);
+                found = true;
+            }
+            if (found)
+                out.append(i, sum);
+        }
+        return out;
+    }
+
+    private void checkEquals( DVectorSparse expected, DVectorSparse found ) {
+        assertEquals(expected.size, found.size);
+        assertEquals(expected.nz_length, found.nz_length);
+        for (int i = 0; i < expected.nz_length; i++) {
+            int index = expected.nz_indices[i];
+            assertTrue(found.isAssigned(index));
+            assertEquals(expected.nz_values[i], found.get(index), UtilEjml.TEST_F64);
+        }
+    }
+}
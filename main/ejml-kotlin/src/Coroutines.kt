@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.kotlin
+
+import org.ejml.data.Matrix
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+import kotlin.coroutines.suspendCoroutine
+
+// Runs expensive operations from a coroutine without blocking it. The work is handed to an Executor and the coroutine is resumed
+// once it finishes, so the caller's thread is free in the meantime. Only the standard library is used, if you are
+// working with kotlinx.coroutines pass in Dispatchers.Default.asExecutor() or similar. Once started the work can't
+// be cancelled.
+
+/** Matrices with fewer elements than this are processed in the caller's thread instead of being offloaded */
+var offloadMinElements = 100*100
+
+/** Executor which is used when one isn't specified */
+var offloadExecutor : Executor = ForkJoinPool.commonPool()
+
+/**
+ * Runs the block using the executor and suspends until it has finished. Exceptions are passed back to the caller.
+ */
+suspend fun <T> offload(executor : Executor = offloadExecutor, block : () -> T) : T =
+    suspendCoroutine { continuation ->
+        executor.execute {
+            val result = try {
+                block()
+            } catch (e : Throwable) {
+                continuation.resumeWithException(e)
+                return@execute
+            }
+            continuation.resume(result)
+        }
+    }
+
+internal suspend fun <T> offloadLarge(m : Matrix, executor : Executor, block : () -> T) : T =
+    if (m.numRows.toLong()*m.numCols < offloadMinElements) block() else offload(executor, block)
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.kotlin
+
+import org.ejml.data.DMatrixRMaj
+import org.ejml.data.DMatrixSparseCSC
+import java.util.concurrent.Executor
+
+// Suspending versions of the expensive operations, see offload()
+
+suspend fun DMatrixRMaj.svdAsync(compact : Boolean = false, executor : Executor = offloadExecutor)
+        : Triple<DMatrixRMaj,DMatrixRMaj,DMatrixRMaj> = offloadLarge(this, executor) { svd(compact) }
+
+suspend fun DMatrixRMaj.solveAsync(B : DMatrixRMaj, executor : Executor = offloadExecutor) : DMatrixRMaj =
+    offloadLarge(this, executor) { solve(B) }
+
+suspend fun DMatrixRMaj.solveSPDAsync(B : DMatrixRMaj, executor : Executor = offloadExecutor) : DMatrixRMaj =
+    offloadLarge(this, executor) { solveSPD(B) }
+
+suspend fun DMatrixRMaj.invertAsync(executor : Executor = offloadExecutor) : DMatrixRMaj =
+    offloadLarge(this, executor) { invert() }
+
+suspend fun DMatrixRMaj.timesAsync(a : DMatrixRMaj, executor : Executor = offloadExecutor) : DMatrixRMaj =
+    offloadLarge(this, executor) { this * a }
+
+suspend fun DMatrixSparseCSC.solveAsync(B : DMatrixSparseCSC, executor : Executor = offloadExecutor) : DMatrixSparseCSC =
+    offloadLarge(this, executor) { solve(B) }
+
+suspend fun DMatrixSparseCSC.solveAsync(B : DMatrixRMaj, executor : Executor = offloadExecutor) : DMatrixRMaj =
+    offloadLarge(this, executor) { solve(B) }
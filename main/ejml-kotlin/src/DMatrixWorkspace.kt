@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.kotlin
+
+import org.ejml.data.DGrowArray
+import org.ejml.data.DMatrixRMaj
+import org.ejml.data.DMatrixSparseCSC
+import org.ejml.data.IGrowArray
+import org.ejml.dense.row.CommonOps_DDRM
+import org.ejml.sparse.csc.CommonOps_DSCC
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC
+import pabeles.concurrency.GrowArray
+
+/**
+ * Recycles the matrices which store the results of operators. When a workspace is the receiver, the operators
+ * declared here take precedence over the ones which allocate a new matrix each time they are called. Large
+ * operations switch to the concurrent implementation, the same as the regular operators.
+ *
+ * ```
+ * val workspace = DMatrixWorkspace()
+ * for (step in 0 until N) {
+ *     workspace.scope {
+ *         state.setTo(F * state * F.transpose() + Q)
+ *     }
+ * }
+ * ```
+ *
+ * A result is only valid until the scope which created it exits or [reset] is called. Copy it into a matrix you
+ * own if it needs to live longer. Not thread safe, create one workspace for each thread or coroutine.
+ */
+class DMatrixWorkspace {
+    private val dense = ArrayList<DMatrixRMaj>()
+    private val sparse = ArrayList<DMatrixSparseCSC>()
+
+    @PublishedApi internal var usedDense = 0
+    @PublishedApi internal var usedSparse = 0
+
+    // Internal workspace for the sparse operations
+    private val gw = IGrowArray()
+    private val gx = DGrowArray()
+    private val workMT = GrowArray<Workspace_MT_DSCC> { Workspace_MT_DSCC() }
+    private val workArrays = GrowArray<DGrowArray> { DGrowArray() }
+
+    /** Returns a dense matrix owned by the workspace with the specified shape. Contents are not defined. */
+    fun dense(numRows : Int, numCols : Int) : DMatrixRMaj {
+        if (usedDense == dense.size)
+            dense.add(DMatrixRMaj(numRows, numCols))
+        val m = dense[usedDense++]
+        m.reshape(numRows, numCols)
+        return m
+    }
+
+    /** Returns a sparse matrix owned by the workspace with the specified shape and no non-zero elements. */
+    fun sparse(numRows : Int, numCols : Int) : DMatrixSparseCSC {
+        if (usedSparse == sparse.size)
+            sparse.add(DMatrixSparseCSC(numRows, numCols))
+        val m = sparse[usedSparse++]
+        m.reshape(numRows, numCols)
+        return m
+    }
+
+    /** Makes every matrix owned by the workspace available again. Previously returned results are invalidated. */
+    fun reset() {
+        usedDense = 0
+        usedSparse = 0
+    }
+
+    /** Number of matrices which are currently in use */
+    val borrowed : Int get() = usedDense + usedSparse
+
+    /** Number of matrices the workspace has allocated */
+    val allocated : Int get() = dense.size + sparse.size
+
+    /**
+     * Invokes the block with this workspace as its receiver. Matrices requested inside of the block are
+     * made available again once it returns. Scopes can be nested.
+     */
+    inline fun <R> scope(block : DMatrixWorkspace.() -> R) : R {
+        val markDense = usedDense
+        val markSparse = usedSparse
+        try {
+            return block()
+        } finally {
+            usedDense = markDense
+            usedSparse = markSparse
+        }
+    }
+
+    //----------------------- DDRM ------------------------------------------------------
+
+    operator fun DMatrixRMaj.times(a : DMatrixRMaj) : DMatrixRMaj {
+        val out = dense(numRows, a.numCols)
+        multDDRM(this, a, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.times(a : Double) : DMatrixRMaj {
+        val out = dense(numRows, numCols)
+        CommonOps_DDRM.scale(a, this, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.plus(a : DMatrixRMaj) : DMatrixRMaj {
+        val out = dense(numRows, numCols)
+        CommonOps_DDRM.add(this, a, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.plus(a : Double) : DMatrixRMaj {
+        val out = dense(numRows, numCols)
+        CommonOps_DDRM.add(this, a, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.minus(a : DMatrixRMaj) : DMatrixRMaj {
+        val out = dense(numRows, numCols)
+        CommonOps_DDRM.subtract(this, a, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.minus(a : Double) : DMatrixRMaj {
+        val out = dense(numRows, numCols)
+        CommonOps_DDRM.subtract(this, a, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.unaryMinus() : DMatrixRMaj {
+        val out = dense(numRows, numCols)
+        CommonOps_DDRM.changeSign(this, out)
+        return out
+    }
+
+    operator fun DMatrixRMaj.rem(a : DMatrixRMaj) : DMatrixRMaj = solve(a)
+
+    fun DMatrixRMaj.transpose() : DMatrixRMaj {
+        val out = dense(numCols, numRows)
+        transposeDDRM(this, out)
+        return out
+    }
+
+    fun DMatrixRMaj.solve(B : DMatrixRMaj) : DMatrixRMaj {
+        val X = dense(numCols, B.numCols)
+        if( !CommonOps_DDRM.solve(this,B,X) ) {
+            throw RuntimeException("Failed to solve")
+        }
+        return X
+    }
+
+    //----------------------- DSCC ------------------------------------------------------
+
+    operator fun DMatrixSparseCSC.times(a : DMatrixSparseCSC) : DMatrixSparseCSC {
+        val out = sparse(numRows, a.numCols)
+        multDSCC(this, a, out, workMT, gw, gx)
+        return out
+    }
+
+    operator fun DMatrixSparseCSC.times(a : DMatrixRMaj) : DMatrixRMaj {
+        val out = dense(numRows, a.numCols)
+        multDSCC(this, a, out, workArrays)
+        return out
+    }
+
+    operator fun DMatrixSparseCSC.plus(a : DMatrixSparseCSC) : DMatrixSparseCSC {
+        val out = sparse(numRows, numCols)
+        addDSCC(1.0, this, 1.0, a, out, workMT, gw, gx)
+        return out
+    }
+
+    operator fun DMatrixSparseCSC.minus(a : DMatrixSparseCSC) : DMatrixSparseCSC {
+        val out = sparse(numRows, numCols)
+        addDSCC(1.0, this, -1.0, a, out, workMT, gw, gx)
+        return out
+    }
+
+    fun DMatrixSparseCSC.transpose() : DMatrixSparseCSC {
+        val out = sparse(numCols, numRows)
+        CommonOps_DSCC.transpose(this, out, gw)
+        return out
+    }
+}
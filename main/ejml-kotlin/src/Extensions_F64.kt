@@ -18,21 +18,70 @@
 
 package org.ejml.kotlin
 
+import org.ejml.concurrency.ConcurrentOperation
+import org.ejml.concurrency.EjmlConcurrency
+import org.ejml.data.DGrowArray
 import org.ejml.data.DMatrixRMaj
 import org.ejml.data.DMatrixSparseCSC
+import org.ejml.data.IGrowArray
 import org.ejml.dense.row.CommonOps_DDRM
+import org.ejml.dense.row.CommonOps_MT_DDRM
 import org.ejml.dense.row.NormOps_DDRM
 import org.ejml.dense.row.factory.DecompositionFactory_DDRM
 import org.ejml.ops.DConvertMatrixStruct
 import org.ejml.ops.MatrixIO
 import org.ejml.sparse.csc.CommonOps_DSCC
+import org.ejml.sparse.csc.CommonOps_MT_DSCC
 import org.ejml.sparse.csc.NormOps_DSCC
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC
+import pabeles.concurrency.GrowArray
+
+//----------------------- Dispatch --------------------------------------------------
+// Selects between the single and multi-threaded implementations based on the size of the input. Shared by the
+// operators below, which allocate their output, and the ones in DMatrixWorkspace, which recycle it.
+
+internal fun multDDRM(a : DMatrixRMaj, b : DMatrixRMaj, out : DMatrixRMaj) {
+    if (EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_MULT, a))
+        CommonOps_MT_DDRM.mult(a, b, out)
+    else
+        CommonOps_DDRM.mult(a, b, out)
+}
+
+internal fun transposeDDRM(a : DMatrixRMaj, out : DMatrixRMaj) {
+    if (EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_TRANSPOSE, a))
+        CommonOps_MT_DDRM.transpose(a, out)
+    else
+        CommonOps_DDRM.transpose(a, out)
+}
+
+internal fun multDSCC(a : DMatrixSparseCSC, b : DMatrixSparseCSC, out : DMatrixSparseCSC,
+                      workMT : GrowArray<Workspace_MT_DSCC>?, gw : IGrowArray?, gx : DGrowArray?) {
+    if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT, a))
+        CommonOps_MT_DSCC.mult(a, b, out, workMT)
+    else
+        CommonOps_DSCC.mult(a, b, out, gw, gx)
+}
+
+internal fun multDSCC(a : DMatrixSparseCSC, b : DMatrixRMaj, out : DMatrixRMaj, workArrays : GrowArray<DGrowArray>?) {
+    if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT_DENSE, a))
+        CommonOps_MT_DSCC.mult(a, b, out, workArrays)
+    else
+        CommonOps_DSCC.mult(a, b, out)
+}
+
+internal fun addDSCC(alpha : Double, a : DMatrixSparseCSC, beta : Double, b : DMatrixSparseCSC, out : DMatrixSparseCSC,
+                     workMT : GrowArray<Workspace_MT_DSCC>?, gw : IGrowArray?, gx : DGrowArray?) {
+    if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_ADD, a))
+        CommonOps_MT_DSCC.add(alpha, a, beta, b, out, workMT)
+    else
+        CommonOps_DSCC.add(alpha, a, beta, b, out, gw, gx)
+}
 
 //----------------------- DDRM ------------------------------------------------------
 
 operator fun DMatrixRMaj.times(a : DMatrixRMaj) : DMatrixRMaj {
-    val out = DMatrixRMaj(1,1);
-    CommonOps_DDRM.mult(this,a, out)
+    val out = DMatrixRMaj(numRows,a.numCols)
+    multDDRM(this,a, out)
     return out
 }
 
@@ -79,7 +128,11 @@ operator fun DMatrixRMaj.rem(a : DMatrixRMaj) : DMatrixRMaj {
     return out
 }
 
-fun DMatrixRMaj.transpose() : DMatrixRMaj = CommonOps_DDRM.transpose(this,DMatrixRMaj(1,1))
+fun DMatrixRMaj.transpose() : DMatrixRMaj {
+    val out = DMatrixRMaj(numCols,numRows)
+    transposeDDRM(this, out)
+    return out
+}
 
 fun DMatrixRMaj.diag() : DMatrixRMaj {
     val output = DMatrixRMaj(1,1)
@@ -104,6 +157,14 @@ fun DMatrixRMaj.solve(B : DMatrixRMaj) : DMatrixRMaj {
     return X
 }
 
+fun DMatrixRMaj.invert() : DMatrixRMaj {
+    val out = DMatrixRMaj(numRows,numCols)
+    if( !CommonOps_DDRM.invert(this,out) ) {
+        throw RuntimeException("Failed to invert")
+    }
+    return out
+}
+
 fun DMatrixRMaj.solveSPD(B : DMatrixRMaj) : DMatrixRMaj {
     val X = DMatrixRMaj(1,1)
     if( !CommonOps_DDRM.solveSPD(this,B,X) ) {
@@ -129,26 +190,26 @@ fun DMatrixRMaj.toDSCC() : DMatrixSparseCSC {
 //----------------------- DSCC ------------------------------------------------------
 
 operator fun DMatrixSparseCSC.times(a : DMatrixSparseCSC) : DMatrixSparseCSC {
-    val out = DMatrixSparseCSC(1,1)
-    CommonOps_DSCC.mult(this,a, out)
+    val out = DMatrixSparseCSC(numRows,a.numCols)
+    multDSCC(this,a, out,null,null,null)
     return out
 }
 
 operator fun DMatrixSparseCSC.times(a : DMatrixRMaj) : DMatrixRMaj {
-    val out = DMatrixRMaj(1,1)
-    CommonOps_DSCC.mult(this,a, out)
+    val out = DMatrixRMaj(numRows,a.numCols)
+    multDSCC(this,a, out,null)
     return out
 }
 
 operator fun DMatrixSparseCSC.plus(a : DMatrixSparseCSC) : DMatrixSparseCSC {
-    val out = DMatrixSparseCSC(1,1)
-    CommonOps_DSCC.add(1.0,this,1.0,a, out,null,null)
+    val out = DMatrixSparseCSC(numRows,numCols)
+    addDSCC(1.0,this,1.0,a, out,null,null,null)
     return out
 }
 
 operator fun DMatrixSparseCSC.minus(a : DMatrixSparseCSC) : DMatrixSparseCSC {
-    val out = DMatrixSparseCSC(1,1)
-    CommonOps_DSCC.add(1.0,this,-1.0,a, out,null,null)
+    val out = DMatrixSparseCSC(numRows,numCols)
+    addDSCC(1.0,this,-1.0,a, out,null,null,null)
     return out
 }
 
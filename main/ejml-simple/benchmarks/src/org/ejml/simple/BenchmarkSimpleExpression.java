@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares eager SimpleMatrix operations against lazily evaluated expressions for common filter and machine
+ * learning expressions.
+ */
+@SuppressWarnings("ALL")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkSimpleExpression {
+    @Param({"6", "100"})
+    public int size;
+
+    // Kalman filter
+    public SimpleMatrix F, P, Q, H, K, x, z;
+    // Dense neural network layer
+    public SimpleMatrix W, b, input, delta;
+
+    public SimpleMatrix output;
+    public SimpleExpression<SimpleMatrix> predictCovariance, updateState, layer, gradientStep;
+
+    @Setup public void setup() {
+        Random rand = new Random(234);
+
+        F = SimpleMatrix.random_DDRM(size, size, -1, 1, rand);
+        P = SimpleMatrix.random_DDRM(size, size, -1, 1, rand);
+        Q = SimpleMatrix.random_DDRM(size, size, -1, 1, rand);
+        H = SimpleMatrix.random_DDRM(size/2, size, -1, 1, rand);
+        K = SimpleMatrix.random_DDRM(size, size/2, -1, 1, rand);
+        x = SimpleMatrix.random_DDRM(size, 1, -1, 1, rand);
+        z = SimpleMatrix.random_DDRM(size/2, 1, -1, 1, rand);
+
+        W = SimpleMatrix.random_DDRM(size, size, -1, 1, rand);
+        b = SimpleMatrix.random_DDRM(size, 1, -1, 1, rand);
+        input = SimpleMatrix.random_DDRM(size, 1, -1, 1, rand);
+        delta = SimpleMatrix.random_DDRM(size, 1, -1, 1, rand);
+
+        output = new SimpleMatrix(size, size);
+
+        // Expressions are built once and evaluated many times
+        predictCovariance = F.lazy().mult(P).mult(F.lazy().transpose()).plus(Q);
+        updateState = x.lazy().plus(K.lazy().mult(z.lazy().minus(H.lazy().mult(x))));
+        layer = W.lazy().mult(input).plus(b).elementOp(v -> 1.0/(1.0 + Math.exp(-v)));
+        gradientStep = W.lazy().minus(delta.lazy().mult(input.lazy().transpose()).scale(0.01));
+    }
+
+    // @formatter:off
+    @Benchmark public SimpleMatrix predictCovariance_eager() {return F.mult(P).mult(F.transpose()).plus(Q);}
+    @Benchmark public SimpleMatrix predictCovariance_lazy() {return F.lazy().mult(P).mult(F.lazy().transpose()).plus(Q).eval();}
+    @Benchmark public SimpleMatrix predictCovariance_reuse() {return predictCovariance.eval(output);}
+    @Benchmark public SimpleMatrix updateState_eager() {return x.plus(K.mult(z.minus(H.mult(x))));}
+    @Benchmark public SimpleMatrix updateState_reuse() {return updateState.eval(output);}
+    @Benchmark public SimpleMatrix layer_eager() {return W.mult(input).plus(b).scale(-1).elementExp().plus(1.0).elementPower(-1.0);}
+    @Benchmark public SimpleMatrix layer_reuse() {return layer.eval(output);}
+    @Benchmark public SimpleMatrix gradientStep_eager() {return W.minus(delta.mult(input.transpose()).scale(0.01));}
+    @Benchmark public SimpleMatrix gradientStep_reuse() {return gradientStep.eval(output);}
+    // @formatter:on
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSimpleExpression.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
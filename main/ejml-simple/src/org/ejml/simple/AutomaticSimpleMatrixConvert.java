@@ -38,6 +38,19 @@ public class AutomaticSimpleMatrixConvert {
         specify(inputs);
     }
 
+    /**
+     * Two input version of {@link #specify(SimpleBase[])} which doesn't need to allocate an array
+     */
+    public void specify( SimpleBase a , SimpleBase b ) {
+        MatrixType ta = a.mat.getType();
+        MatrixType tb = b.mat.getType();
+        boolean dense = ta.isDense() || tb.isDense();
+        boolean real = ta.isReal() && tb.isReal();
+        int bits = ta.getBits() == 64 || tb.getBits() == 64 ? 64 : 32;
+
+        commonType = MatrixType.lookup(dense,real,bits);
+    }
+
     public void specify( SimpleBase ...inputs ) {
         boolean dense=false;
         boolean real=true;
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.FMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_FDRM;
+import org.ejml.dense.row.linsol.LinearSolverAbstract_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.ejml.ops.ConvertMatrixData;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Mixed precision linear solver. The matrix is factored in 32-bit using an FDRM solver, which touches half as much
+ * memory as a 64-bit factorization, and the solution is then refined until it has 64-bit accuracy:
+ * </p>
+ * <pre>
+ * x = solve32(b)
+ * repeat:  r = b - A*x  (64-bit),  x = x + solve32(r)
+ * </pre>
+ *
+ * <p>
+ * Refinement stops once the residual of every column satisfies ||r||<sub>&infin;</sub> &lt;
+ * ||x||<sub>&infin;</sub>*||A||<sub>&infin;</sub>*&epsilon;*sqrt(n), the same test used by LAPACK's DSGESV.
+ * If the 32-bit factorization fails, or the refinement stops making progress because A is too poorly conditioned
+ * for 32-bit, then it falls back on a regular 64-bit solver. Once that has happened the fallback is used for
+ * every solve until {@link #setA} is called again.
+ * </p>
+ *
+ * <p>
+ * A is referenced, not copied, so it must not be modified until you're done solving.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverMixedPrecision_DDRM extends LinearSolverAbstract_DDRM {
+    /** Maximum number of refinement steps before giving up and using the fallback */
+    public int maxIterations = 30;
+
+    /** Refinement is considered to have stalled if the residual doesn't shrink by at least this factor */
+    public double stallRatio = 0.5;
+
+    final LinearSolverDense<FMatrixRMaj> solverF;
+    final LinearSolverDense<DMatrixRMaj> fallback;
+
+    // 32-bit copies of the inputs and outputs
+    final FMatrixRMaj A_F = new FMatrixRMaj(1, 1);
+    final FMatrixRMaj B_F = new FMatrixRMaj(1, 1);
+    final FMatrixRMaj X_F = new FMatrixRMaj(1, 1);
+
+    // workspace for refinement
+    final DMatrixRMaj R = new DMatrixRMaj(1, 1);
+    final DMatrixRMaj D = new DMatrixRMaj(1, 1);
+    final DMatrixRMaj B_copy = new DMatrixRMaj(1, 1);
+    @Nullable DMatrixRMaj A_copy;
+
+    double normA;
+    boolean usingFallback;
+    int iterations;
+
+    /**
+     * @param solverF Solver which factors A in 32-bit
+     * @param fallback Solver which is used when the mixed precision solution doesn't converge
+     */
+    public LinearSolverMixedPrecision_DDRM( LinearSolverDense<FMatrixRMaj> solverF,
+                                            LinearSolverDense<DMatrixRMaj> fallback ) {
+        this.solverF = solverF;
+        this.fallback = fallback;
+    }
+
+    /** Mixed precision solver for square matrices using LU decomposition */
+    public static LinearSolverMixedPrecision_DDRM lu( int numRows ) {
+        return new LinearSolverMixedPrecision_DDRM(
+                LinearSolverFactory_FDRM.lu(numRows), LinearSolverFactory_DDRM.lu(numRows));
+    }
+
+    /** Mixed precision solver for symmetric positive definite matrices using Cholesky decomposition */
+    public static LinearSolverMixedPrecision_DDRM chol( int numRows ) {
+        return new LinearSolverMixedPrecision_DDRM(
+                LinearSolverFactory_FDRM.chol(numRows), LinearSolverFactory_DDRM.chol(numRows));
+    }
+
+    @Override
+    public boolean setA( DMatrixRMaj A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Matrix must be square");
+        _setA(A);
+        usingFallback = false;
+        normA = NormOps_DDRM.normPInf(A);
+
+        // values outside of the range of a float can't be factored in 32-bit
+        if (Double.isInfinite((float)CommonOps_DDRM.elementMaxAbs(A)) || !solveF_setA(A)) {
+            return switchToFallback(A);
+        }
+        return true;
+    }
+
+    private boolean solveF_setA( DMatrixRMaj A ) {
+        A_F.reshape(A.numRows, A.numCols);
+        ConvertMatrixData.convert(A, A_F);
+        return solverF.setA(A_F);
+    }
+
+    private boolean switchToFallback( DMatrixRMaj A ) {
+        usingFallback = true;
+        if (!fallback.modifiesA())
+            return fallback.setA(A);
+        A_copy = UtilEjml.reshapeOrDeclare(A_copy, A.numRows, A.numCols);
+        A_copy.setTo(A);
+        return fallback.setA(A_copy);
+    }
+
+    @Override
+    public double quality() {
+        return usingFallback ? fallback.quality() : solverF.quality();
+    }
+
+    @Override
+    public double rcond() {
+        return usingFallback ? fallback.rcond() : solverF.rcond();
+    }
+
+    @Override
+    public void solve( DMatrixRMaj B, DMatrixRMaj X ) {
+        DMatrixRMaj A = this.A;
+        if (A == null)
+            throw new RuntimeException("Must call setA() first");
+        iterations = 0;
+        if (usingFallback) {
+            fallback.solve(B, X);
+            return;
+        }
+
+        // B is needed for the residual so it can't be overwritten
+        if (B == X) {
+            B_copy.setTo(B);
+            B = B_copy;
+        }
+        X.reshape(A.numCols, B.numCols);
+
+        // initial 32-bit solution
+        solveF(B, X);
+
+        double previous = Double.MAX_VALUE;
+        while (true) {
+            // r = b - A*x in 64-bit
+            CommonOps_DDRM.mult(A, X, R);
+            CommonOps_DDRM.subtract(B, R, R);
+
+            double worst = converged(X);
+            if (worst <= 0.0)
+                return;
+            if (iterations >= maxIterations || worst > stallRatio*previous || Double.isNaN(worst))
+                break;
+            previous = worst;
+
+            solveF(R, D);
+            CommonOps_DDRM.addEquals(X, D);
+            iterations++;
+        }
+
+        // Refinement failed. Solve again with the 64-bit solver
+        if (!switchToFallback(A))
+            throw new RuntimeException("Fallback solver failed to decompose A");
+        iterations = 0;
+        fallback.solve(B, X);
+    }
+
+    /**
+     * Solves using the 32-bit factorization. Input and output are 64-bit.
+     */
+    private void solveF( DMatrixRMaj B, DMatrixRMaj X ) {
+        B_F.reshape(B.numRows, B.numCols);
+        ConvertMatrixData.convert(B, B_F);
+        X_F.reshape(A_F.numCols, B.numCols);
+        solverF.solve(B_F, X_F);
+        X.reshape(X_F.numRows, X_F.numCols);
+        ConvertMatrixData.convert(X_F, X);
+    }
+
+    /**
+     * Checks the convergence criteria for every column in the residual.
+     *
+     * @return Zero if every column has converged, otherwise the ratio of the residual to the threshold of the
+     * worst column.
+     */
+    private double converged( DMatrixRMaj X ) {
+        double tol = normA*UtilEjml.EPS*Math.sqrt(X.numRows);
+        double worst = 0.0;
+        boolean done = true;
+        for (int col = 0; col < X.numCols; col++) {
+            double normR = 0, normX = 0;
+            for (int row = 0; row < X.numRows; row++) {
+                normR = Math.max(normR, Math.abs(R.unsafe_get(row, col)));
+                normX = Math.max(normX, Math.abs(X.unsafe_get(row, col)));
+            }
+            double threshold = normX*tol;
+            if (!(normR < threshold) && normR != 0.0)
+                done = false;
+            worst = Math.max(worst, normR/Math.max(threshold, Double.MIN_VALUE));
+        }
+        return done ? 0.0 : worst;
+    }
+
+    /** True if the 64-bit fallback is being used */
+    public boolean isUsingFallback() {
+        return usingFallback;
+    }
+
+    /** Number of refinement steps in the most recent call to solve() */
+    public int getIterations() {
+        return iterations;
+    }
+
+    public LinearSolverDense<FMatrixRMaj> getSolverF() {
+        return solverF;
+    }
+
+    public LinearSolverDense<DMatrixRMaj> getFallback() {
+        return fallback;
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return usingFallback ? fallback.getDecomposition() : solverF.getDecomposition();
+    }
+}
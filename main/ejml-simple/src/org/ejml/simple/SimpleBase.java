@@ -33,8 +33,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Parent of {@link SimpleMatrix} implements all the standard matrix operations and uses
@@ -118,16 +118,33 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
         return (mat.getType() == MatrixType.FSCC) ? (FMatrixSparseCSC)mat : (FMatrixSparseCSC)ConvertMatrixType.convert(mat, MatrixType.FSCC);
     }
 
+    // Dense operations have no internal state and can be shared by all matrices
+    private static final SimpleOperations_DDRM OPS_DDRM = new SimpleOperations_DDRM();
+    private static final SimpleOperations_FDRM OPS_FDRM = new SimpleOperations_FDRM();
+    private static final SimpleOperations_ZDRM OPS_ZDRM = new SimpleOperations_ZDRM();
+    private static final SimpleOperations_CDRM OPS_CDRM = new SimpleOperations_CDRM();
+
+    /**
+     * Dense matrix type which a sparse matrix type has specialized operations for, e.g. sparse-dense multiplication.
+     * Used to dispatch mixed operations without converting the sparse matrix.
+     */
+    private static final Map<MatrixType, MatrixType> SPARSE_DENSE_PAIRS = new EnumMap<>(MatrixType.class);
+
+    static {
+        SPARSE_DENSE_PAIRS.put(MatrixType.DSCC, MatrixType.DDRM);
+        SPARSE_DENSE_PAIRS.put(MatrixType.FSCC, MatrixType.FDRM);
+    }
+
     protected static SimpleOperations lookupOps( MatrixType type ) {
         switch (type) {
             case DDRM:
-                return new SimpleOperations_DDRM();
+                return OPS_DDRM;
             case FDRM:
-                return new SimpleOperations_FDRM();
+                return OPS_FDRM;
             case ZDRM:
-                return new SimpleOperations_ZDRM();
+                return OPS_ZDRM;
             case CDRM:
-                return new SimpleOperations_CDRM();
+                return OPS_CDRM;
             case DSCC:
                 return new SimpleOperations_DSCC();
             case FSCC:
@@ -147,11 +164,21 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#transpose(DMatrixRMaj, DMatrixRMaj)
      */
     public T transpose() {
-        T ret = createMatrix(mat.getNumCols(), mat.getNumRows(), mat.getType());
-
-        ops.transpose(mat, ret.mat);
+        return transpose(createMatrix(mat.getNumCols(), mat.getNumRows(), mat.getType()));
+    }
 
-        return ret;
+    /**
+     * Computes the transpose of this matrix and writes the results into 'output', which is reshaped as needed.
+     *
+     * @param output Storage for the transpose. Can't be this matrix. Modified.
+     * @return 'output'
+     * @see #transpose()
+     */
+    public T transpose( T output ) {
+        UtilEjml.checkSameInstance(this, output);
+        reshapeOutput(output, mat.getNumCols(), mat.getNumRows(), mat.getType());
+        ops.transpose(mat, output.mat);
+        return output;
     }
 
     /**
@@ -169,26 +196,38 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      */
     public T mult( T B ) {
         convertType.specify(this, B);
+        return mult(B, createMatrix(mat.getNumRows(), B.getMatrix().getNumCols(), convertType.commonType));
+    }
+
+    /**
+     * Performs matrix multiplication and writes the results into 'output', which is reshaped and changed
+     * into the appropriate matrix type as needed. No memory is allocated if 'output' is already the correct type
+     * and large enough.
+     *
+     * @param B A matrix that is n by bn. Not modified.
+     * @param output Storage for the results. Can't be this matrix or B. Modified.
+     * @return 'output'
+     * @see #mult(SimpleBase)
+     */
+    public T mult( T B, T output ) {
+        UtilEjml.checkSameInstance(this, output);
+        UtilEjml.checkSameInstance(B, output);
+        convertType.specify(this, B);
+        reshapeOutput(output, mat.getNumRows(), B.getMatrix().getNumCols(), convertType.commonType);
 
         // Look to see if there is a special function for handling this case
-        if (this.mat.getType() != B.getType()) {
-            Method m = findAlternative("mult", mat, B.mat, convertType.commonType.getClassType());
-            if (m != null) {
-                T ret = wrapMatrix(convertType.commonType.create(1, 1));
-                invoke(m, this.mat, B.mat, ret.mat);
-                return ret;
-            }
+        if (isSparseDensePair(B)) {
+            ((SimpleSparseOperations)ops).mult((MatrixSparse)mat, B.mat, output.mat);
+            return output;
         }
 
         // Otherwise convert into a common matrix type if necessary
         T A = convertType.convert(this);
         B = convertType.convert(B);
 
-        T ret = A.createMatrix(mat.getNumRows(), B.getMatrix().getNumCols(), A.getType());
+        A.ops.mult(A.mat, B.mat, output.mat);
 
-        A.ops.mult(A.mat, B.mat, ret.mat);
-
-        return ret;
+        return output;
     }
 
     /**
@@ -228,15 +267,49 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#mult(DMatrix1Row, DMatrix1Row, DMatrix1Row)
      */
     public T plus( T B ) {
+        convertType.specify(this, B);
+        return plus(B, createMatrix(mat.getNumRows(), mat.getNumCols(), convertType.commonType));
+    }
+
+    /**
+     * Performs matrix addition and writes the results into 'output', which is reshaped and changed
+     * into the appropriate matrix type as needed.
+     *
+     * @param B m by n matrix. Not modified.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #plus(SimpleBase)
+     */
+    public T plus( T B, T output ) {
         convertType.specify(this, B);
         T A = convertType.convert(this);
         B = convertType.convert(B);
 
-        T ret = A.createMatrix(mat.getNumRows(), mat.getNumCols(), A.getType());
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), A.getType());
+        A.ops.plus(A.mat, B.mat, output.mat);
 
-        A.ops.plus(A.mat, B.mat, ret.mat);
+        return output;
+    }
 
-        return ret;
+    /**
+     * Adds B to this matrix in-place.<br>
+     * <br>
+     * a = a + b<br>
+     *
+     * @param B m by n matrix. Not modified.
+     * @return this matrix
+     * @see #plus(SimpleBase)
+     */
+    public T plusInPlace( T B ) {
+        B = convertForInPlace(B);
+        if (mat.getType().isDense()) {
+            ops.plus(mat, B.mat, mat);
+        } else {
+            Matrix result = mat.createLike();
+            ops.plus(mat, B.mat, result);
+            mat.setTo(result);
+        }
+        return (T)this;
     }
 
     /**
@@ -253,13 +326,48 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#subtract(DMatrixD1, DMatrixD1, DMatrixD1)
      */
     public T minus( T B ) {
+        convertType.specify(this, B);
+        return minus(B, createMatrix(mat.getNumRows(), mat.getNumCols(), convertType.commonType));
+    }
+
+    /**
+     * Performs matrix subtraction and writes the results into 'output', which is reshaped and changed
+     * into the appropriate matrix type as needed.
+     *
+     * @param B m by n matrix. Not modified.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #minus(SimpleBase)
+     */
+    public T minus( T B, T output ) {
         convertType.specify(this, B);
         T A = convertType.convert(this);
         B = convertType.convert(B);
-        T ret = A.createLike();
 
-        A.ops.minus(A.mat, B.mat, ret.mat);
-        return ret;
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), A.getType());
+        A.ops.minus(A.mat, B.mat, output.mat);
+        return output;
+    }
+
+    /**
+     * Subtracts B from this matrix in-place.<br>
+     * <br>
+     * a = a - b<br>
+     *
+     * @param B m by n matrix. Not modified.
+     * @return this matrix
+     * @see #minus(SimpleBase)
+     */
+    public T minusInPlace( T B ) {
+        B = convertForInPlace(B);
+        if (mat.getType().isDense()) {
+            ops.minus(mat, B.mat, mat);
+        } else {
+            Matrix result = mat.createLike();
+            ops.minus(mat, B.mat, result);
+            mat.setTo(result);
+        }
+        return (T)this;
     }
 
     /**
@@ -314,13 +422,48 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#add(DMatrixD1, double, DMatrixD1, DMatrixD1)
      */
     public T plus( double beta, T B ) {
+        convertType.specify(this, B);
+        return plus(beta, B, createMatrix(mat.getNumRows(), mat.getNumCols(), convertType.commonType));
+    }
+
+    /**
+     * Performs a matrix addition and scale operation, c = a + &beta;*b, and writes the results into 'output',
+     * which is reshaped and changed into the appropriate matrix type as needed.
+     *
+     * @param B m by n matrix. Not modified.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #plus(double, SimpleBase)
+     */
+    public T plus( double beta, T B, T output ) {
         convertType.specify(this, B);
         T A = convertType.convert(this);
         B = convertType.convert(B);
 
-        T ret = A.createLike();
-        A.ops.plus(A.mat, beta, B.mat, ret.mat);
-        return ret;
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), A.getType());
+        A.ops.plus(A.mat, beta, B.mat, output.mat);
+        return output;
+    }
+
+    /**
+     * Performs a matrix addition and scale operation in-place.<br>
+     * <br>
+     * a = a + &beta;*b <br>
+     *
+     * @param B m by n matrix. Not modified.
+     * @return this matrix
+     * @see #plus(double, SimpleBase)
+     */
+    public T plusInPlace( double beta, T B ) {
+        B = convertForInPlace(B);
+        if (mat.getType().isDense()) {
+            ops.plus(mat, beta, B.mat, mat);
+        } else {
+            Matrix result = mat.createLike();
+            ops.plus(mat, beta, B.mat, result);
+            mat.setTo(result);
+        }
+        return (T)this;
     }
 
     /**
@@ -364,9 +507,33 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#scale(double, DMatrixD1)
      */
     public T scale( double val ) {
-        T ret = createLike();
-        ops.scale(mat, val, ret.getMatrix());
-        return ret;
+        return scale(val, createLike());
+    }
+
+    /**
+     * Scales each element by 'val' and writes the results into 'output', which is reshaped as needed.
+     *
+     * @param val The multiplication factor.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #scale(double)
+     */
+    public T scale( double val, T output ) {
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), mat.getType());
+        ops.scale(mat, val, output.mat);
+        return output;
+    }
+
+    /**
+     * Scales each element in this matrix by 'val'.
+     *
+     * @param val The multiplication factor.
+     * @return this matrix
+     * @see #scale(double)
+     */
+    public T scaleInPlace( double val ) {
+        ops.scale(mat, val, mat);
+        return (T)this;
     }
 
     /**
@@ -380,9 +547,33 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#divide(DMatrixD1, double)
      */
     public T divide( double val ) {
-        T ret = createLike();
-        ops.divide(mat, val, ret.getMatrix());
-        return ret;
+        return divide(val, createLike());
+    }
+
+    /**
+     * Divides each element by 'val' and writes the results into 'output', which is reshaped as needed.
+     *
+     * @param val Divisor.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #divide(double)
+     */
+    public T divide( double val, T output ) {
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), mat.getType());
+        ops.divide(mat, val, output.mat);
+        return output;
+    }
+
+    /**
+     * Divides each element in this matrix by 'val'.
+     *
+     * @param val Divisor.
+     * @return this matrix
+     * @see #divide(double)
+     */
+    public T divideInPlace( double val ) {
+        ops.divide(mat, val, mat);
+        return (T)this;
     }
 
     /**
@@ -401,14 +592,25 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @see CommonOps_DDRM#invert(DMatrixRMaj, DMatrixRMaj)
      */
     public T invert() {
-        T ret = createLike();
+        return invert(createLike());
+    }
 
-        if (!ops.invert(mat, ret.mat))
+    /**
+     * Computes the inverse of this matrix and writes the results into 'output', which is reshaped as needed.
+     *
+     * @param output Storage for the inverse. Modified.
+     * @return 'output'
+     * @see #invert()
+     */
+    public T invert( T output ) {
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), mat.getType());
+
+        if (!ops.invert(mat, output.mat))
             throw new SingularMatrixException();
-        if (ops.hasUncountable(ret.mat))
+        if (output.ops.hasUncountable(output.mat))
             throw new SingularMatrixException("Solution contains uncountable numbers");
 
-        return ret;
+        return output;
     }
 
     /**
@@ -444,28 +646,39 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      */
     public T solve( T B ) {
         convertType.specify(this, B);
+        return solve(B, createMatrix(mat.getNumCols(), B.getMatrix().getNumCols(), convertType.commonType));
+    }
 
-        // Look to see if there is a special function for handling this case
-        if (this.mat.getType() != B.getType()) {
-            Method m = findAlternative("solve", mat, B.mat, convertType.commonType.getClassType());
-            if (m != null) {
-                T ret = wrapMatrix(convertType.commonType.create(1, 1));
-                invoke(m, this.mat, B.mat, ret.mat); // TODO handle boolean return from solve
-                return ret;
-            }
-        }
-
-        T A = convertType.convert(this);
-        B = convertType.convert(B);
+    /**
+     * Solves for X in the linear system and writes the solution into 'output', which is reshaped and changed
+     * into the appropriate matrix type as needed.
+     *
+     * @param B n by p matrix. Not modified.
+     * @param output Storage for the solution 'x' that is n by p. Can't be this matrix or B. Modified.
+     * @return 'output'
+     * @see #solve(SimpleBase)
+     */
+    public T solve( T B, T output ) {
+        UtilEjml.checkSameInstance(this, output);
+        UtilEjml.checkSameInstance(B, output);
+        convertType.specify(this, B);
+        reshapeOutput(output, mat.getNumCols(), B.getMatrix().getNumCols(), convertType.commonType);
 
-        T x = A.createMatrix(mat.getNumCols(), B.getMatrix().getNumCols(), A.getType());
+        // Look to see if there is a special function for handling this case
+        if (isSparseDensePair(B)) {
+            if (!((SimpleSparseOperations)ops).solve((MatrixSparse)mat, output.mat, B.mat))
+                throw new SingularMatrixException();
+        } else {
+            T A = convertType.convert(this);
+            B = convertType.convert(B);
 
-        if (!A.ops.solve(A.mat, x.mat, B.mat))
-            throw new SingularMatrixException();
-        if (A.ops.hasUncountable(x.mat))
+            if (!A.ops.solve(A.mat, output.mat, B.mat))
+                throw new SingularMatrixException();
+        }
+        if (output.ops.hasUncountable(output.mat))
             throw new SingularMatrixException("Solution contains uncountable numbers");
 
-        return x;
+        return output;
     }
 
     /**
@@ -1071,13 +1284,46 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @return The element by element multiplication of 'this' and 'b'.
      */
     public T elementMult( T b ) {
+        convertType.specify(this, b);
+        return elementMult(b, createMatrix(mat.getNumRows(), mat.getNumCols(), convertType.commonType));
+    }
+
+    /**
+     * Element by element multiplication of 'this' and 'b' with the results written into 'output', which is
+     * reshaped and changed into the appropriate matrix type as needed.
+     *
+     * @param b A simple matrix.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #elementMult(SimpleBase)
+     */
+    public T elementMult( T b, T output ) {
         convertType.specify(this, b);
         T A = convertType.convert(this);
         b = convertType.convert(b);
 
-        T c = A.createLike();
-        A.ops.elementMult(A.mat, b.mat, c.mat);
-        return c;
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), A.getType());
+        A.ops.elementMult(A.mat, b.mat, output.mat);
+        return output;
+    }
+
+    /**
+     * Element by element multiplication of 'this' and 'b' in-place.
+     *
+     * @param b A simple matrix.
+     * @return this matrix
+     * @see #elementMult(SimpleBase)
+     */
+    public T elementMultInPlace( T b ) {
+        b = convertForInPlace(b);
+        if (mat.getType().isDense()) {
+            ops.elementMult(mat, b.mat, mat);
+        } else {
+            Matrix result = mat.createLike();
+            ops.elementMult(mat, b.mat, result);
+            mat.setTo(result);
+        }
+        return (T)this;
     }
 
     /**
@@ -1090,13 +1336,27 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
      * @return The element by element division of 'this' and 'b'.
      */
     public T elementDiv( T b ) {
+        convertType.specify(this, b);
+        return elementDiv(b, createMatrix(mat.getNumRows(), mat.getNumCols(), convertType.commonType));
+    }
+
+    /**
+     * Element by element division of 'this' and 'b' with the results written into 'output', which is
+     * reshaped and changed into the appropriate matrix type as needed.
+     *
+     * @param b A simple matrix.
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     * @see #elementDiv(SimpleBase)
+     */
+    public T elementDiv( T b, T output ) {
         convertType.specify(this, b);
         T A = convertType.convert(this);
         b = convertType.convert(b);
 
-        T c = A.createLike();
-        A.ops.elementDiv(A.mat, b.mat, c.mat);
-        return c;
+        reshapeOutput(output, mat.getNumRows(), mat.getNumCols(), A.getType());
+        A.ops.elementDiv(A.mat, b.mat, output.mat);
+        return output;
     }
 
     /**
@@ -1437,6 +1697,19 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
         return mat.getType();
     }
 
+    /**
+     * Creates a lazily evaluated expression starting with this matrix. Operations on the expression are
+     * only computed when {@link SimpleExpression#eval()} is called, which avoids intermediate results and
+     * fuses operations, e.g. A.lazy().mult(B).plus(C).scale(2).eval() is computed with one multiplication
+     * and one pass through the output.
+     *
+     * @return Expression containing this matrix
+     * @see SimpleExpression
+     */
+    public SimpleExpression<T> lazy() {
+        return new SimpleExpression<>((T)this);
+    }
+
     /**
      * Creates a matrix that is the same type and shape
      *
@@ -1451,42 +1724,37 @@ public abstract class SimpleBase<T extends SimpleBase<T>> implements Serializabl
         this.ops = lookupOps(mat.getType());
     }
 
-    @Nullable Method findAlternative( String method, Object... arguments ) {
-        Method[] methods = ops.getClass().getMethods();
-        for (int methodIdx = 0; methodIdx < methods.length; methodIdx++) {
-            if (!methods[methodIdx].getName().equals(method))
-                continue;
-
-            Class<?>[] paramTypes = methods[methodIdx].getParameterTypes();
-            if (paramTypes.length != arguments.length)
-                continue;
-
-            // look for an exact match only
-            boolean match = true;
-            for (int j = 0; j < paramTypes.length; j++) {
-                if (arguments[j] instanceof Class) {
-                    if (paramTypes[j] != arguments[j]) {
-                        match = false;
-                        break;
-                    }
-                } else if (paramTypes[j] != arguments[j].getClass()) {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) {
-                return methods[methodIdx];
-            }
+    /**
+     * Makes sure 'output' wraps a matrix of the specified type and shape. The internal matrix is reshaped when
+     * it's already the correct type so that its memory can be reused.
+     */
+    static void reshapeOutput( SimpleBase<?> output, int numRows, int numCols, MatrixType type ) {
+        if (output.mat.getType() == type) {
+            ((ReshapeMatrix)output.mat).reshape(numRows, numCols);
+        } else {
+            output.setMatrix(type.create(numRows, numCols));
         }
-        return null;
     }
 
-    public void invoke( Method m, Object... inputs ) {
-        try {
-            m.invoke(ops, inputs);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Returns true if this is a sparse matrix and B is a dense matrix that this matrix's operations can handle
+     * directly, without converting this matrix into a dense matrix.
+     */
+    private boolean isSparseDensePair( SimpleBase<?> B ) {
+        return ops instanceof SimpleSparseOperations && SPARSE_DENSE_PAIRS.get(mat.getType()) == B.getType();
+    }
+
+    /**
+     * Converts the argument of an in-place operation into the same type as this matrix.
+     *
+     * @throws IllegalArgumentException If the results can't be stored in this matrix's type
+     */
+    private T convertForInPlace( T B ) {
+        convertType.specify(this, B);
+        if (convertType.commonType != mat.getType())
+            throw new IllegalArgumentException("In-place operation would change the matrix type from " +
+                    mat.getType() + " to " + convertType.commonType);
+        return convertType.convert(B);
     }
 
     /**
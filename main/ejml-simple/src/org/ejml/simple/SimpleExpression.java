@@ -0,0 +1,880 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.concurrency.ConcurrentOperation;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.Matrix;
+import org.ejml.data.MatrixType;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.CommonOps_MT_DDRM;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * <p>
+ * Lazily evaluated matrix expression. Operations build an expression tree and nothing is computed until
+ * {@link #eval()} is called. When evaluated the expression is rewritten so that intermediate results are avoided:
+ * </p>
+ * <ul>
+ *     <li>Transposes are pushed down to the matrices and merged into multTransA/multTransB/multTransAB</li>
+ *     <li>Scalars are merged into the alpha of the multiplication</li>
+ *     <li>Products which are added together are computed with multAdd() directly into the output</li>
+ *     <li>Chains of products are ordered to minimize the number of floating point operations</li>
+ *     <li>Element-wise operations and additions are computed in a single pass through the output</li>
+ * </ul>
+ *
+ * <pre>
+ * // (A*B + C)*2 with one multiplication and one pass over the output
+ * SimpleMatrix D = A.lazy().mult(B).plus(C).scale(2).eval();
+ * </pre>
+ *
+ * <p>
+ * Expressions are evaluated using {@link DMatrixRMaj}. Matrices of other types are converted when they're added
+ * to the expression. An expression references the input matrices and not a copy, so if the values in the inputs
+ * are modified and the expression evaluated again the new values will be used. The shape of the inputs must not
+ * change. The first call to eval plans the operations and creates temporary matrices, later calls reuse both,
+ * making it well suited for loops. An expression should not be evaluated by multiple threads at the same time.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SimpleExpression<T extends SimpleBase<T>> {
+    // Used to create the output matrix
+    final T template;
+    final Node node;
+
+    // Steps which evaluate the expression. Created the first time it's evaluated
+    @Nullable List<Step> plan;
+
+    // Temporary matrices needed while evaluating the expression. Reused between calls
+    final List<DMatrixRMaj> workspace = new ArrayList<>();
+    // Used when the output is also an input
+    @Nullable DMatrixRMaj aliasOutput;
+
+    SimpleExpression( T template, Node node ) {
+        this.template = template;
+        this.node = node;
+    }
+
+    SimpleExpression( T matrix ) {
+        this(matrix, new Leaf(matrix.getDDRM()));
+    }
+
+    /** Number of rows in the results */
+    public int numRows() {return node.rows;}
+
+    /** Number of columns in the results */
+    public int numCols() {return node.cols;}
+
+    /** Transpose of this expression */
+    public SimpleExpression<T> transpose() {
+        return create(new Transpose(node));
+    }
+
+    /** Matrix multiplication. this*B */
+    public SimpleExpression<T> mult( T B ) {return mult(B.lazy());}
+
+    /** Matrix multiplication. this*B */
+    public SimpleExpression<T> mult( SimpleExpression<T> B ) {
+        if (node.cols != B.node.rows)
+            throw new MatrixDimensionException("Inner dimensions don't match. " + shapes(node, B.node));
+        return create(new Mult(node, B.node));
+    }
+
+    /** Matrix addition. this + B */
+    public SimpleExpression<T> plus( T B ) {return plus(1.0, B.lazy());}
+
+    /** Matrix addition. this + B */
+    public SimpleExpression<T> plus( SimpleExpression<T> B ) {return plus(1.0, B);}
+
+    /** Matrix addition with a scale factor. this + beta*B */
+    public SimpleExpression<T> plus( double beta, T B ) {return plus(beta, B.lazy());}
+
+    /** Matrix addition with a scale factor. this + beta*B */
+    public SimpleExpression<T> plus( double beta, SimpleExpression<T> B ) {
+        checkSameShape(B.node);
+        return create(new Add(node, beta, B.node));
+    }
+
+    /** Matrix subtraction. this - B */
+    public SimpleExpression<T> minus( T B ) {return plus(-1.0, B.lazy());}
+
+    /** Matrix subtraction. this - B */
+    public SimpleExpression<T> minus( SimpleExpression<T> B ) {return plus(-1.0, B);}
+
+    /** Adds a scalar to every element */
+    public SimpleExpression<T> plus( double b ) {
+        return create(new Unary(node, v -> v + b));
+    }
+
+    /** Subtracts a scalar from every element */
+    public SimpleExpression<T> minus( double b ) {return plus(-b);}
+
+    /** Multiplies every element by a scalar */
+    public SimpleExpression<T> scale( double val ) {
+        return create(new Scale(val, node));
+    }
+
+    /** Divides every element by a scalar. Evaluated as a multiplication by 1/val. */
+    public SimpleExpression<T> divide( double val ) {return scale(1.0/val);}
+
+    /** Changes the sign of every element */
+    public SimpleExpression<T> negative() {return scale(-1.0);}
+
+    /** Element-wise multiplication */
+    public SimpleExpression<T> elementMult( T B ) {return elementMult(B.lazy());}
+
+    /** Element-wise multiplication */
+    public SimpleExpression<T> elementMult( SimpleExpression<T> B ) {
+        checkSameShape(B.node);
+        return create(new Binary(node, B.node, ( a, b ) -> a*b));
+    }
+
+    /** Element-wise division */
+    public SimpleExpression<T> elementDiv( T B ) {return elementDiv(B.lazy());}
+
+    /** Element-wise division */
+    public SimpleExpression<T> elementDiv( SimpleExpression<T> B ) {
+        checkSameShape(B.node);
+        return create(new Binary(node, B.node, ( a, b ) -> a/b));
+    }
+
+    /** Element-wise power */
+    public SimpleExpression<T> elementPower( double b ) {
+        return create(new Unary(node, v -> Math.pow(v, b)));
+    }
+
+    /** Element-wise exponential */
+    public SimpleExpression<T> elementExp() {
+        return create(new Unary(node, Math::exp));
+    }
+
+    /** Element-wise natural logarithm */
+    public SimpleExpression<T> elementLog() {
+        return create(new Unary(node, Math::log));
+    }
+
+    /** Applies an arbitrary function to every element */
+    public SimpleExpression<T> elementOp( DoubleUnaryOperator op ) {
+        return create(new Unary(node, op));
+    }
+
+    /**
+     * Evaluates the expression and returns the results in a new matrix
+     */
+    public T eval() {
+        return template.wrapMatrix(evaluate(new DMatrixRMaj(1, 1)));
+    }
+
+    /**
+     * Evaluates the expression and writes the results into 'output', which is reshaped and changed into
+     * a {@link DMatrixRMaj} as needed. 'output' can be one of the matrices in the expression.
+     *
+     * @param output Storage for the results. Modified.
+     * @return 'output'
+     */
+    public T eval( T output ) {
+        Matrix m = output.getMatrix();
+        if (m instanceof DMatrixRMaj && node.references((DMatrixRMaj)m)) {
+            // It's an input too. evaluate() computes the results in a temporary matrix before reshaping it
+            evaluate((DMatrixRMaj)m);
+        } else {
+            SimpleBase.reshapeOutput(output, node.rows, node.cols, MatrixType.DDRM);
+            evaluate(output.getMatrix());
+        }
+        return output;
+    }
+
+    /**
+     * Evaluates the expression and writes the results into 'output'
+     */
+    public DMatrixRMaj evaluate( DMatrixRMaj output ) {
+        List<Step> steps = plan;
+        if (steps == null) {
+            steps = new ArrayList<>();
+            compile(node, false, null, steps);
+            plan = steps;
+        }
+
+        if (node.references(output)) {
+            // Output is also an input, so the results need to be computed in a different matrix
+            DMatrixRMaj tmp = aliasOutput;
+            if (tmp == null)
+                aliasOutput = tmp = temporary(node.rows, node.cols);
+            run(steps, tmp);
+            output.setTo(tmp);
+        } else {
+            output.reshape(node.rows, node.cols);
+            run(steps, output);
+        }
+        return output;
+    }
+
+    private static void run( List<Step> steps, DMatrixRMaj output ) {
+        for (int i = 0; i < steps.size(); i++) {
+            steps.get(i).run(output);
+        }
+    }
+
+    /**
+     * Returns a string describing the operations that will be performed when the expression is evaluated.
+     * Intended for debugging.
+     */
+    @Override public String toString() {
+        return node.toString();
+    }
+
+    private SimpleExpression<T> create( Node n ) {
+        return new SimpleExpression<>(template, n);
+    }
+
+    private void checkSameShape( Node b ) {
+        if (node.rows != b.rows || node.cols != b.cols)
+            throw new MatrixDimensionException("Shapes don't match. " + shapes(node, b));
+    }
+
+    private static String shapes( Node a, Node b ) {
+        return "( " + a.rows + "x" + a.cols + " ) ( " + b.rows + "x" + b.cols + " )";
+    }
+
+    //------------------------------------------------------------------------------------------------------
+    // Evaluation
+    //------------------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the steps which evaluate the node, or its transpose, and write the results into 'dst'
+     *
+     * @param dst Where the results are written. If null then it's the output passed in to eval.
+     */
+    void compile( Node root, boolean transposed, @Nullable DMatrixRMaj dst, List<Step> steps ) {
+        // Express it as a sum of products and element-wise terms
+        List<Term> terms = new ArrayList<>();
+        root.linear(1.0, transposed, terms);
+
+        boolean written = false;
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = terms.get(i);
+            List<Factor> factors = term.factors;
+            if (factors == null)
+                continue;
+            compileChain(term.alpha, factors, dst, written, steps);
+            written = true;
+        }
+
+        // All the other terms are combined in a single pass through the output
+        List<Kernel> kernels = new ArrayList<>();
+        List<Double> alphas = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = terms.get(i);
+            if (term.factors != null)
+                continue;
+            kernels.add(compileKernel(term.node, term.transposed, steps));
+            alphas.add(term.alpha);
+        }
+        if (kernels.isEmpty())
+            return;
+
+        double[] array = new double[alphas.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = alphas.get(i);
+        }
+        steps.add(new ElementStep(array, kernels.toArray(new Kernel[0]), dst, written));
+    }
+
+    /**
+     * Creates the steps which compute the product of all the factors and writes or adds it to 'dst'
+     */
+    void compileChain( double alpha, List<Factor> factors, @Nullable DMatrixRMaj dst, boolean add,
+                       List<Step> steps ) {
+        // Any factor which isn't a matrix is evaluated first
+        int N = factors.size();
+        DMatrixRMaj[] matrices = new DMatrixRMaj[N];
+        boolean[] trans = new boolean[N];
+        for (int i = 0; i < N; i++) {
+            Factor f = factors.get(i);
+            if (f.node instanceof Leaf) {
+                matrices[i] = ((Leaf)f.node).matrix;
+                trans[i] = f.transposed;
+            } else {
+                matrices[i] = f.transposed ? temporary(f.node.cols, f.node.rows) : temporary(f.node.rows, f.node.cols);
+                compile(f.node, f.transposed, matrices[i], steps);
+            }
+        }
+
+        // Dimension of each factor after being transposed. Factor i is dims[i] by dims[i+1]
+        int[] dims = new int[N + 1];
+        for (int i = 0; i < N; i++) {
+            dims[i] = trans[i] ? matrices[i].numCols : matrices[i].numRows;
+        }
+        dims[N] = trans[N - 1] ? matrices[N - 1].numRows : matrices[N - 1].numCols;
+
+        int[][] split = selectMultOrder(dims);
+        compileRange(alpha, matrices, trans, dims, split, 0, N - 1, dst, add, steps);
+    }
+
+    /**
+     * Multiplies the factors from i0 to i1, inclusive, using the order selected by dynamic programming.
+     */
+    private void compileRange( double alpha, DMatrixRMaj[] matrices, boolean[] trans, int[] dims, int[][] split,
+                               int i0, int i1, @Nullable DMatrixRMaj dst, boolean add, List<Step> steps ) {
+        int k = split[i0][i1];
+        DMatrixRMaj left = matrices[i0];
+        boolean transLeft = trans[i0];
+        if (k > i0) {
+            left = temporary(dims[i0], dims[k + 1]);
+            compileRange(1.0, matrices, trans, dims, split, i0, k, left, false, steps);
+            transLeft = false;
+        }
+        DMatrixRMaj right = matrices[i1];
+        boolean transRight = trans[i1];
+        if (k + 1 < i1) {
+            right = temporary(dims[k + 1], dims[i1 + 1]);
+            compileRange(1.0, matrices, trans, dims, split, k + 1, i1, right, false, steps);
+            transRight = false;
+        }
+        steps.add(new MultStep(alpha, left, transLeft, right, transRight, dst, add));
+    }
+
+    /**
+     * Classic matrix chain ordering problem. Returns the index of the factor after which the range should be
+     * split.
+     */
+    static int[][] selectMultOrder( int[] dims ) {
+        int N = dims.length - 1;
+        long[][] cost = new long[N][N];
+        int[][] split = new int[N][N];
+        for (int length = 2; length <= N; length++) {
+            for (int i = 0; i + length - 1 < N; i++) {
+                int j = i + length - 1;
+                cost[i][j] = Long.MAX_VALUE;
+                for (int k = i; k < j; k++) {
+                    long c = cost[i][k] + cost[k + 1][j] + (long)dims[i]*dims[k + 1]*dims[j + 1];
+                    if (c < cost[i][j]) {
+                        cost[i][j] = c;
+                        split[i][j] = k;
+                    }
+                }
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Selects the multiplication function which handles the transposes and whether it's added to the output
+     */
+    static void mult( double alpha, DMatrixRMaj a, boolean transA, DMatrixRMaj b, boolean transB,
+                      DMatrixRMaj c, boolean add ) {
+        boolean concurrent = EjmlConcurrency.useConcurrent(
+                transA ? ConcurrentOperation.DENSE_MULT_TRANS_A : ConcurrentOperation.DENSE_MULT, a);
+        if (add) {
+            if (concurrent) {
+                if (transA) {
+                    if (transB) CommonOps_MT_DDRM.multAddTransAB(alpha, a, b, c);
+                    else CommonOps_MT_DDRM.multAddTransA(alpha, a, b, c);
+                } else {
+                    if (transB) CommonOps_MT_DDRM.multAddTransB(alpha, a, b, c);
+                    else CommonOps_MT_DDRM.multAdd(alpha, a, b, c);
+                }
+            } else {
+                if (transA) {
+                    if (transB) CommonOps_DDRM.multAddTransAB(alpha, a, b, c);
+                    else CommonOps_DDRM.multAddTransA(alpha, a, b, c);
+                } else {
+                    if (transB) CommonOps_DDRM.multAddTransB(alpha, a, b, c);
+                    else CommonOps_DDRM.multAdd(alpha, a, b, c);
+                }
+            }
+        } else {
+            if (concurrent) {
+                if (transA) {
+                    if (transB) CommonOps_MT_DDRM.multTransAB(alpha, a, b, c);
+                    else CommonOps_MT_DDRM.multTransA(alpha, a, b, c);
+                } else {
+                    if (transB) CommonOps_MT_DDRM.multTransB(alpha, a, b, c);
+                    else CommonOps_MT_DDRM.mult(alpha, a, b, c);
+                }
+            } else {
+                if (transA) {
+                    if (transB) CommonOps_DDRM.multTransAB(alpha, a, b, c);
+                    else CommonOps_DDRM.multTransA(alpha, a, b, c);
+                } else {
+                    if (transB) CommonOps_DDRM.multTransB(alpha, a, b, c);
+                    else CommonOps_DDRM.mult(alpha, a, b, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a node into a function which computes each element. Sub-expressions which can't be computed
+     * element by element, i.e. multiplication, are evaluated into temporary matrices.
+     */
+    Kernel compileKernel( Node n, boolean transposed, List<Step> steps ) {
+        if (n instanceof Leaf) {
+            return new LeafKernel(((Leaf)n).matrix, transposed);
+        } else if (n instanceof Unary) {
+            return new UnaryKernel(compileKernel(((Unary)n).child, transposed, steps), ((Unary)n).op);
+        } else if (n instanceof Binary) {
+            Binary b = (Binary)n;
+            return new BinaryKernel(compileKernel(b.a, transposed, steps), compileKernel(b.b, transposed, steps), b.op);
+        }
+
+        // See if it's a linear combination of element-wise terms
+        List<Term> terms = new ArrayList<>();
+        n.linear(1.0, transposed, terms);
+        boolean elementWise = true;
+        for (int i = 0; i < terms.size(); i++) {
+            if (terms.get(i).factors != null) {
+                elementWise = false;
+                break;
+            }
+        }
+
+        if (elementWise) {
+            Kernel[] kernels = new Kernel[terms.size()];
+            double[] alphas = new double[terms.size()];
+            for (int i = 0; i < kernels.length; i++) {
+                Term t = terms.get(i);
+                kernels[i] = compileKernel(t.node, t.transposed, steps);
+                alphas[i] = t.alpha;
+            }
+            return new SumKernel(alphas, kernels);
+        }
+
+        DMatrixRMaj tmp = transposed ? temporary(n.cols, n.rows) : temporary(n.rows, n.cols);
+        compile(n, transposed, tmp, steps);
+        return new LeafKernel(tmp, false);
+    }
+
+    /**
+     * Creates a temporary matrix which is used every time the expression is evaluated
+     */
+    DMatrixRMaj temporary( int rows, int cols ) {
+        DMatrixRMaj m = new DMatrixRMaj(rows, cols);
+        workspace.add(m);
+        return m;
+    }
+
+    //------------------------------------------------------------------------------------------------------
+    // Evaluation steps
+    //------------------------------------------------------------------------------------------------------
+
+    /** A single operation in the evaluation of the expression */
+    interface Step {
+        /**
+         * @param output Matrix that the expression is being written to
+         */
+        void run( DMatrixRMaj output );
+    }
+
+    /** dst = (add ? dst : 0) + alpha*op(a)*op(b) */
+    static class MultStep implements Step {
+        final double alpha;
+        final DMatrixRMaj a, b;
+        final boolean transA, transB, add;
+        final @Nullable DMatrixRMaj dst;
+
+        MultStep( double alpha, DMatrixRMaj a, boolean transA, DMatrixRMaj b, boolean transB,
+                  @Nullable DMatrixRMaj dst, boolean add ) {
+            this.alpha = alpha;
+            this.a = a;
+            this.transA = transA;
+            this.b = b;
+            this.transB = transB;
+            this.dst = dst;
+            this.add = add;
+        }
+
+        @Override public void run( DMatrixRMaj output ) {
+            mult(alpha, a, transA, b, transB, dst == null ? output : dst, add);
+        }
+    }
+
+    /** dst = (add ? dst : 0) + sum alpha[i]*kernel[i] */
+    static class ElementStep implements Step {
+        final double[] alphas;
+        final Kernel[] kernels;
+        final @Nullable DMatrixRMaj dst;
+        final boolean add;
+
+        // If not null then every kernel is a matrix which isn't transposed, e.g. A + 2*B - C, and the sum
+        // can be computed directly from the arrays
+        final DMatrixRMaj @Nullable [] matrices;
+        final double[][] arrays;
+
+        ElementStep( double[] alphas, Kernel[] kernels, @Nullable DMatrixRMaj dst, boolean add ) {
+            this.alphas = alphas;
+            this.kernels = kernels;
+            this.dst = dst;
+            this.add = add;
+
+            DMatrixRMaj[] matrices = new DMatrixRMaj[kernels.length];
+            for (int i = 0; i < kernels.length; i++) {
+                Kernel k = kernels[i];
+                if (!(k instanceof LeafKernel) || ((LeafKernel)k).transposed) {
+                    matrices = null;
+                    break;
+                }
+                matrices[i] = ((LeafKernel)k).matrix;
+            }
+            this.matrices = matrices;
+            this.arrays = new double[kernels.length][];
+        }
+
+        @Override public void run( DMatrixRMaj output ) {
+            final DMatrixRMaj out = dst == null ? output : dst;
+            final double[] outData = out.data;
+            final int N = kernels.length;
+
+            if (matrices != null) {
+                for (int i = 0; i < N; i++) {
+                    arrays[i] = matrices[i].data;
+                }
+                final int length = out.getNumElements();
+                for (int index = 0; index < length; index++) {
+                    double sum = add ? outData[index] : 0.0;
+                    for (int i = 0; i < N; i++) {
+                        sum += alphas[i]*arrays[i][index];
+                    }
+                    outData[index] = sum;
+                }
+                return;
+            }
+
+            for (int i = 0; i < N; i++) {
+                kernels[i].prepare();
+            }
+            final int rows = out.numRows;
+            final int cols = out.numCols;
+            int index = 0;
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++, index++) {
+                    double sum = add ? outData[index] : 0.0;
+                    for (int i = 0; i < N; i++) {
+                        sum += alphas[i]*kernels[i].get(row, col, index);
+                    }
+                    outData[index] = sum;
+                }
+            }
+        }
+    }
+
+    //------------------------------------------------------------------------------------------------------
+    // Expression tree
+    //------------------------------------------------------------------------------------------------------
+
+    /**
+     * Term in a sum. Either a product of factors or a node that's computed element-wise
+     */
+    static class Term {
+        final double alpha;
+        final Node node;
+        final boolean transposed;
+        // If not null then this term is a product of the factors
+        final @Nullable List<Factor> factors;
+
+        Term( double alpha, Node node, boolean transposed, @Nullable List<Factor> factors ) {
+            this.alpha = alpha;
+            this.node = node;
+            this.transposed = transposed;
+            this.factors = factors;
+        }
+    }
+
+    /** Factor in a product */
+    static class Factor {
+        Node node;
+        boolean transposed;
+
+        Factor( Node node, boolean transposed ) {
+            this.node = node;
+            this.transposed = transposed;
+        }
+    }
+
+    abstract static class Node {
+        final int rows, cols;
+
+        Node( int rows, int cols ) {
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        /**
+         * Adds this node to the sum of terms
+         *
+         * @param alpha Scale factor applied to this node
+         * @param transposed If this node is transposed
+         */
+        void linear( double alpha, boolean transposed, List<Term> terms ) {
+            terms.add(new Term(alpha, this, transposed, null));
+        }
+
+        /**
+         * Adds this node to the list of factors in a product and returns the scale factor which was pulled out.
+         */
+        double factors( boolean transposed, List<Factor> factors ) {
+            factors.add(new Factor(this, transposed));
+            return 1.0;
+        }
+
+        /** Returns true if the matrix is referenced anywhere in the expression */
+        abstract boolean references( DMatrixRMaj m );
+    }
+
+    static class Leaf extends Node {
+        final DMatrixRMaj matrix;
+
+        Leaf( DMatrixRMaj matrix ) {
+            super(matrix.numRows, matrix.numCols);
+            this.matrix = matrix;
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return matrix == m;}
+
+        @Override public String toString() {return "M(" + rows + "x" + cols + ")";}
+    }
+
+    static class Transpose extends Node {
+        final Node child;
+
+        Transpose( Node child ) {
+            super(child.cols, child.rows);
+            this.child = child;
+        }
+
+        @Override void linear( double alpha, boolean transposed, List<Term> terms ) {
+            child.linear(alpha, !transposed, terms);
+        }
+
+        @Override double factors( boolean transposed, List<Factor> factors ) {
+            return child.factors(!transposed, factors);
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return child.references(m);}
+
+        @Override public String toString() {return child + "'";}
+    }
+
+    static class Scale extends Node {
+        final double alpha;
+        final Node child;
+
+        Scale( double alpha, Node child ) {
+            super(child.rows, child.cols);
+            this.alpha = alpha;
+            this.child = child;
+        }
+
+        @Override void linear( double alpha, boolean transposed, List<Term> terms ) {
+            child.linear(alpha*this.alpha, transposed, terms);
+        }
+
+        @Override double factors( boolean transposed, List<Factor> factors ) {
+            return alpha*child.factors(transposed, factors);
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return child.references(m);}
+
+        @Override public String toString() {return alpha + "*" + child;}
+    }
+
+    /** a + beta*b */
+    static class Add extends Node {
+        final Node a, b;
+        final double beta;
+
+        Add( Node a, double beta, Node b ) {
+            super(a.rows, a.cols);
+            this.a = a;
+            this.beta = beta;
+            this.b = b;
+        }
+
+        @Override void linear( double alpha, boolean transposed, List<Term> terms ) {
+            a.linear(alpha, transposed, terms);
+            b.linear(alpha*beta, transposed, terms);
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return a.references(m) || b.references(m);}
+
+        @Override public String toString() {return "(" + a + " + " + beta + "*" + b + ")";}
+    }
+
+    static class Mult extends Node {
+        final Node a, b;
+
+        Mult( Node a, Node b ) {
+            super(a.rows, b.cols);
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override void linear( double alpha, boolean transposed, List<Term> terms ) {
+            List<Factor> factors = new ArrayList<>();
+            double scale = factors(transposed, factors);
+            terms.add(new Term(alpha*scale, this, transposed, factors));
+        }
+
+        @Override double factors( boolean transposed, List<Factor> factors ) {
+            // (A*B)' = B'*A'
+            if (transposed)
+                return b.factors(true, factors)*a.factors(true, factors);
+            else
+                return a.factors(false, factors)*b.factors(false, factors);
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return a.references(m) || b.references(m);}
+
+        @Override public String toString() {return a + "*" + b;}
+    }
+
+    static class Unary extends Node {
+        final Node child;
+        final DoubleUnaryOperator op;
+
+        Unary( Node child, DoubleUnaryOperator op ) {
+            super(child.rows, child.cols);
+            this.child = child;
+            this.op = op;
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return child.references(m);}
+
+        @Override public String toString() {return "f(" + child + ")";}
+    }
+
+    static class Binary extends Node {
+        final Node a, b;
+        final DoubleBinaryOperator op;
+
+        Binary( Node a, Node b, DoubleBinaryOperator op ) {
+            super(a.rows, a.cols);
+            this.a = a;
+            this.b = b;
+            this.op = op;
+        }
+
+        @Override boolean references( DMatrixRMaj m ) {return a.references(m) || b.references(m);}
+
+        @Override public String toString() {return "f(" + a + ", " + b + ")";}
+    }
+
+    //------------------------------------------------------------------------------------------------------
+    // Element-wise kernels
+    //------------------------------------------------------------------------------------------------------
+
+    /** Computes the value of a single element in the output */
+    interface Kernel {
+        /** Called before the elements are computed */
+        void prepare();
+
+        /**
+         * @param row Row in the output
+         * @param col Column in the output
+         * @param index Index of the element in the output's row-major array
+         */
+        double get( int row, int col, int index );
+    }
+
+    static class LeafKernel implements Kernel {
+        final DMatrixRMaj matrix;
+        final boolean transposed;
+        double[] data = new double[0];
+
+        LeafKernel( DMatrixRMaj matrix, boolean transposed ) {
+            this.matrix = matrix;
+            this.transposed = transposed;
+        }
+
+        // the matrix's array can change if it's reshaped between evaluations
+        @Override public void prepare() {data = matrix.data;}
+
+        @Override public double get( int row, int col, int index ) {
+            return transposed ? data[col*matrix.numCols + row] : data[index];
+        }
+    }
+
+    static class SumKernel implements Kernel {
+        final double[] alphas;
+        final Kernel[] kernels;
+
+        SumKernel( double[] alphas, Kernel[] kernels ) {
+            this.alphas = alphas;
+            this.kernels = kernels;
+        }
+
+        @Override public void prepare() {
+            for (int i = 0; i < kernels.length; i++) {
+                kernels[i].prepare();
+            }
+        }
+
+        @Override public double get( int row, int col, int index ) {
+            double sum = 0.0;
+            for (int i = 0; i < kernels.length; i++) {
+                sum += alphas[i]*kernels[i].get(row, col, index);
+            }
+            return sum;
+        }
+    }
+
+    static class UnaryKernel implements Kernel {
+        final Kernel child;
+        final DoubleUnaryOperator op;
+
+        UnaryKernel( Kernel child, DoubleUnaryOperator op ) {
+            this.child = child;
+            this.op = op;
+        }
+
+        @Override public void prepare() {child.prepare();}
+
+        @Override public double get( int row, int col, int index ) {
+            return op.applyAsDouble(child.get(row, col, index));
+        }
+    }
+
+    static class BinaryKernel implements Kernel {
+        final Kernel a, b;
+        final DoubleBinaryOperator op;
+
+        BinaryKernel( Kernel a, Kernel b, DoubleBinaryOperator op ) {
+            this.a = a;
+            this.b = b;
+            this.op = op;
+        }
+
+        @Override public void prepare() {
+            a.prepare();
+            b.prepare();
+        }
+
+        @Override public double get( int row, int col, int index ) {
+            return op.applyAsDouble(a.get(row, col, index), b.get(row, col, index));
+        }
+    }
+}
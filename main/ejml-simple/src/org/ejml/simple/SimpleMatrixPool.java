@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.data.MatrixType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Pool of matrices that can be used as the output of SimpleMatrix operations which take an output argument,
+ * e.g. {@link SimpleBase#mult(SimpleBase, SimpleBase)}. In code which is called over and over, such as a control
+ * loop, matrices are requested using {@link #get} and then all are returned to the pool at the end of each
+ * iteration with {@link #releaseAll()}. After the first iteration no new memory is allocated.
+ * </p>
+ *
+ * <pre>
+ * SimpleMatrixPool&lt;SimpleMatrix&gt; pool = SimpleMatrixPool.create();
+ * while (running) {
+ *     SimpleMatrix x = A.mult(state, pool.get(n, 1)).plusInPlace(B.mult(u, pool.get(n, 1)));
+ *     ...
+ *     pool.releaseAll();
+ * }
+ * </pre>
+ *
+ * <p>
+ * The contents of a matrix returned by {@link #get} are not defined. This class is not thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SimpleMatrixPool<T extends SimpleBase<T>> {
+    // Used to create new matrices of the correct class
+    private final T template;
+
+    // Matrices which can be handed out
+    private final List<T> available = new ArrayList<>();
+    // Matrices which have been handed out and not yet released
+    private final List<T> borrowed = new ArrayList<>();
+
+    /**
+     * @param template Matrix used to create new matrices of the same class
+     */
+    public SimpleMatrixPool( T template ) {
+        this.template = template;
+    }
+
+    /**
+     * Creates a pool for {@link SimpleMatrix}
+     */
+    public static SimpleMatrixPool<SimpleMatrix> create() {
+        return new SimpleMatrixPool<>(new SimpleMatrix(1, 1));
+    }
+
+    /**
+     * Returns a matrix with the same type as the template and the specified shape.
+     */
+    public T get( int numRows, int numCols ) {
+        return get(numRows, numCols, template.getType());
+    }
+
+    /**
+     * Returns a matrix of the specified type and shape. If possible a matrix which has been released is reused.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param type Type of internal matrix
+     * @return A matrix which belongs to the pool until it's released. Values are not defined.
+     */
+    public T get( int numRows, int numCols, MatrixType type ) {
+        // Favor a matrix with the same shape since it will never need to grow
+        int selected = -1;
+        for (int i = available.size() - 1; i >= 0; i--) {
+            T m = available.get(i);
+            if (m.getType() != type)
+                continue;
+            selected = i;
+            if (m.numRows() == numRows && m.numCols() == numCols)
+                break;
+        }
+
+        T m;
+        if (selected == -1) {
+            m = template.createMatrix(numRows, numCols, type);
+        } else {
+            // Swap with the last element so that removal is O(1)
+            m = available.get(selected);
+            int last = available.size() - 1;
+            available.set(selected, available.get(last));
+            available.remove(last);
+            m.reshape(numRows, numCols);
+        }
+        borrowed.add(m);
+        return m;
+    }
+
+    /**
+     * Returns the matrix to the pool. The matrix should not be used after it has been released.
+     *
+     * @param m A matrix which was returned by {@link #get}
+     */
+    public void release( T m ) {
+        for (int i = borrowed.size() - 1; i >= 0; i--) {
+            if (borrowed.get(i) != m)
+                continue;
+            borrowed.remove(i);
+            available.add(m);
+            return;
+        }
+        throw new IllegalArgumentException("Matrix was not borrowed from this pool");
+    }
+
+    /**
+     * Returns all borrowed matrices to the pool.
+     */
+    public void releaseAll() {
+        available.addAll(borrowed);
+        borrowed.clear();
+    }
+
+    /**
+     * Discards all matrices
+     */
+    public void clear() {
+        available.clear();
+        borrowed.clear();
+    }
+
+    /**
+     * Number of matrices which have been handed out and not released
+     */
+    public int getBorrowedCount() {
+        return borrowed.size();
+    }
+
+    /**
+     * Number of matrices which are available for reuse
+     */
+    public int getAvailableCount() {
+        return available.size();
+    }
+}
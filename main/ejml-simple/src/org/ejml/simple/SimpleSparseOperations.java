@@ -36,4 +36,6 @@ public interface SimpleSparseOperations<S extends MatrixSparse, D extends Matrix
     void multTransA( S A, D B, D output );
 
     void mult( S A, D B, D output );
+
+    boolean solve( S A, D X, D B );
 }
@@ -17,6 +17,8 @@
  */
 package org.ejml.simple.ops;
 
+import org.ejml.LinearSolverSafe;
+import org.ejml.concurrency.ConcurrentOperation;
 import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DMatrixRMaj;
@@ -25,7 +27,9 @@ import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.CommonOps_MT_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_MT_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.ejml.ops.MatrixIO;
 import org.ejml.simple.SimpleOperations;
 
@@ -69,7 +73,7 @@ public class SimpleOperations_DDRM implements SimpleOperations<DMatrixRMaj> {
 
     @Override
     public void transpose( DMatrixRMaj input, DMatrixRMaj output ) {
-        if (EjmlConcurrency.useConcurrent(input)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_TRANSPOSE, input)) {
             CommonOps_MT_DDRM.transpose(input, output);
         } else {
             CommonOps_DDRM.transpose(input, output);
@@ -78,7 +82,7 @@ public class SimpleOperations_DDRM implements SimpleOperations<DMatrixRMaj> {
 
     @Override
     public void mult( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_MULT, A)) {
             CommonOps_MT_DDRM.mult(A, B, output);
         } else {
             CommonOps_DDRM.mult(A, B, output);
@@ -87,7 +91,7 @@ public class SimpleOperations_DDRM implements SimpleOperations<DMatrixRMaj> {
 
     @Override
     public void multTransA( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_MULT_TRANS_A, A)) {
             CommonOps_MT_DDRM.multTransA(A, B, output);
         } else {
             CommonOps_DDRM.multTransA(A, B, output);
@@ -161,7 +165,17 @@ public class SimpleOperations_DDRM implements SimpleOperations<DMatrixRMaj> {
 
     @Override
     public boolean solve( DMatrixRMaj A, DMatrixRMaj X, DMatrixRMaj B ) {
-        return CommonOps_DDRM.solve(A, B, X);
+        // Non-square systems are solved using QR
+        if (A.numRows == A.numCols || !EjmlConcurrency.useConcurrent(ConcurrentOperation.DENSE_QR, A))
+            return CommonOps_DDRM.solve(A, B, X);
+
+        LinearSolverDense<DMatrixRMaj> solver =
+                new LinearSolverSafe<>(LinearSolverFactory_MT_DDRM.leastSquares(A.numRows, A.numCols));
+        if (!solver.setA(A))
+            return false;
+        X.reshape(A.numCols, B.numCols);
+        solver.solve(B, X);
+        return true;
     }
 
     @Override
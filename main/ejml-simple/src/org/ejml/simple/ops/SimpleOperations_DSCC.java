@@ -17,6 +17,7 @@
  */
 package org.ejml.simple.ops;
 
+import org.ejml.concurrency.ConcurrentOperation;
 import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.*;
 import org.ejml.ops.MatrixIO;
@@ -84,7 +85,7 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
 
     @Override
     public void mult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT, A)) {
             CommonOps_MT_DSCC.mult(A, B, output, workspaceMT);
         } else {
             CommonOps_DSCC.mult(A, B, output);
@@ -96,8 +97,8 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
         var At = new DMatrixSparseCSC(1, 1);
         CommonOps_DSCC.transpose(A, At, gw);
 
-        if (EjmlConcurrency.useConcurrent(A)) {
-            CommonOps_MT_DSCC.mult(A, B, output, workspaceMT);
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT, A)) {
+            CommonOps_MT_DSCC.mult(At, B, output, workspaceMT);
         } else {
             CommonOps_DSCC.mult(At, B, output, gw, gx);
         }
@@ -110,7 +111,7 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
 
     @Override
     public void multTransA( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT_DENSE, A)) {
             CommonOps_MT_DSCC.multTransA(A, B, output, workspaceA);
         } else {
             CommonOps_DSCC.multTransA(A, B, output, null);
@@ -119,7 +120,7 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
 
     @Override
     public void mult( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_MULT_DENSE, A)) {
             CommonOps_MT_DSCC.mult(A, B, output, workspaceA);
         } else {
             CommonOps_DSCC.mult(A, B, output);
@@ -154,7 +155,7 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
 
     @Override
     public void plus( DMatrixSparseCSC A, /**/double beta, DMatrixSparseCSC b, DMatrixSparseCSC output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_ADD, A)) {
             CommonOps_MT_DSCC.add(1, A, (double)beta, b, output, workspaceMT);
         } else {
             CommonOps_DSCC.add(1, A, (double)beta, b, output, gw, gx);
@@ -163,7 +164,7 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
 
     @Override
     public void plus( /**/double alpha, DMatrixSparseCSC A, /**/double beta, DMatrixSparseCSC b, DMatrixSparseCSC output ) {
-        if (EjmlConcurrency.useConcurrent(A)) {
+        if (EjmlConcurrency.useConcurrent(ConcurrentOperation.SPARSE_ADD, A)) {
             CommonOps_MT_DSCC.add((double)alpha, A, (double)beta, b, output, workspaceMT);
         } else {
             CommonOps_DSCC.add((double)alpha, A, (double)beta, b, output, gw, gx);
@@ -202,11 +203,12 @@ public class SimpleOperations_DSCC implements SimpleSparseOperations<DMatrixSpar
 
     @Override
     public boolean solve( DMatrixSparseCSC A, DMatrixSparseCSC X, DMatrixSparseCSC B ) {
-        return CommonOps_DSCC.solve(A, X, B);
+        return CommonOps_DSCC.solve(A, B, X);
     }
 
+    @Override
     public boolean solve( DMatrixSparseCSC A, DMatrixRMaj X, DMatrixRMaj B ) {
-        return CommonOps_DSCC.solve(A, X, B);
+        return CommonOps_DSCC.solve(A, B, X);
     }
 
     @Override
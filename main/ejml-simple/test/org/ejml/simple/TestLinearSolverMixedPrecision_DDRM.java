@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.linsol.GenericLinearSolverChecks_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLinearSolverMixedPrecision_DDRM extends GenericLinearSolverChecks_DDRM {
+    public TestLinearSolverMixedPrecision_DDRM() {
+        shouldWorkRectangle = false;
+        shouldFailSingular = false;
+    }
+
+    @Override
+    protected LinearSolverDense<DMatrixRMaj> createSolver( DMatrixRMaj A ) {
+        return LinearSolverMixedPrecision_DDRM.lu(A.numRows);
+    }
+
+    @Override
+    public void solve_dimensionCheck() {
+        // only square matrices are supported
+    }
+
+    /**
+     * A well conditioned system should be refined to 64-bit accuracy without the fallback
+     */
+    @Test
+    void refinesToDoublePrecision() {
+        int N = 40;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, -1, 1, rand);
+        for (int i = 0; i < N; i++) {
+            A.add(i, i, N);
+        }
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, 3, -1, 1, rand);
+
+        var solver = LinearSolverMixedPrecision_DDRM.lu(N);
+        assertTrue(solver.setA(A));
+        DMatrixRMaj X = new DMatrixRMaj(1, 1);
+        solver.solve(B, X);
+
+        assertFalse(solver.isUsingFallback());
+        assertTrue(solver.getIterations() >= 1);
+        assertResidualSmall(A, X, B);
+    }
+
+    @Test
+    void cholesky() {
+        int N = 30;
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N, rand);
+        for (int i = 0; i < N; i++) {
+            A.add(i, i, 1.0);
+        }
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, 2, -1, 1, rand);
+
+        var solver = LinearSolverMixedPrecision_DDRM.chol(N);
+        assertTrue(solver.setA(A));
+        DMatrixRMaj X = new DMatrixRMaj(1, 1);
+        solver.solve(B, X);
+
+        assertFalse(solver.isUsingFallback());
+        assertResidualSmall(A, X, B);
+    }
+
+    /**
+     * The Hilbert matrix is too poorly conditioned for 32-bit, so refinement can't converge
+     */
+    @Test
+    void fallbackWhenIllConditioned() {
+        int N = 9;
+        DMatrixRMaj A = new DMatrixRMaj(N, N);
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                A.set(i, j, 1.0/(i + j + 1));
+            }
+        }
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, 1, -1, 1, rand);
+
+        var solver = LinearSolverMixedPrecision_DDRM.lu(N);
+        solver.setA(A);
+        DMatrixRMaj X = new DMatrixRMaj(1, 1);
+        solver.solve(B, X);
+        assertTrue(solver.isUsingFallback());
+
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        assertTrue(CommonOps_DDRM.solve(A, B, expected));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, X, UtilEjml.TEST_F64));
+
+        // switching to a different matrix resets the fallback
+        solver.setA(CommonOps_DDRM.identity(N));
+        assertFalse(solver.isUsingFallback());
+    }
+
+    /**
+     * Elements which are outside the range of a float go straight to the fallback
+     */
+    @Test
+    void fallbackWhenOutOfRange() {
+        DMatrixRMaj A = CommonOps_DDRM.identity(3);
+        A.set(1, 1, 1e300);
+        var solver = LinearSolverMixedPrecision_DDRM.lu(3);
+        assertTrue(solver.setA(A));
+        assertTrue(solver.isUsingFallback());
+    }
+
+    @Test
+    void sameInstanceBX() {
+        int N = 10;
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, 2, -1, 1, rand);
+
+        var solver = LinearSolverMixedPrecision_DDRM.lu(N);
+        assertTrue(solver.setA(A));
+        DMatrixRMaj X = B.copy();
+        solver.solve(X, X);
+        assertResidualSmall(A, X, B);
+    }
+
+    private void assertResidualSmall( DMatrixRMaj A, DMatrixRMaj X, DMatrixRMaj B ) {
+        DMatrixRMaj R = CommonOps_DDRM.mult(A, X, null);
+        CommonOps_DDRM.subtractEquals(R, B);
+        double scale = CommonOps_DDRM.elementMaxAbs(A)*CommonOps_DDRM.elementMaxAbs(X)*A.numRows;
+        assertTrue(CommonOps_DDRM.elementMaxAbs(R) <= scale*UtilEjml.EPS*10);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.MatrixType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSimpleExpression extends EjmlStandardJUnit {
+    SimpleMatrix A = SimpleMatrix.random_DDRM(4, 3, -1, 1, rand);
+    SimpleMatrix B = SimpleMatrix.random_DDRM(3, 5, -1, 1, rand);
+    SimpleMatrix C = SimpleMatrix.random_DDRM(4, 5, -1, 1, rand);
+    SimpleMatrix D = SimpleMatrix.random_DDRM(5, 4, -1, 1, rand);
+    SimpleMatrix x = SimpleMatrix.random_DDRM(5, 1, -1, 1, rand);
+
+    @Test void linearCombination() {
+        check(C.plus(2.0, C).minus(C.scale(0.5)), C.lazy().plus(2.0, C).minus(C.lazy().scale(0.5)));
+        check(C.negative().divide(3.0), C.lazy().negative().divide(3.0));
+        check(C.transpose().plus(D), C.lazy().transpose().plus(D));
+        check(D.plus(C.transpose()).transpose(), D.lazy().plus(C.lazy().transpose()).transpose());
+    }
+
+    @Test void mult() {
+        check(A.mult(B), A.lazy().mult(B));
+        check(A.mult(B).plus(C).scale(2).transpose(), A.lazy().mult(B).plus(C).scale(2).transpose());
+        check(C.plus(A.mult(B)), C.lazy().plus(A.lazy().mult(B)));
+        // every combination of transposes
+        check(A.transpose().transpose().mult(B), A.lazy().transpose().transpose().mult(B));
+        check(B.transpose().mult(A.transpose()), B.lazy().transpose().mult(A.lazy().transpose()));
+        check(A.transpose().mult(C), A.lazy().transpose().mult(C));
+        check(B.mult(D).transpose(), B.lazy().mult(D).transpose());
+        check(D.transpose().mult(B.transpose()), D.lazy().transpose().mult(B.lazy().transpose()));
+        // scale factors inside the product are pulled out
+        check(A.scale(2).mult(B.scale(-3)), A.lazy().scale(2).mult(B.lazy().scale(-3)));
+        // sum of products
+        check(A.mult(B).minus(A.mult(B).scale(0.5)).plus(C),
+                A.lazy().mult(B).minus(A.lazy().mult(B).scale(0.5)).plus(C));
+    }
+
+    /**
+     * A factor which isn't a matrix needs to be evaluated first
+     */
+    @Test void mult_compoundFactors() {
+        check(A.plus(A).mult(B), A.lazy().plus(A).mult(B));
+        check(A.mult(B.elementMult(B)), A.lazy().mult(B.lazy().elementMult(B)));
+        check(A.plus(A).transpose().mult(C), A.lazy().plus(A).transpose().mult(C));
+    }
+
+    @Test void mult_chain() {
+        check(A.mult(B).mult(x), A.lazy().mult(B).mult(x));
+        check(A.mult(B.mult(x)), A.lazy().mult(B.lazy().mult(x)));
+        check(D.mult(A).mult(B).mult(D).mult(A), D.lazy().mult(A).mult(B).mult(D).mult(A));
+        check(D.mult(A).mult(B).transpose(), D.lazy().mult(A).mult(B).transpose());
+        check(x.transpose().mult(D).mult(A).mult(B).mult(x),
+                x.lazy().transpose().mult(D).mult(A).mult(B).mult(x));
+    }
+
+    @Test void selectMultOrder() {
+        // (10x100)(100x5)(5x50). Best order is (AB)C
+        int[][] split = SimpleExpression.selectMultOrder(new int[]{10, 100, 5, 50});
+        assertEquals(1, split[0][2]);
+        // (50x5)(5x100)(100x10). Best order is A(BC)
+        split = SimpleExpression.selectMultOrder(new int[]{50, 5, 100, 10});
+        assertEquals(0, split[0][2]);
+    }
+
+    @Test void elementWise() {
+        SimpleMatrix P = C.elementExp();
+        check(C.elementMult(P).plus(C), C.lazy().elementMult(P).plus(C));
+        check(C.elementDiv(P).scale(2), C.lazy().elementDiv(P).scale(2));
+        check(P.elementLog(), P.lazy().elementLog());
+        check(P.elementPower(1.5).minus(2.0), P.lazy().elementPower(1.5).minus(2.0));
+        check(C.elementExp().plus(0.5), C.lazy().elementExp().plus(0.5));
+        check(C.plus(C).elementMult(P.transpose().transpose()), C.lazy().plus(C).elementMult(P));
+        // transposed element-wise operations
+        check(C.elementMult(P).transpose().plus(D), C.lazy().elementMult(P).transpose().plus(D));
+        // a product inside of an element-wise operation
+        check(A.mult(B).elementMult(C), A.lazy().mult(B).elementMult(C));
+        check(A.mult(B).plus(C).elementMult(C), A.lazy().mult(B).plus(C).elementMult(C));
+        check(C.elementMult(C.plus(P)), C.lazy().elementMult(C.lazy().plus(P)));
+        check(C.elementMult(C).elementPower(0.5), C.lazy().elementOp(Math::abs));
+    }
+
+    /**
+     * Output is one of the inputs
+     */
+    @Test void eval_aliased() {
+        SimpleMatrix expected = A.mult(B).plus(C);
+        SimpleMatrix found = C.lazy().plus(A.lazy().mult(B)).eval(C);
+        assertSame(C, found);
+        assertTrue(expected.isIdentical(found, UtilEjml.TEST_F64));
+
+        SimpleMatrix Q = SimpleMatrix.random_DDRM(3, 3, -1, 1, rand);
+        expected = Q.transpose().plus(Q);
+        Q.lazy().transpose().plus(Q).eval(Q);
+        assertTrue(expected.isIdentical(Q, UtilEjml.TEST_F64));
+    }
+
+    /**
+     * The output is an input and its shape changes. It must not be reshaped until after it has been read
+     */
+    @Test void eval_aliased_shapeChange() {
+        SimpleMatrix R = SimpleMatrix.random_DDRM(3, 5, -1, 1, rand);
+        SimpleMatrix expected = R.transpose();
+        SimpleMatrix found = R.lazy().transpose().eval(R);
+        assertSame(R, found);
+        assertEquals(5, R.numRows());
+        assertEquals(3, R.numCols());
+        assertTrue(expected.isIdentical(R, UtilEjml.TEST_F64));
+
+        // the number of elements increases, which can require new memory
+        SimpleMatrix S = SimpleMatrix.random_DDRM(6, 2, -1, 1, rand);
+        SimpleMatrix T = SimpleMatrix.random_DDRM(2, 7, -1, 1, rand);
+        expected = S.mult(T);
+        S.lazy().mult(T).eval(S);
+        assertTrue(expected.isIdentical(S, UtilEjml.TEST_F64));
+
+        // the aliased matrix is the right side of the multiplication
+        SimpleMatrix U = SimpleMatrix.random_DDRM(3, 2, -1, 1, rand);
+        T = SimpleMatrix.random_DDRM(2, 7, -1, 1, rand);
+        expected = U.mult(T);
+        U.lazy().mult(T).eval(T);
+        assertTrue(expected.isIdentical(T, UtilEjml.TEST_F64));
+    }
+
+    /**
+     * The expression references the inputs so evaluating again after they change gives new results. The
+     * same temporary matrices should be used each time
+     */
+    @Test void eval_reuse() {
+        SimpleExpression<SimpleMatrix> expr = A.lazy().plus(A).mult(B).mult(x);
+        SimpleMatrix output = new SimpleMatrix(1, 1);
+        DMatrixRMaj internal = output.getDDRM();
+        expr.eval(output);
+        int workspaceSize = expr.workspace.size();
+
+        A.set(0, 1, 100);
+        expr.eval(output);
+        assertSame(internal, output.mat);
+        assertEquals(workspaceSize, expr.workspace.size());
+        assertTrue(A.plus(A).mult(B).mult(x).isIdentical(output, UtilEjml.TEST_F64));
+    }
+
+    @Test void eval_otherType() {
+        SimpleMatrix output = new SimpleMatrix(1, 1, MatrixType.FDRM);
+        A.lazy().mult(B).eval(output);
+        assertSame(MatrixType.DDRM, output.getType());
+        assertTrue(A.mult(B).isIdentical(output, UtilEjml.TEST_F64));
+
+        // inputs are converted
+        SimpleMatrix S = SimpleMatrix.wrap(A.getDSCC());
+        assertTrue(A.mult(B).isIdentical(S.lazy().mult(B).eval(), UtilEjml.TEST_F64));
+    }
+
+    @Test void badShapes() {
+        assertThrows(MatrixDimensionException.class, () -> A.lazy().mult(C));
+        assertThrows(MatrixDimensionException.class, () -> A.lazy().plus(B));
+        assertThrows(MatrixDimensionException.class, () -> A.lazy().elementMult(B));
+        // shapes are correct after a transpose
+        A.lazy().transpose().mult(C);
+        assertEquals(3, A.lazy().transpose().mult(C).numRows());
+        assertEquals(5, A.lazy().transpose().mult(C).numCols());
+    }
+
+    private void check( SimpleMatrix expected, SimpleExpression<SimpleMatrix> expr ) {
+        assertEquals(expected.numRows(), expr.numRows());
+        assertEquals(expected.numCols(), expr.numCols());
+        SimpleMatrix found = expr.eval();
+        assertTrue(expected.isIdentical(found, UtilEjml.TEST_F64), expr.toString());
+    }
+}
@@ -21,6 +21,8 @@ package org.ejml.simple;
 import org.ejml.EjmlStandardJUnit;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.ConcurrentOperation;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.*;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.NormOps_DDRM;
@@ -406,6 +408,28 @@ public class TestSimpleMatrix extends EjmlStandardJUnit {
         EjmlUnitTests.assertEquals(c_dense, c.mat);
     }
 
+    /**
+     * Over determined system with the concurrent QR threshold low enough that the concurrent solver is used
+     */
+    @Test
+    public void solve_notsquare_concurrent() {
+        int original = EjmlConcurrency.getThreshold(ConcurrentOperation.DENSE_QR);
+        try {
+            EjmlConcurrency.setThreshold(ConcurrentOperation.DENSE_QR, 0);
+
+            SimpleMatrix a = SimpleMatrix.random_DDRM(40, 10, 0, 1, rand);
+            SimpleMatrix b = SimpleMatrix.random_DDRM(40, 2, 0, 1, rand);
+            SimpleMatrix c = a.solve(b);
+
+            DMatrixRMaj c_dense = new DMatrixRMaj(10, 2);
+            CommonOps_DDRM.solve((DMatrixRMaj)a.mat, (DMatrixRMaj)b.mat, c_dense);
+
+            EjmlUnitTests.assertEquals(c_dense, c.getDDRM(), UtilEjml.TEST_F64);
+        } finally {
+            EjmlConcurrency.setThreshold(ConcurrentOperation.DENSE_QR, original);
+        }
+    }
+
     @Test
     public void set_double() {
         SimpleMatrix a = new SimpleMatrix(3, 3);
@@ -1026,6 +1050,150 @@ public class TestSimpleMatrix extends EjmlStandardJUnit {
 
     }
 
+    /**
+     * Output versions of operations should produce the same results as the versions which return a new matrix
+     * and reuse the output's internal matrix
+     */
+    @Test
+    public void outputVariants() {
+        SimpleMatrix a = SimpleMatrix.random_DDRM(3, 3, 0, 1, rand);
+        SimpleMatrix b = SimpleMatrix.random_DDRM(3, 3, 0, 1, rand);
+        // larger than needed so that it will be reshaped
+        SimpleMatrix output = new SimpleMatrix(4, 5);
+        DMatrixRMaj internal = output.getDDRM();
+
+        EjmlUnitTests.assertEquals(a.transpose().mat, a.transpose(output).mat);
+        EjmlUnitTests.assertEquals(a.mult(b).mat, a.mult(b, output).mat);
+        EjmlUnitTests.assertEquals(a.plus(b).mat, a.plus(b, output).mat);
+        EjmlUnitTests.assertEquals(a.minus(b).mat, a.minus(b, output).mat);
+        EjmlUnitTests.assertEquals(a.plus(1.5, b).mat, a.plus(1.5, b, output).mat);
+        EjmlUnitTests.assertEquals(a.scale(1.5).mat, a.scale(1.5, output).mat);
+        EjmlUnitTests.assertEquals(a.divide(1.5).mat, a.divide(1.5, output).mat);
+        EjmlUnitTests.assertEquals(a.elementMult(b).mat, a.elementMult(b, output).mat);
+        EjmlUnitTests.assertEquals(a.elementDiv(b).mat, a.elementDiv(b, output).mat);
+        EjmlUnitTests.assertEquals(a.invert().mat, a.invert(output).mat);
+        EjmlUnitTests.assertEquals(a.solve(b).mat, a.solve(b, output).mat);
+
+        assertSame(internal, output.mat);
+        assertSame(output, a.mult(b, output));
+
+        // aliasing which isn't allowed
+        assertThrows(IllegalArgumentException.class, () -> a.transpose(a));
+        assertThrows(IllegalArgumentException.class, () -> a.mult(b, b));
+        assertThrows(IllegalArgumentException.class, () -> a.mult(b, a));
+        assertThrows(IllegalArgumentException.class, () -> a.solve(b, b));
+        assertThrows(IllegalArgumentException.class, () -> a.solve(b, a));
+
+        // the check must happen before 'a' is reshaped into a 3x2 output
+        SimpleMatrix c = SimpleMatrix.random_DDRM(3, 2, 0, 1, rand);
+        SimpleMatrix a_copy = a.copy();
+        assertThrows(IllegalArgumentException.class, () -> a.mult(c, a));
+        assertThrows(IllegalArgumentException.class, () -> a.solve(c, a));
+        EjmlUnitTests.assertEquals(a_copy.mat, a.mat);
+    }
+
+    /**
+     * If the output is of the wrong type it should be changed into the type of the results
+     */
+    @Test
+    public void outputVariants_changeType() {
+        SimpleMatrix a = SimpleMatrix.random_DDRM(3, 2, 0, 1, rand);
+        SimpleMatrix b = SimpleMatrix.random_DDRM(2, 3, 0, 1, rand);
+        SimpleMatrix output = new SimpleMatrix(1, 1, MatrixType.FDRM);
+
+        a.mult(b, output);
+        assertSame(MatrixType.DDRM, output.getType());
+        EjmlUnitTests.assertEquals(a.mult(b).mat, output.mat);
+
+        // mixed sparse and dense which is handled by a specialized function
+        SimpleMatrix sparse = SimpleMatrix.wrap(RandomMatrices_DSCC.rectangle(3, 2, 4, rand));
+        sparse.mult(b, output);
+        assertSame(MatrixType.DDRM, output.getType());
+        assertTrue(SimpleMatrix.wrap(sparse.getDDRM()).mult(b).isIdentical(output, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void inPlace() {
+        SimpleMatrix a = SimpleMatrix.random_DDRM(3, 2, 0, 1, rand);
+        SimpleMatrix b = SimpleMatrix.random_DDRM(3, 2, 0.5, 1, rand);
+        DMatrixRMaj internal = a.getDDRM();
+
+        SimpleMatrix expected = a.plus(b);
+        assertSame(a, a.plusInPlace(b));
+        EjmlUnitTests.assertEquals(expected.mat, a.mat);
+
+        expected = a.minus(b);
+        a.minusInPlace(b);
+        EjmlUnitTests.assertEquals(expected.mat, a.mat);
+
+        expected = a.plus(-0.5, b);
+        a.plusInPlace(-0.5, b);
+        EjmlUnitTests.assertEquals(expected.mat, a.mat);
+
+        expected = a.scale(2.5);
+        a.scaleInPlace(2.5);
+        EjmlUnitTests.assertEquals(expected.mat, a.mat);
+
+        expected = a.divide(2.5);
+        a.divideInPlace(2.5);
+        EjmlUnitTests.assertEquals(expected.mat, a.mat);
+
+        expected = a.elementMult(b);
+        a.elementMultInPlace(b);
+        EjmlUnitTests.assertEquals(expected.mat, a.mat);
+
+        assertSame(internal, a.mat);
+    }
+
+    @Test
+    public void inPlace_sparse() {
+        SimpleMatrix a = SimpleMatrix.wrap(RandomMatrices_DSCC.rectangle(4, 3, 6, rand));
+        SimpleMatrix b = SimpleMatrix.wrap(RandomMatrices_DSCC.rectangle(4, 3, 5, rand));
+        Matrix internal = a.mat;
+
+        SimpleMatrix expected = a.plus(-0.5, b);
+        a.plusInPlace(-0.5, b);
+        assertTrue(expected.isIdentical(a, UtilEjml.TEST_F64));
+
+        expected = a.elementMult(b);
+        a.elementMultInPlace(b);
+        assertTrue(expected.isIdentical(a, UtilEjml.TEST_F64));
+        assertSame(internal, a.mat);
+
+        // the results can't be stored in a sparse matrix
+        assertThrows(IllegalArgumentException.class, () -> a.plusInPlace(SimpleMatrix.random_DDRM(4, 3, 0, 1, rand)));
+    }
+
+    /**
+     * Dense matrix operations have no state and should be shared
+     */
+    @Test
+    public void sharedDenseOps() {
+        assertSame(new SimpleMatrix(2, 2).ops, new SimpleMatrix(3, 1).ops);
+        assertNotSame(new SimpleMatrix(2, 2, MatrixType.DSCC).ops, new SimpleMatrix(2, 2, MatrixType.DSCC).ops);
+    }
+
+    /**
+     * Sparse solve should solve for X and not overwrite B
+     */
+    @Test
+    public void solve_sparseDense() {
+        SimpleMatrix A = SimpleMatrix.wrap(RandomMatrices_DSCC.triangleLower(4, 0, 10, 1.0, 2.0, rand));
+        SimpleMatrix B = SimpleMatrix.random_DDRM(4, 2, 0, 1, rand);
+        SimpleMatrix B_orig = B.copy();
+
+        SimpleMatrix X = A.solve(B);
+        assertSame(MatrixType.DDRM, X.getType());
+        assertTrue(B_orig.isIdentical(B, 0.0));
+        assertTrue(SimpleMatrix.wrap(A.getDDRM()).solve(B).isIdentical(X, UtilEjml.TEST_F64));
+
+        // Sparse-sparse should produce the same solution
+        SimpleMatrix B_sparse = SimpleMatrix.wrap(B.getDSCC());
+        SimpleMatrix X_sparse = A.solve(B_sparse);
+        assertSame(MatrixType.DSCC, X_sparse.getType());
+        assertTrue(X.isIdentical(SimpleMatrix.wrap(X_sparse.getDDRM()), UtilEjml.TEST_F64));
+    }
+
     /**
      * See if it correctly calls a specialized function that can handle different matrix types
      */
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.data.MatrixType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSimpleMatrixPool extends EjmlStandardJUnit {
+    @Test
+    public void get_release() {
+        SimpleMatrixPool<SimpleMatrix> pool = SimpleMatrixPool.create();
+
+        SimpleMatrix a = pool.get(3, 4);
+        assertEquals(3, a.numRows());
+        assertEquals(4, a.numCols());
+        assertSame(MatrixType.DDRM, a.getType());
+        assertEquals(1, pool.getBorrowedCount());
+
+        pool.release(a);
+        assertEquals(0, pool.getBorrowedCount());
+        assertEquals(1, pool.getAvailableCount());
+
+        // the released matrix is reused and reshaped
+        SimpleMatrix b = pool.get(2, 2);
+        assertSame(a, b);
+        assertEquals(2, b.numRows());
+        assertEquals(2, b.numCols());
+
+        // can't release twice
+        pool.release(b);
+        assertThrows(IllegalArgumentException.class, () -> pool.release(b));
+    }
+
+    @Test
+    public void get_type() {
+        SimpleMatrixPool<SimpleMatrix> pool = SimpleMatrixPool.create();
+        SimpleMatrix a = pool.get(3, 4, MatrixType.FDRM);
+        assertSame(MatrixType.FDRM, a.getType());
+        pool.releaseAll();
+
+        // Should not reuse a matrix of a different type
+        SimpleMatrix b = pool.get(3, 4, MatrixType.DDRM);
+        assertNotSame(a, b);
+        assertSame(MatrixType.DDRM, b.getType());
+        assertSame(a, pool.get(3, 4, MatrixType.FDRM));
+    }
+
+    /**
+     * A matrix with the same shape is preferred
+     */
+    @Test
+    public void get_sameShape() {
+        SimpleMatrixPool<SimpleMatrix> pool = SimpleMatrixPool.create();
+        SimpleMatrix a = pool.get(3, 4);
+        SimpleMatrix b = pool.get(5, 1);
+        SimpleMatrix c = pool.get(2, 2);
+        pool.releaseAll();
+
+        assertSame(b, pool.get(5, 1));
+        assertSame(a, pool.get(3, 4));
+        assertSame(c, pool.get(1, 1));
+    }
+
+    /**
+     * Once the pool has grown, repeating the same sequence of operations shouldn't create new matrices
+     */
+    @Test
+    public void releaseAll_reuse() {
+        SimpleMatrixPool<SimpleMatrix> pool = SimpleMatrixPool.create();
+        SimpleMatrix A = SimpleMatrix.random_DDRM(4, 4, -1, 1, rand);
+        SimpleMatrix x = SimpleMatrix.random_DDRM(4, 1, -1, 1, rand);
+
+        for (int trial = 0; trial < 3; trial++) {
+            SimpleMatrix y = A.mult(x, pool.get(4, 1)).plusInPlace(A.transpose(pool.get(4, 4)).mult(x, pool.get(4, 1)));
+            assertTrue(A.mult(x).plus(A.transpose().mult(x)).isIdentical(y, 0.0));
+            assertEquals(3, pool.getBorrowedCount());
+            pool.releaseAll();
+            // no new matrices were created after the first iteration
+            assertEquals(3, pool.getAvailableCount());
+        }
+    }
+}
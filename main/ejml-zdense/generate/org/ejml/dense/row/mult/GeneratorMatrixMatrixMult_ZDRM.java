@@ -35,10 +35,13 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                 "import org.ejml.data.ZMatrixRMaj;\n" +
                 "import org.ejml.dense.row.CommonOps_ZDRM;\n" +
                 "import org.jetbrains.annotations.Nullable;\n" +
+                "//CONCURRENT_INLINE import org.ejml.concurrency.EjmlConcurrency;\n" +
                 "\n" +
                 "/**\n" +
                 " * <p>Matrix multiplication routines for complex row matrices in a row-major format.</p>\n" +
-                " * \n" +
+                " *\n" +
+                " * <p>Each row (or column for transposed inputs) of the output is computed independently of the others so\n" +
+                " * that the outer loop can be split up between threads.</p>\n" +
                 standardClassDocClosing("Peter Abeles") +
                 "@SuppressWarnings(\"Duplicates\")\n" +
                 "public class "+className+" {\n";
@@ -76,7 +79,7 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
         String tempVars = "";
 
         if( alpha ) {
-            tempVars = "        double realTmp,imagTmp;";
+            tempVars = "            double realTmp,imagTmp;\n";
             valLine = "            realTmp = a.data[indexA++];\n" +
                       "            imagTmp = a.data[indexA++];\n" +
                       "            realA = realAlpha*realTmp - imagAlpha*imagTmp;\n" +
@@ -89,16 +92,16 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
         String assignment = add ? "+=" : "=";
 
         String foo = header + makeBoundsCheck(false,false, null)+handleZeros(add) +
-                "        double realA,imagA;\n" +
-                tempVars +
-                "\n" +
-                "        int indexCbase= 0;\n" +
-                "        int strideA = a.getRowStride();\n" +
-                "        int strideB = b.getRowStride();\n" +
-                "        int strideC = c.getRowStride();\n" +
-                "        int endOfKLoop = b.numRows*strideB;\n" +
+                "        final int strideA = a.getRowStride();\n" +
+                "        final int strideB = b.getRowStride();\n" +
+                "        final int strideC = c.getRowStride();\n" +
+                "        final int endOfKLoop = b.numRows*strideB;\n" +
                 "\n" +
+                "        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {\n" +
                 "        for( int i = 0; i < a.numRows; i++ ) {\n" +
+                "            double realA,imagA;\n" +
+                tempVars +
+                "            int indexCbase = i*strideC;\n" +
                 "            int indexA = i*strideA;\n" +
                 "\n" +
                 "            // need to assign c.data to a value initially\n" +
@@ -131,8 +134,8 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                 "                    c.data[indexC++] += realA*imgB + imagA*realB;\n" +
                 "                }\n" +
                 "            }\n" +
-                "            indexCbase += strideC;\n" +
                 "        }\n" +
+                "        //CONCURRENT_ABOVE });\n" +
                 "    }\n\n";
 
         out.print(foo);
@@ -155,13 +158,13 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(false,false, null)+
-                        "        int aIndexStart = 0;\n" +
-                        "        int indexC = 0;\n" +
-                        "\n" +
-                        "        int strideA = a.getRowStride();\n" +
-                        "        int strideB = b.getRowStride();\n" +
+                        "        final int strideA = a.getRowStride();\n" +
+                        "        final int strideB = b.getRowStride();\n" +
                         "\n" +
+                        "        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {\n" +
                         "        for( int i = 0; i < a.numRows; i++ ) {\n" +
+                        "            int aIndexStart = i*strideA;\n" +
+                        "            int indexC = i*c.numCols*2;\n" +
                         "            for( int j = 0; j < b.numCols; j++ ) {\n" +
                         "                double realTotal = 0;\n" +
                         "                double imgTotal = 0;\n" +
@@ -184,8 +187,8 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                         "\n" +
                         valLine +
                         "            }\n" +
-                        "            aIndexStart += strideA;\n" +
                         "        }\n" +
+                        "        //CONCURRENT_ABOVE });\n" +
                         "    }\n\n";
 
         out.print(foo);
@@ -201,7 +204,7 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
         String tempVars = "";
 
         if( alpha ) {
-            tempVars = "        double realTmp,imagTmp;\n";
+            tempVars = "            double realTmp,imagTmp;\n";
             valLine1 = "            realTmp = a.data[i*2];\n" +
                        "            imagTmp = a.data[i*2+1];\n" +
                        "            realA = realAlpha*realTmp + imagAlpha*imagTmp;\n" +
@@ -220,10 +223,10 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(true,false, null)+handleZeros(add)+
-                        "        double realA,imagA;\n" +
-                        tempVars +
-                        "\n" +
+                        "        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {\n" +
                         "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                        "            double realA,imagA;\n" +
+                        tempVars +
                         "            int indexC_start = i*c.numCols*2;\n" +
                         "\n" +
                         "            // first assign R\n" +
@@ -251,6 +254,7 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                         "                }\n" +
                         "            }\n" +
                         "        }\n" +
+                        "        //CONCURRENT_ABOVE });\n" +
                         "    }\n";
         out.print(foo);
     }
@@ -272,9 +276,9 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(true,false, null)+
-                        "        int indexC = 0;\n" +
-                        "\n" +
+                        "        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {\n" +
                         "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                        "            int indexC = i*c.numCols*2;\n" +
                         "            for( int j = 0; j < b.numCols; j++ ) {\n" +
                         "                int indexA = i*2;\n" +
                         "                int indexB = j*2;\n" +
@@ -297,6 +301,7 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                         valLine +
                         "            }\n" +
                         "        }\n" +
+                        "        //CONCURRENT_ABOVE });\n" +
                         "    }\n";
 
          out.print(foo);
@@ -319,10 +324,10 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(false,true, null)+
-                        "        int indexC = 0;\n" +
-                        "        int aIndexStart = 0;\n" +
-                        "\n" +
+                        "        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, xA -> {\n" +
                         "        for( int xA = 0; xA < a.numRows; xA++ ) {\n" +
+                        "            int indexC = xA*c.numCols*2;\n" +
+                        "            int aIndexStart = xA*a.numCols*2;\n" +
                         "            int end = aIndexStart + b.numCols*2;\n" +
                         "            int indexB = 0;\n"+
                         "            for( int xB = 0; xB < b.numRows; xB++ ) {\n" +
@@ -342,8 +347,8 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                         "\n" +
                         valLine +
                         "            }\n" +
-                        "            aIndexStart += a.numCols*2;\n" +
                         "        }\n" +
+                        "        //CONCURRENT_ABOVE });\n" +
                         "    }\n";
         out.print(foo);
     }
@@ -365,9 +370,9 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
 
         String foo =
                 header + makeBoundsCheck(true,true, null)+
-                        "        int indexC = 0;\n" +
-                        "\n" +
+                        "        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {\n" +
                         "        for( int i = 0; i < a.numCols; i++ ) {\n" +
+                        "            int indexC = i*c.numCols*2;\n" +
                         "            int indexB = 0;\n"+
                         "            for( int j = 0; j < b.numRows; j++ ) {\n" +
                         "                int indexA = i*2;\n" +
@@ -389,6 +394,7 @@ public class GeneratorMatrixMatrixMult_ZDRM extends CodeGeneratorBase {
                         valLine+
                         "            }\n" +
                         "        }\n"+
+                        "        //CONCURRENT_ABOVE });\n" +
                         "    }\n";
         out.print(foo);
     }
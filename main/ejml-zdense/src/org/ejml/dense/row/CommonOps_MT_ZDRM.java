@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.misc.TransposeAlgs_MT_ZDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMult_MT_ZDRM;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Functions from {@link CommonOps_ZDRM} with concurrent implementations.
+ *
+ * @author Peter Abeles
+ */
+public class CommonOps_MT_ZDRM {
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { * a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void mult( ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        if (b.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH) {
+            MatrixMatrixMult_MT_ZDRM.mult_reorder(a, b, c);
+        } else {
+            MatrixMatrixMult_MT_ZDRM.mult_small(a, b, c);
+        }
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = &alpha; * a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &alpha; &sum;<sub>k=1:n</sub> { * a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param realAlpha real component of scaling factor.
+     * @param imgAlpha imaginary component of scaling factor.
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void mult( double realAlpha, double imgAlpha, ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        if (b.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH) {
+            MatrixMatrixMult_MT_ZDRM.mult_reorder(realAlpha, imgAlpha, a, b, c);
+        } else {
+            MatrixMatrixMult_MT_ZDRM.mult_small(realAlpha, imgAlpha, a, b, c);
+        }
+    }
+
+    /**
+     * <p>
+     * Performs the following operation:<br>
+     * <br>
+     * c = c + a * b<br>
+     * c<sub>ij</sub> = c<sub>ij</sub> + &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multAdd( ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        if (b.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH) {
+            MatrixMatrixMult_MT_ZDRM.multAdd_reorder(a, b, c);
+        } else {
+            MatrixMatrixMult_MT_ZDRM.multAdd_small(a, b, c);
+        }
+    }
+
+    /**
+     * <p>
+     * Performs the following operation:<br>
+     * <br>
+     * c = c + &alpha; * a * b<br>
+     * c<sub>ij</sub> = c<sub>ij</sub> +  &alpha; * &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param realAlpha real component of scaling factor.
+     * @param imgAlpha imaginary component of scaling factor.
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multAdd( double realAlpha, double imgAlpha, ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        if (b.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH) {
+            MatrixMatrixMult_MT_ZDRM.multAdd_reorder(realAlpha, imgAlpha, a, b, c);
+        } else {
+            MatrixMatrixMult_MT_ZDRM.multAdd_small(realAlpha, imgAlpha, a, b, c);
+        }
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a<sup>H</sup> * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransA( ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        if (a.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH ||
+                b.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH) {
+            MatrixMatrixMult_MT_ZDRM.multTransA_reorder(a, b, c);
+        } else {
+            MatrixMatrixMult_MT_ZDRM.multTransA_small(a, b, c);
+        }
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = &alpha; * a<sup>H</sup> * b <br>
+     * <br>
+     * c<sub>ij</sub> = &alpha; &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param realAlpha Real component of scaling factor.
+     * @param imagAlpha Imaginary component of scaling factor.
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransA( double realAlpha, double imagAlpha, ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        if (a.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH ||
+                b.numCols >= EjmlParameters.CMULT_COLUMN_SWITCH) {
+            MatrixMatrixMult_MT_ZDRM.multTransA_reorder(realAlpha, imagAlpha, a, b, c);
+        } else {
+            MatrixMatrixMult_MT_ZDRM.multTransA_small(realAlpha, imagAlpha, a, b, c);
+        }
+    }
+
+    /**
+     * <p>
+     * Performs the following operation:<br>
+     * <br>
+     * c = a * b<sup>H</sup> <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransB( ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        MatrixMatrixMult_MT_ZDRM.multTransB(a, b, c);
+    }
+
+    /**
+     * <p>
+     * Performs the following operation:<br>
+     * <br>
+     * c =  &alpha; * a * b<sup>H</sup> <br>
+     * c<sub>ij</sub> = &alpha; &sum;<sub>k=1:n</sub> {  a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param realAlpha Real component of scaling factor.
+     * @param imagAlpha Imaginary component of scaling factor.
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransB( double realAlpha, double imagAlpha, ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        MatrixMatrixMult_MT_ZDRM.multTransB(realAlpha, imagAlpha, a, b, c);
+    }
+
+    /**
+     * <p>
+     * Performs the following operation:<br>
+     * <br>
+     * c = a<sup>T</sup> * b<sup>T</sup><br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransAB( ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        // the auxiliary variant is sequential and slower once the work is split across threads
+        MatrixMatrixMult_MT_ZDRM.multTransAB(a, b, c);
+    }
+
+    /**
+     * <p>
+     * Performs the following operation:<br>
+     * <br>
+     * c = &alpha; * a<sup>H</sup> * b<sup>H</sup><br>
+     * c<sub>ij</sub> = &alpha; &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param realAlpha Real component of scaling factor.
+     * @param imagAlpha Imaginary component of scaling factor.
+     * @param a The left matrix in the multiplication operation. Not modified.
+     * @param b The right matrix in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Modified.
+     */
+    public static void multTransAB( double realAlpha, double imagAlpha, ZMatrixRMaj a, ZMatrixRMaj b, ZMatrixRMaj c ) {
+        // the auxiliary variant is sequential and slower once the work is split across threads
+        MatrixMatrixMult_MT_ZDRM.multTransAB(realAlpha, imagAlpha, a, b, c);
+    }
+
+    /**
+     * <p>Performs an "in-place" transpose.</p>
+     *
+     * <p>
+     * For square matrices the transpose is truly in-place and does not require
+     * additional memory.  For non-square matrices, internally a temporary matrix is declared and
+     * {@link #transpose(ZMatrixRMaj, ZMatrixRMaj)} is invoked.
+     * </p>
+     *
+     * @param mat The matrix that is to be transposed. Modified.
+     */
+    public static void transpose( ZMatrixRMaj mat ) {
+        if (mat.numCols == mat.numRows) {
+            TransposeAlgs_MT_ZDRM.square(mat);
+        } else {
+            ZMatrixRMaj b = new ZMatrixRMaj(mat.numCols, mat.numRows);
+            transpose(mat, b);
+            mat.reshape(b.numRows, b.numCols);
+            mat.setTo(b);
+        }
+    }
+
+    /**
+     * <p>Performs an "in-place" conjugate transpose.</p>
+     *
+     * @param mat The matrix that is to be transposed. Modified.
+     * @see #transpose(ZMatrixRMaj)
+     */
+    public static void transposeConjugate( ZMatrixRMaj mat ) {
+        if (mat.numCols == mat.numRows) {
+            TransposeAlgs_MT_ZDRM.squareConjugate(mat);
+        } else {
+            ZMatrixRMaj b = new ZMatrixRMaj(mat.numCols, mat.numRows);
+            transposeConjugate(mat, b);
+            mat.reshape(b.numRows, b.numCols);
+            mat.setTo(b);
+        }
+    }
+
+    /**
+     * <p>
+     * Transposes input matrix 'a' and stores the results in output matrix 'b':<br>
+     * <br>
+     * b<sub>ij</sub> = a<sub>ji</sub><br>
+     * where 'b' is the transpose of 'a'.
+     * </p>
+     *
+     * @param input The original matrix.  Not modified.
+     * @param output Where the transpose is stored. If null a new matrix is created. Modified.
+     * @return The transposed matrix.
+     */
+    public static ZMatrixRMaj transpose( ZMatrixRMaj input, @Nullable ZMatrixRMaj output ) {
+        output = UtilEjml.reshapeOrDeclare(output, input.numCols, input.numRows);
+
+        if (input.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
+                input.numCols > EjmlParameters.TRANSPOSE_SWITCH)
+            TransposeAlgs_MT_ZDRM.block(input, output, EjmlParameters.BLOCK_WIDTH);
+        else
+            TransposeAlgs_MT_ZDRM.standard(input, output);
+
+        return output;
+    }
+
+    /**
+     * <p>
+     * Conjugate transposes input matrix 'a' and stores the results in output matrix 'b':<br>
+     * <br>
+     * b-real<sub>i,j</sub> = a-real<sub>j,i</sub><br>
+     * b-imaginary<sub>i,j</sub> = -1*a-imaginary<sub>j,i</sub><br>
+     * where 'b' is the transpose of 'a'.
+     * </p>
+     *
+     * @param input The original matrix.  Not modified.
+     * @param output Where the transpose is stored. If null a new matrix is created. Modified.
+     * @return The transposed matrix.
+     */
+    public static ZMatrixRMaj transposeConjugate( ZMatrixRMaj input, @Nullable ZMatrixRMaj output ) {
+        output = UtilEjml.reshapeOrDeclare(output, input.numCols, input.numRows);
+
+        if (input.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
+                input.numCols > EjmlParameters.TRANSPOSE_SWITCH)
+            TransposeAlgs_MT_ZDRM.blockConjugate(input, output, EjmlParameters.BLOCK_WIDTH);
+        else
+            TransposeAlgs_MT_ZDRM.standardConjugate(input, output);
+
+        return output;
+    }
+}
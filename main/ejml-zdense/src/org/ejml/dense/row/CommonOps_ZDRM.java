@@ -718,7 +718,11 @@ public class CommonOps_ZDRM {
     public static ZMatrixRMaj transpose( ZMatrixRMaj input, @Nullable ZMatrixRMaj output ) {
         output = UtilEjml.reshapeOrDeclare(output, input.numCols, input.numRows);
 
-        TransposeAlgs_ZDRM.standard(input, output);
+        if (input.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
+                input.numCols > EjmlParameters.TRANSPOSE_SWITCH)
+            TransposeAlgs_ZDRM.block(input, output, EjmlParameters.BLOCK_WIDTH);
+        else
+            TransposeAlgs_ZDRM.standard(input, output);
 
         return output;
     }
@@ -739,7 +743,11 @@ public class CommonOps_ZDRM {
     public static ZMatrixRMaj transposeConjugate( ZMatrixRMaj input, @Nullable ZMatrixRMaj output ) {
         output = UtilEjml.reshapeOrDeclare(output, input.numCols, input.numRows);
 
-        TransposeAlgs_ZDRM.standardConjugate(input, output);
+        if (input.numRows > EjmlParameters.TRANSPOSE_SWITCH &&
+                input.numCols > EjmlParameters.TRANSPOSE_SWITCH)
+            TransposeAlgs_ZDRM.blockConjugate(input, output, EjmlParameters.BLOCK_WIDTH);
+        else
+            TransposeAlgs_ZDRM.standardConjugate(input, output);
 
         return output;
     }
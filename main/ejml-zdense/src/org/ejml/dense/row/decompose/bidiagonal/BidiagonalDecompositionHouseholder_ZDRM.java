@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.bidiagonal;
+
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.decompose.UtilDecompositons_ZDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Complex {@link BidiagonalDecomposition_F64 bidiagonal decomposition} computed using Householder reflectors:<br>
+ * <br>
+ * A = U*B*V<sup>H</sup><br>
+ * <br>
+ * where A is m by n with m &ge; n, U and V are unitary, and B is upper bidiagonal.
+ * </p>
+ *
+ * <p>
+ * Each reflector is selected so that the element it leaves behind is real, just like LAPACK's ZGEBRD.  As a
+ * result B is a real matrix and can be passed directly to a real bidiagonal QR algorithm.  Because of this
+ * {@link #getDiagonal} returns one real number per element, unlike the interleaved complex arrays used
+ * elsewhere in this package.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecompositionHouseholder_ZDRM
+        implements BidiagonalDecomposition_F64<ZMatrixRMaj> {
+
+    // Bidiagonal matrix is stored along the diagonal. Householder vectors for U are stored below the
+    // diagonal and for V to the right of the super diagonal
+    private final ZMatrixRMaj UBV = new ZMatrixRMaj(1, 1);
+
+    private int m, n;
+
+    // real diagonal and super diagonal of B
+    private double[] diag = new double[0];
+    private double[] off = new double[0];
+
+    // complex tau for each reflector
+    private double[] tauU = new double[0];
+    private double[] tauV = new double[0];
+
+    // storage for the current householder vector and the product with the matrix
+    private double[] u = new double[0];
+    private double[] w = new double[0];
+
+    // tau computed by the last call to computeReflector()
+    private double tauReal, tauImag;
+
+    /**
+     * Decomposes the matrix.  The input matrix is not modified.
+     *
+     * @param A Matrix that is to be decomposed.  Must have at least as many rows as columns.
+     * @return true since it can't fail
+     */
+    @Override
+    public boolean decompose( ZMatrixRMaj A ) {
+        if (A.numRows < A.numCols)
+            throw new IllegalArgumentException("Must be a square or tall matrix");
+
+        init(A);
+
+        for (int k = 0; k < n; k++) {
+            // ---- Zero the column below the diagonal
+            int length = m - k;
+            for (int i = 0; i < length; i++) {
+                int index = ((k + i)*n + k)*2;
+                u[i*2] = UBV.data[index];
+                u[i*2 + 1] = UBV.data[index + 1];
+            }
+            diag[k] = computeReflector(length);
+            tauU[k*2] = tauReal;
+            tauU[k*2 + 1] = tauImag;
+            // apply H^H which has the conjugate tau
+            multLeft(UBV, u, tauReal, -tauImag, k, k + 1, n, w);
+            UBV.set(k, k, diag[k], 0);
+            for (int i = 1; i < length; i++) {
+                int index = ((k + i)*n + k)*2;
+                UBV.data[index] = u[i*2];
+                UBV.data[index + 1] = u[i*2 + 1];
+            }
+
+            if (k + 1 >= n)
+                continue;
+
+            // ---- Zero the row to the right of the super diagonal. The conjugate of the row is reflected so that
+            // multiplying by the reflector from the right produces a real element
+            length = n - k - 1;
+            int rowStart = (k*n + k + 1)*2;
+            for (int i = 0; i < length; i++) {
+                u[i*2] = UBV.data[rowStart + i*2];
+                u[i*2 + 1] = -UBV.data[rowStart + i*2 + 1];
+            }
+            off[k] = computeReflector(length);
+            tauV[k*2] = tauReal;
+            tauV[k*2 + 1] = tauImag;
+            multRight(UBV, u, tauReal, tauImag, k + 1, m, k + 1);
+            UBV.set(k, k + 1, off[k], 0);
+            System.arraycopy(u, 2, UBV.data, rowStart + 2, (length - 1)*2);
+        }
+
+        return true;
+    }
+
+    private void init( ZMatrixRMaj A ) {
+        m = A.numRows;
+        n = A.numCols;
+
+        UBV.reshape(m, n);
+        System.arraycopy(A.data, 0, UBV.data, 0, m*n*2);
+
+        if (diag.length < n) {
+            diag = new double[n];
+            off = new double[n];
+            tauU = new double[n*2];
+            tauV = new double[n*2];
+        }
+        if (u.length < m*2) {
+            u = new double[m*2];
+            w = new double[m*2];
+        }
+    }
+
+    /**
+     * Computes the reflector H = I - tau*u*u<sup>H</sup> such that H<sup>H</sup>*x = [beta,0,...,0]<sup>T</sup>
+     * where beta is real and x is the vector stored in 'u'.  On output 'u' contains the Householder vector with
+     * u[0] = 1 and tau is saved in {@link #tauReal} and {@link #tauImag}.
+     *
+     * @return beta
+     */
+    private double computeReflector( int length ) {
+        tauReal = tauImag = 0;
+
+        double max = 0;
+        for (int i = 0; i < length*2; i++) {
+            max = Math.max(max, Math.abs(u[i]));
+        }
+        double alphaReal = u[0];
+        double alphaImag = u[1];
+        if (max == 0)
+            return 0;
+
+        double xnorm2 = 0;
+        for (int i = 2; i < length*2; i++) {
+            double v = u[i]/max;
+            xnorm2 += v*v;
+        }
+        // already in the desired form
+        if (xnorm2 == 0 && alphaImag == 0)
+            return alphaReal;
+
+        double ar = alphaReal/max;
+        double ai = alphaImag/max;
+        double beta = -Math.copySign(Math.sqrt(ar*ar + ai*ai + xnorm2), alphaReal)*max;
+
+        tauReal = (beta - alphaReal)/beta;
+        tauImag = -alphaImag/beta;
+
+        // u = x/(alpha - beta). Scaled by max to avoid overflow
+        double dr = (alphaReal - beta)/max;
+        double di = ai;
+        double mag2 = (dr*dr + di*di)*max;
+        double invReal = dr/mag2;
+        double invImag = -di/mag2;
+        for (int i = 1; i < length; i++) {
+            double real = u[i*2];
+            double imag = u[i*2 + 1];
+            u[i*2] = real*invReal - imag*invImag;
+            u[i*2 + 1] = real*invImag + imag*invReal;
+        }
+        u[0] = 1;
+        u[1] = 0;
+
+        return beta;
+    }
+
+    /**
+     * Computes A = (I - tau*u*u<sup>H</sup>)*A for rows row0 to the end and columns col0 to col1.  Element 'i' in
+     * 'u' corresponds to row row0+i.
+     */
+    static void multLeft( ZMatrixRMaj A, double[] u, double tauReal, double tauImag,
+                          int row0, int col0, int col1, double[] w ) {
+        if (col0 >= col1 || (tauReal == 0 && tauImag == 0))
+            return;
+
+        final int numCols = A.numCols;
+        final double[] data = A.data;
+
+        // w = u^H*A
+        Arrays.fill(w, col0*2, col1*2, 0);
+        for (int i = row0; i < A.numRows; i++) {
+            double ur = u[(i - row0)*2];
+            double ui = -u[(i - row0)*2 + 1];
+            int index = (i*numCols + col0)*2;
+            for (int j = col0; j < col1; j++) {
+                double ar = data[index++];
+                double ai = data[index++];
+                w[j*2] += ur*ar - ui*ai;
+                w[j*2 + 1] += ur*ai + ui*ar;
+            }
+        }
+
+        // A = A - tau*u*w
+        for (int i = row0; i < A.numRows; i++) {
+            double ur = u[(i - row0)*2];
+            double ui = u[(i - row0)*2 + 1];
+            double cr = tauReal*ur - tauImag*ui;
+            double ci = tauReal*ui + tauImag*ur;
+            int index = (i*numCols + col0)*2;
+            for (int j = col0; j < col1; j++) {
+                double wr = w[j*2];
+                double wi = w[j*2 + 1];
+                data[index++] -= cr*wr - ci*wi;
+                data[index++] -= cr*wi + ci*wr;
+            }
+        }
+    }
+
+    /**
+     * Computes A = A*(I - tau*u*u<sup>H</sup>) for rows row0 to row1 and columns col0 to the end.  Element 'j' in
+     * 'u' corresponds to column col0+j.
+     */
+    static void multRight( ZMatrixRMaj A, double[] u, double tauReal, double tauImag,
+                           int row0, int row1, int col0 ) {
+        if (tauReal == 0 && tauImag == 0)
+            return;
+
+        final int numCols = A.numCols;
+        final double[] data = A.data;
+
+        for (int i = row0; i < row1; i++) {
+            // s = A(i,:)*u
+            int index = (i*numCols + col0)*2;
+            double sr = 0, si = 0;
+            for (int j = col0; j < numCols; j++) {
+                double ar = data[index++];
+                double ai = data[index++];
+                double ur = u[(j - col0)*2];
+                double ui = u[(j - col0)*2 + 1];
+                sr += ar*ur - ai*ui;
+                si += ar*ui + ai*ur;
+            }
+            double cr = tauReal*sr - tauImag*si;
+            double ci = tauReal*si + tauImag*sr;
+
+            // A(i,:) = A(i,:) - tau*s*u^H
+            index = (i*numCols + col0)*2;
+            for (int j = col0; j < numCols; j++) {
+                double ur = u[(j - col0)*2];
+                double ui = -u[(j - col0)*2 + 1];
+                data[index++] -= cr*ur - ci*ui;
+                data[index++] -= cr*ui + ci*ur;
+            }
+        }
+    }
+
+    /**
+     * Returns the real diagonal and super diagonal of B.
+     *
+     * @param diag Storage for the n diagonal elements.
+     * @param off Storage for the n-1 super diagonal elements.
+     */
+    @Override
+    public void getDiagonal( double[] diag, double[] off ) {
+        System.arraycopy(this.diag, 0, diag, 0, n);
+        if (n > 1)
+            System.arraycopy(this.off, 0, off, 0, n - 1);
+    }
+
+    @Override
+    public ZMatrixRMaj getB( @Nullable ZMatrixRMaj B, boolean compact ) {
+        B = UtilDecompositons_ZDRM.checkZeros(B, compact ? n : m, n);
+
+        for (int i = 0; i < n; i++) {
+            B.set(i, i, diag[i], 0);
+            if (i + 1 < n)
+                B.set(i, i + 1, off[i], 0);
+        }
+
+        return B;
+    }
+
+    /**
+     * Returns the unitary U matrix.
+     *
+     * @param U If not null then the results will be stored here.  Otherwise a new matrix will be created.
+     * @param transpose If true the conjugate transpose is returned.
+     * @param compact If true then U is m by n, otherwise m by m.
+     */
+    @Override
+    public ZMatrixRMaj getU( @Nullable ZMatrixRMaj U, boolean transpose, boolean compact ) {
+        int cols = compact ? n : m;
+        ZMatrixRMaj Q = UtilDecompositons_ZDRM.checkIdentity(transpose ? null : U, m, cols);
+
+        for (int k = n - 1; k >= 0; k--) {
+            u[0] = 1;
+            u[1] = 0;
+            for (int i = k + 1; i < m; i++) {
+                int index = (i*n + k)*2;
+                u[(i - k)*2] = UBV.data[index];
+                u[(i - k)*2 + 1] = UBV.data[index + 1];
+            }
+            multLeft(Q, u, tauU[k*2], tauU[k*2 + 1], k, k, cols, w);
+        }
+
+        if (transpose) {
+            U = UtilDecompositons_ZDRM.checkZeros(U, cols, m);
+            CommonOps_ZDRM.transposeConjugate(Q, U);
+            return U;
+        }
+        return Q;
+    }
+
+    /**
+     * Returns the unitary V matrix.  V is always n by n.
+     *
+     * @param V If not null then the results will be stored here.  Otherwise a new matrix will be created.
+     * @param transpose If true the conjugate transpose is returned.
+     * @param compact Ignored since V is square for a tall matrix.
+     */
+    @Override
+    public ZMatrixRMaj getV( @Nullable ZMatrixRMaj V, boolean transpose, boolean compact ) {
+        ZMatrixRMaj Q = UtilDecompositons_ZDRM.checkIdentity(transpose ? null : V, n, n);
+
+        for (int k = n - 2; k >= 0; k--) {
+            int rowStart = (k*n + k + 1)*2;
+            u[0] = 1;
+            u[1] = 0;
+            System.arraycopy(UBV.data, rowStart + 2, u, 2, (n - k - 2)*2);
+            multLeft(Q, u, tauV[k*2], tauV[k*2 + 1], k + 1, k + 1, n, w);
+        }
+
+        if (transpose) {
+            V = UtilDecompositons_ZDRM.checkZeros(V, n, n);
+            CommonOps_ZDRM.transposeConjugate(Q, V);
+            return V;
+        }
+        return Q;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.chol;
+
+import org.ejml.concurrency.EjmlConcurrency;
+
+/**
+ * <p>
+ * Concurrent extension of {@link CholeskyDecompositionInner_ZDRM}.  The elements off the diagonal in
+ * each column (lower) or row (upper) are independent of each other and are computed in parallel. Elements
+ * are split into blocks of at least {@link #getMinBlockSize()} and short columns/rows are processed in the
+ * calling thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyDecompositionInner_MT_ZDRM extends CholeskyDecompositionInner_ZDRM {
+    // minimum number of elements processed by a thread
+    int minBlockSize = 32;
+
+    public CholeskyDecompositionInner_MT_ZDRM() {}
+
+    public CholeskyDecompositionInner_MT_ZDRM( boolean lower ) {
+        super(lower);
+    }
+
+    @Override
+    protected void lowerColumn( int i, double real_el_ii ) {
+        if (n - i - 1 < 2*minBlockSize) {
+            super.lowerColumn(i, real_el_ii);
+            return;
+        }
+        EjmlConcurrency.loopBlocks(i + 1, n, minBlockSize, ( j0, j1 ) -> {
+            for (int j = j0; j < j1; j++) {
+                lowerElement(i, j, real_el_ii);
+            }
+        });
+    }
+
+    @Override
+    protected void upperRow( int i, double real_el_ii ) {
+        if (n - i - 1 < 2*minBlockSize) {
+            super.upperRow(i, real_el_ii);
+            return;
+        }
+        EjmlConcurrency.loopBlocks(i + 1, n, minBlockSize, ( j0, j1 ) -> {
+            for (int j = j0; j < j1; j++) {
+                upperElement(i, j, real_el_ii);
+            }
+        });
+    }
+
+    public int getMinBlockSize() {
+        return minBlockSize;
+    }
+
+    public void setMinBlockSize( int minBlockSize ) {
+        this.minBlockSize = minBlockSize;
+    }
+}
@@ -49,62 +49,35 @@ public class CholeskyDecompositionInner_ZDRM extends CholeskyDecompositionCommon
         if (n == 0)
             throw new IllegalArgumentException("Cholesky is undefined for 0 by 0 matrix");
 
-        double real_el_ii = 0;
-
         int stride = n*2;
         for (int i = 0; i < n; i++) {
-            for (int j = i; j < n; j++) {
-                double realSum = t[i*stride + j*2];
-                double imagSum = t[i*stride + j*2 + 1];
-
-                if (i == j) {
-                    // its easy to prove that for the cholesky decomposition to be valid the original
-                    // diagonal elements must be real
-                    if (Math.abs(imagSum) > tolerance*Math.abs(realSum))
-                        return false;
-
-                    // This takes advantage of the fact that when you multiply a complex number by
-                    // its conjigate the result is a real number
-                    int end = i*stride + i*2;
-                    for (int index = i*stride; index < end; ) {
-                        double real = t[index++];
-                        double imag = t[index++];
-
-                        realSum -= real*real + imag*imag;
-                    }
-
-                    if (realSum <= 0) {
-                        return false;
-                    }
-
-                    real_el_ii = Math.sqrt(realSum);
-                    t[i*stride + i*2] = real_el_ii;
-                    t[i*stride + i*2 + 1] = 0;
-                } else {
-                    int iEl = i*stride; // row i is inside the lower triangle
-                    int jEl = j*stride; // row j conjugate transposed upper triangle
-                    int end = iEl + i*2;
-                    // k = 0:i-1
-                    for (; iEl < end; ) {
-//                    sum -= el[i*n+k]*el[j*n+k];
-                        double realI = t[iEl++];
-                        double imagI = t[iEl++];
-
-                        double realJ = t[jEl++];
-                        double imagJ = t[jEl++];
-
-                        // multiply by the complex conjugate of I since the triangle being stored
-                        // is the conjugate of L
-                        realSum -= realI*realJ + imagI*imagJ;
-                        imagSum -= realI*imagJ - realJ*imagI;
-                    }
-
-                    // divide the sum by the diagonal element, which is always real
-                    // Note that it is storing the conjugate of L
-                    t[j*stride + i*2] = realSum/real_el_ii;
-                    t[j*stride + i*2 + 1] = imagSum/real_el_ii;
-                }
+            double realSum = t[i*stride + i*2];
+            double imagSum = t[i*stride + i*2 + 1];
+
+            // its easy to prove that for the cholesky decomposition to be valid the original
+            // diagonal elements must be real
+            if (Math.abs(imagSum) > tolerance*Math.abs(realSum))
+                return false;
+
+            // This takes advantage of the fact that when you multiply a complex number by
+            // its conjigate the result is a real number
+            int end = i*stride + i*2;
+            for (int index = i*stride; index < end; ) {
+                double real = t[index++];
+                double imag = t[index++];
+
+                realSum -= real*real + imag*imag;
+            }
+
+            if (realSum <= 0) {
+                return false;
             }
+
+            double real_el_ii = Math.sqrt(realSum);
+            t[i*stride + i*2] = real_el_ii;
+            t[i*stride + i*2 + 1] = 0;
+
+            lowerColumn(i, real_el_ii);
         }
         // Make it L instead of the conjugate of L
         for (int i = 1; i < n; i++) {
@@ -116,6 +89,48 @@ public class CholeskyDecompositionInner_ZDRM extends CholeskyDecompositionCommon
         return true;
     }
 
+    /**
+     * Computes the elements in column i of L which are below the diagonal.  Each element only depends
+     * on rows which have already been processed.
+     *
+     * @param i Column in L
+     * @param real_el_ii The diagonal element of L at (i,i), which is always real
+     */
+    protected void lowerColumn( int i, double real_el_ii ) {
+        for (int j = i + 1; j < n; j++) {
+            lowerElement(i, j, real_el_ii);
+        }
+    }
+
+    protected final void lowerElement( int i, int j, double real_el_ii ) {
+        int stride = n*2;
+        double realSum = t[i*stride + j*2];
+        double imagSum = t[i*stride + j*2 + 1];
+
+        int iEl = i*stride; // row i is inside the lower triangle
+        int jEl = j*stride; // row j conjugate transposed upper triangle
+        int end = iEl + i*2;
+        // k = 0:i-1
+        for (; iEl < end; ) {
+//            sum -= el[i*n+k]*el[j*n+k];
+            double realI = t[iEl++];
+            double imagI = t[iEl++];
+
+            double realJ = t[jEl++];
+            double imagJ = t[jEl++];
+
+            // multiply by the complex conjugate of I since the triangle being stored
+            // is the conjugate of L
+            realSum -= realI*realJ + imagI*imagJ;
+            imagSum -= realI*imagJ - realJ*imagI;
+        }
+
+        // divide the sum by the diagonal element, which is always real
+        // Note that it is storing the conjugate of L
+        t[j*stride + i*2] = realSum/real_el_ii;
+        t[j*stride + i*2 + 1] = imagSum/real_el_ii;
+    }
+
     @Override
     protected boolean decomposeUpper() {
         // See code comments in lower for more details on the algorithm
@@ -123,51 +138,66 @@ public class CholeskyDecompositionInner_ZDRM extends CholeskyDecompositionCommon
         if (n == 0)
             throw new IllegalArgumentException("Cholesky is undefined for 0 by 0 matrix");
 
-        double real_el_ii = 0;
-
         int stride = n*2;
 
         for (int i = 0; i < n; i++) {
-            for (int j = i; j < n; j++) {
-                double realSum = t[i*stride + j*2];
-                double imagSum = t[i*stride + j*2 + 1];
-
-                if (i == j) {
-                    if (Math.abs(imagSum) > tolerance*Math.abs(realSum))
-                        return false;
-
-                    for (int k = 0; k < i; k++) {
-                        double real = t[k*stride + i*2];
-                        double imag = t[k*stride + i*2 + 1];
-
-                        realSum -= real*real + imag*imag;
-                    }
-
-                    if (realSum <= 0) {
-                        return false;
-                    }
-
-                    real_el_ii = Math.sqrt(realSum);
-                    t[i*stride + i*2] = real_el_ii;
-                    t[i*stride + i*2 + 1] = 0;
-                } else {
-                    for (int k = 0; k < i; k++) {
-                        double realI = t[k*stride + i*2];
-                        double imagI = t[k*stride + i*2 + 1];
-
-                        double realJ = t[k*stride + j*2];
-                        double imagJ = t[k*stride + j*2 + 1];
-
-                        realSum -= realI*realJ + imagI*imagJ;
-                        imagSum -= realI*imagJ - realJ*imagI;
-                    }
-
-                    t[i*stride + j*2] = realSum/real_el_ii;
-                    t[i*stride + j*2 + 1] = imagSum/real_el_ii;
-                }
+            double realSum = t[i*stride + i*2];
+            double imagSum = t[i*stride + i*2 + 1];
+
+            if (Math.abs(imagSum) > tolerance*Math.abs(realSum))
+                return false;
+
+            for (int k = 0; k < i; k++) {
+                double real = t[k*stride + i*2];
+                double imag = t[k*stride + i*2 + 1];
+
+                realSum -= real*real + imag*imag;
+            }
+
+            if (realSum <= 0) {
+                return false;
             }
+
+            double real_el_ii = Math.sqrt(realSum);
+            t[i*stride + i*2] = real_el_ii;
+            t[i*stride + i*2 + 1] = 0;
+
+            upperRow(i, real_el_ii);
         }
 
         return true;
     }
+
+    /**
+     * Computes the elements in row i of R which are to the right of the diagonal.  Each element only depends
+     * on rows which have already been processed.
+     *
+     * @param i Row in R
+     * @param real_el_ii The diagonal element of R at (i,i), which is always real
+     */
+    protected void upperRow( int i, double real_el_ii ) {
+        for (int j = i + 1; j < n; j++) {
+            upperElement(i, j, real_el_ii);
+        }
+    }
+
+    protected final void upperElement( int i, int j, double real_el_ii ) {
+        int stride = n*2;
+        double realSum = t[i*stride + j*2];
+        double imagSum = t[i*stride + j*2 + 1];
+
+        for (int k = 0; k < i; k++) {
+            double realI = t[k*stride + i*2];
+            double imagI = t[k*stride + i*2 + 1];
+
+            double realJ = t[k*stride + j*2];
+            double imagJ = t[k*stride + j*2 + 1];
+
+            realSum -= realI*realJ + imagI*imagJ;
+            imagSum -= realI*imagJ - realJ*imagI;
+        }
+
+        t[i*stride + j*2] = realSum/real_el_ii;
+        t[i*stride + j*2 + 1] = imagSum/real_el_ii;
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decompose.hessenberg.TridiagonalDecompositionHouseholder_ZDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricQREigenHelper_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricQrAlgorithm_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+
+/**
+ * <p>
+ * Eigen decomposition of a Hermitian matrix.  All the eigenvalues are real and the eigenvectors form a
+ * unitary matrix.
+ * </p>
+ *
+ * <p>
+ * The matrix is first reduced to a Hermitian tridiagonal matrix T using
+ * {@link TridiagonalDecompositionHouseholder_ZDRM}. A diagonal unitary matrix D is then found which removes the
+ * phase from the off diagonal elements, making T' = D<sup>H</sup>*T*D real and symmetric.  The eigenvalues of T'
+ * are found with the real symmetric QR algorithm and the eigenvectors of the original matrix are
+ * Q*D*W, where W are the eigenvectors of T'.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM
+ */
+@SuppressWarnings("NullAway.Init")
+public class EigenDecompositionHermitian_ZDRM implements EigenDecomposition_F64<ZMatrixRMaj> {
+
+    private final TridiagonalDecompositionHouseholder_ZDRM tridiag = new TridiagonalDecompositionHouseholder_ZDRM();
+    private final SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+    private final SymmetricQrAlgorithm_DDRM vector = new SymmetricQrAlgorithm_DDRM(helper);
+
+    // should it compute eigenvectors or just eigenvalues
+    private final boolean computeVectors;
+
+    // complex tridiagonal matrix
+    private double[] diagC = new double[0];
+    private double[] offC = new double[0];
+    // real symmetric tridiagonal matrix
+    private double[] diag = new double[0];
+    private double[] off = new double[0];
+    // diagonal elements of D
+    private double[] phase = new double[0];
+
+    // where the found eigenvalues are stored
+    private double[] values;
+
+    // eigenvectors of the real tridiagonal matrix, stored in the rows
+    private final DMatrixRMaj W = new DMatrixRMaj(1, 1);
+    // Q*D
+    private final ZMatrixRMaj QD = new ZMatrixRMaj(1, 1);
+    // the extracted eigenvectors
+    private ZMatrixRMaj[] eigenvectors = new ZMatrixRMaj[0];
+
+    public EigenDecompositionHermitian_ZDRM( boolean computeVectors ) {
+        this.computeVectors = computeVectors;
+    }
+
+    public void setMaxIterations( int max ) {
+        vector.setMaxIterations(max);
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return helper.getMatrixSize();
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue( int index ) {
+        return new Complex_F64(values[index], 0);
+    }
+
+    /**
+     * Returns the eigenvector for the specified eigenvalue as a column vector with unit length
+     *
+     * @throws IllegalArgumentException If eigenvectors were not computed
+     */
+    @Override
+    public ZMatrixRMaj getEigenVector( int index ) {
+        if (!computeVectors)
+            throw new IllegalArgumentException("As requested eigenvectors were not computed.");
+        return eigenvectors[index];
+    }
+
+    /**
+     * Decomposes the matrix.  Only the upper triangle is read.
+     *
+     * @param orig Hermitian matrix. Modified.
+     */
+    @Override
+    public boolean decompose( ZMatrixRMaj orig ) {
+        if (orig.numCols != orig.numRows)
+            throw new IllegalArgumentException("Matrix must be square.");
+        if (orig.numCols <= 0)
+            return false;
+
+        int N = orig.numRows;
+        declareArrays(N);
+
+        if (!tridiag.decompose(orig))
+            return false;
+
+        tridiag.getDiagonal(diagC, offC);
+        removePhase(N);
+
+        helper.init(diag, off, N);
+
+        if (computeVectors) {
+            W.reshape(N, N);
+            CommonOps_DDRM.setIdentity(W);
+            helper.setQ(W);
+            vector.setFastEigenvalues(false);
+        } else {
+            vector.setFastEigenvalues(true);
+        }
+
+        if (!vector.process(-1, null, null))
+            return false;
+
+        values = helper.copyEigenvalues(values);
+
+        if (computeVectors)
+            extractVectors(N);
+
+        return true;
+    }
+
+    private void declareArrays( int N ) {
+        if (diag.length < N) {
+            diagC = new double[N*2];
+            offC = new double[N*2];
+            diag = new double[N];
+            off = new double[N];
+            phase = new double[N*2];
+        }
+    }
+
+    /**
+     * Finds D such that D<sup>H</sup>*T*D has real non-negative off diagonal elements.  Element (i,i+1) becomes
+     * conj(d<sub>i</sub>)*t<sub>i</sub>*d<sub>i+1</sub>, which is |t<sub>i</sub>| when
+     * d<sub>i+1</sub> = d<sub>i</sub>*conj(t<sub>i</sub>)/|t<sub>i</sub>|.
+     */
+    private void removePhase( int N ) {
+        phase[0] = 1;
+        phase[1] = 0;
+        diag[0] = diagC[0];
+        for (int i = 1; i < N; i++) {
+            diag[i] = diagC[i*2];
+
+            double real = offC[(i - 1)*2];
+            double imag = offC[(i - 1)*2 + 1];
+            double mag = Math.sqrt(real*real + imag*imag);
+            off[i - 1] = mag;
+
+            double pr = phase[(i - 1)*2];
+            double pi = phase[(i - 1)*2 + 1];
+            if (mag == 0) {
+                phase[i*2] = pr;
+                phase[i*2 + 1] = pi;
+            } else {
+                real /= mag;
+                imag = -imag/mag;
+                phase[i*2] = pr*real - pi*imag;
+                phase[i*2 + 1] = pr*imag + pi*real;
+            }
+        }
+    }
+
+    private void extractVectors( int N ) {
+        QD.reshape(N, N);
+        tridiag.getQ(QD, false);
+
+        // multiply each column by its phase
+        for (int i = 0; i < N; i++) {
+            int index = i*N*2;
+            for (int j = 0; j < N; j++, index += 2) {
+                double real = QD.data[index];
+                double imag = QD.data[index + 1];
+                double pr = phase[j*2];
+                double pi = phase[j*2 + 1];
+                QD.data[index] = real*pr - imag*pi;
+                QD.data[index + 1] = real*pi + imag*pr;
+            }
+        }
+
+        if (eigenvectors.length != N)
+            eigenvectors = new ZMatrixRMaj[N];
+
+        // eigenvector k = QD*W(k,:)^T
+        for (int k = 0; k < N; k++) {
+            ZMatrixRMaj v = eigenvectors[k];
+            if (v == null)
+                eigenvectors[k] = v = new ZMatrixRMaj(N, 1);
+            int indexW = k*N;
+            for (int i = 0; i < N; i++) {
+                int indexQ = i*N*2;
+                double real = 0, imag = 0;
+                for (int j = 0; j < N; j++) {
+                    double w = W.data[indexW + j];
+                    real += QD.data[indexQ + j*2]*w;
+                    imag += QD.data[indexQ + j*2 + 1]*w;
+                }
+                v.data[i*2] = real;
+                v.data[i*2 + 1] = imag;
+            }
+        }
+    }
+
+    @Override
+    public boolean inputModified() {
+        return tridiag.inputModified();
+    }
+}
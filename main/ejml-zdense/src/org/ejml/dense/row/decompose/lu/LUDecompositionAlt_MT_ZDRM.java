@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.lu;
+
+import org.ejml.concurrency.EjmlConcurrency;
+
+/**
+ * <p>
+ * Concurrent extension of {@link LUDecompositionAlt_ZDRM}.  For each column, the rows on and below
+ * the diagonal are updated in parallel and so are the multipliers.  Rows above the diagonal depend on
+ * each other and are processed sequentially. Rows are split into blocks of at least {@link #getMinBlockSize()}
+ * and short columns are processed in the calling thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LUDecompositionAlt_MT_ZDRM extends LUDecompositionAlt_ZDRM {
+    // minimum number of rows processed by a thread
+    int minBlockSize = 32;
+
+    @Override
+    protected void applyTransformLower( int j, double[] LUcolj ) {
+        if (m - j < 2*minBlockSize) {
+            super.applyTransformLower(j, LUcolj);
+            return;
+        }
+        EjmlConcurrency.loopBlocks(j, m, minBlockSize, ( i0, i1 ) -> {
+            for (int i = i0; i < i1; i++) {
+                applyTransform(i, j, j, LUcolj);
+            }
+        });
+    }
+
+    @Override
+    protected void computeMultipliers( int j, double realLujj, double imgLujj, double magLujj ) {
+        if (m - j - 1 < 2*minBlockSize) {
+            super.computeMultipliers(j, realLujj, imgLujj, magLujj);
+            return;
+        }
+        EjmlConcurrency.loopBlocks(j + 1, m, minBlockSize, ( i0, i1 ) -> {
+            for (int i = i0; i < i1; i++) {
+                computeMultiplier(i, j, realLujj, imgLujj, magLujj);
+            }
+        });
+    }
+
+    public int getMinBlockSize() {
+        return minBlockSize;
+    }
+
+    public void setMinBlockSize( int minBlockSize ) {
+        this.minBlockSize = minBlockSize;
+    }
+}
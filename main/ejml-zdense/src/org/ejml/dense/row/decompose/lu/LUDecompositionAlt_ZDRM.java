@@ -52,29 +52,12 @@ public class LUDecompositionAlt_ZDRM extends LUDecompositionBase_ZDRM {
                 LUcolj[i*2 + 1] = dataLU[i*stride + j*2 + 1];
             }
 
-            // Apply previous transformations.
-            for (int i = 0; i < m; i++) {
-                int rowIndex = i*stride;
-
-                // Most of the time is spent in the following dot product.
-                int kmax = i < j ? i : j;
-                double realS = 0.0;
-                double imgS = 0.0;
-
-                for (int k = 0; k < kmax; k++) {
-                    double realD = dataLU[rowIndex + k*2];
-                    double imgD = dataLU[rowIndex + k*2 + 1];
-
-                    double realCol = LUcolj[k*2];
-                    double imgCol = LUcolj[k*2 + 1];
-
-                    realS += realD*realCol - imgD*imgCol;
-                    imgS += realD*imgCol + imgD*realCol;
-                }
-
-                dataLU[rowIndex + j*2] = LUcolj[i*2] -= realS;
-                dataLU[rowIndex + j*2 + 1] = LUcolj[i*2 + 1] -= imgS;
+            // Apply previous transformations. Rows above the diagonal depend on the rows before them
+            int iEnd = Math.min(j, m);
+            for (int i = 0; i < iEnd; i++) {
+                applyTransform(i, i, j, LUcolj);
             }
+            applyTransformLower(j, LUcolj);
 
             // Find pivot and exchange if necessary.
             int p = j;
@@ -117,14 +100,7 @@ public class LUDecompositionAlt_ZDRM extends LUDecompositionBase_ZDRM {
                 double magLujj = realLujj*realLujj + imgLujj*imgLujj;
 
                 if (realLujj != 0 || imgLujj != 0) {
-                    for (int i = j + 1; i < m; i++) {
-
-                        double realLU = dataLU[i*stride + j*2];
-                        double imagLU = dataLU[i*stride + j*2 + 1];
-
-                        dataLU[i*stride + j*2] = (realLU*realLujj + imagLU*imgLujj)/magLujj;
-                        dataLU[i*stride + j*2 + 1] = (imagLU*realLujj - realLU*imgLujj)/magLujj;
-                    }
+                    computeMultipliers(j, realLujj, imgLujj, magLujj);
                 }
             }
         }
@@ -132,6 +108,60 @@ public class LUDecompositionAlt_ZDRM extends LUDecompositionBase_ZDRM {
         return true;
     }
 
+    /**
+     * Applies the previous transformations to all the rows on or below the diagonal in column j.  These rows
+     * only depend on elements above the diagonal and are independent of each other.
+     */
+    protected void applyTransformLower( int j, double[] LUcolj ) {
+        for (int i = j; i < m; i++) {
+            applyTransform(i, j, j, LUcolj);
+        }
+    }
+
+    /**
+     * Applies the previous transformations to row i in column j
+     *
+     * @param kmax number of elements in the dot product, min(i,j)
+     */
+    protected final void applyTransform( int i, int kmax, int j, double[] LUcolj ) {
+        int rowIndex = i*stride;
+
+        // Most of the time is spent in the following dot product.
+        double realS = 0.0;
+        double imgS = 0.0;
+
+        for (int k = 0; k < kmax; k++) {
+            double realD = dataLU[rowIndex + k*2];
+            double imgD = dataLU[rowIndex + k*2 + 1];
+
+            double realCol = LUcolj[k*2];
+            double imgCol = LUcolj[k*2 + 1];
+
+            realS += realD*realCol - imgD*imgCol;
+            imgS += realD*imgCol + imgD*realCol;
+        }
+
+        dataLU[rowIndex + j*2] = LUcolj[i*2] -= realS;
+        dataLU[rowIndex + j*2 + 1] = LUcolj[i*2 + 1] -= imgS;
+    }
+
+    /**
+     * Divides the elements below the diagonal in column j by the diagonal element
+     */
+    protected void computeMultipliers( int j, double realLujj, double imgLujj, double magLujj ) {
+        for (int i = j + 1; i < m; i++) {
+            computeMultiplier(i, j, realLujj, imgLujj, magLujj);
+        }
+    }
+
+    protected final void computeMultiplier( int i, int j, double realLujj, double imgLujj, double magLujj ) {
+        double realLU = dataLU[i*stride + j*2];
+        double imagLU = dataLU[i*stride + j*2 + 1];
+
+        dataLU[i*stride + j*2] = (realLU*realLujj + imagLU*imgLujj)/magLujj;
+        dataLU[i*stride + j*2 + 1] = (imagLU*realLujj - realLU*imgLujj)/magLujj;
+    }
+
     private static double mag( double[] d, int index ) {
         double r = d[index];
         double i = d[index + 1];
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.qr;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.decompose.UtilDecompositons_ZDRM;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Concurrent extension of {@link QRDecompositionHouseholderColumn_ZDRM}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class QRDecompositionHouseholderColumn_MT_ZDRM extends QRDecompositionHouseholderColumn_ZDRM {
+    @Override
+    public ZMatrixRMaj getQ( @Nullable ZMatrixRMaj Q, boolean compact ) {
+        if (compact)
+            Q = UtilDecompositons_ZDRM.checkIdentity(Q, numRows, minLength);
+        else
+            Q = UtilDecompositons_ZDRM.checkIdentity(Q, numRows, numRows);
+
+        for (int j = minLength - 1; j >= 0; j--) {
+            double[] u = dataQR[j];
+
+            // This is a fairly modest speed up since only one of the loops can be made concurrent
+            QrHelperFunctions_MT_ZDRM.rank1UpdateMultR_u0(Q, u, 1.0, 0.0, gammas[j], j, j, numRows, v);
+        }
+
+        return Q;
+    }
+
+    @Override
+    protected void updateA( int w ) {
+        final double[] u = dataQR[w];
+
+        EjmlConcurrency.loopFor(w + 1, numCols, j -> {
+            final double[] colQ = dataQR[j];
+            // first element in u is assumed to be 1.0 + 0*i
+            double realSum = colQ[w*2];
+            double imagSum = colQ[w*2 + 1];
+
+            for (int k = w + 1; k < numRows; k++) {
+                double realU = u[k*2];
+                double imagU = -u[k*2 + 1];
+
+                double realQ = colQ[k*2];
+                double imagQ = colQ[k*2 + 1];
+
+                realSum += realU*realQ - imagU*imagQ;
+                imagSum += imagU*realQ + realU*imagQ;
+            }
+            realSum *= gamma;
+            imagSum *= gamma;
+
+            colQ[w*2] -= realSum;
+            colQ[w*2 + 1] -= imagSum;
+
+            for (int i = w + 1; i < numRows; i++) {
+                double realU = u[i*2];
+                double imagU = u[i*2 + 1];
+
+                colQ[i*2] -= realU*realSum - imagU*imagSum;
+                colQ[i*2 + 1] -= imagU*realSum + realU*imagSum;
+            }
+        });
+    }
+}
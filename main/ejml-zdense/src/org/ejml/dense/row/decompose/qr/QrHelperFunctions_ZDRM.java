@@ -20,6 +20,7 @@ package org.ejml.dense.row.decompose.qr;
 
 import org.ejml.data.Complex_F64;
 import org.ejml.data.ZMatrixRMaj;
+//CONCURRENT_INLINE import org.ejml.concurrency.EjmlConcurrency;
 
 /**
  * <p>
@@ -52,6 +53,7 @@ public class QrHelperFunctions_ZDRM {
      * @param length Number of complex numebrs to consider
      * @return magnitude
      */
+    //CONCURRENT_OMIT_BEGIN
     public static double findMax( double[] u, int startU, int length ) {
         double max = -1;
 
@@ -164,6 +166,7 @@ public class QrHelperFunctions_ZDRM {
     private static double mag( double r, double i ) {
         return r*r + i*i;
     }
+    //CONCURRENT_OMIT_END
 
     /**
      * <p>
@@ -237,22 +240,109 @@ public class QrHelperFunctions_ZDRM {
 
         // end of reorder
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(w0, w1, i -> {
         for (int i = w0; i < w1; i++) {
-            indexA = (i*A.numCols + colA0)*2;
-            indexU = (i + offsetU)*2;
+            int rowA = (i*A.numCols + colA0)*2;
+            int rowTmp = colA0*2;
+
+            double realUi = u[(i + offsetU)*2];
+            double imagUi = u[(i + offsetU)*2 + 1];
+
+            for (int j = colA0; j < A.numCols; j++) {
+                double realTmp = _temp[rowTmp++];
+                double imagTmp = _temp[rowTmp++];
+
+                A.data[rowA++] -= realUi*realTmp - imagUi*imagTmp;
+                A.data[rowA++] -= realUi*imagTmp + imagUi*realTmp;
+            }
+        }
+        //CONCURRENT_ABOVE });
+    }
+
+    /**
+     * Same as {@link #rank1UpdateMultR} except that the value of u at index w0 is specified by (realU0, imagU0)
+     * instead of being read from u, and there is no offset.  Useful for concurrent implementations where you
+     * don't want to modify u to set the first element to 1.
+     *
+     * @param A matrix
+     * @param u vector
+     * @param realU0 real component of u at w0
+     * @param imagU0 imaginary component of u at w0
+     * @param gamma real component of gamma
+     * @param colA0 first column in A sub-matrix.
+     * @param w0 first index in sub-array in u and row sub-matrix in A
+     * @param w1 last index + 1 in sub-array in u and row sub-matrix in A
+     * @param _temp temporary storage.  Same size as u.
+     */
+    public static void rank1UpdateMultR_u0( ZMatrixRMaj A, double[] u,
+                                            double realU0, double imagU0,
+                                            double gamma,
+                                            int colA0,
+                                            int w0, int w1,
+                                            double[] _temp ) {
+        double realU = realU0;
+        double imagU = -imagU0;
+
+        int indexA = (w0*A.numCols + colA0)*2;
+        int indexTmp = colA0*2;
+
+        for (int i = colA0; i < A.numCols; i++) {
+            double realA = A.data[indexA++];
+            double imagA = A.data[indexA++];
+
+            _temp[indexTmp++] = realU*realA - imagU*imagA;
+            _temp[indexTmp++] = realU*imagA + imagU*realA;
+        }
+
+        for (int k = w0 + 1; k < w1; k++) {
+            indexA = (k*A.numCols + colA0)*2;
             indexTmp = colA0*2;
 
-            realU = u[indexU];
-            imagU = u[indexU + 1];
+            realU = u[k*2];
+            imagU = -u[k*2 + 1];
+
+            for (int i = colA0; i < A.numCols; i++) {
+                double realA = A.data[indexA++];
+                double imagA = A.data[indexA++];
+
+                _temp[indexTmp++] += realU*realA - imagU*imagA;
+                _temp[indexTmp++] += realU*imagA + imagU*realA;
+            }
+        }
+
+        indexTmp = colA0*2;
+        for (int i = colA0; i < A.numCols; i++) {
+            _temp[indexTmp++] *= gamma;
+            _temp[indexTmp++] *= gamma;
+        }
+
+        indexA = (w0*A.numCols + colA0)*2;
+        indexTmp = colA0*2;
+        for (int j = colA0; j < A.numCols; j++) {
+            double realTmp = _temp[indexTmp++];
+            double imagTmp = _temp[indexTmp++];
+
+            A.data[indexA++] -= realU0*realTmp - imagU0*imagTmp;
+            A.data[indexA++] -= realU0*imagTmp + imagU0*realTmp;
+        }
+
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(w0 + 1, w1, i -> {
+        for (int i = w0 + 1; i < w1; i++) {
+            int rowA = (i*A.numCols + colA0)*2;
+            int rowTmp = colA0*2;
+
+            double realUi = u[i*2];
+            double imagUi = u[i*2 + 1];
 
             for (int j = colA0; j < A.numCols; j++) {
-                double realTmp = _temp[indexTmp++];
-                double imagTmp = _temp[indexTmp++];
+                double realTmp = _temp[rowTmp++];
+                double imagTmp = _temp[rowTmp++];
 
-                A.data[indexA++] -= realU*realTmp - imagU*imagTmp;
-                A.data[indexA++] -= realU*imagTmp + imagU*realTmp;
+                A.data[rowA++] -= realUi*realTmp - imagUi*imagTmp;
+                A.data[rowA++] -= realUi*imagTmp + imagUi*realTmp;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     /**
@@ -275,6 +365,7 @@ public class QrHelperFunctions_ZDRM {
                                          double gammaR,
                                          int colA0,
                                          int w0, int w1 ) {
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(colA0, A.numRows, i -> {
         for (int i = colA0; i < A.numRows; i++) {
             int startIndex = (i*A.numCols + w0)*2;
             double realSum = 0, imagSum = 0;
@@ -303,6 +394,7 @@ public class QrHelperFunctions_ZDRM {
                 A.data[rowIndex++] += realTmp*imagU + imagTmp*realU;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     /**
@@ -315,6 +407,7 @@ public class QrHelperFunctions_ZDRM {
      * @param u Output array storage
      * @param offsetU first index in U
      */
+    //CONCURRENT_OMIT_BEGIN
     public static void extractHouseholderColumn( ZMatrixRMaj A,
                                                  int row0, int row1,
                                                  int col, double[] u, int offsetU ) {
@@ -420,4 +513,5 @@ public class QrHelperFunctions_ZDRM {
         }
         return Math.sqrt(max);
     }
+    //CONCURRENT_OMIT_END
 }
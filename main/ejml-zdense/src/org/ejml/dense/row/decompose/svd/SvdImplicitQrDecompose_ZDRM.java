@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.decompose.bidiagonal.BidiagonalDecompositionHouseholder_ZDRM;
+import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Complex singular value decomposition using a Householder bidiagonalization followed by implicit QR:<br>
+ * <br>
+ * A = U*W*V<sup>H</sup><br>
+ * <br>
+ * where U and V are unitary and W is a real diagonal matrix with non-negative singular values.
+ * </p>
+ *
+ * <p>
+ * {@link BidiagonalDecompositionHouseholder_ZDRM} reduces the matrix to a bidiagonal matrix which is real.  This
+ * allows the singular values to be found with the same real {@link SvdImplicitQrAlgorithm_DDRM} used by
+ * the real SVD, with its rotations then being applied to the complex Householder matrices.  If the matrix
+ * has more columns than rows then its conjugate transpose is decomposed instead.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM
+ */
+@SuppressWarnings("NullAway.Init")
+public class SvdImplicitQrDecompose_ZDRM implements SingularValueDecomposition_F64<ZMatrixRMaj> {
+
+    private int numRows;
+    private int numCols;
+
+    // dimensions of transposed matrix
+    private int numRowsT;
+    private int numColsT;
+
+    private final BidiagonalDecompositionHouseholder_ZDRM bidiag = new BidiagonalDecompositionHouseholder_ZDRM();
+    private final SvdImplicitQrAlgorithm_DDRM qralg = new SvdImplicitQrAlgorithm_DDRM();
+
+    private double[] diag = new double[0];
+    private double[] off = new double[0];
+
+    // real rotations found by the QR algorithm
+    private final DMatrixRMaj Ut_real = new DMatrixRMaj(1, 1);
+    private final DMatrixRMaj Vt_real = new DMatrixRMaj(1, 1);
+
+    // Householder matrices from the bidiagonal decomposition
+    private ZMatrixRMaj Q_u = new ZMatrixRMaj(1, 1);
+    private ZMatrixRMaj Q_v = new ZMatrixRMaj(1, 1);
+
+    private ZMatrixRMaj U = new ZMatrixRMaj(1, 1);
+    private ZMatrixRMaj V = new ZMatrixRMaj(1, 1);
+
+    private double[] singularValues;
+    private int numSingular;
+
+    // compute a compact SVD
+    private final boolean compact;
+    // What is actually computed
+    private boolean computeU;
+    private boolean computeV;
+
+    // What the user requested to be computed
+    private final boolean prefComputeU;
+    private final boolean prefComputeV;
+
+    // Should it compute the transpose instead
+    private boolean transposed;
+
+    // Either a copy of the input matrix or its conjugate transpose
+    private final ZMatrixRMaj A_mod = new ZMatrixRMaj(1, 1);
+
+    public SvdImplicitQrDecompose_ZDRM( boolean compact, boolean computeU, boolean computeV ) {
+        this.compact = compact;
+        this.prefComputeU = computeU;
+        this.prefComputeV = computeV;
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Returns the unitary U matrix.
+     *
+     * @param U Storage for U. If null a new matrix is declared.
+     * @param transpose If true then the conjugate transpose of U is returned.
+     * @return U
+     */
+    @Override
+    public ZMatrixRMaj getU( @Nullable ZMatrixRMaj U, boolean transpose ) {
+        if (!prefComputeU)
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return extract(this.U, U, transpose);
+    }
+
+    /**
+     * Returns the unitary V matrix.
+     *
+     * @param V Storage for V. If null a new matrix is declared.
+     * @param transpose If true then the conjugate transpose of V is returned.
+     * @return V
+     */
+    @Override
+    public ZMatrixRMaj getV( @Nullable ZMatrixRMaj V, boolean transpose ) {
+        if (!prefComputeV)
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return extract(this.V, V, transpose);
+    }
+
+    private static ZMatrixRMaj extract( ZMatrixRMaj src, @Nullable ZMatrixRMaj dst, boolean transpose ) {
+        if (transpose) {
+            dst = UtilEjml.reshapeOrDeclare(dst, src.numCols, src.numRows);
+            CommonOps_ZDRM.transposeConjugate(src, dst);
+        } else {
+            dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols);
+            dst.setTo(src);
+        }
+        return dst;
+    }
+
+    @Override
+    public ZMatrixRMaj getW( @Nullable ZMatrixRMaj W ) {
+        int m = compact ? numSingular : numRows;
+        int n = compact ? numSingular : numCols;
+
+        if (W == null)
+            W = new ZMatrixRMaj(m, n);
+        else {
+            W.reshape(m, n);
+            W.zero();
+        }
+
+        for (int i = 0; i < numSingular; i++) {
+            W.set(i, i, singularValues[i], 0);
+        }
+
+        return W;
+    }
+
+    @Override
+    public boolean decompose( ZMatrixRMaj orig ) {
+        if (!setup(orig))
+            return false;
+
+        if (transposed) {
+            A_mod.reshape(orig.numCols, orig.numRows);
+            CommonOps_ZDRM.transposeConjugate(orig, A_mod);
+        } else {
+            A_mod.reshape(orig.numRows, orig.numCols);
+            A_mod.setTo(orig);
+        }
+
+        if (!bidiag.decompose(A_mod))
+            return false;
+
+        if (!computeUWV())
+            return false;
+
+        // make sure all the singular values or positive
+        makeSingularPositive();
+
+        if (computeU) {
+            Q_u.reshape(numRowsT, compact ? numColsT : numRowsT);
+            Q_u = bidiag.getU(Q_u, false, compact);
+            multRotations(Q_u, Ut_real, U);
+        }
+        if (computeV) {
+            Q_v.reshape(numColsT, numColsT);
+            Q_v = bidiag.getV(Q_v, false, compact);
+            multRotations(Q_v, Vt_real, V);
+        }
+
+        // if transposed undo the transposition
+        if (transposed) {
+            ZMatrixRMaj temp = V;
+            V = U;
+            U = temp;
+        }
+
+        return true;
+    }
+
+    private boolean computeUWV() {
+        bidiag.getDiagonal(diag, off);
+        qralg.setMatrix(numColsT, numColsT, diag, off);
+
+        qralg.setFastValues(false);
+        if (computeU) {
+            Ut_real.reshape(numColsT, numColsT);
+            CommonOps_DDRM.setIdentity(Ut_real);
+            qralg.setUt(Ut_real);
+        } else {
+            qralg.setUt(null);
+        }
+        if (computeV) {
+            Vt_real.reshape(numColsT, numColsT);
+            CommonOps_DDRM.setIdentity(Vt_real);
+            qralg.setVt(Vt_real);
+        } else {
+            qralg.setVt(null);
+        }
+
+        return qralg.process();
+    }
+
+    /**
+     * Applies the rotations from the real bidiagonal SVD to the Householder matrix.  The first n columns
+     * become Q*R<sup>T</sup> and any remaining columns are copied unmodified.
+     */
+    private static void multRotations( ZMatrixRMaj Q, DMatrixRMaj R, ZMatrixRMaj output ) {
+        int n = R.numRows;
+        output.reshape(Q.numRows, Q.numCols);
+
+        for (int i = 0; i < Q.numRows; i++) {
+            int rowQ = i*Q.numCols*2;
+            for (int j = 0; j < n; j++) {
+                int indexR = j*n;
+                double real = 0, imag = 0;
+                for (int k = 0; k < n; k++) {
+                    double r = R.data[indexR + k];
+                    real += Q.data[rowQ + k*2]*r;
+                    imag += Q.data[rowQ + k*2 + 1]*r;
+                }
+                output.data[rowQ + j*2] = real;
+                output.data[rowQ + j*2 + 1] = imag;
+            }
+            System.arraycopy(Q.data, rowQ + n*2, output.data, rowQ + n*2, (Q.numCols - n)*2);
+        }
+    }
+
+    private boolean setup( ZMatrixRMaj orig ) {
+        transposed = orig.numCols > orig.numRows;
+
+        // flag what should be computed and what should not be computed
+        if (transposed) {
+            computeU = prefComputeV;
+            computeV = prefComputeU;
+            numRowsT = orig.numCols;
+            numColsT = orig.numRows;
+        } else {
+            computeU = prefComputeU;
+            computeV = prefComputeV;
+            numRowsT = orig.numRows;
+            numColsT = orig.numCols;
+        }
+
+        numRows = orig.numRows;
+        numCols = orig.numCols;
+
+        if (numRows == 0 || numCols == 0)
+            return false;
+
+        if (diag.length < numColsT) {
+            diag = new double[numColsT];
+            off = new double[numColsT];
+        }
+
+        return true;
+    }
+
+    private void makeSingularPositive() {
+        numSingular = qralg.getNumberOfSingularValues();
+        singularValues = qralg.getSingularValues();
+
+        for (int i = 0; i < numSingular; i++) {
+            double val = qralg.getSingularValue(i);
+
+            if (val < 0) {
+                singularValues[i] = 0.0 - val;
+
+                if (computeU) {
+                    // the same as multiplying by a diagonal matrix with -1 at this location
+                    int start = i*Ut_real.numCols;
+                    int stop = start + Ut_real.numCols;
+
+                    for (int j = start; j < stop; j++) {
+                        Ut_real.data[j] = 0.0 - Ut_real.data[j];
+                    }
+                }
+            } else {
+                singularValues[i] = val;
+            }
+        }
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+}
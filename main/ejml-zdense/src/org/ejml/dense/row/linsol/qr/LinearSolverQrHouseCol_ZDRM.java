@@ -47,17 +47,17 @@ import org.ejml.dense.row.linsol.LinearSolverAbstract_ZDRM;
 @SuppressWarnings("NullAway.Init")
 public class LinearSolverQrHouseCol_ZDRM extends LinearSolverAbstract_ZDRM {
 
-    private final QRDecompositionHouseholderColumn_ZDRM decomposer;
+    protected final QRDecompositionHouseholderColumn_ZDRM decomposer;
 
-    private final ZMatrixRMaj a = new ZMatrixRMaj(1, 1);
-    private final ZMatrixRMaj temp = new ZMatrixRMaj(1, 1);
+    protected final ZMatrixRMaj a = new ZMatrixRMaj(1, 1);
+    protected final ZMatrixRMaj temp = new ZMatrixRMaj(1, 1);
 
     protected int maxRows = -1;
     protected int maxCols = -1;
 
-    private double[][] QR; // a column major QR matrix
-    private final ZMatrixRMaj R = new ZMatrixRMaj(1, 1);
-    private double[] gammas;
+    protected double[][] QR; // a column major QR matrix
+    protected final ZMatrixRMaj R = new ZMatrixRMaj(1, 1);
+    protected double[] gammas;
 
     /**
      * Creates a linear solver that uses QR decomposition.
@@ -66,6 +66,10 @@ public class LinearSolverQrHouseCol_ZDRM extends LinearSolverAbstract_ZDRM {
         decomposer = new QRDecompositionHouseholderColumn_ZDRM();
     }
 
+    protected LinearSolverQrHouseCol_ZDRM( QRDecompositionHouseholderColumn_ZDRM decomposer ) {
+        this.decomposer = decomposer;
+    }
+
     public void setMaxSize( int maxRows, int maxCols ) {
         this.maxRows = maxRows;
         this.maxCols = maxCols;
@@ -19,6 +19,7 @@
 package org.ejml.dense.row.misc;
 
 import org.ejml.data.ZMatrixRMaj;
+//CONCURRENT_INLINE import org.ejml.concurrency.EjmlConcurrency;
 
 /**
  * Algorithms for transposing row complex matrices
@@ -33,11 +34,11 @@ public class TransposeAlgs_ZDRM {
      * @param mat The matrix that is transposed in-place.  Modified.
      */
     public static void square( ZMatrixRMaj mat ) {
-        int index = 2;
-        int rowStride = mat.getRowStride();
-        int indexEnd = rowStride;
-        for (int i = 0; i < mat.numRows;
-             i++, index += (i + 1)*2, indexEnd += rowStride) {
+        final int rowStride = mat.getRowStride();
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, mat.numRows, i -> {
+        for (int i = 0; i < mat.numRows; i++) {
+            int index = i*rowStride + (i + 1)*2;
+            int indexEnd = (i + 1)*rowStride;
 
             int indexOther = (i + 1)*rowStride + i*2;
             for (; index < indexEnd; index += 2, indexOther += rowStride) {
@@ -50,14 +51,15 @@ public class TransposeAlgs_ZDRM {
                 mat.data[indexOther + 1] = img;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void squareConjugate( ZMatrixRMaj mat ) {
-        int index = 2;
-        int rowStride = mat.getRowStride();
-        int indexEnd = rowStride;
-        for (int i = 0; i < mat.numRows;
-             i++, index += (i + 1)*2, indexEnd += rowStride) {
+        final int rowStride = mat.getRowStride();
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, mat.numRows, i -> {
+        for (int i = 0; i < mat.numRows; i++) {
+            int index = i*rowStride + (i + 1)*2;
+            int indexEnd = (i + 1)*rowStride;
 
             mat.data[index - 1] = -mat.data[index - 1];
 
@@ -72,6 +74,76 @@ public class TransposeAlgs_ZDRM {
                 mat.data[indexOther + 1] = -img;
             }
         }
+        //CONCURRENT_ABOVE });
+    }
+
+    /**
+     * Performs a transpose across block sub-matrices.  Reduces
+     * the number of cache misses on larger matrices.
+     *
+     * @param A Original matrix.  Not modified.
+     * @param A_tran Transposed matrix.  Modified.
+     * @param blockLength Length of a block.
+     */
+    public static void block( ZMatrixRMaj A, ZMatrixRMaj A_tran, final int blockLength ) {
+        final int rowStride = A.getRowStride();
+        //CONCURRENT_BELOW EjmlConcurrency.loopBlocks(0, A.numRows, blockLength, (idx0, idx1) -> {
+        for (int idx0 = 0; idx0 < A.numRows; idx0 += blockLength) {
+            //CONCURRENT_REMOVE_BELOW
+            int idx1 = Math.min(A.numRows, idx0 + blockLength);
+            int blockHeight = idx1 - idx0;
+
+            for (int j = 0; j < A.numCols; j += blockLength) {
+                int colEnd = Math.min(A.numCols, j + blockLength);
+
+                for (int col = j; col < colEnd; col++) {
+                    int indexSrc = (idx0*A.numCols + col)*2;
+                    int indexDst = (col*A_tran.numCols + idx0)*2;
+                    int end = indexDst + blockHeight*2;
+                    // faster to write in sequence than to read in sequence
+                    while (indexDst < end) {
+                        A_tran.data[indexDst++] = A.data[indexSrc];
+                        A_tran.data[indexDst++] = A.data[indexSrc + 1];
+                        indexSrc += rowStride;
+                    }
+                }
+            }
+        }
+        //CONCURRENT_ABOVE });
+    }
+
+    /**
+     * Performs a conjugate transpose across block sub-matrices.  Reduces
+     * the number of cache misses on larger matrices.
+     *
+     * @param A Original matrix.  Not modified.
+     * @param A_tran Transposed matrix.  Modified.
+     * @param blockLength Length of a block.
+     */
+    public static void blockConjugate( ZMatrixRMaj A, ZMatrixRMaj A_tran, final int blockLength ) {
+        final int rowStride = A.getRowStride();
+        //CONCURRENT_BELOW EjmlConcurrency.loopBlocks(0, A.numRows, blockLength, (idx0, idx1) -> {
+        for (int idx0 = 0; idx0 < A.numRows; idx0 += blockLength) {
+            //CONCURRENT_REMOVE_BELOW
+            int idx1 = Math.min(A.numRows, idx0 + blockLength);
+            int blockHeight = idx1 - idx0;
+
+            for (int j = 0; j < A.numCols; j += blockLength) {
+                int colEnd = Math.min(A.numCols, j + blockLength);
+
+                for (int col = j; col < colEnd; col++) {
+                    int indexSrc = (idx0*A.numCols + col)*2;
+                    int indexDst = (col*A_tran.numCols + idx0)*2;
+                    int end = indexDst + blockHeight*2;
+                    while (indexDst < end) {
+                        A_tran.data[indexDst++] = A.data[indexSrc];
+                        A_tran.data[indexDst++] = -A.data[indexSrc + 1];
+                        indexSrc += rowStride;
+                    }
+                }
+            }
+        }
+        //CONCURRENT_ABOVE });
     }
 
     /**
@@ -81,10 +153,11 @@ public class TransposeAlgs_ZDRM {
      * @param A_tran Transposed matrix.  Modified.
      */
     public static void standard( ZMatrixRMaj A, ZMatrixRMaj A_tran ) {
-        int index = 0;
-        int rowStrideTran = A_tran.getRowStride();
-        int rowStride = A.getRowStride();
+        final int rowStrideTran = A_tran.getRowStride();
+        final int rowStride = A.getRowStride();
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, A_tran.numRows, i -> {
         for (int i = 0; i < A_tran.numRows; i++) {
+            int index = i*rowStrideTran;
             int index2 = i*2;
 
             int end = index + rowStrideTran;
@@ -94,6 +167,7 @@ public class TransposeAlgs_ZDRM {
                 index2 += rowStride;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     /**
@@ -103,10 +177,11 @@ public class TransposeAlgs_ZDRM {
      * @param A_tran Transposed matrix.  Modified.
      */
     public static void standardConjugate( ZMatrixRMaj A, ZMatrixRMaj A_tran ) {
-        int index = 0;
-        int rowStrideTran = A_tran.getRowStride();
-        int rowStride = A.getRowStride();
+        final int rowStrideTran = A_tran.getRowStride();
+        final int rowStride = A.getRowStride();
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, A_tran.numRows, i -> {
         for (int i = 0; i < A_tran.numRows; i++) {
+            int index = i*rowStrideTran;
             int index2 = i*2;
 
             int end = index + rowStrideTran;
@@ -116,5 +191,6 @@ public class TransposeAlgs_ZDRM {
                 index2 += rowStride;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -24,10 +24,13 @@ import org.ejml.dense.row.CommonOps_ZDRM;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.Generated;
+//CONCURRENT_INLINE import org.ejml.concurrency.EjmlConcurrency;
 
 /**
  * <p>Matrix multiplication routines for complex row matrices in a row-major format.</p>
- * 
+ *
+ * <p>Each row (or column for transposed inputs) of the output is computed independently of the others so
+ * that the outer loop can be split up between threads.</p>
  *
  * <p>DO NOT MODIFY.  Automatically generated code created by GeneratorMatrixMatrixMult_ZDRM</p>
  *
@@ -50,15 +53,15 @@ public class MatrixMatrixMult_ZDRM {
             CommonOps_ZDRM.fill(c,0,0);
             return;
         }
-        double realA,imagA;
-
-        int indexCbase= 0;
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
-        int strideC = c.getRowStride();
-        int endOfKLoop = b.numRows*strideB;
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
+        final int strideC = c.getRowStride();
+        final int endOfKLoop = b.numRows*strideB;
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            double realA,imagA;
+            int indexCbase = i*strideC;
             int indexA = i*strideA;
 
             // need to assign c.data to a value initially
@@ -93,8 +96,8 @@ public class MatrixMatrixMult_ZDRM {
                     c.data[indexC++] += realA*imgB + imagA*realB;
                 }
             }
-            indexCbase += strideC;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -108,13 +111,13 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int aIndexStart = 0;
-        int indexC = 0;
-
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            int aIndexStart = i*strideA;
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 double realTotal = 0;
                 double imgTotal = 0;
@@ -138,8 +141,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = realTotal;
                 c.data[indexC++] = imgTotal;
             }
-            aIndexStart += strideA;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -157,9 +160,9 @@ public class MatrixMatrixMult_ZDRM {
             CommonOps_ZDRM.fill(c,0,0);
             return;
         }
-        double realA,imagA;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            double realA,imagA;
             int indexC_start = i*c.numCols*2;
 
             // first assign R
@@ -189,6 +192,7 @@ public class MatrixMatrixMult_ZDRM {
                 }
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransA_small(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -201,9 +205,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 int indexA = i*2;
                 int indexB = j*2;
@@ -227,6 +231,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = imagTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransB(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -239,10 +244,10 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-        int aIndexStart = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, xA -> {
         for( int xA = 0; xA < a.numRows; xA++ ) {
+            int indexC = xA*c.numCols*2;
+            int aIndexStart = xA*a.numCols*2;
             int end = aIndexStart + b.numCols*2;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
@@ -263,8 +268,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = realTotal;
                 c.data[indexC++] = imagTotal;
             }
-            aIndexStart += a.numCols*2;
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransAB(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -277,9 +282,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             int indexB = 0;
             for( int j = 0; j < b.numRows; j++ ) {
                 int indexA = i*2;
@@ -302,6 +307,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = imagTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransAB_aux(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c , @Nullable double []aux)
@@ -362,15 +368,15 @@ public class MatrixMatrixMult_ZDRM {
         if( a.numCols == 0 || a.numRows == 0 ) {
             return;
         }
-        double realA,imagA;
-
-        int indexCbase= 0;
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
-        int strideC = c.getRowStride();
-        int endOfKLoop = b.numRows*strideB;
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
+        final int strideC = c.getRowStride();
+        final int endOfKLoop = b.numRows*strideB;
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            double realA,imagA;
+            int indexCbase = i*strideC;
             int indexA = i*strideA;
 
             // need to assign c.data to a value initially
@@ -405,8 +411,8 @@ public class MatrixMatrixMult_ZDRM {
                     c.data[indexC++] += realA*imgB + imagA*realB;
                 }
             }
-            indexCbase += strideC;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -420,13 +426,13 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int aIndexStart = 0;
-        int indexC = 0;
-
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            int aIndexStart = i*strideA;
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 double realTotal = 0;
                 double imgTotal = 0;
@@ -450,8 +456,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += realTotal;
                 c.data[indexC++] += imgTotal;
             }
-            aIndexStart += strideA;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -468,9 +474,9 @@ public class MatrixMatrixMult_ZDRM {
         if( a.numCols == 0 || a.numRows == 0 ) {
             return;
         }
-        double realA,imagA;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            double realA,imagA;
             int indexC_start = i*c.numCols*2;
 
             // first assign R
@@ -500,6 +506,7 @@ public class MatrixMatrixMult_ZDRM {
                 }
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransA_small(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -512,9 +519,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 int indexA = i*2;
                 int indexB = j*2;
@@ -538,6 +545,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += imagTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransB(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -550,10 +558,10 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-        int aIndexStart = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, xA -> {
         for( int xA = 0; xA < a.numRows; xA++ ) {
+            int indexC = xA*c.numCols*2;
+            int aIndexStart = xA*a.numCols*2;
             int end = aIndexStart + b.numCols*2;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
@@ -574,8 +582,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += realTotal;
                 c.data[indexC++] += imagTotal;
             }
-            aIndexStart += a.numCols*2;
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransAB(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -588,9 +596,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             int indexB = 0;
             for( int j = 0; j < b.numRows; j++ ) {
                 int indexA = i*2;
@@ -613,6 +621,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += imagTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransAB_aux(ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c , @Nullable double []aux)
@@ -673,15 +682,16 @@ public class MatrixMatrixMult_ZDRM {
             CommonOps_ZDRM.fill(c,0,0);
             return;
         }
-        double realA,imagA;
-        double realTmp,imagTmp;
-        int indexCbase= 0;
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
-        int strideC = c.getRowStride();
-        int endOfKLoop = b.numRows*strideB;
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
+        final int strideC = c.getRowStride();
+        final int endOfKLoop = b.numRows*strideB;
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            double realA,imagA;
+            double realTmp,imagTmp;
+            int indexCbase = i*strideC;
             int indexA = i*strideA;
 
             // need to assign c.data to a value initially
@@ -720,8 +730,8 @@ public class MatrixMatrixMult_ZDRM {
                     c.data[indexC++] += realA*imgB + imagA*realB;
                 }
             }
-            indexCbase += strideC;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -735,13 +745,13 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int aIndexStart = 0;
-        int indexC = 0;
-
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            int aIndexStart = i*strideA;
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 double realTotal = 0;
                 double imgTotal = 0;
@@ -765,8 +775,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = realAlpha*realTotal - imagAlpha*imgTotal;
                 c.data[indexC++] = realAlpha*imgTotal + imagAlpha*realTotal;
             }
-            aIndexStart += strideA;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -784,10 +794,10 @@ public class MatrixMatrixMult_ZDRM {
             CommonOps_ZDRM.fill(c,0,0);
             return;
         }
-        double realA,imagA;
-        double realTmp,imagTmp;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            double realA,imagA;
+            double realTmp,imagTmp;
             int indexC_start = i*c.numCols*2;
 
             // first assign R
@@ -821,6 +831,7 @@ public class MatrixMatrixMult_ZDRM {
                 }
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransA_small(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -833,9 +844,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 int indexA = i*2;
                 int indexB = j*2;
@@ -859,6 +870,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = realAlpha*imagTotal + imagAlpha*realTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransB(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -871,10 +883,10 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-        int aIndexStart = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, xA -> {
         for( int xA = 0; xA < a.numRows; xA++ ) {
+            int indexC = xA*c.numCols*2;
+            int aIndexStart = xA*a.numCols*2;
             int end = aIndexStart + b.numCols*2;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
@@ -895,8 +907,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = realAlpha*realTotal - imagAlpha*imagTotal;
                 c.data[indexC++] = realAlpha*imagTotal + imagAlpha*realTotal;
             }
-            aIndexStart += a.numCols*2;
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransAB(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -909,9 +921,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             int indexB = 0;
             for( int j = 0; j < b.numRows; j++ ) {
                 int indexA = i*2;
@@ -934,6 +946,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] = realAlpha*imagTotal + imagAlpha*realTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multTransAB_aux(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c , @Nullable double []aux)
@@ -994,15 +1007,16 @@ public class MatrixMatrixMult_ZDRM {
         if( a.numCols == 0 || a.numRows == 0 ) {
             return;
         }
-        double realA,imagA;
-        double realTmp,imagTmp;
-        int indexCbase= 0;
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
-        int strideC = c.getRowStride();
-        int endOfKLoop = b.numRows*strideB;
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
+        final int strideC = c.getRowStride();
+        final int endOfKLoop = b.numRows*strideB;
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            double realA,imagA;
+            double realTmp,imagTmp;
+            int indexCbase = i*strideC;
             int indexA = i*strideA;
 
             // need to assign c.data to a value initially
@@ -1041,8 +1055,8 @@ public class MatrixMatrixMult_ZDRM {
                     c.data[indexC++] += realA*imgB + imagA*realB;
                 }
             }
-            indexCbase += strideC;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -1056,13 +1070,13 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int aIndexStart = 0;
-        int indexC = 0;
-
-        int strideA = a.getRowStride();
-        int strideB = b.getRowStride();
+        final int strideA = a.getRowStride();
+        final int strideB = b.getRowStride();
 
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, i -> {
         for( int i = 0; i < a.numRows; i++ ) {
+            int aIndexStart = i*strideA;
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 double realTotal = 0;
                 double imgTotal = 0;
@@ -1086,8 +1100,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += realAlpha*realTotal - imagAlpha*imgTotal;
                 c.data[indexC++] += realAlpha*imgTotal + imagAlpha*realTotal;
             }
-            aIndexStart += strideA;
         }
+        //CONCURRENT_ABOVE });
     }
 
 
@@ -1104,10 +1118,10 @@ public class MatrixMatrixMult_ZDRM {
         if( a.numCols == 0 || a.numRows == 0 ) {
             return;
         }
-        double realA,imagA;
-        double realTmp,imagTmp;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            double realA,imagA;
+            double realTmp,imagTmp;
             int indexC_start = i*c.numCols*2;
 
             // first assign R
@@ -1141,6 +1155,7 @@ public class MatrixMatrixMult_ZDRM {
                 }
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransA_small(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -1153,9 +1168,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             for( int j = 0; j < b.numCols; j++ ) {
                 int indexA = i*2;
                 int indexB = j*2;
@@ -1179,6 +1194,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += realAlpha*imagTotal + imagAlpha*realTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransB(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -1191,10 +1207,10 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-        int aIndexStart = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numRows, xA -> {
         for( int xA = 0; xA < a.numRows; xA++ ) {
+            int indexC = xA*c.numCols*2;
+            int aIndexStart = xA*a.numCols*2;
             int end = aIndexStart + b.numCols*2;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
@@ -1215,8 +1231,8 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += realAlpha*realTotal - imagAlpha*imagTotal;
                 c.data[indexC++] += realAlpha*imagTotal + imagAlpha*realTotal;
             }
-            aIndexStart += a.numCols*2;
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransAB(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c)
@@ -1229,9 +1245,9 @@ public class MatrixMatrixMult_ZDRM {
             throw new MatrixDimensionException("The results matrix does not have the desired dimensions");
         }
 
-        int indexC = 0;
-
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, a.numCols, i -> {
         for( int i = 0; i < a.numCols; i++ ) {
+            int indexC = i*c.numCols*2;
             int indexB = 0;
             for( int j = 0; j < b.numRows; j++ ) {
                 int indexA = i*2;
@@ -1254,6 +1270,7 @@ public class MatrixMatrixMult_ZDRM {
                 c.data[indexC++] += realAlpha*imagTotal + imagAlpha*realTotal;
             }
         }
+        //CONCURRENT_ABOVE });
     }
 
     public static void multAddTransAB_aux(double realAlpha , double imagAlpha , ZMatrixRMaj a , ZMatrixRMaj b , ZMatrixRMaj c , @Nullable double []aux)
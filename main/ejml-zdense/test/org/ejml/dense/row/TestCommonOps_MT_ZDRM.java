@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.ZMatrixRMaj;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the functions in {@link CommonOps_MT_ZDRM} against their single threaded equivalent. Sizes are
+ * selected so that both the small and large matrix algorithms are used.
+ *
+ * @author Peter Abeles
+ */
+public class TestCommonOps_MT_ZDRM extends EjmlStandardJUnit {
+    int[] sizes = new int[]{1, 7, 40, 131};
+
+    // Force it to split the work into several blocks
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test void mult() {
+        for (int size : sizes) {
+            ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(size + 2, size, -1, 1, rand);
+            ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(size, size + 1, -1, 1, rand);
+            ZMatrixRMaj expected = new ZMatrixRMaj(size + 2, size + 1);
+            ZMatrixRMaj found = new ZMatrixRMaj(size + 2, size + 1);
+
+            CommonOps_ZDRM.mult(a, b, expected);
+            CommonOps_MT_ZDRM.mult(a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+            CommonOps_ZDRM.mult(1.5, -0.5, a, b, expected);
+            CommonOps_MT_ZDRM.mult(1.5, -0.5, a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void multAdd() {
+        for (int size : sizes) {
+            ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(size + 2, size, -1, 1, rand);
+            ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(size, size + 1, -1, 1, rand);
+            ZMatrixRMaj expected = RandomMatrices_ZDRM.rectangle(size + 2, size + 1, -1, 1, rand);
+            ZMatrixRMaj found = expected.copy();
+
+            CommonOps_ZDRM.multAdd(a, b, expected);
+            CommonOps_MT_ZDRM.multAdd(a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+            CommonOps_ZDRM.multAdd(1.5, -0.5, a, b, expected);
+            CommonOps_MT_ZDRM.multAdd(1.5, -0.5, a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void multTransA() {
+        for (int size : sizes) {
+            ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(size, size + 2, -1, 1, rand);
+            ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(size, size + 1, -1, 1, rand);
+            ZMatrixRMaj expected = new ZMatrixRMaj(size + 2, size + 1);
+            ZMatrixRMaj found = new ZMatrixRMaj(size + 2, size + 1);
+
+            CommonOps_ZDRM.multTransA(a, b, expected);
+            CommonOps_MT_ZDRM.multTransA(a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+            CommonOps_ZDRM.multTransA(1.5, -0.5, a, b, expected);
+            CommonOps_MT_ZDRM.multTransA(1.5, -0.5, a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void multTransB() {
+        for (int size : sizes) {
+            ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(size + 2, size, -1, 1, rand);
+            ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(size + 1, size, -1, 1, rand);
+            ZMatrixRMaj expected = new ZMatrixRMaj(size + 2, size + 1);
+            ZMatrixRMaj found = new ZMatrixRMaj(size + 2, size + 1);
+
+            CommonOps_ZDRM.multTransB(a, b, expected);
+            CommonOps_MT_ZDRM.multTransB(a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+            CommonOps_ZDRM.multTransB(1.5, -0.5, a, b, expected);
+            CommonOps_MT_ZDRM.multTransB(1.5, -0.5, a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void multTransAB() {
+        for (int size : sizes) {
+            ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(size, size + 2, -1, 1, rand);
+            ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(size + 1, size, -1, 1, rand);
+            ZMatrixRMaj expected = new ZMatrixRMaj(size + 2, size + 1);
+            ZMatrixRMaj found = new ZMatrixRMaj(size + 2, size + 1);
+
+            CommonOps_ZDRM.multTransAB(a, b, expected);
+            CommonOps_MT_ZDRM.multTransAB(a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+            CommonOps_ZDRM.multTransAB(1.5, -0.5, a, b, expected);
+            CommonOps_MT_ZDRM.multTransAB(1.5, -0.5, a, b, found);
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void transpose() {
+        for (int size : sizes) {
+            ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(size + 3, size, -1, 1, rand);
+            EjmlUnitTests.assertEquals(CommonOps_ZDRM.transpose(a, null),
+                    CommonOps_MT_ZDRM.transpose(a, null), UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(CommonOps_ZDRM.transposeConjugate(a, null),
+                    CommonOps_MT_ZDRM.transposeConjugate(a, null), UtilEjml.TEST_F64);
+
+            // in-place for square and rectangular matrices
+            for (ZMatrixRMaj m : new ZMatrixRMaj[]{a, RandomMatrices_ZDRM.rectangle(size, size, -1, 1, rand)}) {
+                ZMatrixRMaj expected = m.copy();
+                ZMatrixRMaj found = m.copy();
+                CommonOps_ZDRM.transpose(expected);
+                CommonOps_MT_ZDRM.transpose(found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+                expected = m.copy();
+                found = m.copy();
+                CommonOps_ZDRM.transposeConjugate(expected);
+                CommonOps_MT_ZDRM.transposeConjugate(found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+            }
+        }
+    }
+}
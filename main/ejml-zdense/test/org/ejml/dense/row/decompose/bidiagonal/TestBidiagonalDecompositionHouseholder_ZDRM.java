@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.bidiagonal;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestBidiagonalDecompositionHouseholder_ZDRM extends EjmlStandardJUnit {
+    @Test
+    void decompose() {
+        for (int rows : new int[]{1, 2, 5, 9}) {
+            for (int cols = 1; cols <= rows; cols += 2) {
+                checkDecomposition(RandomMatrices_ZDRM.rectangle(rows, cols, -1, 1, rand), false);
+                checkDecomposition(RandomMatrices_ZDRM.rectangle(rows, cols, -1, 1, rand), true);
+            }
+        }
+    }
+
+    /**
+     * Columns and rows which are already zero shouldn't cause problems
+     */
+    @Test
+    void decompose_zeros() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(6, 4, -1, 1, rand);
+        for (int i = 0; i < 6; i++) {
+            A.set(i, 1, 0, 0);
+        }
+        checkDecomposition(A, false);
+        checkDecomposition(new ZMatrixRMaj(5, 3), false);
+    }
+
+    private void checkDecomposition( ZMatrixRMaj A, boolean compact ) {
+        ZMatrixRMaj original = A.copy();
+        var alg = new BidiagonalDecompositionHouseholder_ZDRM();
+        assertTrue(alg.decompose(A));
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(original, A, 0));
+
+        ZMatrixRMaj U = alg.getU(null, false, compact);
+        ZMatrixRMaj B = alg.getB(null, compact);
+        ZMatrixRMaj V = alg.getV(null, false, compact);
+
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(U, UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(V, UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_ZDRM.isUpperTriangle(B, 1, 0));
+
+        // B must be real
+        for (int i = 0; i < B.getDataLength(); i += 2) {
+            assertEquals(0, B.data[i + 1]);
+        }
+
+        ZMatrixRMaj UB = new ZMatrixRMaj(A.numRows, A.numCols);
+        ZMatrixRMaj found = new ZMatrixRMaj(A.numRows, A.numCols);
+        CommonOps_ZDRM.mult(U, B, UB);
+        CommonOps_ZDRM.multTransB(UB, V, found);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(A, found, UtilEjml.TEST_F64));
+
+        // the transposed matrices should be the conjugate transpose
+        ZMatrixRMaj UH = alg.getU(null, true, compact);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(CommonOps_ZDRM.transposeConjugate(U, null), UH, 0));
+        ZMatrixRMaj VH = alg.getV(null, true, compact);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(CommonOps_ZDRM.transposeConjugate(V, null), VH, 0));
+
+        double[] diag = new double[A.numCols];
+        double[] off = new double[A.numCols];
+        alg.getDiagonal(diag, off);
+        for (int i = 0; i < A.numCols; i++) {
+            assertEquals(B.getReal(i, i), diag[i]);
+            if (i + 1 < A.numCols)
+                assertEquals(B.getReal(i, i + 1), off[i]);
+        }
+    }
+
+    @Test
+    void wide_exception() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new BidiagonalDecompositionHouseholder_ZDRM().decompose(new ZMatrixRMaj(2, 3)));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.eig;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.NormOps_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_ZDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEigenDecompositionHermitian_ZDRM extends EjmlStandardJUnit {
+    @Test
+    void random() {
+        for (int N = 1; N <= 12; N += 3) {
+            checkDecomposition(RandomMatrices_ZDRM.hermitian(N, -1, 1, rand));
+        }
+    }
+
+    /**
+     * Off diagonal elements which are zero will have no phase
+     */
+    @Test
+    void blockDiagonal() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.hermitian(5, -1, 1, rand);
+        for (int i = 0; i < 2; i++) {
+            for (int j = 2; j < 5; j++) {
+                A.set(i, j, 0, 0);
+                A.set(j, i, 0, 0);
+            }
+        }
+        checkDecomposition(A);
+
+        checkDecomposition(CommonOps_ZDRM.diag(1, 0, -2, 0, 3, 0));
+    }
+
+    /**
+     * A repeated eigenvalue should still produce orthogonal vectors
+     */
+    @Test
+    void identity() {
+        checkDecomposition(CommonOps_ZDRM.identity(4));
+    }
+
+    @Test
+    void valuesOnly() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.hermitian(7, -1, 1, rand);
+
+        EigenDecomposition_F64<ZMatrixRMaj> full = DecompositionFactory_ZDRM.eigHermitian(7, true);
+        EigenDecomposition_F64<ZMatrixRMaj> values = DecompositionFactory_ZDRM.eigHermitian(7, false);
+        assertTrue(DecompositionFactory_ZDRM.decomposeSafe(full, A));
+        assertTrue(DecompositionFactory_ZDRM.decomposeSafe(values, A));
+
+        double[] expected = new double[7];
+        double[] found = new double[7];
+        for (int i = 0; i < 7; i++) {
+            expected[i] = full.getEigenvalue(i).real;
+            found[i] = values.getEigenvalue(i).real;
+        }
+        Arrays.sort(expected);
+        Arrays.sort(found);
+        assertArrayEquals(expected, found, UtilEjml.TEST_F64);
+
+        assertThrows(IllegalArgumentException.class, () -> values.getEigenVector(0));
+    }
+
+    private void checkDecomposition( ZMatrixRMaj A ) {
+        int N = A.numRows;
+        EigenDecomposition_F64<ZMatrixRMaj> alg = DecompositionFactory_ZDRM.eigHermitian(N, true);
+        assertTrue(DecompositionFactory_ZDRM.decomposeSafe(alg, A));
+        assertEquals(N, alg.getNumberOfEigenvalues());
+
+        // eigenvectors as columns in a matrix
+        ZMatrixRMaj V = new ZMatrixRMaj(N, N);
+        ZMatrixRMaj Av = new ZMatrixRMaj(N, 1);
+        for (int i = 0; i < N; i++) {
+            Complex_F64 value = alg.getEigenvalue(i);
+            assertEquals(0, value.imaginary);
+
+            ZMatrixRMaj v = alg.getEigenVector(i);
+            assertEquals(1.0, NormOps_ZDRM.normF(v), UtilEjml.TEST_F64);
+            CommonOps_ZDRM.mult(A, v, Av);
+            for (int j = 0; j < N; j++) {
+                assertEquals(value.real*v.getReal(j, 0), Av.getReal(j, 0), UtilEjml.TEST_F64);
+                assertEquals(value.real*v.getImag(j, 0), Av.getImag(j, 0), UtilEjml.TEST_F64);
+            }
+            for (int j = 0; j < N; j++) {
+                V.set(j, i, v.getReal(j, 0), v.getImag(j, 0));
+            }
+        }
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(V, UtilEjml.TEST_F64));
+    }
+}
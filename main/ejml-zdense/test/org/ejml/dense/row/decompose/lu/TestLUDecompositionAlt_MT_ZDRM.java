@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.lu;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLUDecompositionAlt_MT_ZDRM extends GeneralLuDecompositionChecks_ZDRM {
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public LUDecompositionBase_ZDRM create( int numRows, int numCols ) {
+        var alg = new LUDecompositionAlt_MT_ZDRM();
+        // test matrices are small. Make sure the concurrent code is used
+        alg.setMinBlockSize(1);
+        return alg;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.qr;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestQRDecompositionHouseholderColumn_MT_ZDRM extends GenericQrCheck_ZDRM {
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    protected QRDecomposition<ZMatrixRMaj> createQRDecomposition() {
+        return new QRDecompositionHouseholderColumn_MT_ZDRM();
+    }
+
+    @Test
+    void compare() {
+        ZMatrixRMaj A = new ZMatrixRMaj(120, 40);
+
+        var single = new QRDecompositionHouseholderColumn_ZDRM();
+        var thread = new QRDecompositionHouseholderColumn_MT_ZDRM();
+
+        assertFalse(thread.inputModified());
+
+        for (int i = 0; i < 3; i++) {
+            RandomMatrices_ZDRM.fillUniform(A, -1, 1, rand);
+            assertTrue(single.decompose(A));
+            assertTrue(thread.decompose(A));
+
+            ZMatrixRMaj expQ = single.getQ(null, false);
+            ZMatrixRMaj expR = single.getR(null, false);
+
+            ZMatrixRMaj fndQ = thread.getQ(null, false);
+            ZMatrixRMaj fndR = thread.getR(null, false);
+
+            EjmlUnitTests.assertEquals(expQ, fndQ, UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(expR, fndR, UtilEjml.TEST_F64);
+        }
+    }
+}
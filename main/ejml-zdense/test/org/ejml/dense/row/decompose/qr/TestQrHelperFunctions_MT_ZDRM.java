@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.qr;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestQrHelperFunctions_MT_ZDRM extends EjmlStandardJUnit {
+    final int N = 100;
+    ZMatrixRMaj Q;
+    public double[] u = new double[N*2];
+    public double[] temp = new double[N*2];
+
+    @BeforeEach
+    void init() {
+        EjmlConcurrency.setMaxThreads(4);
+        Q = RandomMatrices_ZDRM.rectangle(N, N, -1, 1, rand);
+        for (int i = 0; i < u.length; i++) {
+            u[i] = rand.nextGaussian();
+        }
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    void rank1UpdateMultR_u0() {
+        ZMatrixRMaj expected = Q.copy();
+
+        QrHelperFunctions_MT_ZDRM.rank1UpdateMultR_u0(Q, u, 0.9, -0.3, 1.2, 1, 0, N, temp);
+        QrHelperFunctions_ZDRM.rank1UpdateMultR_u0(expected, u, 0.9, -0.3, 1.2, 1, 0, N, temp);
+
+        assertTrue(MatrixFeatures_ZDRM.isEquals(expected, Q, UtilEjml.TEST_F64));
+    }
+
+    /**
+     * The _u0 variant should produce the same results as when u is modified
+     */
+    @Test
+    void rank1UpdateMultR_u0_consistent() {
+        ZMatrixRMaj expected = Q.copy();
+        double[] u_mod = u.clone();
+        u_mod[4] = 0.9;
+        u_mod[5] = -0.3;
+
+        QrHelperFunctions_ZDRM.rank1UpdateMultR_u0(Q, u, 0.9, -0.3, 1.2, 1, 2, N, temp);
+        QrHelperFunctions_ZDRM.rank1UpdateMultR(expected, u_mod, 0, 1.2, 1, 2, N, temp);
+
+        assertTrue(MatrixFeatures_ZDRM.isEquals(expected, Q, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    void rank1UpdateMultR() {
+        ZMatrixRMaj expected = Q.copy();
+
+        QrHelperFunctions_MT_ZDRM.rank1UpdateMultR(Q, u, 0, 1.2, 1, 0, N, temp);
+        QrHelperFunctions_ZDRM.rank1UpdateMultR(expected, u, 0, 1.2, 1, 0, N, temp);
+
+        assertTrue(MatrixFeatures_ZDRM.isEquals(expected, Q, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    void rank1UpdateMultR_offU() {
+        ZMatrixRMaj expected = Q.copy();
+
+        QrHelperFunctions_MT_ZDRM.rank1UpdateMultR(Q, u, 1, 1.2, 0, 1, N - 1, temp);
+        QrHelperFunctions_ZDRM.rank1UpdateMultR(expected, u, 1, 1.2, 0, 1, N - 1, temp);
+
+        assertTrue(MatrixFeatures_ZDRM.isEquals(expected, Q, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    void rank1UpdateMultL() {
+        ZMatrixRMaj expected = Q.copy();
+
+        QrHelperFunctions_MT_ZDRM.rank1UpdateMultL(Q, u, 0, 1.2, 1, 0, N);
+        QrHelperFunctions_ZDRM.rank1UpdateMultL(expected, u, 0, 1.2, 1, 0, N);
+
+        assertTrue(MatrixFeatures_ZDRM.isEquals(expected, Q, UtilEjml.TEST_F64));
+    }
+}
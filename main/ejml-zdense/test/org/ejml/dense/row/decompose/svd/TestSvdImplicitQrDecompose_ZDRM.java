@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.svd;
+
+import org.ejml.EjmlStandardJUnit;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSvdImplicitQrDecompose_ZDRM extends EjmlStandardJUnit {
+    @Test
+    void decompose_shapes() {
+        for (boolean compact : new boolean[]{true, false}) {
+            for (int rows : new int[]{1, 2, 4, 7}) {
+                for (int cols : new int[]{1, 3, 7}) {
+                    ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(rows, cols, -1, 1, rand);
+                    checkDecomposition(A, compact);
+                }
+            }
+        }
+    }
+
+    /**
+     * Singular values of a real matrix must match the real SVD
+     */
+    @Test
+    void compareToReal() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6, 4, -1, 1, rand);
+        SingularValueDecomposition_F64<DMatrixRMaj> real = DecompositionFactory_DDRM.svd(6, 4, false, false, true);
+        assertTrue(real.decompose(A.copy()));
+
+        ZMatrixRMaj Z = new ZMatrixRMaj(6, 4);
+        for (int i = 0; i < A.getNumElements(); i++) {
+            Z.data[i*2] = A.data[i];
+        }
+        var alg = new SvdImplicitQrDecompose_ZDRM(true, false, false);
+        assertTrue(alg.decompose(Z));
+
+        double[] expected = real.getSingularValues().clone();
+        double[] found = alg.getSingularValues().clone();
+        Arrays.sort(expected, 0, 4);
+        Arrays.sort(found, 0, 4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * A rank 2 matrix should have two singular values which are zero
+     */
+    @Test
+    void rankDeficient() {
+        ZMatrixRMaj B = RandomMatrices_ZDRM.rectangle(5, 2, -1, 1, rand);
+        ZMatrixRMaj C = RandomMatrices_ZDRM.rectangle(2, 4, -1, 1, rand);
+        ZMatrixRMaj A = new ZMatrixRMaj(5, 4);
+        CommonOps_ZDRM.mult(B, C, A);
+
+        var alg = new SvdImplicitQrDecompose_ZDRM(false, true, true);
+        checkDecomposition(alg, A);
+
+        double[] found = alg.getSingularValues().clone();
+        Arrays.sort(found, 0, 4);
+        assertEquals(0, found[0], UtilEjml.TEST_F64);
+        assertEquals(0, found[1], UtilEjml.TEST_F64);
+        assertTrue(found[2] > 1e-4);
+    }
+
+    @Test
+    void notRequested_exception() {
+        var alg = new SvdImplicitQrDecompose_ZDRM(false, false, true);
+        assertTrue(alg.decompose(RandomMatrices_ZDRM.rectangle(3, 4, -1, 1, rand)));
+        assertThrows(IllegalArgumentException.class, () -> alg.getU(null, false));
+        assertNotNull(alg.getV(null, false));
+    }
+
+    @Test
+    void inputNotModified() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(4, 3, -1, 1, rand);
+        ZMatrixRMaj copy = A.copy();
+        var alg = new SvdImplicitQrDecompose_ZDRM(false, true, true);
+        assertFalse(alg.inputModified());
+        assertTrue(alg.decompose(A));
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(copy, A, 0));
+    }
+
+    private void checkDecomposition( ZMatrixRMaj A, boolean compact ) {
+        checkDecomposition(new SvdImplicitQrDecompose_ZDRM(compact, true, true), A);
+    }
+
+    private void checkDecomposition( SvdImplicitQrDecompose_ZDRM alg, ZMatrixRMaj A ) {
+        assertTrue(alg.decompose(A));
+        assertEquals(Math.min(A.numRows, A.numCols), alg.numberOfSingularValues());
+
+        ZMatrixRMaj U = alg.getU(null, false);
+        ZMatrixRMaj W = alg.getW(null);
+        ZMatrixRMaj V = alg.getV(null, false);
+
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(U, UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(V, UtilEjml.TEST_F64));
+        for (int i = 0; i < alg.numberOfSingularValues(); i++) {
+            assertTrue(alg.getSingularValues()[i] >= 0);
+        }
+
+        ZMatrixRMaj UW = new ZMatrixRMaj(U.numRows, W.numCols);
+        ZMatrixRMaj found = new ZMatrixRMaj(A.numRows, A.numCols);
+        CommonOps_ZDRM.mult(U, W, UW);
+        CommonOps_ZDRM.multTransB(UW, V, found);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(A, found, UtilEjml.TEST_F64));
+
+        ZMatrixRMaj UH = alg.getU(null, true);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(CommonOps_ZDRM.transposeConjugate(U, null), UH, 0));
+    }
+}
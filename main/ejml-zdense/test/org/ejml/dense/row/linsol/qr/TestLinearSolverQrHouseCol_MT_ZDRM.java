@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.linsol.qr;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.linsol.GenericLinearSolverChecks_ZDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverQrHouseCol_MT_ZDRM extends GenericLinearSolverChecks_ZDRM {
+    @BeforeEach void forceThreads() {
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void reset() {
+        EjmlConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    protected LinearSolverDense<ZMatrixRMaj> createSolver( ZMatrixRMaj A ) {
+        return new LinearSolverQrHouseCol_MT_ZDRM();
+    }
+
+    @Test void compare() {
+        ZMatrixRMaj A = new ZMatrixRMaj(150, 40);
+        ZMatrixRMaj B = new ZMatrixRMaj(150, 7);
+        ZMatrixRMaj expX = new ZMatrixRMaj(1, 1);
+        ZMatrixRMaj fndX = new ZMatrixRMaj(1, 1);
+
+        var single = new LinearSolverQrHouseCol_ZDRM();
+        var thread = new LinearSolverQrHouseCol_MT_ZDRM();
+
+        assertFalse(thread.modifiesA());
+        assertFalse(thread.modifiesB());
+
+        for (int i = 0; i < 3; i++) {
+            RandomMatrices_ZDRM.fillUniform(A, -1, 1, rand);
+            RandomMatrices_ZDRM.fillUniform(B, -1, 1, rand);
+            assertTrue(single.setA(A));
+            assertTrue(thread.setA(A));
+
+            single.solve(B, expX);
+            thread.solve(B, fndX);
+
+            EjmlUnitTests.assertEquals(expX, fndX, UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -22,10 +22,12 @@ import org.ejml.EjmlStandardJUnit;
 import org.ejml.UtilEjml;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
 import org.ejml.dense.row.RandomMatrices_ZDRM;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestTransposeAlgs_ZDRM extends EjmlStandardJUnit {
     @Test
@@ -111,4 +113,28 @@ public class TestTransposeAlgs_ZDRM extends EjmlStandardJUnit {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void block() {
+        ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(17, 23, -1, 1, rand);
+        ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(23, 17, -1, 1, rand);
+        ZMatrixRMaj expected = new ZMatrixRMaj(23, 17);
+
+        TransposeAlgs_ZDRM.standard(a, expected);
+        TransposeAlgs_ZDRM.block(a, b, 5);
+
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(expected, b, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void blockConjugate() {
+        ZMatrixRMaj a = RandomMatrices_ZDRM.rectangle(17, 23, -1, 1, rand);
+        ZMatrixRMaj b = RandomMatrices_ZDRM.rectangle(23, 17, -1, 1, rand);
+        ZMatrixRMaj expected = new ZMatrixRMaj(23, 17);
+
+        TransposeAlgs_ZDRM.standardConjugate(a, expected);
+        TransposeAlgs_ZDRM.blockConjugate(a, b, 5);
+
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(expected, b, UtilEjml.TEST_F64));
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.CheckMultiThreadAgainstSingleThread;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMatrixMult_MT_ZDRM extends CheckMultiThreadAgainstSingleThread {
+    public TestMatrixMatrixMult_MT_ZDRM() {
+        super(MatrixMatrixMult_ZDRM.class, MatrixMatrixMult_MT_ZDRM.class, 28);
+    }
+}